@@ -20,16 +20,34 @@ import com.box.l10n.mojito.rest.entity.PollableTask;
 import com.box.l10n.mojito.rest.entity.Repository;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import org.eclipse.jgit.blame.BlameResult;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.lib.ObjectId;
 import org.fusesource.jansi.Ansi;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -123,6 +141,32 @@ public class GitBlameCommand extends Command {
       converter = GitBlameOverrideConverter.class)
   OverrideType overrideType = OverrideType.NONE;
 
+  @Parameter(
+      names = {"--full"},
+      required = false,
+      description =
+          "Blame all the text units. By default, text units that already have git blame"
+              + " information are only blamed again if they are in files changed since the last"
+              + " blamed commit of the repository. Use it when the source file options change"
+              + " between runs")
+  boolean full = false;
+
+  @Parameter(
+      names = {"--state-directory"},
+      arity = 1,
+      required = false,
+      description =
+          "Directory where the last blamed commit of each repository is stored, defaults to a"
+              + " directory in the git directory")
+  String stateDirectoryParam;
+
+  @Parameter(
+      names = {"--threads"},
+      arity = 1,
+      required = false,
+      description = "Number of source files blamed in parallel")
+  int threads = Runtime.getRuntime().availableProcessors();
+
   @Autowired AssetClient assetClient;
 
   @Autowired RepositoryClient repositoryClient;
@@ -146,6 +190,22 @@ public class GitBlameCommand extends Command {
   Cache<String, BlameResult> getBlameResultForFileCache =
       CacheBuilder.newBuilder().softValues().build();
 
+  /**
+   * Paths of the files changed since the last blamed commit, {@code null} if all the files must be
+   * blamed
+   */
+  Set<String> changedPaths;
+
+  /** Commit whose files are blamed */
+  ObjectId headCommit;
+
+  /** Last blamed commit of the repository, {@code null} if all the files must be blamed */
+  ObjectId lastBlamedCommit;
+
+  ArrayList<FileMatch> sourceFileMatches;
+
+  ExecutorService executorService;
+
   @Override
   public void execute() throws CommandException {
 
@@ -158,6 +218,32 @@ public class GitBlameCommand extends Command {
 
     initGitRepository();
 
+    headCommit = resolveHead();
+    changedPaths = getChangedPathsSinceLastBlamedCommit(repository, headCommit);
+    executorService = Executors.newFixedThreadPool(threads);
+
+    try {
+      blameBatches(repository, pollableTasks);
+    } finally {
+      executorService.shutdownNow();
+    }
+
+    try {
+      logger.debug("Wait for all \"git-blame\" tasks to be finished");
+      for (PollableTask pollableTask : pollableTasks) {
+        commandHelper.waitForPollableTask(pollableTask.getId());
+      }
+    } catch (PollableTaskException e) {
+      throw new CommandException(e.getMessage(), e.getCause());
+    }
+
+    saveLastBlamedCommit(repository, headCommit);
+
+    consoleWriter.fg(Ansi.Color.GREEN).newLine().a("Finished").println(2);
+  }
+
+  void blameBatches(Repository repository, List<PollableTask> pollableTasks)
+      throws CommandException {
     int numGitBlameWithUsages;
     int offset = 0;
 
@@ -187,27 +273,123 @@ public class GitBlameCommand extends Command {
 
       offset += numGitBlameWithUsages;
 
-      blameWithTextUnitUsages(getGitBlameWithUsagesToProcess);
-      blameSourceFiles(getGitBlameWithUsagesToProcess);
+      blameGitBlameWithUsages(getGitBlameWithUsagesToProcess);
 
       pollableTasks.add(
           gitBlameWithUsageClient.saveGitBlameWithUsages(getGitBlameWithUsagesToProcess));
     } while (numGitBlameWithUsages == BATCH_SIZE);
+  }
 
+  /**
+   * Blames the text units with their usages first and then with the source files.
+   *
+   * <p>In an incremental run, only the text units whose git blame information may differ from the
+   * last blamed commit are blamed, see {@link #getGitBlameWithUsagesToBlame(List)}. They are blamed
+   * exactly like in a full run so that both runs give the same result.
+   *
+   * @param gitBlameWithUsages
+   * @throws CommandException
+   */
+  void blameGitBlameWithUsages(List<GitBlameWithUsage> gitBlameWithUsages) throws CommandException {
+    List<GitBlameWithUsage> gitBlameWithUsagesToBlame =
+        getGitBlameWithUsagesToBlame(gitBlameWithUsages);
+
+    logger.debug(
+        "Blame: {}, keep git blame information: {}",
+        gitBlameWithUsagesToBlame.size(),
+        gitBlameWithUsages.size() - gitBlameWithUsagesToBlame.size());
+
+    blameWithTextUnitUsages(gitBlameWithUsagesToBlame);
+    blameSourceFiles(gitBlameWithUsagesToBlame);
+  }
+
+  void initGitRepository() throws CommandException {
+    gitRepository.init(commandDirectories.getSourceDirectoryPath().toString());
+  }
+
+  ObjectId resolveHead() throws CommandException {
     try {
-      logger.debug("Wait for all \"git-blame\" tasks to be finished");
-      for (PollableTask pollableTask : pollableTasks) {
-        commandHelper.waitForPollableTask(pollableTask.getId());
+      return gitRepository.resolveHead();
+    } catch (IOException ioe) {
+      throw new CommandException("Can't resolve the HEAD commit", ioe);
+    }
+  }
+
+  File getLastBlamedCommitFile(Repository repository) {
+    File stateDirectory =
+        stateDirectoryParam != null
+            ? new File(stateDirectoryParam)
+            : new File(gitRepository.getDirectory(), "mojito-git-blame");
+    return new File(stateDirectory, "repository-" + repository.getId());
+  }
+
+  /**
+   * Gets the paths of the files changed since the last blamed commit of the repository.
+   *
+   * @return the changed paths, or {@code null} if all the files must be blamed: full blame
+   *     requested, first run or the last blamed commit is not available (eg. shallow clone)
+   */
+  Set<String> getChangedPathsSinceLastBlamedCommit(Repository repository, ObjectId headCommit) {
+    File lastBlamedCommitFile = getLastBlamedCommitFile(repository);
+    lastBlamedCommit = null;
+
+    if (full || headCommit == null || !lastBlamedCommitFile.isFile()) {
+      logger.debug("Blame all the files");
+      return null;
+    }
+
+    try {
+      String lastBlamedCommitName =
+          Files.readString(lastBlamedCommitFile.toPath(), StandardCharsets.UTF_8).trim();
+
+      if (!ObjectId.isId(lastBlamedCommitName)) {
+        logger.warn("Invalid last blamed commit: {}, blame all the files", lastBlamedCommitName);
+        return null;
       }
-    } catch (PollableTaskException e) {
-      throw new CommandException(e.getMessage(), e.getCause());
+
+      ObjectId lastBlamedCommitId = ObjectId.fromString(lastBlamedCommitName);
+      Set<String> changedPaths = gitRepository.getChangedPaths(lastBlamedCommitId, headCommit);
+      lastBlamedCommit = lastBlamedCommitId;
+
+      consoleWriter
+          .a("Files changed since last blamed commit: ")
+          .fg(CYAN)
+          .a(lastBlamedCommitName)
+          .reset()
+          .a(": ")
+          .fg(YELLOW)
+          .a(changedPaths.size())
+          .println();
+
+      return changedPaths;
+    } catch (IOException ioe) {
+      logger.warn("Can't get the files changed since the last blamed commit, blame all files", ioe);
+      return null;
     }
+  }
 
-    consoleWriter.fg(Ansi.Color.GREEN).newLine().a("Finished").println(2);
+  void saveLastBlamedCommit(Repository repository, ObjectId headCommit) {
+    if (headCommit == null) {
+      return;
+    }
+
+    Path lastBlamedCommitPath = getLastBlamedCommitFile(repository).toPath();
+    try {
+      Files.createDirectories(lastBlamedCommitPath.getParent());
+      Files.writeString(lastBlamedCommitPath, headCommit.getName(), StandardCharsets.UTF_8);
+    } catch (IOException ioe) {
+      logger.warn("Can't save the last blamed commit, next run will blame all the files", ioe);
+    }
   }
 
-  void initGitRepository() throws CommandException {
-    gitRepository.init(commandDirectories.getSourceDirectoryPath().toString());
+  boolean isChangedPath(String relativePath) {
+    return changedPaths == null
+        || changedPaths.contains(relativePath.replace(File.separatorChar, '/'));
+  }
+
+  boolean hasBlameInformation(GitBlameWithUsage gitBlameWithUsage) {
+    return gitBlameWithUsage.getGitBlame() != null
+        && gitBlameWithUsage.getGitBlame().getCommitName() != null;
   }
 
   /**
@@ -237,7 +419,149 @@ public class GitBlameCommand extends Command {
   }
 
   /**
-   * Runs git-blame on each line of the file
+   * Gets the text units to blame.
+   *
+   * <p>In a full run, all of them. In an incremental run, a text unit that has git blame
+   * information keeps it unless the files it is blamed from may have changed since the last blamed
+   * commit: one of its usages is in a changed file or its name is in a changed source file, in the
+   * current or in the last blamed content of the file.
+   *
+   * @param gitBlameWithUsages
+   * @return the text units to blame, in the order of the given list
+   * @throws CommandException
+   */
+  List<GitBlameWithUsage> getGitBlameWithUsagesToBlame(List<GitBlameWithUsage> gitBlameWithUsages)
+      throws CommandException {
+    if (changedPaths == null) {
+      return gitBlameWithUsages;
+    }
+
+    Set<GitBlameWithUsage> gitBlameWithUsagesInChangedFiles =
+        getGitBlameWithUsagesInChangedFiles(
+            gitBlameWithUsages.stream()
+                .filter(this::hasBlameInformation)
+                .collect(Collectors.toList()));
+
+    return gitBlameWithUsages.stream()
+        .filter(
+            gitBlameWithUsage ->
+                !hasBlameInformation(gitBlameWithUsage)
+                    || gitBlameWithUsagesInChangedFiles.contains(gitBlameWithUsage))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Gets the text units that have a usage in a changed file or whose name is in a changed source
+   * file.
+   *
+   * <p>Source files deleted or renamed since the last blamed commit are not found anymore so their
+   * file type is unknown: their last blamed content is matched with all the file types.
+   *
+   * @param gitBlameWithUsages
+   * @return the text units in changed files
+   * @throws CommandException
+   */
+  Set<GitBlameWithUsage> getGitBlameWithUsagesInChangedFiles(
+      List<GitBlameWithUsage> gitBlameWithUsages) throws CommandException {
+    Set<GitBlameWithUsage> gitBlameWithUsagesInChangedFiles =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+
+    if (gitBlameWithUsages.isEmpty()) {
+      return gitBlameWithUsagesInChangedFiles;
+    }
+
+    for (GitBlameWithUsage gitBlameWithUsage : gitBlameWithUsages) {
+      if (gitBlameWithUsage.getUsages() != null
+          && gitBlameWithUsage.getUsages().stream()
+              .anyMatch(usage -> isChangedPath(getUsageFileName(usage)))) {
+        gitBlameWithUsagesInChangedFiles.add(gitBlameWithUsage);
+      }
+    }
+
+    Map<FileType, MultiSubstringMatcher<GitBlameWithUsage>> matchers = new LinkedHashMap<>();
+    Set<String> sourcePaths = new HashSet<>();
+
+    for (FileMatch sourceFileMatch : getSourceFileMatches()) {
+      FileType fileType = sourceFileMatch.getFileType();
+      if (GitBlameType.TEXT_UNIT_USAGES.equals(fileType.getGitBlameType())) {
+        continue;
+      }
+
+      MultiSubstringMatcher<GitBlameWithUsage> matcher =
+          matchers.computeIfAbsent(
+              fileType, ft -> getTextUnitNameInSourceMatcher(gitBlameWithUsages, ft));
+
+      String sourceRelativePath = getSourceRelativePath(sourceFileMatch);
+      sourcePaths.add(sourceRelativePath.replace(File.separatorChar, '/'));
+
+      if (isChangedPath(sourceRelativePath)) {
+        addMatches(
+            gitBlameWithUsagesInChangedFiles,
+            getFileContent(headCommit, sourceRelativePath),
+            List.of(matcher));
+        addMatches(
+            gitBlameWithUsagesInChangedFiles,
+            getFileContent(lastBlamedCommit, sourceRelativePath),
+            List.of(matcher));
+      }
+    }
+
+    for (String changedPath : changedPaths) {
+      if (!sourcePaths.contains(changedPath) && getFileContent(headCommit, changedPath) == null) {
+        addMatches(
+            gitBlameWithUsagesInChangedFiles,
+            getFileContent(lastBlamedCommit, changedPath),
+            matchers.values());
+      }
+    }
+
+    return gitBlameWithUsagesInChangedFiles;
+  }
+
+  void addMatches(
+      Set<GitBlameWithUsage> gitBlameWithUsages,
+      RawText content,
+      Collection<MultiSubstringMatcher<GitBlameWithUsage>> matchers) {
+    if (content == null) {
+      return;
+    }
+
+    for (int i = 0; i < content.size(); i++) {
+      String line = content.getString(i);
+      for (MultiSubstringMatcher<GitBlameWithUsage> matcher : matchers) {
+        gitBlameWithUsages.addAll(matcher.getMatches(line));
+      }
+    }
+  }
+
+  /**
+   * Gets the content of a file in a commit.
+   *
+   * @param commit the commit, can be {@code null}
+   * @param relativePath path relative to the work tree
+   * @return the content, or {@code null} if there is no commit or the file is not in the commit
+   * @throws CommandException if the file can't be read
+   */
+  RawText getFileContent(ObjectId commit, String relativePath) throws CommandException {
+    if (commit == null) {
+      return null;
+    }
+
+    try {
+      return gitRepository.getFileContent(commit, relativePath);
+    } catch (IOException ioe) {
+      throw new CommandException(
+          "Can't read file: " + relativePath + " in commit: " + commit.getName(), ioe);
+    }
+  }
+
+  /**
+   * Runs git-blame on each line of the source files that contain text units, blaming files in
+   * parallel.
+   *
+   * <p>The lines are matched against the names of all the text units in a single pass and only the
+   * files with matches are blamed. Matches are applied in the order of the source files so that the
+   * result doesn't depend on the order in which the files are blamed.
    *
    * @param gitBlameWithUsages
    * @throws CommandException
@@ -245,50 +569,117 @@ public class GitBlameCommand extends Command {
   void blameSourceFiles(List<GitBlameWithUsage> gitBlameWithUsages) throws CommandException {
     logger.debug("blameSourceFiles");
 
-    ArrayList<FileMatch> sourceFileMatches =
-        commandHelper.getSourceFileMatches(
-            commandDirectories,
-            fileTypes,
-            sourceLocale,
-            sourcePathFilterRegex,
-            directoriesIncludePatterns,
-            directoriesExcludePatterns);
-
-    for (FileMatch sourceFileMatch : sourceFileMatches) {
-      if (GitBlameType.TEXT_UNIT_USAGES.equals(sourceFileMatch.getFileType().getGitBlameType())) {
+    if (gitBlameWithUsages.isEmpty()) {
+      logger.debug("No text unit to blame in source files");
+      return;
+    }
+
+    Map<FileType, MultiSubstringMatcher<GitBlameWithUsage>> matchers = new HashMap<>();
+    List<Future<SourceFileBlame>> sourceFileBlameFutures = new ArrayList<>();
+
+    for (FileMatch sourceFileMatch : getSourceFileMatches()) {
+      FileType fileType = sourceFileMatch.getFileType();
+      if (GitBlameType.TEXT_UNIT_USAGES.equals(fileType.getGitBlameType())) {
         continue;
       }
-      logger.debug("Processing source file: {}", sourceFileMatch.getPath().toString());
-
-      Path sourceRelativePath =
-          gitRepository.getWorkTree().toPath().relativize(sourceFileMatch.getPath());
-      BlameResult blameResultForFile =
-          gitRepository.getBlameResultForFile(sourceRelativePath.toString());
-
-      if (blameResultForFile != null) {
-        for (int i = 0; i < blameResultForFile.getResultContents().size(); i++) {
-          String lineText = blameResultForFile.getResultContents().getString(i);
-
-          List<GitBlameWithUsage> gitBlameWithUsageList =
-              getGitBlameWithUsagesFromLine(
-                  lineText, gitBlameWithUsages, sourceFileMatch.getFileType());
-          for (GitBlameWithUsage gitBlameWithUsage : gitBlameWithUsageList) {
-            try {
-              updateBlameResultsInGitBlameWithUsage(i, blameResultForFile, gitBlameWithUsage);
-            } catch (LineMissingException lme) {
-              throw new RuntimeException("Processing source file, this must not happen", lme);
-            }
-          }
-        }
-      } else {
+
+      String sourceRelativePath = getSourceRelativePath(sourceFileMatch);
+      MultiSubstringMatcher<GitBlameWithUsage> matcher =
+          matchers.computeIfAbsent(
+              fileType, ft -> getTextUnitNameInSourceMatcher(gitBlameWithUsages, ft));
+
+      sourceFileBlameFutures.add(
+          executorService.submit(() -> blameSourceFile(sourceRelativePath, matcher)));
+    }
+
+    for (Future<SourceFileBlame> sourceFileBlameFuture : sourceFileBlameFutures) {
+      SourceFileBlame sourceFileBlame = getSourceFileBlame(sourceFileBlameFuture);
+
+      if (!sourceFileBlame.inGit()) {
         consoleWriter
             .a("Source file:")
             .fg(CYAN)
-            .a(sourceRelativePath.toString())
+            .a(sourceFileBlame.relativePath())
             .reset()
             .a(" not in Git. Skip it.");
+        continue;
+      }
+
+      for (LineMatches lineMatches : sourceFileBlame.lineMatches()) {
+        for (GitBlameWithUsage gitBlameWithUsage : lineMatches.gitBlameWithUsages()) {
+          try {
+            updateBlameResultsInGitBlameWithUsage(
+                lineMatches.lineNumber(), sourceFileBlame.blameResult(), gitBlameWithUsage);
+          } catch (LineMissingException lme) {
+            throw new RuntimeException("Processing source file, this must not happen", lme);
+          }
+        }
+      }
+    }
+  }
+
+  String getSourceRelativePath(FileMatch sourceFileMatch) {
+    return gitRepository.getWorkTree().toPath().relativize(sourceFileMatch.getPath()).toString();
+  }
+
+  SourceFileBlame blameSourceFile(
+      String sourceRelativePath, MultiSubstringMatcher<GitBlameWithUsage> matcher)
+      throws CommandException {
+    logger.debug("Processing source file: {}", sourceRelativePath);
+
+    RawText content = getFileContent(headCommit, sourceRelativePath);
+    if (content == null) {
+      return new SourceFileBlame(sourceRelativePath, false, null, List.of());
+    }
+
+    List<LineMatches> lineMatches = new ArrayList<>();
+    for (int i = 0; i < content.size(); i++) {
+      List<GitBlameWithUsage> matches = matcher.getMatches(content.getString(i));
+      if (!matches.isEmpty()) {
+        lineMatches.add(new LineMatches(i, matches));
+      }
+    }
+
+    if (lineMatches.isEmpty()) {
+      logger.debug("No text unit in source file: {}, skip blame", sourceRelativePath);
+      return new SourceFileBlame(sourceRelativePath, true, null, lineMatches);
+    }
+
+    try {
+      return new SourceFileBlame(
+          sourceRelativePath, true, getBlameResultForFileCached(sourceRelativePath), lineMatches);
+    } catch (NoSuchFileException e) {
+      return new SourceFileBlame(sourceRelativePath, false, null, List.of());
+    }
+  }
+
+  SourceFileBlame getSourceFileBlame(Future<SourceFileBlame> sourceFileBlameFuture)
+      throws CommandException {
+    try {
+      return sourceFileBlameFuture.get();
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ie);
+    } catch (ExecutionException ee) {
+      if (ee.getCause() instanceof CommandException commandException) {
+        throw commandException;
       }
+      throw new CommandException(ee.getCause());
+    }
+  }
+
+  ArrayList<FileMatch> getSourceFileMatches() throws CommandException {
+    if (sourceFileMatches == null) {
+      sourceFileMatches =
+          commandHelper.getSourceFileMatches(
+              commandDirectories,
+              fileTypes,
+              sourceLocale,
+              sourcePathFilterRegex,
+              directoriesIncludePatterns,
+              directoriesExcludePatterns);
     }
+    return sourceFileMatches;
   }
 
   /**
@@ -305,13 +696,9 @@ public class GitBlameCommand extends Command {
       if (gitBlameWithUsage.getUsages() != null && gitBlameWithUsage.getUsages().size() > 0) {
 
         for (String usage : gitBlameWithUsage.getUsages()) {
-          String filename = getFileName(usage);
+          String filename = getUsageFileName(usage);
           int line = getLineNumber(usage);
 
-          if (extractedFilePrefix != null) {
-            filename = filename.replaceFirst("^" + extractedFilePrefix, "");
-          }
-
           try {
             BlameResult blameResultForFile = getBlameResultForFileCached(filename);
             updateBlameResultsInGitBlameWithUsage(line, blameResultForFile, gitBlameWithUsage);
@@ -384,24 +771,31 @@ public class GitBlameCommand extends Command {
    */
   List<GitBlameWithUsage> getGitBlameWithUsagesFromLine(
       String line, List<GitBlameWithUsage> gitBlameWithUsages, FileType fileType) {
+    return getTextUnitNameInSourceMatcher(gitBlameWithUsages, fileType).getMatches(line);
+  }
 
-    List<GitBlameWithUsage> gitBlameWithUsagesWithLine = new ArrayList<>();
-
-    if (line != null) {
-      for (GitBlameWithUsage gitBlameWithUsage : gitBlameWithUsages) {
-        String textUnitNameInSource =
-            textUnitNameToTextUnitNameInSource(
-                gitBlameWithUsage.getTextUnitName(),
-                fileType,
-                gitBlameWithUsage.getPluralForm() != null);
-        if (line.contains(textUnitNameInSource)) {
-          logger.debug(
-              "Found match for string in source file: {} in line: {}", textUnitNameInSource, line);
-          gitBlameWithUsagesWithLine.add(gitBlameWithUsage);
-        }
-      }
+  /**
+   * Builds a matcher that finds the text units whose name in source is contained in a line. Lines
+   * are matched in a single pass whatever the number of text units.
+   *
+   * @param gitBlameWithUsages
+   * @param fileType
+   * @return the matcher, matches are returned in the order of the given list
+   */
+  MultiSubstringMatcher<GitBlameWithUsage> getTextUnitNameInSourceMatcher(
+      List<GitBlameWithUsage> gitBlameWithUsages, FileType fileType) {
+    MultiSubstringMatcher.Builder<GitBlameWithUsage> builder = MultiSubstringMatcher.builder();
+
+    for (GitBlameWithUsage gitBlameWithUsage : gitBlameWithUsages) {
+      builder.add(
+          textUnitNameToTextUnitNameInSource(
+              gitBlameWithUsage.getTextUnitName(),
+              fileType,
+              gitBlameWithUsage.getPluralForm() != null),
+          gitBlameWithUsage);
     }
-    return gitBlameWithUsagesWithLine;
+
+    return builder.build();
   }
 
   /**
@@ -455,6 +849,22 @@ public class GitBlameCommand extends Command {
     return usage.split(":")[0];
   }
 
+  /**
+   * Extracts the file name from the given usage, relative to the work tree
+   *
+   * @param usage
+   * @return
+   */
+  String getUsageFileName(String usage) {
+    String filename = getFileName(usage);
+
+    if (extractedFilePrefix != null) {
+      filename = filename.replaceFirst("^" + extractedFilePrefix, "");
+    }
+
+    return filename;
+  }
+
   /**
    * Extracts the line number from the given usage Must account for difference in line numbers
    * starting with 1 in file and 0 in array
@@ -472,6 +882,14 @@ public class GitBlameCommand extends Command {
     }
   }
 
+  record LineMatches(int lineNumber, List<GitBlameWithUsage> gitBlameWithUsages) {}
+
+  /**
+   * @param blameResult {@code null} if the file is not in git or has no line matches
+   */
+  record SourceFileBlame(
+      String relativePath, boolean inGit, BlameResult blameResult, List<LineMatches> lineMatches) {}
+
   /** Enum use to tell what entries should be overriden */
   public enum OverrideType {
     NONE,
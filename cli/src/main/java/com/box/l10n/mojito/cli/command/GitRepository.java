@@ -6,12 +6,18 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.text.MessageFormat;
+import java.util.HashSet;
+import java.util.Set;
 import org.eclipse.jgit.api.BlameCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.blame.BlameResult;
+import org.eclipse.jgit.diff.RawText;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -146,6 +152,56 @@ public class GitRepository {
     }
   }
 
+  /**
+   * Gets the paths of the files that differ between two commits. A renamed file is reported with
+   * both its old and new paths.
+   *
+   * @param fromCommit
+   * @param toCommit
+   * @return paths relative to the work tree
+   * @throws IOException if a commit can't be read, eg. missing in a shallow clone
+   */
+  public Set<String> getChangedPaths(ObjectId fromCommit, ObjectId toCommit) throws IOException {
+    Set<String> changedPaths = new HashSet<>();
+
+    try (RevWalk revWalk = new RevWalk(jgitRepository);
+        TreeWalk treeWalk = new TreeWalk(jgitRepository)) {
+      treeWalk.addTree(revWalk.parseCommit(fromCommit).getTree());
+      treeWalk.addTree(revWalk.parseCommit(toCommit).getTree());
+      treeWalk.setRecursive(true);
+      treeWalk.setFilter(TreeFilter.ANY_DIFF);
+
+      while (treeWalk.next()) {
+        changedPaths.add(treeWalk.getPathString());
+      }
+    }
+
+    return changedPaths;
+  }
+
+  /**
+   * Gets the content of a file in a commit.
+   *
+   * @param commit
+   * @param filePath path relative to the work tree
+   * @return the content, or {@code null} if the file is not in the commit
+   * @throws IOException if the commit or the file can't be read
+   */
+  public RawText getFileContent(ObjectId commit, String filePath) throws IOException {
+    try (RevWalk revWalk = new RevWalk(jgitRepository);
+        TreeWalk treeWalk =
+            TreeWalk.forPath(
+                jgitRepository,
+                filePath.replace(File.separatorChar, '/'),
+                revWalk.parseCommit(commit).getTree())) {
+      if (treeWalk == null) {
+        return null;
+      }
+      return new RawText(
+          jgitRepository.open(treeWalk.getObjectId(0)).getCachedBytes(Integer.MAX_VALUE));
+    }
+  }
+
   public ObjectId resolve(String revision) throws IOException {
     ObjectId objectId = jgitRepository.resolve(revision);
     if (objectId == null && "HEAD".equals(revision)) {
@@ -0,0 +1,180 @@
+package com.box.l10n.mojito.cli.command;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over characters: finds which of a set of substrings are contained in a
+ * text in a single pass over the text, whatever the number of substrings.
+ *
+ * <p>Each substring is added with a value, the same substring can be added multiple times with
+ * different values. Empty substrings are contained in any text, like with {@link
+ * String#contains(CharSequence)}.
+ *
+ * <p>Instances are immutable once built and can be shared between threads.
+ */
+public class MultiSubstringMatcher<T> {
+
+  private static final int ROOT = 0;
+  private static final int NONE = -1;
+
+  private final char[][] transitionChars;
+  private final int[][] transitionStates;
+  private final int[] failures;
+  private final int[] outputLinks;
+  private final int[][] valueIndexes;
+  private final Object[] values;
+
+  private MultiSubstringMatcher(Builder<T> builder) {
+    int stateCount = builder.children.size();
+    this.transitionChars = new char[stateCount][];
+    this.transitionStates = new int[stateCount][];
+    this.valueIndexes = new int[stateCount][];
+    this.failures = new int[stateCount];
+    this.outputLinks = new int[stateCount];
+    this.values = builder.values.toArray();
+
+    for (int state = 0; state < stateCount; state++) {
+      Map<Character, Integer> children = builder.children.get(state);
+      transitionChars[state] = new char[children.size()];
+      transitionStates[state] = new int[children.size()];
+      int i = 0;
+      for (Map.Entry<Character, Integer> child : children.entrySet()) {
+        transitionChars[state][i] = child.getKey();
+        transitionStates[state][i] = child.getValue();
+        i++;
+      }
+      valueIndexes[state] = builder.valueIndexes.get(state).stream().mapToInt(v -> v).toArray();
+    }
+
+    computeFailuresAndOutputLinks();
+  }
+
+  public static <T> Builder<T> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * Gets the values of the substrings contained in the text.
+   *
+   * @return the values in the order they were added, without duplicates, an empty list if the text
+   *     is {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public List<T> getMatches(String text) {
+    List<T> matches = new ArrayList<>();
+
+    if (text != null) {
+      BitSet matched = new BitSet(values.length);
+      addValues(ROOT, matched);
+
+      int state = ROOT;
+      for (int i = 0; i < text.length(); i++) {
+        state = next(state, text.charAt(i));
+        for (int output = valueIndexes[state].length > 0 ? state : outputLinks[state];
+            output != NONE && output != ROOT;
+            output = outputLinks[output]) {
+          addValues(output, matched);
+        }
+      }
+
+      for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+        matches.add((T) values[i]);
+      }
+    }
+
+    return matches;
+  }
+
+  private void addValues(int state, BitSet matched) {
+    for (int valueIndex : valueIndexes[state]) {
+      matched.set(valueIndex);
+    }
+  }
+
+  private int next(int state, char c) {
+    while (true) {
+      int nextState = transition(state, c);
+      if (nextState != NONE) {
+        return nextState;
+      }
+      if (state == ROOT) {
+        return ROOT;
+      }
+      state = failures[state];
+    }
+  }
+
+  private int transition(int state, char c) {
+    int index = Arrays.binarySearch(transitionChars[state], c);
+    return index >= 0 ? transitionStates[state][index] : NONE;
+  }
+
+  private void computeFailuresAndOutputLinks() {
+    failures[ROOT] = ROOT;
+    outputLinks[ROOT] = NONE;
+
+    Deque<Integer> queue = new ArrayDeque<>();
+    for (int child : transitionStates[ROOT]) {
+      failures[child] = ROOT;
+      outputLinks[child] = NONE;
+      queue.add(child);
+    }
+
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      for (int i = 0; i < transitionChars[state].length; i++) {
+        char c = transitionChars[state][i];
+        int child = transitionStates[state][i];
+
+        int failure = next(failures[state], c);
+        failures[child] = failure;
+        outputLinks[child] =
+            failure != ROOT && valueIndexes[failure].length > 0 ? failure : outputLinks[failure];
+        queue.add(child);
+      }
+    }
+  }
+
+  public static class Builder<T> {
+
+    private final List<Map<Character, Integer>> children = new ArrayList<>();
+    private final List<List<Integer>> valueIndexes = new ArrayList<>();
+    private final List<T> values = new ArrayList<>();
+
+    Builder() {
+      addState();
+    }
+
+    public Builder<T> add(String substring, T value) {
+      int state = ROOT;
+      for (int i = 0; i < substring.length(); i++) {
+        Integer nextState = children.get(state).get(substring.charAt(i));
+        if (nextState == null) {
+          nextState = addState();
+          children.get(state).put(substring.charAt(i), nextState);
+        }
+        state = nextState;
+      }
+      valueIndexes.get(state).add(values.size());
+      values.add(value);
+      return this;
+    }
+
+    public MultiSubstringMatcher<T> build() {
+      return new MultiSubstringMatcher<>(this);
+    }
+
+    private int addState() {
+      children.add(new TreeMap<>());
+      valueIndexes.add(new ArrayList<>());
+      return children.size() - 1;
+    }
+  }
+}
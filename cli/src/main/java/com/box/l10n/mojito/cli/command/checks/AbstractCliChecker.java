@@ -1,20 +1,12 @@
 package com.box.l10n.mojito.cli.command.checks;
 
-import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
 
 import com.box.l10n.mojito.cli.command.extraction.AssetExtractionDiff;
 import com.box.l10n.mojito.okapi.extractor.AssetExtractorTextUnit;
-import com.google.common.collect.Sets;
-import com.google.common.collect.Sets.SetView;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 public abstract class AbstractCliChecker {
 
@@ -35,6 +27,17 @@ public abstract class AbstractCliChecker {
 
   public abstract CliCheckResult run(List<AssetExtractionDiff> assetExtractionDiffs);
 
+  /**
+   * Runs the check against a diff that is shared with the other checkers, see {@link
+   * CliCheckerExecutor}.
+   *
+   * <p>Checkers that work on sources, words or placeholders should override this to reuse the
+   * tokens of the shared diff. By default it runs {@link #run(List)} on the raw diffs.
+   */
+  public CliCheckResult run(TokenizedExtractionDiff tokenizedExtractionDiff) {
+    return run(tokenizedExtractionDiff.getAssetExtractionDiffs());
+  }
+
   public boolean isHardFail() {
     return cliCheckerOptions.getHardFailureSet().contains(getCliCheckerType());
   }
@@ -121,54 +124,12 @@ public abstract class AbstractCliChecker {
    */
   protected List<AssetExtractorTextUnit> getAddedTextUnitsExcludingInconsistentComments(
       List<AssetExtractionDiff> assetExtractionDiffs) {
-    return assetExtractionDiffs.stream()
-        .map(
-            assetExtractionDiff -> {
-              Map<String, AssetExtractorTextUnit> mapNameAndContentToRemovedTextUnit =
-                  assetExtractionDiff.getRemovedTextunits().stream()
-                      .collect(
-                          toMap(
-                              assetExtractorTextUnit ->
-                                  assetExtractorTextUnit.getName()
-                                      + assetExtractorTextUnit.getSource(),
-                              identity()));
-
-              return assetExtractionDiff.getAddedTextunits().stream()
-                  .filter(
-                      addedTextUnit -> {
-                        boolean shouldIncludeTextUnit = true;
-
-                        AssetExtractorTextUnit removed =
-                            mapNameAndContentToRemovedTextUnit.get(
-                                addedTextUnit.getName() + addedTextUnit.getSource());
-                        if (removed != null) {
-                          Set<String> commentsInRemoved = getCommentsAsSet(removed);
-                          Set<String> commentsInAdded = getCommentsAsSet(addedTextUnit);
-                          SetView<String> inAddedButNotInRemoved =
-                              Sets.difference(commentsInAdded, commentsInRemoved);
-                          if (inAddedButNotInRemoved.isEmpty()) {
-                            // there is no new comments introduced (ie. one or many have been
-                            // removed, or order may have changed). We don't need to review the text
-                            // unit
-                            shouldIncludeTextUnit = false;
-                          }
-                        }
-
-                        return shouldIncludeTextUnit;
-                      })
-                  .collect(toList());
-            })
-        .flatMap(List::stream)
-        .collect(toList());
+    return TokenizedExtractionDiff.getAddedTextUnitsExcludingInconsistentComments(
+        assetExtractionDiffs);
   }
 
-  Set<String> getCommentsAsSet(AssetExtractorTextUnit removedTextUnit) {
-    Set<String> comments = Collections.emptySet();
-    if (removedTextUnit.getComments() != null) {
-      comments =
-          Arrays.stream(removedTextUnit.getComments().split("\n")).collect(Collectors.toSet());
-    }
-    return comments;
+  Set<String> getCommentsAsSet(AssetExtractorTextUnit assetExtractorTextUnit) {
+    return TokenizedExtractionDiff.getCommentsAsSet(assetExtractorTextUnit);
   }
 
   protected CliCheckResult createCliCheckerResult() {
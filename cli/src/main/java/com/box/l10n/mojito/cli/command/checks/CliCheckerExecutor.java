@@ -1,20 +1,80 @@
 package com.box.l10n.mojito.cli.command.checks;
 
+import com.box.l10n.mojito.cli.command.CommandException;
 import com.box.l10n.mojito.cli.command.extraction.AssetExtractionDiff;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
+/**
+ * Runs the checkers against the diff.
+ *
+ * <p>The diff is tokenized once in a {@link TokenizedExtractionDiff} shared by all checkers, which
+ * run concurrently on a bounded pool. Results are returned in the order of the checker list.
+ */
 public class CliCheckerExecutor {
 
   private final List<AbstractCliChecker> cliCheckerList;
 
+  private final int parallelism;
+
   public CliCheckerExecutor(List<AbstractCliChecker> cliCheckerList) {
+    this(cliCheckerList, Runtime.getRuntime().availableProcessors());
+  }
+
+  public CliCheckerExecutor(List<AbstractCliChecker> cliCheckerList, int parallelism) {
     this.cliCheckerList = cliCheckerList;
+    this.parallelism = parallelism;
   }
 
   public List<CliCheckResult> executeChecks(List<AssetExtractionDiff> assetExtractionDiffs) {
-    return cliCheckerList.stream()
-        .map(check -> check.run(assetExtractionDiffs))
-        .collect(Collectors.toList());
+    return executeChecks(new TokenizedExtractionDiff(assetExtractionDiffs));
+  }
+
+  public List<CliCheckResult> executeChecks(TokenizedExtractionDiff tokenizedExtractionDiff) {
+    int poolSize = Math.min(cliCheckerList.size(), parallelism);
+
+    if (poolSize <= 1) {
+      return cliCheckerList.stream()
+          .map(check -> check.run(tokenizedExtractionDiff))
+          .collect(Collectors.toList());
+    }
+
+    ExecutorService executorService = Executors.newFixedThreadPool(poolSize);
+    try {
+      List<Future<CliCheckResult>> futures =
+          cliCheckerList.stream()
+              .map(check -> executorService.submit(() -> check.run(tokenizedExtractionDiff)))
+              .collect(Collectors.toList());
+
+      List<CliCheckResult> cliCheckResults = new ArrayList<>();
+      for (Future<CliCheckResult> future : futures) {
+        cliCheckResults.add(getResult(future));
+      }
+      return cliCheckResults;
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private CliCheckResult getResult(Future<CliCheckResult> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CommandException("Interrupted while running the checks", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      } else if (e.getCause() instanceof Error error) {
+        // eg. hunspell native libraries not available, same as when running sequentially
+        throw error;
+      }
+      throw new CommandException("Check failed: " + e.getCause().getMessage(), e.getCause());
+    }
   }
 }
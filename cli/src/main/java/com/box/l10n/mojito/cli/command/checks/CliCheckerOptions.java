@@ -4,6 +4,7 @@ import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.CONTEX
 import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.CONTEXT_COMMENT_REJECT_PATTERN_KEY;
 import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.DICTIONARY_ADDITIONS_PATH_KEY;
 import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.DICTIONARY_AFFIX_FILE_PATH_KEY;
+import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.DICTIONARY_CACHE_DIRECTORY_KEY;
 import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.DICTIONARY_FILE_PATH_KEY;
 import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.GLOSSARY_FILE_PATH_KEY;
 import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.RECOMMEND_STRING_ID_LABEL_IGNORE_PATTERN_KEY;
@@ -51,6 +52,10 @@ public class CliCheckerOptions {
     return optionsMap.get(DICTIONARY_AFFIX_FILE_PATH_KEY.getKey());
   }
 
+  public String getDictionaryCacheDirectory() {
+    return optionsMap.get(DICTIONARY_CACHE_DIRECTORY_KEY.getKey());
+  }
+
   public String getContextCommentRejectPattern() {
     return optionsMap.get(CONTEXT_COMMENT_REJECT_PATTERN_KEY.getKey());
   }
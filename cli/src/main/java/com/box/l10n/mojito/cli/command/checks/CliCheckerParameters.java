@@ -5,6 +5,7 @@ public enum CliCheckerParameters {
   GLOSSARY_FILE_PATH_KEY("glossaryFilePath"),
   DICTIONARY_FILE_PATH_KEY("dictionaryFilePath"),
   DICTIONARY_AFFIX_FILE_PATH_KEY("dictionaryAffixFilePath"),
+  DICTIONARY_CACHE_DIRECTORY_KEY("dictionaryCacheDirectory"),
   CONTEXT_COMMENT_REJECT_PATTERN_KEY("contextCommentRejectPattern"),
   RECOMMEND_STRING_ID_LABEL_IGNORE_PATTERN_KEY("recommendStringIdLabelIgnorePattern"),
   CONTEXT_COMMENT_PLURAL_SKIP("contextCommentSkipPlurals");
@@ -17,8 +17,13 @@ public class ControlCharacterChecker extends AbstractCliChecker {
 
   @Override
   public CliCheckResult run(List<AssetExtractionDiff> assetExtractionDiffs) {
+    return run(new TokenizedExtractionDiff(assetExtractionDiffs));
+  }
+
+  @Override
+  public CliCheckResult run(TokenizedExtractionDiff tokenizedExtractionDiff) {
     List<String> failures =
-        getSourceStringsFromDiff(assetExtractionDiffs).stream()
+        tokenizedExtractionDiff.getAddedSources().stream()
             .map(this::getControlCharacterCheckerResult)
             .filter(result -> !result.isSuccessful)
             .map(result -> result.failureText)
@@ -6,7 +6,6 @@ import com.box.l10n.mojito.cli.command.extraction.AssetExtractionDiff;
 import com.box.l10n.mojito.regex.PlaceholderRegularExpressions;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -29,8 +28,13 @@ public class EmptyPlaceholderChecker extends AbstractCliChecker {
 
   @Override
   public CliCheckResult run(List<AssetExtractionDiff> assetExtractionDiffs) {
+    return run(new TokenizedExtractionDiff(assetExtractionDiffs));
+  }
+
+  @Override
+  public CliCheckResult run(TokenizedExtractionDiff tokenizedExtractionDiff) {
     CliCheckResult cliCheckResult = createCliCheckerResult();
-    Set<String> failures = checkForEmptyPlaceholders(assetExtractionDiffs);
+    Set<String> failures = checkForEmptyPlaceholders(tokenizedExtractionDiff);
     if (!failures.isEmpty()) {
       cliCheckResult.setSuccessful(false);
       cliCheckResult.setNotificationText(buildNotificationText(failures).toString());
@@ -39,17 +43,17 @@ public class EmptyPlaceholderChecker extends AbstractCliChecker {
     return cliCheckResult;
   }
 
-  private Set<String> checkForEmptyPlaceholders(List<AssetExtractionDiff> assetExtractionDiffs) {
+  private Set<String> checkForEmptyPlaceholders(TokenizedExtractionDiff tokenizedExtractionDiff) {
+    Set<String> sources = tokenizedExtractionDiff.getDistinctAddedSources();
     return cliCheckerOptions.getParameterRegexSet().stream()
         .filter(regex -> isEmptyPlaceholderRegex(regex))
         .flatMap(
             placeholderRegularExpressions ->
-                getAddedTextUnitsExcludingInconsistentComments(assetExtractionDiffs).stream()
-                    .map(assetExtractorTextUnit -> assetExtractorTextUnit.getSource())
+                sources.stream()
                     .filter(
                         source ->
                             isSourceStringWithEmptyPlaceholders(
-                                placeholderRegularExpressions, source)))
+                                tokenizedExtractionDiff, placeholderRegularExpressions, source)))
         .collect(Collectors.toSet());
   }
 
@@ -59,10 +63,12 @@ public class EmptyPlaceholderChecker extends AbstractCliChecker {
   }
 
   private boolean isSourceStringWithEmptyPlaceholders(
-      PlaceholderRegularExpressions placeholderRegularExpressions, String source) {
-    Matcher matcher = Pattern.compile(placeholderRegularExpressions.getRegex()).matcher(source);
-    while (matcher.find()) {
-      String placeholder = source.substring(matcher.start(), matcher.end());
+      TokenizedExtractionDiff tokenizedExtractionDiff,
+      PlaceholderRegularExpressions placeholderRegularExpressions,
+      String source) {
+    for (TokenizedExtractionDiff.Placeholder match :
+        tokenizedExtractionDiff.getPlaceholders(source, placeholderRegularExpressions)) {
+      String placeholder = match.text();
       logger.debug("Found placeholder '{}' in source string '{}'", placeholder, source);
       if (!wordPattern.matcher(placeholder).find()) {
         logger.debug("Found empty placeholder '{}' in source string '{}'", placeholder, source);
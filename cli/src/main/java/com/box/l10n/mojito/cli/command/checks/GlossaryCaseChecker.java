@@ -15,11 +15,16 @@ public class GlossaryCaseChecker extends AbstractCliChecker {
 
   @Override
   public CliCheckResult run(List<AssetExtractionDiff> assetExtractionDiffs) {
+    return run(new TokenizedExtractionDiff(assetExtractionDiffs));
+  }
+
+  @Override
+  public CliCheckResult run(TokenizedExtractionDiff tokenizedExtractionDiff) {
     CliCheckResult cliCheckResult = createCliCheckerResult();
     try {
       GlossaryTermCaseCheckerTrie glossaryTermCaseCheckerTrie = getGlossaryTermTrie();
       List<GlossaryCaseCheckerSearchResult> failures =
-          getGlossarySearchResults(glossaryTermCaseCheckerTrie, assetExtractionDiffs);
+          getGlossarySearchResults(glossaryTermCaseCheckerTrie, tokenizedExtractionDiff);
       if (!failures.isEmpty()) {
         if (failures.stream().anyMatch(result -> result.isMajorFailure())) {
           cliCheckResult.setSuccessful(false);
@@ -38,13 +43,10 @@ public class GlossaryCaseChecker extends AbstractCliChecker {
 
   private List<GlossaryCaseCheckerSearchResult> getGlossarySearchResults(
       GlossaryTermCaseCheckerTrie glossaryTermCaseCheckerTrie,
-      List<AssetExtractionDiff> assetExtractionDiffs) {
+      TokenizedExtractionDiff tokenizedExtractionDiff) {
     List<GlossaryCaseCheckerSearchResult> failures =
-        getAddedTextUnitsExcludingInconsistentComments(assetExtractionDiffs).stream()
-            .map(
-                assetExtractorTextUnit ->
-                    glossaryTermCaseCheckerTrie.runGlossaryCaseCheck(
-                        assetExtractorTextUnit.getSource()))
+        tokenizedExtractionDiff.getDistinctAddedSources().stream()
+            .map(glossaryTermCaseCheckerTrie::runGlossaryCaseCheck)
             .filter(result -> !result.isSuccess())
             .collect(Collectors.toList());
     return failures;
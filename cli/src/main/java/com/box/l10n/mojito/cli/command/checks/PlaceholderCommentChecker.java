@@ -27,10 +27,15 @@ public class PlaceholderCommentChecker extends AbstractCliChecker {
 
   @Override
   public CliCheckResult run(List<AssetExtractionDiff> assetExtractionDiffs) {
+    return run(new TokenizedExtractionDiff(assetExtractionDiffs));
+  }
+
+  @Override
+  public CliCheckResult run(TokenizedExtractionDiff tokenizedExtractionDiff) {
     CliCheckResult cliCheckResult =
         new CliCheckResult(isHardFail(), CliCheckerType.PLACEHOLDER_COMMENT_CHECKER.name());
     Map<String, List<String>> failureMap =
-        checkForPlaceholderDescriptionsInComment(assetExtractionDiffs);
+        checkForPlaceholderDescriptionsInComment(tokenizedExtractionDiff.getAddedTextUnits());
     if (!failureMap.isEmpty()) {
       cliCheckResult.setSuccessful(false);
       cliCheckResult.setNotificationText(buildNotificationText(failureMap).toString());
@@ -39,11 +44,11 @@ public class PlaceholderCommentChecker extends AbstractCliChecker {
   }
 
   protected Map<String, List<String>> checkForPlaceholderDescriptionsInComment(
-      List<AssetExtractionDiff> assetExtractionDiffs) {
+      List<AssetExtractorTextUnit> addedTextUnits) {
     List<AbstractPlaceholderDescriptionCheck> placeholderDescriptionChecks =
         getPlaceholderCommentChecks();
 
-    return getAddedTextUnitsExcludingInconsistentComments(assetExtractionDiffs).stream()
+    return addedTextUnits.stream()
         .map(
             assetExtractorTextUnit ->
                 getPlaceholderCommentCheckResult(
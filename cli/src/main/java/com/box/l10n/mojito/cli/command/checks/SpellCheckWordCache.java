@@ -0,0 +1,158 @@
+package com.box.l10n.mojito.cli.command.checks;
+
+import com.box.l10n.mojito.cli.command.CommandException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Results of hunspell spell checks by word, so that words seen in previous runs are not checked
+ * again.
+ *
+ * <p>When persisted, the cache file name is a hash of the dictionary, affix and dictionary
+ * additions files: updating any of them starts a new cache instead of serving stale results.
+ */
+class SpellCheckWordCache {
+
+  static Logger logger = LoggerFactory.getLogger(SpellCheckWordCache.class);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final Path cacheFile;
+
+  private final Set<String> correctWords = ConcurrentHashMap.newKeySet();
+
+  private final Map<String, List<String>> misspelledWords = new ConcurrentHashMap<>();
+
+  private volatile boolean updated = false;
+
+  private SpellCheckWordCache(Path cacheFile) {
+    this.cacheFile = cacheFile;
+  }
+
+  /** A cache that only lives for the duration of the run. */
+  static SpellCheckWordCache inMemory() {
+    return new SpellCheckWordCache(null);
+  }
+
+  /**
+   * A cache persisted in the directory, versioned by the content of the dictionary files.
+   *
+   * @param cacheDirectory directory holding the cache files
+   * @param dictionaryFiles files the spell check results depend on, missing files are ignored
+   */
+  static SpellCheckWordCache load(Path cacheDirectory, List<Path> dictionaryFiles) {
+    SpellCheckWordCache spellCheckWordCache =
+        new SpellCheckWordCache(
+            cacheDirectory.resolve(
+                "spell-check-" + getDictionaryVersion(dictionaryFiles) + ".json"));
+    spellCheckWordCache.read();
+    return spellCheckWordCache;
+  }
+
+  static String getDictionaryVersion(List<Path> dictionaryFiles) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (Path dictionaryFile : dictionaryFiles) {
+      if (dictionaryFile != null && Files.exists(dictionaryFile)) {
+        try {
+          byte[] content = Files.readAllBytes(dictionaryFile);
+          hasher.putInt(content.length).putBytes(content);
+        } catch (IOException e) {
+          throw new CommandException("Can't read dictionary file: " + dictionaryFile, e);
+        }
+      } else {
+        hasher.putInt(-1);
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  boolean isCorrect(String word) {
+    return correctWords.contains(word);
+  }
+
+  /**
+   * @return the suggestions for a word known to be misspelled, {@code null} if the word has not
+   *     been checked yet or is correct
+   */
+  List<String> getSuggestions(String word) {
+    return misspelledWords.get(word);
+  }
+
+  void putCorrect(String word) {
+    correctWords.add(word);
+    updated = true;
+  }
+
+  void putMisspelled(String word, List<String> suggestions) {
+    misspelledWords.put(word, List.copyOf(suggestions));
+    updated = true;
+  }
+
+  /**
+   * Writes the cache if it is persisted and has new entries. The file is replaced atomically so
+   * that concurrent runs sharing the directory never read a partial file.
+   *
+   * <p>The cache is an optimization, failing to write it only logs a warning.
+   */
+  void save() {
+    if (cacheFile == null || !updated) {
+      return;
+    }
+
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      Path tmpFile = Files.createTempFile(cacheFile.getParent(), "spell-check-", ".tmp");
+      try {
+        objectMapper.writeValue(
+            tmpFile.toFile(), new Content(Set.copyOf(correctWords), Map.copyOf(misspelledWords)));
+        Files.move(
+            tmpFile,
+            cacheFile,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmpFile);
+      }
+      updated = false;
+    } catch (IOException e) {
+      logger.warn("Can't write spell check cache: {}", cacheFile, e);
+    }
+  }
+
+  private void read() {
+    if (!Files.exists(cacheFile)) {
+      logger.debug("No spell check cache at: {}", cacheFile);
+      return;
+    }
+
+    try {
+      Content content = objectMapper.readValue(cacheFile.toFile(), Content.class);
+      if (content.correctWords() != null) {
+        correctWords.addAll(content.correctWords());
+      }
+      if (content.misspelledWords() != null) {
+        misspelledWords.putAll(content.misspelledWords());
+      }
+      logger.debug(
+          "Loaded {} correct and {} misspelled words from spell check cache: {}",
+          correctWords.size(),
+          misspelledWords.size(),
+          cacheFile);
+    } catch (IOException e) {
+      logger.warn("Can't read spell check cache, ignoring it: {}", cacheFile, e);
+    }
+  }
+
+  record Content(Set<String> correctWords, Map<String, List<String>> misspelledWords) {}
+}
@@ -4,18 +4,16 @@ import static com.box.l10n.mojito.cli.command.extractioncheck.ExtractionCheckNot
 
 import com.box.l10n.mojito.cli.command.CommandException;
 import com.box.l10n.mojito.cli.command.extraction.AssetExtractionDiff;
-import com.box.l10n.mojito.regex.PlaceholderRegularExpressions;
 import dumonts.hunspell.Hunspell;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
@@ -37,6 +35,10 @@ public class SpellCliChecker extends AbstractCliChecker {
 
   private Hunspell hunspell;
 
+  private boolean additionalWordsLoaded = false;
+
+  private SpellCheckWordCache spellCheckWordCache;
+
   static class SpellCliCheckerResult {
 
     String source;
@@ -83,11 +85,15 @@ public class SpellCliChecker extends AbstractCliChecker {
 
   @Override
   public CliCheckResult run(List<AssetExtractionDiff> assetExtractionDiffs) {
+    return run(new TokenizedExtractionDiff(assetExtractionDiffs));
+  }
+
+  @Override
+  public CliCheckResult run(TokenizedExtractionDiff tokenizedExtractionDiff) {
     checkDictionaryFiles();
-    hunspell = getHunspellInstance();
-    List<String> sourceStrings = getSourceStringsFromDiff(assetExtractionDiffs);
-    loadAdditionalWordsToDictionary(cliCheckerOptions.getDictionaryAdditionsFilePath());
-    Map<String, Map<String, List<String>>> failureMap = spellCheck(sourceStrings);
+    spellCheckWordCache = getSpellCheckWordCache();
+    Map<String, Map<String, List<String>>> failureMap = spellCheck(tokenizedExtractionDiff);
+    spellCheckWordCache.save();
     CliCheckResult cliCheckResult = createCliCheckerResult();
     if (!failureMap.isEmpty()) {
       cliCheckResult.setSuccessful(false);
@@ -122,83 +128,61 @@ public class SpellCliChecker extends AbstractCliChecker {
     }
   }
 
-  private Map<String, Map<String, List<String>>> spellCheck(List<String> sourceStrings) {
+  /**
+   * Words are spell checked against a cache: persisted in the "dictionaryCacheDirectory" option if
+   * provided, else only kept for the run.
+   */
+  private SpellCheckWordCache getSpellCheckWordCache() {
+    SpellCheckWordCache wordCache;
+    if (StringUtils.isBlank(cliCheckerOptions.getDictionaryCacheDirectory())) {
+      wordCache = SpellCheckWordCache.inMemory();
+    } else {
+      List<Path> dictionaryFiles = new ArrayList<>();
+      dictionaryFiles.add(Paths.get(cliCheckerOptions.getDictionaryFilePath()));
+      dictionaryFiles.add(Paths.get(cliCheckerOptions.getDictionaryAffixFilePath()));
+      if (!StringUtils.isBlank(cliCheckerOptions.getDictionaryAdditionsFilePath())) {
+        dictionaryFiles.add(Paths.get(cliCheckerOptions.getDictionaryAdditionsFilePath()));
+      }
+      wordCache =
+          SpellCheckWordCache.load(
+              Paths.get(cliCheckerOptions.getDictionaryCacheDirectory()), dictionaryFiles);
+    }
+    return wordCache;
+  }
+
+  private Map<String, Map<String, List<String>>> spellCheck(
+      TokenizedExtractionDiff tokenizedExtractionDiff) {
 
-    return sourceStrings.stream()
-        .map(sourceString -> getSpellCliCheckerResult(sourceString))
+    return tokenizedExtractionDiff.getDistinctAddedSources().stream()
+        .map(sourceString -> getSpellCliCheckerResult(tokenizedExtractionDiff, sourceString))
         .filter(result -> !result.isSuccessful())
-        .distinct()
         .collect(
             Collectors.toMap(
                 SpellCliCheckerResult::getSource, SpellCliCheckerResult::getSuggestionMap));
   }
 
-  private SpellCliCheckerResult getSpellCliCheckerResult(String sourceString) {
+  private SpellCliCheckerResult getSpellCliCheckerResult(
+      TokenizedExtractionDiff tokenizedExtractionDiff, String sourceString) {
     SpellCliCheckerResult result =
         new SpellCliCheckerResult(
             sourceString,
             spellCheckSourceString(
-                CheckerUtils.getWordsInString(removePlaceholdersFromString(sourceString))));
+                tokenizedExtractionDiff.getWords(
+                    sourceString, cliCheckerOptions.getParameterRegexSet())));
     if (!result.getSuggestionMap().isEmpty()) {
       result.setSuccessful(false);
     }
     return result;
   }
 
-  private String removePlaceholdersFromString(String sourceString) {
-    String stringWithoutPlaceholders = sourceString;
-    for (PlaceholderRegularExpressions regex : cliCheckerOptions.getParameterRegexSet()) {
-      stringWithoutPlaceholders = removePlaceholders(stringWithoutPlaceholders, regex);
-    }
-    return stringWithoutPlaceholders;
-  }
-
-  private String removePlaceholders(
-      String stringWithoutPlaceholders, PlaceholderRegularExpressions regex) {
-    if (regex.equals(PlaceholderRegularExpressions.SINGLE_BRACE_REGEX)
-        || regex.equals(PlaceholderRegularExpressions.DOUBLE_BRACE_REGEX)) {
-      stringWithoutPlaceholders = removeBracketedPlaceholders(stringWithoutPlaceholders);
-    } else {
-      stringWithoutPlaceholders = stringWithoutPlaceholders.replaceAll(regex.getRegex(), "");
-    }
-    return stringWithoutPlaceholders;
-  }
-
-  private String removeBracketedPlaceholders(String stringWithoutPlaceholders) {
-    int index = stringWithoutPlaceholders.indexOf("{");
-    while (index != -1 && stringWithoutPlaceholders.contains("}")) {
-      int associatedClosingBraceIndex = getEndOfPlaceholderIndex(stringWithoutPlaceholders, index);
-      stringWithoutPlaceholders =
-          stringWithoutPlaceholders.substring(0, index)
-              + stringWithoutPlaceholders.substring(associatedClosingBraceIndex + 1);
-      index = stringWithoutPlaceholders.indexOf("{");
-    }
-    return stringWithoutPlaceholders;
-  }
-
-  private int getEndOfPlaceholderIndex(String str, int startIndex) {
-    ArrayDeque<Character> stack = new ArrayDeque<>();
-    int indexCount = startIndex;
-    for (Character c : str.substring(startIndex).toCharArray()) {
-      if (c.equals('{')) {
-        stack.push(c);
-        indexCount++;
-        continue;
-      } else if (c.equals('}')) {
-        if (stack.isEmpty()) {
-          throw new CommandException("Invalid number of opening brackets in string.");
-        }
-        stack.pop();
-        if (stack.isEmpty()) {
-          return indexCount;
-        }
-      }
-      indexCount++;
-    }
-    if (!stack.isEmpty()) {
-      throw new CommandException("Invalid number of closing brackets in string.");
+  /** Hunspell is only loaded, with the additional words, once a word is not found in the cache. */
+  private Hunspell getLoadedHunspell() {
+    hunspell = getHunspellInstance();
+    if (!additionalWordsLoaded) {
+      loadAdditionalWordsToDictionary(cliCheckerOptions.getDictionaryAdditionsFilePath());
+      additionalWordsLoaded = true;
     }
-    return -1;
+    return hunspell;
   }
 
   private void loadAdditionalWordsToDictionary(String additionalWordsFilePath) {
@@ -222,14 +206,21 @@ public class SpellCliChecker extends AbstractCliChecker {
 
   private Map<String, List<String>> spellCheckSourceString(List<String> words) {
     Map<String, List<String>> failureMap = new HashMap<>();
-    Set<String> checked = new HashSet<>();
     for (String word : words) {
-      if (!checked.contains(word) && !hunspell.spell(word)) {
-        List<String> suggestions = hunspell.suggest(word);
+      if (!failureMap.containsKey(word) && !spellCheckWordCache.isCorrect(word)) {
+        List<String> suggestions = spellCheckWordCache.getSuggestions(word);
+        if (suggestions == null) {
+          Hunspell loadedHunspell = getLoadedHunspell();
+          if (loadedHunspell.spell(word)) {
+            spellCheckWordCache.putCorrect(word);
+            continue;
+          }
+          suggestions = loadedHunspell.suggest(word);
+          spellCheckWordCache.putMisspelled(word, suggestions);
+        }
         logger.debug(
             "{} is spelt incorrectly. Suggested correct spellings are {}", word, suggestions);
         failureMap.put(word, suggestions);
-        checked.add(word);
       }
     }
     return failureMap;
@@ -0,0 +1,217 @@
+package com.box.l10n.mojito.cli.command.checks;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+import com.box.l10n.mojito.cli.command.CommandException;
+import com.box.l10n.mojito.cli.command.extraction.AssetExtractionDiff;
+import com.box.l10n.mojito.okapi.extractor.AssetExtractorTextUnit;
+import com.box.l10n.mojito.regex.PlaceholderRegularExpressions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Added text units of asset extraction diffs with the tokens the checkers look at: words and
+ * placeholders of the sources.
+ *
+ * <p>The added text units are computed once for all checkers. Tokens are computed the first time a
+ * checker asks for them and then shared, so that checkers running concurrently don't each re-walk
+ * the diffs and re-tokenize the same strings. Instances are safe to use from multiple threads.
+ */
+public class TokenizedExtractionDiff {
+
+  private final List<AssetExtractionDiff> assetExtractionDiffs;
+  private final List<AssetExtractorTextUnit> addedTextUnits;
+  private final List<String> addedSources;
+
+  private final Map<PlaceholderRegularExpressions, Pattern> patterns = new ConcurrentHashMap<>();
+  private final Map<PlaceholdersKey, List<Placeholder>> placeholders = new ConcurrentHashMap<>();
+  private final Map<WordsKey, List<String>> words = new ConcurrentHashMap<>();
+
+  public TokenizedExtractionDiff(List<AssetExtractionDiff> assetExtractionDiffs) {
+    this.assetExtractionDiffs = ImmutableList.copyOf(assetExtractionDiffs);
+    this.addedTextUnits =
+        Collections.unmodifiableList(
+            getAddedTextUnitsExcludingInconsistentComments(assetExtractionDiffs));
+    this.addedSources =
+        Collections.unmodifiableList(
+            addedTextUnits.stream().map(AssetExtractorTextUnit::getSource).collect(toList()));
+  }
+
+  public List<AssetExtractionDiff> getAssetExtractionDiffs() {
+    return assetExtractionDiffs;
+  }
+
+  /**
+   * @see AbstractCliChecker#getAddedTextUnitsExcludingInconsistentComments(List)
+   */
+  public List<AssetExtractorTextUnit> getAddedTextUnits() {
+    return addedTextUnits;
+  }
+
+  /** Sources of {@link #getAddedTextUnits()}, in the same order, including duplicates. */
+  public List<String> getAddedSources() {
+    return addedSources;
+  }
+
+  public Set<String> getDistinctAddedSources() {
+    return new LinkedHashSet<>(addedSources);
+  }
+
+  /** Placeholders matched by the regular expression in the source, in order of appearance. */
+  public List<Placeholder> getPlaceholders(
+      String source, PlaceholderRegularExpressions placeholderRegularExpression) {
+    return placeholders.computeIfAbsent(
+        new PlaceholdersKey(source, placeholderRegularExpression),
+        key -> {
+          List<Placeholder> found = new ArrayList<>();
+          Matcher matcher = getPattern(placeholderRegularExpression).matcher(source);
+          while (matcher.find()) {
+            found.add(new Placeholder(matcher.group(), matcher.start(), matcher.end()));
+          }
+          return Collections.unmodifiableList(found);
+        });
+  }
+
+  /**
+   * Words of the source once placeholders, html tags and emails are removed, see {@link
+   * CheckerUtils#getWordsInString(String)}.
+   *
+   * @throws CommandException if braces of a bracketed placeholder are not balanced
+   */
+  public List<String> getWords(
+      String source, Set<PlaceholderRegularExpressions> placeholderRegularExpressions) {
+    return words.computeIfAbsent(
+        new WordsKey(source, ImmutableSet.copyOf(placeholderRegularExpressions)),
+        key ->
+            Collections.unmodifiableList(
+                CheckerUtils.getWordsInString(
+                    removePlaceholders(source, placeholderRegularExpressions))));
+  }
+
+  private Pattern getPattern(PlaceholderRegularExpressions placeholderRegularExpression) {
+    return patterns.computeIfAbsent(
+        placeholderRegularExpression, regex -> Pattern.compile(regex.getRegex()));
+  }
+
+  private String removePlaceholders(
+      String source, Set<PlaceholderRegularExpressions> placeholderRegularExpressions) {
+    String stringWithoutPlaceholders = source;
+    for (PlaceholderRegularExpressions regex : placeholderRegularExpressions) {
+      if (regex.equals(PlaceholderRegularExpressions.SINGLE_BRACE_REGEX)
+          || regex.equals(PlaceholderRegularExpressions.DOUBLE_BRACE_REGEX)) {
+        stringWithoutPlaceholders = removeBracketedPlaceholders(stringWithoutPlaceholders);
+      } else {
+        stringWithoutPlaceholders =
+            getPattern(regex).matcher(stringWithoutPlaceholders).replaceAll("");
+      }
+    }
+    return stringWithoutPlaceholders;
+  }
+
+  private String removeBracketedPlaceholders(String stringWithoutPlaceholders) {
+    int index = stringWithoutPlaceholders.indexOf("{");
+    while (index != -1 && stringWithoutPlaceholders.contains("}")) {
+      int associatedClosingBraceIndex = getEndOfPlaceholderIndex(stringWithoutPlaceholders, index);
+      stringWithoutPlaceholders =
+          stringWithoutPlaceholders.substring(0, index)
+              + stringWithoutPlaceholders.substring(associatedClosingBraceIndex + 1);
+      index = stringWithoutPlaceholders.indexOf("{");
+    }
+    return stringWithoutPlaceholders;
+  }
+
+  private int getEndOfPlaceholderIndex(String str, int startIndex) {
+    ArrayDeque<Character> stack = new ArrayDeque<>();
+    int indexCount = startIndex;
+    for (Character c : str.substring(startIndex).toCharArray()) {
+      if (c.equals('{')) {
+        stack.push(c);
+        indexCount++;
+        continue;
+      } else if (c.equals('}')) {
+        if (stack.isEmpty()) {
+          throw new CommandException("Invalid number of opening brackets in string.");
+        }
+        stack.pop();
+        if (stack.isEmpty()) {
+          return indexCount;
+        }
+      }
+      indexCount++;
+    }
+    if (!stack.isEmpty()) {
+      throw new CommandException("Invalid number of closing brackets in string.");
+    }
+    return -1;
+  }
+
+  /**
+   * @see AbstractCliChecker#getAddedTextUnitsExcludingInconsistentComments(List)
+   */
+  static List<AssetExtractorTextUnit> getAddedTextUnitsExcludingInconsistentComments(
+      List<AssetExtractionDiff> assetExtractionDiffs) {
+    return assetExtractionDiffs.stream()
+        .map(
+            assetExtractionDiff -> {
+              Map<String, AssetExtractorTextUnit> mapNameAndContentToRemovedTextUnit =
+                  assetExtractionDiff.getRemovedTextunits().stream()
+                      .collect(
+                          toMap(
+                              assetExtractorTextUnit ->
+                                  assetExtractorTextUnit.getName()
+                                      + assetExtractorTextUnit.getSource(),
+                              identity()));
+
+              return assetExtractionDiff.getAddedTextunits().stream()
+                  .filter(
+                      addedTextUnit -> {
+                        AssetExtractorTextUnit removed =
+                            mapNameAndContentToRemovedTextUnit.get(
+                                addedTextUnit.getName() + addedTextUnit.getSource());
+                        // no new comments introduced (ie. one or many have been removed, or order
+                        // may have changed), the text unit doesn't need to be reviewed
+                        return removed == null
+                            || !Sets.difference(
+                                    getCommentsAsSet(addedTextUnit), getCommentsAsSet(removed))
+                                .isEmpty();
+                      })
+                  .collect(toList());
+            })
+        .flatMap(List::stream)
+        .collect(toList());
+  }
+
+  static Set<String> getCommentsAsSet(AssetExtractorTextUnit assetExtractorTextUnit) {
+    Set<String> comments = Collections.emptySet();
+    if (assetExtractorTextUnit.getComments() != null) {
+      comments =
+          Arrays.stream(assetExtractorTextUnit.getComments().split("\n"))
+              .collect(Collectors.toSet());
+    }
+    return comments;
+  }
+
+  /** A placeholder and its position in the source, end is exclusive. */
+  public record Placeholder(String text, int start, int end) {}
+
+  private record PlaceholdersKey(
+      String source, PlaceholderRegularExpressions placeholderRegularExpression) {}
+
+  private record WordsKey(
+      String source, Set<PlaceholderRegularExpressions> placeholderRegularExpressions) {}
+}
@@ -6,28 +6,43 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.RETURNS_SELF;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 
 import com.box.l10n.mojito.cli.CLITestBase;
+import com.box.l10n.mojito.cli.console.ConsoleWriter;
+import com.box.l10n.mojito.cli.filefinder.FileMatch;
 import com.box.l10n.mojito.cli.filefinder.file.AndroidStringsFileType;
 import com.box.l10n.mojito.cli.filefinder.file.ChromeExtensionJSONFileType;
 import com.box.l10n.mojito.cli.filefinder.file.FileType;
 import com.box.l10n.mojito.cli.filefinder.file.POFileType;
+import com.box.l10n.mojito.cli.filefinder.file.PropertiesFileType;
 import com.box.l10n.mojito.entity.Repository;
 import com.box.l10n.mojito.rest.entity.GitBlame;
 import com.box.l10n.mojito.rest.entity.GitBlameWithUsage;
 import com.box.l10n.mojito.service.gitblame.GitBlameService;
 import com.box.l10n.mojito.service.tm.search.TextUnitSearcherParameters;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.blame.BlameResult;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.junit.Assume;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +63,8 @@ public class GitBlameCommandTest extends CLITestBase {
    */
   boolean shallowClone = true;
 
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Test
   public void android() throws Exception {
     Assume.assumeFalse(isGitActions());
@@ -396,6 +413,242 @@ public class GitBlameCommandTest extends CLITestBase {
     assertFalse(gitBlameWithUsagesToProcess.contains(toSkip));
   }
 
+  @Test
+  public void getChangedPathsSinceLastBlamedCommit() throws Exception {
+    File workTree = temporaryFolder.newFolder("repo").getCanonicalFile();
+    File stateDirectory = temporaryFolder.newFolder("state");
+    com.box.l10n.mojito.rest.entity.Repository repository = getRestRepository();
+
+    try (Git git = Git.init().setDirectory(workTree).call()) {
+      RevCommit firstCommit =
+          commitFiles(git, "first", Map.of("a.properties", "a=A\n", "b.properties", "b=B\n"));
+      RevCommit secondCommit = commitFiles(git, "second", Map.of("a.properties", "a=A2\n"));
+
+      GitBlameCommand gitBlameCommand = getGitBlameCommand(workTree, stateDirectory);
+      assertNull(gitBlameCommand.getChangedPathsSinceLastBlamedCommit(repository, secondCommit));
+      assertNull(gitBlameCommand.lastBlamedCommit);
+
+      gitBlameCommand.saveLastBlamedCommit(repository, firstCommit);
+      assertEquals(
+          Set.of("a.properties"),
+          gitBlameCommand.getChangedPathsSinceLastBlamedCommit(repository, secondCommit));
+      assertEquals(firstCommit.getName(), gitBlameCommand.lastBlamedCommit.getName());
+
+      gitBlameCommand.full = true;
+      assertNull(gitBlameCommand.getChangedPathsSinceLastBlamedCommit(repository, secondCommit));
+      assertNull(gitBlameCommand.lastBlamedCommit);
+
+      gitBlameCommand.full = false;
+      Files.writeString(
+          gitBlameCommand.getLastBlamedCommitFile(repository).toPath(),
+          "not a commit",
+          StandardCharsets.UTF_8);
+      assertNull(gitBlameCommand.getChangedPathsSinceLastBlamedCommit(repository, secondCommit));
+    }
+  }
+
+  @Test
+  public void saveLastBlamedCommit() throws Exception {
+    File workTree = temporaryFolder.newFolder("repo").getCanonicalFile();
+    File stateDirectory = temporaryFolder.newFolder("state");
+    com.box.l10n.mojito.rest.entity.Repository repository = getRestRepository();
+
+    try (Git git = Git.init().setDirectory(workTree).call()) {
+      RevCommit commit = commitFiles(git, "first", Map.of("a.properties", "a=A\n"));
+
+      GitBlameCommand gitBlameCommand = getGitBlameCommand(workTree, null);
+      gitBlameCommand.saveLastBlamedCommit(repository, null);
+      assertFalse(gitBlameCommand.getLastBlamedCommitFile(repository).exists());
+
+      gitBlameCommand.saveLastBlamedCommit(repository, commit);
+      assertEquals(
+          new File(workTree, ".git/mojito-git-blame/repository-" + repository.getId())
+              .getCanonicalFile(),
+          gitBlameCommand.getLastBlamedCommitFile(repository).getCanonicalFile());
+      assertEquals(
+          commit.getName(),
+          Files.readString(gitBlameCommand.getLastBlamedCommitFile(repository).toPath()));
+
+      gitBlameCommand.stateDirectoryParam = stateDirectory.getAbsolutePath();
+      gitBlameCommand.saveLastBlamedCommit(repository, commit);
+      assertEquals(
+          commit.getName(),
+          Files.readString(new File(stateDirectory, "repository-" + repository.getId()).toPath()));
+    }
+  }
+
+  @Test
+  public void incrementalBlameMatchesFullBlame() throws Exception {
+    File workTree = temporaryFolder.newFolder("repo").getCanonicalFile();
+    File stateDirectory = temporaryFolder.newFolder("state");
+    com.box.l10n.mojito.rest.entity.Repository repository = getRestRepository();
+
+    try (Git git = Git.init().setDirectory(workTree).call()) {
+      Map<String, String> firstFiles = new LinkedHashMap<>();
+      firstFiles.put("a.properties", "shared=A\nonly_a=A\n");
+      firstFiles.put("b.properties", "shared=B\nonly_b=B\n");
+      firstFiles.put("c.properties", "only_c=C\n");
+      firstFiles.put("app.js", "t('usage');\n");
+      RevCommit firstCommit = commitFiles(git, "first", firstFiles);
+
+      List<GitBlameWithUsage> firstRunGitBlameWithUsages =
+          List.of(
+              getGitBlameWithUsage("shared"),
+              getGitBlameWithUsage("only_a"),
+              getGitBlameWithUsage("only_b"),
+              getGitBlameWithUsage("only_c"),
+              getGitBlameWithUsage("usage", "app.js:1"));
+      blame(
+          getGitBlameCommand(
+              workTree, stateDirectory, "a.properties", "b.properties", "c.properties"),
+          repository,
+          firstRunGitBlameWithUsages);
+
+      for (GitBlameWithUsage gitBlameWithUsage : firstRunGitBlameWithUsages) {
+        assertEquals(firstCommit.getName(), gitBlameWithUsage.getGitBlame().getCommitName());
+      }
+
+      git.rm().addFilepattern("c.properties").call();
+      RevCommit secondCommit =
+          commitFiles(
+              git,
+              "second",
+              Map.of(
+                  "a.properties",
+                  "shared=A2\nonly_a=A\nnew_key=N\n",
+                  "app.js",
+                  "t('usage', 2);\n"));
+
+      List<GitBlameWithUsage> incrementalGitBlameWithUsages =
+          copyWithNewKey(firstRunGitBlameWithUsages);
+      List<GitBlameWithUsage> fullGitBlameWithUsages = copyWithNewKey(firstRunGitBlameWithUsages);
+
+      // "shared" is in the changed file and in an unchanged file, "only_c" was in a deleted file
+      GitBlameCommand incremental =
+          getGitBlameCommand(workTree, stateDirectory, "a.properties", "b.properties");
+      incremental.headCommit = secondCommit;
+      incremental.changedPaths =
+          incremental.getChangedPathsSinceLastBlamedCommit(repository, secondCommit);
+      assertEquals(Set.of("a.properties", "app.js", "c.properties"), incremental.changedPaths);
+      assertEquals(
+          List.of("shared", "only_a", "only_c", "usage", "new_key"),
+          getTextUnitNames(
+              incremental.getGitBlameWithUsagesToBlame(incrementalGitBlameWithUsages)));
+      blame(incremental, repository, incrementalGitBlameWithUsages);
+
+      GitBlameCommand full =
+          getGitBlameCommand(workTree, stateDirectory, "a.properties", "b.properties");
+      full.full = true;
+      blame(full, repository, fullGitBlameWithUsages);
+
+      assertEquals(
+          getCommitNames(fullGitBlameWithUsages), getCommitNames(incrementalGitBlameWithUsages));
+      assertEquals(
+          List.of(
+              firstCommit.getName(),
+              firstCommit.getName(),
+              firstCommit.getName(),
+              firstCommit.getName(),
+              secondCommit.getName(),
+              secondCommit.getName()),
+          getCommitNames(incrementalGitBlameWithUsages));
+    }
+  }
+
+  RevCommit commitFiles(Git git, String message, Map<String, String> files) throws Exception {
+    File workTree = git.getRepository().getWorkTree();
+    for (Map.Entry<String, String> file : files.entrySet()) {
+      Files.writeString(new File(workTree, file.getKey()).toPath(), file.getValue());
+    }
+    git.add().addFilepattern(".").call();
+    PersonIdent author = new PersonIdent(message + " author", message + "@test.com");
+    return git.commit()
+        .setMessage(message)
+        .setAuthor(author)
+        .setCommitter(author)
+        .setSign(false)
+        .call();
+  }
+
+  GitBlameCommand getGitBlameCommand(File workTree, File stateDirectory, String... sourceFiles)
+      throws CommandException {
+    GitBlameCommand gitBlameCommand = new GitBlameCommand();
+    gitBlameCommand.consoleWriter = mock(ConsoleWriter.class, RETURNS_SELF);
+    gitBlameCommand.stateDirectoryParam =
+        stateDirectory == null ? null : stateDirectory.getAbsolutePath();
+    gitBlameCommand.gitRepository.init(workTree.getAbsolutePath());
+
+    gitBlameCommand.sourceFileMatches = new ArrayList<>();
+    for (String sourceFile : sourceFiles) {
+      FileMatch fileMatch = new FileMatch();
+      fileMatch.setFileType(new PropertiesFileType());
+      fileMatch.setPath(new File(workTree, sourceFile).toPath());
+      gitBlameCommand.sourceFileMatches.add(fileMatch);
+    }
+
+    return gitBlameCommand;
+  }
+
+  void blame(
+      GitBlameCommand gitBlameCommand,
+      com.box.l10n.mojito.rest.entity.Repository repository,
+      List<GitBlameWithUsage> gitBlameWithUsages)
+      throws CommandException {
+    gitBlameCommand.headCommit = gitBlameCommand.resolveHead();
+    gitBlameCommand.changedPaths =
+        gitBlameCommand.getChangedPathsSinceLastBlamedCommit(
+            repository, gitBlameCommand.headCommit);
+    gitBlameCommand.executorService = Executors.newFixedThreadPool(2);
+    try {
+      gitBlameCommand.blameGitBlameWithUsages(gitBlameWithUsages);
+    } finally {
+      gitBlameCommand.executorService.shutdownNow();
+    }
+    gitBlameCommand.saveLastBlamedCommit(repository, gitBlameCommand.headCommit);
+  }
+
+  com.box.l10n.mojito.rest.entity.Repository getRestRepository() {
+    com.box.l10n.mojito.rest.entity.Repository repository =
+        new com.box.l10n.mojito.rest.entity.Repository();
+    repository.setId(1L);
+    return repository;
+  }
+
+  GitBlameWithUsage getGitBlameWithUsage(String textUnitName, String... usages) {
+    GitBlameWithUsage gitBlameWithUsage = new GitBlameWithUsage();
+    gitBlameWithUsage.setTextUnitName(textUnitName);
+    gitBlameWithUsage.setUsages(Set.of(usages));
+    return gitBlameWithUsage;
+  }
+
+  List<GitBlameWithUsage> copyWithNewKey(List<GitBlameWithUsage> gitBlameWithUsages) {
+    List<GitBlameWithUsage> copies = new ArrayList<>();
+    for (GitBlameWithUsage gitBlameWithUsage : gitBlameWithUsages) {
+      GitBlameWithUsage copy =
+          getGitBlameWithUsage(
+              gitBlameWithUsage.getTextUnitName(),
+              gitBlameWithUsage.getUsages().toArray(new String[0]));
+      GitBlame gitBlame = new GitBlame();
+      gitBlame.setCommitName(gitBlameWithUsage.getGitBlame().getCommitName());
+      copy.setGitBlame(gitBlame);
+      copies.add(copy);
+    }
+    copies.add(getGitBlameWithUsage("new_key"));
+    return copies;
+  }
+
+  List<String> getTextUnitNames(List<GitBlameWithUsage> gitBlameWithUsages) {
+    return gitBlameWithUsages.stream()
+        .map(GitBlameWithUsage::getTextUnitName)
+        .collect(Collectors.toList());
+  }
+
+  List<String> getCommitNames(List<GitBlameWithUsage> gitBlameWithUsages) {
+    return gitBlameWithUsages.stream()
+        .map(gitBlameWithUsage -> gitBlameWithUsage.getGitBlame().getCommitName())
+        .collect(Collectors.toList());
+  }
+
   void verifyGitBlame(
       List<com.box.l10n.mojito.service.gitblame.GitBlameWithUsage> gitBlameWithUsages,
       GitBlame gitBlame) {
@@ -0,0 +1,76 @@
+package com.box.l10n.mojito.cli.command;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class MultiSubstringMatcherTest {
+
+  @Test
+  public void findsOverlappingAndNestedSubstrings() {
+    MultiSubstringMatcher<String> matcher =
+        MultiSubstringMatcher.<String>builder()
+            .add("he", "he")
+            .add("she", "she")
+            .add("his", "his")
+            .add("hers", "hers")
+            .build();
+
+    assertEquals(List.of("he", "she", "hers"), matcher.getMatches("ushers"));
+    assertEquals(List.of("his"), matcher.getMatches("this"));
+    assertEquals(List.of(), matcher.getMatches("hi"));
+  }
+
+  @Test
+  public void returnsValuesInInsertionOrderWithoutDuplicates() {
+    MultiSubstringMatcher<Integer> matcher =
+        MultiSubstringMatcher.<Integer>builder().add("b", 1).add("a", 2).add("a", 3).build();
+
+    assertEquals(List.of(1, 2, 3), matcher.getMatches("abab"));
+  }
+
+  @Test
+  public void emptySubstringMatchesAnyText() {
+    MultiSubstringMatcher<String> matcher =
+        MultiSubstringMatcher.<String>builder().add("", "empty").add("x", "x").build();
+
+    assertEquals(List.of("empty"), matcher.getMatches(""));
+    assertEquals(List.of("empty", "x"), matcher.getMatches("x"));
+    assertEquals(List.of(), matcher.getMatches(null));
+  }
+
+  @Test
+  public void matchesLikeStringContains() {
+    Random random = new Random(42);
+    List<String> substrings = new ArrayList<>();
+    MultiSubstringMatcher.Builder<String> builder = MultiSubstringMatcher.builder();
+    for (int i = 0; i < 200; i++) {
+      String substring = randomString(random, 1 + random.nextInt(4));
+      substrings.add(substring);
+      builder.add(substring, substring);
+    }
+    MultiSubstringMatcher<String> matcher = builder.build();
+
+    for (int i = 0; i < 500; i++) {
+      String text = randomString(random, random.nextInt(30));
+      List<String> expected = new ArrayList<>();
+      for (String substring : substrings) {
+        if (text.contains(substring)) {
+          expected.add(substring);
+        }
+      }
+      assertEquals(text, expected, matcher.getMatches(text));
+    }
+  }
+
+  String randomString(Random random, int length) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      sb.append((char) ('a' + random.nextInt(3)));
+    }
+    return sb.toString();
+  }
+}
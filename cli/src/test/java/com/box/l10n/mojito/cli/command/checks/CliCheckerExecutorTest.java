@@ -0,0 +1,105 @@
+package com.box.l10n.mojito.cli.command.checks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.box.l10n.mojito.cli.command.CommandException;
+import com.box.l10n.mojito.cli.command.extraction.AssetExtractionDiff;
+import com.box.l10n.mojito.okapi.extractor.AssetExtractorTextUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CliCheckerExecutorTest {
+
+  private List<AssetExtractionDiff> assetExtractionDiffs;
+
+  @Before
+  public void setup() {
+    List<AssetExtractorTextUnit> addedTUs = new ArrayList<>();
+    AssetExtractorTextUnit assetExtractorTextUnit = new AssetExtractorTextUnit();
+    assetExtractorTextUnit.setSource("A source string.");
+    addedTUs.add(assetExtractorTextUnit);
+    assetExtractionDiffs = new ArrayList<>();
+    AssetExtractionDiff assetExtractionDiff = new AssetExtractionDiff();
+    assetExtractionDiff.setAddedTextunits(addedTUs);
+    assetExtractionDiffs.add(assetExtractionDiff);
+  }
+
+  @Test
+  public void testResultsAreInCheckerOrderAndDiffIsShared() {
+    CountDownLatch allStarted = new CountDownLatch(3);
+    List<TokenizedExtractionDiff> seenDiffs = new ArrayList<>();
+    List<AbstractCliChecker> checkers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      checkers.add(new TestChecker("check" + i, allStarted, seenDiffs));
+    }
+
+    List<CliCheckResult> results =
+        new CliCheckerExecutor(checkers, 3).executeChecks(assetExtractionDiffs);
+
+    assertEquals(
+        List.of("check0", "check1", "check2"),
+        results.stream().map(CliCheckResult::getCheckName).toList());
+    assertEquals(3, seenDiffs.size());
+    assertSame(seenDiffs.get(0), seenDiffs.get(1));
+    assertSame(seenDiffs.get(0), seenDiffs.get(2));
+    assertEquals(List.of("A source string."), seenDiffs.get(0).getAddedSources());
+  }
+
+  @Test(expected = CommandException.class)
+  public void testCheckerExceptionIsPropagated() {
+    List<AbstractCliChecker> checkers = new ArrayList<>();
+    checkers.add(new TestChecker("check0", null, new ArrayList<>()));
+    checkers.add(
+        new TestChecker("check1", null, new ArrayList<>()) {
+          @Override
+          public CliCheckResult run(TokenizedExtractionDiff tokenizedExtractionDiff) {
+            throw new CommandException("check failed");
+          }
+        });
+
+    new CliCheckerExecutor(checkers, 2).executeChecks(assetExtractionDiffs);
+  }
+
+  static class TestChecker extends AbstractCliChecker {
+
+    final String name;
+    final CountDownLatch allStarted;
+    final List<TokenizedExtractionDiff> seenDiffs;
+
+    TestChecker(String name, CountDownLatch allStarted, List<TokenizedExtractionDiff> seenDiffs) {
+      this.name = name;
+      this.allStarted = allStarted;
+      this.seenDiffs = seenDiffs;
+    }
+
+    @Override
+    public CliCheckResult run(List<AssetExtractionDiff> assetExtractionDiffs) {
+      throw new IllegalStateException("the executor must pass the shared diff");
+    }
+
+    @Override
+    public CliCheckResult run(TokenizedExtractionDiff tokenizedExtractionDiff) {
+      synchronized (seenDiffs) {
+        seenDiffs.add(tokenizedExtractionDiff);
+      }
+      if (allStarted != null) {
+        // only completes if the checkers run concurrently
+        allStarted.countDown();
+        try {
+          if (!allStarted.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("checkers did not run concurrently");
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException(e);
+        }
+      }
+      return new CliCheckResult(false, name);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.box.l10n.mojito.cli.command.checks;
 import static com.box.l10n.mojito.cli.command.checks.AbstractCliChecker.BULLET_POINT;
 import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.DICTIONARY_ADDITIONS_PATH_KEY;
 import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.DICTIONARY_AFFIX_FILE_PATH_KEY;
+import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.DICTIONARY_CACHE_DIRECTORY_KEY;
 import static com.box.l10n.mojito.cli.command.checks.CliCheckerParameters.DICTIONARY_FILE_PATH_KEY;
 import static com.box.l10n.mojito.cli.command.extractioncheck.ExtractionCheckNotificationSender.QUOTE_MARKER;
 import static com.box.l10n.mojito.regex.PlaceholderRegularExpressions.PLACEHOLDER_NO_SPECIFIER_REGEX;
@@ -11,8 +12,12 @@ import static com.box.l10n.mojito.regex.PlaceholderRegularExpressions.SINGLE_BRA
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,13 +38,17 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 
 public class SpellCliCheckerTest {
 
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Mock private Hunspell hunspellMock;
 
   @Spy private SpellCliChecker spellCliChecker = new SpellCliChecker();
@@ -547,6 +556,83 @@ public class SpellCliCheckerTest {
     assertFalse(result.isHardFail());
   }
 
+  @Test
+  public void testCachedWordsAreNotSpellCheckedAgain() throws Exception {
+    List<AssetExtractionDiff> assetExtractionDiffs =
+        getAssetExtractionDiffs("A source strng with some erors.");
+    createTempDictionaryAdditionsFile("");
+    CliCheckerOptions cliCheckerOptions =
+        getCliCheckerOptionsWithCache(temporaryFolder.getRoot().getPath());
+    spellCliChecker.setCliCheckerOptions(cliCheckerOptions);
+    when(hunspellMock.suggest("strng")).thenReturn(Lists.newArrayList("string"));
+    CliCheckResult result = spellCliChecker.run(assetExtractionDiffs);
+    assertFalse(result.isSuccessful());
+    assertEquals(1, temporaryFolder.getRoot().listFiles().length);
+
+    Hunspell otherHunspellMock = mock(Hunspell.class);
+    SpellCliChecker otherSpellCliChecker = spy(new SpellCliChecker());
+    doReturn(CliCheckerType.SPELL_CHECKER).when(otherSpellCliChecker).getCliCheckerType();
+    doReturn(otherHunspellMock).when(otherSpellCliChecker).getHunspellInstance();
+    otherSpellCliChecker.setCliCheckerOptions(cliCheckerOptions);
+    CliCheckResult cachedResult = otherSpellCliChecker.run(assetExtractionDiffs);
+
+    verify(otherSpellCliChecker, never()).getHunspellInstance();
+    verify(otherHunspellMock, never()).spell(anyString());
+    assertFalse(cachedResult.isSuccessful());
+    assertEquals(result.getNotificationText(), cachedResult.getNotificationText());
+  }
+
+  @Test
+  public void testCacheIsVersionedByDictionaryAdditions() throws Exception {
+    List<AssetExtractionDiff> assetExtractionDiffs =
+        getAssetExtractionDiffs("A source strng with some erors.");
+    createTempDictionaryAdditionsFile("");
+    CliCheckerOptions cliCheckerOptions =
+        getCliCheckerOptionsWithCache(temporaryFolder.getRoot().getPath());
+    spellCliChecker.setCliCheckerOptions(cliCheckerOptions);
+    assertFalse(spellCliChecker.run(assetExtractionDiffs).isSuccessful());
+
+    createTempDictionaryAdditionsFile("strng" + System.lineSeparator() + "erors");
+    Hunspell otherHunspellMock = mock(Hunspell.class);
+    when(otherHunspellMock.spell(anyString())).thenReturn(true);
+    SpellCliChecker otherSpellCliChecker = spy(new SpellCliChecker());
+    doReturn(CliCheckerType.SPELL_CHECKER).when(otherSpellCliChecker).getCliCheckerType();
+    doReturn(otherHunspellMock).when(otherSpellCliChecker).getHunspellInstance();
+    otherSpellCliChecker.setCliCheckerOptions(cliCheckerOptions);
+    CliCheckResult result = otherSpellCliChecker.run(assetExtractionDiffs);
+
+    verify(otherHunspellMock, times(1)).add("strng");
+    verify(otherHunspellMock, times(1)).spell("strng");
+    assertTrue(result.isSuccessful());
+    assertEquals(2, temporaryFolder.getRoot().listFiles().length);
+  }
+
+  private List<AssetExtractionDiff> getAssetExtractionDiffs(String source) {
+    List<AssetExtractorTextUnit> addedTUs = new ArrayList<>();
+    AssetExtractorTextUnit assetExtractorTextUnit = new AssetExtractorTextUnit();
+    assetExtractorTextUnit.setSource(source);
+    addedTUs.add(assetExtractorTextUnit);
+    List<AssetExtractionDiff> assetExtractionDiffs = new ArrayList<>();
+    AssetExtractionDiff assetExtractionDiff = new AssetExtractionDiff();
+    assetExtractionDiff.setAddedTextunits(addedTUs);
+    assetExtractionDiffs.add(assetExtractionDiff);
+    return assetExtractionDiffs;
+  }
+
+  private CliCheckerOptions getCliCheckerOptionsWithCache(String cacheDirectory) {
+    return new CliCheckerOptions(
+        Sets.newHashSet(SINGLE_BRACE_REGEX),
+        Sets.newHashSet(),
+        ImmutableMap.<String, String>builder()
+            .put(DICTIONARY_FILE_PATH_KEY.getKey(), "target/test-classes/dictionaries/empty.dic")
+            .put(
+                DICTIONARY_AFFIX_FILE_PATH_KEY.getKey(),
+                "target/test-classes/dictionaries/empty.aff")
+            .put(DICTIONARY_ADDITIONS_PATH_KEY.getKey(), "target/tests/resources/dictAddition.txt")
+            .put(DICTIONARY_CACHE_DIRECTORY_KEY.getKey(), cacheDirectory)
+            .build());
+  }
+
   private void createTempDictionaryAdditionsFile(String contents) throws IOException {
     File dictAdditions = new File("target/tests/resources/");
     dictAdditions.mkdirs();
@@ -50,13 +50,7 @@ public class AssetExtractor {
 
     RawDocument rawDocument = new RawDocument(assetContent, LocaleId.ENGLISH);
 
-    String filterConfigId = null;
-
-    if (filterConfigIdOverride != null) {
-      filterConfigId = filterConfigIdOverride.getOkapiFilterId();
-    } else {
-      filterConfigId = assetPathToFilterConfigMapper.getFilterConfigIdFromPath(assetPath);
-    }
+    String filterConfigId = getFilterConfigId(assetPath, filterConfigIdOverride);
 
     rawDocument.setFilterConfigId(filterConfigId);
     logger.debug("Set filter config {} for asset {}", filterConfigId, assetPath);
@@ -70,6 +64,22 @@ public class AssetExtractor {
     driver.processBatch();
 
     List<AssetExtractorTextUnit> extracted = assetExtractionStep.getAssetExtractorTextUnits();
+    observePortableLocalizationShadow(
+        assetPath, assetContent, filterConfigIdOverride, filterOptions, extracted);
+    return extracted;
+  }
+
+  /**
+   * Gives text units extracted for an asset to the portable localization shadow, if enabled. Also
+   * used when the text units come from a cache instead of an extraction, so that the shadow sees
+   * every asset.
+   */
+  public void observePortableLocalizationShadow(
+      String assetPath,
+      String assetContent,
+      FilterConfigIdOverride filterConfigIdOverride,
+      List<String> filterOptions,
+      List<AssetExtractorTextUnit> extracted) {
     if (portableLocalizationShadow != null) {
       try {
         portableLocalizationShadow.observe(
@@ -79,6 +89,27 @@ public class AssetExtractor {
             "Portable localization shadow instrumentation failed; legacy extraction kept", failure);
       }
     }
-    return extracted;
+  }
+
+  /**
+   * Gets the Okapi filter config id used to extract an asset: the override if provided, else the
+   * one mapped from the asset path.
+   *
+   * @param assetPath the asset path
+   * @param filterConfigIdOverride optional override
+   * @return the filter config id
+   * @throws UnsupportedAssetFilterTypeException if no filter is mapped to the asset path
+   */
+  public String getFilterConfigId(String assetPath, FilterConfigIdOverride filterConfigIdOverride)
+      throws UnsupportedAssetFilterTypeException {
+    String filterConfigId;
+
+    if (filterConfigIdOverride != null) {
+      filterConfigId = filterConfigIdOverride.getOkapiFilterId();
+    } else {
+      filterConfigId = assetPathToFilterConfigMapper.getFilterConfigIdFromPath(assetPath);
+    }
+
+    return filterConfigId;
   }
 }
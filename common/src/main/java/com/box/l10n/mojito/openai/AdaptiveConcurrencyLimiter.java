@@ -0,0 +1,96 @@
+package com.box.l10n.mojito.openai;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIMD limit on the number of in-flight requests of a client.
+ *
+ * <p>The limit starts at its max. It grows by about one for each window of successful requests and
+ * is cut when the API signals overload: halved on a 429, 503 or timeout, and reduced by 10% when
+ * the latency of a request exceeds twice the moving average latency. Decreases are applied at most
+ * once per average latency, so that a burst of failures from the same overload only counts once.
+ *
+ * <p>Instances are not thread safe, {@link OpenAIClientPool} guards them with its lock.
+ */
+class AdaptiveConcurrencyLimiter {
+
+  static final double DROP_BACKOFF_RATIO = 0.5;
+  static final double LATENCY_BACKOFF_RATIO = 0.9;
+  static final double LATENCY_TOLERANCE = 2.0;
+  static final double LATENCY_EMA_WEIGHT = 0.05;
+  static final int LATENCY_WARMUP_SAMPLES = 10;
+
+  /** Latencies under this value are not considered as overload, whatever the average */
+  static final long MIN_OVERLOAD_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  final int maxLimit;
+  double limit;
+  int inFlight;
+  double latencyEmaNanos;
+  int latencySampleCount;
+  long lastDecreaseNanos = Long.MIN_VALUE;
+
+  AdaptiveConcurrencyLimiter(int maxLimit) {
+    if (maxLimit < 1) {
+      throw new IllegalArgumentException("Max limit must be positive: " + maxLimit);
+    }
+    this.maxLimit = maxLimit;
+    this.limit = maxLimit;
+  }
+
+  int getLimit() {
+    return (int) limit;
+  }
+
+  int availablePermits() {
+    return Math.max(0, getLimit() - inFlight);
+  }
+
+  boolean tryAcquire() {
+    if (inFlight >= getLimit()) {
+      return false;
+    }
+    inFlight++;
+    return true;
+  }
+
+  void onSuccess(long latencyNanos, long nowNanos) {
+    inFlight--;
+
+    boolean overloaded =
+        latencySampleCount >= LATENCY_WARMUP_SAMPLES
+            && latencyNanos > MIN_OVERLOAD_LATENCY_NANOS
+            && latencyNanos > LATENCY_TOLERANCE * latencyEmaNanos;
+
+    if (overloaded) {
+      decrease(LATENCY_BACKOFF_RATIO, nowNanos);
+    } else {
+      limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+
+    latencyEmaNanos =
+        latencySampleCount == 0
+            ? latencyNanos
+            : latencyEmaNanos + LATENCY_EMA_WEIGHT * (latencyNanos - latencyEmaNanos);
+    latencySampleCount++;
+  }
+
+  /** The request was rejected or timed out because of overload. */
+  void onDropped(long nowNanos) {
+    inFlight--;
+    decrease(DROP_BACKOFF_RATIO, nowNanos);
+  }
+
+  /** The request failed for a reason that says nothing about the load. */
+  void onIgnored() {
+    inFlight--;
+  }
+
+  void decrease(double ratio, long nowNanos) {
+    if (lastDecreaseNanos != Long.MIN_VALUE && nowNanos - lastDecreaseNanos < latencyEmaNanos) {
+      return;
+    }
+    limit = Math.max(1, limit * ratio);
+    lastDecreaseNanos = nowNanos;
+  }
+}
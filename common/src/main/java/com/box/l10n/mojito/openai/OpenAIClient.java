@@ -50,17 +50,32 @@ public class OpenAIClient {
 
   final Executor asyncExecutor;
 
+  final HttpResponseListener httpResponseListener;
+
   OpenAIClient(
       String apiKey,
       String host,
       ObjectMapper objectMapper,
       HttpClient httpClient,
-      Executor asyncExecutor) {
+      Executor asyncExecutor,
+      HttpResponseListener httpResponseListener) {
     this.apiKey = Objects.requireNonNull(apiKey);
     this.host = Objects.requireNonNull(host);
     this.objectMapper = Objects.requireNonNull(objectMapper);
     this.httpClient = Objects.requireNonNull(httpClient);
     this.asyncExecutor = Objects.requireNonNull(asyncExecutor);
+    this.httpResponseListener = Objects.requireNonNull(httpResponseListener);
+  }
+
+  /**
+   * Notified of every response of the async APIs, before it is processed. Used to follow the rate
+   * limit headers.
+   */
+  @FunctionalInterface
+  public interface HttpResponseListener {
+    HttpResponseListener NOOP = (model, httpResponse) -> {};
+
+    void onResponse(String model, HttpResponse<?> httpResponse);
   }
 
   public static class Builder {
@@ -75,6 +90,8 @@ public class OpenAIClient {
 
     private Executor asyncExecutor;
 
+    private HttpResponseListener httpResponseListener = HttpResponseListener.NOOP;
+
     public Builder() {}
 
     public Builder apiKey(String apiKey) {
@@ -102,6 +119,11 @@ public class OpenAIClient {
       return this;
     }
 
+    public Builder httpResponseListener(HttpResponseListener httpResponseListener) {
+      this.httpResponseListener = Objects.requireNonNull(httpResponseListener);
+      return this;
+    }
+
     public OpenAIClient build() {
       if (apiKey == null) {
         throw new IllegalStateException("API key must be provided");
@@ -118,7 +140,8 @@ public class OpenAIClient {
         asyncExecutor = ForkJoinPool.commonPool();
       }
 
-      return new OpenAIClient(apiKey, host, objectMapper, httpClient, asyncExecutor);
+      return new OpenAIClient(
+          apiKey, host, objectMapper, httpClient, asyncExecutor, httpResponseListener);
     }
 
     private HttpClient createHttpClient() {
@@ -162,6 +185,7 @@ public class OpenAIClient {
             .sendAsync(request, HttpResponse.BodyHandlers.ofString())
             .thenApplyAsync(
                 httpResponse -> {
+                  httpResponseListener.onResponse(responsesRequest.model(), httpResponse);
                   if (httpResponse.statusCode() != 200) {
                     throw new OpenAIClientResponseException("Responses API failed", httpResponse);
                   } else {
@@ -459,6 +483,7 @@ public class OpenAIClient {
             .sendAsync(request, HttpResponse.BodyHandlers.ofString())
             .thenApplyAsync(
                 httpResponse -> {
+                  httpResponseListener.onResponse(chatCompletionsRequest.model(), httpResponse);
                   if (httpResponse.statusCode() != 200) {
                     throw new OpenAIClientResponseException("ChatCompletion failed", httpResponse);
                   } else {
@@ -504,6 +529,7 @@ public class OpenAIClient {
             .sendAsync(request, HttpResponse.BodyHandlers.ofLines())
             .thenApply(
                 httpResponse -> {
+                  httpResponseListener.onResponse(chatCompletionsRequest.model(), httpResponse);
                   if (httpResponse.statusCode() != 200) {
                     throw new OpenAIClientResponseException(
                         "ChatCompletion stream failed", httpResponse);
@@ -868,6 +894,7 @@ public class OpenAIClient {
             .sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
             .thenApply(
                 httpResponse -> {
+                  httpResponseListener.onResponse(embeddingRequest.model(), httpResponse);
                   try {
                     if (httpResponse.statusCode() != 200) {
                       throw new OpenAIClientResponseException("Embedding failed", httpResponse);
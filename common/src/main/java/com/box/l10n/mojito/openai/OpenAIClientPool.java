@@ -1,36 +1,75 @@
 package com.box.l10n.mojito.openai;
 
+import com.box.l10n.mojito.openai.OpenAIClient.OpenAIClientResponseException;
+import com.box.l10n.mojito.openai.OpenAIClient.ResponsesRequest;
 import com.google.common.base.Stopwatch;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Pool of {@link OpenAIClient}s that adapts the number of parallel requests to what the API
+ * accepts.
+ *
+ * <p>Each client has an {@link AdaptiveConcurrencyLimiter} per model: its limit shrinks on 429s,
+ * timeouts and latency growth and grows back on success, up to the configured number of parallel
+ * requests, which also caps the requests of a client across models. The latency is normalized by
+ * the tokens of the request, so that large requests are not taken for overload. Each model has a
+ * {@link RateLimitBucket} for the requests and tokens per minute, kept in sync with the rate limit
+ * headers of the responses, so that requests wait instead of being throttled.
+ *
+ * <p>Submissions that can't be sent right away wait in queues served round robin by queue key (eg.
+ * repository and locale), so that a large job does not starve the others. Queues whose next
+ * submission is blocked by the rate limits of its model are skipped, so that submissions for other
+ * models can proceed.
+ */
 public class OpenAIClientPool {
 
   static Logger logger = LoggerFactory.getLogger(OpenAIClientPool.class);
 
+  /** Latencies given to the limiters are normalized to a request of this number of tokens */
+  static final long LATENCY_REFERENCE_TOKENS = 1000;
+
   int numberOfClients;
-  OpenAIClientWithSemaphore[] openAIClientWithSemaphores;
+  PooledClient[] pooledClients;
   MeterRegistry meterRegistry;
   String poolName;
   AtomicInteger waitingSubmissions;
+  long requestsPerMinute;
+  long tokensPerMinute;
+  String defaultModel;
+
+  final ReentrantLock lock = new ReentrantLock();
+  final Condition stateChanged = lock.newCondition();
+  final Map<String, RateLimitBucket> rateLimitBucketsByModel = new HashMap<>();
+  final Map<String, Deque<Submission>> submissionsByQueueKey = new HashMap<>();
+  final Deque<String> queueKeys = new ArrayDeque<>();
 
   /**
    * Pool to parallelize slower requests (1s+) over HTTP/2 connections.
    *
    * @param numberOfClients Number of OpenAIClient instances with independent HttpClients.
-   * @param numberOfParallelRequestPerClient Maximum parallel requests per client, controlled by a
-   *     semaphore to prevent overload.
+   * @param numberOfParallelRequestPerClient Maximum parallel requests per client. The actual limit
+   *     adapts to the API responses but never goes above this value.
    * @param sizeOfAsyncProcessors Shared async processors across all HttpClients to limit threads,
    *     as request time is the main bottleneck.
    * @param apiKey API key for authentication.
@@ -56,81 +95,300 @@ public class OpenAIClientPool {
       String apiKey,
       String poolName,
       MeterRegistry meterRegistry) {
-    ExecutorService asyncExecutor = Executors.newWorkStealingPool(sizeOfAsyncProcessors);
-    this.numberOfClients = numberOfClients;
-    this.poolName = sanitizeTagValue(poolName);
-    this.meterRegistry = meterRegistry;
+    this(
+        builder()
+            .numberOfClients(numberOfClients)
+            .numberOfParallelRequestPerClient(numberOfParallelRequestPerClient)
+            .sizeOfAsyncProcessors(sizeOfAsyncProcessors)
+            .apiKey(apiKey)
+            .poolName(poolName)
+            .meterRegistry(meterRegistry));
+  }
+
+  OpenAIClientPool(Builder builder) {
+    ExecutorService asyncExecutor = Executors.newWorkStealingPool(builder.sizeOfAsyncProcessors);
+    this.numberOfClients = builder.numberOfClients;
+    this.poolName = sanitizeTagValue(builder.poolName);
+    this.meterRegistry = builder.meterRegistry;
     this.waitingSubmissions = new AtomicInteger();
-    this.openAIClientWithSemaphores = new OpenAIClientWithSemaphore[numberOfClients];
+    this.requestsPerMinute = builder.requestsPerMinute;
+    this.tokensPerMinute = builder.tokensPerMinute;
+    this.defaultModel = Objects.requireNonNullElse(builder.defaultModel, "");
+    this.pooledClients = new PooledClient[numberOfClients];
     for (int i = 0; i < numberOfClients; i++) {
-      this.openAIClientWithSemaphores[i] =
-          new OpenAIClientWithSemaphore(
-              OpenAIClient.builder()
-                  .apiKey(apiKey)
-                  .asyncExecutor(asyncExecutor)
-                  .httpClient(HttpClient.newBuilder().executor(asyncExecutor).build())
-                  .build(),
-              new Semaphore(numberOfParallelRequestPerClient));
+      OpenAIClient.Builder openAIClientBuilder =
+          OpenAIClient.builder()
+              .apiKey(builder.apiKey)
+              .asyncExecutor(asyncExecutor)
+              .httpClient(HttpClient.newBuilder().executor(asyncExecutor).build())
+              .httpResponseListener(this::onHttpResponse);
+      if (builder.host != null) {
+        openAIClientBuilder.host(builder.host);
+      }
+      this.pooledClients[i] =
+          new PooledClient(
+              openAIClientBuilder.build(),
+              builder.numberOfParallelRequestPerClient,
+              new HashMap<>());
     }
     if (this.meterRegistry != null) {
       this.meterRegistry.gauge(
           metricName("availablePermits"), metricTags(), this, OpenAIClientPool::availablePermits);
       this.meterRegistry.gauge(metricName("waitingSubmissions"), metricTags(), waitingSubmissions);
+      this.meterRegistry.gauge(
+          metricName("inFlight"),
+          metricTags(),
+          this,
+          pool -> pool.sumOverClients(PooledClient::inFlight));
+      this.meterRegistry.gauge(
+          metricName("concurrencyLimit"),
+          metricTags(),
+          this,
+          pool -> pool.sumOverClients(PooledClient::getLimit));
     }
   }
 
+  public static Builder builder() {
+    return new Builder();
+  }
+
   public <T> CompletableFuture<T> submit(Function<OpenAIClient, CompletableFuture<T>> f) {
+    return submit(SubmitOptions.DEFAULT, f);
+  }
 
-    while (true) {
-      for (OpenAIClientWithSemaphore openAIClientWithSemaphore : openAIClientWithSemaphores) {
-        if (openAIClientWithSemaphore.semaphore().tryAcquire()) {
-          try {
-            return f.apply(openAIClientWithSemaphore.openAIClient())
-                .whenComplete((o, e) -> openAIClientWithSemaphore.semaphore().release());
-          } catch (Throwable t) {
-            logger.error("Exception in apply(), semaphore released", t);
-            openAIClientWithSemaphore.semaphore().release();
-          }
-        }
-      }
+  /**
+   * Submits a request, blocking until a client can take it without going over the concurrency and
+   * rate limits.
+   */
+  public <T> CompletableFuture<T> submit(
+      SubmitOptions submitOptions, Function<OpenAIClient, CompletableFuture<T>> f) {
+    Submission submission = new Submission(submitOptions, resolveModel(submitOptions.model()));
+    PooledClient pooledClient = acquire(submission);
+    long startNanos = System.nanoTime();
+    try {
+      return f.apply(pooledClient.openAIClient())
+          .whenComplete((o, e) -> release(pooledClient, submission, startNanos, o, e));
+    } catch (Throwable t) {
+      logger.error("Exception in apply(), permit released", t);
+      release(pooledClient, submission, startNanos, null, t);
+      return CompletableFuture.failedFuture(t);
+    }
+  }
+
+  PooledClient acquire(Submission submission) {
+    Stopwatch acquireStopwatch = null;
 
-      try {
-        logger.debug("can't directly acquire any semaphore, do blocking");
-        int randomSemaphoreIndex =
-            ThreadLocalRandom.current().nextInt(openAIClientWithSemaphores.length);
-        OpenAIClientWithSemaphore randomClientWithSemaphore =
-            this.openAIClientWithSemaphores[randomSemaphoreIndex];
-        incrementCounter(metricName("blockingSubmissions"));
-        Stopwatch acquireStopwatch = Stopwatch.createStarted();
-        waitingSubmissions.incrementAndGet();
-        try {
-          randomClientWithSemaphore.semaphore().acquire();
-        } finally {
-          waitingSubmissions.decrementAndGet();
-          recordTimer(metricName("acquireWaitDuration"), acquireStopwatch);
+    lock.lock();
+    try {
+      enqueue(submission);
+      while (true) {
+        long nowNanos = System.nanoTime();
+        RateLimitBucket rateLimitBucket = getRateLimitBucket(submission.model(), nowNanos);
+        long waitNanos =
+            rateLimitBucket.nanosUntilAvailable(submission.estimatedTokens(), nowNanos);
+        PooledClient pooledClient =
+            waitNanos == 0 && getNextSubmission(nowNanos) == submission
+                ? tryAcquireClient(submission.model())
+                : null;
+
+        if (pooledClient != null) {
+          rateLimitBucket.consume(submission.estimatedTokens(), nowNanos);
+          dequeue(submission);
+          stateChanged.signalAll();
+          return pooledClient;
         }
-        try {
-          return f.apply(randomClientWithSemaphore.openAIClient())
-              .whenComplete((o, e) -> randomClientWithSemaphore.semaphore().release());
-        } catch (Throwable t) {
-          logger.error("Exception in apply(), semaphore released", t);
-          randomClientWithSemaphore.semaphore().release();
+
+        acquireStopwatch = startWaiting(acquireStopwatch);
+        if (waitNanos > 0) {
+          stateChanged.awaitNanos(waitNanos);
+        } else {
+          stateChanged.await();
         }
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        throw new RuntimeException("Can't submit task to the OpenAIClientPool", e);
       }
+    } catch (InterruptedException e) {
+      dequeue(submission);
+      stateChanged.signalAll();
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Can't submit task to the OpenAIClientPool", e);
+    } finally {
+      lock.unlock();
+      if (acquireStopwatch != null) {
+        waitingSubmissions.decrementAndGet();
+        recordTimer(metricName("acquireWaitDuration"), acquireStopwatch);
+      }
+    }
+  }
+
+  void release(
+      PooledClient pooledClient,
+      Submission submission,
+      long startNanos,
+      Object result,
+      Throwable throwable) {
+    long nowNanos = System.nanoTime();
+    lock.lock();
+    try {
+      AdaptiveConcurrencyLimiter limiter = pooledClient.limiter(submission.model());
+      if (throwable == null) {
+        limiter.onSuccess(
+            getNormalizedLatencyNanos(
+                nowNanos - startNanos, getTokenCount(result, submission.estimatedTokens())),
+            nowNanos);
+      } else if (isOverloadException(throwable)) {
+        limiter.onDropped(nowNanos);
+      } else {
+        limiter.onIgnored();
+      }
+      stateChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void onHttpResponse(String model, HttpResponse<?> httpResponse) {
+    if (httpResponse.statusCode() == 429) {
+      incrementCounter(metricName("rateLimitedResponses"));
+    }
+    RateLimitHeaders rateLimitHeaders = RateLimitHeaders.fromHttpHeaders(httpResponse.headers());
+    if (RateLimitHeaders.NONE.equals(rateLimitHeaders)) {
+      return;
+    }
+    long nowNanos = System.nanoTime();
+    lock.lock();
+    try {
+      getRateLimitBucket(resolveModel(model), nowNanos).update(rateLimitHeaders, nowNanos);
+      stateChanged.signalAll();
+    } finally {
+      lock.unlock();
     }
   }
 
-  record OpenAIClientWithSemaphore(OpenAIClient openAIClient, Semaphore semaphore) {}
+  private Stopwatch startWaiting(Stopwatch acquireStopwatch) {
+    if (acquireStopwatch == null) {
+      logger.debug("can't directly acquire a client, wait");
+      incrementCounter(metricName("blockingSubmissions"));
+      waitingSubmissions.incrementAndGet();
+      acquireStopwatch = Stopwatch.createStarted();
+    }
+    return acquireStopwatch;
+  }
+
+  /** Picks the client with the most available permits for the model, if any. */
+  private PooledClient tryAcquireClient(String model) {
+    PooledClient selected = null;
+    for (PooledClient pooledClient : pooledClients) {
+      if (selected == null
+          || pooledClient.availablePermits(model) > selected.availablePermits(model)) {
+        selected = pooledClient;
+      }
+    }
+    return selected != null && selected.tryAcquire(model) ? selected : null;
+  }
+
+  /**
+   * Requests without a model are sent with the default model, so they must use its rate limit
+   * bucket and limiters, which are updated by the responses of that model.
+   */
+  String resolveModel(String model) {
+    return model == null || model.isBlank() ? defaultModel : model;
+  }
+
+  private RateLimitBucket getRateLimitBucket(String model, long nowNanos) {
+    return rateLimitBucketsByModel.computeIfAbsent(
+        model, m -> new RateLimitBucket(requestsPerMinute, tokensPerMinute, nowNanos));
+  }
+
+  /**
+   * Scales a latency to a request of {@link #LATENCY_REFERENCE_TOKENS} tokens, so that the limiters
+   * compare requests of different sizes. The raw latency is used if the token count is unknown.
+   */
+  static long getNormalizedLatencyNanos(long latencyNanos, long tokens) {
+    if (tokens <= 0) {
+      return latencyNanos;
+    }
+    return (long) ((double) latencyNanos * LATENCY_REFERENCE_TOKENS / tokens);
+  }
+
+  /** Tokens from the usage of the response if available, else the estimated tokens. */
+  static long getTokenCount(Object result, long estimatedTokens) {
+    if (result instanceof OpenAIClient.ResponsesResponse responsesResponse
+        && responsesResponse.usage() != null
+        && responsesResponse.usage().totalTokens() != null) {
+      return responsesResponse.usage().totalTokens();
+    }
+    if (result instanceof OpenAIClient.ChatCompletionsResponse chatCompletionsResponse
+        && chatCompletionsResponse.usage() != null) {
+      return chatCompletionsResponse.usage().totalTokens();
+    }
+    return estimatedTokens;
+  }
+
+  private void enqueue(Submission submission) {
+    String queueKey = submission.queueKey();
+    Deque<Submission> submissions = submissionsByQueueKey.get(queueKey);
+    if (submissions == null) {
+      submissions = new ArrayDeque<>();
+      submissionsByQueueKey.put(queueKey, submissions);
+      queueKeys.addLast(queueKey);
+    }
+    submissions.addLast(submission);
+  }
+
+  /**
+   * The next submission is the first of the first queue key, in round robin order, whose model has
+   * room in its rate limit bucket. Once it is sent, its queue key goes to the back.
+   */
+  private Submission getNextSubmission(long nowNanos) {
+    for (String queueKey : queueKeys) {
+      Submission submission = submissionsByQueueKey.get(queueKey).peekFirst();
+      if (getRateLimitBucket(submission.model(), nowNanos)
+              .nanosUntilAvailable(submission.estimatedTokens(), nowNanos)
+          == 0) {
+        return submission;
+      }
+    }
+    return null;
+  }
+
+  private void dequeue(Submission submission) {
+    String queueKey = submission.queueKey();
+    Deque<Submission> submissions = submissionsByQueueKey.get(queueKey);
+    submissions.remove(submission);
+    queueKeys.remove(queueKey);
+    if (submissions.isEmpty()) {
+      submissionsByQueueKey.remove(queueKey);
+    } else {
+      queueKeys.addLast(queueKey);
+    }
+  }
+
+  private boolean isOverloadException(Throwable throwable) {
+    Throwable cause =
+        throwable instanceof CompletionException && throwable.getCause() != null
+            ? throwable.getCause()
+            : throwable;
+    if (cause instanceof OpenAIClientResponseException openAIClientResponseException) {
+      int statusCode = openAIClientResponseException.getStatusCode();
+      return statusCode == 429 || statusCode == 503;
+    }
+    return cause instanceof HttpTimeoutException || cause instanceof TimeoutException;
+  }
 
   private int availablePermits() {
-    int availablePermits = 0;
-    for (OpenAIClientWithSemaphore openAIClientWithSemaphore : openAIClientWithSemaphores) {
-      availablePermits += openAIClientWithSemaphore.semaphore().availablePermits();
+    return sumOverClients(PooledClient::availablePermits);
+  }
+
+  private int sumOverClients(ToIntFunction<PooledClient> value) {
+    lock.lock();
+    try {
+      int sum = 0;
+      for (PooledClient pooledClient : pooledClients) {
+        sum += value.applyAsInt(pooledClient);
+      }
+      return sum;
+    } finally {
+      lock.unlock();
     }
-    return availablePermits;
   }
 
   private void incrementCounter(String metricName) {
@@ -161,4 +419,189 @@ public class OpenAIClientPool {
     }
     return Objects.requireNonNull(value);
   }
+
+  /**
+   * A client with a limiter per model. The in-flight requests of all models are capped by the max
+   * parallel requests of the client.
+   */
+  record PooledClient(
+      OpenAIClient openAIClient,
+      int maxParallelRequests,
+      Map<String, AdaptiveConcurrencyLimiter> limitersByModel) {
+
+    AdaptiveConcurrencyLimiter limiter(String model) {
+      return limitersByModel.computeIfAbsent(
+          model, m -> new AdaptiveConcurrencyLimiter(maxParallelRequests));
+    }
+
+    int inFlight() {
+      int inFlight = 0;
+      for (AdaptiveConcurrencyLimiter limiter : limitersByModel.values()) {
+        inFlight += limiter.inFlight;
+      }
+      return inFlight;
+    }
+
+    /** Sum of the limits of the models, capped by the max parallel requests */
+    int getLimit() {
+      int limit = 0;
+      for (AdaptiveConcurrencyLimiter limiter : limitersByModel.values()) {
+        limit += limiter.getLimit();
+      }
+      return Math.min(maxParallelRequests, limit);
+    }
+
+    int availablePermits() {
+      return Math.max(0, getLimit() - inFlight());
+    }
+
+    int availablePermits(String model) {
+      return Math.min(maxParallelRequests - inFlight(), limiter(model).availablePermits());
+    }
+
+    boolean tryAcquire(String model) {
+      return inFlight() < maxParallelRequests && limiter(model).tryAcquire();
+    }
+  }
+
+  /** Identity matters: a submission is found in its queue by reference. */
+  static final class Submission {
+    private final SubmitOptions submitOptions;
+    private final String model;
+
+    Submission(SubmitOptions submitOptions, String model) {
+      this.submitOptions = submitOptions;
+      this.model = model;
+    }
+
+    String queueKey() {
+      return Objects.requireNonNullElse(submitOptions.queueKey(), "");
+    }
+
+    /** The model after resolving the default model, keys the rate limit bucket and limiters */
+    String model() {
+      return model;
+    }
+
+    long estimatedTokens() {
+      return submitOptions.estimatedTokens();
+    }
+  }
+
+  /**
+   * @param model the model of the request, used to apply the rate limits of that model. Requests
+   *     without a model use the default model of the pool
+   * @param queueKey submissions that wait are served round robin across queue keys
+   * @param estimatedTokens tokens accounted in the tokens per minute limit
+   */
+  public record SubmitOptions(String model, String queueKey, long estimatedTokens) {
+
+    public static final SubmitOptions DEFAULT = new SubmitOptions(null, null, 0);
+
+    /** Options for a Responses API request, tokens are estimated from the text of the input. */
+    public static SubmitOptions forResponsesRequest(
+        String queueKey, ResponsesRequest responsesRequest) {
+      long characterCount =
+          responsesRequest.instructions() == null ? 0 : responsesRequest.instructions().length();
+      if (responsesRequest.input() != null) {
+        for (ResponsesRequest.InputMessage inputMessage : responsesRequest.input()) {
+          for (ResponsesRequest.InputMessage.Content content : inputMessage.content()) {
+            if (content instanceof ResponsesRequest.InputMessage.Text text && text.text() != null) {
+              characterCount += text.text().length();
+            }
+          }
+        }
+      }
+      return new SubmitOptions(responsesRequest.model(), queueKey, estimateTokens(characterCount));
+    }
+
+    /** Rough estimate for English text: about 4 characters per token. */
+    public static long estimateTokens(long characterCount) {
+      return (characterCount + 3) / 4;
+    }
+  }
+
+  public static class Builder {
+
+    private int numberOfClients = 1;
+
+    private int numberOfParallelRequestPerClient = 1;
+
+    private int sizeOfAsyncProcessors = 1;
+
+    private String apiKey;
+
+    private String host;
+
+    private String poolName = "default";
+
+    private MeterRegistry meterRegistry;
+
+    private long requestsPerMinute = 0;
+
+    private long tokensPerMinute = 0;
+
+    private String defaultModel;
+
+    public Builder numberOfClients(int numberOfClients) {
+      this.numberOfClients = numberOfClients;
+      return this;
+    }
+
+    public Builder numberOfParallelRequestPerClient(int numberOfParallelRequestPerClient) {
+      this.numberOfParallelRequestPerClient = numberOfParallelRequestPerClient;
+      return this;
+    }
+
+    public Builder sizeOfAsyncProcessors(int sizeOfAsyncProcessors) {
+      this.sizeOfAsyncProcessors = sizeOfAsyncProcessors;
+      return this;
+    }
+
+    public Builder apiKey(String apiKey) {
+      this.apiKey = Objects.requireNonNull(apiKey);
+      return this;
+    }
+
+    /** Host of the API, eg. a local stub server in tests. */
+    public Builder host(String host) {
+      this.host = Objects.requireNonNull(host);
+      return this;
+    }
+
+    public Builder poolName(String poolName) {
+      this.poolName = poolName;
+      return this;
+    }
+
+    public Builder meterRegistry(MeterRegistry meterRegistry) {
+      this.meterRegistry = meterRegistry;
+      return this;
+    }
+
+    /** Initial requests per minute limit of each model, 0 to wait for the API headers. */
+    public Builder requestsPerMinute(long requestsPerMinute) {
+      this.requestsPerMinute = requestsPerMinute;
+      return this;
+    }
+
+    /** Initial tokens per minute limit of each model, 0 to wait for the API headers. */
+    public Builder tokensPerMinute(long tokensPerMinute) {
+      this.tokensPerMinute = tokensPerMinute;
+      return this;
+    }
+
+    /** Model of the requests submitted without a model, to apply the rate limits of that model. */
+    public Builder defaultModel(String defaultModel) {
+      this.defaultModel = defaultModel;
+      return this;
+    }
+
+    public OpenAIClientPool build() {
+      if (apiKey == null) {
+        throw new IllegalStateException("API key must be provided");
+      }
+      return new OpenAIClientPool(this);
+    }
+  }
 }
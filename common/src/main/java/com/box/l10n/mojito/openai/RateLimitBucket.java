@@ -0,0 +1,122 @@
+package com.box.l10n.mojito.openai;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets for the requests and tokens per minute of a model.
+ *
+ * <p>Capacities start with the configured limits (0 for no limit) and are replaced by the limits
+ * the API returns in its headers. The remaining counts of the headers lower the available amounts
+ * when the API has seen more usage than what was accounted here, eg. by another process using the
+ * same key. A {@code retry-after}, or an exhausted limit, pauses the bucket until the given time.
+ *
+ * <p>Instances are not thread safe, {@link OpenAIClientPool} guards them with its lock.
+ */
+class RateLimitBucket {
+
+  static final long REFILL_PERIOD_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  long requestsPerMinute;
+  long tokensPerMinute;
+  double availableRequests;
+  double availableTokens;
+  long lastRefillNanos;
+  long pausedUntilNanos;
+
+  RateLimitBucket(long requestsPerMinute, long tokensPerMinute, long nowNanos) {
+    this.requestsPerMinute = requestsPerMinute;
+    this.tokensPerMinute = tokensPerMinute;
+    this.availableRequests = requestsPerMinute;
+    this.availableTokens = tokensPerMinute;
+    this.lastRefillNanos = nowNanos;
+    this.pausedUntilNanos = nowNanos;
+  }
+
+  /**
+   * @return 0 if a request with the given number of tokens can be sent now, else the time to wait
+   */
+  long nanosUntilAvailable(long tokens, long nowNanos) {
+    refill(nowNanos);
+
+    long waitNanos = Math.max(0, pausedUntilNanos - nowNanos);
+    if (requestsPerMinute > 0 && availableRequests < 1) {
+      waitNanos = Math.max(waitNanos, nanosToRefill(1 - availableRequests, requestsPerMinute));
+    }
+    if (tokensPerMinute > 0) {
+      // a request larger than the bucket waits for a full bucket instead of waiting forever
+      double neededTokens = Math.min(tokens, tokensPerMinute);
+      if (availableTokens < neededTokens) {
+        waitNanos =
+            Math.max(waitNanos, nanosToRefill(neededTokens - availableTokens, tokensPerMinute));
+      }
+    }
+    return waitNanos;
+  }
+
+  void consume(long tokens, long nowNanos) {
+    refill(nowNanos);
+    if (requestsPerMinute > 0) {
+      availableRequests -= 1;
+    }
+    if (tokensPerMinute > 0) {
+      availableTokens -= tokens;
+    }
+  }
+
+  void update(RateLimitHeaders rateLimitHeaders, long nowNanos) {
+    refill(nowNanos);
+
+    if (rateLimitHeaders.limitRequests() != null
+        && rateLimitHeaders.limitRequests() != requestsPerMinute) {
+      availableRequests =
+          requestsPerMinute == 0
+              ? rateLimitHeaders.limitRequests()
+              : Math.min(availableRequests, rateLimitHeaders.limitRequests());
+      requestsPerMinute = rateLimitHeaders.limitRequests();
+    }
+    if (rateLimitHeaders.limitTokens() != null
+        && rateLimitHeaders.limitTokens() != tokensPerMinute) {
+      availableTokens =
+          tokensPerMinute == 0
+              ? rateLimitHeaders.limitTokens()
+              : Math.min(availableTokens, rateLimitHeaders.limitTokens());
+      tokensPerMinute = rateLimitHeaders.limitTokens();
+    }
+
+    if (rateLimitHeaders.remainingRequests() != null) {
+      availableRequests = Math.min(availableRequests, rateLimitHeaders.remainingRequests());
+      if (rateLimitHeaders.remainingRequests() <= 0 && rateLimitHeaders.resetRequests() != null) {
+        pauseUntil(nowNanos + rateLimitHeaders.resetRequests().toNanos());
+      }
+    }
+    if (rateLimitHeaders.remainingTokens() != null) {
+      availableTokens = Math.min(availableTokens, rateLimitHeaders.remainingTokens());
+      if (rateLimitHeaders.remainingTokens() <= 0 && rateLimitHeaders.resetTokens() != null) {
+        pauseUntil(nowNanos + rateLimitHeaders.resetTokens().toNanos());
+      }
+    }
+    if (rateLimitHeaders.retryAfter() != null) {
+      pauseUntil(nowNanos + rateLimitHeaders.retryAfter().toNanos());
+    }
+  }
+
+  void pauseUntil(long nanos) {
+    pausedUntilNanos = Math.max(pausedUntilNanos, nanos);
+  }
+
+  void refill(long nowNanos) {
+    long elapsedNanos = nowNanos - lastRefillNanos;
+    if (elapsedNanos <= 0) {
+      return;
+    }
+    double periods = (double) elapsedNanos / REFILL_PERIOD_NANOS;
+    availableRequests =
+        Math.min(requestsPerMinute, availableRequests + periods * requestsPerMinute);
+    availableTokens = Math.min(tokensPerMinute, availableTokens + periods * tokensPerMinute);
+    lastRefillNanos = nowNanos;
+  }
+
+  static long nanosToRefill(double amount, long perMinute) {
+    return (long) Math.ceil(amount / perMinute * REFILL_PERIOD_NANOS);
+  }
+}
@@ -0,0 +1,109 @@
+package com.box.l10n.mojito.openai;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rate limit information returned by the OpenAI API in the response headers.
+ *
+ * <p>Values that are missing or can't be parsed are {@code null}.
+ *
+ * @param limitRequests max number of requests per minute
+ * @param limitTokens max number of tokens per minute
+ * @param remainingRequests requests left before the limit is reached
+ * @param remainingTokens tokens left before the limit is reached
+ * @param resetRequests time until the request limit is fully reset
+ * @param resetTokens time until the token limit is fully reset
+ * @param retryAfter time to wait before retrying, sent with 429 responses
+ */
+record RateLimitHeaders(
+    Long limitRequests,
+    Long limitTokens,
+    Long remainingRequests,
+    Long remainingTokens,
+    Duration resetRequests,
+    Duration resetTokens,
+    Duration retryAfter) {
+
+  static final RateLimitHeaders NONE =
+      new RateLimitHeaders(null, null, null, null, null, null, null);
+
+  /** Durations like "1s", "6m0s", "1h2m3.5s" or "20ms" */
+  static final Pattern DURATION_PART_PATTERN = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+  static RateLimitHeaders fromHttpHeaders(HttpHeaders httpHeaders) {
+    Duration retryAfter =
+        parseLong(httpHeaders.firstValue("retry-after-ms"))
+            .map(Duration::ofMillis)
+            .orElseGet(
+                () ->
+                    httpHeaders
+                        .firstValue("retry-after")
+                        .map(RateLimitHeaders::parseDuration)
+                        .orElse(null));
+
+    return new RateLimitHeaders(
+        parseLong(httpHeaders.firstValue("x-ratelimit-limit-requests")).orElse(null),
+        parseLong(httpHeaders.firstValue("x-ratelimit-limit-tokens")).orElse(null),
+        parseLong(httpHeaders.firstValue("x-ratelimit-remaining-requests")).orElse(null),
+        parseLong(httpHeaders.firstValue("x-ratelimit-remaining-tokens")).orElse(null),
+        httpHeaders
+            .firstValue("x-ratelimit-reset-requests")
+            .map(RateLimitHeaders::parseDuration)
+            .orElse(null),
+        httpHeaders
+            .firstValue("x-ratelimit-reset-tokens")
+            .map(RateLimitHeaders::parseDuration)
+            .orElse(null),
+        retryAfter);
+  }
+
+  static Optional<Long> parseLong(Optional<String> value) {
+    try {
+      return value.map(String::trim).map(Long::parseLong);
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Parses a duration as sent by the API: a plain number of seconds (retry-after) or a sequence of
+   * amounts with units.
+   *
+   * @return the duration or {@code null} if it can't be parsed
+   */
+  static Duration parseDuration(String value) {
+    String trimmed = value.trim();
+    if (trimmed.isEmpty()) {
+      return null;
+    }
+
+    try {
+      return Duration.ofMillis(Math.round(Double.parseDouble(trimmed) * 1000));
+    } catch (NumberFormatException e) {
+      // not a number of seconds, try with units
+    }
+
+    Matcher matcher = DURATION_PART_PATTERN.matcher(trimmed);
+    double millis = 0;
+    int end = 0;
+    while (matcher.find()) {
+      if (matcher.start() != end) {
+        return null;
+      }
+      double amount = Double.parseDouble(matcher.group(1));
+      millis +=
+          switch (matcher.group(2)) {
+            case "h" -> amount * 3_600_000;
+            case "m" -> amount * 60_000;
+            case "s" -> amount * 1_000;
+            default -> amount;
+          };
+      end = matcher.end();
+    }
+    return end == trimmed.length() ? Duration.ofMillis(Math.round(millis)) : null;
+  }
+}
@@ -10,6 +10,7 @@ import com.box.l10n.mojito.slack.response.ImOpenResponse;
 import com.box.l10n.mojito.slack.response.UserResponse;
 import com.google.common.base.Preconditions;
 import com.ibm.icu.text.MessageFormat;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
@@ -19,6 +20,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 /** Simple Slack client based on the Web API: https://api.slack.com/web */
@@ -34,6 +36,7 @@ public class SlackClient {
   static final String API_CONVERSATIONS_INFO = "conversations.info";
   static final String API_CONVERSATIONS_MEMBERS = "conversations.members";
   static final String API_CHAT_POST_MESSAGE = "chat.postMessage";
+  static final String ERROR_RATE_LIMITED = "ratelimited";
 
   public static final String COLOR_GOOD = "good";
   public static final String COLOR_WARNING = "warning";
@@ -42,14 +45,25 @@ public class SlackClient {
   RestTemplate restTemplate = new RestTemplate();
   String authToken = null;
 
+  /** Base URL of the Web API, can point to a local stub for testing */
+  String baseApiUrl = BASE_API_URL;
+
   public SlackClient(String authToken) {
     this.authToken = authToken;
   }
 
+  public SlackClient(String authToken, String baseApiUrl) {
+    this.authToken = authToken;
+    if (baseApiUrl != null && !baseApiUrl.isBlank()) {
+      this.baseApiUrl = baseApiUrl.endsWith("/") ? baseApiUrl : baseApiUrl + "/";
+    }
+  }
+
   /**
    * Sends an instant message
    *
    * @param message message to send
+   * @throws SlackClientRateLimitedException if Slack rate limited the request
    * @throws SlackClientException
    */
   public ChatPostMessageResponse sendInstantMessage(Message message) throws SlackClientException {
@@ -57,9 +71,19 @@ public class SlackClient {
 
     HttpEntity<Message> httpEntity = getMessageHttpEntityForJsonPayload(message);
 
-    ChatPostMessageResponse postForObject =
-        restTemplate.postForObject(
-            getUrl(API_CHAT_POST_MESSAGE), httpEntity, ChatPostMessageResponse.class);
+    ChatPostMessageResponse postForObject;
+    try {
+      postForObject =
+          restTemplate.postForObject(
+              getUrl(API_CHAT_POST_MESSAGE), httpEntity, ChatPostMessageResponse.class);
+    } catch (HttpClientErrorException.TooManyRequests e) {
+      throw new SlackClientRateLimitedException(
+          "Rate limited while posting message in chat", getRetryAfter(e.getResponseHeaders()));
+    }
+
+    if (!postForObject.getOk() && ERROR_RATE_LIMITED.equals(postForObject.getError())) {
+      throw new SlackClientRateLimitedException("Rate limited while posting message in chat", null);
+    }
 
     if (!postForObject.getOk()) {
       String msg =
@@ -234,6 +258,18 @@ public class SlackClient {
   }
 
   String getUrl(String subpath) {
-    return BASE_API_URL + subpath;
+    return baseApiUrl + subpath;
+  }
+
+  static Duration getRetryAfter(HttpHeaders httpHeaders) {
+    String retryAfter = httpHeaders == null ? null : httpHeaders.getFirst(HttpHeaders.RETRY_AFTER);
+    if (retryAfter == null) {
+      return null;
+    }
+    try {
+      return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+    } catch (NumberFormatException e) {
+      return null;
+    }
   }
 }
@@ -0,0 +1,21 @@
+package com.box.l10n.mojito.slack;
+
+import java.time.Duration;
+
+/** Thrown when Slack rate limits a request, with the delay to wait before retrying if known. */
+public class SlackClientRateLimitedException extends SlackClientException {
+
+  Duration retryAfter;
+
+  public SlackClientRateLimitedException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  /**
+   * @return the delay requested by Slack, or {@code null} if it was not provided
+   */
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
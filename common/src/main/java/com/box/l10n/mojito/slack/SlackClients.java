@@ -37,7 +37,8 @@ public class SlackClients {
         slackClientsConfigurationProperties.getSlackClients().entrySet().stream()
             .map(
                 e -> {
-                  SlackClient slackClient = new SlackClient(e.getValue().getToken());
+                  SlackClient slackClient =
+                      new SlackClient(e.getValue().getToken(), e.getValue().getBaseApiUrl());
                   return new SimpleEntry<String, SlackClient>(e.getKey(), slackClient);
                 })
             .collect(Collectors.toMap(SimpleEntry::getKey, SimpleEntry::getValue));
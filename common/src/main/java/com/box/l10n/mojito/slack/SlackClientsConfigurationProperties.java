@@ -21,6 +21,9 @@ public class SlackClientsConfigurationProperties {
   static class SlackClientConfigurationProperties {
     String token;
 
+    /** Optional base URL of the Web API, e.g. a local stub for testing */
+    String baseApiUrl;
+
     public String getToken() {
       return token;
     }
@@ -28,5 +31,13 @@ public class SlackClientsConfigurationProperties {
     public void setToken(String token) {
       this.token = token;
     }
+
+    public String getBaseApiUrl() {
+      return baseApiUrl;
+    }
+
+    public void setBaseApiUrl(String baseApiUrl) {
+      this.baseApiUrl = baseApiUrl;
+    }
   }
 }
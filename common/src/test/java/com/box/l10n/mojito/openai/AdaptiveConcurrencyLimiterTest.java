@@ -0,0 +1,84 @@
+package com.box.l10n.mojito.openai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+  static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  public void startsAtMaxAndBlocksWhenFull() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2);
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    assertFalse(limiter.tryAcquire());
+    assertEquals(0, limiter.availablePermits());
+  }
+
+  @Test
+  public void halvesOnDropAndGrowsBackOnSuccess() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8);
+    limiter.tryAcquire();
+    limiter.onDropped(0);
+    assertEquals(4, limiter.getLimit());
+
+    long now = SECOND;
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire();
+      limiter.onSuccess(SECOND, now);
+      now += SECOND;
+    }
+    assertEquals(8, limiter.getLimit());
+  }
+
+  @Test
+  public void decreasesOncePerAverageLatency() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8);
+    limiter.tryAcquire();
+    limiter.onSuccess(SECOND, 0);
+
+    limiter.tryAcquire();
+    limiter.tryAcquire();
+    limiter.onDropped(SECOND);
+    limiter.onDropped(SECOND + SECOND / 2);
+    assertEquals(4, limiter.getLimit());
+
+    limiter.tryAcquire();
+    limiter.onDropped(3 * SECOND);
+    assertEquals(2, limiter.getLimit());
+  }
+
+  @Test
+  public void decreasesOnLatencyGrowth() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10);
+    long now = 0;
+    for (int i = 0; i < AdaptiveConcurrencyLimiter.LATENCY_WARMUP_SAMPLES; i++) {
+      limiter.tryAcquire();
+      limiter.onSuccess(SECOND, now);
+      now += SECOND;
+    }
+    assertEquals(10, limiter.getLimit());
+
+    limiter.tryAcquire();
+    limiter.onSuccess(5 * SECOND, now);
+    assertEquals(9, limiter.getLimit());
+  }
+
+  @Test
+  public void neverGoesUnderOne() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2);
+    long now = 0;
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire();
+      limiter.onDropped(now);
+      now += SECOND;
+    }
+    assertEquals(1, limiter.getLimit());
+    assertTrue(limiter.tryAcquire());
+  }
+}
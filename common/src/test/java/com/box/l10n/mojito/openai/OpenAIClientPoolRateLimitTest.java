@@ -0,0 +1,267 @@
+package com.box.l10n.mojito.openai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.box.l10n.mojito.openai.OpenAIClient.OpenAIClientResponseException;
+import com.box.l10n.mojito.openai.OpenAIClient.ResponsesRequest;
+import com.box.l10n.mojito.openai.OpenAIClientPool.SubmitOptions;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests the pool against a local stub of the API. */
+public class OpenAIClientPoolRateLimitTest {
+
+  HttpServer httpServer;
+
+  AtomicInteger requestCount = new AtomicInteger();
+
+  @BeforeEach
+  public void startStubServer() throws IOException {
+    httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    httpServer.createContext(
+        "/v1/responses",
+        exchange -> {
+          if (requestCount.incrementAndGet() == 1) {
+            exchange.getResponseHeaders().add("retry-after-ms", "300");
+            send(exchange, 429, "{\"error\":{\"message\":\"Rate limit reached\"}}");
+          } else {
+            exchange.getResponseHeaders().add("x-ratelimit-limit-requests", "1000");
+            exchange.getResponseHeaders().add("x-ratelimit-remaining-requests", "999");
+            send(exchange, 200, "{\"id\":\"resp\",\"output\":[]}");
+          }
+        });
+    httpServer.start();
+  }
+
+  @AfterEach
+  public void stopStubServer() {
+    httpServer.stop(0);
+  }
+
+  @Test
+  public void backsOffAndWaitsRetryAfterOn429() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    OpenAIClientPool openAIClientPool =
+        OpenAIClientPool.builder()
+            .numberOfClients(1)
+            .numberOfParallelRequestPerClient(4)
+            .apiKey("test-api-key")
+            .host("http://localhost:" + httpServer.getAddress().getPort())
+            .poolName("stub")
+            .meterRegistry(meterRegistry)
+            .build();
+
+    ResponsesRequest responsesRequest =
+        ResponsesRequest.builder().model("gpt-test").addUserText("Translate: hello").build();
+    SubmitOptions submitOptions = SubmitOptions.forResponsesRequest("repo/fr", responsesRequest);
+
+    CompletionException completionException =
+        assertThrows(
+            CompletionException.class,
+            () ->
+                openAIClientPool
+                    .submit(
+                        submitOptions,
+                        openAIClient ->
+                            openAIClient.getResponses(responsesRequest, Duration.ofSeconds(5)))
+                    .join());
+    OpenAIClientResponseException responseException =
+        assertInstanceOf(OpenAIClientResponseException.class, completionException.getCause());
+    assertEquals(429, responseException.getStatusCode());
+    assertEquals(2.0, gaugeValue(meterRegistry, "OpenAIClientPool.concurrencyLimit"), 0.0);
+    assertEquals(
+        1.0,
+        meterRegistry.counter("OpenAIClientPool.rateLimitedResponses", "pool", "stub").count(),
+        0.0);
+
+    long startNanos = System.nanoTime();
+    openAIClientPool
+        .submit(
+            submitOptions,
+            openAIClient -> openAIClient.getResponses(responsesRequest, Duration.ofSeconds(5)))
+        .join();
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+    assertTrue(elapsedMillis >= 200, "should wait for retry-after, waited: " + elapsedMillis);
+    assertEquals(2, requestCount.get());
+    assertEquals(0.0, gaugeValue(meterRegistry, "OpenAIClientPool.inFlight"), 0.0);
+  }
+
+  @Test
+  public void servesWaitingSubmissionsRoundRobinByQueueKey() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    OpenAIClientPool openAIClientPool =
+        new OpenAIClientPool(1, 1, 1, "test-api-key", "stub", meterRegistry);
+
+    CompletableFuture<String> firstRequest = new CompletableFuture<>();
+    openAIClientPool.submit(new SubmitOptions(null, "a", 0), openAIClient -> firstRequest);
+
+    List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    List<Thread> threads = new ArrayList<>();
+    for (String[] submission : new String[][] {{"a", "a2"}, {"a", "a3"}, {"b", "b1"}}) {
+      Thread thread =
+          new Thread(
+              () ->
+                  openAIClientPool.submit(
+                      new SubmitOptions(null, submission[0], 0),
+                      openAIClient -> {
+                        sent.add(submission[1]);
+                        return CompletableFuture.completedFuture(submission[1]);
+                      }));
+      thread.start();
+      threads.add(thread);
+      waitForWaitingSubmissions(meterRegistry, threads.size());
+    }
+
+    firstRequest.complete("a1");
+    for (Thread thread : threads) {
+      thread.join(1000);
+    }
+
+    assertEquals(List.of("a2", "b1", "a3"), sent);
+  }
+
+  @Test
+  public void skipsQueuesBlockedByTheRateLimitsOfTheirModel() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    OpenAIClientPool openAIClientPool =
+        OpenAIClientPool.builder()
+            .numberOfParallelRequestPerClient(2)
+            .apiKey("test-api-key")
+            .poolName("stub")
+            .meterRegistry(meterRegistry)
+            .requestsPerMinute(1)
+            .build();
+
+    openAIClientPool
+        .submit(
+            new SubmitOptions("model-a", "a", 0),
+            openAIClient -> CompletableFuture.completedFuture("a1"))
+        .join();
+
+    Thread blockedThread =
+        new Thread(
+            () -> {
+              try {
+                openAIClientPool.submit(
+                    new SubmitOptions("model-a", "a", 0),
+                    openAIClient -> CompletableFuture.completedFuture("a2"));
+              } catch (RuntimeException e) {
+                // interrupted at the end of the test
+              }
+            });
+    blockedThread.start();
+    waitForWaitingSubmissions(meterRegistry, 1.0);
+
+    assertEquals(
+        "b1",
+        openAIClientPool
+            .submit(
+                new SubmitOptions("model-b", "b", 0),
+                openAIClient -> CompletableFuture.completedFuture("b1"))
+            .get(1, TimeUnit.SECONDS));
+
+    blockedThread.interrupt();
+    blockedThread.join(1000);
+  }
+
+  @Test
+  public void submissionsWithoutModelUseTheDefaultModel() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    OpenAIClientPool openAIClientPool =
+        OpenAIClientPool.builder()
+            .numberOfParallelRequestPerClient(2)
+            .apiKey("test-api-key")
+            .poolName("stub")
+            .meterRegistry(meterRegistry)
+            .requestsPerMinute(1)
+            .defaultModel("gpt-test")
+            .build();
+
+    openAIClientPool.submit(openAIClient -> CompletableFuture.completedFuture("first")).join();
+
+    Thread blockedThread =
+        new Thread(
+            () -> {
+              try {
+                openAIClientPool.submit(
+                    new SubmitOptions("gpt-test", "a", 0),
+                    openAIClient -> CompletableFuture.completedFuture("second"));
+              } catch (RuntimeException e) {
+                // interrupted at the end of the test
+              }
+            });
+    blockedThread.start();
+    waitForWaitingSubmissions(meterRegistry, 1.0);
+
+    blockedThread.interrupt();
+    blockedThread.join(1000);
+  }
+
+  @Test
+  public void latencyIsNormalizedByTokens() {
+    assertEquals(500, OpenAIClientPool.getNormalizedLatencyNanos(1000, 2000));
+    assertEquals(1000, OpenAIClientPool.getNormalizedLatencyNanos(1000, 0));
+    assertEquals(
+        30,
+        OpenAIClientPool.getTokenCount(
+            new OpenAIClient.ResponsesResponse(
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                new OpenAIClient.ResponsesResponse.Usage(10, 20, 30, null, null),
+                null),
+            5));
+    assertEquals(5, OpenAIClientPool.getTokenCount("not a response", 5));
+  }
+
+  private void send(HttpExchange exchange, int statusCode, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(statusCode, bytes.length);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      outputStream.write(bytes);
+    }
+  }
+
+  private void waitForWaitingSubmissions(SimpleMeterRegistry meterRegistry, double expectedValue)
+      throws InterruptedException {
+    long deadlineMillis = System.currentTimeMillis() + 1000;
+    while (System.currentTimeMillis() < deadlineMillis) {
+      if (gaugeValue(meterRegistry, "OpenAIClientPool.waitingSubmissions") == expectedValue) {
+        return;
+      }
+      Thread.sleep(10);
+    }
+    assertEquals(
+        expectedValue, gaugeValue(meterRegistry, "OpenAIClientPool.waitingSubmissions"), 0.0);
+  }
+
+  private double gaugeValue(SimpleMeterRegistry meterRegistry, String name) {
+    return meterRegistry.get(name).tag("pool", "stub").gauge().value();
+  }
+}
@@ -0,0 +1,97 @@
+package com.box.l10n.mojito.openai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class RateLimitBucketTest {
+
+  static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  public void unlimitedByDefault() {
+    RateLimitBucket bucket = new RateLimitBucket(0, 0, 0);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(0, bucket.nanosUntilAvailable(10_000, 0));
+      bucket.consume(10_000, 0);
+    }
+  }
+
+  @Test
+  public void waitsForRequestRefill() {
+    RateLimitBucket bucket = new RateLimitBucket(60, 0, 0);
+    for (int i = 0; i < 60; i++) {
+      assertEquals(0, bucket.nanosUntilAvailable(0, 0));
+      bucket.consume(0, 0);
+    }
+    assertEquals(SECOND, bucket.nanosUntilAvailable(0, 0));
+    assertEquals(0, bucket.nanosUntilAvailable(0, SECOND));
+  }
+
+  @Test
+  public void waitsForTokenRefill() {
+    RateLimitBucket bucket = new RateLimitBucket(0, 6_000, 0);
+    bucket.consume(6_000, 0);
+    assertEquals(10 * SECOND, bucket.nanosUntilAvailable(1_000, 0));
+    // larger than the bucket: only waits for a full bucket
+    assertEquals(60 * SECOND, bucket.nanosUntilAvailable(100_000, 0));
+  }
+
+  @Test
+  public void updatesFromHeaders() {
+    RateLimitBucket bucket = new RateLimitBucket(0, 0, 0);
+    bucket.update(
+        new RateLimitHeaders(120L, 10_000L, 0L, 5_000L, Duration.ofMillis(500), null, null), 0);
+
+    assertEquals(120, bucket.requestsPerMinute);
+    assertEquals(10_000, bucket.tokensPerMinute);
+    assertEquals(5_000, bucket.availableTokens, 0.0);
+    assertTrue(bucket.nanosUntilAvailable(0, 0) >= SECOND / 2);
+  }
+
+  @Test
+  public void pausesOnRetryAfter() {
+    RateLimitBucket bucket = new RateLimitBucket(0, 0, 0);
+    bucket.update(
+        new RateLimitHeaders(null, null, null, null, null, null, Duration.ofSeconds(2)), 0);
+    assertEquals(2 * SECOND, bucket.nanosUntilAvailable(0, 0));
+    assertEquals(0, bucket.nanosUntilAvailable(0, 2 * SECOND));
+  }
+
+  @Test
+  public void parsesHeaders() {
+    HttpHeaders httpHeaders =
+        HttpHeaders.of(
+            Map.of(
+                "x-ratelimit-limit-requests", List.of("500"),
+                "x-ratelimit-remaining-tokens", List.of("29000"),
+                "x-ratelimit-reset-requests", List.of("6m0s"),
+                "x-ratelimit-reset-tokens", List.of("20ms"),
+                "retry-after", List.of("3")),
+            (name, value) -> true);
+
+    RateLimitHeaders rateLimitHeaders = RateLimitHeaders.fromHttpHeaders(httpHeaders);
+    assertEquals(500L, rateLimitHeaders.limitRequests());
+    assertNull(rateLimitHeaders.limitTokens());
+    assertEquals(29_000L, rateLimitHeaders.remainingTokens());
+    assertEquals(Duration.ofMinutes(6), rateLimitHeaders.resetRequests());
+    assertEquals(Duration.ofMillis(20), rateLimitHeaders.resetTokens());
+    assertEquals(Duration.ofSeconds(3), rateLimitHeaders.retryAfter());
+  }
+
+  @Test
+  public void parsesDurations() {
+    assertEquals(Duration.ofMillis(1_500), RateLimitHeaders.parseDuration("1.5s"));
+    assertEquals(Duration.ofMillis(3_723_500), RateLimitHeaders.parseDuration("1h2m3.5s"));
+    assertEquals(Duration.ofMillis(2_500), RateLimitHeaders.parseDuration("2.5"));
+    assertNull(RateLimitHeaders.parseDuration("soon"));
+    assertNull(RateLimitHeaders.parseDuration("1s later"));
+  }
+}
@@ -0,0 +1,88 @@
+package com.box.l10n.mojito.slack;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.box.l10n.mojito.slack.request.Message;
+import java.time.Duration;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+public class SlackClientTest {
+
+  SlackClient slackClient = new SlackClient("token", "http://localhost:8089/api");
+
+  MockRestServiceServer stubSlack;
+
+  @Before
+  public void before() {
+    stubSlack = MockRestServiceServer.bindTo(slackClient.restTemplate).build();
+  }
+
+  @Test
+  public void sendInstantMessageToBaseApiUrl() throws SlackClientException {
+    stubSlack
+        .expect(requestTo("http://localhost:8089/api/chat.postMessage"))
+        .andExpect(method(HttpMethod.POST))
+        .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+        .andRespond(withSuccess("{\"ok\":true,\"ts\":\"171.001\"}", MediaType.APPLICATION_JSON));
+
+    Assertions.assertThat(slackClient.sendInstantMessage(message()).getTs()).isEqualTo("171.001");
+    stubSlack.verify();
+  }
+
+  @Test
+  public void sendInstantMessageRateLimitedWithRetryAfter() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, "30");
+    stubSlack
+        .expect(requestTo("http://localhost:8089/api/chat.postMessage"))
+        .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(headers));
+
+    Assertions.assertThatThrownBy(() -> slackClient.sendInstantMessage(message()))
+        .isInstanceOfSatisfying(
+            SlackClientRateLimitedException.class,
+            e -> Assertions.assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(30)));
+  }
+
+  @Test
+  public void sendInstantMessageRateLimitedError() {
+    stubSlack
+        .expect(requestTo("http://localhost:8089/api/chat.postMessage"))
+        .andRespond(
+            withSuccess("{\"ok\":false,\"error\":\"ratelimited\"}", MediaType.APPLICATION_JSON));
+
+    Assertions.assertThatThrownBy(() -> slackClient.sendInstantMessage(message()))
+        .isInstanceOf(SlackClientRateLimitedException.class);
+  }
+
+  @Test
+  public void sendInstantMessageError() {
+    stubSlack
+        .expect(requestTo("http://localhost:8089/api/chat.postMessage"))
+        .andRespond(
+            withSuccess(
+                "{\"ok\":false,\"error\":\"channel_not_found\"}", MediaType.APPLICATION_JSON));
+
+    Assertions.assertThatThrownBy(() -> slackClient.sendInstantMessage(message()))
+        .isInstanceOf(SlackClientException.class)
+        .isNotInstanceOf(SlackClientRateLimitedException.class)
+        .hasMessageContaining("channel_not_found");
+  }
+
+  Message message() {
+    Message message = new Message();
+    message.setChannel("channel-1");
+    message.setText("Hello");
+    return message;
+  }
+}
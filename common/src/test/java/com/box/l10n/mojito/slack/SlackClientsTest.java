@@ -16,6 +16,7 @@ import org.springframework.test.context.junit4.SpringRunner;
     properties = {
       "l10n.slack-clients.slackClientId1.token=token1",
       "l10n.slack-clients.slackClientId2.token=token2",
+      "l10n.slack-clients.slackClientId2.base-api-url=http://localhost:8089/api",
     })
 @EnableConfigurationProperties
 public class SlackClientsTest {
@@ -30,5 +31,9 @@ public class SlackClientsTest {
     Assertions.assertThat(slackClients.getById("slackClientId1").authToken).isEqualTo("token1");
     Assertions.assertThat(slackClients.getById("slackClientId2")).isNotNull();
     Assertions.assertThat(slackClients.getById("slackClientId2").authToken).isEqualTo("token2");
+    Assertions.assertThat(slackClients.getById("slackClientId1").baseApiUrl)
+        .isEqualTo(SlackClient.BASE_API_URL);
+    Assertions.assertThat(slackClients.getById("slackClientId2").baseApiUrl)
+        .isEqualTo("http://localhost:8089/api/");
   }
 }
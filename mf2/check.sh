@@ -36,4 +36,5 @@ fi
 (cd java && sh run.sh demo)
 (cd java && sh run.sh inline-demo)
 (cd java && sh run.sh public-api-demo)
+(cd java && sh run.sh compiled-cache-tests)
 (cd java && sh run.sh datetime-demo)
@@ -1,14 +1,19 @@
 // Generated from Unicode CLDR by mf2/cldr/update_generated.sh; do not edit by hand.
 package com.box.l10n.mojito.mf2;
 
-import java.util.Locale;
+import java.math.BigDecimal;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 final class CldrPluralRules {
     private CldrPluralRules() {}
 
+    private static final int MAX_CACHED_LOCALES = 1024;
+    private static final Map<String, String> CARDINAL_RULE_IDS = new ConcurrentHashMap<>();
+    private static final Map<String, String> ORDINAL_RULE_IDS = new ConcurrentHashMap<>();
+
     static String selectCardinal(String locale, NumberOperands operands) {
-        return switch (lookupRuleId(CARDINAL_LOCALES, CARDINAL_PARENTS, locale)) {
+        return switch (ruleId(CARDINAL_RULE_IDS, CARDINAL_LOCALES, CARDINAL_PARENTS, locale)) {
             case "r0" -> selectCardinalR0(operands);
             case "r1" -> selectCardinalR1(operands);
             case "r2" -> selectCardinalR2(operands);
@@ -54,7 +59,7 @@ final class CldrPluralRules {
     }
 
     static String selectOrdinal(String locale, NumberOperands operands) {
-        return switch (lookupRuleId(ORDINAL_LOCALES, ORDINAL_PARENTS, locale)) {
+        return switch (ruleId(ORDINAL_RULE_IDS, ORDINAL_LOCALES, ORDINAL_PARENTS, locale)) {
             case "r0" -> selectOrdinalR0(operands);
             case "r1" -> selectOrdinalR1(operands);
             case "r2" -> selectOrdinalR2(operands);
@@ -426,6 +431,23 @@ final class CldrPluralRules {
 
     private static final Map<String, String> ORDINAL_PARENTS = Map.of();
 
+    private static String ruleId(
+            Map<String, String> ruleIds,
+            Map<String, String> locales,
+            Map<String, String> parents,
+            String locale) {
+        // The lookup chain allocates, memoize it for the small set of locales an app uses.
+        String ruleId = ruleIds.get(locale);
+        if (ruleId == null) {
+            ruleId = lookupRuleId(locales, parents, locale);
+            ruleId = ruleId == null ? "" : ruleId;
+            if (ruleIds.size() < MAX_CACHED_LOCALES) {
+                ruleIds.put(locale, ruleId);
+            }
+        }
+        return ruleId;
+    }
+
     private static String lookupRuleId(
             Map<String, String> locales, Map<String, String> parents, String locale) {
         for (String candidate : LocaleKey.pluralLookupChain(locale, parents)) {
@@ -462,6 +484,38 @@ final class CldrPluralRules {
             this.c = 0;
         }
 
+        static NumberOperands fromLong(long value) {
+            double n = Math.abs((double) value);
+            return new NumberOperands(n, (long) n, 0, 0, 0, 0);
+        }
+
+        static NumberOperands fromDouble(double value) {
+            if (Double.isFinite(value) && Math.rint(value) == value) {
+                return fromLong((long) value);
+            }
+            return fromString(Double.toString(value));
+        }
+
+        static NumberOperands fromBigDecimal(BigDecimal value) {
+            int scale = value.scale();
+            boolean plain = scale >= 0 && value.precision() - scale - 1 >= -6;
+            if (!plain || scale > 18 || value.unscaledValue().bitLength() > 62) {
+                return fromString(value.toString());
+            }
+            double n = Math.abs(value.doubleValue());
+            if (!Double.isFinite(n)) {
+                return null;
+            }
+            long f = Math.abs(value.unscaledValue().longValue()) % POWERS_OF_TEN[scale];
+            long t = f;
+            int w = f == 0 ? 0 : scale;
+            while (t != 0 && t % 10 == 0) {
+                t /= 10;
+                w--;
+            }
+            return new NumberOperands(n, (long) n, scale, w, f, t);
+        }
+
         static NumberOperands fromString(String raw) {
             if (raw == null) {
                 return null;
@@ -477,44 +531,49 @@ final class CldrPluralRules {
                 return null;
             }
             double n = Math.abs(parsed);
-            String normalized = trimmed;
-            while (normalized.startsWith("-") || normalized.startsWith("+")) {
-                normalized = normalized.substring(1);
+            int start = 0;
+            while (start < trimmed.length() && (trimmed.charAt(start) == '-' || trimmed.charAt(start) == '+')) {
+                start++;
             }
-            normalized = normalized.toLowerCase(Locale.ROOT);
-            int exponentIndex = normalized.indexOf('e');
-            String base = exponentIndex >= 0 ? normalized.substring(0, exponentIndex) : normalized;
-            int dotIndex = base.indexOf('.');
-            String fraction = dotIndex >= 0 ? base.substring(dotIndex + 1) : "";
-            String trimmedFraction = trimTrailingZeros(fraction);
-            Long f = parseLong(fraction);
-            Long t = parseLong(trimmedFraction);
-            if (f == null || t == null) {
-                return null;
+            int end = start;
+            while (end < trimmed.length() && trimmed.charAt(end) != 'e' && trimmed.charAt(end) != 'E') {
+                end++;
             }
-            return new NumberOperands(
-                    n, (long) n, fraction.length(), trimmedFraction.length(), f, t);
-        }
-
-        private static Long parseLong(String value) {
-            if (value.isEmpty()) {
-                return 0L;
+            int dotIndex = trimmed.indexOf('.', start);
+            int fractionStart = dotIndex >= 0 && dotIndex < end ? dotIndex + 1 : end;
+            int trimmedEnd = end;
+            while (trimmedEnd > fractionStart && trimmed.charAt(trimmedEnd - 1) == '0') {
+                trimmedEnd--;
             }
-            try {
-                return Long.parseLong(value);
-            } catch (NumberFormatException error) {
+            long f = parseDigits(trimmed, fractionStart, end);
+            long t = parseDigits(trimmed, fractionStart, trimmedEnd);
+            if (f < 0 || t < 0) {
                 return null;
             }
+            return new NumberOperands(
+                    n, (long) n, end - fractionStart, trimmedEnd - fractionStart, f, t);
         }
 
-        private static String trimTrailingZeros(String value) {
-            int end = value.length();
-            while (end > 0 && value.charAt(end - 1) == '0') {
-                end--;
+        /** Parses ASCII digits without allocating, returns -1 for other characters or overflow. */
+        private static long parseDigits(String value, int start, int end) {
+            long result = 0;
+            for (int index = start; index < end; index++) {
+                int digit = value.charAt(index) - '0';
+                if (digit < 0 || digit > 9 || result > (Long.MAX_VALUE - digit) / 10) {
+                    return -1;
+                }
+                result = result * 10 + digit;
             }
-            return value.substring(0, end);
+            return result;
         }
 
+        private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+        };
+
         long operandI64(String name) {
             return switch (name) {
                 case "i" -> i;
@@ -27,6 +27,12 @@ case "$command" in
   bench)
     java -cp "$tool_classpath" com.box.l10n.mojito.mf2.Benchmark "${2:-../conformance/fixtures/source-to-model}" "${3:-100000}" "${4:-10000}"
     ;;
+  bench-compiled)
+    java -cp "$tool_classpath" com.box.l10n.mojito.mf2.Benchmark "${2:-../conformance/fixtures/source-to-model}" "${3:-100000}" "${4:-10000}" compiled
+    ;;
+  bench-appendable)
+    java -cp "$tool_classpath" com.box.l10n.mojito.mf2.Benchmark "${2:-../conformance/fixtures/source-to-model}" "${3:-100000}" "${4:-10000}" appendable
+    ;;
   bench-parse)
     java -cp "$tool_classpath" com.box.l10n.mojito.mf2.ParseBenchmark "${2:-../conformance/fixtures/source-to-model}" "${3:-100000}" "${4:-10000}"
     ;;
@@ -42,6 +48,9 @@ case "$command" in
   public-api-demo)
     java -cp "$tool_classpath" com.box.l10n.mojito.mf2.PublicApiDemo
     ;;
+  compiled-cache-tests)
+    java -cp "$tool_classpath" com.box.l10n.mojito.mf2.CompiledMessageCacheTests
+    ;;
   jdk-demo)
     java -cp "$tool_classpath" com.box.l10n.mojito.mf2.JdkRegistryDemo
     ;;
@@ -0,0 +1,75 @@
+package com.box.l10n.mojito.mf2;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message validated and prepared once for repeated formatting.
+ *
+ * <p>{@link Mf2Formatter#formatMessage(Mf2Message, Map, Mf2FormatOptions)} validates the model and
+ * resolves selector annotations on every call. Compiling does that work up front and also builds
+ * the variant matching table and the list of variables the message reads, so formatting only
+ * resolves the arguments. Compiled messages are immutable and can be shared across threads; use
+ * {@link Mf2CompiledMessageCache} to keep compiled messages by source.
+ *
+ * <p>Function handlers are not bound at compile time. The {@link Mf2FunctionRegistry} is part of
+ * the {@link Mf2FormatOptions} of each call, so the same compiled message can be formatted with
+ * different registries, and finding a handler is a single get on the registry's immutable map.
+ * Binding would mean keeping one plan per registry for no measurable gain.
+ */
+public final class Mf2CompiledMessage {
+    private final Mf2Formatter.CompiledPlan plan;
+
+    private Mf2CompiledMessage(Mf2Formatter.CompiledPlan plan) {
+        this.plan = plan;
+    }
+
+    public static Mf2CompiledMessage compile(Mf2Message message) throws Mf2Exception {
+        return new Mf2CompiledMessage(Mf2Formatter.compile(message));
+    }
+
+    public static Mf2CompiledMessage compile(String source) throws Mf2Exception {
+        Mf2ParseResult result = Mf2Parser.parseToModel(source);
+        if (result.hasDiagnostics()) {
+            Mf2ParseDiagnostic diagnostic = result.diagnostics().get(0);
+            throw new Mf2Exception(diagnostic.code(), diagnostic.message());
+        }
+        return compile(result.model());
+    }
+
+    public Mf2Message message() {
+        return plan.message();
+    }
+
+    public Mf2FormatResult format(Map<String, ?> arguments, Mf2FormatOptions options)
+            throws Mf2Exception {
+        return Mf2Formatter.formatMessage(this, arguments, options);
+    }
+
+    /**
+     * Appends the formatted message to {@code output}.
+     *
+     * @return the recoverable errors, an empty list when formatting succeeded
+     */
+    public List<Mf2Exception> formatTo(
+            Appendable output, Map<String, ?> arguments, Mf2FormatOptions options)
+            throws Mf2Exception, IOException {
+        return Mf2Formatter.formatMessageTo(this, arguments, options, output);
+    }
+
+    public List<Mf2Exception> formatTo(
+            StringBuilder output, Map<String, ?> arguments, Mf2FormatOptions options)
+            throws Mf2Exception {
+        return Mf2Formatter.formatMessageTo(this, arguments, options, output);
+    }
+
+    public Mf2PartsResult formatToParts(Map<String, ?> arguments, Mf2FormatOptions options)
+            throws Mf2Exception {
+        return Mf2Formatter.formatMessageToParts(this, arguments, options);
+    }
+
+    Mf2Formatter.CompiledPlan plan() {
+        return plan;
+    }
+}
@@ -0,0 +1,53 @@
+package com.box.l10n.mojito.mf2;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, thread-safe cache from MF2 source to {@link Mf2CompiledMessage}.
+ *
+ * <p>The least recently used message is evicted once {@code maxEntries} is reached. Parsing and
+ * compiling run outside the lock, so two threads missing on the same source may both compile it;
+ * the first one stored wins. Sources that fail to parse or validate are not cached.
+ */
+public final class Mf2CompiledMessageCache {
+    private final int maxEntries;
+    private final Map<String, Mf2CompiledMessage> messages;
+
+    public Mf2CompiledMessageCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.messages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Mf2CompiledMessage> eldest) {
+                return size() > Mf2CompiledMessageCache.this.maxEntries;
+            }
+        };
+    }
+
+    public Mf2CompiledMessage get(String source) throws Mf2Exception {
+        synchronized (messages) {
+            Mf2CompiledMessage message = messages.get(source);
+            if (message != null) {
+                return message;
+            }
+        }
+        Mf2CompiledMessage compiled = Mf2CompiledMessage.compile(source);
+        synchronized (messages) {
+            Mf2CompiledMessage existing = messages.putIfAbsent(source, compiled);
+            return existing == null ? compiled : existing;
+        }
+    }
+
+    public int size() {
+        synchronized (messages) {
+            return messages.size();
+        }
+    }
+
+    public int maxEntries() {
+        return maxEntries;
+    }
+}
@@ -1,9 +1,12 @@
 package com.box.l10n.mojito.mf2;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -15,36 +18,92 @@ public final class Mf2Formatter {
     public static Mf2FormatResult formatMessage(
             Mf2Message message, Map<String, ?> arguments, Mf2FormatOptions options)
             throws Mf2Exception {
-        Mf2PartsResult result = formatMessageToParts(message, arguments, options);
-        return new Mf2FormatResult(
-                partsToString(result.parts(), options.bidiIsolation()), result.errors());
+        return formatMessage(Mf2CompiledMessage.compile(message), arguments, options);
     }
 
     public static Mf2PartsResult formatMessageToParts(
             Mf2Message message, Map<String, ?> arguments, Mf2FormatOptions options)
             throws Mf2Exception {
-        validate(message);
-        FormatContext context =
-                new FormatContext(snapshotArguments(arguments), options, true);
-        context.apply(message.declarations());
-        List<Mf2FormattedPart> parts = switch (message) {
-            case Mf2Message.PatternMessage patternMessage -> context.formatPatternToParts(patternMessage.pattern());
-            case Mf2Message.SelectMessage selectMessage -> context.formatSelectToParts(selectMessage.selectors(), selectMessage.variants());
-        };
-        return new Mf2PartsResult(parts, context.errors);
+        return formatMessageToParts(Mf2CompiledMessage.compile(message), arguments, options);
+    }
+
+    public static Mf2FormatResult formatMessage(
+            Mf2CompiledMessage message, Map<String, ?> arguments, Mf2FormatOptions options)
+            throws Mf2Exception {
+        StringBuilder output = new StringBuilder();
+        List<Mf2Exception> errors = formatMessageTo(message, arguments, options, output);
+        return new Mf2FormatResult(output.toString(), errors);
+    }
+
+    public static Mf2PartsResult formatMessageToParts(
+            Mf2CompiledMessage message, Map<String, ?> arguments, Mf2FormatOptions options)
+            throws Mf2Exception {
+        FormatContext context = new FormatContext(message.plan(), arguments, options, true);
+        List<Mf2FormattedPart> parts = context.formatPatternToParts(context.resolvePattern());
+        return new Mf2PartsResult(parts, context.errors());
+    }
+
+    /**
+     * Formats the message directly into {@code output}, without building parts or an intermediate
+     * string. Output written before an {@link Mf2Exception} is thrown is left in {@code output}.
+     *
+     * @return the recoverable errors, an empty list when formatting succeeded
+     */
+    public static List<Mf2Exception> formatMessageTo(
+            Mf2CompiledMessage message,
+            Map<String, ?> arguments,
+            Mf2FormatOptions options,
+            Appendable output)
+            throws Mf2Exception, IOException {
+        FormatContext context = new FormatContext(message.plan(), arguments, options, true);
+        context.formatPatternTo(context.resolvePattern(), output, options.bidiIsolation());
+        return context.errors();
     }
 
-    private static void validate(Mf2Message message) throws Mf2Exception {
+    public static List<Mf2Exception> formatMessageTo(
+            Mf2CompiledMessage message,
+            Map<String, ?> arguments,
+            Mf2FormatOptions options,
+            StringBuilder output)
+            throws Mf2Exception {
+        try {
+            return formatMessageTo(message, arguments, options, (Appendable) output);
+        } catch (IOException error) {
+            // StringBuilder never throws IOException.
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    /**
+     * Validates the message and precomputes everything that does not depend on the arguments or
+     * the options: selector annotations, the variant matching table, and the referenced variables.
+     * Function handlers depend on the registry of the options and are looked up when formatting.
+     */
+    static CompiledPlan compile(Mf2Message message) throws Mf2Exception {
         validateDeclarations(message.declarations());
+        Map<String, SelectorAnnotation> annotations = selectorAnnotations(message.declarations());
+        List<CompiledVariant> variants = List.of();
+        int fallbackVariant = -1;
         switch (message) {
             case Mf2Message.PatternMessage patternMessage -> validatePattern(patternMessage.pattern());
             case Mf2Message.SelectMessage selectMessage -> {
-                validateSelectorAnnotations(selectMessage.declarations(), selectMessage.selectors());
+                validateSelectorAnnotations(annotations, selectMessage.selectors());
                 for (Mf2Message.Variant variant : selectMessage.variants()) {
                     validatePattern(variant.value());
                 }
+                variants = compileVariants(annotations, selectMessage.selectors(), selectMessage.variants());
+                for (int index = 0; index < variants.size() && fallbackVariant < 0; index++) {
+                    if (isFallbackVariant(selectMessage.variants().get(index))) {
+                        fallbackVariant = index;
+                    }
+                }
+                if (fallbackVariant < 0) {
+                    throw Mf2Exception.missingFallbackVariant();
+                }
             }
         }
+        return new CompiledPlan(
+                message, Map.copyOf(annotations), variants, fallbackVariant, variableNames(message));
     }
 
     private static void validateDeclarations(List<Mf2Message.Declaration> declarations)
@@ -130,9 +189,8 @@ public final class Mf2Formatter {
     }
 
     private static void validateSelectorAnnotations(
-            List<Mf2Message.Declaration> declarations, List<Mf2Message.VariableRef> selectors)
+            Map<String, SelectorAnnotation> annotations, List<Mf2Message.VariableRef> selectors)
             throws Mf2Exception {
-        Map<String, SelectorAnnotation> annotations = selectorAnnotations(declarations);
         for (Mf2Message.VariableRef selector : selectors) {
             if (!annotations.containsKey(selector.name())) {
                 throw Mf2Exception.missingSelectorAnnotation(selector.name());
@@ -171,34 +229,179 @@ public final class Mf2Formatter {
         return annotations;
     }
 
+    private static List<CompiledVariant> compileVariants(
+            Map<String, SelectorAnnotation> annotations,
+            List<Mf2Message.VariableRef> selectors,
+            List<Mf2Message.Variant> variants)
+            throws Mf2Exception {
+        boolean[] stringSelectors = new boolean[selectors.size()];
+        for (int index = 0; index < selectors.size(); index++) {
+            SelectorAnnotation annotation = annotations.get(selectors.get(index).name());
+            stringSelectors[index] = annotation != null && annotation.isString();
+        }
+
+        Set<List<String>> signatures = new HashSet<>();
+        List<CompiledVariant> compiled = new ArrayList<>(variants.size());
+        for (Mf2Message.Variant variant : variants) {
+            if (variant.keys().size() != selectors.size()) {
+                throw Mf2Exception.variantKeyCountMismatch();
+            }
+            String[] keys = new String[selectors.size()];
+            String[] normalizedKeys = new String[selectors.size()];
+            List<String> signature = new ArrayList<>(selectors.size());
+            for (int index = 0; index < keys.length; index++) {
+                switch (variant.keys().get(index)) {
+                    case Mf2Message.CatchAllVariantKey ignored -> signature.add("*");
+                    case Mf2Message.LiteralVariantKey literal -> {
+                        keys[index] = literal.value();
+                        normalizedKeys[index] = stringSelectors[index]
+                                ? normalizeStringKey(literal.value())
+                                : literal.value();
+                        signature.add("=" + normalizedKeys[index]);
+                    }
+                }
+            }
+            if (!signatures.add(signature)) {
+                throw Mf2Exception.duplicateVariant();
+            }
+            compiled.add(new CompiledVariant(keys, normalizedKeys, variant.value()));
+        }
+        return List.copyOf(compiled);
+    }
+
+    private static String[] variableNames(Mf2Message message) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Mf2Message.Declaration declaration : message.declarations()) {
+            names.add(declaration.name());
+            addVariableNames(declaration.value(), names);
+        }
+        switch (message) {
+            case Mf2Message.PatternMessage patternMessage -> addVariableNames(patternMessage.pattern(), names);
+            case Mf2Message.SelectMessage selectMessage -> {
+                for (Mf2Message.VariableRef selector : selectMessage.selectors()) {
+                    names.add(selector.name());
+                }
+                for (Mf2Message.Variant variant : selectMessage.variants()) {
+                    addVariableNames(variant.value(), names);
+                }
+            }
+        }
+        return names.toArray(String[]::new);
+    }
+
+    private static void addVariableNames(List<Mf2Message.PatternPart> pattern, Set<String> names) {
+        for (Mf2Message.PatternPart part : pattern) {
+            switch (part) {
+                case Mf2Message.TextPart ignored -> {}
+                case Mf2Message.ExpressionPart expression -> addVariableNames(expression.expression(), names);
+                case Mf2Message.MarkupPart markup -> addVariableNames(markup.markup().options(), names);
+            }
+        }
+    }
+
+    private static void addVariableNames(Mf2Message.Expression expression, Set<String> names) {
+        if (expression.arg() instanceof Mf2Message.VariableArgument variable) {
+            names.add(variable.name());
+        }
+        if (expression.function() != null) {
+            addVariableNames(expression.function().options(), names);
+        }
+    }
+
+    private static void addVariableNames(
+            Map<String, Mf2Message.ExpressionArgument> options, Set<String> names) {
+        for (Mf2Message.ExpressionArgument option : options.values()) {
+            if (option instanceof Mf2Message.VariableArgument variable) {
+                names.add(variable.name());
+            }
+        }
+    }
+
+    /**
+     * Immutable result of {@link #compile}, shared by concurrent format calls.
+     *
+     * @param variants the select variants in source order, empty for pattern messages
+     * @param variableNames every variable the message can read, the only arguments snapshotted
+     */
+    record CompiledPlan(
+            Mf2Message message,
+            Map<String, SelectorAnnotation> selectorAnnotations,
+            List<CompiledVariant> variants,
+            int fallbackVariant,
+            String[] variableNames) {
+
+        private ArgumentValues snapshotArguments(Map<String, ?> arguments) {
+            // Keep format() isolated from caller map mutation without copying arguments the
+            // message never reads; the common one-arg path keeps its allocation-light value.
+            if (arguments == null || arguments.isEmpty() || variableNames.length == 0) {
+                return EmptyArgumentValues.INSTANCE;
+            }
+            if (arguments.size() == 1) {
+                Map.Entry<String, ?> entry = arguments.entrySet().iterator().next();
+                return new SingleArgumentValue(entry.getKey(), entry.getValue());
+            }
+            Object[] values = new Object[variableNames.length];
+            boolean[] present = new boolean[variableNames.length];
+            for (int index = 0; index < variableNames.length; index++) {
+                values[index] = arguments.get(variableNames[index]);
+                present[index] = values[index] != null || arguments.containsKey(variableNames[index]);
+            }
+            return new CapturedArgumentValues(variableNames, values, present);
+        }
+    }
+
+    /**
+     * @param keys the literal keys, {@code null} for catch-all keys
+     * @param normalizedKeys the keys as compared to the selector value, NFC normalized for
+     *     {@code :string} selectors
+     */
+    private record CompiledVariant(
+            String[] keys, String[] normalizedKeys, List<Mf2Message.PatternPart> value) {}
+
     private static final class FormatContext {
         private final ArgumentValues arguments;
         private Map<String, ResolvedValue> locals;
         private Set<String> failedLocals;
-        private final List<Mf2Exception> errors;
-        private String selectorAnnotationName;
-        private SelectorAnnotation selectorAnnotation;
-        private Map<String, SelectorAnnotation> selectorAnnotations;
+        private List<Mf2Exception> errors;
+        private final CompiledPlan plan;
         private final String locale;
         private final Mf2FunctionRegistry functions;
         private final Mf2RecoveryHandler onMissingArgument;
         private final Mf2RecoveryHandler onFormatError;
         private final boolean fallback;
 
-        FormatContext(ArgumentValues arguments, Mf2FormatOptions options, boolean fallback) {
-            this.arguments = arguments;
+        FormatContext(
+                CompiledPlan plan, Map<String, ?> arguments, Mf2FormatOptions options, boolean fallback) {
+            this.arguments = plan.snapshotArguments(arguments);
+            this.plan = plan;
             this.locale = options.locale();
             this.functions = options.functions();
             this.onMissingArgument = options.onMissingArgument();
             this.onFormatError = options.onFormatError();
-            this.errors = new ArrayList<>();
             this.fallback = fallback;
         }
 
-        void apply(List<Mf2Message.Declaration> declarations) throws Mf2Exception {
-            for (Map.Entry<String, SelectorAnnotation> entry : selectorAnnotations(declarations).entrySet()) {
-                addSelectorAnnotation(entry.getKey(), entry.getValue());
+        /** Applies the declarations, selects the variant and returns the pattern to format. */
+        List<Mf2Message.PatternPart> resolvePattern() throws Mf2Exception {
+            apply(plan.message().declarations());
+            return switch (plan.message()) {
+                case Mf2Message.PatternMessage patternMessage -> patternMessage.pattern();
+                case Mf2Message.SelectMessage selectMessage -> selectPattern(selectMessage.selectors());
+            };
+        }
+
+        List<Mf2Exception> errors() {
+            return errors == null ? List.of() : List.copyOf(errors);
+        }
+
+        private void addError(Mf2Exception error) {
+            if (errors == null) {
+                errors = new ArrayList<>(2);
             }
+            errors.add(error);
+        }
+
+        void apply(List<Mf2Message.Declaration> declarations) throws Mf2Exception {
             for (Mf2Message.Declaration declaration : declarations) {
                 switch (declaration) {
                     case Mf2Message.InputDeclaration input -> applyInputDeclaration(input);
@@ -222,8 +425,8 @@ public final class Mf2Formatter {
             if (!hasValue(input.name())) {
                 if (fallback) {
                     addFailedLocal(input.name());
-                    errors.add(Mf2Exception.unresolvedVariable(input.name()));
-                    errors.add(Mf2Exception.badOperand("Function operand is not available."));
+                    addError(Mf2Exception.unresolvedVariable(input.name()));
+                    addError(Mf2Exception.badOperand("Function operand is not available."));
                     return;
                 }
                 throw Mf2Exception.missingArgument(input.name());
@@ -240,59 +443,59 @@ public final class Mf2Formatter {
                         (optionName, defaultValue) -> optionValue(function, optionName, defaultValue),
                         sourceRef(inputValue.source())));
                 String sourceValue = inputValue.source() == null ? rendered : inputValue.source().value();
+                Object sourceRawValue = inputValue.source() == null
+                        ? inputValue.rawValue()
+                        : inputValue.source().rawValue();
                 putLocal(input.name(), ResolvedValue.string(
                         formatted,
-                        new ResolvedFunctionSource(sourceValue, function, inputValue.source())));
+                        new ResolvedFunctionSource(
+                                sourceValue, sourceRawValue, function, inputValue.source())));
             } catch (Mf2Exception error) {
                 if (!fallback) {
                     throw error;
                 }
-                errors.add(fallbackError(error));
+                addError(fallbackError(error));
                 addFailedLocal(input.name());
             }
         }
 
-        List<Mf2FormattedPart> formatSelectToParts(
-                List<Mf2Message.VariableRef> selectors, List<Mf2Message.Variant> variants)
+        List<Mf2Message.PatternPart> selectPattern(List<Mf2Message.VariableRef> selectors)
                 throws Mf2Exception {
-            List<SelectorValue> selectorValues = new ArrayList<>(selectors.size());
-            for (Mf2Message.VariableRef selector : selectors) {
-                selectorValues.add(selectorValue(selector));
+            SelectorValue[] selectorValues = new SelectorValue[selectors.size()];
+            for (int index = 0; index < selectorValues.length; index++) {
+                selectorValues[index] = selectorValue(selectors.get(index));
             }
 
-            Set<List<String>> signatures = new HashSet<>();
-            Mf2Message.Variant fallback = null;
-            Mf2Message.Variant selected = null;
-            List<Integer> selectedRank = null;
-            for (Mf2Message.Variant variant : variants) {
-                validateVariant(variant, selectorValues, signatures);
-                if (fallback == null && isFallbackVariant(variant)) {
-                    fallback = variant;
-                }
-                List<Integer> rank = variantMatchRank(variant, selectorValues);
-                if (rank != null && (selectedRank == null || compareRank(rank, selectedRank) > 0)) {
+            CompiledVariant selected = null;
+            int[] rank = new int[selectorValues.length];
+            int[] selectedRank = new int[selectorValues.length];
+            for (CompiledVariant variant : plan.variants()) {
+                if (variantMatchRank(variant, selectorValues, rank)
+                        && (selected == null || compareRank(rank, selectedRank) > 0)) {
                     selected = variant;
+                    int[] previous = selectedRank;
                     selectedRank = rank;
+                    rank = previous;
                 }
             }
-            if (fallback == null) {
-                throw Mf2Exception.missingFallbackVariant();
+            if (selected == null) {
+                selected = plan.variants().get(plan.fallbackVariant());
             }
-            return formatPatternToParts((selected == null ? fallback : selected).value());
+            return selected.value();
         }
 
         private SelectorValue selectorValue(Mf2Message.VariableRef selector) throws Mf2Exception {
             if (!hasValue(selector.name())) {
                 if (fallback) {
                     if (!isFailedLocal(selector.name())) {
-                        errors.add(Mf2Exception.unresolvedVariable(selector.name()));
+                        addError(Mf2Exception.unresolvedVariable(selector.name()));
                     }
                     SelectorAnnotation annotation = selectorAnnotation(selector.name());
                     if (annotation != null && functions.hasSelector(annotation.function())) {
                         if (!isFailedLocal(selector.name())) {
-                            errors.add(Mf2Exception.badOperand("Selector operand is not available."));
+                            addError(Mf2Exception.badOperand("Selector operand is not available."));
                         }
-                        errors.add(new Mf2Exception("bad-selector", "Selector operand is not available."));
+                        addError(new Mf2Exception("bad-selector", "Selector operand is not available."));
                     }
                     return new SelectorValue(
                             "",
@@ -317,6 +520,28 @@ public final class Mf2Formatter {
                     value.source());
         }
 
+        /** Writes the same string as the parts of {@link #formatPatternToParts} would produce. */
+        void formatPatternTo(
+                List<Mf2Message.PatternPart> pattern, Appendable output, Mf2BidiIsolation bidiIsolation)
+                throws Mf2Exception, IOException {
+            for (Mf2Message.PatternPart part : pattern) {
+                switch (part) {
+                    case Mf2Message.TextPart text -> output.append(text.value());
+                    case Mf2Message.ExpressionPart expression -> {
+                        ExpressionOutput rendered = formatExpressionOutput(expression.expression());
+                        if (!rendered.hadError() && bidiIsolation == Mf2BidiIsolation.DEFAULT) {
+                            output.append(bidiMarker(rendered.directionName()))
+                                    .append(rendered.value())
+                                    .append('\u2069');
+                        } else {
+                            output.append(rendered.value());
+                        }
+                    }
+                    case Mf2Message.MarkupPart markup -> recordMarkupResolutionErrors(markup.markup());
+                }
+            }
+        }
+
         List<Mf2FormattedPart> formatPatternToParts(List<Mf2Message.PatternPart> pattern)
                 throws Mf2Exception {
             List<Mf2FormattedPart> output = new ArrayList<>(pattern.size());
@@ -371,10 +596,10 @@ public final class Mf2Formatter {
                             hadError = true;
                             Mf2Exception error = Mf2Exception.unresolvedVariable(variable.name());
                             if (!isFailedLocal(variable.name())) {
-                                errors.add(error);
+                                addError(error);
                             }
                             if (expression.function() != null) {
-                                errors.add(Mf2Exception.badOperand("Function operand is not available."));
+                                addError(Mf2Exception.badOperand("Function operand is not available."));
                             }
                             String fallbackSource = fallbackSource(expression);
                             value = recoverMissingArgument(
@@ -403,6 +628,7 @@ public final class Mf2Formatter {
             BidiDirection direction = bidiDirectionForFunction(function, source);
             try {
                 String sourceValue = source == null ? value : source.value();
+                Object sourceRawValue = source == null ? rawValue : source.rawValue();
                 return new ExpressionOutput(
                         functions.format(new Mf2FunctionRegistry.FunctionCall(
                                 value,
@@ -412,14 +638,14 @@ public final class Mf2Formatter {
                                 (optionName, defaultValue) -> optionValue(function, optionName, defaultValue),
                                 sourceRef(source))),
                         false,
-                        new ResolvedFunctionSource(sourceValue, function, source),
+                        new ResolvedFunctionSource(sourceValue, sourceRawValue, function, source),
                         direction);
             } catch (Mf2Exception error) {
                 if (!fallback) {
                     throw error;
                 }
                 Mf2Exception recoverable = fallbackError(error);
-                errors.add(recoverable);
+                addError(recoverable);
                 String fallbackSource = fallbackSource(expression);
                 return new ExpressionOutput(
                         recoverFormatError(expression, fallbackSource, recoverable),
@@ -494,7 +720,7 @@ public final class Mf2Formatter {
             if (annotation == null || !annotation.isNumeric()) {
                 return null;
             }
-            String operand = annotation.operandForSelection(value);
+            Object operand = annotation.operandForSelection(value);
             return operand == null ? null : PluralRules.selectPluralCategory(locale, operand, annotation.numberSelect());
         }
 
@@ -533,84 +759,64 @@ public final class Mf2Formatter {
             return failedLocals != null && failedLocals.contains(name);
         }
 
-        private void addSelectorAnnotation(String name, SelectorAnnotation annotation) {
-            if (selectorAnnotationName == null) {
-                selectorAnnotationName = name;
-                selectorAnnotation = annotation;
-                return;
-            }
-            if (selectorAnnotations == null) {
-                selectorAnnotations = new HashMap<>(4);
-                selectorAnnotations.put(selectorAnnotationName, selectorAnnotation);
-            }
-            selectorAnnotations.put(name, annotation);
-        }
-
         private SelectorAnnotation selectorAnnotation(String name) {
-            if (selectorAnnotations != null) {
-                return selectorAnnotations.get(name);
-            }
-            return name.equals(selectorAnnotationName) ? selectorAnnotation : null;
+            return plan.selectorAnnotations().get(name);
         }
 
-        private List<Integer> variantMatchRank(
-                Mf2Message.Variant variant, List<SelectorValue> selectorValues)
+        /** Fills {@code rank} and returns true when every key of the variant matches. */
+        private boolean variantMatchRank(
+                CompiledVariant variant, SelectorValue[] selectorValues, int[] rank)
                 throws Mf2Exception {
-            if (variant.keys().size() != selectorValues.size()) {
-                return null;
-            }
-            List<Integer> ranks = new ArrayList<>(variant.keys().size());
-            for (int index = 0; index < variant.keys().size(); index++) {
-                Integer rank = keyMatchRank(variant.keys().get(index), selectorValues.get(index));
-                if (rank == null) {
-                    return null;
+            for (int index = 0; index < selectorValues.length; index++) {
+                Integer keyRank = keyMatchRank(
+                        variant.keys()[index], variant.normalizedKeys()[index], selectorValues[index]);
+                if (keyRank == null) {
+                    return false;
                 }
-                ranks.add(rank);
+                rank[index] = keyRank;
             }
-            return ranks;
+            return true;
         }
 
-        private Integer keyMatchRank(Mf2Message.VariantKey key, SelectorValue selector)
+        private Integer keyMatchRank(String key, String normalizedKey, SelectorValue selector)
                 throws Mf2Exception {
-            return switch (key) {
-                case Mf2Message.CatchAllVariantKey ignored -> 0;
-                case Mf2Message.LiteralVariantKey literal -> {
-                    if ((selector.exactMatch() && literalKeyMatches(literal.value(), selector))
-                            || literal.value().equals(selector.selectionKey())) {
-                        yield 1;
-                    }
-                    if (selector.function() == null) {
-                        yield null;
-                    }
-                    try {
-                        yield functions.select(new Mf2FunctionRegistry.FunctionMatch(
-                                selector.rendered(),
-                                selector.rendered(),
-                                selector.function(),
-                                literal.value(),
-                                locale,
-                                (optionName, defaultValue) -> optionValue(selector.function(), optionName, defaultValue),
-                                sourceRef(selector.source())));
-                    } catch (Mf2Exception error) {
-                        if (!fallback) {
-                            throw error;
-                        }
-                        errors.add(fallbackError(error));
-                        errors.add(new Mf2Exception("bad-selector", "Selector failed to match."));
-                        yield null;
-                    }
+            if (key == null) {
+                return 0;
+            }
+            if ((selector.exactMatch() && literalKeyMatches(key, normalizedKey, selector))
+                    || key.equals(selector.selectionKey())) {
+                return 1;
+            }
+            if (selector.function() == null) {
+                return null;
+            }
+            try {
+                return functions.select(new Mf2FunctionRegistry.FunctionMatch(
+                        selector.rendered(),
+                        selector.rendered(),
+                        selector.function(),
+                        key,
+                        locale,
+                        (optionName, defaultValue) -> optionValue(selector.function(), optionName, defaultValue),
+                        sourceRef(selector.source())));
+            } catch (Mf2Exception error) {
+                if (!fallback) {
+                    throw error;
                 }
-            };
+                addError(fallbackError(error));
+                addError(new Mf2Exception("bad-selector", "Selector failed to match."));
+                return null;
+            }
         }
 
-        private static int compareRank(List<Integer> left, List<Integer> right) {
-            for (int index = 0; index < Math.min(left.size(), right.size()); index++) {
-                int comparison = Integer.compare(left.get(index), right.get(index));
+        private static int compareRank(int[] left, int[] right) {
+            for (int index = 0; index < left.length; index++) {
+                int comparison = Integer.compare(left[index], right[index]);
                 if (comparison != 0) {
                     return comparison;
                 }
             }
-            return Integer.compare(left.size(), right.size());
+            return 0;
         }
 
         private void recordFunctionResolutionErrors(
@@ -624,7 +830,7 @@ public final class Mf2Formatter {
                         "bad-option",
                         "Numeric select option is not valid in this context.");
                 if (fallback) {
-                    errors.add(error);
+                    addError(error);
                     return;
                 }
                 throw error;
@@ -638,7 +844,7 @@ public final class Mf2Formatter {
             }
             Mf2Exception error = new Mf2Exception("bad-selector", "Currency selector is not supported.");
             if (fallback) {
-                errors.add(error);
+                addError(error);
                 return;
             }
             throw error;
@@ -651,7 +857,7 @@ public final class Mf2Formatter {
             }
             Mf2Exception error = new Mf2Exception("bad-option", "u:dir is not valid on markup.");
             if (fallback) {
-                errors.add(error);
+                addError(error);
                 return;
             }
             throw error;
@@ -699,53 +905,21 @@ public final class Mf2Formatter {
         }
     }
 
+    /**
+     * @param value the rendered operand the function chain started from
+     * @param rawValue the host value behind {@code value}, used for plural operands
+     */
     private record ResolvedFunctionSource(
-            String value, Mf2Message.FunctionRef function, ResolvedFunctionSource inherited) {}
-
-    private static ArgumentValues snapshotArguments(Map<String, ?> arguments) {
-        // Keep format() isolated from caller map mutation without penalizing the common one-arg path.
-        if (arguments == null || arguments.isEmpty()) {
-            return EmptyArgumentValues.INSTANCE;
-        }
-        if (arguments.size() == 1) {
-            Map.Entry<String, ?> entry = arguments.entrySet().iterator().next();
-            return new SingleArgumentValue(entry.getKey(), entry.getValue());
-        }
-        return new MapArgumentValues(new HashMap<>(arguments));
-    }
-
-    private static void validateVariant(
-            Mf2Message.Variant variant, List<SelectorValue> selectorValues, Set<List<String>> signatures)
-            throws Mf2Exception {
-        if (variant.keys().size() != selectorValues.size()) {
-            throw Mf2Exception.variantKeyCountMismatch();
-        }
-        if (!signatures.add(variantKeySignature(variant.keys(), selectorValues))) {
-            throw Mf2Exception.duplicateVariant();
-        }
-    }
-
-    private static List<String> variantKeySignature(
-            List<Mf2Message.VariantKey> keys, List<SelectorValue> selectorValues) {
-        List<String> signature = new ArrayList<>(keys.size());
-        for (int index = 0; index < keys.size(); index++) {
-            Mf2Message.VariantKey key = keys.get(index);
-            SelectorValue selector = selectorValues.get(index);
-            signature.add(switch (key) {
-                case Mf2Message.CatchAllVariantKey ignored -> "*";
-                case Mf2Message.LiteralVariantKey literal -> "="
-                        + (selector.normalizedRendered() == null
-                                ? literal.value()
-                                : normalizeStringKey(literal.value()));
-            });
-        }
-        return signature;
-    }
+            String value,
+            Object rawValue,
+            Mf2Message.FunctionRef function,
+            ResolvedFunctionSource inherited) {}
 
-    private static boolean literalKeyMatches(String value, SelectorValue selector) {
+    private static boolean literalKeyMatches(
+            String key, String normalizedKey, SelectorValue selector) {
         return selector.normalizedRendered() == null
-                ? value.equals(selector.rendered())
-                : normalizeStringKey(value).equals(selector.normalizedRendered());
+                ? key.equals(selector.rendered())
+                : normalizedKey.equals(selector.normalizedRendered());
     }
 
     private static String normalizeStringKey(String value) {
@@ -844,31 +1018,6 @@ public final class Mf2Formatter {
         return value.toString();
     }
 
-    private static String partsToString(
-            List<Mf2FormattedPart> parts, Mf2BidiIsolation bidiIsolation) {
-        StringBuilder output = new StringBuilder();
-        for (Mf2FormattedPart part : parts) {
-            switch (part) {
-                case Mf2FormattedPart.Text text -> output.append(text.value());
-                case Mf2FormattedPart.Fallback fallback -> output.append(fallback.value());
-                case Mf2FormattedPart.Expression expression ->
-                        output.append(isolateExpression(
-                                expression.value(), bidiIsolation, expression.direction()));
-                case Mf2FormattedPart.Markup ignored -> {
-                }
-            }
-        }
-        return output.toString();
-    }
-
-    private static String isolateExpression(
-            String value, Mf2BidiIsolation bidiIsolation, String direction) {
-        if (bidiIsolation == Mf2BidiIsolation.DEFAULT) {
-            return bidiMarker(direction) + value + "\u2069";
-        }
-        return value;
-    }
-
     private static char bidiMarker(String direction) {
         return switch (direction == null ? "auto" : direction) {
             case "ltr" -> '\u2066';
@@ -973,7 +1122,7 @@ public final class Mf2Formatter {
             return isNumericFunction(function);
         }
 
-        String operandForSelection(ResolvedValue value) {
+        Object operandForSelection(ResolvedValue value) {
             String rendered = value.rendered();
             if (function.name().equals("percent")) {
                 if (rendered.endsWith("%")) {
@@ -987,7 +1136,7 @@ public final class Mf2Formatter {
                 }
             }
             if (function.name().equals("number")) {
-                return value.source() == null ? rendered : value.source().value();
+                return value.source() == null ? value.rawValue() : value.source().rawValue();
             }
             return rendered;
         }
@@ -1033,15 +1182,27 @@ public final class Mf2Formatter {
         }
     }
 
-    private record MapArgumentValues(Map<String, ?> values) implements ArgumentValues {
+    private record CapturedArgumentValues(String[] names, Object[] values, boolean[] present)
+            implements ArgumentValues {
         @Override
         public boolean contains(String name) {
-            return values.containsKey(name);
+            int index = indexOf(name);
+            return index >= 0 && present[index];
         }
 
         @Override
         public Object get(String name) {
-            return values.get(name);
+            int index = indexOf(name);
+            return index < 0 ? null : values[index];
+        }
+
+        private int indexOf(String name) {
+            for (int index = 0; index < names.length; index++) {
+                if (names[index].equals(name)) {
+                    return index;
+                }
+            }
+            return -1;
         }
     }
 }
@@ -4,9 +4,21 @@ import java.util.HashMap;
 import java.util.Map;
 
 final class Mf2FunctionRegistries {
+    // Registries are immutable, share them instead of rebuilding the maps for every format options.
+    private static final Mf2FunctionRegistry PORTABLE = createPortable();
+    private static final Mf2FunctionRegistry JDK = createJdk();
+
     private Mf2FunctionRegistries() {}
 
     static Mf2FunctionRegistry portable() {
+        return PORTABLE;
+    }
+
+    static Mf2FunctionRegistry jdk() {
+        return JDK;
+    }
+
+    private static Mf2FunctionRegistry createPortable() {
         Map<String, Mf2FunctionRegistry.Formatter> formatters = new HashMap<>();
         Map<String, Mf2FunctionRegistry.Selector> selectors = new HashMap<>();
         Mf2PortableFunctions.registerFormatters(formatters);
@@ -15,7 +27,7 @@ final class Mf2FunctionRegistries {
         return new Mf2FunctionRegistry(formatters, selectors);
     }
 
-    static Mf2FunctionRegistry jdk() {
+    private static Mf2FunctionRegistry createJdk() {
         Map<String, Mf2FunctionRegistry.Formatter> formatters = new HashMap<>();
         Map<String, Mf2FunctionRegistry.Selector> selectors = new HashMap<>();
         Mf2PortableFunctions.registerFormatters(formatters);
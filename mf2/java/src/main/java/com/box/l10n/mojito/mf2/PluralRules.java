@@ -1,5 +1,7 @@
 package com.box.l10n.mojito.mf2;
 
+import java.math.BigDecimal;
+
 final class PluralRules {
     private PluralRules() {}
 
@@ -12,8 +14,7 @@ final class PluralRules {
             return null;
         }
 
-        CldrPluralRules.NumberOperands operands =
-                CldrPluralRules.NumberOperands.fromString(Mf2Formatter.valueToString(value));
+        CldrPluralRules.NumberOperands operands = numberOperands(value);
         if (operands == null) {
             return null;
         }
@@ -24,4 +25,21 @@ final class PluralRules {
             case EXACT -> null;
         };
     }
+
+    /**
+     * Computes the operands from primitive values directly, the string form is only parsed for
+     * other values. Results match parsing {@link Mf2Formatter#valueToString}.
+     */
+    private static CldrPluralRules.NumberOperands numberOperands(Object value) {
+        return switch (value) {
+            case Long number -> CldrPluralRules.NumberOperands.fromLong(number);
+            case Integer number -> CldrPluralRules.NumberOperands.fromLong(number);
+            case Short number -> CldrPluralRules.NumberOperands.fromLong(number);
+            case Byte number -> CldrPluralRules.NumberOperands.fromLong(number);
+            case Double number -> CldrPluralRules.NumberOperands.fromDouble(number);
+            case Float number -> CldrPluralRules.NumberOperands.fromDouble(number);
+            case BigDecimal number -> CldrPluralRules.NumberOperands.fromBigDecimal(number);
+            default -> CldrPluralRules.NumberOperands.fromString(Mf2Formatter.valueToString(value));
+        };
+    }
 }
@@ -20,30 +20,42 @@ public final class Benchmark {
                 : Path.of("../conformance/fixtures/source-to-model");
         int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
         int warmupIterations = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
-        List<Case> cases = loadCases(fixtureDir);
+        // "compiled" compiles every message before the timed loop, like the ICU reference harnesses;
+        // "appendable" also formats into a reused StringBuilder instead of returning strings.
+        String mode = args.length > 3 ? args[3] : "model";
+        List<Case> cases = loadCases(fixtureDir, !mode.equals("model"));
         if (cases.isEmpty()) {
             System.err.println("No format cases found.");
             return 2;
         }
 
+        boolean appendable = mode.equals("appendable");
+        StringBuilder output = new StringBuilder();
         for (int index = 0; index < warmupIterations; index++) {
-            cases.get(index % cases.size()).format();
+            output.setLength(0);
+            cases.get(index % cases.size()).format(output, appendable);
         }
 
         long bytes = 0;
+        long allocatedBefore = BenchmarkSupport.allocatedBytes();
         long started = System.nanoTime();
         for (int index = 0; index < iterations; index++) {
-            String output = cases.get(index % cases.size()).format();
+            output.setLength(0);
+            cases.get(index % cases.size()).format(output, appendable);
             bytes += BenchmarkSupport.utf8Length(output);
         }
         double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        long allocated = BenchmarkSupport.allocatedBytes() - allocatedBefore;
         System.out.printf(
-                "java format iterations=%d warmup=%d cases=%d seconds=%.6f ops_per_second=%.0f bytes=%d%n",
-                iterations, warmupIterations, cases.size(), seconds, iterations / seconds, bytes);
+                "java %s iterations=%d warmup=%d cases=%d seconds=%.6f ops_per_second=%.0f bytes=%d"
+                        + " allocated_bytes_per_op=%.0f%n",
+                mode.equals("model") ? "format" : "format-" + mode,
+                iterations, warmupIterations, cases.size(), seconds, iterations / seconds, bytes,
+                allocatedBefore < 0 ? -1.0 : (double) allocated / iterations);
         return 0;
     }
 
-    private static List<Case> loadCases(Path fixtureDir) throws Exception {
+    private static List<Case> loadCases(Path fixtureDir, boolean compiled) throws Exception {
         List<Case> cases = new ArrayList<>();
         try (var stream = Files.list(fixtureDir)) {
             for (Path fixturePath : stream
@@ -52,26 +64,42 @@ public final class Benchmark {
                     .toList()) {
                 Map<String, Object> fixture = object(JsonParser.parse(fixturePath));
                 Mf2Message message = Mf2ModelDecoder.fromJson(fixture.get("expectedModel"));
+                Mf2CompiledMessage compiledMessage = compiled ? Mf2CompiledMessage.compile(message) : null;
                 for (Object rawCase : arrayOrEmpty(fixture.get("formatCases"))) {
                     Map<String, Object> formatCase = object(rawCase);
                     cases.add(new Case(
                             message,
+                            compiledMessage,
                             objectOrEmpty(formatCase.get("arguments")),
-                            stringOrDefault(formatCase.get("locale"), "en")));
+                            Mf2FormatOptions.builder()
+                                    .locale(stringOrDefault(formatCase.get("locale"), "en"))
+                                    .build()));
                 }
             }
         }
         return cases;
     }
 
-    private record Case(Mf2Message message, Map<String, Object> arguments, String locale) {
-        String format() throws Mf2Exception {
-            Mf2FormatResult result = message.format(
-                    arguments, Mf2FormatOptions.builder().locale(locale).build());
+    private record Case(
+            Mf2Message message,
+            Mf2CompiledMessage compiledMessage,
+            Map<String, Object> arguments,
+            Mf2FormatOptions options) {
+        void format(StringBuilder output, boolean appendable) throws Mf2Exception {
+            if (appendable) {
+                List<Mf2Exception> errors = compiledMessage.formatTo(output, arguments, options);
+                if (!errors.isEmpty()) {
+                    throw new Mf2Exception("format-error", errors.toString());
+                }
+                return;
+            }
+            Mf2FormatResult result = compiledMessage == null
+                    ? message.format(arguments, options)
+                    : compiledMessage.format(arguments, options);
             if (result.hasErrors()) {
                 throw new Mf2Exception("format-error", result.errors().toString());
             }
-            return result.value();
+            output.append(result.value());
         }
     }
 
@@ -1,9 +1,23 @@
 package com.box.l10n.mojito.mf2;
 
+import java.lang.management.ManagementFactory;
+
 final class BenchmarkSupport {
     private BenchmarkSupport() {}
 
-    static int utf8Length(String value) {
+    /**
+     * Bytes allocated so far by the current thread, or -1 when the JVM does not report it. Used to
+     * compare allocation per format call without a profiler.
+     */
+    static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    static int utf8Length(CharSequence value) {
         int bytes = 0;
         for (int index = 0; index < value.length(); index++) {
             char ch = value.charAt(index);
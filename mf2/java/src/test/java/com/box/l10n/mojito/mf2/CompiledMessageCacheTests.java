@@ -0,0 +1,151 @@
+package com.box.l10n.mojito.mf2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public final class CompiledMessageCacheTests {
+    private static final Mf2FormatOptions OPTIONS = Mf2FormatOptions.defaults();
+
+    private CompiledMessageCacheTests() {}
+
+    public static void main(String[] args) throws Exception {
+        evictsLeastRecentlyUsed();
+        doesNotCacheFailures();
+        concurrentGet();
+        System.out.println("Java compiled message cache tests passed");
+    }
+
+    private static void evictsLeastRecentlyUsed() throws Exception {
+        Mf2CompiledMessageCache cache = new Mf2CompiledMessageCache(2);
+        Mf2CompiledMessage first = cache.get("First {$name}");
+        Mf2CompiledMessage second = cache.get("Second {$name}");
+        assertSame("cached message", first, cache.get("First {$name}"));
+
+        Mf2CompiledMessage third = cache.get("Third {$name}");
+        assertEquals("size at bound", 2, cache.size());
+        assertSame("recently used message kept", first, cache.get("First {$name}"));
+        assertSame("new message kept", third, cache.get("Third {$name}"));
+        assertNotSame("least recently used message evicted", second, cache.get("Second {$name}"));
+        assertEquals("size after recompiling evicted message", 2, cache.size());
+        assertEquals(
+                "evicted message formats after recompiling",
+                "Second Mojito",
+                cache.get("Second {$name}").format(Map.of("name", "Mojito"), OPTIONS).value());
+    }
+
+    private static void doesNotCacheFailures() throws Exception {
+        Mf2CompiledMessageCache cache = new Mf2CompiledMessageCache(10);
+        String parseError = "Hello {$name";
+        String validationError = ".input {$count :number}\n.match $count\none {{One}}";
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertThrows("parse error attempt " + attempt, () -> cache.get(parseError));
+            Mf2Exception error =
+                    assertThrows("validation error attempt " + attempt, () -> cache.get(validationError));
+            assertEquals(
+                    "validation error code",
+                    Mf2Exception.missingFallbackVariant().code(),
+                    error.code());
+        }
+        assertEquals("failures not cached", 0, cache.size());
+
+        cache.get("Hello {$name}");
+        assertEquals("valid message cached after failures", 1, cache.size());
+    }
+
+    private static void concurrentGet() throws Exception {
+        int threads = 8;
+        int sources = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // Bounded below the number of sources so that gets race with evictions.
+            Mf2CompiledMessageCache boundedCache = new Mf2CompiledMessageCache(sources / 2);
+            // Large enough to keep every source: racing threads must all see the stored message.
+            Mf2CompiledMessageCache largeCache = new Mf2CompiledMessageCache(sources);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Mf2CompiledMessage[]>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int offset = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Mf2CompiledMessage[] seen = new Mf2CompiledMessage[sources];
+                    for (int iteration = 0; iteration < 200; iteration++) {
+                        int index = (offset + iteration) % sources;
+                        String formatted = boundedCache.get(source(index))
+                                .format(Map.of("count", index), OPTIONS)
+                                .value();
+                        if (!formatted.equals(expected(index))) {
+                            throw new AssertionError("bounded cache formatted " + formatted);
+                        }
+                        Mf2CompiledMessage message = largeCache.get(source(index));
+                        if (seen[index] != null && seen[index] != message) {
+                            throw new AssertionError("large cache returned two messages for " + index);
+                        }
+                        seen[index] = message;
+                    }
+                    return seen;
+                }));
+            }
+            start.countDown();
+
+            Mf2CompiledMessage[] first = futures.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<Mf2CompiledMessage[]> future : futures) {
+                Mf2CompiledMessage[] seen = future.get(30, TimeUnit.SECONDS);
+                for (int index = 0; index < sources; index++) {
+                    assertSame("same message across threads " + index, first[index], seen[index]);
+                }
+            }
+            assertEquals("bounded cache size", sources / 2, boundedCache.size());
+            assertEquals("large cache size", sources, largeCache.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String source(int index) {
+        return ".input {$count :number}\n.match $count\n" + index + " {{Exact " + index
+                + "}}\n* {{Other {$count}}}";
+    }
+
+    private static String expected(int index) {
+        return "Exact " + index;
+    }
+
+    @FunctionalInterface
+    private interface Mf2Call {
+        void run() throws Mf2Exception;
+    }
+
+    private static Mf2Exception assertThrows(String label, Mf2Call call) {
+        try {
+            call.run();
+        } catch (Mf2Exception error) {
+            return error;
+        }
+        throw new AssertionError(label + " expected Mf2Exception");
+    }
+
+    private static void assertSame(String label, Object expected, Object actual) {
+        if (expected != actual) {
+            throw new AssertionError(label + " expected the same instance");
+        }
+    }
+
+    private static void assertNotSame(String label, Object unexpected, Object actual) {
+        if (unexpected == actual) {
+            throw new AssertionError(label + " expected another instance");
+        }
+    }
+
+    private static void assertEquals(String label, Object expected, Object actual) {
+        if (!expected.equals(actual)) {
+            throw new AssertionError(label + " expected " + expected + ", got " + actual);
+        }
+    }
+}
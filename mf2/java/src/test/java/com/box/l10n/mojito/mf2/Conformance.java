@@ -23,6 +23,7 @@ public final class Conformance {
         int checkedFallbackCases = 0;
         int checkedFallbackPartsCases = 0;
         int checkedModels = 0;
+        Mf2CompiledMessageCache compiledMessages = new Mf2CompiledMessageCache(16);
         for (Path fixturePath : jsonFiles(fixtureDir)) {
             Map<String, Object> fixture = object(JsonParser.parse(fixturePath));
             Mf2Message expectedModel = Mf2ModelDecoder.fromJson(fixture.get("expectedModel"));
@@ -40,16 +41,17 @@ public final class Conformance {
                 return 1;
             }
             checkedModels++;
+            Mf2CompiledMessage compiledMessage = compiledMessages.get(string(fixture.get("source")));
             for (Object rawCase : arrayOrEmpty(fixture.get("formatCases"))) {
                 Map<String, Object> formatCase = object(rawCase);
+                Mf2FormatOptions options = Mf2FormatOptions.builder()
+                        .locale(stringOrDefault(formatCase.get("locale"), "en"))
+                        .bidiIsolation(Mf2BidiIsolation.fromName(
+                                stringOrDefault(formatCase.get("bidiIsolation"), "none")))
+                        .functions(ConformanceFunctionRegistry.registry())
+                        .build();
                 Mf2FormatResult actual = parseResult.model().format(
-                        objectOrEmpty(formatCase.get("arguments")),
-                        Mf2FormatOptions.builder()
-                                .locale(stringOrDefault(formatCase.get("locale"), "en"))
-                                .bidiIsolation(Mf2BidiIsolation.fromName(
-                                        stringOrDefault(formatCase.get("bidiIsolation"), "none")))
-                                .functions(ConformanceFunctionRegistry.registry())
-                                .build());
+                        objectOrEmpty(formatCase.get("arguments")), options);
                 String expected = string(formatCase.get("expected"));
                 if (!actual.value().equals(expected) || !actual.errors().isEmpty()) {
                     System.err.printf(
@@ -57,6 +59,17 @@ public final class Conformance {
                             fixturePath.getFileName(), expected, actual.value(), actual.errors());
                     return 1;
                 }
+                Mf2FormatResult compiledActual = compiledMessage.format(
+                        objectOrEmpty(formatCase.get("arguments")), options);
+                if (!compiledActual.value().equals(expected) || compiledActual.hasErrors()) {
+                    System.err.printf(
+                            "%s: compiled message formatted %s errors=%s, expected %s%n",
+                            fixturePath.getFileName(),
+                            compiledActual.value(),
+                            compiledActual.errors(),
+                            expected);
+                    return 1;
+                }
                 checkedCases++;
             }
             for (Object rawCase : arrayOrEmpty(fixture.get("partsCases"))) {
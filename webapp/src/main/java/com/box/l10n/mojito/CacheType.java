@@ -5,13 +5,15 @@ public enum CacheType {
   DEFAULT(Names.DEFAULT),
   LOCALES(Names.LOCALES),
   PLURAL_FORMS(Names.PLURAL_FORMS),
-  MACHINE_TRANSLATION(Names.MACHINE_TRANSLATION);
+  MACHINE_TRANSLATION(Names.MACHINE_TRANSLATION),
+  MACHINE_TRANSLATION_SEGMENT(Names.MACHINE_TRANSLATION_SEGMENT);
 
   public static class Names {
     public static final String DEFAULT = "default";
     public static final String LOCALES = "locales";
     public static final String PLURAL_FORMS = "pluralForms";
     public static final String MACHINE_TRANSLATION = "machineTranslation";
+    public static final String MACHINE_TRANSLATION_SEGMENT = "machineTranslationSegment";
   }
 
   CacheType(String cacheName) {
@@ -39,16 +39,32 @@ public class CachingConfig implements CachingConfigurer {
     Cache localesCache = new ConcurrentMapCache(CacheType.Names.LOCALES);
     Cache pluralForm = new ConcurrentMapCache(CacheType.Names.PLURAL_FORMS);
 
-    TieredCache machineTranslationTieredCache = getMachineTranslationCache();
+    TieredCache machineTranslationTieredCache =
+        getMachineTranslationCache(
+            CacheType.Names.MACHINE_TRANSLATION,
+            "machineTranslationInMemory",
+            "machineTranslationInDb");
+
+    TieredCache machineTranslationSegmentTieredCache =
+        getMachineTranslationCache(
+            CacheType.Names.MACHINE_TRANSLATION_SEGMENT,
+            "machineTranslationSegmentInMemory",
+            "machineTranslationSegmentInDb");
 
     SimpleCacheManager manager = new SimpleCacheManager();
     manager.setCaches(
-        Arrays.asList(defaultCache, localesCache, pluralForm, machineTranslationTieredCache));
+        Arrays.asList(
+            defaultCache,
+            localesCache,
+            pluralForm,
+            machineTranslationTieredCache,
+            machineTranslationSegmentTieredCache));
 
     return manager;
   }
 
-  private TieredCache getMachineTranslationCache() {
+  private TieredCache getMachineTranslationCache(
+      String cacheName, String inMemoryCacheName, String databaseCacheName) {
     com.github.benmanes.caffeine.cache.Cache<Object, Object> machineTranslationCaffeineCache =
         Caffeine.newBuilder()
             .expireAfterWrite(
@@ -58,7 +74,7 @@ public class CachingConfig implements CachingConfigurer {
             .build();
 
     CaffeineCache machineTranslationMemoryCache =
-        new CaffeineCache("machineTranslationInMemory", machineTranslationCaffeineCache);
+        new CaffeineCache(inMemoryCacheName, machineTranslationCaffeineCache);
 
     DatabaseCache machineTranslationDatabaseCache = null;
 
@@ -67,15 +83,21 @@ public class CachingConfig implements CachingConfigurer {
       mtDbCacheConfiguration.setTtl(mtServiceCacheConfiguration.getDatabase().getTtl());
       mtDbCacheConfiguration.setEvictEntryOnDeserializationFailure(
           mtServiceCacheConfiguration.getDatabase().isEvictEntryOnDeserializationFailure());
+      mtDbCacheConfiguration.setValueSerializationPair(
+          mtServiceCacheConfiguration.getDatabase().getValueSerialization().newSerializationPair());
+      mtDbCacheConfiguration.setWriteBehindEnabled(
+          mtServiceCacheConfiguration.getDatabase().isWriteBehindEnabled());
+      mtDbCacheConfiguration.setWriteBehindFlushInterval(
+          mtServiceCacheConfiguration.getDatabase().getWriteBehindFlushInterval());
+      mtDbCacheConfiguration.setWriteBehindBatchSize(
+          mtServiceCacheConfiguration.getDatabase().getWriteBehindBatchSize());
 
       machineTranslationDatabaseCache =
-          new DatabaseCache("machineTranslationInDb", mtDbCacheConfiguration);
+          new DatabaseCache(databaseCacheName, mtDbCacheConfiguration);
     }
 
     return new TieredCache(
-        CacheType.Names.MACHINE_TRANSLATION,
-        machineTranslationMemoryCache,
-        machineTranslationDatabaseCache);
+        cacheName, machineTranslationMemoryCache, machineTranslationDatabaseCache);
   }
 
   @Bean
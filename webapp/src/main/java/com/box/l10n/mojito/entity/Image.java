@@ -24,6 +24,15 @@ public class Image extends AuditableEntity {
   @Lob
   private byte[] content;
 
+  @Column(name = "content_sha256", length = 64)
+  private String contentSha256;
+
+  @Column(name = "content_type")
+  private String contentType;
+
+  @Column(name = "content_length")
+  private Long contentLength;
+
   public String getName() {
     return name;
   }
@@ -39,4 +48,28 @@ public class Image extends AuditableEntity {
   public void setContent(byte[] content) {
     this.content = content;
   }
+
+  public String getContentSha256() {
+    return contentSha256;
+  }
+
+  public void setContentSha256(String contentSha256) {
+    this.contentSha256 = contentSha256;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public void setContentType(String contentType) {
+    this.contentType = contentType;
+  }
+
+  public Long getContentLength() {
+    return contentLength;
+  }
+
+  public void setContentLength(Long contentLength) {
+    this.contentLength = contentLength;
+  }
 }
@@ -27,6 +27,10 @@ public class MBlob extends SettableAuditableEntity {
   @Column(name = "expire_after_seconds")
   private Long expireAfterSeconds;
 
+  /** Hex MD5 of the content, null for blobs written before it was kept until they are read */
+  @Column(name = "content_md5", length = 32)
+  private String contentMd5;
+
   public String getName() {
     return name;
   }
@@ -47,6 +51,14 @@ public class MBlob extends SettableAuditableEntity {
     return expireAfterSeconds;
   }
 
+  public String getContentMd5() {
+    return contentMd5;
+  }
+
+  public void setContentMd5(String contentMd5) {
+    this.contentMd5 = contentMd5;
+  }
+
   public boolean hasExpiration() {
     return expireAfterSeconds != null;
   }
@@ -0,0 +1,167 @@
+package com.box.l10n.mojito.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.ZonedDateTime;
+
+/**
+ * Slack message written to the outbox in the transaction of the change that triggers it, and
+ * delivered asynchronously.
+ *
+ * <p>When {@link #threadTs} is not set and {@link #reviewProjectRequestId} is, the message is
+ * posted in the Slack thread of the review project request, which is created by the first message
+ * delivered to the channel.
+ *
+ * <p>When {@link #translationIncidentId} is set, the Slack thread of the delivered message is saved
+ * on the translation incident.
+ */
+@Entity
+@Table(
+    name = "slack_notification",
+    indexes = {
+      @Index(
+          name = "I__SLACK_NOTIFICATION__STATUS__NEXT_ATTEMPT_DATE",
+          columnList = "status, next_attempt_date"),
+      @Index(name = "I__SLACK_NOTIFICATION__IDEMPOTENCY_KEY", columnList = "idempotency_key")
+    })
+public class SlackNotification extends AuditableEntity {
+
+  @Column(name = "slack_client_id", nullable = false, length = 255)
+  private String slackClientId;
+
+  @Column(name = "slack_channel_id", nullable = false, length = 64)
+  private String slackChannelId;
+
+  @Column(name = "thread_ts", length = 64)
+  private String threadTs;
+
+  /** Not a foreign key so that pending notifications don't prevent deleting requests */
+  @Column(name = "review_project_request_id")
+  private Long reviewProjectRequestId;
+
+  /** Not a foreign key so that pending notifications don't prevent deleting incidents */
+  @Column(name = "translation_incident_id")
+  private Long translationIncidentId;
+
+  @Column(name = "text", nullable = false, length = Integer.MAX_VALUE)
+  private String text;
+
+  @Column(name = "idempotency_key", nullable = false, length = 64)
+  private String idempotencyKey;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false, length = 16)
+  private SlackNotificationStatus status;
+
+  @Column(name = "attempts", nullable = false)
+  private int attempts;
+
+  @Column(name = "next_attempt_date", nullable = false)
+  private ZonedDateTime nextAttemptDate;
+
+  @Column(name = "last_error", length = 1024)
+  private String lastError;
+
+  @Column(name = "message_ts", length = 64)
+  private String messageTs;
+
+  public String getSlackClientId() {
+    return slackClientId;
+  }
+
+  public void setSlackClientId(String slackClientId) {
+    this.slackClientId = slackClientId;
+  }
+
+  public String getSlackChannelId() {
+    return slackChannelId;
+  }
+
+  public void setSlackChannelId(String slackChannelId) {
+    this.slackChannelId = slackChannelId;
+  }
+
+  public String getThreadTs() {
+    return threadTs;
+  }
+
+  public void setThreadTs(String threadTs) {
+    this.threadTs = threadTs;
+  }
+
+  public Long getReviewProjectRequestId() {
+    return reviewProjectRequestId;
+  }
+
+  public void setReviewProjectRequestId(Long reviewProjectRequestId) {
+    this.reviewProjectRequestId = reviewProjectRequestId;
+  }
+
+  public Long getTranslationIncidentId() {
+    return translationIncidentId;
+  }
+
+  public void setTranslationIncidentId(Long translationIncidentId) {
+    this.translationIncidentId = translationIncidentId;
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  public void setText(String text) {
+    this.text = text;
+  }
+
+  public String getIdempotencyKey() {
+    return idempotencyKey;
+  }
+
+  public void setIdempotencyKey(String idempotencyKey) {
+    this.idempotencyKey = idempotencyKey;
+  }
+
+  public SlackNotificationStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(SlackNotificationStatus status) {
+    this.status = status;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  public ZonedDateTime getNextAttemptDate() {
+    return nextAttemptDate;
+  }
+
+  public void setNextAttemptDate(ZonedDateTime nextAttemptDate) {
+    this.nextAttemptDate = nextAttemptDate;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+
+  public String getMessageTs() {
+    return messageTs;
+  }
+
+  public void setMessageTs(String messageTs) {
+    this.messageTs = messageTs;
+  }
+}
@@ -0,0 +1,8 @@
+package com.box.l10n.mojito.entity;
+
+public enum SlackNotificationStatus {
+  PENDING,
+  SENDING,
+  SENT,
+  FAILED
+}
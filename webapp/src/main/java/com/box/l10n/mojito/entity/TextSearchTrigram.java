@@ -0,0 +1,73 @@
+package com.box.l10n.mojito.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Posting of the trigram index used to prefilter text searches (see {@link
+ * com.box.l10n.mojito.service.tm.search.trigram.TextUnitTrigramIndexService}).
+ *
+ * <p>Each row records that the text of an entity (a {@link TMTextUnit} for {@link Field#SOURCE} and
+ * {@link Field#NAME}, a {@link TMTextUnitVariant} for {@link Field#TARGET}) contains a trigram. The
+ * trigram is stored as a hash: collisions only add candidates, the search still verifies the actual
+ * text.
+ */
+@Entity
+@Table(
+    name = "text_search_trigram",
+    indexes = {
+      @Index(
+          name = "UK__TEXT_SEARCH_TRIGRAM__FIELD__HASH__ENTITY_ID",
+          columnList = "field, trigram_hash, entity_id",
+          unique = true)
+    })
+public class TextSearchTrigram extends BaseEntity {
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "field", length = 16, nullable = false)
+  private Field field;
+
+  @Column(name = "trigram_hash", nullable = false)
+  private int trigramHash;
+
+  @Column(name = "entity_id", nullable = false)
+  private Long entityId;
+
+  public Field getField() {
+    return field;
+  }
+
+  public void setField(Field field) {
+    this.field = field;
+  }
+
+  public int getTrigramHash() {
+    return trigramHash;
+  }
+
+  public void setTrigramHash(int trigramHash) {
+    this.trigramHash = trigramHash;
+  }
+
+  public Long getEntityId() {
+    return entityId;
+  }
+
+  public void setEntityId(Long entityId) {
+    this.entityId = entityId;
+  }
+
+  /** Text fields that are indexed */
+  public enum Field {
+    /** {@link TMTextUnit#getContent()} */
+    SOURCE,
+    /** {@link TMTextUnit#getName()} */
+    NAME,
+    /** {@link TMTextUnitVariant#getContent()} */
+    TARGET
+  }
+}
@@ -0,0 +1,63 @@
+package com.box.l10n.mojito.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.ZonedDateTime;
+
+/**
+ * Id below the {@link TextSearchTrigramWatermark} of a field that had no entity when the index
+ * passed it.
+ *
+ * <p>Ids are allocated before transactions commit, so the entity may only be visible later, or
+ * never if the transaction was rolled back. Until the entity is found and indexed, the gap keeps it
+ * in the search results. Gaps still without an entity after a retention are removed.
+ */
+@Entity
+@Table(
+    name = "text_search_trigram_gap",
+    indexes = {
+      @Index(
+          name = "UK__TEXT_SEARCH_TRIGRAM_GAP__FIELD__ENTITY_ID",
+          columnList = "field, entity_id",
+          unique = true)
+    })
+public class TextSearchTrigramGap extends BaseEntity {
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "field", length = 16, nullable = false)
+  private TextSearchTrigram.Field field;
+
+  @Column(name = "entity_id", nullable = false)
+  private Long entityId;
+
+  @Column(name = "created_date", nullable = false)
+  private ZonedDateTime createdDate;
+
+  public TextSearchTrigram.Field getField() {
+    return field;
+  }
+
+  public void setField(TextSearchTrigram.Field field) {
+    this.field = field;
+  }
+
+  public Long getEntityId() {
+    return entityId;
+  }
+
+  public void setEntityId(Long entityId) {
+    this.entityId = entityId;
+  }
+
+  public ZonedDateTime getCreatedDate() {
+    return createdDate;
+  }
+
+  public void setCreatedDate(ZonedDateTime createdDate) {
+    this.createdDate = createdDate;
+  }
+}
@@ -0,0 +1,45 @@
+package com.box.l10n.mojito.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Keeps track of the last entity id indexed in the {@link TextSearchTrigram} table for a field. All
+ * the entities with an id lower or equal to the watermark are indexed, or their id is recorded as a
+ * {@link TextSearchTrigramGap}.
+ */
+@Entity
+@Table(
+    name = "text_search_trigram_watermark",
+    indexes = {
+      @Index(name = "UK__TEXT_SEARCH_TRIGRAM_WATERMARK__FIELD", columnList = "field", unique = true)
+    })
+public class TextSearchTrigramWatermark extends BaseEntity {
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "field", length = 16, nullable = false)
+  private TextSearchTrigram.Field field;
+
+  @Column(name = "last_indexed_id", nullable = false)
+  private long lastIndexedId;
+
+  public TextSearchTrigram.Field getField() {
+    return field;
+  }
+
+  public void setField(TextSearchTrigram.Field field) {
+    this.field = field;
+  }
+
+  public long getLastIndexedId() {
+    return lastIndexedId;
+  }
+
+  public void setLastIndexedId(long lastIndexedId) {
+    this.lastIndexedId = lastIndexedId;
+  }
+}
@@ -0,0 +1,105 @@
+package com.box.l10n.mojito.entity.monitoring;
+
+import com.box.l10n.mojito.entity.AuditableEntity;
+import com.box.l10n.mojito.entity.Repository;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Text unit ingestion counts of a repository summed over a month or a year. Rows are maintained
+ * incrementally from the {@link MonitoringTextUnitIngestionDaily} rows as new days get computed.
+ */
+@Entity
+@Table(
+    name = "monitoring_text_unit_ingestion_rollup",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "UK__MTUIR__PERIOD_TYPE__PERIOD_START__REPOSITORY__ID",
+          columnNames = {"period_type", "period_start", "repository_id"})
+    },
+    indexes = {@Index(name = "I__MTUIR__REPOSITORY__ID", columnList = "repository_id")})
+public class MonitoringTextUnitIngestionRollup extends AuditableEntity {
+
+  public static final String PERIOD_TYPE_MONTH = "MONTH";
+  public static final String PERIOD_TYPE_YEAR = "YEAR";
+
+  @Column(name = "period_type", nullable = false, length = 16)
+  String periodType;
+
+  /** First day of the month or of the year. */
+  @Column(name = "period_start", nullable = false)
+  LocalDate periodStart;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(
+      name = "repository_id",
+      nullable = false,
+      foreignKey = @ForeignKey(name = "FK__MTUIR__REPOSITORY__ID"))
+  Repository repository;
+
+  @Column(name = "string_count", nullable = false)
+  Long stringCount;
+
+  @Column(name = "word_count", nullable = false)
+  Long wordCount;
+
+  @Column(name = "computed_at", nullable = false)
+  ZonedDateTime computedAt;
+
+  public String getPeriodType() {
+    return periodType;
+  }
+
+  public void setPeriodType(String periodType) {
+    this.periodType = periodType;
+  }
+
+  public LocalDate getPeriodStart() {
+    return periodStart;
+  }
+
+  public void setPeriodStart(LocalDate periodStart) {
+    this.periodStart = periodStart;
+  }
+
+  public Repository getRepository() {
+    return repository;
+  }
+
+  public void setRepository(Repository repository) {
+    this.repository = repository;
+  }
+
+  public Long getStringCount() {
+    return stringCount;
+  }
+
+  public void setStringCount(Long stringCount) {
+    this.stringCount = stringCount;
+  }
+
+  public Long getWordCount() {
+    return wordCount;
+  }
+
+  public void setWordCount(Long wordCount) {
+    this.wordCount = wordCount;
+  }
+
+  public ZonedDateTime getComputedAt() {
+    return computedAt;
+  }
+
+  public void setComputedAt(ZonedDateTime computedAt) {
+    this.computedAt = computedAt;
+  }
+}
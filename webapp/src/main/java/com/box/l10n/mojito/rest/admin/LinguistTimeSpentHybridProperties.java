@@ -8,6 +8,8 @@ import org.springframework.boot.context.properties.bind.DefaultValue;
 public record LinguistTimeSpentHybridProperties(
     @DefaultValue("PT1S") Duration convertToAsyncAfter,
     @DefaultValue("PT120S") Duration recommendedPollingDuration,
+    @DefaultValue("PT30S") Duration resultCacheTtl,
+    @DefaultValue("100") int maxInFlightQueries,
     @DefaultValue Pool pool) {
 
   record Pool(
@@ -2,22 +2,17 @@ package com.box.l10n.mojito.rest.admin;
 
 import com.box.l10n.mojito.entity.review.ReviewProjectStatus;
 import com.box.l10n.mojito.entity.review.ReviewProjectTimeSpentStat;
-import com.box.l10n.mojito.json.ObjectMapper;
-import com.box.l10n.mojito.service.blobstorage.Retention;
 import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEndpoint;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEngine;
+import com.box.l10n.mojito.service.hybrid.HybridQueryResult;
 import com.box.l10n.mojito.service.review.ReviewProjectTimeSpentStatRepository;
 import com.box.l10n.mojito.service.review.ReviewProjectTimeSpentStatService;
-import com.google.common.base.Throwables;
-import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicBoolean;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -36,22 +31,34 @@ import org.springframework.web.server.ResponseStatusException;
 public class LinguistTimeSpentReportWS {
 
   private final ReviewProjectTimeSpentStatService timeSpentStatService;
-  private final StructuredBlobStorage structuredBlobStorage;
-  private final ObjectMapper objectMapper;
+  private final HybridQueryEngine hybridQueryEngine;
   private final LinguistTimeSpentHybridProperties hybridProperties;
   private final AsyncTaskExecutor hybridExecutor;
+  private final HybridQueryEndpoint<ReportResponse> reportEndpoint;
+  private final HybridQueryEndpoint<RecomputeResponse> recomputeEndpoint;
 
   public LinguistTimeSpentReportWS(
       ReviewProjectTimeSpentStatService timeSpentStatService,
-      StructuredBlobStorage structuredBlobStorage,
-      @Qualifier("fail_on_unknown_properties_false") ObjectMapper objectMapper,
+      HybridQueryEngine hybridQueryEngine,
       LinguistTimeSpentHybridProperties hybridProperties,
       @Qualifier("linguistTimeSpentHybridExecutor") AsyncTaskExecutor hybridExecutor) {
     this.timeSpentStatService = timeSpentStatService;
-    this.structuredBlobStorage = structuredBlobStorage;
-    this.objectMapper = objectMapper;
+    this.hybridQueryEngine = hybridQueryEngine;
     this.hybridProperties = hybridProperties;
     this.hybridExecutor = hybridExecutor;
+    this.reportEndpoint =
+        newHybridQueryEndpoint(
+            "linguistTimeSpentReport",
+            StructuredBlobStorage.Prefix.LINGUIST_TIME_SPENT_REPORT_ASYNC,
+            new TypeReference<>() {},
+            hybridProperties.resultCacheTtl());
+    // recomputing writes stats, identical requests in flight are joined but never served from cache
+    this.recomputeEndpoint =
+        newHybridQueryEndpoint(
+            "linguistTimeSpentRecompute",
+            StructuredBlobStorage.Prefix.LINGUIST_TIME_SPENT_RECOMPUTE_ASYNC,
+            new TypeReference<>() {},
+            Duration.ZERO);
   }
 
   @GetMapping
@@ -74,46 +81,12 @@ public class LinguistTimeSpentReportWS {
             localeBcp47Tag,
             summaryLimit,
             detailLimit);
-    UUID requestId = UUID.randomUUID();
-    AtomicBoolean forceAsyncPersistence = new AtomicBoolean(false);
-    long startedAtNanos = System.nanoTime();
-    Future<ReportResponse> future =
-        hybridExecutor.submit(
-            () -> {
-              try {
-                ReportResponse response =
-                    ReportResponse.from(timeSpentStatService.getReport(criteria));
-                persistReportHybridResponseIfNeeded(
-                    requestId, response, null, forceAsyncPersistence.get(), startedAtNanos);
-                return response;
-              } catch (Exception e) {
-                if (forceAsyncPersistence.get()) {
-                  persistReportHybridResponse(
-                      requestId, new ReportHybridResponse(null, null, HybridError.from(e)));
-                }
-                throw e;
-              }
-            });
-    try {
-      return ResponseEntity.ok(
-          new ReportHybridResponse(
-              future.get(hybridProperties.convertToAsyncAfter().toNanos(), TimeUnit.NANOSECONDS),
-              null,
-              null));
-    } catch (TimeoutException e) {
-      forceAsyncPersistence.set(true);
-      return ResponseEntity.accepted()
-          .body(new ReportHybridResponse(null, buildPollingToken(requestId), null));
-    } catch (ExecutionException e) {
-      if (e.getCause() instanceof ResponseStatusException responseStatusException) {
-        throw responseStatusException;
-      }
-      throw new UncheckedExecutionException(e);
-    } catch (InterruptedException e) {
-      future.cancel(true);
-      Thread.currentThread().interrupt();
-      throw new RuntimeException(e);
-    }
+    return toResponseEntity(
+        hybridQueryEngine.execute(
+            reportEndpoint,
+            criteria,
+            () -> ReportResponse.from(timeSpentStatService.getReport(criteria))),
+        ReportHybridResponse::new);
   }
 
   @PostMapping("/recompute")
@@ -128,79 +101,26 @@ public class LinguistTimeSpentReportWS {
             safeRequest.translatorUserId(),
             safeRequest.localeBcp47Tag(),
             safeRequest.limit());
-    UUID requestId = UUID.randomUUID();
-    AtomicBoolean forceAsyncPersistence = new AtomicBoolean(false);
-    long startedAtNanos = System.nanoTime();
-    Future<RecomputeResponse> future =
-        hybridExecutor.submit(
-            () -> {
-              try {
-                RecomputeResponse response =
-                    RecomputeResponse.from(
-                        timeSpentStatService.recomputeProjectStats(recomputeRequest));
-                persistRecomputeHybridResponseIfNeeded(
-                    requestId, response, null, forceAsyncPersistence.get(), startedAtNanos);
-                return response;
-              } catch (Exception e) {
-                if (forceAsyncPersistence.get()) {
-                  persistRecomputeHybridResponse(
-                      requestId, new RecomputeHybridResponse(null, null, HybridError.from(e)));
-                }
-                throw e;
-              }
-            });
-    try {
-      return ResponseEntity.ok(
-          new RecomputeHybridResponse(
-              future.get(hybridProperties.convertToAsyncAfter().toNanos(), TimeUnit.NANOSECONDS),
-              null,
-              null));
-    } catch (TimeoutException e) {
-      forceAsyncPersistence.set(true);
-      return ResponseEntity.accepted()
-          .body(new RecomputeHybridResponse(null, buildPollingToken(requestId), null));
-    } catch (ExecutionException e) {
-      if (e.getCause() instanceof ResponseStatusException responseStatusException) {
-        throw responseStatusException;
-      }
-      throw new UncheckedExecutionException(e);
-    } catch (InterruptedException e) {
-      future.cancel(true);
-      Thread.currentThread().interrupt();
-      throw new RuntimeException(e);
-    }
+    return toResponseEntity(
+        hybridQueryEngine.execute(
+            recomputeEndpoint,
+            recomputeRequest,
+            () ->
+                RecomputeResponse.from(
+                    timeSpentStatService.recomputeProjectStats(recomputeRequest))),
+        RecomputeHybridResponse::new);
   }
 
   @GetMapping("/report/results/{requestId}")
   public ResponseEntity<ReportHybridResponse> getReportResults(@PathVariable UUID requestId) {
-    Optional<String> storedResult =
-        structuredBlobStorage.getString(
-            StructuredBlobStorage.Prefix.LINGUIST_TIME_SPENT_REPORT_ASYNC, requestId.toString());
-    if (storedResult.isEmpty()) {
-      return ResponseEntity.accepted()
-          .body(new ReportHybridResponse(null, buildPollingToken(requestId), null));
-    }
-    ReportHybridResponse response =
-        objectMapper.readValueUnchecked(storedResult.get(), ReportHybridResponse.class);
-    return response.error() == null
-        ? ResponseEntity.ok(response)
-        : ResponseEntity.internalServerError().body(response);
+    return toResponseEntity(
+        hybridQueryEngine.getResult(reportEndpoint, requestId), ReportHybridResponse::new);
   }
 
   @GetMapping("/recompute/results/{requestId}")
   public ResponseEntity<RecomputeHybridResponse> getRecomputeResults(@PathVariable UUID requestId) {
-    Optional<String> storedResult =
-        structuredBlobStorage.getString(
-            StructuredBlobStorage.Prefix.LINGUIST_TIME_SPENT_RECOMPUTE_ASYNC, requestId.toString());
-    if (storedResult.isEmpty()) {
-      return ResponseEntity.accepted()
-          .body(new RecomputeHybridResponse(null, buildPollingToken(requestId), null));
-    }
-    RecomputeHybridResponse response =
-        objectMapper.readValueUnchecked(storedResult.get(), RecomputeHybridResponse.class);
-    return response.error() == null
-        ? ResponseEntity.ok(response)
-        : ResponseEntity.internalServerError().body(response);
+    return toResponseEntity(
+        hybridQueryEngine.getResult(recomputeEndpoint, requestId), RecomputeHybridResponse::new);
   }
 
   public record RecomputeRequest(
@@ -231,14 +151,15 @@ public class LinguistTimeSpentReportWS {
   public record PollingToken(UUID requestId, long recommendedPollingDurationMillis) {}
 
   public record HybridError(String type, String message, String stackTrace) {
-    public static HybridError from(Exception exception) {
-      return new HybridError(
-          exception.getClass().getName(),
-          exception.getMessage(),
-          Throwables.getStackTraceAsString(exception));
+    public static HybridError from(HybridQueryResult.Error error) {
+      return new HybridError(error.type(), error.message(), error.stackTrace());
     }
   }
 
+  interface HybridResponseFactory<T, R> {
+    R create(T results, PollingToken pollingToken, HybridError error);
+  }
+
   public record ReportHybridResponse(
       ReportResponse results, PollingToken pollingToken, HybridError error) {}
 
@@ -487,46 +408,36 @@ public class LinguistTimeSpentReportWS {
     return value.doubleValue() * 100.0d / total;
   }
 
-  private void persistReportHybridResponseIfNeeded(
-      UUID requestId,
-      ReportResponse response,
-      HybridError error,
-      boolean forceAsyncPersistence,
-      long startedAtNanos) {
-    if (forceAsyncPersistence || isSlowEnoughForAsyncPersistence(startedAtNanos)) {
-      persistReportHybridResponse(requestId, new ReportHybridResponse(response, null, error));
+  private <T, R> ResponseEntity<R> toResponseEntity(
+      HybridQueryResult<T> result, HybridResponseFactory<T, R> hybridResponseFactory) {
+    if (result.isPending()) {
+      return ResponseEntity.accepted()
+          .body(hybridResponseFactory.create(null, buildPollingToken(result.requestId()), null));
     }
-  }
-
-  private void persistRecomputeHybridResponseIfNeeded(
-      UUID requestId,
-      RecomputeResponse response,
-      HybridError error,
-      boolean forceAsyncPersistence,
-      long startedAtNanos) {
-    if (forceAsyncPersistence || isSlowEnoughForAsyncPersistence(startedAtNanos)) {
-      persistRecomputeHybridResponse(requestId, new RecomputeHybridResponse(response, null, error));
+    if (result.isFailed()) {
+      return ResponseEntity.internalServerError()
+          .body(hybridResponseFactory.create(null, null, HybridError.from(result.error())));
     }
+    return ResponseEntity.ok(hybridResponseFactory.create(result.results(), null, null));
   }
 
-  private boolean isSlowEnoughForAsyncPersistence(long startedAtNanos) {
-    return System.nanoTime() - startedAtNanos >= hybridProperties.convertToAsyncAfter().toNanos();
-  }
-
-  private void persistReportHybridResponse(UUID requestId, ReportHybridResponse response) {
-    structuredBlobStorage.put(
-        StructuredBlobStorage.Prefix.LINGUIST_TIME_SPENT_REPORT_ASYNC,
-        requestId.toString(),
-        objectMapper.writeValueAsStringUnchecked(response),
-        Retention.MIN_1_DAY);
-  }
-
-  private void persistRecomputeHybridResponse(UUID requestId, RecomputeHybridResponse response) {
-    structuredBlobStorage.put(
-        StructuredBlobStorage.Prefix.LINGUIST_TIME_SPENT_RECOMPUTE_ASYNC,
-        requestId.toString(),
-        objectMapper.writeValueAsStringUnchecked(response),
-        Retention.MIN_1_DAY);
+  private <T> HybridQueryEndpoint<T> newHybridQueryEndpoint(
+      String name,
+      StructuredBlobStorage.Prefix prefix,
+      TypeReference<T> resultType,
+      Duration resultCacheTtl) {
+    return new HybridQueryEndpoint<>(
+        name,
+        prefix,
+        hybridExecutor,
+        resultType,
+        hybridProperties.convertToAsyncAfter(),
+        resultCacheTtl,
+        hybridProperties.maxInFlightQueries(),
+        false,
+        e ->
+            e instanceof ResponseStatusException responseStatusException
+                && responseStatusException.getStatusCode().is4xxClientError());
   }
 
   private PollingToken buildPollingToken(UUID requestId) {
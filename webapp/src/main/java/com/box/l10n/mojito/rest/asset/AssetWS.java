@@ -32,6 +32,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 import com.google.common.base.MoreObjects;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -42,6 +43,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -50,6 +53,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * @author aloison
@@ -399,7 +403,7 @@ public class AssetWS {
       @RequestParam("bcp47tag") String bcp47tag,
       @RequestBody XliffExportBody xliffExportBody) {
     TMXliff tmXliff = tmService.createTMXliff(assetId, bcp47tag, null, null);
-    PollableFuture<String> pollableFuture =
+    PollableFuture<Void> pollableFuture =
         tmService.exportAssetAsXLIFFAsync(
             tmXliff.getId(), assetId, bcp47tag, PollableTask.INJECT_CURRENT_TASK);
     xliffExportBody.setTmXliffId(tmXliff.getId());
@@ -407,6 +411,38 @@ public class AssetWS {
     return xliffExportBody;
   }
 
+  /**
+   * Exports all the translations (used and unused) of an {@link Asset} into XLIFF, streaming the
+   * XLIFF in the response as it is generated.
+   *
+   * <p>Unlike {@link #xliffExportAsync(long, String, XliffExportBody)}, the XLIFF is never fully
+   * loaded in memory, which makes it suitable for large assets.
+   *
+   * @param assetId {@link Asset#id}
+   * @param bcp47tag bcp47 tag of translations to be exported
+   * @return the XLIFF as a stream
+   */
+  @RequestMapping(method = RequestMethod.GET, value = "/api/assets/{assetId}/xliffExport/stream")
+  public ResponseEntity<StreamingResponseBody> xliffExportStream(
+      @PathVariable("assetId") long assetId, @RequestParam("bcp47tag") String bcp47tag)
+      throws AssetWithIdNotFoundException {
+
+    if (!assetRepository.existsById(assetId)) {
+      throw new AssetWithIdNotFoundException(assetId);
+    }
+
+    if (localeService.findByBcp47Tag(bcp47tag) == null) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown locale: " + bcp47tag);
+    }
+
+    StreamingResponseBody streamingResponseBody =
+        outputStream -> tmService.exportAssetAsXLIFF(assetId, bcp47tag, outputStream);
+
+    return ResponseEntity.ok()
+        .contentType(new MediaType("application", "xliff+xml", StandardCharsets.UTF_8))
+        .body(streamingResponseBody);
+  }
+
   /**
    * Deletes one {@link Asset} by the {@link Asset#id}
    *
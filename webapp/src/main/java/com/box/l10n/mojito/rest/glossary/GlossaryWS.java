@@ -1,19 +1,19 @@
 package com.box.l10n.mojito.rest.glossary;
 
 import com.box.l10n.mojito.entity.PollableTask;
-import com.box.l10n.mojito.json.ObjectMapper;
-import com.box.l10n.mojito.service.blobstorage.Retention;
 import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
 import com.box.l10n.mojito.service.glossary.GlossaryImportExportService;
 import com.box.l10n.mojito.service.glossary.GlossaryManagementService;
 import com.box.l10n.mojito.service.glossary.GlossaryTermIndexCurationService;
 import com.box.l10n.mojito.service.glossary.GlossaryTermService;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEndpoint;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEngine;
+import com.box.l10n.mojito.service.hybrid.HybridQueryResult;
 import com.box.l10n.mojito.service.oaitranslate.GlossaryService;
 import com.box.l10n.mojito.service.pollableTask.PollableFuture;
 import com.box.l10n.mojito.service.security.user.UserService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.base.Stopwatch;
-import com.google.common.base.Throwables;
-import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import java.nio.charset.StandardCharsets;
@@ -24,13 +24,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -68,10 +62,10 @@ public class GlossaryWS {
   private final GlossaryTermService glossaryTermService;
   private final GlossaryTermIndexCurationService glossaryTermIndexCurationService;
   private final GlossaryService glossaryService;
-  private final StructuredBlobStorage structuredBlobStorage;
-  private final ObjectMapper objectMapper;
+  private final HybridQueryEngine hybridQueryEngine;
   private final TermIndexEntriesHybridProperties termIndexEntriesHybridProperties;
-  private final AsyncTaskExecutor termIndexEntriesHybridExecutor;
+  private final HybridQueryEndpoint<SearchTermIndexSuggestionsResponse>
+      searchTermIndexSuggestionsHybridEndpoint;
   private final UserService userService;
   private final MeterRegistry meterRegistry;
 
@@ -81,8 +75,7 @@ public class GlossaryWS {
       GlossaryTermService glossaryTermService,
       GlossaryTermIndexCurationService glossaryTermIndexCurationService,
       GlossaryService glossaryService,
-      StructuredBlobStorage structuredBlobStorage,
-      @Qualifier("fail_on_unknown_properties_false") ObjectMapper objectMapper,
+      HybridQueryEngine hybridQueryEngine,
       TermIndexEntriesHybridProperties termIndexEntriesHybridProperties,
       @Qualifier("termIndexEntriesHybridExecutor") AsyncTaskExecutor termIndexEntriesHybridExecutor,
       UserService userService,
@@ -92,11 +85,20 @@ public class GlossaryWS {
     this.glossaryTermService = glossaryTermService;
     this.glossaryTermIndexCurationService = glossaryTermIndexCurationService;
     this.glossaryService = glossaryService;
-    this.structuredBlobStorage = Objects.requireNonNull(structuredBlobStorage);
-    this.objectMapper = Objects.requireNonNull(objectMapper);
+    this.hybridQueryEngine = Objects.requireNonNull(hybridQueryEngine);
     this.termIndexEntriesHybridProperties =
         Objects.requireNonNull(termIndexEntriesHybridProperties);
-    this.termIndexEntriesHybridExecutor = Objects.requireNonNull(termIndexEntriesHybridExecutor);
+    this.searchTermIndexSuggestionsHybridEndpoint =
+        new HybridQueryEndpoint<>(
+            "glossaryTermIndexSuggestionSearch",
+            StructuredBlobStorage.Prefix.GLOSSARY_TERM_INDEX_SUGGESTION_SEARCH_ASYNC,
+            Objects.requireNonNull(termIndexEntriesHybridExecutor),
+            new TypeReference<>() {},
+            termIndexEntriesHybridProperties.convertToAsyncAfter(),
+            termIndexEntriesHybridProperties.resultCacheTtl(),
+            termIndexEntriesHybridProperties.maxInFlightQueries(),
+            false,
+            GlossaryWS::isExpectedHybridSearchError);
     this.userService = Objects.requireNonNull(userService);
     this.meterRegistry = Objects.requireNonNull(meterRegistry);
   }
@@ -735,78 +737,20 @@ public class GlossaryWS {
   public ResponseEntity<SearchTermIndexSuggestionsHybridResponse> searchTermIndexSuggestionsHybrid(
       @PathVariable Long glossaryId, @RequestBody SearchTermIndexSuggestionsRequest request) {
     requireTermManager();
-    UUID requestId = UUID.randomUUID();
-    AtomicBoolean forceAsyncPersistence = new AtomicBoolean(false);
-    long searchStartedAtNanos = System.nanoTime();
-
-    Future<SearchTermIndexSuggestionsResponse> searchFuture =
-        termIndexEntriesHybridExecutor.submit(
-            () -> {
-              SearchTermIndexSuggestionsResponse results;
-              try {
-                results =
-                    searchTermIndexSuggestions(
-                        glossaryId,
-                        request != null ? request.search() : null,
-                        request != null ? request.limit() : null,
-                        request != null ? request.useAi() : null,
-                        request != null ? request.includeReviewed() : null,
-                        request != null ? request.reviewStatusFilter() : null,
-                        request != null ? request.glossaryPresenceFilter() : null);
-              } catch (Exception e) {
-                if (forceAsyncPersistence.get()) {
-                  persistTermIndexSuggestionSearchHybridResponse(
-                      glossaryId,
-                      requestId,
-                      new SearchTermIndexSuggestionsHybridResponse(
-                          null,
-                          null,
-                          new SearchTermIndexSuggestionsHybridResponse.HybridSearchError(
-                              e.getClass().getName(),
-                              e.getMessage(),
-                              Throwables.getStackTraceAsString(e),
-                              isExpectedHybridSearchError(e))));
-                }
-                throw e;
-              }
-
-              long searchCompletedAtNanos = System.nanoTime();
-              if (forceAsyncPersistence.get()
-                  || searchCompletedAtNanos - searchStartedAtNanos
-                      >= termIndexEntriesHybridProperties.convertToAsyncAfter().toNanos()) {
-                persistTermIndexSuggestionSearchHybridResponse(
+    return toSearchTermIndexSuggestionsHybridResponseEntity(
+        hybridQueryEngine.execute(
+            searchTermIndexSuggestionsHybridEndpoint,
+            glossaryId.toString(),
+            request,
+            () ->
+                searchTermIndexSuggestions(
                     glossaryId,
-                    requestId,
-                    new SearchTermIndexSuggestionsHybridResponse(results, null, null));
-              }
-              return results;
-            });
-
-    try {
-      SearchTermIndexSuggestionsResponse results =
-          searchFuture.get(
-              termIndexEntriesHybridProperties.convertToAsyncAfter().toNanos(),
-              TimeUnit.NANOSECONDS);
-      return ResponseEntity.ok(new SearchTermIndexSuggestionsHybridResponse(results, null, null));
-    } catch (TimeoutException e) {
-      forceAsyncPersistence.set(true);
-      return ResponseEntity.accepted()
-          .body(
-              new SearchTermIndexSuggestionsHybridResponse(
-                  null, buildTermIndexSuggestionSearchPollingToken(requestId), null));
-    } catch (ExecutionException e) {
-      if (e.getCause() instanceof AccessDeniedException accessDeniedException) {
-        throw accessDeniedException;
-      }
-      if (e.getCause() instanceof ResponseStatusException responseStatusException) {
-        throw responseStatusException;
-      }
-      throw new UncheckedExecutionException(e);
-    } catch (InterruptedException e) {
-      searchFuture.cancel(true);
-      Thread.currentThread().interrupt();
-      throw new RuntimeException(e);
-    }
+                    request != null ? request.search() : null,
+                    request != null ? request.limit() : null,
+                    request != null ? request.useAi() : null,
+                    request != null ? request.includeReviewed() : null,
+                    request != null ? request.reviewStatusFilter() : null,
+                    request != null ? request.glossaryPresenceFilter() : null)));
   }
 
   @GetMapping("/{glossaryId}/term-index-suggestions/search-hybrid/results/{requestId}")
@@ -814,28 +758,9 @@ public class GlossaryWS {
       getSearchTermIndexSuggestionsHybridResults(
           @PathVariable Long glossaryId, @PathVariable UUID requestId) {
     requireTermManager();
-    Optional<String> storedResult =
-        structuredBlobStorage.getString(
-            StructuredBlobStorage.Prefix.GLOSSARY_TERM_INDEX_SUGGESTION_SEARCH_ASYNC,
-            responseStorageNameForTermIndexSuggestionSearch(glossaryId, requestId));
-
-    if (storedResult.isEmpty()) {
-      return ResponseEntity.accepted()
-          .body(
-              new SearchTermIndexSuggestionsHybridResponse(
-                  null, buildTermIndexSuggestionSearchPollingToken(requestId), null));
-    }
-
-    SearchTermIndexSuggestionsHybridResponse response =
-        objectMapper.readValueUnchecked(
-            storedResult.get(), SearchTermIndexSuggestionsHybridResponse.class);
-    if (response.error() == null) {
-      return ResponseEntity.ok(response);
-    }
-    if (response.error().expected()) {
-      return ResponseEntity.badRequest().body(response);
-    }
-    return ResponseEntity.internalServerError().body(response);
+    return toSearchTermIndexSuggestionsHybridResponseEntity(
+        hybridQueryEngine.getResult(
+            searchTermIndexSuggestionsHybridEndpoint, glossaryId.toString(), requestId));
   }
 
   @PostMapping("/{glossaryId}/term-index-suggestions/{termIndexCandidateId}/accept")
@@ -1136,6 +1061,23 @@ public class GlossaryWS {
     }
   }
 
+  @PostMapping("/{glossaryId}/extract/{pollableTaskId}/resume")
+  public StartGlossaryExtractionResponse resumeGlossaryTermsExtraction(
+      @PathVariable Long glossaryId, @PathVariable Long pollableTaskId) {
+    try {
+      PollableFuture<Void> pollableFuture =
+          glossaryTermService.resumeExtractCandidatesAsync(
+              glossaryId, pollableTaskId, PollableTask.INJECT_CURRENT_TASK);
+      return new StartGlossaryExtractionResponse(pollableFuture.getPollableTask());
+    } catch (IllegalArgumentException ex) {
+      HttpStatus status =
+          ex.getMessage() != null && ex.getMessage().startsWith("Glossary not found:")
+              ? HttpStatus.NOT_FOUND
+              : HttpStatus.BAD_REQUEST;
+      throw new ResponseStatusException(status, ex.getMessage());
+    }
+  }
+
   @PostMapping("/{glossaryId}/terms/{tmTextUnitId}/proposals")
   @ResponseStatus(HttpStatus.CREATED)
   public GlossaryTranslationProposalResponse submitGlossaryTranslationProposal(
@@ -1614,14 +1556,31 @@ public class GlossaryWS {
             .toList());
   }
 
-  private void persistTermIndexSuggestionSearchHybridResponse(
-      Long glossaryId, UUID requestId, SearchTermIndexSuggestionsHybridResponse response) {
-    String payloadJson = objectMapper.writeValueAsStringUnchecked(response);
-    structuredBlobStorage.put(
-        StructuredBlobStorage.Prefix.GLOSSARY_TERM_INDEX_SUGGESTION_SEARCH_ASYNC,
-        responseStorageNameForTermIndexSuggestionSearch(glossaryId, requestId),
-        payloadJson,
-        Retention.MIN_1_DAY);
+  private ResponseEntity<SearchTermIndexSuggestionsHybridResponse>
+      toSearchTermIndexSuggestionsHybridResponseEntity(
+          HybridQueryResult<SearchTermIndexSuggestionsResponse> result) {
+    if (result.isPending()) {
+      return ResponseEntity.accepted()
+          .body(
+              new SearchTermIndexSuggestionsHybridResponse(
+                  null, buildTermIndexSuggestionSearchPollingToken(result.requestId()), null));
+    }
+    if (result.isFailed()) {
+      SearchTermIndexSuggestionsHybridResponse response =
+          new SearchTermIndexSuggestionsHybridResponse(
+              null,
+              null,
+              new SearchTermIndexSuggestionsHybridResponse.HybridSearchError(
+                  result.error().type(),
+                  result.error().message(),
+                  result.error().stackTrace(),
+                  result.error().expected()));
+      return result.error().expected()
+          ? ResponseEntity.badRequest().body(response)
+          : ResponseEntity.internalServerError().body(response);
+    }
+    return ResponseEntity.ok(
+        new SearchTermIndexSuggestionsHybridResponse(result.results(), null, null));
   }
 
   private SearchTermIndexSuggestionsHybridResponse.PollingToken
@@ -1630,17 +1589,13 @@ public class GlossaryWS {
         requestId, termIndexEntriesHybridProperties.recommendedPollingDuration().toMillis());
   }
 
-  private boolean isExpectedHybridSearchError(Exception e) {
+  private static boolean isExpectedHybridSearchError(Throwable e) {
     return e instanceof AccessDeniedException
         || e instanceof IllegalArgumentException
         || e instanceof ResponseStatusException responseStatusException
             && responseStatusException.getStatusCode().is4xxClientError();
   }
 
-  private String responseStorageNameForTermIndexSuggestionSearch(Long glossaryId, UUID requestId) {
-    return glossaryId + "/" + requestId;
-  }
-
   private void requireTermManager() {
     if (!userService.isCurrentUserAdminOrPm()) {
       throw new AccessDeniedException("PM or admin access is required to curate glossary terms");
@@ -8,6 +8,8 @@ import org.springframework.boot.context.properties.bind.DefaultValue;
 public record TermIndexEntriesHybridProperties(
     @DefaultValue("PT1S") Duration convertToAsyncAfter,
     @DefaultValue("PT120S") Duration recommendedPollingDuration,
+    @DefaultValue("PT0S") Duration resultCacheTtl,
+    @DefaultValue("100") int maxInFlightQueries,
     @DefaultValue Pool pool) {
 
   record Pool(
@@ -1,29 +1,23 @@
 package com.box.l10n.mojito.rest.glossary;
 
 import com.box.l10n.mojito.entity.PollableTask;
-import com.box.l10n.mojito.json.ObjectMapper;
-import com.box.l10n.mojito.service.blobstorage.Retention;
 import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
 import com.box.l10n.mojito.service.glossary.GlossaryRepository;
 import com.box.l10n.mojito.service.glossary.GlossaryTermIndexCurationService;
 import com.box.l10n.mojito.service.glossary.TermIndexExplorerService;
 import com.box.l10n.mojito.service.glossary.TermIndexRefreshService;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEndpoint;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEngine;
+import com.box.l10n.mojito.service.hybrid.HybridQueryResult;
 import com.box.l10n.mojito.service.pollableTask.PollableFuture;
 import com.box.l10n.mojito.service.security.user.UserService;
-import com.google.common.base.Throwables;
-import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import java.time.ZonedDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicBoolean;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -49,10 +43,10 @@ public class TermIndexExplorerWS {
   private final TermIndexRefreshService termIndexRefreshService;
   private final TermIndexExplorerService termIndexExplorerService;
   private final GlossaryTermIndexCurationService glossaryTermIndexCurationService;
-  private final StructuredBlobStorage structuredBlobStorage;
-  private final ObjectMapper objectMapper;
+  private final HybridQueryEngine hybridQueryEngine;
   private final TermIndexEntriesHybridProperties termIndexEntriesHybridProperties;
-  private final AsyncTaskExecutor termIndexEntriesHybridExecutor;
+  private final HybridQueryEndpoint<TermIndexExplorerService.EntrySearchView>
+      termIndexEntrySearchHybridEndpoint;
 
   public TermIndexExplorerWS(
       UserService userService,
@@ -60,8 +54,7 @@ public class TermIndexExplorerWS {
       TermIndexRefreshService termIndexRefreshService,
       TermIndexExplorerService termIndexExplorerService,
       GlossaryTermIndexCurationService glossaryTermIndexCurationService,
-      StructuredBlobStorage structuredBlobStorage,
-      @Qualifier("fail_on_unknown_properties_false") ObjectMapper objectMapper,
+      HybridQueryEngine hybridQueryEngine,
       TermIndexEntriesHybridProperties termIndexEntriesHybridProperties,
       @Qualifier("termIndexEntriesHybridExecutor")
           AsyncTaskExecutor termIndexEntriesHybridExecutor) {
@@ -71,11 +64,20 @@ public class TermIndexExplorerWS {
     this.termIndexExplorerService = Objects.requireNonNull(termIndexExplorerService);
     this.glossaryTermIndexCurationService =
         Objects.requireNonNull(glossaryTermIndexCurationService);
-    this.structuredBlobStorage = Objects.requireNonNull(structuredBlobStorage);
-    this.objectMapper = Objects.requireNonNull(objectMapper);
+    this.hybridQueryEngine = Objects.requireNonNull(hybridQueryEngine);
     this.termIndexEntriesHybridProperties =
         Objects.requireNonNull(termIndexEntriesHybridProperties);
-    this.termIndexEntriesHybridExecutor = Objects.requireNonNull(termIndexEntriesHybridExecutor);
+    this.termIndexEntrySearchHybridEndpoint =
+        new HybridQueryEndpoint<>(
+            "termIndexEntrySearch",
+            StructuredBlobStorage.Prefix.TERM_INDEX_ENTRY_SEARCH_ASYNC,
+            Objects.requireNonNull(termIndexEntriesHybridExecutor),
+            new TypeReference<>() {},
+            termIndexEntriesHybridProperties.convertToAsyncAfter(),
+            termIndexEntriesHybridProperties.resultCacheTtl(),
+            termIndexEntriesHybridProperties.maxInFlightQueries(),
+            false,
+            TermIndexExplorerWS::isExpectedHybridSearchError);
   }
 
   @PostMapping("/refresh")
@@ -141,94 +143,19 @@ public class TermIndexExplorerWS {
   public ResponseEntity<TermIndexEntrySearchHybridResponse> searchEntriesHybrid(
       @RequestBody TermIndexEntrySearchRequest request) {
     requireAdmin();
-    UUID requestId = UUID.randomUUID();
-    AtomicBoolean forceAsyncPersistence = new AtomicBoolean(false);
-    long searchStartedAtNanos = System.nanoTime();
-
-    Future<TermIndexExplorerService.EntrySearchView> searchFuture =
-        termIndexEntriesHybridExecutor.submit(
-            () -> {
-              TermIndexExplorerService.EntrySearchView results;
-              try {
-                results = termIndexExplorerService.searchEntries(toEntrySearchCommand(request));
-              } catch (Exception e) {
-                if (forceAsyncPersistence.get()) {
-                  persistTermIndexEntrySearchHybridResponse(
-                      requestId,
-                      new TermIndexEntrySearchHybridResponse(
-                          null,
-                          null,
-                          new TermIndexEntrySearchHybridResponse.HybridSearchError(
-                              e.getClass().getName(),
-                              e.getMessage(),
-                              Throwables.getStackTraceAsString(e),
-                              isExpectedHybridSearchError(e))));
-                }
-                throw e;
-              }
-
-              long searchCompletedAtNanos = System.nanoTime();
-              if (forceAsyncPersistence.get()
-                  || searchCompletedAtNanos - searchStartedAtNanos
-                      >= termIndexEntriesHybridProperties.convertToAsyncAfter().toNanos()) {
-                persistTermIndexEntrySearchHybridResponse(
-                    requestId, new TermIndexEntrySearchHybridResponse(results, null, null));
-              }
-              return results;
-            });
-
-    try {
-      TermIndexExplorerService.EntrySearchView results =
-          searchFuture.get(
-              termIndexEntriesHybridProperties.convertToAsyncAfter().toNanos(),
-              TimeUnit.NANOSECONDS);
-      return ResponseEntity.ok(new TermIndexEntrySearchHybridResponse(results, null, null));
-    } catch (TimeoutException e) {
-      forceAsyncPersistence.set(true);
-      return ResponseEntity.accepted()
-          .body(
-              new TermIndexEntrySearchHybridResponse(
-                  null, buildTermIndexEntrySearchPollingToken(requestId), null));
-    } catch (ExecutionException e) {
-      if (e.getCause() instanceof AccessDeniedException accessDeniedException) {
-        throw accessDeniedException;
-      }
-      if (e.getCause() instanceof ResponseStatusException responseStatusException) {
-        throw responseStatusException;
-      }
-      throw new UncheckedExecutionException(e);
-    } catch (InterruptedException e) {
-      searchFuture.cancel(true);
-      Thread.currentThread().interrupt();
-      throw new RuntimeException(e);
-    }
+    return toTermIndexEntrySearchHybridResponseEntity(
+        hybridQueryEngine.execute(
+            termIndexEntrySearchHybridEndpoint,
+            request,
+            () -> termIndexExplorerService.searchEntries(toEntrySearchCommand(request))));
   }
 
   @GetMapping("/entries/search-hybrid/results/{requestId}")
   public ResponseEntity<TermIndexEntrySearchHybridResponse> getSearchEntriesHybridResults(
       @PathVariable UUID requestId) {
     requireAdmin();
-    Optional<String> storedResult =
-        structuredBlobStorage.getString(
-            StructuredBlobStorage.Prefix.TERM_INDEX_ENTRY_SEARCH_ASYNC, requestId.toString());
-
-    if (storedResult.isEmpty()) {
-      return ResponseEntity.accepted()
-          .body(
-              new TermIndexEntrySearchHybridResponse(
-                  null, buildTermIndexEntrySearchPollingToken(requestId), null));
-    }
-
-    TermIndexEntrySearchHybridResponse response =
-        objectMapper.readValueUnchecked(
-            storedResult.get(), TermIndexEntrySearchHybridResponse.class);
-    if (response.error() == null) {
-      return ResponseEntity.ok(response);
-    }
-    if (response.error().expected()) {
-      return ResponseEntity.badRequest().body(response);
-    }
-    return ResponseEntity.internalServerError().body(response);
+    return toTermIndexEntrySearchHybridResponseEntity(
+        hybridQueryEngine.getResult(termIndexEntrySearchHybridEndpoint, requestId));
   }
 
   @GetMapping("/entries/{termIndexEntryId}/occurrences")
@@ -605,14 +532,30 @@ public class TermIndexExplorerWS {
         candidate.confidence());
   }
 
-  private void persistTermIndexEntrySearchHybridResponse(
-      UUID requestId, TermIndexEntrySearchHybridResponse response) {
-    String payloadJson = objectMapper.writeValueAsStringUnchecked(response);
-    structuredBlobStorage.put(
-        StructuredBlobStorage.Prefix.TERM_INDEX_ENTRY_SEARCH_ASYNC,
-        requestId.toString(),
-        payloadJson,
-        Retention.MIN_1_DAY);
+  private ResponseEntity<TermIndexEntrySearchHybridResponse>
+      toTermIndexEntrySearchHybridResponseEntity(
+          HybridQueryResult<TermIndexExplorerService.EntrySearchView> result) {
+    if (result.isPending()) {
+      return ResponseEntity.accepted()
+          .body(
+              new TermIndexEntrySearchHybridResponse(
+                  null, buildTermIndexEntrySearchPollingToken(result.requestId()), null));
+    }
+    if (result.isFailed()) {
+      TermIndexEntrySearchHybridResponse response =
+          new TermIndexEntrySearchHybridResponse(
+              null,
+              null,
+              new TermIndexEntrySearchHybridResponse.HybridSearchError(
+                  result.error().type(),
+                  result.error().message(),
+                  result.error().stackTrace(),
+                  result.error().expected()));
+      return result.error().expected()
+          ? ResponseEntity.badRequest().body(response)
+          : ResponseEntity.internalServerError().body(response);
+    }
+    return ResponseEntity.ok(new TermIndexEntrySearchHybridResponse(result.results(), null, null));
   }
 
   private TermIndexEntrySearchHybridResponse.PollingToken buildTermIndexEntrySearchPollingToken(
@@ -621,7 +564,7 @@ public class TermIndexExplorerWS {
         requestId, termIndexEntriesHybridProperties.recommendedPollingDuration().toMillis());
   }
 
-  private boolean isExpectedHybridSearchError(Exception e) {
+  private static boolean isExpectedHybridSearchError(Throwable e) {
     return e instanceof AccessDeniedException
         || e instanceof IllegalArgumentException
         || e instanceof ResponseStatusException responseStatusException
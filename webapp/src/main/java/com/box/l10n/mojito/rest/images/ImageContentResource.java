@@ -0,0 +1,49 @@
+package com.box.l10n.mojito.rest.images;
+
+import com.box.l10n.mojito.service.image.ImageMetadata;
+import com.box.l10n.mojito.service.image.ImageService;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * Resource that opens a stream on the image content only when the response is written, so that
+ * conditional requests don't read from the backing store.
+ *
+ * <p>The content length comes from the {@link ImageMetadata}, which lets Spring serve range
+ * requests by skipping in the stream instead of buffering the image.
+ */
+class ImageContentResource extends AbstractResource {
+
+  ImageService imageService;
+
+  ImageMetadata imageMetadata;
+
+  ImageContentResource(ImageService imageService, ImageMetadata imageMetadata) {
+    this.imageService = imageService;
+    this.imageMetadata = imageMetadata;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Image [" + imageMetadata.name() + "]";
+  }
+
+  @Override
+  public boolean exists() {
+    return true;
+  }
+
+  @Override
+  public long contentLength() {
+    return imageMetadata.contentLength();
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    return imageService
+        .getImageInputStream(imageMetadata.name())
+        .orElseThrow(() -> new FileNotFoundException(getDescription() + " doesn't exist anymore"));
+  }
+}
@@ -2,25 +2,33 @@ package com.box.l10n.mojito.rest.images;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
-import com.box.l10n.mojito.entity.Image;
+import com.box.l10n.mojito.service.image.ImageMetadata;
 import com.box.l10n.mojito.service.image.ImageService;
-import com.box.l10n.mojito.util.ImageBytes;
+import com.box.l10n.mojito.service.image.ImageThumbnailService;
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Optional;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.HandlerMapping;
 
 /**
@@ -38,41 +46,132 @@ public class ImageWS {
 
   @Autowired ImageService imageService;
 
+  @Autowired ImageThumbnailService imageThumbnailService;
+
+  @Value("${l10n.image-ws.cache-control.max-age:PT1H}")
+  Duration cacheMaxAge = Duration.ofHours(1);
+
+  /**
+   * Serves an image, or a size-bounded thumbnail of it when {@code size} is provided.
+   *
+   * <p>Responses have a strong ETag based on the content hash computed at upload, so clients can
+   * revalidate with conditional requests. The content is streamed from the backing store and range
+   * requests are supported.
+   */
   @RequestMapping(value = "/api/images/**", method = RequestMethod.GET)
   @ResponseBody
-  public ResponseEntity getImage(HttpServletRequest httpServletRequest) throws IOException {
+  public ResponseEntity<?> getImage(
+      HttpServletRequest httpServletRequest,
+      WebRequest webRequest,
+      @RequestParam(value = "size", required = false) Integer size)
+      throws IOException {
 
     String imageName = getImageNameFromRequest(httpServletRequest);
 
-    Optional<Image> image = imageService.getImage(imageName);
+    Optional<ImageMetadata> imageMetadata = imageService.getImageMetadata(imageName);
+    if (imageMetadata.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+
+    Optional<Integer> thumbnailSize =
+        Optional.ofNullable(size)
+            .flatMap(s -> imageThumbnailService.getThumbnailSize(imageMetadata.get(), s));
 
-    return image
-        .map(i -> toImageResponse(imageName, i))
-        .orElseGet(() -> ResponseEntity.notFound().build());
-  }
+    String eTag = getETag(imageMetadata.get(), thumbnailSize);
+    long lastModified = getLastModified(imageMetadata.get());
+
+    if (webRequest.checkNotModified(eTag, lastModified)) {
+      return null;
+    }
+
+    Optional<ImageThumbnailService.Thumbnail> thumbnail =
+        thumbnailSize.flatMap(s -> imageThumbnailService.getThumbnail(imageMetadata.get(), s));
 
-  ResponseEntity<byte[]> toImageResponse(String imageName, Image image) {
-    byte[] content = image.getContent();
-    MediaType mediaType = getMediaTypeFromImageContent(imageName, content);
-    boolean inferredPdf = mediaType == MediaType.APPLICATION_OCTET_STREAM && isPdfContent(content);
-    if (inferredPdf) {
-      mediaType = MediaType.APPLICATION_PDF;
+    if (thumbnailSize.isPresent() && thumbnail.isEmpty()) {
+      // the thumbnail couldn't be created, the original is served with its own ETag
+      eTag = getETag(imageMetadata.get(), Optional.empty());
     }
 
+    Resource resource =
+        thumbnail
+            .<Resource>map(t -> new ByteArrayResource(t.content()))
+            .orElseGet(() -> new ImageContentResource(imageService, imageMetadata.get()));
+    MediaType mediaType =
+        MediaType.parseMediaType(
+            thumbnail
+                .map(ImageThumbnailService.Thumbnail::contentType)
+                .orElse(imageMetadata.get().contentType()));
+
+    ResponseEntity.BodyBuilder bodyBuilder =
+        ResponseEntity.ok()
+            .eTag(eTag)
+            .cacheControl(CacheControl.maxAge(cacheMaxAge).cachePrivate())
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.inline()
+                    .filename(
+                        getFilename(imageName, imageMetadata.get().contentType()),
+                        StandardCharsets.UTF_8)
+                    .build()
+                    .toString())
+            .contentType(mediaType);
+
+    if (lastModified >= 0) {
+      bodyBuilder.lastModified(lastModified);
+    }
+
+    // Spring processes range requests for Resource bodies but ignores If-Range
+    if (isIfRangeNotMatching(httpServletRequest, eTag, lastModified)) {
+      return bodyBuilder.body(resource.getContentAsByteArray());
+    }
+
+    return bodyBuilder.body(resource);
+  }
+
+  /**
+   * The ETag is derived from the metadata and the thumbnail size only, so that conditional requests
+   * are answered without reading the image or its thumbnail.
+   */
+  String getETag(ImageMetadata imageMetadata, Optional<Integer> thumbnailSize) {
+    return "\"" + imageMetadata.contentSha256() + thumbnailSize.map(s -> "-" + s).orElse("") + "\"";
+  }
+
+  long getLastModified(ImageMetadata imageMetadata) {
+    return imageMetadata.lastModified() == null
+        ? -1
+        : imageMetadata.lastModified().toInstant().toEpochMilli();
+  }
+
+  String getFilename(String imageName, String contentType) {
     String filename = FilenameUtils.getName(imageName);
-    if (inferredPdf && !filename.toLowerCase().endsWith(".pdf")) {
+    if (MediaType.APPLICATION_PDF_VALUE.equals(contentType)
+        && !filename.toLowerCase().endsWith(".pdf")) {
       filename = filename + ".pdf";
     }
+    return filename;
+  }
+
+  /**
+   * Checks if a range request is conditional on another version of the image, in which case the
+   * range must be ignored and the full content returned.
+   */
+  boolean isIfRangeNotMatching(
+      HttpServletRequest httpServletRequest, String eTag, long lastModified) {
+    String ifRange = httpServletRequest.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null || httpServletRequest.getHeader(HttpHeaders.RANGE) == null) {
+      return false;
+    }
 
-    return ResponseEntity.ok()
-        .header(
-            "Content-Disposition",
-            ContentDisposition.inline()
-                .filename(filename, StandardCharsets.UTF_8)
-                .build()
-                .toString())
-        .contentType(mediaType)
-        .body(content);
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      return !ifRange.equals(eTag);
+    }
+
+    try {
+      long ifRangeDate = httpServletRequest.getDateHeader(HttpHeaders.IF_RANGE);
+      return lastModified < 0 || ifRangeDate / 1000 != lastModified / 1000;
+    } catch (IllegalArgumentException iae) {
+      return true;
+    }
   }
 
   @RequestMapping(value = "/api/images/**", method = RequestMethod.PUT)
@@ -98,51 +197,4 @@ public class ImageWS {
     imageName = URLDecoder.decode(imageName);
     return imageName;
   }
-
-  /**
-   * Get the media type of an image based on its extension. Supported types are JPEG, PNG and GIF.
-   * If there is no match based on the extension, MediaType.APPLICATION_OCTET_STREAM is returned.
-   *
-   * @param imageName an image name
-   * @return the media type of the image
-   */
-  MediaType getMediaTypeFromImageName(String imageName) {
-    MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
-
-    String fileExtension = FilenameUtils.getExtension(imageName).toLowerCase();
-
-    switch (fileExtension) {
-      case "jpeg":
-      case "jpg":
-        mediaType = MediaType.IMAGE_JPEG;
-        break;
-      case "png":
-        mediaType = MediaType.IMAGE_PNG;
-        break;
-      case "gif":
-        mediaType = MediaType.IMAGE_GIF;
-        break;
-      case "pdf":
-        mediaType = MediaType.APPLICATION_PDF;
-        break;
-    }
-
-    return mediaType;
-  }
-
-  MediaType getMediaTypeFromImageContent(String imageName, byte[] content) {
-    String contentType = ImageBytes.fromBytes(imageName, content).contentType();
-    return MediaType.parseMediaType(contentType);
-  }
-
-  boolean isPdfContent(byte[] content) {
-    if (content == null || content.length < 5) {
-      return false;
-    }
-    return content[0] == '%'
-        && content[1] == 'P'
-        && content[2] == 'D'
-        && content[3] == 'F'
-        && content[4] == '-';
-  }
 }
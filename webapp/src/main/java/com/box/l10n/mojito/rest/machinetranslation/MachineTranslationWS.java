@@ -62,7 +62,6 @@ public class MachineTranslationWS {
 
   @RequestMapping(method = RequestMethod.POST, value = "/api/machine-translation")
   @ResponseStatus(HttpStatus.OK)
-  @Cacheable(MACHINE_TRANSLATION)
   public TranslationDTO getSingleTranslation(
       @RequestBody TranslationRequestDTO translationRequest) {
     return machineTranslationService.getSingleTranslation(
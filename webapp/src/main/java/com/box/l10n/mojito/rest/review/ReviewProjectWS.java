@@ -7,10 +7,11 @@ import com.box.l10n.mojito.entity.review.ReviewProjectTerminologyPhase;
 import com.box.l10n.mojito.entity.review.ReviewProjectTextUnitDecision.DecisionState;
 import com.box.l10n.mojito.entity.review.ReviewProjectTextUnitFeedback.Recommendation;
 import com.box.l10n.mojito.entity.review.ReviewProjectType;
-import com.box.l10n.mojito.json.ObjectMapper;
 import com.box.l10n.mojito.rest.EntityWithIdNotFoundException;
-import com.box.l10n.mojito.service.blobstorage.Retention;
 import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEndpoint;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEngine;
+import com.box.l10n.mojito.service.hybrid.HybridQueryResult;
 import com.box.l10n.mojito.service.pollableTask.PollableFuture;
 import com.box.l10n.mojito.service.review.CreateGlossaryTermCandidateReviewProjectCommand;
 import com.box.l10n.mojito.service.review.CreateGlossaryTerminologyReviewProjectCommand;
@@ -22,17 +23,11 @@ import com.box.l10n.mojito.service.review.ReviewProjectTextUnitDetail;
 import com.box.l10n.mojito.service.review.SearchReviewProjectRequestsView;
 import com.box.l10n.mojito.service.review.SearchReviewProjectsCriteria;
 import com.box.l10n.mojito.service.review.SearchReviewProjectsView;
-import com.google.common.base.Throwables;
-import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicBoolean;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
@@ -54,24 +49,33 @@ import org.springframework.web.server.ResponseStatusException;
 public class ReviewProjectWS {
 
   private final ReviewProjectService reviewProjectService;
-  private final StructuredBlobStorage structuredBlobStorage;
-  private final ObjectMapper objectMapper;
+  private final HybridQueryEngine hybridQueryEngine;
   private final SearchReviewProjectRequestsHybridProperties
       searchReviewProjectRequestsHybridProperties;
-  private final AsyncTaskExecutor searchReviewProjectRequestsHybridExecutor;
+  private final HybridQueryEndpoint<SearchReviewProjectRequestsResponse>
+      searchReviewProjectRequestsHybridEndpoint;
 
   public ReviewProjectWS(
       ReviewProjectService reviewProjectService,
-      StructuredBlobStorage structuredBlobStorage,
-      @Qualifier("fail_on_unknown_properties_false") ObjectMapper objectMapper,
+      HybridQueryEngine hybridQueryEngine,
       SearchReviewProjectRequestsHybridProperties searchReviewProjectRequestsHybridProperties,
       @Qualifier("searchReviewProjectRequestsHybridExecutor")
           AsyncTaskExecutor searchReviewProjectRequestsHybridExecutor) {
     this.reviewProjectService = reviewProjectService;
-    this.structuredBlobStorage = structuredBlobStorage;
-    this.objectMapper = objectMapper;
+    this.hybridQueryEngine = hybridQueryEngine;
     this.searchReviewProjectRequestsHybridProperties = searchReviewProjectRequestsHybridProperties;
-    this.searchReviewProjectRequestsHybridExecutor = searchReviewProjectRequestsHybridExecutor;
+    // the visible requests depend on the current user's role and teams
+    this.searchReviewProjectRequestsHybridEndpoint =
+        new HybridQueryEndpoint<>(
+            "reviewProjectRequestSearch",
+            StructuredBlobStorage.Prefix.REVIEW_PROJECT_REQUEST_SEARCH_ASYNC,
+            searchReviewProjectRequestsHybridExecutor,
+            new TypeReference<>() {},
+            searchReviewProjectRequestsHybridProperties.convertToAsyncAfter(),
+            searchReviewProjectRequestsHybridProperties.resultCacheTtl(),
+            searchReviewProjectRequestsHybridProperties.maxInFlightQueries(),
+            true,
+            ReviewProjectWS::isExpectedHybridSearchError);
   }
 
   @PostMapping("/review-projects/search")
@@ -92,92 +96,18 @@ public class ReviewProjectWS {
   @PostMapping("/review-project-requests/search-hybrid")
   public ResponseEntity<SearchReviewProjectRequestsHybridResponse>
       searchReviewProjectRequestsHybrid(@RequestBody SearchReviewProjectsRequest request) {
-    final UUID requestId = UUID.randomUUID();
-    final AtomicBoolean forceAsyncPersistence = new AtomicBoolean(false);
-    final long searchStartedAtNanos = System.nanoTime();
-
-    Future<SearchReviewProjectRequestsResponse> searchFuture =
-        searchReviewProjectRequestsHybridExecutor.submit(
-            () -> {
-              SearchReviewProjectRequestsResponse results;
-              try {
-                results = searchReviewProjectRequestsResponse(request);
-              } catch (Exception e) {
-                if (forceAsyncPersistence.get()) {
-                  persistSearchReviewProjectRequestsHybridResponse(
-                      requestId,
-                      new SearchReviewProjectRequestsHybridResponse(
-                          null,
-                          null,
-                          new SearchReviewProjectRequestsHybridResponse.HybridSearchError(
-                              e.getClass().getName(),
-                              e.getMessage(),
-                              Throwables.getStackTraceAsString(e),
-                              isExpectedHybridSearchError(e))));
-                }
-                throw e;
-              }
-
-              long searchCompletedAtNanos = System.nanoTime();
-              if (forceAsyncPersistence.get()
-                  || searchCompletedAtNanos - searchStartedAtNanos
-                      >= searchReviewProjectRequestsHybridProperties
-                          .convertToAsyncAfter()
-                          .toNanos()) {
-                persistSearchReviewProjectRequestsHybridResponse(
-                    requestId, new SearchReviewProjectRequestsHybridResponse(results, null, null));
-              }
-              return results;
-            });
-
-    try {
-      SearchReviewProjectRequestsResponse results =
-          searchFuture.get(
-              searchReviewProjectRequestsHybridProperties.convertToAsyncAfter().toNanos(),
-              TimeUnit.NANOSECONDS);
-      return ResponseEntity.ok(new SearchReviewProjectRequestsHybridResponse(results, null, null));
-    } catch (TimeoutException e) {
-      forceAsyncPersistence.set(true);
-      SearchReviewProjectRequestsHybridResponse response =
-          new SearchReviewProjectRequestsHybridResponse(
-              null, buildSearchReviewProjectRequestsPollingToken(requestId), null);
-      return ResponseEntity.accepted().body(response);
-    } catch (ExecutionException e) {
-      if (e.getCause() instanceof ResponseStatusException responseStatusException) {
-        throw responseStatusException;
-      }
-      throw new UncheckedExecutionException(e);
-    } catch (InterruptedException e) {
-      searchFuture.cancel(true);
-      Thread.currentThread().interrupt();
-      throw new RuntimeException(e);
-    }
+    return toSearchReviewProjectRequestsHybridResponseEntity(
+        hybridQueryEngine.execute(
+            searchReviewProjectRequestsHybridEndpoint,
+            request,
+            () -> searchReviewProjectRequestsResponse(request)));
   }
 
   @GetMapping("/review-project-requests/search-hybrid/results/{requestId}")
   public ResponseEntity<SearchReviewProjectRequestsHybridResponse>
       getSearchReviewProjectRequestsHybridResults(@PathVariable UUID requestId) {
-    Optional<String> storedResult =
-        structuredBlobStorage.getString(
-            StructuredBlobStorage.Prefix.REVIEW_PROJECT_REQUEST_SEARCH_ASYNC, requestId.toString());
-
-    if (storedResult.isEmpty()) {
-      SearchReviewProjectRequestsHybridResponse response =
-          new SearchReviewProjectRequestsHybridResponse(
-              null, buildSearchReviewProjectRequestsPollingToken(requestId), null);
-      return ResponseEntity.accepted().body(response);
-    }
-
-    SearchReviewProjectRequestsHybridResponse response =
-        objectMapper.readValueUnchecked(
-            storedResult.get(), SearchReviewProjectRequestsHybridResponse.class);
-    if (response.error() == null) {
-      return ResponseEntity.ok(response);
-    }
-    if (response.error().expected()) {
-      return ResponseEntity.badRequest().body(response);
-    }
-    return ResponseEntity.internalServerError().body(response);
+    return toSearchReviewProjectRequestsHybridResponseEntity(
+        hybridQueryEngine.getResult(searchReviewProjectRequestsHybridEndpoint, requestId));
   }
 
   @PostMapping("/review-project-requests")
@@ -895,14 +825,31 @@ public class ReviewProjectWS {
     return new SearchReviewProjectRequestsResponse(requestGroups);
   }
 
-  private void persistSearchReviewProjectRequestsHybridResponse(
-      UUID requestId, SearchReviewProjectRequestsHybridResponse response) {
-    String payloadJson = objectMapper.writeValueAsStringUnchecked(response);
-    structuredBlobStorage.put(
-        StructuredBlobStorage.Prefix.REVIEW_PROJECT_REQUEST_SEARCH_ASYNC,
-        requestId.toString(),
-        payloadJson,
-        Retention.MIN_1_DAY);
+  private ResponseEntity<SearchReviewProjectRequestsHybridResponse>
+      toSearchReviewProjectRequestsHybridResponseEntity(
+          HybridQueryResult<SearchReviewProjectRequestsResponse> result) {
+    if (result.isPending()) {
+      return ResponseEntity.accepted()
+          .body(
+              new SearchReviewProjectRequestsHybridResponse(
+                  null, buildSearchReviewProjectRequestsPollingToken(result.requestId()), null));
+    }
+    if (result.isFailed()) {
+      SearchReviewProjectRequestsHybridResponse response =
+          new SearchReviewProjectRequestsHybridResponse(
+              null,
+              null,
+              new SearchReviewProjectRequestsHybridResponse.HybridSearchError(
+                  result.error().type(),
+                  result.error().message(),
+                  result.error().stackTrace(),
+                  result.error().expected()));
+      return result.error().expected()
+          ? ResponseEntity.badRequest().body(response)
+          : ResponseEntity.internalServerError().body(response);
+    }
+    return ResponseEntity.ok(
+        new SearchReviewProjectRequestsHybridResponse(result.results(), null, null));
   }
 
   private SearchReviewProjectRequestsHybridResponse.PollingToken
@@ -912,7 +859,7 @@ public class ReviewProjectWS {
         searchReviewProjectRequestsHybridProperties.recommendedPollingDuration().toMillis());
   }
 
-  private boolean isExpectedHybridSearchError(Exception e) {
+  private static boolean isExpectedHybridSearchError(Throwable e) {
     return e instanceof IllegalArgumentException
         || e instanceof ResponseStatusException responseStatusException
             && responseStatusException.getStatusCode().is4xxClientError();
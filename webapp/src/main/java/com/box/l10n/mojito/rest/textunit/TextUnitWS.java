@@ -17,10 +17,12 @@ import com.box.l10n.mojito.service.asset.AssetPathNotFoundException;
 import com.box.l10n.mojito.service.asset.AssetRepository;
 import com.box.l10n.mojito.service.assetTextUnit.AssetTextUnitRepository;
 import com.box.l10n.mojito.service.assetintegritychecker.integritychecker.IntegrityCheckException;
-import com.box.l10n.mojito.service.blobstorage.Retention;
 import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
 import com.box.l10n.mojito.service.gitblame.GitBlameService;
 import com.box.l10n.mojito.service.gitblame.GitBlameWithUsage;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEndpoint;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEngine;
+import com.box.l10n.mojito.service.hybrid.HybridQueryResult;
 import com.box.l10n.mojito.service.locale.LocaleService;
 import com.box.l10n.mojito.service.pollableTask.PollableFuture;
 import com.box.l10n.mojito.service.repository.RepositoryNameNotFoundException;
@@ -42,18 +44,14 @@ import com.box.l10n.mojito.service.tm.search.UsedFilter;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.base.Stopwatch;
-import com.google.common.base.Throwables;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -111,16 +109,12 @@ public class TextUnitWS {
 
   @Autowired UserService userService;
 
-  @Autowired StructuredBlobStorage structuredBlobStorage;
-
   @Autowired MeterRegistry meterRegistry;
 
-  @Autowired
-  @Qualifier("fail_on_unknown_properties_false")
-  ObjectMapper objectMapper;
-
   @Autowired SearchTextUnitsHybridProperties searchTextUnitsHybridProperties;
 
+  @Autowired HybridQueryEngine hybridQueryEngine;
+
   @Autowired
   @Qualifier("searchTextUnitsHybridExecutor")
   ThreadPoolTaskExecutor searchTextUnitsHybridExecutor;
@@ -230,77 +224,17 @@ public class TextUnitWS {
   public ResponseEntity<SearchTextUnitsHybridResponse> searchTextUnitsHybrid(
       @RequestBody TextUnitSearchBody textUnitSearchBody)
       throws InvalidTextUnitSearchParameterException {
-
-    final UUID requestId = UUID.randomUUID();
-    final AtomicBoolean forceAsyncPersistence = new AtomicBoolean(false);
-    final long searchStartedAtNanos = System.nanoTime();
-
-    Future<List<TextUnitDTO>> searchFuture =
-        searchTextUnitsHybridExecutor.submit(
-            () -> {
-              List<TextUnitDTO> results;
-              try {
-                results = getTextUnits(textUnitSearchBody);
-              } catch (Exception e) {
-                if (forceAsyncPersistence.get()) {
-                  HybridSearchError error =
-                      new HybridSearchError(
-                          e.getClass().getName(),
-                          e.getMessage(),
-                          Throwables.getStackTraceAsString(e),
-                          e instanceof InvalidTextUnitSearchParameterException);
-                  SearchTextUnitsHybridResponse payload =
-                      new SearchTextUnitsHybridResponse(null, null, error);
-                  String payloadJson = objectMapper.writeValueAsStringUnchecked(payload);
-                  structuredBlobStorage.put(
-                      StructuredBlobStorage.Prefix.TEXT_UNIT_WS_SEARCH_ASYNC,
-                      requestId.toString(),
-                      payloadJson,
-                      Retention.MIN_1_DAY);
-                }
-                throw e;
-              }
-              long searchCompletedAtNanos = System.nanoTime();
-
-              if (forceAsyncPersistence.get()
-                  || searchCompletedAtNanos - searchStartedAtNanos
-                      >= searchTextUnitsHybridProperties.convertToAsyncAfter().toNanos()) {
-                logger.debug("search was slow, we must persist result for eventual polling");
-                SearchTextUnitsHybridResponse payload =
-                    new SearchTextUnitsHybridResponse(results, null, null);
-                String payloadJson = objectMapper.writeValueAsStringUnchecked(payload);
-                structuredBlobStorage.put(
-                    StructuredBlobStorage.Prefix.TEXT_UNIT_WS_SEARCH_ASYNC,
-                    requestId.toString(),
-                    payloadJson,
-                    Retention.MIN_1_DAY);
-              }
-              return results;
-            });
-
     try {
-      List<TextUnitDTO> results =
-          searchFuture.get(
-              searchTextUnitsHybridProperties.convertToAsyncAfter().toNanos(),
-              TimeUnit.NANOSECONDS);
-      SearchTextUnitsHybridResponse response =
-          new SearchTextUnitsHybridResponse(results, null, null);
-      return ResponseEntity.ok(response);
-    } catch (TimeoutException e) {
-      forceAsyncPersistence.set(true);
-      SearchTextUnitsHybridResponse response =
-          new SearchTextUnitsHybridResponse(null, buildPollingToken(requestId), null);
-      return ResponseEntity.accepted().body(response);
-    } catch (ExecutionException e) {
+      return toSearchTextUnitsHybridResponseEntity(
+          hybridQueryEngine.execute(
+              getSearchTextUnitsHybridEndpoint(),
+              textUnitSearchBody,
+              () -> getTextUnits(textUnitSearchBody)));
+    } catch (UncheckedExecutionException e) {
       if (e.getCause() instanceof InvalidTextUnitSearchParameterException) {
         throw (InvalidTextUnitSearchParameterException) e.getCause();
-      } else {
-        throw new UncheckedExecutionException(e);
       }
-    } catch (InterruptedException e) {
-      searchFuture.cancel(true);
-      Thread.currentThread().interrupt();
-      throw new RuntimeException(e);
+      throw e;
     }
   }
 
@@ -308,33 +242,55 @@ public class TextUnitWS {
       method = RequestMethod.GET,
       value = "/api/textunits/search-hybrid/results/{requestId}")
   public ResponseEntity<?> searchTextUnitsHybridGetResults(@PathVariable UUID requestId) {
+    return toSearchTextUnitsHybridResponseEntity(
+        hybridQueryEngine.getResult(getSearchTextUnitsHybridEndpoint(), requestId));
+  }
 
-    ResponseEntity<SearchTextUnitsHybridResponse> response = null;
-    Optional<String> storedResult =
-        structuredBlobStorage.getString(
-            StructuredBlobStorage.Prefix.TEXT_UNIT_WS_SEARCH_ASYNC, requestId.toString());
+  private ResponseEntity<SearchTextUnitsHybridResponse> toSearchTextUnitsHybridResponseEntity(
+      HybridQueryResult<List<TextUnitDTO>> result) {
 
-    if (storedResult.isEmpty()) {
-      SearchTextUnitsHybridResponse searchTextUnitsHybridResponse =
-          new SearchTextUnitsHybridResponse(null, buildPollingToken(requestId), null);
-      response = ResponseEntity.accepted().body(searchTextUnitsHybridResponse);
+    ResponseEntity<SearchTextUnitsHybridResponse> response;
 
-    } else {
+    if (result.isPending()) {
+      response =
+          ResponseEntity.accepted()
+              .body(
+                  new SearchTextUnitsHybridResponse(
+                      null, buildPollingToken(result.requestId()), null));
+    } else if (result.isFailed()) {
       SearchTextUnitsHybridResponse searchTextUnitsHybridResponse =
-          objectMapper.readValueUnchecked(storedResult.get(), SearchTextUnitsHybridResponse.class);
-
-      if (searchTextUnitsHybridResponse.error() == null) {
-        response = ResponseEntity.ok(searchTextUnitsHybridResponse);
-      } else if (searchTextUnitsHybridResponse.error().expected()) {
-        response = ResponseEntity.badRequest().body(searchTextUnitsHybridResponse);
-      } else {
-        response = ResponseEntity.internalServerError().body(searchTextUnitsHybridResponse);
-      }
+          new SearchTextUnitsHybridResponse(
+              null,
+              null,
+              new HybridSearchError(
+                  result.error().type(),
+                  result.error().message(),
+                  result.error().stackTrace(),
+                  result.error().expected()));
+      response =
+          result.error().expected()
+              ? ResponseEntity.badRequest().body(searchTextUnitsHybridResponse)
+              : ResponseEntity.internalServerError().body(searchTextUnitsHybridResponse);
+    } else {
+      response = ResponseEntity.ok(new SearchTextUnitsHybridResponse(result.results(), null, null));
     }
 
     return response;
   }
 
+  private HybridQueryEndpoint<List<TextUnitDTO>> getSearchTextUnitsHybridEndpoint() {
+    return new HybridQueryEndpoint<>(
+        "textUnitSearch",
+        StructuredBlobStorage.Prefix.TEXT_UNIT_WS_SEARCH_ASYNC,
+        searchTextUnitsHybridExecutor,
+        new TypeReference<>() {},
+        searchTextUnitsHybridProperties.convertToAsyncAfter(),
+        searchTextUnitsHybridProperties.resultCacheTtl(),
+        searchTextUnitsHybridProperties.maxInFlightQueries(),
+        false,
+        e -> e instanceof InvalidTextUnitSearchParameterException);
+  }
+
   private SearchTextUnitsHybridResponse.PollingToken buildPollingToken(UUID requestId) {
     return new SearchTextUnitsHybridResponse.PollingToken(
         requestId, searchTextUnitsHybridProperties.recommendedPollingDuration().toMillis());
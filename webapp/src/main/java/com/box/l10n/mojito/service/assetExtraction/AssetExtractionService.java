@@ -32,7 +32,6 @@ import com.box.l10n.mojito.localtm.merger.MultiBranchStateMerger;
 import com.box.l10n.mojito.okapi.FilterConfigIdOverride;
 import com.box.l10n.mojito.okapi.TextUnitUtils;
 import com.box.l10n.mojito.okapi.asset.UnsupportedAssetFilterTypeException;
-import com.box.l10n.mojito.okapi.extractor.AssetExtractor;
 import com.box.l10n.mojito.okapi.extractor.AssetExtractorTextUnit;
 import com.box.l10n.mojito.quartz.QuartzJobInfo;
 import com.box.l10n.mojito.quartz.QuartzPollableTaskScheduler;
@@ -143,7 +142,7 @@ public class AssetExtractionService {
 
   @Autowired FilterOptionsMd5Builder filterOptionsMd5Builder;
 
-  @Autowired AssetExtractor assetExtractor;
+  @Autowired AssetExtractorTextUnitsCache assetExtractorTextUnitsCache;
 
   @Autowired PluralFormService pluralFormService;
 
@@ -1477,7 +1476,7 @@ public class AssetExtractionService {
         assetExtractorTextUnits = LocalizationShadowComparator.projectTextUnits(catalog);
       } else {
         assetExtractorTextUnits =
-            assetExtractor.getAssetExtractorTextUnitsForAsset(
+            assetExtractorTextUnitsCache.getAssetExtractorTextUnitsForAsset(
                 assetContent.getAsset().getPath(),
                 assetContent.getContent(),
                 filterConfigIdOverride,
@@ -0,0 +1,157 @@
+package com.box.l10n.mojito.service.assetExtraction;
+
+import static com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage.Prefix.ASSET_EXTRACTION_CACHE;
+
+import com.box.l10n.mojito.json.ObjectMapper;
+import com.box.l10n.mojito.okapi.FilterConfigIdOverride;
+import com.box.l10n.mojito.okapi.asset.UnsupportedAssetFilterTypeException;
+import com.box.l10n.mojito.okapi.extractor.AssetExtractor;
+import com.box.l10n.mojito.okapi.extractor.AssetExtractorTextUnit;
+import com.box.l10n.mojito.service.blobstorage.Retention;
+import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressed cache of the text units extracted by {@link AssetExtractor}.
+ *
+ * <p>The Okapi extraction only depends on the asset content, the filter config and the filter
+ * options (the asset path is only used to pick the filter config). Entries are keyed by (content
+ * md5, filter config id, filter options md5, extractor version) so identical content pushed by
+ * different branches or repositories is only parsed once.
+ *
+ * <p>Entries are stored in Smile format in the {@link StructuredBlobStorage}. Bump {@link
+ * #EXTRACTOR_VERSION} (or set "l10n.assetExtraction.extractionCache.extractorVersion") when the
+ * extraction logic changes so that stale entries are not used anymore.
+ *
+ * <p>Cached text units are still given to the portable localization shadow, as an extraction would.
+ */
+@Component
+public class AssetExtractorTextUnitsCache {
+
+  static Logger logger = LoggerFactory.getLogger(AssetExtractorTextUnitsCache.class);
+
+  static final String CACHE_LOOKUP_METRIC = "AssetExtractorTextUnitsCache.lookup";
+
+  static final String EXTRACTOR_VERSION = "1";
+
+  @Autowired AssetExtractor assetExtractor;
+
+  @Autowired StructuredBlobStorage structuredBlobStorage;
+
+  @Autowired MeterRegistry meterRegistry;
+
+  @Autowired
+  @Qualifier("smile_format_object_mapper")
+  ObjectMapper objectMapper;
+
+  @Value("${l10n.assetExtraction.extractionCache.enabled:false}")
+  boolean enabled;
+
+  @Value("${l10n.assetExtraction.extractionCache.extractorVersion:" + EXTRACTOR_VERSION + "}")
+  String extractorVersion = EXTRACTOR_VERSION;
+
+  /**
+   * Same as {@link AssetExtractor#getAssetExtractorTextUnitsForAsset(String, String,
+   * FilterConfigIdOverride, List)} but returns the cached text units if the same content was
+   * already extracted with the same filter config and options.
+   */
+  public List<AssetExtractorTextUnit> getAssetExtractorTextUnitsForAsset(
+      String assetPath,
+      String assetContent,
+      FilterConfigIdOverride filterConfigIdOverride,
+      List<String> filterOptions)
+      throws UnsupportedAssetFilterTypeException {
+
+    if (!enabled) {
+      return assetExtractor.getAssetExtractorTextUnitsForAsset(
+          assetPath, assetContent, filterConfigIdOverride, filterOptions);
+    }
+
+    String filterConfigId = assetExtractor.getFilterConfigId(assetPath, filterConfigIdOverride);
+    String name = getName(assetContent, filterConfigId, filterOptions);
+
+    Optional<List<AssetExtractorTextUnit>> cachedTextUnits = getFromCache(name);
+    meterRegistry
+        .counter(
+            CACHE_LOOKUP_METRIC,
+            "filterConfigId",
+            filterConfigId,
+            "result",
+            cachedTextUnits.isPresent() ? "hit" : "miss")
+        .increment();
+
+    if (cachedTextUnits.isPresent()) {
+      logger.debug("Extracted text units found in cache for asset: {}, name: {}", assetPath, name);
+      assetExtractor.observePortableLocalizationShadow(
+          assetPath, assetContent, filterConfigIdOverride, filterOptions, cachedTextUnits.get());
+      return cachedTextUnits.get();
+    }
+
+    List<AssetExtractorTextUnit> assetExtractorTextUnits =
+        assetExtractor.getAssetExtractorTextUnitsForAsset(
+            assetPath, assetContent, filterConfigIdOverride, filterOptions);
+
+    putInCache(name, assetExtractorTextUnits);
+    return assetExtractorTextUnits;
+  }
+
+  String getName(String assetContent, String filterConfigId, List<String> filterOptions) {
+    return "content/"
+        + DigestUtils.md5Hex(assetContent)
+        + "/filterConfigId/"
+        + filterConfigId
+        + "/filterOptions/"
+        + getFilterOptionsMd5(filterOptions)
+        + "/extractorVersion/"
+        + extractorVersion
+        + ".smile";
+  }
+
+  /** The order of the options is kept since later options can override earlier ones. */
+  String getFilterOptionsMd5(List<String> filterOptions) {
+    return DigestUtils.md5Hex(filterOptions == null ? "" : String.join("\n", filterOptions));
+  }
+
+  Optional<List<AssetExtractorTextUnit>> getFromCache(String name) {
+    try {
+      return structuredBlobStorage
+          .getBytes(ASSET_EXTRACTION_CACHE, name)
+          .map(
+              bytes -> {
+                try {
+                  return objectMapper.readValue(
+                      bytes, new TypeReference<List<AssetExtractorTextUnit>>() {});
+                } catch (Exception e) {
+                  logger.warn(
+                      "Can't read extracted text units from cache, ignore entry: " + name, e);
+                  return null;
+                }
+              });
+    } catch (Exception e) {
+      logger.warn("Can't get extracted text units from cache, extract instead: " + name, e);
+      return Optional.empty();
+    }
+  }
+
+  void putInCache(String name, List<AssetExtractorTextUnit> assetExtractorTextUnits) {
+    try {
+      structuredBlobStorage.putBytes(
+          ASSET_EXTRACTION_CACHE,
+          name,
+          objectMapper.writeValueAsBytes(assetExtractorTextUnits),
+          Retention.MIN_1_DAY);
+    } catch (Exception e) {
+      logger.warn("Can't put extracted text units in cache: " + name, e);
+    }
+  }
+}
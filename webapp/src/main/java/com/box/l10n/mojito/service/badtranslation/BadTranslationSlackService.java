@@ -1,14 +1,11 @@
 package com.box.l10n.mojito.service.badtranslation;
 
 import com.box.l10n.mojito.entity.review.ReviewProjectRequestSlackThread;
-import com.box.l10n.mojito.service.review.ReviewProjectRequestRepository;
 import com.box.l10n.mojito.service.review.ReviewProjectRequestSlackThreadRepository;
+import com.box.l10n.mojito.service.slack.SlackNotificationOutboxService;
 import com.box.l10n.mojito.service.team.TeamService;
 import com.box.l10n.mojito.slack.SlackClient;
-import com.box.l10n.mojito.slack.SlackClientException;
 import com.box.l10n.mojito.slack.SlackClients;
-import com.box.l10n.mojito.slack.request.Message;
-import com.box.l10n.mojito.slack.response.ChatPostMessageResponse;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -31,18 +28,18 @@ public class BadTranslationSlackService {
   private final TeamService teamService;
   private final SlackClients slackClients;
   private final ReviewProjectRequestSlackThreadRepository reviewProjectRequestSlackThreadRepository;
-  private final ReviewProjectRequestRepository reviewProjectRequestRepository;
+  private final SlackNotificationOutboxService slackNotificationOutboxService;
 
   public BadTranslationSlackService(
       TeamService teamService,
       SlackClients slackClients,
       ReviewProjectRequestSlackThreadRepository reviewProjectRequestSlackThreadRepository,
-      ReviewProjectRequestRepository reviewProjectRequestRepository) {
+      SlackNotificationOutboxService slackNotificationOutboxService) {
     this.teamService = Objects.requireNonNull(teamService);
     this.slackClients = Objects.requireNonNull(slackClients);
     this.reviewProjectRequestSlackThreadRepository =
         Objects.requireNonNull(reviewProjectRequestSlackThreadRepository);
-    this.reviewProjectRequestRepository = Objects.requireNonNull(reviewProjectRequestRepository);
+    this.slackNotificationOutboxService = Objects.requireNonNull(slackNotificationOutboxService);
   }
 
   public SlackContext buildSlackContext(
@@ -88,7 +85,16 @@ public class BadTranslationSlackService {
         reviewProjectCandidate.reviewProjectRequestId());
   }
 
-  public BadTranslationSlackDispatch sendMessage(SlackContext slackContext, String text) {
+  /**
+   * Adds the message to the Slack outbox, it is delivered asynchronously so the returned dispatch
+   * has no message ts and only the thread ts when replying to an existing thread. The thread ts of
+   * a new thread is saved on the incident when the message is delivered.
+   *
+   * <p>A message identical to one queued in the outbox dedup window is not sent again and the
+   * dispatch is not marked as sent.
+   */
+  public BadTranslationSlackDispatch sendMessage(
+      SlackContext slackContext, Long translationIncidentId, String text) {
     if (slackContext == null) {
       return new BadTranslationSlackDispatch(false, false, null, null, "Slack context is missing");
     }
@@ -113,45 +119,34 @@ public class BadTranslationSlackService {
           "Unknown Slack client: " + destination.slackClientId());
     }
 
-    try {
-      Message message = new Message();
-      message.setChannel(destination.slackChannelId());
-      message.setText(text);
-      if (destination.threadTs() != null && !destination.threadTs().isBlank()) {
-        message.setThreadTs(destination.threadTs());
-      }
-
-      ChatPostMessageResponse response = slackClient.sendInstantMessage(message);
-      String messageTs = response == null ? null : response.getTs();
-      if ((message.getThreadTs() == null || message.getThreadTs().isBlank())
-          && slackContext.reviewProjectRequestId() != null
-          && messageTs != null
-          && !messageTs.isBlank()) {
-        saveRequestSlackThread(
-            slackContext.reviewProjectRequestId(),
-            destination.slackClientId(),
-            destination.slackChannelId(),
-            messageTs);
-      }
-
-      return new BadTranslationSlackDispatch(
-          true,
-          true,
-          messageTs,
-          message.getThreadTs() == null || message.getThreadTs().isBlank()
-              ? messageTs
-              : message.getThreadTs(),
-          message.getThreadTs() == null || message.getThreadTs().isBlank()
-              ? "Slack message posted to channel"
-              : "Slack message posted to existing thread");
-    } catch (SlackClientException exception) {
+    String threadTs = isBlank(destination.threadTs()) ? null : destination.threadTs();
+    boolean enqueued =
+        slackNotificationOutboxService.enqueue(
+            new SlackNotificationOutboxService.SlackNotificationMessage(
+                destination.slackClientId(),
+                destination.slackChannelId(),
+                threadTs,
+                slackContext.reviewProjectRequestId(),
+                translationIncidentId,
+                text));
+
+    if (!enqueued) {
       return new BadTranslationSlackDispatch(
           true,
           false,
           null,
-          destination.threadTs(),
-          exception.getMessage() == null ? "Failed to send Slack message" : exception.getMessage());
+          threadTs,
+          "An identical Slack message was queued recently, it was not sent again");
     }
+
+    return new BadTranslationSlackDispatch(
+        true,
+        true,
+        null,
+        threadTs,
+        threadTs == null
+            ? "Slack message queued for the channel"
+            : "Slack message queued for the existing thread");
   }
 
   private BadTranslationSlackDestination resolveDestination(Long requestId, Long teamId) {
@@ -215,26 +210,6 @@ public class BadTranslationSlackService {
         person.userId(), person.username(), slackUserId, "<@" + slackUserId + ">");
   }
 
-  private void saveRequestSlackThread(
-      Long requestId, String slackClientId, String slackChannelId, String threadTs) {
-    if (requestId == null
-        || isBlank(slackClientId)
-        || isBlank(slackChannelId)
-        || isBlank(threadTs)) {
-      return;
-    }
-
-    ReviewProjectRequestSlackThread thread =
-        reviewProjectRequestSlackThreadRepository
-            .findByReviewProjectRequest_Id(requestId)
-            .orElseGet(ReviewProjectRequestSlackThread::new);
-    thread.setReviewProjectRequest(reviewProjectRequestRepository.getReferenceById(requestId));
-    thread.setSlackClientId(slackClientId.trim());
-    thread.setSlackChannelId(slackChannelId.trim());
-    thread.setThreadTs(threadTs.trim());
-    reviewProjectRequestSlackThreadRepository.save(thread);
-  }
-
   private BadTranslationSlackDestination unavailableDestination(String note) {
     return new BadTranslationSlackDestination("UNAVAILABLE", null, null, null, false, note);
   }
@@ -6,7 +6,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
 
 @RepositoryRestResource(exported = false)
 public interface TranslationIncidentRepository
@@ -17,4 +21,15 @@ public interface TranslationIncidentRepository
 
   Page<TranslationIncident> findAllByStatusOrderByCreatedDateDesc(
       TranslationIncidentStatus status, Pageable pageable);
+
+  /** Only updates the Slack thread, not to override concurrent changes of the incident */
+  @Transactional
+  @Modifying(clearAutomatically = true, flushAutomatically = true)
+  @Query(
+      """
+      update TranslationIncident ti
+      set ti.slackThreadTs = :slackThreadTs
+      where ti.id = :id
+      """)
+  int updateSlackThreadTs(@Param("id") Long id, @Param("slackThreadTs") String slackThreadTs);
 }
@@ -363,7 +363,7 @@ public class TranslationIncidentService {
 
     BadTranslationSlackDispatch dispatch =
         badTranslationSlackService.sendMessage(
-            buildStoredSlackContext(incident), slackDraft.trim());
+            buildStoredSlackContext(incident), incident.getId(), slackDraft.trim());
 
     if (!dispatch.sent()) {
       incident.setSlackNote(dispatch.note());
@@ -375,7 +375,10 @@ public class TranslationIncidentService {
               : dispatch.note());
     }
 
-    incident.setSlackThreadTs(normalizeOptional(dispatch.threadTs()));
+    // A new thread is saved by the Slack outbox once the message is delivered
+    if (normalizeOptional(dispatch.threadTs()) != null) {
+      incident.setSlackThreadTs(normalizeOptional(dispatch.threadTs()));
+    }
     incident.setSlackNote(normalizeOptional(dispatch.note()));
     translationIncidentRepository.save(incident);
     return toDetail(incident);
@@ -100,6 +100,12 @@ public class AzureDatabaseFallbackBlobStorage implements BlobStorage {
     }
   }
 
+  /** Gets the MD5 from Azure, or from the database for blobs that are not backfilled yet. */
+  @Override
+  public Optional<String> getContentMd5(String name) {
+    return azureBlobStorage.getContentMd5(name).or(() -> databaseBlobStorage.getContentMd5(name));
+  }
+
   @Override
   public void put(String name, byte[] content, Retention retention) {
     azureBlobStorage.put(name, content, retention);
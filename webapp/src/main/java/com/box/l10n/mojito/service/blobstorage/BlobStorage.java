@@ -1,7 +1,12 @@
 package com.box.l10n.mojito.service.blobstorage;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import org.apache.commons.codec.digest.DigestUtils;
 
 /**
  * Low level API for blob storage supporting basic retention policy.
@@ -18,6 +23,35 @@ public interface BlobStorage {
 
   boolean exists(String name);
 
+  /**
+   * Opens a stream on a blob, the caller is responsible for closing it.
+   *
+   * <p>Buffers the blob by default, implementations backed by a remote store should override it to
+   * stream the content.
+   */
+  default Optional<InputStream> getInputStream(String name) {
+    return getBytes(name).map(ByteArrayInputStream::new);
+  }
+
+  /**
+   * Gets the hex MD5 digest of a blob, to verify its content without transferring it.
+   *
+   * <p>Computes the digest from the content by default. Implementations should override it to keep
+   * the digest with the blob, and save it on the first read of blobs written without it, so that
+   * the content is not read again to verify it.
+   */
+  default Optional<String> getContentMd5(String name) {
+    return getInputStream(name)
+        .map(
+            inputStream -> {
+              try (inputStream) {
+                return DigestUtils.md5Hex(inputStream);
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+  }
+
   default Optional<String> getString(String name) {
     return getBytes(name).map(bytes -> new String(bytes, StandardCharsets.UTF_8));
   }
@@ -74,6 +74,10 @@ public class StructuredBlobStorage {
     AI_TRANSLATE_WS,
     AI_TRANSLATE_LINEAGE,
     AI_TRANSLATE_NO_BATCH_OUTPUT,
+    ASSET_EXTRACTION_CACHE,
+    AI_TRANSLATE_RESULT_CACHE,
+    IMAGE_THUMBNAIL,
+    IMAGE_MIGRATION,
     /**
      * @deprecated Only used to read reports persisted before the prefix spelling was corrected.
      */
@@ -6,7 +6,10 @@ import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.models.BlobErrorCode;
 import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRequestConditions;
 import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.DownloadRetryOptions;
 import com.azure.storage.blob.options.BlobParallelUploadOptions;
 import com.box.l10n.mojito.service.blobstorage.BlobStorage;
 import com.box.l10n.mojito.service.blobstorage.Retention;
@@ -14,12 +17,17 @@ import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
 import com.google.common.base.Preconditions;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implementation that uses Azure Blob Storage to store blobs.
@@ -31,6 +39,8 @@ import java.util.function.Supplier;
  */
 public class AzureBlobStorage implements BlobStorage {
 
+  static Logger logger = LoggerFactory.getLogger(AzureBlobStorage.class);
+
   static final String OPERATION_DURATION_METRIC = "AzureBlobStorage.operation.duration";
 
   BlobContainerClient blobContainerClient;
@@ -70,6 +80,109 @@ public class AzureBlobStorage implements BlobStorage {
         bytes -> bytes.isPresent() ? "success" : "miss");
   }
 
+  @Override
+  public Optional<InputStream> getInputStream(String name) {
+    return recordOperation(
+        name,
+        "read_stream",
+        () -> {
+          try {
+            return Optional.<InputStream>of(getBlobClient(name).openInputStream());
+          } catch (BlobStorageException exception) {
+            if (!BlobErrorCode.BLOB_NOT_FOUND.equals(exception.getErrorCode())) {
+              throw exception;
+            }
+            return Optional.empty();
+          }
+        },
+        inputStream -> inputStream.isPresent() ? "success" : "miss");
+  }
+
+  @Override
+  public Optional<String> getContentMd5(String name) {
+    Optional<BlobProperties> blobProperties =
+        recordOperation(
+            name,
+            "properties",
+            () -> {
+              try {
+                return Optional.of(getBlobClient(name).getProperties());
+              } catch (BlobStorageException exception) {
+                if (exception.getStatusCode() != 404) {
+                  throw exception;
+                }
+                return Optional.empty();
+              }
+            },
+            properties -> properties.isPresent() ? "success" : "miss");
+
+    if (blobProperties.isEmpty()) {
+      return Optional.empty();
+    }
+
+    byte[] contentMd5 = blobProperties.get().getContentMd5();
+    return contentMd5 != null
+        ? Optional.of(Hex.encodeHexString(contentMd5))
+        : backfillContentMd5(name, blobProperties.get());
+  }
+
+  /**
+   * Computes the MD5 of a blob written without it, eg. uploaded in several blocks, and saves it in
+   * the Content-MD5 header so that the content is only read once. The read and the header update
+   * are conditioned on the ETag, so that a concurrent write never gets the MD5 of other content.
+   */
+  Optional<String> backfillContentMd5(String name, BlobProperties blobProperties) {
+    BlobRequestConditions sameETag =
+        new BlobRequestConditions().setIfMatch(blobProperties.getETag());
+
+    byte[] contentMd5;
+    try {
+      contentMd5 =
+          recordOperation(
+              name,
+              "read_for_md5",
+              () ->
+                  DigestUtils.md5(
+                      getBlobClient(name)
+                          .downloadContentWithResponse(
+                              new DownloadRetryOptions(), sameETag, null, Context.NONE)
+                          .getValue()
+                          .toBytes()),
+              ignored -> "success");
+    } catch (BlobStorageException exception) {
+      if (exception.getStatusCode() == 404) {
+        return Optional.empty();
+      }
+      if (exception.getStatusCode() == 412) {
+        logger.debug("Blob {} changed while computing its MD5, read it again", name);
+        return getContentMd5(name);
+      }
+      throw exception;
+    }
+
+    BlobHttpHeaders blobHttpHeaders =
+        new BlobHttpHeaders()
+            .setContentType(blobProperties.getContentType())
+            .setContentEncoding(blobProperties.getContentEncoding())
+            .setContentLanguage(blobProperties.getContentLanguage())
+            .setContentDisposition(blobProperties.getContentDisposition())
+            .setCacheControl(blobProperties.getCacheControl())
+            .setContentMd5(contentMd5);
+    try {
+      recordOperation(
+          name,
+          "save_md5",
+          () ->
+              getBlobClient(name)
+                  .setHttpHeadersWithResponse(blobHttpHeaders, sameETag, null, Context.NONE),
+          ignored -> "success");
+    } catch (BlobStorageException exception) {
+      logger.warn("Can't save the MD5 of blob: {}", name, exception);
+    }
+
+    return Optional.of(Hex.encodeHexString(contentMd5));
+  }
+
   @Override
   public void put(String name, byte[] content, Retention retention) {
     put(name, content, retention, null);
@@ -104,7 +217,8 @@ public class AzureBlobStorage implements BlobStorage {
   void put(String name, byte[] content, Retention retention, BlobHttpHeaders blobHttpHeaders) {
     BlobParallelUploadOptions blobParallelUploadOptions =
         new BlobParallelUploadOptions(BinaryData.fromBytes(content))
-            .setTags(Map.of("retention", retention.toString()));
+            .setTags(Map.of("retention", retention.toString()))
+            .setComputeMd5(true);
 
     if (blobHttpHeaders != null) {
       blobParallelUploadOptions.setHeaders(blobHttpHeaders);
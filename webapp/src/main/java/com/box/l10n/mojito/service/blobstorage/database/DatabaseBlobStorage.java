@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
@@ -87,6 +88,7 @@ public class DatabaseBlobStorage implements BlobStorage {
                 });
 
     mBlob.setContent(content);
+    mBlob.setContentMd5(DigestUtils.md5Hex(content));
 
     if (Retention.MIN_1_DAY.equals(retention)) {
       mBlob.setExpireAfterSeconds(databaseBlobStorageConfigurationProperties.getMin1DayTtl());
@@ -114,6 +116,32 @@ public class DatabaseBlobStorage implements BlobStorage {
     return getStoredBlob(name).map(StoredBlob::content);
   }
 
+  /**
+   * Gets the MD5 kept with the blob. Blobs written before it was kept get it computed and saved on
+   * the first read.
+   */
+  @Override
+  public Optional<String> getContentMd5(String name) {
+    Optional<Long> id = mBlobRepository.findIdByName(name);
+    if (id.isEmpty()) {
+      return Optional.empty();
+    }
+
+    String contentMd5 = mBlobRepository.findContentMd5ById(id.get());
+    if (contentMd5 != null) {
+      return Optional.of(contentMd5);
+    }
+
+    return mBlobRepository
+        .findById(id.get())
+        .map(
+            mBlob -> {
+              String computedContentMd5 = DigestUtils.md5Hex(mBlob.getContent());
+              mBlobRepository.updateMissingContentMd5(mBlob.getId(), computedContentMd5);
+              return computedContentMd5;
+            });
+  }
+
   public Optional<StoredBlob> getStoredBlob(String name) {
     return mBlobRepository
         .findByName(name)
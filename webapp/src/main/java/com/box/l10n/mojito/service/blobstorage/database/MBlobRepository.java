@@ -42,4 +42,14 @@ public interface MBlobRepository
 
   @Query("select mb.id from  #{#entityName} mb where mb.name = ?1")
   Optional<Long> findIdByName(String name);
+
+  @Query("select mb.contentMd5 from #{#entityName} mb where mb.id = ?1")
+  String findContentMd5ById(Long id);
+
+  /** Only sets a missing MD5, a concurrent write sets the MD5 of its own content */
+  @Transactional
+  @Modifying
+  @Query(
+      "update #{#entityName} mb set mb.contentMd5 = ?2 where mb.id = ?1 and mb.contentMd5 is null")
+  int updateMissingContentMd5(Long id, String contentMd5);
 }
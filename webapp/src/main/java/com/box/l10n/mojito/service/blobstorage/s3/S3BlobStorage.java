@@ -2,6 +2,8 @@ package com.box.l10n.mojito.service.blobstorage.s3;
 
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.ObjectTagging;
 import com.amazonaws.services.s3.model.PutObjectRequest;
@@ -14,11 +16,16 @@ import com.google.common.base.Preconditions;
 import com.google.common.io.ByteStreams;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,6 +59,9 @@ public class S3BlobStorage implements BlobStorage {
   static final Logger logger = LoggerFactory.getLogger(S3BlobStorage.class);
   static final String NO_SUCH_KEY = "NoSuchKey";
 
+  /** User metadata with the hex MD5 of the content, the ETag is not an MD5 for all encryptions */
+  static final String CONTENT_MD5_METADATA = "content-md5";
+
   AmazonS3 amazonS3;
 
   S3BlobStorageConfigurationProperties s3BlobStorageConfigurationProperties;
@@ -86,6 +96,90 @@ public class S3BlobStorage implements BlobStorage {
     return Optional.ofNullable(bytes);
   }
 
+  @Override
+  public Optional<InputStream> getInputStream(String name) {
+    try {
+      S3Object object =
+          amazonS3.getObject(s3BlobStorageConfigurationProperties.getBucket(), getFullName(name));
+      return Optional.of(object.getObjectContent());
+    } catch (AmazonServiceException e) {
+      if (!NO_SUCH_KEY.equals(e.getErrorCode())) {
+        throw e;
+      }
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public Optional<String> getContentMd5(String name) {
+    ObjectMetadata objectMetadata;
+    try {
+      objectMetadata =
+          amazonS3.getObjectMetadata(
+              s3BlobStorageConfigurationProperties.getBucket(), getFullName(name));
+    } catch (AmazonServiceException e) {
+      if (e.getStatusCode() != 404) {
+        throw e;
+      }
+      return Optional.empty();
+    }
+
+    String contentMd5 = objectMetadata.getUserMetaDataOf(CONTENT_MD5_METADATA);
+    return contentMd5 != null ? Optional.of(contentMd5) : backfillContentMd5(name, objectMetadata);
+  }
+
+  /**
+   * Computes the MD5 of an object written without it and saves it in the user metadata, so that the
+   * content is only read once. The object is copied onto itself, which doesn't transfer the
+   * content. The read and the copy are conditioned on the ETag, so that a concurrent write never
+   * gets the MD5 of other content.
+   */
+  Optional<String> backfillContentMd5(String name, ObjectMetadata objectMetadata) {
+    String bucket = s3BlobStorageConfigurationProperties.getBucket();
+    String key = getFullName(name);
+
+    String contentMd5;
+    try (S3Object object =
+        amazonS3.getObject(
+            new GetObjectRequest(bucket, key)
+                .withMatchingETagConstraint(objectMetadata.getETag()))) {
+      if (object == null) {
+        logger.debug("Object {} changed while computing its MD5, read it again", key);
+        return getContentMd5(name);
+      }
+      contentMd5 = DigestUtils.md5Hex(object.getObjectContent());
+    } catch (AmazonServiceException e) {
+      if (!NO_SUCH_KEY.equals(e.getErrorCode())) {
+        throw e;
+      }
+      return Optional.empty();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    ObjectMetadata newObjectMetadata = new ObjectMetadata();
+    newObjectMetadata.setContentType(objectMetadata.getContentType());
+    if (objectMetadata.getContentEncoding() != null) {
+      newObjectMetadata.setContentEncoding(objectMetadata.getContentEncoding());
+    }
+    newObjectMetadata.setUserMetadata(new HashMap<>(objectMetadata.getUserMetadata()));
+    newObjectMetadata.addUserMetadata(CONTENT_MD5_METADATA, contentMd5);
+
+    try {
+      if (amazonS3.copyObject(
+              new CopyObjectRequest(bucket, key, bucket, key)
+                  .withMatchingETagConstraint(objectMetadata.getETag())
+                  .withNewObjectMetadata(newObjectMetadata))
+          == null) {
+        logger.debug("Object {} changed while saving its MD5, don't save it", key);
+      }
+    } catch (AmazonServiceException e) {
+      logger.warn("Can't save the MD5 of object: {}", key, e);
+    }
+
+    return Optional.of(contentMd5);
+  }
+
   @Override
   public Optional<String> getString(String name) {
     String objectAsString = null;
@@ -135,6 +229,11 @@ public class S3BlobStorage implements BlobStorage {
     Preconditions.checkNotNull(objectMetadata);
     objectMetadata.setContentLength(content.length);
 
+    // S3 rejects the upload if the content doesn't match the MD5
+    byte[] contentMd5 = DigestUtils.md5(content);
+    objectMetadata.setContentMD5(Base64.getEncoder().encodeToString(contentMd5));
+    objectMetadata.addUserMetadata(CONTENT_MD5_METADATA, Hex.encodeHexString(contentMd5));
+
     PutObjectRequest putRequest =
         new PutObjectRequest(
             s3BlobStorageConfigurationProperties.getBucket(),
@@ -2,6 +2,8 @@ package com.box.l10n.mojito.service.cache;
 
 import com.box.l10n.mojito.entity.ApplicationCache;
 import com.box.l10n.mojito.entity.ApplicationCacheType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -26,6 +28,17 @@ public interface ApplicationCacheRepository extends JpaRepository<ApplicationCac
       @Param("applicationCacheType") ApplicationCacheType applicationCacheType,
       @Param("keyMD5") String keyMD5);
 
+  @Query(
+      value =
+          """
+          select ac from ApplicationCache ac
+          where ac.applicationCacheType = :applicationCacheType and ac.keyMD5 in :keyMD5s
+          and (ac.expiryDate is null or ac.expiryDate > CURRENT_TIMESTAMP)
+          """)
+  List<ApplicationCache> findByIdsAndNotExpired(
+      @Param("applicationCacheType") ApplicationCacheType applicationCacheType,
+      @Param("keyMD5s") Collection<String> keyMD5s);
+
   Optional<ApplicationCache> findByApplicationCacheTypeAndKeyMD5(
       @Param("applicationCacheType") ApplicationCacheType applicationCacheType,
       @Param("keyMD5") String keyMD5);
@@ -7,12 +7,20 @@ import com.box.l10n.mojito.entity.ApplicationCacheType;
 import com.box.l10n.mojito.service.DBUtils;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Class that implements MySQL optimized versions of the upsert methods for the database-backed
@@ -29,6 +37,66 @@ public class ApplicationCacheUpdaterService {
 
   @Autowired DBUtils dbUtils;
 
+  @Autowired JdbcTemplate jdbcTemplate;
+
+  /**
+   * Upsert multiple cache entries in a single transaction. With MySQL, the entries are written with
+   * one JDBC batch, otherwise this falls back on the single entry upserts.
+   *
+   * @param valuesByKeyMD5 the serialized values by MD5 of the serialized key
+   * @param ttlInSeconds the TTL, no expiry date is set if {@code <= 0}
+   */
+  @Transactional
+  void batchUpsert(short cacheTypeId, Map<String, byte[]> valuesByKeyMD5, long ttlInSeconds) {
+    if (valuesByKeyMD5.isEmpty()) {
+      return;
+    }
+
+    if (dbUtils.isMysql()) {
+      String mySqlQuery =
+          ttlInSeconds <= 0
+              ? "INSERT INTO application_cache (cache_type_id, key_md5, value, created_date,"
+                  + " expiry_date) VALUES (?, ?, ?, CURRENT_TIMESTAMP, NULL) ON DUPLICATE KEY"
+                  + " UPDATE value = VALUES(value), created_date = CURRENT_TIMESTAMP, expiry_date"
+                  + " = NULL"
+              : "INSERT INTO application_cache (cache_type_id, key_md5, value, created_date,"
+                  + " expiry_date) VALUES (?, ?, ?, CURRENT_TIMESTAMP, ADDDATE(CURRENT_TIMESTAMP,"
+                  + " INTERVAL ? SECOND)) ON DUPLICATE KEY UPDATE value = VALUES(value),"
+                  + " created_date = CURRENT_TIMESTAMP, expiry_date = VALUES(expiry_date)";
+
+      List<Map.Entry<String, byte[]>> entries = new ArrayList<>(valuesByKeyMD5.entrySet());
+
+      jdbcTemplate.batchUpdate(
+          mySqlQuery,
+          new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+              Map.Entry<String, byte[]> entry = entries.get(i);
+              ps.setShort(1, cacheTypeId);
+              ps.setString(2, entry.getKey());
+              ps.setBytes(3, entry.getValue());
+              if (ttlInSeconds > 0) {
+                ps.setLong(4, ttlInSeconds);
+              }
+            }
+
+            @Override
+            public int getBatchSize() {
+              return entries.size();
+            }
+          });
+    } else {
+      valuesByKeyMD5.forEach(
+          (keyMD5, value) -> {
+            if (ttlInSeconds <= 0) {
+              upsertNoExpiryDate(cacheTypeId, keyMD5, value);
+            } else {
+              upsertWithTTL(cacheTypeId, keyMD5, value, ttlInSeconds);
+            }
+          });
+    }
+  }
+
   /** Upsert a cache entry with a TTL, with a MySql optimized version. */
   void upsertWithTTL(
       @Param("cacheTypeId") short cacheTypeId,
@@ -37,9 +105,10 @@ public class ApplicationCacheUpdaterService {
       @Param("ttlInSeconds") long ttlInSeconds) {
     if (dbUtils.isMysql()) {
       String mySqlQuery =
-          "INSERT INTO application_cache "
-              + "value (NULL, :cacheTypeId, :keyMD5, :value, CURRENT_TIMESTAMP, ADDDATE(CURRENT_TIMESTAMP, INTERVAL :ttlInSeconds SECOND))"
-              + "ON DUPLICATE KEY UPDATE value = :value, created_date = CURRENT_TIMESTAMP, expiry_date = ADDDATE(CURRENT_TIMESTAMP, INTERVAL :ttlInSeconds SECOND)";
+          "INSERT INTO application_cache value (NULL, :cacheTypeId, :keyMD5, :value,"
+              + " CURRENT_TIMESTAMP, ADDDATE(CURRENT_TIMESTAMP, INTERVAL :ttlInSeconds SECOND))ON"
+              + " DUPLICATE KEY UPDATE value = :value, created_date = CURRENT_TIMESTAMP,"
+              + " expiry_date = ADDDATE(CURRENT_TIMESTAMP, INTERVAL :ttlInSeconds SECOND)";
 
       Query query = entityManager.createNativeQuery(mySqlQuery);
       query.setParameter("cacheTypeId", cacheTypeId);
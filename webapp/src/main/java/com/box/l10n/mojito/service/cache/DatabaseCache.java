@@ -5,10 +5,21 @@ import static org.slf4j.LoggerFactory.getLogger;
 import com.box.l10n.mojito.entity.ApplicationCache;
 import com.box.l10n.mojito.entity.ApplicationCacheType;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +37,13 @@ import org.springframework.util.ObjectUtils;
  * cache type, as the identifying key in the database. The value objects are serialized/deserialized
  * to byte arrays and back.
  *
+ * <p>Multiple keys can be looked up with a single query with {@link #getAll(Collection)}.
+ *
+ * <p>When write-behind is enabled in the {@link DatabaseCacheConfiguration}, puts are queued in
+ * memory (the last value for a key wins) and flushed in JDBC batches by a background thread.
+ * Lookups check the queue first so that pending writes are visible from this instance. Pending
+ * writes are lost if the process stops before they are flushed, which is acceptable for a cache.
+ *
  * @author garion
  */
 @Configurable
@@ -36,6 +54,9 @@ public class DatabaseCache extends AbstractValueAdaptingCache {
   private static final byte[] BINARY_NULL_VALUE =
       (new SerializingConverter()).convert(NullValue.INSTANCE);
 
+  /** Max number of keys in a single "in" lookup query */
+  static final int GET_ALL_BATCH_SIZE = 1000;
+
   @Autowired ApplicationCacheUpdaterService applicationCacheUpdaterService;
 
   @Autowired ApplicationCacheTypeRepository applicationCacheTypeRepository;
@@ -47,6 +68,12 @@ public class DatabaseCache extends AbstractValueAdaptingCache {
 
   private ApplicationCacheType cacheType;
 
+  private final Map<String, byte[]> pendingWritesByKeyMD5 = new ConcurrentHashMap<>();
+
+  private final Object writeBehindLock = new Object();
+
+  private volatile ScheduledExecutorService writeBehindExecutor;
+
   public DatabaseCache(String cacheName, DatabaseCacheConfiguration cacheConfig) {
     super(true);
 
@@ -64,39 +91,92 @@ public class DatabaseCache extends AbstractValueAdaptingCache {
   public Object lookup(Object key) {
     checkCacheTypeConfigured();
 
+    String keyMD5 = getCacheKeyMD5(key);
+
+    byte[] pendingValue = pendingWritesByKeyMD5.get(keyMD5);
+    if (pendingValue != null) {
+      return this.fromStoreValue(deserializeCacheValue(pendingValue));
+    }
+
     Optional<ApplicationCache> maybeCacheResult =
-        applicationCacheRepository.findByIdAndNotExpired(this.cacheType, getCacheKeyMD5(key));
+        applicationCacheRepository.findByIdAndNotExpired(this.cacheType, keyMD5);
 
     if (maybeCacheResult.isPresent()) {
-      byte[] bytes = maybeCacheResult.get().getValue();
+      return deserializeCacheEntry(key, maybeCacheResult.get().getValue());
+    }
 
-      // Permanently evict cache entries that cause deserialization failures (e.g.: due to breaking
-      // changes in
-      // target class structure).
-      try {
-        Object deserializedValue = deserializeCacheValue(bytes);
-        return this.fromStoreValue(deserializedValue);
-      } catch (Exception e) {
-        logger.error(
-            String.format(
-                "Could not deserialize cache entry. Problematic serialized value: %s . Exception: ",
-                Arrays.toString(bytes)),
-            e);
-
-        if (cacheConfig.isEvictEntryOnDeserializationFailure()) {
-          logger.warn(
-              String.format(
-                  "The entry failing deserialization will be evicted permanently. Problematic serialized value: %s ",
-                  Arrays.toString(bytes)));
-          evict(key);
-          return null;
+    return null;
+  }
+
+  /**
+   * Looks up multiple keys, using one "in" query per {@link #GET_ALL_BATCH_SIZE} keys instead of
+   * one query per key.
+   *
+   * @return the values for the keys that are in the cache, keys that are missing, expired or mapped
+   *     to null are not in the map
+   */
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    checkCacheTypeConfigured();
+
+    Map<Object, Object> valuesByKey = new LinkedHashMap<>();
+    Map<String, Object> keysToLoadByKeyMD5 = new HashMap<>();
+
+    for (Object key : keys) {
+      String keyMD5 = getCacheKeyMD5(key);
+      byte[] pendingValue = pendingWritesByKeyMD5.get(keyMD5);
+
+      if (pendingValue != null) {
+        Object value = this.fromStoreValue(deserializeCacheValue(pendingValue));
+        if (value != null) {
+          valuesByKey.put(key, value);
         }
+      } else {
+        keysToLoadByKeyMD5.put(keyMD5, key);
+      }
+    }
 
-        throw e;
+    for (List<String> keyMD5s :
+        Iterables.partition(keysToLoadByKeyMD5.keySet(), GET_ALL_BATCH_SIZE)) {
+      for (ApplicationCache applicationCache :
+          applicationCacheRepository.findByIdsAndNotExpired(this.cacheType, keyMD5s)) {
+        Object key = keysToLoadByKeyMD5.get(applicationCache.getKeyMD5());
+        Object value = deserializeCacheEntry(key, applicationCache.getValue());
+        if (value != null) {
+          valuesByKey.put(key, value);
+        }
       }
     }
 
-    return null;
+    return valuesByKey;
+  }
+
+  /**
+   * Permanently evict cache entries that cause deserialization failures (e.g.: due to breaking
+   * changes in target class structure).
+   */
+  private Object deserializeCacheEntry(Object key, byte[] bytes) {
+    try {
+      Object deserializedValue = deserializeCacheValue(bytes);
+      return this.fromStoreValue(deserializedValue);
+    } catch (Exception e) {
+      logger.error(
+          String.format(
+              "Could not deserialize cache entry. Problematic serialized value: %s . Exception: ",
+              Arrays.toString(bytes)),
+          e);
+
+      if (cacheConfig.isEvictEntryOnDeserializationFailure()) {
+        logger.warn(
+            String.format(
+                "The entry failing deserialization will be evicted permanently. Problematic"
+                    + " serialized value: %s ",
+                Arrays.toString(bytes)));
+        evict(key);
+        return null;
+      }
+
+      throw e;
+    }
   }
 
   @Override
@@ -125,9 +205,17 @@ public class DatabaseCache extends AbstractValueAdaptingCache {
     return cacheEntry;
   }
 
-  @Transactional
   @Override
   public void put(Object key, Object value) {
+    if (cacheConfig.isWriteBehindEnabled()) {
+      putWriteBehind(key, value);
+    } else {
+      putSync(key, value);
+    }
+  }
+
+  @Transactional
+  void putSync(Object key, Object value) {
     checkCacheTypeConfigured();
 
     long ttlInSeconds = cacheConfig.getTtl().get(ChronoUnit.SECONDS);
@@ -140,19 +228,101 @@ public class DatabaseCache extends AbstractValueAdaptingCache {
     }
   }
 
+  void putWriteBehind(Object key, Object value) {
+    checkCacheTypeConfigured();
+    startWriteBehindExecutorIfNeeded();
+
+    pendingWritesByKeyMD5.put(getCacheKeyMD5(key), serializeCacheValue(value));
+
+    if (pendingWritesByKeyMD5.size() >= cacheConfig.getWriteBehindBatchSize()) {
+      writeBehindExecutor.execute(this::flushPendingWrites);
+    }
+  }
+
+  /**
+   * Writes the pending entries to the database in batches of {@link
+   * DatabaseCacheConfiguration#getWriteBehindBatchSize()}. Entries are only removed from the queue
+   * if they were not updated while being written. On failure, the entries stay in the queue and are
+   * retried with the next flush.
+   */
+  public void flushPendingWrites() {
+    if (pendingWritesByKeyMD5.isEmpty()) {
+      return;
+    }
+
+    synchronized (writeBehindLock) {
+      long ttlInSeconds = cacheConfig.getTtl().get(ChronoUnit.SECONDS);
+
+      for (List<String> keyMD5s :
+          Iterables.partition(
+              List.copyOf(pendingWritesByKeyMD5.keySet()), cacheConfig.getWriteBehindBatchSize())) {
+
+        Map<String, byte[]> batch = new LinkedHashMap<>();
+        for (String keyMD5 : keyMD5s) {
+          byte[] value = pendingWritesByKeyMD5.get(keyMD5);
+          if (value != null) {
+            batch.put(keyMD5, value);
+          }
+        }
+
+        try {
+          applicationCacheUpdaterService.batchUpsert(cacheType.getId(), batch, ttlInSeconds);
+          batch.forEach(pendingWritesByKeyMD5::remove);
+        } catch (Exception e) {
+          logger.error(
+              "Could not flush {} pending writes for cache: {}, will retry",
+              batch.size(),
+              cacheName,
+              e);
+          return;
+        }
+      }
+    }
+  }
+
+  private void startWriteBehindExecutorIfNeeded() {
+    if (writeBehindExecutor == null) {
+      synchronized (writeBehindLock) {
+        if (writeBehindExecutor == null) {
+          long flushIntervalMillis = cacheConfig.getWriteBehindFlushInterval().toMillis();
+          ScheduledExecutorService executor =
+              Executors.newSingleThreadScheduledExecutor(
+                  new ThreadFactoryBuilder()
+                      .setNameFormat("database-cache-write-behind-" + cacheName)
+                      .setDaemon(true)
+                      .build());
+          executor.scheduleWithFixedDelay(
+              this::flushPendingWrites,
+              flushIntervalMillis,
+              flushIntervalMillis,
+              TimeUnit.MILLISECONDS);
+          writeBehindExecutor = executor;
+        }
+      }
+    }
+  }
+
   @Transactional
   @Override
   public void evict(Object key) {
     checkCacheTypeConfigured();
-    applicationCacheRepository.deleteByApplicationCacheTypeAndKeyMD5(
-        cacheType, getCacheKeyMD5(key));
+    String keyMD5 = getCacheKeyMD5(key);
+
+    synchronized (writeBehindLock) {
+      pendingWritesByKeyMD5.remove(keyMD5);
+      applicationCacheRepository.deleteByApplicationCacheTypeAndKeyMD5(cacheType, keyMD5);
+    }
   }
 
   @Transactional
   @Override
   public void clear() {
     checkCacheTypeConfigured();
-    applicationCacheRepository.clearCache(cacheType.getId());
+
+    synchronized (writeBehindLock) {
+      pendingWritesByKeyMD5.clear();
+      applicationCacheRepository.clearCache(cacheType.getId());
+    }
   }
 
   private void checkCacheTypeConfigured() {
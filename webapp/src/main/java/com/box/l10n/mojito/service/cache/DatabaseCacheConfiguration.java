@@ -11,6 +11,9 @@ import org.springframework.boot.convert.DurationUnit;
  * DatabaseCacheEvictionJob}. The serializer and deserializers for the keys and values are also
  * configurable.
  *
+ * <p>Write-behind can be enabled so that puts are queued in memory, coalesced per key and written
+ * to the database in batches instead of synchronously on the caller thread.
+ *
  * @author garion
  */
 public class DatabaseCacheConfiguration {
@@ -23,11 +26,20 @@ public class DatabaseCacheConfiguration {
   private SerializationPair<Object> keySerializationPair;
   private SerializationPair<Object> valueSerializationPair;
 
+  private boolean writeBehindEnabled;
+
+  private Duration writeBehindFlushInterval;
+
+  private int writeBehindBatchSize;
+
   public DatabaseCacheConfiguration() {
     this.ttl = Duration.ZERO;
     this.evictEntryOnDeserializationFailure = true;
     this.keySerializationPair = new DefaultSerializationPair();
     this.valueSerializationPair = new DefaultSerializationPair();
+    this.writeBehindEnabled = false;
+    this.writeBehindFlushInterval = Duration.ofSeconds(1);
+    this.writeBehindBatchSize = 500;
   }
 
   public void setTtl(Duration ttl) {
@@ -65,4 +77,30 @@ public class DatabaseCacheConfiguration {
   public void setEvictEntryOnDeserializationFailure(boolean evictEntryOnDeserializationFailure) {
     this.evictEntryOnDeserializationFailure = evictEntryOnDeserializationFailure;
   }
+
+  public boolean isWriteBehindEnabled() {
+    return writeBehindEnabled;
+  }
+
+  public void setWriteBehindEnabled(boolean writeBehindEnabled) {
+    this.writeBehindEnabled = writeBehindEnabled;
+  }
+
+  public Duration getWriteBehindFlushInterval() {
+    return writeBehindFlushInterval;
+  }
+
+  public void setWriteBehindFlushInterval(Duration writeBehindFlushInterval) {
+    Preconditions.checkNotNull(writeBehindFlushInterval);
+    this.writeBehindFlushInterval = writeBehindFlushInterval;
+  }
+
+  public int getWriteBehindBatchSize() {
+    return writeBehindBatchSize;
+  }
+
+  public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+    Preconditions.checkArgument(writeBehindBatchSize > 0);
+    this.writeBehindBatchSize = writeBehindBatchSize;
+  }
 }
@@ -0,0 +1,16 @@
+package com.box.l10n.mojito.service.cache;
+
+/** Available {@link SerializationPair} implementations, to be selected from configuration. */
+public enum SerializationPairType {
+  /** Java serialization, see {@link DefaultSerializationPair} */
+  JAVA,
+  /** Jackson Smile, see {@link SmileSerializationPair} */
+  SMILE;
+
+  public SerializationPair<Object> newSerializationPair() {
+    return switch (this) {
+      case JAVA -> new DefaultSerializationPair();
+      case SMILE -> new SmileSerializationPair();
+    };
+  }
+}
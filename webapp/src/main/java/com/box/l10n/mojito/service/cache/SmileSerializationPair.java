@@ -0,0 +1,55 @@
+package com.box.l10n.mojito.service.cache;
+
+import com.box.l10n.mojito.json.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Implements a {@link SerializationPair} using Jackson's binary Smile format, which is much more
+ * compact and faster than Java serialization for the DTOs stored in the caches.
+ *
+ * <p>Type information is written for non-final types so that values can be read back without
+ * knowing their class upfront. Only Mojito, JDK and Guava collection classes are accepted when
+ * reading.
+ */
+public class SmileSerializationPair implements SerializationPair<Object> {
+
+  private final ObjectWriter objectWriter;
+  private final ObjectReader objectReader;
+
+  public SmileSerializationPair() {
+    ObjectMapper objectMapper = ObjectMapper.withSmileEnabled();
+    objectMapper.activateDefaultTyping(
+        BasicPolymorphicTypeValidator.builder()
+            .allowIfSubType("com.box.l10n.mojito.")
+            .allowIfSubType("java.")
+            .allowIfSubType("com.google.common.collect.")
+            .build(),
+        com.fasterxml.jackson.databind.ObjectMapper.DefaultTyping.NON_FINAL);
+
+    // Root values must be written as Object so that the type information is always included
+    this.objectWriter = objectMapper.writerFor(Object.class);
+    this.objectReader = objectMapper.readerFor(Object.class);
+  }
+
+  @Override
+  public Object read(byte[] bytes) {
+    try {
+      return objectReader.readValue(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Can't deserialize Smile cache value", e);
+    }
+  }
+
+  @Override
+  public byte[] write(Object element) {
+    try {
+      return objectWriter.writeValueAsBytes(element);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Can't serialize Smile cache value", e);
+    }
+  }
+}
@@ -1,6 +1,11 @@
 package com.box.l10n.mojito.service.cache;
 
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import org.springframework.cache.Cache;
 import org.springframework.cache.support.AbstractValueAdaptingCache;
@@ -104,4 +109,50 @@ public class TieredCache extends AbstractValueAdaptingCache {
 
     return cacheHit;
   }
+
+  /**
+   * Looks up multiple keys. Tier 1 misses are retrieved from tier 2 with a single batch lookup when
+   * tier 2 is a {@link DatabaseCache}, and are then populated in tier 1.
+   *
+   * @return the values for the keys that are in the cache, keys that are missing are not in the map
+   */
+  public Map<Object, Object> getAll(Collection<?> keys) {
+    Map<Object, Object> valuesByKey = new LinkedHashMap<>();
+    List<Object> tier1Misses = new ArrayList<>();
+
+    for (Object key : keys) {
+      ValueWrapper tier1CacheValueWrapper = tier1Cache.get(key);
+      if (tier1CacheValueWrapper != null && tier1CacheValueWrapper.get() != null) {
+        valuesByKey.put(key, tier1CacheValueWrapper.get());
+      } else {
+        tier1Misses.add(key);
+      }
+    }
+
+    if (tier2Cache != null && !tier1Misses.isEmpty()) {
+      Map<Object, Object> tier2ValuesByKey;
+
+      if (tier2Cache instanceof DatabaseCache databaseCache) {
+        tier2ValuesByKey = databaseCache.getAll(tier1Misses);
+      } else {
+        tier2ValuesByKey = new LinkedHashMap<>();
+        for (Object key : tier1Misses) {
+          ValueWrapper tier2CacheValueWrapper = tier2Cache.get(key);
+          if (tier2CacheValueWrapper != null) {
+            tier2ValuesByKey.put(key, tier2CacheValueWrapper.get());
+          }
+        }
+      }
+
+      tier2ValuesByKey.forEach(
+          (key, value) -> {
+            if (value != null) {
+              tier1Cache.put(key, value);
+              valuesByKey.put(key, value);
+            }
+          });
+    }
+
+    return valuesByKey;
+  }
 }
@@ -0,0 +1,33 @@
+package com.box.l10n.mojito.service.drop;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+/**
+ * Executor used by {@link DropService} to generate and export translation kits of a drop in
+ * parallel.
+ *
+ * <p>The pool size is bounded by {@link DropServiceConfig#getExportParallelism()}, extra locales
+ * are queued. The security context is propagated so that entities are created with the user that
+ * started the export.
+ */
+@Configuration
+public class DropExportTaskExecutorConfig {
+
+  @Bean(name = "dropExportTaskExecutor")
+  public AsyncTaskExecutor dropExportTaskExecutor(DropServiceConfig dropServiceConfig) {
+    int exportParallelism = Math.max(1, dropServiceConfig.getExportParallelism());
+
+    ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+    threadPoolTaskExecutor.setBeanName("dropExport");
+    threadPoolTaskExecutor.setThreadNamePrefix("drop-export-");
+    threadPoolTaskExecutor.setCorePoolSize(exportParallelism);
+    threadPoolTaskExecutor.setMaxPoolSize(exportParallelism);
+    threadPoolTaskExecutor.initialize();
+
+    return new DelegatingSecurityContextAsyncTaskExecutor(threadPoolTaskExecutor);
+  }
+}
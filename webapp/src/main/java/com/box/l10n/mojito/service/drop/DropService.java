@@ -28,14 +28,19 @@ import com.box.l10n.mojito.service.tm.UpdateTMWithXLIFFResult;
 import com.box.l10n.mojito.service.translationkit.TranslationKitAsXliff;
 import com.box.l10n.mojito.service.translationkit.TranslationKitService;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import net.sf.okapi.common.exceptions.OkapiBadFilterInputException;
 import net.sf.okapi.common.exceptions.OkapiIOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -66,6 +71,10 @@ public class DropService {
 
   @Autowired DropServiceConfig dropServiceConfig;
 
+  @Autowired
+  @Qualifier("dropExportTaskExecutor")
+  AsyncTaskExecutor dropExportTaskExecutor;
+
   /**
    * Creates a new {@link Drop} for a {@link Repository}.
    *
@@ -118,6 +127,11 @@ public class DropService {
    * Creates a {@link DropExporter} and exports {@link TranslationKit}s for given {@link Drop} and
    * list of locales.
    *
+   * <p>Locales are exported concurrently with the "dropExportTaskExecutor" (bounded by {@link
+   * DropServiceConfig#getExportParallelism()}), each locale has its own sub task to report
+   * progress. If some exports fail, the other locales are still exported before the first error is
+   * re-thrown.
+   *
    * @param drop {@link Drop}
    * @param bcp47Tags list of bcp47 tags of the {@link TranslationKit}s
    * @param type type of the {@link TranslationKit}s
@@ -147,10 +161,35 @@ public class DropService {
           dropExporterService.createDropExporterAndUpdateDrop(drop, currentTask);
       pollableFutureTaskResult.setResult(dropExporter);
 
+      logger.debug("Resolve the TM and locales once, they are shared by all the locale exports");
+      Long tmId = drop.getRepository().getTm().getId();
+
+      List<CompletableFuture<Void>> translationKitExports = new ArrayList<>();
+
       for (String bcp47Tag : bcp47Tags) {
-        generateAndExportTranslationKit(
-            bcp47Tag, type, useInheritance, drop, dropExporter, currentTask);
+        Long localeId = localeService.findByBcp47Tag(bcp47Tag).getId();
+
+        translationKitExports.add(
+            CompletableFuture.runAsync(
+                () -> {
+                  try {
+                    generateAndExportTranslationKit(
+                        bcp47Tag,
+                        localeId,
+                        tmId,
+                        type,
+                        useInheritance,
+                        drop,
+                        dropExporter,
+                        currentTask);
+                  } catch (DropExporterException dee) {
+                    throw new CompletionException(dee);
+                  }
+                },
+                dropExportTaskExecutor));
       }
+
+      waitForTranslationKitExports(translationKitExports);
     } catch (Throwable t) {
       drop.setExportFailed(Boolean.TRUE);
       dropRepository.save(drop);
@@ -160,11 +199,46 @@ public class DropService {
     return pollableFutureTaskResult;
   }
 
+  /**
+   * Waits for all the translation kit exports to finish and re-throws the first failure if any.
+   *
+   * @param translationKitExports the translation kit exports
+   * @throws DropExporterException if an export failed with that exception
+   */
+  void waitForTranslationKitExports(List<CompletableFuture<Void>> translationKitExports)
+      throws DropExporterException {
+
+    Throwable firstFailure = null;
+
+    for (CompletableFuture<Void> translationKitExport : translationKitExports) {
+      try {
+        translationKitExport.join();
+      } catch (CompletionException ce) {
+        logger.debug("Translation kit export failed, wait for the other exports", ce);
+        if (firstFailure == null) {
+          firstFailure = ce.getCause();
+        }
+      }
+    }
+
+    if (firstFailure instanceof DropExporterException dropExporterException) {
+      throw dropExporterException;
+    } else if (firstFailure instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    } else if (firstFailure instanceof Error error) {
+      throw error;
+    } else if (firstFailure != null) {
+      throw new RuntimeException(firstFailure);
+    }
+  }
+
   /**
    * Generates the {@link TranslationKit}s for each locales and then export them using provided
    * {@link DropExporter}.
    *
    * @param bcp47Tag list of bcp47 tags of the {@link TranslationKit}s
+   * @param localeId {@link Locale#id} of the locale of the {@link TranslationKit}
+   * @param tmId {@link TM#id} of the repository
    * @param type type of the {@link TranslationKit}s
    * @param useInheritance use inherited translations from parent locales when creating {@link
    *     TranslationKit}
@@ -176,6 +250,8 @@ public class DropService {
   @Pollable(message = "Generate and export translation kit for locale: {bcp47Tag}")
   private void generateAndExportTranslationKit(
       @MsgArg(name = "bcp47Tag") String bcp47Tag,
+      Long localeId,
+      Long tmId,
       TranslationKit.Type type,
       Boolean useInheritance,
       Drop drop,
@@ -187,11 +263,7 @@ public class DropService {
 
     TranslationKitAsXliff translationKitAsXLIFF =
         translationKitService.generateTranslationKitAsXLIFF(
-            drop.getId(),
-            drop.getRepository().getTm().getId(),
-            localeService.findByBcp47Tag(bcp47Tag).getId(),
-            type,
-            useInheritance);
+            drop.getId(), tmId, localeId, type, useInheritance);
 
     if (!translationKitAsXLIFF.isEmpty()) {
       dropExporter.exportSourceFile(bcp47Tag, translationKitAsXLIFF.getContent());
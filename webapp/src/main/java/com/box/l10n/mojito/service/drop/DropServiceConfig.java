@@ -21,6 +21,12 @@ public class DropServiceConfig {
    */
   String dropImporterUsername;
 
+  /**
+   * Max number of translation kits that are generated and exported concurrently (across all drop
+   * exports of the instance).
+   */
+  int exportParallelism = 4;
+
   public int getDropNameWeekOffset() {
     return dropNameWeekOffset;
   }
@@ -36,4 +42,12 @@ public class DropServiceConfig {
   public void setDropImporterUsername(String dropImporterUsername) {
     this.dropImporterUsername = dropImporterUsername;
   }
+
+  public int getExportParallelism() {
+    return exportParallelism;
+  }
+
+  public void setExportParallelism(int exportParallelism) {
+    this.exportParallelism = exportParallelism;
+  }
 }
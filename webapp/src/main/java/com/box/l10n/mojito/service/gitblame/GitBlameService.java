@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -189,6 +190,9 @@ public class GitBlameService {
    * text units are identified by the {@link GitBlame#getId()} and the git blame info come for the
    * {@link GitBlameWithUsage#getGitBlame()} method.
    *
+   * <p>Existing {@link GitBlame}s that already have the provided information are not saved again:
+   * most of the text units are re-sent unchanged when the whole repository is blamed.
+   *
    * @param gitBlameWithUsages
    * @return
    */
@@ -202,23 +206,28 @@ public class GitBlameService {
     Map<Long, GitBlame> currentGitBlameForTmTextUnitIds =
         getCurrentGitBlameForTmTextUnitIds(gitBlameWithUsagesByTmTextUnitId.keySet());
 
+    List<GitBlame> gitBlamesToSave = new ArrayList<>();
+
     for (Map.Entry<Long, GitBlameWithUsage> gitBlameWithUsageEntry :
         gitBlameWithUsagesByTmTextUnitId.entrySet()) {
       Long tmTextUnitId = gitBlameWithUsageEntry.getKey();
       GitBlameWithUsage gitBlameWithUsage = gitBlameWithUsageEntry.getValue();
 
       GitBlame gitBlame = currentGitBlameForTmTextUnitIds.get(tmTextUnitId);
+      GitBlame gitBlameFromInput = gitBlameWithUsage.getGitBlame();
 
       if (gitBlame == null) {
         logger.debug("No GitBlame information for tmTextUnitId: {}", tmTextUnitId);
         gitBlame = new GitBlame();
         gitBlame.setTmTextUnit(tmTextUnitRepository.getReferenceById(tmTextUnitId));
+      } else if (gitBlameFromInput == null
+          || hasSameBlameInformation(gitBlame, gitBlameFromInput)) {
+        logger.debug("GitBlame unchanged for tmTextUnitId: {}, skip", tmTextUnitId);
+        continue;
       } else {
         logger.debug("Found GitBlame for tmTextUnitId: {}, update", tmTextUnitId);
       }
 
-      GitBlame gitBlameFromInput = gitBlameWithUsage.getGitBlame();
-
       if (gitBlameFromInput != null) {
         gitBlame.setAuthorEmail(gitBlameFromInput.getAuthorEmail());
         gitBlame.setAuthorName(gitBlameFromInput.getAuthorName());
@@ -226,12 +235,25 @@ public class GitBlameService {
         gitBlame.setCommitTime(gitBlameFromInput.getCommitTime());
       }
 
-      gitBlameRepository.save(gitBlame);
+      gitBlamesToSave.add(gitBlame);
     }
 
+    logger.debug(
+        "Save {} GitBlame(s), {} unchanged",
+        gitBlamesToSave.size(),
+        gitBlameWithUsagesByTmTextUnitId.size() - gitBlamesToSave.size());
+    gitBlameRepository.saveAll(gitBlamesToSave);
+
     return new PollableFutureTaskResult<>();
   }
 
+  static boolean hasSameBlameInformation(GitBlame gitBlame, GitBlame other) {
+    return Objects.equals(gitBlame.getAuthorEmail(), other.getAuthorEmail())
+        && Objects.equals(gitBlame.getAuthorName(), other.getAuthorName())
+        && Objects.equals(gitBlame.getCommitName(), other.getCommitName())
+        && Objects.equals(gitBlame.getCommitTime(), other.getCommitTime());
+  }
+
   Map<Long, GitBlame> getCurrentGitBlameForTmTextUnitIds(Set<Long> tmTextUnitIds) {
     Map<Long, GitBlame> gitBlameMap = new HashMap<>();
 
@@ -0,0 +1,177 @@
+package com.box.l10n.mojito.service.glossary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving sketch of the candidate phrases found during glossary extraction: keeps the
+ * approximate counts of the most frequent phrases in a fixed number of slots, whatever the number
+ * of distinct phrases in the scanned text units.
+ *
+ * <p>When a phrase that is not tracked comes in and all the slots are used, it replaces the phrase
+ * with the lowest count and inherits that count as its error. A count is never underestimated and
+ * is overestimated by at most its error, which is itself bounded by the total count divided by the
+ * capacity. The repositories and sample sources of an evicted phrase are lost, so the repositories
+ * of a phrase are a lower bound.
+ *
+ * <p>Instances are not thread safe.
+ */
+public class CandidatePhraseSketch {
+
+  static final int MAX_SAMPLE_SOURCES = 3;
+
+  private final int capacity;
+  private final Map<String, Slot> slotsByKey = new HashMap<>();
+  private final TreeSet<Slot> slotsByCount =
+      new TreeSet<>(
+          Comparator.comparingLong((Slot slot) -> slot.count)
+              .thenComparingLong(slot -> slot.sequence));
+  private long nextSequence = 0;
+
+  public CandidatePhraseSketch(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  /** Creates a sketch from the entries of another one, eg. to resume from a checkpoint. */
+  public static CandidatePhraseSketch fromEntries(int capacity, Collection<Entry> entries) {
+    CandidatePhraseSketch sketch = new CandidatePhraseSketch(capacity);
+    if (entries != null) {
+      for (Entry entry : entries) {
+        sketch.add(
+            entry.key(),
+            entry.term(),
+            entry.count(),
+            entry.error(),
+            entry.repositories(),
+            entry.sampleSources());
+      }
+    }
+    return sketch;
+  }
+
+  /** Counts one occurrence of a phrase in a text unit. */
+  public void add(String key, String term, String repository, String source) {
+    add(
+        key,
+        term,
+        1,
+        0,
+        repository == null ? List.of() : List.of(repository),
+        source == null ? List.of() : List.of(source));
+  }
+
+  /** Adds all the entries of another sketch, eg. the sketch of a single repository. */
+  public void addAll(CandidatePhraseSketch other) {
+    for (Entry entry : other.getEntries()) {
+      add(
+          entry.key(),
+          entry.term(),
+          entry.count(),
+          entry.error(),
+          entry.repositories(),
+          entry.sampleSources());
+    }
+  }
+
+  void add(
+      String key,
+      String term,
+      long count,
+      long error,
+      Collection<String> repositories,
+      Collection<String> sampleSources) {
+    Slot slot = slotsByKey.get(key);
+
+    if (slot == null) {
+      if (slotsByKey.size() < capacity) {
+        slot = new Slot(key, term, nextSequence++);
+      } else {
+        Slot evicted = slotsByCount.pollFirst();
+        slotsByKey.remove(evicted.key);
+        slot = new Slot(key, term, nextSequence++);
+        slot.count = evicted.count;
+        slot.error = evicted.count;
+      }
+      slotsByKey.put(key, slot);
+    } else {
+      slotsByCount.remove(slot);
+    }
+
+    slot.count += count;
+    slot.error += error;
+    slot.repositories.addAll(repositories);
+    for (String sampleSource : sampleSources) {
+      if (slot.sampleSources.size() >= MAX_SAMPLE_SOURCES) {
+        break;
+      }
+      slot.sampleSources.add(sampleSource);
+    }
+    slotsByCount.add(slot);
+  }
+
+  public int size() {
+    return slotsByKey.size();
+  }
+
+  /** Gets the tracked phrases, by decreasing count. */
+  public List<Entry> getEntries() {
+    List<Entry> entries = new ArrayList<>(slotsByKey.size());
+    for (Slot slot : slotsByCount.descendingSet()) {
+      entries.add(
+          new Entry(
+              slot.key,
+              slot.term,
+              slot.count,
+              slot.error,
+              List.copyOf(slot.repositories),
+              List.copyOf(slot.sampleSources)));
+    }
+    return entries;
+  }
+
+  /**
+   * @param key the normalized phrase
+   * @param term the phrase as first seen
+   * @param count the estimated number of occurrences, never lower than the actual one
+   * @param error the max overestimation of the count
+   */
+  public record Entry(
+      String key,
+      String term,
+      long count,
+      long error,
+      List<String> repositories,
+      List<String> sampleSources) {
+
+    /** The number of occurrences the phrase is known to have. */
+    public long guaranteedCount() {
+      return count - error;
+    }
+  }
+
+  private static final class Slot {
+    private final String key;
+    private final String term;
+    private final long sequence;
+    private final Set<String> repositories = new LinkedHashSet<>();
+    private final Set<String> sampleSources = new LinkedHashSet<>();
+    private long count;
+    private long error;
+
+    private Slot(String key, String term, long sequence) {
+      this.key = key;
+      this.term = term;
+      this.sequence = sequence;
+    }
+  }
+}
@@ -20,6 +20,15 @@ public interface GlossaryTermEvidenceRepository extends JpaRepository<GlossaryTe
 
   void deleteByGlossaryTermMetadataId(Long glossaryTermMetadataId);
 
+  @Modifying(flushAutomatically = true)
+  @Query(
+      """
+      delete from GlossaryTermEvidence gte
+      where gte.glossaryTermMetadata.id in :glossaryTermMetadataIds
+      """)
+  int deleteByGlossaryTermMetadataIdIn(
+      @Param("glossaryTermMetadataIds") Collection<Long> glossaryTermMetadataIds);
+
   @Modifying(clearAutomatically = true, flushAutomatically = true)
   @Query(
       """
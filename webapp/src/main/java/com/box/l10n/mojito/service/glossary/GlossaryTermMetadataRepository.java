@@ -1,6 +1,8 @@
 package com.box.l10n.mojito.service.glossary;
 
 import com.box.l10n.mojito.entity.glossary.GlossaryTermMetadata;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -26,6 +28,22 @@ public interface GlossaryTermMetadataRepository extends JpaRepository<GlossaryTe
   @EntityGraph(attributePaths = {"glossary", "tmTextUnit"})
   List<GlossaryTermMetadata> findByTmTextUnitIdIn(@Param("tmTextUnitIds") List<Long> tmTextUnitIds);
 
+  /**
+   * Returns the number of terms and the last modification of the terms of each glossary. A glossary
+   * without terms has no row.
+   */
+  @Query(
+      """
+      select gtm.glossary.id as glossaryId,
+             count(gtm.id) as termCount,
+             max(gtm.lastModifiedDate) as lastModifiedDate
+      from GlossaryTermMetadata gtm
+      where gtm.glossary.id in :glossaryIds
+      group by gtm.glossary.id
+      """)
+  List<GlossaryTermsVersionRow> findTermsVersionByGlossaryIdIn(
+      @Param("glossaryIds") Collection<Long> glossaryIds);
+
   @Modifying(clearAutomatically = true, flushAutomatically = true)
   @Query(
       """
@@ -33,4 +51,12 @@ public interface GlossaryTermMetadataRepository extends JpaRepository<GlossaryTe
       where gtm.glossary.id = :glossaryId
       """)
   int deleteByGlossaryId(@Param("glossaryId") Long glossaryId);
+
+  interface GlossaryTermsVersionRow {
+    Long getGlossaryId();
+
+    Long getTermCount();
+
+    ZonedDateTime getLastModifiedDate();
+  }
 }
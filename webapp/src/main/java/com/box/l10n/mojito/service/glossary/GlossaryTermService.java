@@ -20,6 +20,7 @@ import com.box.l10n.mojito.service.asset.VirtualAssetTextUnit;
 import com.box.l10n.mojito.service.asset.VirtualTextUnitBatchUpdaterService;
 import com.box.l10n.mojito.service.locale.LocaleService;
 import com.box.l10n.mojito.service.pollableTask.InjectCurrentTask;
+import com.box.l10n.mojito.service.pollableTask.MsgArg;
 import com.box.l10n.mojito.service.pollableTask.Pollable;
 import com.box.l10n.mojito.service.pollableTask.PollableFuture;
 import com.box.l10n.mojito.service.pollableTask.PollableFutureTaskResult;
@@ -35,6 +36,8 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -43,9 +46,14 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -53,13 +61,17 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class GlossaryTermService {
 
+  static Logger logger = LoggerFactory.getLogger(GlossaryTermService.class);
+
   private static final int DEFAULT_TERM_LIMIT = 200;
   private static final int MAX_TERM_LIMIT = 1_000;
   private static final int SEARCH_SCAN_LIMIT = 2_000;
   private static final int WORKSPACE_SUMMARY_SCAN_LIMIT = 10_000;
   private static final int DEFAULT_EXTRACTION_LIMIT = 50;
   private static final int MAX_EXTRACTION_LIMIT = 200;
-  private static final int DEFAULT_EXTRACTION_SCAN_LIMIT = 5_000;
+  private static final int EXTRACTION_PAGE_SIZE = 1_000;
+  private static final int EXTRACTION_CHECKPOINT_PAGE_INTERVAL = 10;
+  private static final int EXTRACTION_SKETCH_CAPACITY = 20_000;
   private static final String TERM_INDEX_EXTRACTION_SOURCE_NAME = "term-index";
   private static final String TERM_INDEX_GLOSSARY_SOURCE_NAME = "glossary-workspace";
   private static final String COPY_TRANSLATION_STATUS_KEEP_CURRENT = "KEEP_CURRENT";
@@ -488,6 +500,232 @@ public class GlossaryTermService {
         Map.of());
   }
 
+  /**
+   * Upserts a batch of terms with the same semantics as {@link #upsertTerm} for each of them, but
+   * with one virtual asset update for all sources, batched metadata and evidence writes and a
+   * single translation import. The batch is applied in one transaction: an invalid term rejects the
+   * whole batch, with an error message prefixed by the term index (eg. {@code terms[3]: ...}).
+   *
+   * <p>Translators can't change sources so their upserts are reduced to translation updates and
+   * proposals; they go through {@link #upsertTerm} one by one.
+   */
+  @Transactional
+  public List<TermView> bulkUpsertTerms(Long glossaryId, List<BulkTermUpsert> upserts) {
+    if (upserts == null || upserts.isEmpty()) {
+      throw new IllegalArgumentException("Glossary terms are required for bulk upsert");
+    }
+    if (!userService.isCurrentUserAdminOrPm()) {
+      List<TermView> termViews = new ArrayList<>(upserts.size());
+      for (int i = 0; i < upserts.size(); i++) {
+        BulkTermUpsert upsert = upserts.get(i);
+        termViews.add(
+            forTerm(i, () -> upsertTerm(glossaryId, upsert.tmTextUnitId(), upsert.command())));
+      }
+      return termViews;
+    }
+
+    requireTermManager();
+    Glossary glossary = getGlossary(glossaryId);
+    Asset asset = glossaryStorageService.ensureCanonicalAsset(glossary);
+
+    Map<Long, TextUnitDTO> existingSourceByTmTextUnitId = new HashMap<>();
+    Map<String, TextUnitDTO> existingSourceByKey = new HashMap<>();
+    for (TextUnitDTO textUnitDTO : searchAssetTextUnits(asset, null, true, SEARCH_SCAN_LIMIT)) {
+      existingSourceByTmTextUnitId.put(textUnitDTO.getTmTextUnitId(), textUnitDTO);
+      existingSourceByKey.putIfAbsent(textUnitDTO.getName(), textUnitDTO);
+    }
+
+    List<PlannedTermUpsert> plans = new ArrayList<>(upserts.size());
+    Set<String> plannedTermKeys = new HashSet<>();
+    Set<Long> plannedTmTextUnitIds = new HashSet<>();
+    List<String> replacedTermKeys = new ArrayList<>();
+    for (int i = 0; i < upserts.size(); i++) {
+      BulkTermUpsert upsert = upserts.get(i);
+      PlannedTermUpsert plan =
+          forTerm(
+              i, () -> planTermUpsert(upsert, existingSourceByTmTextUnitId, existingSourceByKey));
+      if (!plannedTermKeys.add(plan.termKey())) {
+        throw new IllegalArgumentException(
+            "terms[" + i + "]: Glossary term key is used more than once: " + plan.termKey());
+      }
+      if (plan.existingSource() != null
+          && !plannedTmTextUnitIds.add(plan.existingSource().getTmTextUnitId())) {
+        throw new IllegalArgumentException(
+            "terms["
+                + i
+                + "]: Glossary term is updated more than once: "
+                + plan.existingSource().getTmTextUnitId());
+      }
+      if (plan.replacesBackingTextUnit()
+          && !Objects.equals(plan.existingSource().getName(), plan.termKey())) {
+        replacedTermKeys.add(plan.existingSource().getName());
+      }
+      plans.add(plan);
+    }
+    for (int i = 0; i < plans.size(); i++) {
+      if (replacedTermKeys.contains(plans.get(i).termKey())) {
+        throw new IllegalArgumentException(
+            "terms["
+                + i
+                + "]: Glossary term key is replaced in the same batch: "
+                + plans.get(i).termKey());
+      }
+    }
+
+    List<String> availableLocaleTags = getAvailableLocaleTags(glossary);
+    Map<String, List<TextUnitDTO>> localizedTextUnitsByKey =
+        plans.stream().anyMatch(PlannedTermUpsert::copiesTranslations)
+            ? loadLocalizedTextUnits(asset, availableLocaleTags)
+            : Map.of();
+
+    updateVirtualAssetTerms(
+        asset, plans.stream().map(PlannedTermUpsert::virtualAssetTextUnit).toList());
+
+    Map<String, TextUnitDTO> refreshedSourceByKey = new HashMap<>();
+    for (TextUnitDTO textUnitDTO : searchAssetTextUnits(asset, null, true, SEARCH_SCAN_LIMIT)) {
+      if (plannedTermKeys.contains(textUnitDTO.getName())) {
+        refreshedSourceByKey.putIfAbsent(textUnitDTO.getName(), textUnitDTO);
+      }
+    }
+    List<TextUnitDTO> refreshedSources = new ArrayList<>(plans.size());
+    for (int i = 0; i < plans.size(); i++) {
+      TextUnitDTO refreshedSource = refreshedSourceByKey.get(plans.get(i).termKey());
+      if (refreshedSource == null) {
+        throw new IllegalStateException(
+            "terms[" + i + "]: Glossary term was not persisted: " + plans.get(i).termKey());
+      }
+      refreshedSources.add(refreshedSource);
+    }
+    if (!replacedTermKeys.isEmpty()) {
+      virtualAssetService.deleteTextUnits(asset, replacedTermKeys);
+    }
+
+    Set<Long> metadataTmTextUnitIds = new HashSet<>();
+    Set<Long> referencedTmTextUnitIds = new HashSet<>();
+    for (int i = 0; i < plans.size(); i++) {
+      PlannedTermUpsert plan = plans.get(i);
+      metadataTmTextUnitIds.add(plan.metadataTmTextUnitId(refreshedSources.get(i)));
+      referencedTmTextUnitIds.add(refreshedSources.get(i).getTmTextUnitId());
+      for (EvidenceInput evidenceInput : nullToEmpty(plan.command().evidence())) {
+        if (evidenceInput != null && evidenceInput.tmTextUnitId() != null) {
+          referencedTmTextUnitIds.add(evidenceInput.tmTextUnitId());
+        }
+      }
+    }
+    Map<Long, GlossaryTermMetadata> metadataByTmTextUnitId =
+        getMetadataByTmTextUnitId(glossaryId, metadataTmTextUnitIds);
+    Map<Long, TMTextUnit> tmTextUnitsById = new HashMap<>();
+    tmTextUnitRepository
+        .findAllById(referencedTmTextUnitIds)
+        .forEach(tmTextUnit -> tmTextUnitsById.put(tmTextUnit.getId(), tmTextUnit));
+    Function<Long, TMTextUnit> tmTextUnitResolver =
+        tmTextUnitId -> {
+          TMTextUnit tmTextUnit = tmTextUnitsById.get(tmTextUnitId);
+          if (tmTextUnit == null) {
+            throw new IllegalArgumentException("TM text unit not found: " + tmTextUnitId);
+          }
+          return tmTextUnit;
+        };
+
+    List<GlossaryTermMetadata> metadataToSave = new ArrayList<>(plans.size());
+    for (int i = 0; i < plans.size(); i++) {
+      PlannedTermUpsert plan = plans.get(i);
+      TextUnitDTO refreshedSource = refreshedSources.get(i);
+      metadataToSave.add(
+          forTerm(
+              i,
+              () -> {
+                GlossaryTermMetadata metadata =
+                    metadataByTmTextUnitId.get(plan.metadataTmTextUnitId(refreshedSource));
+                if (metadata == null) {
+                  metadata = new GlossaryTermMetadata();
+                  metadata.setGlossary(glossary);
+                }
+                if (metadata.getTmTextUnit() == null || plan.replacesBackingTextUnit()) {
+                  metadata.setTmTextUnit(
+                      tmTextUnitResolver.apply(refreshedSource.getTmTextUnitId()));
+                }
+                applyMetadata(metadata, plan.command(), refreshedSource);
+                return metadata;
+              }));
+      if (plan.replacesBackingTextUnit()) {
+        glossaryTermTranslationProposalRepository.deleteByGlossaryIdAndTmTextUnitId(
+            glossaryId, plan.existingSource().getTmTextUnitId());
+      }
+    }
+    List<GlossaryTermMetadata> savedMetadata =
+        glossaryTermMetadataRepository.saveAll(metadataToSave);
+    for (int i = 0; i < plans.size(); i++) {
+      backfillTermIndexLink(savedMetadata.get(i), plans.get(i).normalizedSource());
+    }
+
+    glossaryTermEvidenceRepository.deleteByGlossaryTermMetadataIdIn(
+        savedMetadata.stream().map(GlossaryTermMetadata::getId).toList());
+    List<GlossaryTermEvidence> evidence = new ArrayList<>();
+    List<TextUnitBatchImporterService.TextUnitDTOWithVariantComment> imports = new ArrayList<>();
+    Set<String> ensuredLocaleTags = new HashSet<>();
+    for (int i = 0; i < plans.size(); i++) {
+      PlannedTermUpsert plan = plans.get(i);
+      GlossaryTermMetadata metadata = savedMetadata.get(i);
+      forTerm(
+          i,
+          () -> {
+            int sortOrder = 0;
+            for (EvidenceInput evidenceInput : nullToEmpty(plan.command().evidence())) {
+              evidence.add(toEvidence(metadata, evidenceInput, sortOrder++, tmTextUnitResolver));
+            }
+            imports.addAll(
+                toTranslationImports(
+                    glossary,
+                    plan.termKey(),
+                    toBulkTranslationInputs(plan, localizedTextUnitsByKey),
+                    ensuredLocaleTags));
+            return null;
+          });
+    }
+    if (!evidence.isEmpty()) {
+      glossaryTermEvidenceRepository.saveAll(evidence);
+    }
+    importTranslations(imports);
+
+    Map<Long, List<GlossaryTermEvidence>> evidenceByMetadataId =
+        getEvidenceByMetadataId(savedMetadata);
+    Map<Long, GlossaryTermIndexLink> primaryLinksByMetadataId =
+        getPrimaryLinksByMetadataId(savedMetadata);
+    List<List<String>> viewLocaleTagsByTerm =
+        plans.stream()
+            .map(
+                plan ->
+                    plan.command().translations() == null || plan.copiesTranslations()
+                        ? availableLocaleTags
+                        : plan.command().translations().stream()
+                            .map(TranslationInput::localeTag)
+                            .filter(Objects::nonNull)
+                            .toList())
+            .toList();
+    Map<String, List<TextUnitDTO>> refreshedLocalizedTextUnitsByKey =
+        loadLocalizedTextUnits(
+            asset, viewLocaleTagsByTerm.stream().flatMap(List::stream).distinct().toList());
+
+    List<TermView> termViews = new ArrayList<>(plans.size());
+    for (int i = 0; i < plans.size(); i++) {
+      Set<String> viewLocaleTags = new HashSet<>(viewLocaleTagsByTerm.get(i));
+      List<TextUnitDTO> localizedTextUnits =
+          refreshedLocalizedTextUnitsByKey.getOrDefault(plans.get(i).termKey(), List.of()).stream()
+              .filter(textUnitDTO -> viewLocaleTags.contains(textUnitDTO.getTargetLocale()))
+              .toList();
+      termViews.add(
+          toTermView(
+              refreshedSources.get(i),
+              savedMetadata.get(i),
+              localizedTextUnits,
+              evidenceByMetadataId,
+              primaryLinksByMetadataId,
+              Map.of()));
+    }
+    return termViews;
+  }
+
   @Transactional
   public TermView appendTermEvidence(
       Long glossaryId, Long tmTextUnitId, List<EvidenceInput> evidenceInputs) {
@@ -517,7 +755,7 @@ public class GlossaryTermService {
                 .orElse(-1)
             + 1;
     for (EvidenceInput evidenceInput : evidenceInputs) {
-      evidence.add(toEvidence(metadata, evidenceInput, sortOrder++));
+      evidence.add(toEvidence(metadata, evidenceInput, sortOrder++, this::getTmTextUnit));
     }
     glossaryTermEvidenceRepository.saveAll(evidence);
 
@@ -558,6 +796,102 @@ public class GlossaryTermService {
     virtualAssetService.deleteTextUnit(asset.getId(), sourceTextUnit.getName());
   }
 
+  private PlannedTermUpsert planTermUpsert(
+      BulkTermUpsert upsert,
+      Map<Long, TextUnitDTO> existingSourceByTmTextUnitId,
+      Map<String, TextUnitDTO> existingSourceByKey) {
+    if (upsert == null || upsert.command() == null) {
+      throw new IllegalArgumentException("Glossary term is required");
+    }
+    TermUpsertCommand command = upsert.command();
+    String normalizedSource = normalizeRequired(command.source(), "source");
+
+    TextUnitDTO existingSource = null;
+    if (upsert.tmTextUnitId() != null) {
+      existingSource = existingSourceByTmTextUnitId.get(upsert.tmTextUnitId());
+      if (existingSource == null) {
+        throw new IllegalArgumentException("Glossary term not found: " + upsert.tmTextUnitId());
+      }
+    }
+    String normalizedSourceComment =
+        normalizeOptional(
+            command.sourceComment() != null ? command.sourceComment() : command.definition());
+    String requestedTermKey = normalizeOptional(command.termKey());
+    String termKey =
+        existingSource != null
+            ? requestedTermKey != null ? requestedTermKey : existingSource.getName()
+            : requestedTermKey != null ? requestedTermKey : generateTermKey(normalizedSource);
+    if (existingSource != null && !Objects.equals(existingSource.getName(), termKey)) {
+      TextUnitDTO sourceWithTermKey = existingSourceByKey.get(termKey);
+      if (sourceWithTermKey != null
+          && !Objects.equals(
+              sourceWithTermKey.getTmTextUnitId(), existingSource.getTmTextUnitId())) {
+        throw new IllegalArgumentException("Glossary term key already exists: " + termKey);
+      }
+    }
+    boolean replacesBackingTextUnit =
+        existingSource != null
+            && isBackingTextUnitReplacement(
+                existingSource, termKey, normalizedSource, normalizedSourceComment);
+    if (replacesBackingTextUnit && !Boolean.TRUE.equals(command.replaceTerm())) {
+      throw new IllegalArgumentException(
+          "Changing source term, term key, or definition replaces the backing text unit. Confirm replacement to continue.");
+    }
+
+    VirtualAssetTextUnit virtualAssetTextUnit = new VirtualAssetTextUnit();
+    virtualAssetTextUnit.setName(termKey);
+    virtualAssetTextUnit.setContent(normalizedSource);
+    virtualAssetTextUnit.setComment(normalizedSourceComment);
+    virtualAssetTextUnit.setDoNotTranslate(resolveDoNotTranslate(command.doNotTranslate(), null));
+    return new PlannedTermUpsert(
+        command,
+        existingSource,
+        termKey,
+        normalizedSource,
+        replacesBackingTextUnit,
+        virtualAssetTextUnit);
+  }
+
+  /**
+   * Translations to import for a planned term: the copied ones first, if any, then the provided
+   * ones. A copied translation is dropped when the same locale is provided since the import would
+   * overwrite it anyway.
+   */
+  private List<TranslationInput> toBulkTranslationInputs(
+      PlannedTermUpsert plan, Map<String, List<TextUnitDTO>> localizedTextUnitsByKey) {
+    List<TranslationInput> translations = nullToEmpty(plan.command().translations());
+    if (!plan.copiesTranslations()) {
+      return translations;
+    }
+    Set<String> providedLocaleTags = new HashSet<>();
+    for (TranslationInput translation : translations) {
+      providedLocaleTags.add(normalizeOptional(translation.localeTag()));
+    }
+    List<TranslationInput> translationInputs = new ArrayList<>();
+    for (TranslationInput copiedTranslation :
+        toCopiedTranslationInputs(
+            localizedTextUnitsByKey.getOrDefault(plan.existingSource().getName(), List.of()),
+            plan.command().copyTranslationStatus())) {
+      if (!providedLocaleTags.contains(copiedTranslation.localeTag())) {
+        translationInputs.add(copiedTranslation);
+      }
+    }
+    translationInputs.addAll(translations);
+    return translationInputs;
+  }
+
+  private <T> T forTerm(int index, Supplier<T> action) {
+    try {
+      return action.get();
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("terms[" + index + "]: " + e.getMessage(), e);
+    }
+  }
+
+  private <T> List<T> nullToEmpty(List<T> values) {
+    return values == null ? List.of() : values;
+  }
+
   private TermView updateReaderTermTranslations(
       Long glossaryId, Long tmTextUnitId, List<TranslationInput> translations) {
     Glossary glossary = getGlossary(glossaryId);
@@ -703,6 +1037,23 @@ public class GlossaryTermService {
 
   @Transactional(readOnly = true)
   public ExtractionView extractCandidates(Long glossaryId, ExtractionCommand command) {
+    return extractCandidates(glossaryId, command, null, checkpoint -> {});
+  }
+
+  /**
+   * Extracts the candidates of whole repositories: source text units are scanned page by page and
+   * phrase counts are kept in bounded {@link CandidatePhraseSketch}es, one for the repository being
+   * scanned and one for all the repositories scanned so far. A repository contributes at most once
+   * to the repository count of a phrase and memory does not depend on the repository sizes.
+   *
+   * <p>Progress is reported to the checkpoint consumer after every few pages and at the end of each
+   * repository, an extraction can be resumed from its last checkpoint.
+   */
+  private ExtractionView extractCandidates(
+      Long glossaryId,
+      ExtractionCommand command,
+      ExtractionCheckpoint checkpoint,
+      Consumer<ExtractionCheckpoint> checkpointConsumer) {
     requireTermManager();
     Glossary glossary = getGlossary(glossaryId);
     Set<String> existingTerms =
@@ -731,39 +1082,14 @@ public class GlossaryTermService {
 
     int resolvedLimit =
         normalizeLimit(command.limit(), DEFAULT_EXTRACTION_LIMIT, MAX_EXTRACTION_LIMIT);
-    int scanLimit =
-        normalizeLimit(
-            command.scanLimit(), DEFAULT_EXTRACTION_SCAN_LIMIT, DEFAULT_EXTRACTION_SCAN_LIMIT * 2);
+    Long scanLimit = command.scanLimit() == null ? null : Math.max(1L, command.scanLimit());
     int minOccurrences =
         Math.max(1, command.minOccurrences() == null ? 2 : command.minOccurrences());
 
-    TextUnitSearcherParameters parameters = new TextUnitSearcherParameters();
-    parameters.setRepositoryIds(repositoryIds);
-    parameters.setUsedFilter(UsedFilter.USED);
-    parameters.setForRootLocale(true);
-    parameters.setRootLocaleExcluded(false);
-    parameters.setLimit(scanLimit);
-
-    Map<String, CandidateAccumulator> candidatesByKey = new LinkedHashMap<>();
-    for (TextUnitDTO textUnitDTO : textUnitSearcher.search(parameters)) {
-      for (String candidate : extractCandidatePhrases(textUnitDTO.getSource())) {
-        String normalizedCandidateKey = normalizeCandidateKey(candidate);
-        if (normalizedCandidateKey == null) {
-          continue;
-        }
-        CandidateAccumulator accumulator =
-            candidatesByKey.computeIfAbsent(
-                normalizedCandidateKey, ignored -> new CandidateAccumulator(candidate));
-        accumulator.add(textUnitDTO);
-      }
-    }
-
     List<ExtractedCandidateView> heuristicCandidates =
-        candidatesByKey.values().stream()
-            .filter(candidate -> candidate.occurrenceCount >= minOccurrences)
-            .map(
-                candidate ->
-                    candidate.toView(existingTerms.contains(normalizeCandidateKey(candidate.term))))
+        mineCandidatePhrases(repositories, scanLimit, checkpoint, checkpointConsumer).stream()
+            .filter(entry -> entry.guaranteedCount() >= minOccurrences)
+            .map(entry -> toExtractedCandidateView(entry, existingTerms.contains(entry.key())))
             .filter(candidate -> !candidate.existingInGlossary())
             .sorted(
                 Comparator.comparingInt(ExtractedCandidateView::repositoryCount)
@@ -779,6 +1105,107 @@ public class GlossaryTermService {
     return new ExtractionView(candidates);
   }
 
+  private List<CandidatePhraseSketch.Entry> mineCandidatePhrases(
+      List<Repository> repositories,
+      Long scanLimit,
+      ExtractionCheckpoint checkpoint,
+      Consumer<ExtractionCheckpoint> checkpointConsumer) {
+    CandidatePhraseSketch sketch =
+        CandidatePhraseSketch.fromEntries(
+            EXTRACTION_SKETCH_CAPACITY, checkpoint == null ? List.of() : checkpoint.entries());
+    Set<Long> completedRepositoryIds =
+        new LinkedHashSet<>(checkpoint == null ? List.of() : checkpoint.completedRepositoryIds());
+    long scannedTextUnitCount = checkpoint == null ? 0 : checkpoint.scannedTextUnitCount();
+
+    for (Repository repository : repositories) {
+      if (completedRepositoryIds.contains(repository.getId())
+          || (scanLimit != null && scannedTextUnitCount >= scanLimit)) {
+        continue;
+      }
+
+      boolean resumed =
+          checkpoint != null && Objects.equals(repository.getId(), checkpoint.repositoryId());
+      CandidatePhraseSketch repositorySketch =
+          CandidatePhraseSketch.fromEntries(
+              EXTRACTION_SKETCH_CAPACITY, resumed ? checkpoint.repositoryEntries() : List.of());
+      Long lastTmTextUnitId = resumed ? checkpoint.lastTmTextUnitId() : null;
+      int pageCount = 0;
+
+      while (true) {
+        int pageSize =
+            scanLimit == null
+                ? EXTRACTION_PAGE_SIZE
+                : (int) Math.min(EXTRACTION_PAGE_SIZE, scanLimit - scannedTextUnitCount);
+        if (pageSize <= 0) {
+          break;
+        }
+
+        List<TextUnitDTO> page =
+            searchRepositorySourceTextUnits(repository, lastTmTextUnitId, pageSize);
+        for (TextUnitDTO textUnitDTO : page) {
+          for (String candidate : extractCandidatePhrases(textUnitDTO.getSource())) {
+            String normalizedCandidateKey = normalizeCandidateKey(candidate);
+            if (normalizedCandidateKey != null) {
+              repositorySketch.add(
+                  normalizedCandidateKey, candidate, repository.getName(), textUnitDTO.getSource());
+            }
+          }
+        }
+        if (!page.isEmpty()) {
+          lastTmTextUnitId = page.getLast().getTmTextUnitId();
+        }
+        scannedTextUnitCount += page.size();
+
+        if (page.size() < pageSize) {
+          break;
+        }
+        if (++pageCount % EXTRACTION_CHECKPOINT_PAGE_INTERVAL == 0) {
+          checkpointConsumer.accept(
+              new ExtractionCheckpoint(
+                  List.copyOf(completedRepositoryIds),
+                  repository.getId(),
+                  lastTmTextUnitId,
+                  scannedTextUnitCount,
+                  repositorySketch.getEntries(),
+                  sketch.getEntries()));
+        }
+      }
+
+      sketch.addAll(repositorySketch);
+      completedRepositoryIds.add(repository.getId());
+      checkpointConsumer.accept(
+          new ExtractionCheckpoint(
+              List.copyOf(completedRepositoryIds),
+              null,
+              null,
+              scannedTextUnitCount,
+              List.of(),
+              sketch.getEntries()));
+      logger.info(
+          "Glossary candidates mined for repository: {}, last text unit id: {}, total scanned: {}, tracked phrases: {}",
+          repository.getName(),
+          lastTmTextUnitId,
+          scannedTextUnitCount,
+          sketch.size());
+    }
+
+    return sketch.getEntries();
+  }
+
+  /** Pages through the source text units by id, as an offset gets slower the further it goes. */
+  private List<TextUnitDTO> searchRepositorySourceTextUnits(
+      Repository repository, Long lastTmTextUnitId, int limit) {
+    TextUnitSearcherParameters parameters = new TextUnitSearcherParameters();
+    parameters.setRepositoryIds(repository.getId());
+    parameters.setUsedFilter(UsedFilter.USED);
+    parameters.setForRootLocale(true);
+    parameters.setRootLocaleExcluded(false);
+    parameters.setOrderByTextUnitID(true);
+    parameters.setTmTextUnitIdGreaterThan(lastTmTextUnitId);
+    parameters.setLimit(limit);
+    return textUnitSearcher.search(parameters);
+  }
+
   @Pollable(async = true, message = "Extract glossary candidates")
   public PollableFuture<Void> extractCandidatesAsync(
       Long glossaryId,
@@ -790,7 +1217,48 @@ public class GlossaryTermService {
 
     pollableTaskBlobStorage.saveInput(
         currentTask.getId(), new ExtractionTaskInput(glossaryId, command));
-    ExtractionView extractionView = extractCandidates(glossaryId, command);
+    ExtractionView extractionView =
+        extractCandidates(
+            glossaryId,
+            command,
+            null,
+            checkpoint -> pollableTaskBlobStorage.saveCheckpoint(currentTask.getId(), checkpoint));
+    pollableTaskBlobStorage.saveOutput(currentTask.getId(), extractionView);
+    return new PollableFutureTaskResult<>();
+  }
+
+  /**
+   * Resumes an extraction that failed from its last checkpoint. The result is the output of the new
+   * task.
+   */
+  @Pollable(async = true, message = "Resume glossary candidates extraction: {id}")
+  public PollableFuture<Void> resumeExtractCandidatesAsync(
+      Long glossaryId,
+      @MsgArg(name = "id") Long pollableTaskId,
+      @InjectCurrentTask com.box.l10n.mojito.entity.PollableTask currentTask) {
+    if (currentTask == null || currentTask.getId() == null) {
+      throw new IllegalStateException("Current pollable task is missing");
+    }
+
+    ExtractionTaskInput extractionTaskInput =
+        pollableTaskBlobStorage.getInput(pollableTaskId, ExtractionTaskInput.class);
+    if (!Objects.equals(extractionTaskInput.glossaryId(), glossaryId)) {
+      throw new IllegalArgumentException(
+          "Glossary extraction does not belong to glossary: " + pollableTaskId);
+    }
+    ExtractionCheckpoint checkpoint =
+        pollableTaskBlobStorage
+            .findCheckpoint(pollableTaskId, ExtractionCheckpoint.class)
+            .orElse(null);
+
+    pollableTaskBlobStorage.saveInput(currentTask.getId(), extractionTaskInput);
+    ExtractionView extractionView =
+        extractCandidates(
+            glossaryId,
+            extractionTaskInput.command(),
+            checkpoint,
+            nextCheckpoint ->
+                pollableTaskBlobStorage.saveCheckpoint(currentTask.getId(), nextCheckpoint));
     pollableTaskBlobStorage.saveOutput(currentTask.getId(), extractionView);
     return new PollableFutureTaskResult<>();
   }
@@ -1109,14 +1577,17 @@ public class GlossaryTermService {
     List<GlossaryTermEvidence> evidence = new ArrayList<>();
     int sortOrder = 0;
     for (EvidenceInput evidenceInput : evidenceInputs) {
-      evidence.add(toEvidence(metadata, evidenceInput, sortOrder++));
+      evidence.add(toEvidence(metadata, evidenceInput, sortOrder++, this::getTmTextUnit));
     }
 
     glossaryTermEvidenceRepository.saveAll(evidence);
   }
 
   private GlossaryTermEvidence toEvidence(
-      GlossaryTermMetadata metadata, EvidenceInput evidenceInput, int sortOrder) {
+      GlossaryTermMetadata metadata,
+      EvidenceInput evidenceInput,
+      int sortOrder,
+      Function<Long, TMTextUnit> tmTextUnitResolver) {
     if (evidenceInput == null) {
       throw new IllegalArgumentException("evidence entry is required");
     }
@@ -1134,7 +1605,7 @@ public class GlossaryTermService {
 
     Long referencedTmTextUnitId = evidenceInput.tmTextUnitId();
     if (referencedTmTextUnitId != null) {
-      next.setTmTextUnit(getTmTextUnit(referencedTmTextUnitId));
+      next.setTmTextUnit(tmTextUnitResolver.apply(referencedTmTextUnitId));
     }
     return next;
   }
@@ -1180,8 +1651,31 @@ public class GlossaryTermService {
 
   private void importTranslations(
       Glossary glossary, String termKey, List<TranslationInput> translationInputs) {
+    importTranslations(toTranslationImports(glossary, termKey, translationInputs, new HashSet<>()));
+  }
+
+  private void importTranslations(
+      List<TextUnitBatchImporterService.TextUnitDTOWithVariantComment> imports) {
+    if (!imports.isEmpty()) {
+      textUnitBatchImporterService.importTextUnitsWithVariantComment(
+          imports,
+          TextUnitBatchImporterService.IntegrityChecksType.ALWAYS_USE_INTEGRITY_CHECKER_STATUS,
+          TextUnitBatchImporterService.ImportMode.ALWAYS_IMPORT);
+    }
+  }
+
+  /**
+   * Builds the imports for the translations of a term, making sure their locales exist in the
+   * glossary. Locales already in {@code ensuredLocaleTags} are not checked again and newly checked
+   * ones are added to it, so a batch of terms checks each locale once.
+   */
+  private List<TextUnitBatchImporterService.TextUnitDTOWithVariantComment> toTranslationImports(
+      Glossary glossary,
+      String termKey,
+      List<TranslationInput> translationInputs,
+      Set<String> ensuredLocaleTags) {
     if (translationInputs == null || translationInputs.isEmpty()) {
-      return;
+      return List.of();
     }
 
     List<TextUnitBatchImporterService.TextUnitDTOWithVariantComment> imports = new ArrayList<>();
@@ -1191,7 +1685,9 @@ public class GlossaryTermService {
       if (localeTag == null || target == null) {
         continue;
       }
-      glossaryStorageService.ensureLocale(glossary, localeTag);
+      if (ensuredLocaleTags.add(localeTag)) {
+        glossaryStorageService.ensureLocale(glossary, localeTag);
+      }
       TextUnitDTO textUnitDTO = new TextUnitDTO();
       textUnitDTO.setRepositoryName(glossary.getBackingRepository().getName());
       textUnitDTO.setAssetPath(glossary.getAssetPath());
@@ -1204,13 +1700,7 @@ public class GlossaryTermService {
       imports.add(
           new TextUnitBatchImporterService.TextUnitDTOWithVariantComment(textUnitDTO, null));
     }
-
-    if (!imports.isEmpty()) {
-      textUnitBatchImporterService.importTextUnitsWithVariantComment(
-          imports,
-          TextUnitBatchImporterService.IntegrityChecksType.ALWAYS_USE_INTEGRITY_CHECKER_STATUS,
-          TextUnitBatchImporterService.ImportMode.ALWAYS_IMPORT);
-    }
+    return imports;
   }
 
   private TMTextUnitVariant.Status resolveTranslationInputStatus(String status) {
@@ -1999,6 +2489,26 @@ public class GlossaryTermService {
         .replaceAll("\\s+", " ");
   }
 
+  private ExtractedCandidateView toExtractedCandidateView(
+      CandidatePhraseSketch.Entry entry, boolean existingInGlossary) {
+    return new ExtractedCandidateView(
+        entry.term(),
+        (int) Math.min(Integer.MAX_VALUE, entry.count()),
+        entry.repositories().size(),
+        entry.repositories(),
+        entry.sampleSources(),
+        suggestTermType(entry.term()),
+        GlossaryTermMetadata.PROVENANCE_AUTOMATED,
+        existingInGlossary,
+        40,
+        null,
+        null,
+        null,
+        GlossaryTermMetadata.ENFORCEMENT_SOFT,
+        false,
+        "HEURISTIC");
+  }
+
   private String suggestTermType(String term) {
     if (term == null) {
       return GlossaryTermMetadata.TERM_TYPE_GENERAL;
@@ -2099,6 +2609,28 @@ public class GlossaryTermService {
       List<TranslationInput> translations,
       List<EvidenceInput> evidence) {}
 
+  public record BulkTermUpsert(Long tmTextUnitId, TermUpsertCommand command) {}
+
+  private record PlannedTermUpsert(
+      TermUpsertCommand command,
+      TextUnitDTO existingSource,
+      String termKey,
+      String normalizedSource,
+      boolean replacesBackingTextUnit,
+      VirtualAssetTextUnit virtualAssetTextUnit) {
+
+    boolean copiesTranslations() {
+      return replacesBackingTextUnit && Boolean.TRUE.equals(command.copyTranslationsOnReplace());
+    }
+
+    /** Id of the text unit the current metadata of the term is attached to, if any. */
+    Long metadataTmTextUnitId(TextUnitDTO refreshedSource) {
+      return replacesBackingTextUnit
+          ? existingSource.getTmTextUnitId()
+          : refreshedSource.getTmTextUnitId();
+    }
+  }
+
   public record TranslationInput(
       String localeTag, String target, String targetComment, String status) {
     public TranslationInput(String localeTag, String target, String targetComment) {
@@ -2155,6 +2687,18 @@ public class GlossaryTermService {
 
   public record ExtractionView(List<ExtractedCandidateView> candidates) {}
 
+  /**
+   * Progress of an extraction: the repositories fully scanned, the last text unit id scanned in the
+   * repository being scanned if any, and the sketches entries.
+   */
+  public record ExtractionCheckpoint(
+      List<Long> completedRepositoryIds,
+      Long repositoryId,
+      Long lastTmTextUnitId,
+      long scannedTextUnitCount,
+      List<CandidatePhraseSketch.Entry> repositoryEntries,
+      List<CandidatePhraseSketch.Entry> entries) {}
+
   public record ExtractedCandidateView(
       String term,
       int occurrenceCount,
@@ -2171,46 +2715,4 @@ public class GlossaryTermService {
       String suggestedEnforcement,
       boolean suggestedDoNotTranslate,
       String extractionMethod) {}
-
-  private final class CandidateAccumulator {
-    private final String term;
-    private final Set<String> repositoryNames = new LinkedHashSet<>();
-    private final List<String> sampleSources = new ArrayList<>();
-    private int occurrenceCount = 0;
-
-    private CandidateAccumulator(String term) {
-      this.term = term;
-    }
-
-    private void add(TextUnitDTO textUnitDTO) {
-      occurrenceCount++;
-      if (textUnitDTO.getRepositoryName() != null) {
-        repositoryNames.add(textUnitDTO.getRepositoryName());
-      }
-      if (sampleSources.size() < 3
-          && textUnitDTO.getSource() != null
-          && sampleSources.stream().noneMatch(textUnitDTO.getSource()::equals)) {
-        sampleSources.add(textUnitDTO.getSource());
-      }
-    }
-
-    private ExtractedCandidateView toView(boolean existingInGlossary) {
-      return new ExtractedCandidateView(
-          term,
-          occurrenceCount,
-          repositoryNames.size(),
-          new ArrayList<>(repositoryNames),
-          List.copyOf(sampleSources),
-          suggestTermType(term),
-          GlossaryTermMetadata.PROVENANCE_AUTOMATED,
-          existingInGlossary,
-          40,
-          null,
-          null,
-          null,
-          GlossaryTermMetadata.ENFORCEMENT_SOFT,
-          false,
-          "HEURISTIC");
-    }
-  }
 }
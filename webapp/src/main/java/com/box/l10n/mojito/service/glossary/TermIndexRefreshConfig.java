@@ -0,0 +1,45 @@
+package com.box.l10n.mojito.service.glossary;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+/**
+ * Executors used by {@link TermIndexRefreshService}: one to refresh repositories in parallel and
+ * one to load and match the next batch of a repository while the current one is written.
+ *
+ * <p>They are separate so that a repository worker waiting for its next batch never waits for a
+ * task queued behind other repository workers.
+ */
+@Configuration
+public class TermIndexRefreshConfig {
+
+  private final TermIndexRefreshProperties properties;
+
+  public TermIndexRefreshConfig(TermIndexRefreshProperties properties) {
+    this.properties = properties;
+  }
+
+  @Bean(name = "termIndexRefreshExecutor")
+  public AsyncTaskExecutor termIndexRefreshExecutor() {
+    return newExecutor("term-index-refresh-");
+  }
+
+  @Bean(name = "termIndexRefreshPrefetchExecutor")
+  public AsyncTaskExecutor termIndexRefreshPrefetchExecutor() {
+    return newExecutor("term-index-refresh-prefetch-");
+  }
+
+  private AsyncTaskExecutor newExecutor(String threadNamePrefix) {
+    int repositoryParallelism = Math.max(1, properties.repositoryParallelism());
+
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(repositoryParallelism);
+    executor.setMaxPoolSize(repositoryParallelism);
+    executor.setThreadNamePrefix(threadNamePrefix);
+    executor.initialize();
+    return new DelegatingSecurityContextAsyncTaskExecutor(executor);
+  }
+}
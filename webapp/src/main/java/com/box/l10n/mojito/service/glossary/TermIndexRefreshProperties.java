@@ -0,0 +1,10 @@
+package com.box.l10n.mojito.service.glossary;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param repositoryParallelism number of repositories refreshed in parallel by a refresh run
+ */
+@ConfigurationProperties(prefix = "l10n.glossary.term-index.refresh")
+public record TermIndexRefreshProperties(@DefaultValue("4") int repositoryParallelism) {}
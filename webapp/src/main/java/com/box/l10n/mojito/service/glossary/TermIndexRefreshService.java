@@ -12,9 +12,12 @@ import com.box.l10n.mojito.quartz.QuartzJobInfo;
 import com.box.l10n.mojito.quartz.QuartzPollableTaskScheduler;
 import com.box.l10n.mojito.service.pollableTask.PollableFuture;
 import com.box.l10n.mojito.service.tm.TMTextUnitRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.micrometer.core.instrument.Timer;
 import java.lang.management.ManagementFactory;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -28,11 +31,19 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -62,6 +73,10 @@ public class TermIndexRefreshService {
   private static final Pattern CAMEL_TOKEN_PATTERN =
       Pattern.compile("\\b[A-Za-z]+(?:[A-Z][a-z0-9]+)+\\b");
   private static final Pattern DICTIONARY_TOKEN_PATTERN = Pattern.compile("[\\p{L}\\p{N}]+");
+  private static final Pattern NON_TOKEN_PATTERN = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+  private static final int GLOSSARY_DICTIONARY_CACHE_SIZE = 256;
+  private static final Duration GLOSSARY_DICTIONARY_CACHE_EXPIRE_AFTER_ACCESS = Duration.ofHours(1);
   private static final Set<String> EXTRACTION_STOP_WORDS =
       Set.of(
           "a",
@@ -113,6 +128,18 @@ public class TermIndexRefreshService {
   private final TransactionTemplate transactionTemplate;
   private final QuartzPollableTaskScheduler quartzPollableTaskScheduler;
   private final TermIndexJobObservability termIndexJobObservability;
+  private final AsyncTaskExecutor termIndexRefreshExecutor;
+  private final AsyncTaskExecutor termIndexRefreshPrefetchExecutor;
+
+  /**
+   * Compiled dictionaries by glossary version, so that repositories linked to the same glossaries
+   * and successive refreshes share the same automaton until a term changes.
+   */
+  private final Cache<GlossaryDictionaryVersion, GlossaryDictionary> glossaryDictionaryCache =
+      Caffeine.newBuilder()
+          .maximumSize(GLOSSARY_DICTIONARY_CACHE_SIZE)
+          .expireAfterAccess(GLOSSARY_DICTIONARY_CACHE_EXPIRE_AFTER_ACCESS)
+          .build();
 
   public TermIndexRefreshService(
       com.box.l10n.mojito.service.repository.RepositoryRepository repositoryRepository,
@@ -126,7 +153,10 @@ public class TermIndexRefreshService {
       TermIndexRefreshRunEntryRepository termIndexRefreshRunEntryRepository,
       TransactionTemplate transactionTemplate,
       QuartzPollableTaskScheduler quartzPollableTaskScheduler,
-      TermIndexJobObservability termIndexJobObservability) {
+      TermIndexJobObservability termIndexJobObservability,
+      @Qualifier("termIndexRefreshExecutor") AsyncTaskExecutor termIndexRefreshExecutor,
+      @Qualifier("termIndexRefreshPrefetchExecutor")
+          AsyncTaskExecutor termIndexRefreshPrefetchExecutor) {
     this.repositoryRepository = Objects.requireNonNull(repositoryRepository);
     this.tmTextUnitRepository = Objects.requireNonNull(tmTextUnitRepository);
     this.glossaryRepository = Objects.requireNonNull(glossaryRepository);
@@ -142,6 +172,9 @@ public class TermIndexRefreshService {
     this.transactionTemplate = Objects.requireNonNull(transactionTemplate);
     this.quartzPollableTaskScheduler = Objects.requireNonNull(quartzPollableTaskScheduler);
     this.termIndexJobObservability = Objects.requireNonNull(termIndexJobObservability);
+    this.termIndexRefreshExecutor = Objects.requireNonNull(termIndexRefreshExecutor);
+    this.termIndexRefreshPrefetchExecutor =
+        Objects.requireNonNull(termIndexRefreshPrefetchExecutor);
   }
 
   public PollableFuture<RefreshResult> scheduleRefresh(RefreshCommand command) {
@@ -168,6 +201,7 @@ public class TermIndexRefreshService {
 
     Timer.Sample jobTimer = termIndexJobObservability.startTimer();
     TermIndexRefreshRun refreshRun = createRefreshRun(repositories, pollableTaskId);
+    RefreshRunState refreshRunState = new RefreshRunState(refreshRun.getId());
     termIndexJobObservability.recordJobStarted(TermIndexJobObservability.JOB_REFRESH);
     logger.info(
         "Term index refresh started: refreshRunId={}, repositoryCount={}, fullRefresh={}, batchSize={}, pollableTaskId={}",
@@ -176,55 +210,19 @@ public class TermIndexRefreshService {
         fullRefresh,
         batchSize,
         pollableTaskId);
-    long processedTextUnitCount = 0;
-    long occurrenceCount = 0;
 
     try {
-      for (Long repositoryId : repositoryIds) {
-        long repositoryStartNanos = System.nanoTime();
-        logger.info(
-            "Term index refresh repository started: refreshRunId={}, repositoryId={}, fullRefresh={}, batchSize={}",
-            refreshRun.getId(),
-            repositoryId,
-            fullRefresh,
-            batchSize);
-        RepositoryRefreshResult repositoryRefreshResult;
-        try {
-          repositoryRefreshResult =
-              refreshRepository(repositoryId, refreshRun.getId(), fullRefresh, batchSize);
-          termIndexJobObservability.recordPhase(
-              TermIndexJobObservability.JOB_REFRESH,
-              TermIndexJobObservability.PHASE_REFRESH_REPOSITORY,
-              TermIndexJobObservability.RESULT_SUCCEEDED,
-              elapsedSince(repositoryStartNanos));
-        } catch (RuntimeException e) {
-          termIndexJobObservability.recordPhase(
-              TermIndexJobObservability.JOB_REFRESH,
-              TermIndexJobObservability.PHASE_REFRESH_REPOSITORY,
-              TermIndexJobObservability.RESULT_FAILED,
-              elapsedSince(repositoryStartNanos));
-          logger.info(
-              "Term index refresh repository failed: refreshRunId={}, repositoryId={}, processedTextUnitCount={}, occurrenceCount={}, errorClass={}, errorMessage={}",
-              refreshRun.getId(),
-              repositoryId,
-              processedTextUnitCount,
-              occurrenceCount,
-              e.getClass().getSimpleName(),
-              errorMessage(e));
-          throw e;
-        }
-        processedTextUnitCount += repositoryRefreshResult.processedTextUnitCount();
-        occurrenceCount += repositoryRefreshResult.occurrenceCount();
-        updateRefreshRunProgress(refreshRun.getId(), processedTextUnitCount, occurrenceCount);
-        logger.info(
-            "Term index refresh repository completed: refreshRunId={}, repositoryId={}, repositoryProcessedTextUnitCount={}, repositoryOccurrenceCount={}, totalProcessedTextUnitCount={}, totalOccurrenceCount={}",
-            refreshRun.getId(),
-            repositoryId,
-            repositoryRefreshResult.processedTextUnitCount(),
-            repositoryRefreshResult.occurrenceCount(),
-            processedTextUnitCount,
-            occurrenceCount);
-      }
+      List<CompletableFuture<Void>> repositoryRefreshFutures =
+          repositoryIds.stream()
+              .map(
+                  repositoryId ->
+                      CompletableFuture.runAsync(
+                          () ->
+                              refreshRepositoryForRun(
+                                  repositoryId, refreshRunState, fullRefresh, batchSize),
+                          termIndexRefreshExecutor))
+              .toList();
+      waitForRepositoryRefreshes(repositoryRefreshFutures, refreshRunState);
 
       long aggregateStartNanos = System.nanoTime();
       logger.info(
@@ -233,7 +231,7 @@ public class TermIndexRefreshService {
           batchSize);
       long extractedTermCount;
       try {
-        extractedTermCount = recomputeAggregatesForRefreshRun(refreshRun.getId(), batchSize);
+        extractedTermCount = recomputeAggregatesForRefreshRun(refreshRunState, batchSize);
         termIndexJobObservability.recordPhase(
             TermIndexJobObservability.JOB_REFRESH,
             TermIndexJobObservability.PHASE_REFRESH_AGGREGATES,
@@ -248,8 +246,8 @@ public class TermIndexRefreshService {
         logger.info(
             "Term index refresh aggregate recomputation failed: refreshRunId={}, processedTextUnitCount={}, occurrenceCount={}, errorClass={}, errorMessage={}",
             refreshRun.getId(),
-            processedTextUnitCount,
-            occurrenceCount,
+            refreshRunState.processedTextUnitCount(),
+            refreshRunState.occurrenceCount(),
             e.getClass().getSimpleName(),
             errorMessage(e));
         throw e;
@@ -258,6 +256,8 @@ public class TermIndexRefreshService {
           "Term index refresh aggregate recomputation completed: refreshRunId={}, extractedTermCount={}",
           refreshRun.getId(),
           extractedTermCount);
+      long processedTextUnitCount = refreshRunState.processedTextUnitCount();
+      long occurrenceCount = refreshRunState.occurrenceCount();
       refreshRun =
           completeRefreshRun(
               refreshRun.getId(), processedTextUnitCount, occurrenceCount, extractedTermCount);
@@ -282,39 +282,154 @@ public class TermIndexRefreshService {
           occurrenceCount);
       return result;
     } catch (RuntimeException e) {
-      failRefreshRun(refreshRun.getId(), processedTextUnitCount, occurrenceCount, e);
+      failRefreshRun(
+          refreshRun.getId(),
+          refreshRunState.processedTextUnitCount(),
+          refreshRunState.occurrenceCount(),
+          e);
       termIndexJobObservability.recordJobFinished(
           TermIndexJobObservability.JOB_REFRESH, TermIndexJobObservability.RESULT_FAILED, jobTimer);
       logger.info(
           "Term index refresh failed: refreshRunId={}, repositoryCount={}, processedTextUnitCount={}, occurrenceCount={}, errorClass={}, errorMessage={}",
           refreshRun.getId(),
           repositories.size(),
-          processedTextUnitCount,
-          occurrenceCount,
+          refreshRunState.processedTextUnitCount(),
+          refreshRunState.occurrenceCount(),
           e.getClass().getSimpleName(),
           errorMessage(e));
       throw e;
     }
   }
 
+  /**
+   * Waits for all the repository refreshes, even after a failure so that no worker still holds a
+   * lease or updates the run when it is marked as failed. The first failure is rethrown.
+   */
+  private void waitForRepositoryRefreshes(
+      List<CompletableFuture<Void>> repositoryRefreshFutures, RefreshRunState refreshRunState) {
+    RuntimeException firstFailure = null;
+    for (CompletableFuture<Void> repositoryRefreshFuture : repositoryRefreshFutures) {
+      try {
+        repositoryRefreshFuture.join();
+      } catch (CompletionException | CancellationException e) {
+        refreshRunState.cancel();
+        if (firstFailure == null) {
+          firstFailure = unwrapCompletionException(e);
+        }
+      }
+    }
+    if (firstFailure != null) {
+      throw firstFailure;
+    }
+  }
+
+  private RuntimeException unwrapCompletionException(RuntimeException exception) {
+    Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+    if (cause instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    return new IllegalStateException(cause);
+  }
+
+  /**
+   * Refreshes a repository on a worker of the refresh executor. Repositories that were not started
+   * yet when another repository of the run failed are skipped.
+   */
+  private void refreshRepositoryForRun(
+      Long repositoryId, RefreshRunState refreshRunState, boolean fullRefresh, int batchSize) {
+    if (refreshRunState.isCancelled()) {
+      logger.info(
+          "Term index refresh repository skipped, run is failing: refreshRunId={}, repositoryId={}",
+          refreshRunState.refreshRunId(),
+          repositoryId);
+      return;
+    }
+
+    long repositoryStartNanos = System.nanoTime();
+    logger.info(
+        "Term index refresh repository started: refreshRunId={}, repositoryId={}, fullRefresh={}, batchSize={}",
+        refreshRunState.refreshRunId(),
+        repositoryId,
+        fullRefresh,
+        batchSize);
+    RepositoryRefreshResult repositoryRefreshResult;
+    try {
+      repositoryRefreshResult =
+          refreshRepository(repositoryId, refreshRunState, fullRefresh, batchSize);
+      termIndexJobObservability.recordPhase(
+          TermIndexJobObservability.JOB_REFRESH,
+          TermIndexJobObservability.PHASE_REFRESH_REPOSITORY,
+          TermIndexJobObservability.RESULT_SUCCEEDED,
+          elapsedSince(repositoryStartNanos));
+    } catch (RuntimeException e) {
+      refreshRunState.cancel();
+      termIndexJobObservability.recordPhase(
+          TermIndexJobObservability.JOB_REFRESH,
+          TermIndexJobObservability.PHASE_REFRESH_REPOSITORY,
+          TermIndexJobObservability.RESULT_FAILED,
+          elapsedSince(repositoryStartNanos));
+      logger.info(
+          "Term index refresh repository failed: refreshRunId={}, repositoryId={}, processedTextUnitCount={}, occurrenceCount={}, errorClass={}, errorMessage={}",
+          refreshRunState.refreshRunId(),
+          repositoryId,
+          refreshRunState.processedTextUnitCount(),
+          refreshRunState.occurrenceCount(),
+          e.getClass().getSimpleName(),
+          errorMessage(e));
+      throw e;
+    }
+    logger.info(
+        "Term index refresh repository completed: refreshRunId={}, repositoryId={}, repositoryProcessedTextUnitCount={}, repositoryOccurrenceCount={}, totalProcessedTextUnitCount={}, totalOccurrenceCount={}",
+        refreshRunState.refreshRunId(),
+        repositoryId,
+        repositoryRefreshResult.processedTextUnitCount(),
+        repositoryRefreshResult.occurrenceCount(),
+        refreshRunState.processedTextUnitCount(),
+        refreshRunState.occurrenceCount());
+  }
+
+  /**
+   * Refreshes a repository batch by batch. While a batch is written, the next one is loaded and
+   * matched on the prefetch executor, so that database reads, term matching and occurrence writes
+   * overlap. The aggregates of the entries affected by a batch are updated right after it is
+   * committed.
+   */
   private RepositoryRefreshResult refreshRepository(
-      Long repositoryId, Long refreshRunId, boolean fullRefresh, int batchSize) {
-    RepositoryLease lease = acquireRepositoryLease(repositoryId, refreshRunId);
+      Long repositoryId, RefreshRunState refreshRunState, boolean fullRefresh, int batchSize) {
+    RepositoryLease lease = acquireRepositoryLease(repositoryId, refreshRunState.refreshRunId());
     long processedTextUnitCount = 0;
     long occurrenceCount = 0;
+    CompletableFuture<PreparedBatch> nextBatch = null;
 
     try {
       if (fullRefresh) {
         prepareFullRefresh(lease);
       }
       GlossaryDictionary glossaryDictionary = loadGlossaryDictionary(repositoryId);
+      PreparedBatch batch =
+          prepareBatch(repositoryId, loadCursorPosition(lease), batchSize, glossaryDictionary);
       int batchNumber = 0;
 
-      while (true) {
+      while (!batch.textUnitMatches().isEmpty()) {
+        refreshRunState.assertNotCancelled();
+
+        PreparedBatch currentBatch = batch;
+        nextBatch =
+            currentBatch.textUnitMatches().size() < batchSize
+                ? null
+                : CompletableFuture.supplyAsync(
+                    () ->
+                        prepareBatch(
+                            repositoryId,
+                            currentBatch.nextCursorPosition(),
+                            batchSize,
+                            glossaryDictionary),
+                    termIndexRefreshPrefetchExecutor);
+
         long batchStartNanos = System.nanoTime();
         BatchRefreshResult batchRefreshResult;
         try {
-          batchRefreshResult = refreshNextBatch(lease, fullRefresh, batchSize, glossaryDictionary);
+          batchRefreshResult = writeBatch(lease, fullRefresh, currentBatch);
           termIndexJobObservability.recordBatch(
               TermIndexJobObservability.JOB_REFRESH,
               TermIndexJobObservability.TYPE_REFRESH_TEXT_UNIT_BATCH,
@@ -328,16 +443,19 @@ public class TermIndexRefreshService {
               elapsedSince(batchStartNanos));
           throw e;
         }
-        if (batchRefreshResult.processedTextUnitCount() == 0) {
-          break;
-        }
+        updateAggregatesForBatch(
+            repositoryId, batchRefreshResult.affectedEntryIds(), refreshRunState);
 
         batchNumber++;
         processedTextUnitCount += batchRefreshResult.processedTextUnitCount();
         occurrenceCount += batchRefreshResult.occurrenceCount();
+        updateRefreshRunProgress(
+            refreshRunState,
+            batchRefreshResult.processedTextUnitCount(),
+            batchRefreshResult.occurrenceCount());
         logger.info(
             "Term index refresh batch completed: refreshRunId={}, repositoryId={}, batchNumber={}, processedTextUnitCount={}, occurrenceCount={}, totalRepositoryProcessedTextUnitCount={}, totalRepositoryOccurrenceCount={}",
-            refreshRunId,
+            refreshRunState.refreshRunId(),
             repositoryId,
             batchNumber,
             batchRefreshResult.processedTextUnitCount(),
@@ -345,19 +463,32 @@ public class TermIndexRefreshService {
             processedTextUnitCount,
             occurrenceCount);
 
-        if (batchRefreshResult.processedTextUnitCount() < batchSize) {
+        if (nextBatch == null) {
           break;
         }
+        batch = joinPreparedBatch(nextBatch);
+        nextBatch = null;
       }
 
       completeRepositoryLease(lease);
       return new RepositoryRefreshResult(processedTextUnitCount, occurrenceCount);
     } catch (RuntimeException e) {
+      if (nextBatch != null) {
+        nextBatch.cancel(false);
+      }
       failRepositoryLease(lease, e);
       throw e;
     }
   }
 
+  private PreparedBatch joinPreparedBatch(CompletableFuture<PreparedBatch> preparedBatchFuture) {
+    try {
+      return preparedBatchFuture.join();
+    } catch (CompletionException e) {
+      throw unwrapCompletionException(e);
+    }
+  }
+
   private void prepareFullRefresh(RepositoryLease lease) {
     transactionTemplate.executeWithoutResult(
         status -> {
@@ -372,15 +503,47 @@ public class TermIndexRefreshService {
         });
   }
 
-  private BatchRefreshResult refreshNextBatch(
-      RepositoryLease lease,
-      boolean fullRefresh,
+  private CursorPosition loadCursorPosition(RepositoryLease lease) {
+    return Objects.requireNonNull(
+        transactionTemplate.execute(
+            status -> {
+              TermIndexRepositoryCursor cursor = findCursorForLease(lease);
+              return new CursorPosition(
+                  cursor.getLastProcessedCreatedAt(), cursor.getLastProcessedTmTextUnitId());
+            }));
+  }
+
+  /**
+   * Loads the text units after a cursor position and extracts their term matches. This only reads
+   * from the database and can run while the previous batch is being written.
+   */
+  private PreparedBatch prepareBatch(
+      Long repositoryId,
+      CursorPosition cursorPosition,
       int batchSize,
       GlossaryDictionary glossaryDictionary) {
+    List<TMTextUnit> textUnits =
+        Objects.requireNonNull(
+            transactionTemplate.execute(
+                status -> loadNextBatch(repositoryId, cursorPosition, batchSize)));
+
+    List<TextUnitMatches> textUnitMatches = new ArrayList<>(textUnits.size());
+    for (TMTextUnit textUnit : textUnits) {
+      textUnitMatches.add(
+          new TextUnitMatches(
+              textUnit,
+              sourceHash(textUnit.getContent()),
+              extractTermMatches(textUnit.getContent(), glossaryDictionary)));
+    }
+    return new PreparedBatch(textUnitMatches);
+  }
+
+  private BatchRefreshResult writeBatch(
+      RepositoryLease lease, boolean fullRefresh, PreparedBatch preparedBatch) {
     return Objects.requireNonNull(
         transactionTemplate.execute(
             status -> {
-              TermIndexRepositoryCursor cursor = findCursorForLease(lease);
+              findCursorForLease(lease);
               Repository repository =
                   repositoryRepository
                       .findById(lease.repositoryId())
@@ -388,24 +551,21 @@ public class TermIndexRefreshService {
                           () ->
                               new IllegalArgumentException(
                                   "Unknown repository: " + lease.repositoryId()));
-              List<TMTextUnit> textUnits = loadNextBatch(repository.getId(), cursor, batchSize);
-              if (textUnits.isEmpty()) {
-                return BatchRefreshResult.empty();
-              }
+              List<TextUnitMatches> textUnitMatches = preparedBatch.textUnitMatches();
 
               Set<Long> affectedEntryIds = new LinkedHashSet<>();
               if (!fullRefresh) {
-                List<Long> textUnitIds = textUnits.stream().map(TMTextUnit::getId).toList();
+                List<Long> textUnitIds =
+                    textUnitMatches.stream().map(matches -> matches.textUnit().getId()).toList();
                 affectedEntryIds.addAll(
                     termIndexOccurrenceRepository
                         .findDistinctTermIndexExtractedTermIdsByTmTextUnitIdIn(textUnitIds));
                 termIndexOccurrenceRepository.deleteByTmTextUnitIdIn(textUnitIds);
               }
 
-              long occurrenceCount =
-                  indexTextUnits(repository, textUnits, affectedEntryIds, glossaryDictionary);
+              long occurrenceCount = indexTextUnits(repository, textUnitMatches, affectedEntryIds);
               stageAffectedEntries(lease.refreshRunId(), affectedEntryIds);
-              TMTextUnit lastTextUnit = textUnits.getLast();
+              TMTextUnit lastTextUnit = textUnitMatches.getLast().textUnit();
               assertLeaseUpdated(
                   termIndexRepositoryCursorRepository.checkpointLease(
                       lease.repositoryId(),
@@ -414,7 +574,8 @@ public class TermIndexRefreshService {
                       lastTextUnit.getId(),
                       nextLeaseExpiresAt()),
                   lease);
-              return new BatchRefreshResult(textUnits.size(), occurrenceCount);
+              return new BatchRefreshResult(
+                  textUnitMatches.size(), occurrenceCount, affectedEntryIds);
             }));
   }
 
@@ -504,15 +665,13 @@ public class TermIndexRefreshService {
   }
 
   private long indexTextUnits(
-      Repository repository,
-      List<TMTextUnit> textUnits,
-      Set<Long> affectedEntryIds,
-      GlossaryDictionary glossaryDictionary) {
+      Repository repository, List<TextUnitMatches> textUnitMatches, Set<Long> affectedEntryIds) {
     List<TermIndexOccurrence> occurrences = new ArrayList<>();
     String sourceLocaleTag = sourceLocaleTag(repository);
 
-    for (TMTextUnit textUnit : textUnits) {
-      for (TermMatch match : extractTermMatches(textUnit.getContent(), glossaryDictionary)) {
+    for (TextUnitMatches textUnitMatch : textUnitMatches) {
+      TMTextUnit textUnit = textUnitMatch.textUnit();
+      for (TermMatch match : textUnitMatch.termMatches()) {
         String normalizedKey = match.normalizedKey();
         if (normalizedKey == null) {
           continue;
@@ -529,7 +688,7 @@ public class TermIndexRefreshService {
         occurrence.setMatchedText(match.matchedText());
         occurrence.setStartIndex(match.startIndex());
         occurrence.setEndIndex(match.endIndex());
-        occurrence.setSourceHash(sourceHash(textUnit.getContent()));
+        occurrence.setSourceHash(textUnitMatch.sourceHash());
         occurrence.setExtractorId(match.extractorId());
         occurrence.setExtractionMethod(match.extractionMethod());
         occurrence.setConfidence(match.confidence());
@@ -552,17 +711,60 @@ public class TermIndexRefreshService {
     if (glossaries == null || glossaries.isEmpty()) {
       return GlossaryDictionary.empty();
     }
+    List<Long> glossaryIds =
+        glossaries.stream()
+            .filter(Objects::nonNull)
+            .map(Glossary::getId)
+            .filter(Objects::nonNull)
+            .toList();
+    if (glossaryIds.isEmpty()) {
+      return GlossaryDictionary.empty();
+    }
 
-    Map<String, DictionaryTerm> caseInsensitiveTermsByNormalizedKey = new LinkedHashMap<>();
-    Map<String, DictionaryTerm> caseSensitiveTermsByCaseKey = new LinkedHashMap<>();
-    int maxTokenCount = 0;
+    return glossaryDictionaryCache.get(
+        glossaryDictionaryVersion(glossaryIds), version -> buildGlossaryDictionary(glossaryIds));
+  }
 
-    for (Glossary glossary : glossaries) {
-      if (glossary == null || glossary.getId() == null) {
-        continue;
-      }
+  /**
+   * The version of the dictionary of a list of glossaries. Term metadata is audited and the terms
+   * (text units) are immutable, so the count and last modification of the terms change whenever a
+   * term is added, removed or updated.
+   */
+  private GlossaryDictionaryVersion glossaryDictionaryVersion(List<Long> glossaryIds) {
+    Map<Long, GlossaryTermMetadataRepository.GlossaryTermsVersionRow> rowsByGlossaryId =
+        new LinkedHashMap<>();
+    List<GlossaryTermMetadataRepository.GlossaryTermsVersionRow> rows =
+        glossaryTermMetadataRepository.findTermsVersionByGlossaryIdIn(glossaryIds);
+    if (rows != null) {
+      rows.forEach(row -> rowsByGlossaryId.put(row.getGlossaryId(), row));
+    }
+
+    List<GlossaryTermsVersion> glossaryTermsVersions = new ArrayList<>();
+    for (Long glossaryId : glossaryIds) {
+      GlossaryTermMetadataRepository.GlossaryTermsVersionRow row = rowsByGlossaryId.get(glossaryId);
+      glossaryTermsVersions.add(
+          row == null
+              ? new GlossaryTermsVersion(glossaryId, 0, null)
+              : new GlossaryTermsVersion(
+                  glossaryId,
+                  row.getTermCount() == null ? 0 : row.getTermCount(),
+                  row.getLastModifiedDate() == null
+                      ? null
+                      : row.getLastModifiedDate().toInstant()));
+    }
+    return new GlossaryDictionaryVersion(glossaryTermsVersions);
+  }
+
+  private GlossaryDictionary buildGlossaryDictionary(List<Long> glossaryIds) {
+    TokenAhoCorasick.Builder<DictionaryTerm> caseSensitiveMatcherBuilder =
+        TokenAhoCorasick.builder();
+    TokenAhoCorasick.Builder<DictionaryTerm> caseInsensitiveMatcherBuilder =
+        TokenAhoCorasick.builder();
+    int termCount = 0;
+
+    for (Long glossaryId : glossaryIds) {
       List<GlossaryTermMetadata> metadataRows =
-          glossaryTermMetadataRepository.findByGlossaryId(glossary.getId());
+          glossaryTermMetadataRepository.findByGlossaryId(glossaryId);
       if (metadataRows == null) {
         continue;
       }
@@ -572,26 +774,27 @@ public class TermIndexRefreshService {
           continue;
         }
 
-        Map<String, DictionaryTerm> termsByKey =
-            dictionaryTerm.caseSensitive()
-                ? caseSensitiveTermsByCaseKey
-                : caseInsensitiveTermsByNormalizedKey;
-        String key =
+        boolean added =
             dictionaryTerm.caseSensitive()
-                ? dictionaryTerm.caseSensitiveKey()
-                : dictionaryTerm.normalizedKey();
-        if (!termsByKey.containsKey(key)) {
-          termsByKey.put(key, dictionaryTerm);
-          maxTokenCount = Math.max(maxTokenCount, dictionaryTerm.tokenCount());
+                ? caseSensitiveMatcherBuilder.add(
+                    List.of(dictionaryTerm.caseSensitiveKey().split(" ")), dictionaryTerm)
+                : caseInsensitiveMatcherBuilder.add(
+                    List.of(dictionaryTerm.normalizedKey().split(" ")), dictionaryTerm);
+        if (added) {
+          termCount++;
         }
       }
     }
 
-    if (maxTokenCount == 0) {
+    if (termCount == 0) {
       return GlossaryDictionary.empty();
     }
+    logger.debug(
+        "Built glossary dictionary automaton: glossaryIds={}, termCount={}",
+        glossaryIds,
+        termCount);
     return new GlossaryDictionary(
-        caseInsensitiveTermsByNormalizedKey, caseSensitiveTermsByCaseKey, maxTokenCount);
+        caseSensitiveMatcherBuilder.build(), caseInsensitiveMatcherBuilder.build());
   }
 
   private DictionaryTerm toDictionaryTerm(GlossaryTermMetadata metadata) {
@@ -656,7 +859,28 @@ public class TermIndexRefreshService {
     termIndexRefreshRunEntryRepository.insertEntries(refreshRunId, termIndexExtractedTermIds);
   }
 
-  private long recomputeAggregatesForRefreshRun(Long refreshRunId, int batchSize) {
+  /**
+   * Updates the aggregates of the entries affected by a batch once it is committed. Entries also
+   * affected by another repository of the run are skipped: a concurrent worker may not have
+   * committed its occurrences yet, they are recomputed when all the repositories are done.
+   */
+  private void updateAggregatesForBatch(
+      Long repositoryId, Collection<Long> affectedEntryIds, RefreshRunState refreshRunState) {
+    List<Long> termIndexExtractedTermIds =
+        refreshRunState.recordAggregatedEntries(repositoryId, affectedEntryIds);
+    if (termIndexExtractedTermIds.isEmpty()) {
+      return;
+    }
+    transactionTemplate.executeWithoutResult(status -> updateAggregates(termIndexExtractedTermIds));
+  }
+
+  /**
+   * Recomputes the aggregates of the entries of the run that were not updated incrementally:
+   * entries affected by several repositories and entries staged by a full refresh that no batch
+   * touched.
+   */
+  private long recomputeAggregatesForRefreshRun(RefreshRunState refreshRunState, int batchSize) {
+    Long refreshRunId = refreshRunState.refreshRunId();
     long extractedTermCount = countAffectedEntries(refreshRunId);
     Long afterTermIndexExtractedTermId = 0L;
 
@@ -667,8 +891,14 @@ public class TermIndexRefreshService {
         break;
       }
 
-      transactionTemplate.executeWithoutResult(
-          status -> updateAggregates(termIndexExtractedTermIds));
+      List<Long> staleTermIndexExtractedTermIds =
+          termIndexExtractedTermIds.stream()
+              .filter(id -> !refreshRunState.isAggregated(id))
+              .toList();
+      if (!staleTermIndexExtractedTermIds.isEmpty()) {
+        transactionTemplate.executeWithoutResult(
+            status -> updateAggregates(staleTermIndexExtractedTermIds));
+      }
       afterTermIndexExtractedTermId = termIndexExtractedTermIds.getLast();
     }
 
@@ -706,9 +936,10 @@ public class TermIndexRefreshService {
   }
 
   private List<TMTextUnit> loadNextBatch(
-      Long repositoryId, TermIndexRepositoryCursor cursor, int batchSize) {
-    ZonedDateTime afterCreatedAt = cursor.getLastProcessedCreatedAt();
-    Long afterTextUnitId = afterCreatedAt == null ? null : cursor.getLastProcessedTmTextUnitId();
+      Long repositoryId, CursorPosition cursorPosition, int batchSize) {
+    ZonedDateTime afterCreatedAt = cursorPosition.lastProcessedCreatedAt();
+    Long afterTextUnitId =
+        afterCreatedAt == null ? null : cursorPosition.lastProcessedTmTextUnitId();
     return tmTextUnitRepository.findUsedTextUnitsForTermIndexRefresh(
         repositoryId,
         afterCreatedAt,
@@ -729,17 +960,25 @@ public class TermIndexRefreshService {
             }));
   }
 
+  /**
+   * Adds the counts of a batch to the run and saves the totals. Workers serialize the updates so
+   * that the saved progress never goes backward.
+   */
   private void updateRefreshRunProgress(
-      Long refreshRunId, long processedTextUnitCount, long occurrenceCount) {
-    transactionTemplate.executeWithoutResult(
-        status -> {
-          TermIndexRefreshRun refreshRun = findRefreshRun(refreshRunId);
-          refreshRun.setProcessedTextUnitCount(processedTextUnitCount);
-          refreshRun.setOccurrenceCount(occurrenceCount);
-          refreshRun.setExtractedTermCount(
-              termIndexRefreshRunEntryRepository.countByRefreshRunId(refreshRunId));
-          termIndexRefreshRunRepository.save(refreshRun);
-        });
+      RefreshRunState refreshRunState, long processedTextUnitCount, long occurrenceCount) {
+    synchronized (refreshRunState) {
+      refreshRunState.addProgress(processedTextUnitCount, occurrenceCount);
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            TermIndexRefreshRun refreshRun = findRefreshRun(refreshRunState.refreshRunId());
+            refreshRun.setProcessedTextUnitCount(refreshRunState.processedTextUnitCount());
+            refreshRun.setOccurrenceCount(refreshRunState.occurrenceCount());
+            refreshRun.setExtractedTermCount(
+                termIndexRefreshRunEntryRepository.countByRefreshRunId(
+                    refreshRunState.refreshRunId()));
+            termIndexRefreshRunRepository.save(refreshRun);
+          });
+    }
   }
 
   private TermIndexRefreshRun completeRefreshRun(
@@ -886,6 +1125,11 @@ public class TermIndexRefreshService {
     }
   }
 
+  /**
+   * Finds the glossary terms in the source in a single pass over its tokens. Case sensitive terms
+   * are collected first so they take precedence over a case insensitive term with the same key on
+   * the same span.
+   */
   private void collectGlossaryDictionaryMatches(
       Map<String, TermMatch> matchesBySpanAndMethod,
       String source,
@@ -894,36 +1138,33 @@ public class TermIndexRefreshService {
       return;
     }
     List<SourceToken> tokens = tokenizeForDictionary(source);
-    for (int startTokenIndex = 0; startTokenIndex < tokens.size(); startTokenIndex++) {
-      StringBuilder normalizedKey = new StringBuilder();
-      StringBuilder caseSensitiveKey = new StringBuilder();
-      int maxEndTokenIndex =
-          Math.min(tokens.size(), startTokenIndex + glossaryDictionary.maxTokenCount());
-      for (int endTokenIndex = startTokenIndex; endTokenIndex < maxEndTokenIndex; endTokenIndex++) {
-        SourceToken token = tokens.get(endTokenIndex);
-        if (endTokenIndex > startTokenIndex) {
-          normalizedKey.append(' ');
-          caseSensitiveKey.append(' ');
-        }
-        normalizedKey.append(token.text().toLowerCase(Locale.ROOT));
-        caseSensitiveKey.append(token.text());
-
-        int startIndex = tokens.get(startTokenIndex).startIndex();
-        int endIndex = token.endIndex();
-        String matchedText = source.substring(startIndex, endIndex);
-        addGlossaryDictionaryMatch(
-            matchesBySpanAndMethod,
-            glossaryDictionary.caseSensitiveTermsByCaseKey().get(caseSensitiveKey.toString()),
-            matchedText,
-            startIndex,
-            endIndex);
-        addGlossaryDictionaryMatch(
-            matchesBySpanAndMethod,
-            glossaryDictionary.caseInsensitiveTermsByNormalizedKey().get(normalizedKey.toString()),
-            matchedText,
-            startIndex,
-            endIndex);
-      }
+    if (tokens.isEmpty()) {
+      return;
+    }
+
+    TokenAhoCorasick.MatchConsumer<DictionaryTerm> addMatch =
+        (startTokenIndex, endTokenIndex, dictionaryTerm) -> {
+          int startIndex = tokens.get(startTokenIndex).startIndex();
+          int endIndex = tokens.get(endTokenIndex - 1).endIndex();
+          addGlossaryDictionaryMatch(
+              matchesBySpanAndMethod,
+              dictionaryTerm,
+              source.substring(startIndex, endIndex),
+              startIndex,
+              endIndex);
+        };
+
+    if (!glossaryDictionary.caseSensitiveMatcher().isEmpty()) {
+      glossaryDictionary
+          .caseSensitiveMatcher()
+          .forEachMatch(tokens.stream().map(SourceToken::text).toList(), addMatch);
+    }
+    if (!glossaryDictionary.caseInsensitiveMatcher().isEmpty()) {
+      glossaryDictionary
+          .caseInsensitiveMatcher()
+          .forEachMatch(
+              tokens.stream().map(token -> token.text().toLowerCase(Locale.ROOT)).toList(),
+              addMatch);
     }
   }
 
@@ -993,11 +1234,13 @@ public class TermIndexRefreshService {
       return null;
     }
     normalized =
-        normalized
-            .toLowerCase(Locale.ROOT)
-            .replaceAll("[^\\p{L}\\p{N}]+", " ")
-            .trim()
-            .replaceAll("\\s+", " ");
+        WHITESPACE_PATTERN
+            .matcher(
+                NON_TOKEN_PATTERN
+                    .matcher(normalized.toLowerCase(Locale.ROOT))
+                    .replaceAll(" ")
+                    .trim())
+            .replaceAll(" ");
     return normalized.isBlank() ? null : normalized;
   }
 
@@ -1006,7 +1249,10 @@ public class TermIndexRefreshService {
     if (normalized == null) {
       return null;
     }
-    normalized = normalized.replaceAll("[^\\p{L}\\p{N}]+", " ").trim().replaceAll("\\s+", " ");
+    normalized =
+        WHITESPACE_PATTERN
+            .matcher(NON_TOKEN_PATTERN.matcher(normalized).replaceAll(" ").trim())
+            .replaceAll(" ");
     return normalized.isBlank() ? null : normalized;
   }
 
@@ -1093,10 +1339,96 @@ public class TermIndexRefreshService {
 
   private record RepositoryRefreshResult(long processedTextUnitCount, long occurrenceCount) {}
 
-  private record BatchRefreshResult(long processedTextUnitCount, long occurrenceCount) {
+  private record BatchRefreshResult(
+      long processedTextUnitCount, long occurrenceCount, Set<Long> affectedEntryIds) {}
+
+  private record CursorPosition(
+      ZonedDateTime lastProcessedCreatedAt, Long lastProcessedTmTextUnitId) {}
+
+  private record TextUnitMatches(
+      TMTextUnit textUnit, String sourceHash, List<TermMatch> termMatches) {}
+
+  private record PreparedBatch(List<TextUnitMatches> textUnitMatches) {
+
+    private CursorPosition nextCursorPosition() {
+      TMTextUnit lastTextUnit = textUnitMatches.getLast().textUnit();
+      return new CursorPosition(lastTextUnit.getCreatedDate(), lastTextUnit.getId());
+    }
+  }
+
+  /**
+   * State of a refresh run shared by the repository workers: progress totals, cancellation after a
+   * failure and the entries whose aggregates were updated incrementally.
+   */
+  private static final class RefreshRunState {
+
+    private static final Long SEVERAL_REPOSITORIES = -1L;
+
+    private final Long refreshRunId;
+    private final AtomicLong processedTextUnitCount = new AtomicLong();
+    private final AtomicLong occurrenceCount = new AtomicLong();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final Map<Long, Long> repositoryIdsByAggregatedEntryId = new ConcurrentHashMap<>();
+
+    private RefreshRunState(Long refreshRunId) {
+      this.refreshRunId = refreshRunId;
+    }
+
+    private Long refreshRunId() {
+      return refreshRunId;
+    }
+
+    private long processedTextUnitCount() {
+      return processedTextUnitCount.get();
+    }
+
+    private long occurrenceCount() {
+      return occurrenceCount.get();
+    }
+
+    private void addProgress(long processedTextUnitCount, long occurrenceCount) {
+      this.processedTextUnitCount.addAndGet(processedTextUnitCount);
+      this.occurrenceCount.addAndGet(occurrenceCount);
+    }
+
+    private void cancel() {
+      cancelled.set(true);
+    }
 
-    private static BatchRefreshResult empty() {
-      return new BatchRefreshResult(0, 0);
+    private boolean isCancelled() {
+      return cancelled.get();
+    }
+
+    private void assertNotCancelled() {
+      if (isCancelled()) {
+        throw new IllegalStateException(
+            "Term index refresh cancelled, another repository failed: " + refreshRunId);
+      }
+    }
+
+    /**
+     * Records the entries affected by a repository and returns, sorted, the ones that no other
+     * repository of the run affected.
+     */
+    private List<Long> recordAggregatedEntries(Long repositoryId, Collection<Long> entryIds) {
+      return entryIds.stream()
+          .filter(
+              entryId ->
+                  !SEVERAL_REPOSITORIES.equals(
+                      repositoryIdsByAggregatedEntryId.merge(
+                          entryId,
+                          repositoryId,
+                          (previousRepositoryId, currentRepositoryId) ->
+                              previousRepositoryId.equals(currentRepositoryId)
+                                  ? previousRepositoryId
+                                  : SEVERAL_REPOSITORIES)))
+          .sorted()
+          .toList();
+    }
+
+    private boolean isAggregated(Long entryId) {
+      Long repositoryId = repositoryIdsByAggregatedEntryId.get(entryId);
+      return repositoryId != null && !SEVERAL_REPOSITORIES.equals(repositoryId);
     }
   }
 
@@ -1111,19 +1443,27 @@ public class TermIndexRefreshService {
       int confidence) {}
 
   private record GlossaryDictionary(
-      Map<String, DictionaryTerm> caseInsensitiveTermsByNormalizedKey,
-      Map<String, DictionaryTerm> caseSensitiveTermsByCaseKey,
-      int maxTokenCount) {
+      TokenAhoCorasick<DictionaryTerm> caseSensitiveMatcher,
+      TokenAhoCorasick<DictionaryTerm> caseInsensitiveMatcher) {
+
+    private static final GlossaryDictionary EMPTY =
+        new GlossaryDictionary(
+            TokenAhoCorasick.<DictionaryTerm>builder().build(),
+            TokenAhoCorasick.<DictionaryTerm>builder().build());
 
     private static GlossaryDictionary empty() {
-      return new GlossaryDictionary(Map.of(), Map.of(), 0);
+      return EMPTY;
     }
 
     private boolean isEmpty() {
-      return maxTokenCount == 0;
+      return caseSensitiveMatcher.isEmpty() && caseInsensitiveMatcher.isEmpty();
     }
   }
 
+  private record GlossaryDictionaryVersion(List<GlossaryTermsVersion> glossaryTermsVersions) {}
+
+  private record GlossaryTermsVersion(Long glossaryId, long termCount, Instant lastModifiedDate) {}
+
   private record DictionaryTerm(
       String displayTerm,
       String normalizedKey,
@@ -0,0 +1,174 @@
+package com.box.l10n.mojito.service.glossary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over tokens: finds all the occurrences of a set of token sequences in a
+ * sequence of tokens in a single pass, whatever the number of sequences.
+ *
+ * <p>Tokens are compared with {@link String#equals}, callers normalize them (eg. lower case) before
+ * adding sequences and before matching. Tokens that are not part of any sequence reset the
+ * automaton without looking at the transitions.
+ *
+ * <p>Instances are immutable once built and can be shared between threads.
+ */
+public class TokenAhoCorasick<T> {
+
+  private static final int ROOT = 0;
+  private static final int NONE = -1;
+
+  private final Map<String, Integer> tokenIds;
+  private final Map<Long, Integer> transitions;
+  private final int[] depths;
+  private final int[] failures;
+  private final int[] outputLinks;
+  private final Object[] values;
+
+  private TokenAhoCorasick(Builder<T> builder) {
+    this.tokenIds = new HashMap<>(builder.tokenIds);
+    this.transitions = new HashMap<>(builder.transitions);
+    this.depths = builder.depths.stream().mapToInt(Integer::intValue).toArray();
+    this.values = builder.values.toArray();
+    this.failures = new int[depths.length];
+    this.outputLinks = new int[depths.length];
+    computeFailuresAndOutputLinks(builder.children, builder.edgeTokenIds);
+  }
+
+  public static <T> Builder<T> builder() {
+    return new Builder<>();
+  }
+
+  public boolean isEmpty() {
+    return depths.length == 1;
+  }
+
+  /**
+   * Finds all the occurrences of the sequences in the tokens, including overlapping ones.
+   *
+   * <p>Matches are reported by increasing end token index and, for a given end, from the longest to
+   * the shortest sequence.
+   */
+  @SuppressWarnings("unchecked")
+  public void forEachMatch(List<String> tokens, MatchConsumer<T> matchConsumer) {
+    int state = ROOT;
+    for (int tokenIndex = 0; tokenIndex < tokens.size(); tokenIndex++) {
+      Integer tokenId = tokenIds.get(tokens.get(tokenIndex));
+      if (tokenId == null) {
+        state = ROOT;
+        continue;
+      }
+
+      state = next(state, tokenId);
+
+      for (int output = values[state] != null ? state : outputLinks[state];
+          output != NONE;
+          output = outputLinks[output]) {
+        matchConsumer.accept(tokenIndex + 1 - depths[output], tokenIndex + 1, (T) values[output]);
+      }
+    }
+  }
+
+  private int next(int state, int tokenId) {
+    while (true) {
+      Integer nextState = transitions.get(transitionKey(state, tokenId));
+      if (nextState != null) {
+        return nextState;
+      }
+      if (state == ROOT) {
+        return ROOT;
+      }
+      state = failures[state];
+    }
+  }
+
+  /**
+   * Computes the failure of each state (the longest proper suffix that is also a state) and its
+   * output link (the longest such suffix that ends a sequence). States are visited breadth first so
+   * that shallower states are always computed first.
+   */
+  private void computeFailuresAndOutputLinks(
+      List<List<Integer>> children, List<Integer> edgeTokenIds) {
+    Arrays.fill(outputLinks, NONE);
+    Deque<Integer> queue = new ArrayDeque<>(children.get(ROOT));
+
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      int failure = failures[state];
+      outputLinks[state] = values[failure] != null ? failure : outputLinks[failure];
+
+      for (int child : children.get(state)) {
+        failures[child] = state == ROOT ? ROOT : next(failure, edgeTokenIds.get(child));
+        queue.add(child);
+      }
+    }
+  }
+
+  private static long transitionKey(int state, int tokenId) {
+    return ((long) state << 32) | (tokenId & 0xFFFFFFFFL);
+  }
+
+  @FunctionalInterface
+  public interface MatchConsumer<T> {
+    /**
+     * @param startTokenIndex index of the first token of the match
+     * @param endTokenIndex index after the last token of the match
+     * @param value the value of the matched sequence
+     */
+    void accept(int startTokenIndex, int endTokenIndex, T value);
+  }
+
+  public static class Builder<T> {
+
+    private final Map<String, Integer> tokenIds = new HashMap<>();
+    private final Map<Long, Integer> transitions = new HashMap<>();
+    private final List<Integer> depths = new ArrayList<>(List.of(0));
+    private final List<Object> values = new ArrayList<>(Collections.singletonList(null));
+    private final List<Integer> edgeTokenIds = new ArrayList<>(List.of(NONE));
+    private final List<List<Integer>> children = new ArrayList<>(List.of(new ArrayList<>()));
+
+    /**
+     * Adds a token sequence. If the same sequence is added several times, the first value is kept.
+     *
+     * @return true if the sequence was added
+     */
+    public boolean add(List<String> tokens, T value) {
+      if (tokens.isEmpty()) {
+        return false;
+      }
+
+      int state = ROOT;
+      for (String token : tokens) {
+        int tokenId = tokenIds.computeIfAbsent(token, t -> tokenIds.size());
+        long key = transitionKey(state, tokenId);
+        Integer nextState = transitions.get(key);
+        if (nextState == null) {
+          nextState = depths.size();
+          transitions.put(key, nextState);
+          depths.add(depths.get(state) + 1);
+          values.add(null);
+          edgeTokenIds.add(tokenId);
+          children.add(new ArrayList<>());
+          children.get(state).add(nextState);
+        }
+        state = nextState;
+      }
+
+      if (values.get(state) != null) {
+        return false;
+      }
+      values.set(state, value);
+      return true;
+    }
+
+    public TokenAhoCorasick<T> build() {
+      return new TokenAhoCorasick<>(this);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.box.l10n.mojito.service.hybrid;
+
+import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.time.Duration;
+import java.util.function.Predicate;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * Describes an endpoint served by the {@link HybridQueryEngine}.
+ *
+ * @param name identifies the endpoint, its in-flight queries and its result cache
+ * @param prefix where results are persisted for the asynchronous fallback
+ * @param executor runs the queries of the endpoint, its pool size and queue capacity are the
+ *     concurrency budget of the endpoint
+ * @param resultType type of the results, to read them back when polling
+ * @param convertToAsyncAfter how long to wait for a result before returning a polling token
+ * @param resultCacheTtl how long results are reused for identical queries, zero to disable
+ * @param maxInFlightQueries distinct queries allowed to run or wait in the executor, beyond which
+ *     new queries are rejected
+ * @param userScoped if results depend on the current user, so that they are never shared between
+ *     users
+ * @param expectedError errors that are caused by the query and not by the server
+ */
+public record HybridQueryEndpoint<T>(
+    String name,
+    StructuredBlobStorage.Prefix prefix,
+    AsyncTaskExecutor executor,
+    TypeReference<T> resultType,
+    Duration convertToAsyncAfter,
+    Duration resultCacheTtl,
+    int maxInFlightQueries,
+    boolean userScoped,
+    Predicate<Throwable> expectedError) {}
@@ -0,0 +1,393 @@
+package com.box.l10n.mojito.service.hybrid;
+
+import com.box.l10n.mojito.json.ObjectMapper;
+import com.box.l10n.mojito.service.blobstorage.Retention;
+import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import com.box.l10n.mojito.utils.BytesGZIP;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs queries that return synchronously when they complete quickly and fall back to polling when
+ * they are slow.
+ *
+ * <p>Queries are identified by a canonical key: a hash of the endpoint, of the JSON of the query
+ * with sorted fields and without nulls, of the storage scope and, for user scoped endpoints, of the
+ * current username. Identical queries received while one is running join it instead of running
+ * again, they share its result and, if they time out, its polling request id. Completed results can
+ * be reused for a short time, see {@link HybridQueryEndpoint#resultCacheTtl()}.
+ *
+ * <p>Each endpoint keeps its own executor as concurrency budget. The number of distinct queries in
+ * flight is capped per endpoint and queries above the cap, or rejected by the executor, fail with
+ * {@code 429 Too Many Requests} instead of piling up.
+ *
+ * <p>Results of slow queries, or of queries whose caller already got a polling token, are persisted
+ * as GZip compressed JSON for the polling endpoint. Results persisted uncompressed are still read.
+ */
+@Component
+public class HybridQueryEngine {
+
+  static Logger logger = LoggerFactory.getLogger(HybridQueryEngine.class);
+
+  static final String METRIC_QUERIES = "HybridQueryEngine.queries";
+
+  static final int RESULT_CACHE_MAX_SIZE = 100;
+
+  private final StructuredBlobStorage structuredBlobStorage;
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, EndpointState> endpointStates = new ConcurrentHashMap<>();
+
+  record StoredResult<T>(T results, HybridQueryResult.Error error) {}
+
+  static class EndpointState {
+    final Map<String, InFlightQuery> inFlightQueries = new ConcurrentHashMap<>();
+    final Cache<String, Object> resultCache;
+
+    EndpointState(HybridQueryEndpoint<?> endpoint) {
+      this.resultCache =
+          endpoint.resultCacheTtl().isZero() || endpoint.resultCacheTtl().isNegative()
+              ? null
+              : Caffeine.newBuilder()
+                  .maximumSize(RESULT_CACHE_MAX_SIZE)
+                  .expireAfterWrite(endpoint.resultCacheTtl())
+                  .build();
+    }
+  }
+
+  /**
+   * Whether the result of a query must be persisted, decided once by whichever comes first: a
+   * caller that times out and hands out the polling request id, or the query completing.
+   */
+  enum PersistenceState {
+    RUNNING,
+    /** A caller got the request id, the result must be persisted */
+    POLLED,
+    /** Completed before any caller timed out, the result is not persisted */
+    COMPLETED_WITHOUT_PERSISTENCE
+  }
+
+  static class InFlightQuery {
+    final UUID requestId = UUID.randomUUID();
+    final String storageName;
+    final long startedAtNanos = System.nanoTime();
+    final AtomicReference<PersistenceState> persistenceState =
+        new AtomicReference<>(PersistenceState.RUNNING);
+    final CompletableFuture<Object> future = new CompletableFuture<>();
+
+    InFlightQuery(String storageScope) {
+      this.storageName = getStorageName(storageScope, requestId);
+    }
+  }
+
+  public HybridQueryEngine(
+      StructuredBlobStorage structuredBlobStorage,
+      @Qualifier("fail_on_unknown_properties_false") ObjectMapper objectMapper,
+      MeterRegistry meterRegistry) {
+    this.structuredBlobStorage = Objects.requireNonNull(structuredBlobStorage);
+    this.objectMapper = Objects.requireNonNull(objectMapper);
+    this.meterRegistry = Objects.requireNonNull(meterRegistry);
+  }
+
+  public <T> HybridQueryResult<T> execute(
+      HybridQueryEndpoint<T> endpoint, Object query, Callable<T> task) {
+    return execute(endpoint, null, query, task);
+  }
+
+  /**
+   * Runs the query, or joins the identical query in flight, and waits for its result up to {@link
+   * HybridQueryEndpoint#convertToAsyncAfter()}.
+   *
+   * @param storageScope optional path under which the result is persisted, it must then be passed
+   *     to {@link #getResult(HybridQueryEndpoint, String, UUID)} too
+   * @param query what the result depends on, serialized to JSON to compute the query key
+   * @return the results, or the request id to poll if the query did not complete in time
+   * @throws ResponseStatusException with {@code 429} if the endpoint is over budget, or the
+   *     exception thrown by the task, wrapped in an {@link UncheckedExecutionException} if checked
+   */
+  public <T> HybridQueryResult<T> execute(
+      HybridQueryEndpoint<T> endpoint, String storageScope, Object query, Callable<T> task) {
+    String queryKey = getQueryKey(endpoint, storageScope, query);
+    EndpointState endpointState =
+        endpointStates.computeIfAbsent(endpoint.name(), name -> new EndpointState(endpoint));
+
+    if (endpointState.resultCache != null) {
+      @SuppressWarnings("unchecked")
+      T cachedResults = (T) endpointState.resultCache.getIfPresent(queryKey);
+      if (cachedResults != null) {
+        countQuery(endpoint, "cache_hit");
+        return HybridQueryResult.completed(cachedResults);
+      }
+    }
+
+    InFlightQuery newQuery = new InFlightQuery(storageScope);
+    InFlightQuery inFlightQuery = endpointState.inFlightQueries.putIfAbsent(queryKey, newQuery);
+
+    if (inFlightQuery == null) {
+      inFlightQuery = newQuery;
+      if (endpointState.inFlightQueries.size() > endpoint.maxInFlightQueries()) {
+        reject(endpoint, endpointState, queryKey, newQuery);
+      }
+      submit(endpoint, endpointState, queryKey, newQuery, task);
+      countQuery(endpoint, "executed");
+    } else {
+      countQuery(endpoint, "joined");
+    }
+
+    return await(endpoint, inFlightQuery);
+  }
+
+  public <T> HybridQueryResult<T> getResult(HybridQueryEndpoint<T> endpoint, UUID requestId) {
+    return getResult(endpoint, null, requestId);
+  }
+
+  /**
+   * Reads the persisted result of a query that did not complete synchronously.
+   *
+   * @return the results or the error, or the request id again if the query is still running
+   */
+  public <T> HybridQueryResult<T> getResult(
+      HybridQueryEndpoint<T> endpoint, String storageScope, UUID requestId) {
+    return structuredBlobStorage
+        .getBytes(endpoint.prefix(), getStorageName(storageScope, requestId))
+        .map(bytes -> readStoredResult(endpoint, bytes))
+        .map(
+            storedResult ->
+                storedResult.error() == null
+                    ? HybridQueryResult.completed(storedResult.results())
+                    : HybridQueryResult.<T>failed(storedResult.error()))
+        .orElseGet(() -> HybridQueryResult.pending(requestId));
+  }
+
+  String getQueryKey(HybridQueryEndpoint<?> endpoint, String storageScope, Object query) {
+    String canonicalQuery = canonicalize(objectMapper.valueToTree(query)).toString();
+    return DigestUtils.sha256Hex(
+        String.join(
+            "\n",
+            endpoint.name(),
+            endpoint.userScoped() ? getCurrentUsername() : "",
+            Objects.toString(storageScope, ""),
+            canonicalQuery));
+  }
+
+  /** Sorts object fields and drops null values so that equal queries have the same JSON. */
+  static JsonNode canonicalize(JsonNode jsonNode) {
+    if (jsonNode == null) {
+      return JsonNodeFactory.instance.nullNode();
+    }
+
+    if (jsonNode.isObject()) {
+      List<String> fieldNames = new ArrayList<>();
+      jsonNode.fieldNames().forEachRemaining(fieldNames::add);
+      Collections.sort(fieldNames);
+      ObjectNode canonical = JsonNodeFactory.instance.objectNode();
+      for (String fieldName : fieldNames) {
+        JsonNode value = jsonNode.get(fieldName);
+        if (!value.isNull()) {
+          canonical.set(fieldName, canonicalize(value));
+        }
+      }
+      return canonical;
+    }
+
+    if (jsonNode.isArray()) {
+      ArrayNode canonical = JsonNodeFactory.instance.arrayNode(jsonNode.size());
+      jsonNode.forEach(element -> canonical.add(canonicalize(element)));
+      return canonical;
+    }
+
+    return jsonNode;
+  }
+
+  <T> void submit(
+      HybridQueryEndpoint<T> endpoint,
+      EndpointState endpointState,
+      String queryKey,
+      InFlightQuery inFlightQuery,
+      Callable<T> task) {
+    try {
+      endpoint
+          .executor()
+          .execute(() -> run(endpoint, endpointState, queryKey, inFlightQuery, task));
+    } catch (RejectedExecutionException e) {
+      reject(endpoint, endpointState, queryKey, inFlightQuery);
+    }
+  }
+
+  /** Fails the query for the callers that may have joined it already, and for the caller. */
+  void reject(
+      HybridQueryEndpoint<?> endpoint,
+      EndpointState endpointState,
+      String queryKey,
+      InFlightQuery inFlightQuery) {
+    endpointState.inFlightQueries.remove(queryKey, inFlightQuery);
+    countQuery(endpoint, "rejected");
+    ResponseStatusException tooManyQueries =
+        new ResponseStatusException(
+            HttpStatus.TOO_MANY_REQUESTS, "Too many queries in flight for: " + endpoint.name());
+    inFlightQuery.future.completeExceptionally(tooManyQueries);
+    throw tooManyQueries;
+  }
+
+  <T> void run(
+      HybridQueryEndpoint<T> endpoint,
+      EndpointState endpointState,
+      String queryKey,
+      InFlightQuery inFlightQuery,
+      Callable<T> task) {
+    try {
+      T results = task.call();
+      if (shouldPersist(endpoint, inFlightQuery)) {
+        logger.debug("Query was slow, persist result for polling: {}", endpoint.name());
+        persist(endpoint, inFlightQuery, new StoredResult<>(results, null));
+      }
+      if (endpointState.resultCache != null && results != null) {
+        endpointState.resultCache.put(queryKey, results);
+      }
+      inFlightQuery.future.complete(results);
+    } catch (Throwable t) {
+      if (shouldPersist(endpoint, inFlightQuery)) {
+        try {
+          persist(
+              endpoint,
+              inFlightQuery,
+              new StoredResult<>(
+                  null, HybridQueryResult.Error.from(t, endpoint.expectedError().test(t))));
+        } catch (Exception e) {
+          logger.error("Can't persist the error of query: {}", endpoint.name(), e);
+        }
+      }
+      inFlightQuery.future.completeExceptionally(t);
+    } finally {
+      endpointState.inFlightQueries.remove(queryKey, inFlightQuery);
+    }
+  }
+
+  /**
+   * Waits for the result up to {@link HybridQueryEndpoint#convertToAsyncAfter()}. On time out the
+   * request id is only returned if the query is still running, in which case its result will be
+   * persisted. If the query completed without persisting its result in the meantime, the result is
+   * about to be available and is waited for instead.
+   */
+  <T> HybridQueryResult<T> await(HybridQueryEndpoint<T> endpoint, InFlightQuery inFlightQuery) {
+    try {
+      Object results;
+      try {
+        results =
+            inFlightQuery.future.get(
+                endpoint.convertToAsyncAfter().toNanos(), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        if (markPolled(inFlightQuery)) {
+          return HybridQueryResult.pending(inFlightQuery.requestId);
+        }
+        results = inFlightQuery.future.get();
+      }
+      @SuppressWarnings("unchecked")
+      T typedResults = (T) results;
+      return HybridQueryResult.completed(typedResults);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new UncheckedExecutionException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * @return true if the result will be persisted, false if the query completed without it
+   */
+  boolean markPolled(InFlightQuery inFlightQuery) {
+    return inFlightQuery.persistenceState.compareAndSet(
+            PersistenceState.RUNNING, PersistenceState.POLLED)
+        || inFlightQuery.persistenceState.get() == PersistenceState.POLLED;
+  }
+
+  /**
+   * Called once the query completed, before completing its future. Slow queries are always
+   * persisted, others only if a caller already got the request id. Else the query is marked as
+   * completed so that callers timing out from now on wait for the result instead of polling.
+   */
+  boolean shouldPersist(HybridQueryEndpoint<?> endpoint, InFlightQuery inFlightQuery) {
+    return System.nanoTime() - inFlightQuery.startedAtNanos
+            >= endpoint.convertToAsyncAfter().toNanos()
+        || !inFlightQuery.persistenceState.compareAndSet(
+            PersistenceState.RUNNING, PersistenceState.COMPLETED_WITHOUT_PERSISTENCE);
+  }
+
+  void persist(
+      HybridQueryEndpoint<?> endpoint, InFlightQuery inFlightQuery, StoredResult<?> storedResult) {
+    structuredBlobStorage.putBytes(
+        endpoint.prefix(),
+        inFlightQuery.storageName,
+        BytesGZIP.compress(objectMapper.writeValueAsBytes(storedResult)),
+        Retention.MIN_1_DAY);
+  }
+
+  <T> StoredResult<T> readStoredResult(HybridQueryEndpoint<T> endpoint, byte[] bytes) {
+    JavaType storedResultType =
+        objectMapper
+            .getTypeFactory()
+            .constructParametricType(
+                StoredResult.class,
+                objectMapper.getTypeFactory().constructType(endpoint.resultType()));
+    try {
+      return objectMapper.readValue(BytesGZIP.decompressOrOriginal(bytes), storedResultType);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  void countQuery(HybridQueryEndpoint<?> endpoint, String outcome) {
+    meterRegistry
+        .counter(METRIC_QUERIES, "endpoint", endpoint.name(), "outcome", outcome)
+        .increment();
+  }
+
+  static String getStorageName(String storageScope, UUID requestId) {
+    return storageScope == null ? requestId.toString() : storageScope + "/" + requestId;
+  }
+
+  static String getCurrentUsername() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication == null ? "" : authentication.getName();
+  }
+}
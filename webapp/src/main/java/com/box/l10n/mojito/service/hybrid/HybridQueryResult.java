@@ -0,0 +1,42 @@
+package com.box.l10n.mojito.service.hybrid;
+
+import com.google.common.base.Throwables;
+import java.util.UUID;
+
+/**
+ * Outcome of a hybrid query: the results when the query completed, the request id to poll when it
+ * is still running, or the error when an asynchronous query failed.
+ */
+public record HybridQueryResult<T>(T results, UUID requestId, Error error) {
+
+  public record Error(String type, String message, String stackTrace, boolean expected) {
+
+    static Error from(Throwable throwable, boolean expected) {
+      return new Error(
+          throwable.getClass().getName(),
+          throwable.getMessage(),
+          Throwables.getStackTraceAsString(throwable),
+          expected);
+    }
+  }
+
+  static <T> HybridQueryResult<T> completed(T results) {
+    return new HybridQueryResult<>(results, null, null);
+  }
+
+  static <T> HybridQueryResult<T> pending(UUID requestId) {
+    return new HybridQueryResult<>(null, requestId, null);
+  }
+
+  static <T> HybridQueryResult<T> failed(Error error) {
+    return new HybridQueryResult<>(null, null, error);
+  }
+
+  public boolean isPending() {
+    return requestId != null;
+  }
+
+  public boolean isFailed() {
+    return error != null;
+  }
+}
@@ -3,6 +3,8 @@ package com.box.l10n.mojito.service.image;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.box.l10n.mojito.entity.Image;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Optional;
 import org.slf4j.Logger;
 
@@ -32,24 +34,38 @@ public class BlobStorageFallbackImageService implements ImageService {
   @Override
   public Optional<Image> getImage(String name) {
     logger.debug("Attempt image retrieval from blob storage with name: {}", name);
-    Image image =
-        blobStorageImageService
-            .getImage(name)
-            .orElseGet(
-                () ->
-                    databaseImageService
-                        .getImage(name)
-                        .map(
-                            img -> {
-                              logger.debug(
-                                  "Found image {} in database, triggering async upload to blob storage",
-                                  img.getName());
-                              blobStorageUploadImageAsyncTask.uploadImageToBlobStorage(
-                                  img.getName(), img.getContent());
-                              return img;
-                            })
-                        .orElse(null));
-    return Optional.ofNullable(image);
+    return blobStorageImageService.getImage(name).or(() -> getImageFromDatabase(name));
+  }
+
+  @Override
+  public Optional<ImageMetadata> getImageMetadata(String name) {
+    return blobStorageImageService
+        .getImageMetadata(name)
+        .or(() -> databaseImageService.getImageMetadata(name));
+  }
+
+  @Override
+  public Optional<InputStream> getImageInputStream(String name) {
+    return blobStorageImageService
+        .getImageInputStream(name)
+        .or(
+            () ->
+                getImageFromDatabase(name)
+                    .map(image -> new ByteArrayInputStream(image.getContent())));
+  }
+
+  Optional<Image> getImageFromDatabase(String name) {
+    return databaseImageService
+        .getImage(name)
+        .map(
+            img -> {
+              logger.debug(
+                  "Found image {} in database, triggering async upload to blob storage",
+                  img.getName());
+              blobStorageUploadImageAsyncTask.uploadImageToBlobStorage(
+                  img.getName(), img.getContent());
+              return img;
+            });
   }
 
   @Override
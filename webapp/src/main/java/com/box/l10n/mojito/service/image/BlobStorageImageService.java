@@ -3,15 +3,31 @@ package com.box.l10n.mojito.service.image;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.box.l10n.mojito.entity.Image;
+import com.box.l10n.mojito.json.ObjectMapper;
 import com.box.l10n.mojito.service.blobstorage.BlobStorage;
+import java.io.InputStream;
+import java.time.ZonedDateTime;
 import java.util.Optional;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 
-/** Service to upload and retrieve images from the configured {@link BlobStorage}. */
+/**
+ * Service to upload and retrieve images from the configured {@link BlobStorage}.
+ *
+ * <p>The {@link ImageMetadata} of an image is stored as a JSON blob next to the image, under a
+ * separate path prefix so that it can't clash with image names. The two blobs are not written
+ * atomically, so the metadata blob also keeps the MD5 of the content it was computed from. Readers
+ * compare it with the MD5 kept by the blob storage and rebuild the metadata from the content when
+ * they differ, eg. after an upload that failed or raced with another one after writing the content.
+ */
 public class BlobStorageImageService implements ImageService {
 
   static Logger logger = getLogger(BlobStorageImageService.class);
 
+  static final String METADATA_PATH_SUFFIX = "-metadata";
+
+  static ObjectMapper objectMapper = ObjectMapper.withNoFailOnUnknownProperties();
+
   BlobStorage blobStorage;
 
   String pathPrefix;
@@ -38,13 +54,77 @@ public class BlobStorageImageService implements ImageService {
   public void uploadImage(String name, byte[] content) {
     logger.debug("Upload image to blob storage with name: {}", name);
     blobStorage.put(getPath(name), content);
+    putImageMetadata(content, ImageMetadata.fromContent(name, content, ZonedDateTime.now()));
+  }
+
+  /**
+   * Gets the metadata stored at upload if it matches the current content of the image.
+   *
+   * <p>The content is checked with the MD5 kept by the blob storage, which doesn't require reading
+   * the content for remote backends. Metadata that is missing, eg. for images uploaded before the
+   * metadata was stored, or that doesn't match the content is rebuilt from the content, using the
+   * rebuild time as last modified date.
+   */
+  @Override
+  public Optional<ImageMetadata> getImageMetadata(String name) {
+    Optional<String> contentMd5 = blobStorage.getContentMd5(getPath(name));
+    if (contentMd5.isEmpty()) {
+      return Optional.empty();
+    }
+
+    return blobStorage
+        .getString(getMetadataPath(name))
+        .map(json -> objectMapper.readValueUnchecked(json, StoredImageMetadata.class))
+        .filter(
+            storedImageMetadata ->
+                storedImageMetadata.imageMetadata() != null
+                    && contentMd5.get().equalsIgnoreCase(storedImageMetadata.contentMd5()))
+        .map(StoredImageMetadata::imageMetadata)
+        .or(
+            () ->
+                blobStorage
+                    .getBytes(getPath(name))
+                    .map(
+                        bytes -> {
+                          logger.debug("Rebuild metadata of image with name: {}", name);
+                          ImageMetadata imageMetadata =
+                              ImageMetadata.fromContent(name, bytes, ZonedDateTime.now());
+                          putImageMetadata(bytes, imageMetadata);
+                          return imageMetadata;
+                        }));
+  }
+
+  @Override
+  public Optional<InputStream> getImageInputStream(String name) {
+    return blobStorage.getInputStream(getPath(name));
+  }
+
+  /** Gets the hex MD5 of an image as kept by the blob storage, to verify it without reading it. */
+  public Optional<String> getImageContentMd5(String name) {
+    return blobStorage.getContentMd5(getPath(name));
   }
 
   public boolean imageExists(String name) {
     return blobStorage.exists(getPath(name));
   }
 
+  void putImageMetadata(byte[] content, ImageMetadata imageMetadata) {
+    blobStorage.put(
+        getMetadataPath(imageMetadata.name()),
+        objectMapper.writeValueAsStringUnchecked(
+            new StoredImageMetadata(imageMetadata, DigestUtils.md5Hex(content))));
+  }
+
   String getPath(String name) {
     return pathPrefix + "/" + name;
   }
+
+  String getMetadataPath(String name) {
+    return pathPrefix + METADATA_PATH_SUFFIX + "/" + name;
+  }
+
+  /**
+   * @param contentMd5 hex MD5 of the content the metadata was computed from
+   */
+  record StoredImageMetadata(ImageMetadata imageMetadata, String contentMd5) {}
 }
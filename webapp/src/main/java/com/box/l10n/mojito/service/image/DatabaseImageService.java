@@ -42,7 +42,35 @@ public class DatabaseImageService implements ImageService {
                 });
 
     image.setContent(content);
+    setMetadata(image);
 
     imageRepository.save(image);
   }
+
+  /**
+   * Gets the metadata without loading the image content. Images uploaded before the metadata was
+   * stored are backfilled on first access.
+   */
+  @Override
+  public Optional<ImageMetadata> getImageMetadata(String name) {
+    return imageRepository
+        .findMetadataByName(name)
+        .or(
+            () ->
+                imageRepository
+                    .findByName(name)
+                    .map(
+                        image -> {
+                          logger.debug("Backfill metadata of image with name: {}", name);
+                          setMetadata(image);
+                          return ImageMetadata.fromImage(imageRepository.save(image));
+                        }));
+  }
+
+  void setMetadata(Image image) {
+    ImageMetadata imageMetadata = ImageMetadata.fromImage(image);
+    image.setContentSha256(imageMetadata.contentSha256());
+    image.setContentType(imageMetadata.contentType());
+    image.setContentLength(imageMetadata.contentLength());
+  }
 }
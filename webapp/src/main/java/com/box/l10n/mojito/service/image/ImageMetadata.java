@@ -0,0 +1,60 @@
+package com.box.l10n.mojito.service.image;
+
+import com.box.l10n.mojito.entity.Image;
+import com.box.l10n.mojito.util.ImageBytes;
+import java.time.ZonedDateTime;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Metadata of an image, computed once when the image is uploaded so that it can be served without
+ * reading or sniffing its content.
+ *
+ * @param contentSha256 hex SHA-256 of the content, used as strong ETag
+ * @param contentType content type from the name extension, else from the content magic bytes
+ */
+public record ImageMetadata(
+    String name,
+    String contentSha256,
+    String contentType,
+    long contentLength,
+    ZonedDateTime lastModified) {
+
+  static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
+  static final String APPLICATION_PDF = "application/pdf";
+
+  public static ImageMetadata fromContent(String name, byte[] content, ZonedDateTime lastModified) {
+    return new ImageMetadata(
+        name,
+        DigestUtils.sha256Hex(content),
+        getContentType(name, content),
+        content.length,
+        lastModified);
+  }
+
+  public static ImageMetadata fromImage(Image image) {
+    return fromContent(image.getName(), image.getContent(), image.getLastModifiedDate());
+  }
+
+  static String getContentType(String name, byte[] content) {
+    if (content.length == 0) {
+      return APPLICATION_OCTET_STREAM;
+    }
+
+    String contentType = ImageBytes.fromBytes(name, content).contentType();
+    if (APPLICATION_OCTET_STREAM.equals(contentType) && isPdfContent(content)) {
+      contentType = APPLICATION_PDF;
+    }
+    return contentType;
+  }
+
+  static boolean isPdfContent(byte[] content) {
+    if (content == null || content.length < 5) {
+      return false;
+    }
+    return content[0] == '%'
+        && content[1] == 'P'
+        && content[2] == 'D'
+        && content[3] == 'F'
+        && content[4] == '-';
+  }
+}
@@ -1,30 +1,80 @@
 package com.box.l10n.mojito.service.image;
 
+import static com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage.Prefix.IMAGE_MIGRATION;
+
 import com.box.l10n.mojito.entity.Image;
 import com.box.l10n.mojito.service.blobstorage.BlobStorageRouter;
+import com.box.l10n.mojito.service.blobstorage.Retention;
 import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
 import com.box.l10n.mojito.service.blobstorage.database.DatabaseBlobStorage;
-import java.util.Arrays;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+/**
+ * Migrates images from the database to the remote blob storage.
+ *
+ * <p>Images are processed by pages with bounded parallel workers, up to the batch size of images
+ * scanned per run, whether they are migrated or skipped. Before deleting a source image, the remote
+ * copy is verified with the MD5 digest kept by the blob storage, without reading it back.
+ *
+ * <p>The id of the last image processed is checkpointed in {@link
+ * StructuredBlobStorage.Prefix#IMAGE_MIGRATION} after each page, so that runs resume where the
+ * previous one stopped, on any node. The checkpoint doesn't move past a failed image, which is
+ * retried by the next run. The attempts of failed images are recorded next to the checkpoint: after
+ * the max attempts, an image is given up and the checkpoint moves past it, so that one broken image
+ * doesn't make every run scan the same images again. Given up images stay recorded with their
+ * attempts.
+ *
+ * <p>Runs that copy images and runs that also delete the source have their own checkpoint: images
+ * copied by a previous run must still be scanned to be deleted.
+ */
 @Service
 @ConditionalOnProperty(value = "l10n.image-service.migration.enabled", havingValue = "true")
 public class ImageMigrationService {
 
   private static final Logger logger = LoggerFactory.getLogger(ImageMigrationService.class);
 
+  static final String METRIC_IMAGES = "ImageMigrationService.images";
+  static final String METRIC_CHECKPOINT = "ImageMigrationService.checkpoint";
+  static final String CHECKPOINT_NAME = "last-image-id";
+  static final String DELETE_SOURCE_CHECKPOINT_NAME = "last-deleted-image-id";
+  static final String FAILED_ATTEMPTS_NAME = "failed-image-attempts";
+  static final String DELETE_SOURCE_FAILED_ATTEMPTS_NAME = "failed-deleted-image-attempts";
+
   private final ImageRepository imageRepository;
   private final BlobStorageImageService blobStorageImageService;
+  private final StructuredBlobStorage structuredBlobStorage;
+  private final MeterRegistry meterRegistry;
+  private final int threads;
+  private final int maxAttempts;
+  private final AtomicLong checkpointGauge;
+  private final AtomicLong deleteSourceCheckpointGauge;
 
   public ImageMigrationService(
       ImageRepository imageRepository,
       BlobStorageImageService blobStorageImageService,
-      BlobStorageRouter blobStorageRouter) {
+      BlobStorageRouter blobStorageRouter,
+      StructuredBlobStorage structuredBlobStorage,
+      MeterRegistry meterRegistry,
+      @Value("${l10n.image-service.migration.threads:4}") int threads,
+      @Value("${l10n.image-service.migration.max-attempts:3}") int maxAttempts) {
     if (blobStorageRouter.getBlobStorage(StructuredBlobStorage.Prefix.IMAGE)
         instanceof DatabaseBlobStorage) {
       throw new IllegalStateException(
@@ -32,71 +82,216 @@ public class ImageMigrationService {
     }
     this.imageRepository = imageRepository;
     this.blobStorageImageService = blobStorageImageService;
+    this.structuredBlobStorage = structuredBlobStorage;
+    this.meterRegistry = meterRegistry;
+    this.threads = Math.max(1, threads);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.checkpointGauge =
+        meterRegistry.gauge(METRIC_CHECKPOINT, Tags.of("mode", "copy"), new AtomicLong());
+    this.deleteSourceCheckpointGauge =
+        meterRegistry.gauge(METRIC_CHECKPOINT, Tags.of("mode", "delete"), new AtomicLong());
   }
 
   public Result migrateImages(int batchSize, boolean deleteSource) {
     int normalizedBatchSize = Math.max(1, batchSize);
-    long lastImageId = 0;
+    long checkpoint = getCheckpoint(deleteSource);
+    long lastImageId = checkpoint;
+    Map<Long, Integer> failedAttempts = getFailedAttempts(deleteSource);
+    Map<Long, Integer> savedFailedAttempts = new TreeMap<>(failedAttempts);
+    boolean hasFailedImage = false;
     int scanned = 0;
     int uploaded = 0;
     int deleted = 0;
     int failed = 0;
-    int completed = 0;
-
-    while (completed < normalizedBatchSize) {
-      List<Image> images =
-          imageRepository.findByIdGreaterThanOrderByIdAsc(
-              lastImageId, PageRequest.of(0, normalizedBatchSize));
-      if (images.isEmpty()) {
-        break;
-      }
 
-      for (Image image : images) {
-        lastImageId = image.getId();
-        scanned++;
-        boolean changed = false;
-
-        try {
-          boolean exists = blobStorageImageService.imageExists(image.getName());
-          if (!exists) {
-            blobStorageImageService.uploadImage(image.getName(), image.getContent());
-            uploaded++;
-            changed = true;
-          }
+    logger.info(
+        "Start image migration after image id: {}, delete source: {}", checkpoint, deleteSource);
+    long startMillis = System.currentTimeMillis();
+
+    ExecutorService executorService = Executors.newFixedThreadPool(threads);
+    try {
+      while (scanned < normalizedBatchSize) {
+        List<Image> images =
+            imageRepository.findByIdGreaterThanOrderByIdAsc(
+                lastImageId, PageRequest.of(0, normalizedBatchSize - scanned));
+        if (images.isEmpty()) {
+          break;
+        }
+
+        List<Future<ImageResult>> futures = new ArrayList<>();
+        for (Image image : images) {
+          futures.add(executorService.submit(() -> migrateImage(image, deleteSource)));
+        }
 
-          if (deleteSource) {
-            Image storedImage =
-                blobStorageImageService
-                    .getImage(image.getName())
-                    .orElseThrow(
-                        () ->
-                            new IllegalStateException(
-                                "Migrated image is missing from blob storage: " + image.getName()));
-            if (!Arrays.equals(image.getContent(), storedImage.getContent())) {
-              throw new IllegalStateException(
-                  "Migrated image content does not match the source: " + image.getName());
+        for (int i = 0; i < images.size(); i++) {
+          Long imageId = images.get(i).getId();
+          ImageResult imageResult = getImageResult(futures.get(i));
+          scanned++;
+          uploaded += imageResult.uploaded() ? 1 : 0;
+          deleted += imageResult.deleted() ? 1 : 0;
+
+          boolean givenUp = false;
+          if (imageResult.failed()) {
+            failed++;
+            int attempts = failedAttempts.merge(imageId, 1, Integer::sum);
+            givenUp = attempts >= maxAttempts;
+            if (givenUp) {
+              countImage("given_up");
+              logger.error(
+                  "Give up migrating image id: {} after {} attempts, the checkpoint moves past it",
+                  imageId,
+                  attempts);
             }
-            imageRepository.delete(image);
-            deleted++;
-            changed = true;
+          } else {
+            failedAttempts.remove(imageId);
           }
-        } catch (RuntimeException exception) {
-          failed++;
-          logger.error("Failed to migrate image {}", image.getName(), exception);
-        }
 
-        if (changed) {
-          completed++;
+          if (imageResult.failed() && !givenUp) {
+            hasFailedImage = true;
+          } else if (!hasFailedImage) {
+            checkpoint = imageId;
+          }
         }
 
-        if (completed >= normalizedBatchSize) {
-          break;
+        lastImageId = images.getLast().getId();
+        if (!failedAttempts.equals(savedFailedAttempts)) {
+          saveFailedAttempts(deleteSource, failedAttempts);
+          savedFailedAttempts = new TreeMap<>(failedAttempts);
         }
+        saveCheckpoint(deleteSource, checkpoint);
+        logger.info(
+            "Image migration progress: scanned={}, uploaded={}, deleted={}, failed={}, checkpoint={}, images/s={}",
+            scanned,
+            uploaded,
+            deleted,
+            failed,
+            checkpoint,
+            scanned * 1000L / Math.max(1, System.currentTimeMillis() - startMillis));
       }
+    } finally {
+      executorService.shutdownNow();
     }
 
     return new Result(scanned, uploaded, deleted, failed);
   }
 
+  ImageResult migrateImage(Image image, boolean deleteSource) {
+    boolean uploaded = false;
+    try {
+      if (!blobStorageImageService.imageExists(image.getName())) {
+        blobStorageImageService.uploadImage(image.getName(), image.getContent());
+        uploaded = true;
+        countImage("uploaded");
+      }
+
+      if (deleteSource) {
+        verifyRemoteImage(image);
+        imageRepository.delete(image);
+        countImage("deleted");
+        return new ImageResult(uploaded, true, false);
+      }
+
+      if (!uploaded) {
+        countImage("skipped");
+      }
+      return new ImageResult(uploaded, false, false);
+    } catch (RuntimeException exception) {
+      countImage("failed");
+      logger.error("Failed to migrate image {}", image.getName(), exception);
+      return new ImageResult(uploaded, false, true);
+    }
+  }
+
+  void verifyRemoteImage(Image image) {
+    String remoteContentMd5 =
+        blobStorageImageService
+            .getImageContentMd5(image.getName())
+            .orElseThrow(
+                () ->
+                    new IllegalStateException(
+                        "Migrated image is missing from blob storage: " + image.getName()));
+    if (!remoteContentMd5.equalsIgnoreCase(DigestUtils.md5Hex(image.getContent()))) {
+      throw new IllegalStateException(
+          "Migrated image content does not match the source: " + image.getName());
+    }
+  }
+
+  ImageResult getImageResult(Future<ImageResult> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while migrating images", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to migrate image", e.getCause());
+    }
+  }
+
+  long getCheckpoint(boolean deleteSource) {
+    long checkpoint =
+        structuredBlobStorage
+            .getString(IMAGE_MIGRATION, getCheckpointName(deleteSource))
+            .map(String::trim)
+            .map(Long::parseLong)
+            .orElse(0L);
+    getCheckpointGauge(deleteSource).set(checkpoint);
+    return checkpoint;
+  }
+
+  void saveCheckpoint(boolean deleteSource, long checkpoint) {
+    structuredBlobStorage.put(
+        IMAGE_MIGRATION,
+        getCheckpointName(deleteSource),
+        Long.toString(checkpoint),
+        Retention.PERMANENT);
+    getCheckpointGauge(deleteSource).set(checkpoint);
+  }
+
+  /** Attempts of the failed images, stored as comma separated {@code id:attempts} */
+  Map<Long, Integer> getFailedAttempts(boolean deleteSource) {
+    Map<Long, Integer> failedAttempts = new TreeMap<>();
+    structuredBlobStorage
+        .getString(IMAGE_MIGRATION, getFailedAttemptsName(deleteSource))
+        .map(String::trim)
+        .filter(value -> !value.isEmpty())
+        .ifPresent(
+            value -> {
+              for (String entry : value.split(",")) {
+                String[] idAndAttempts = entry.trim().split(":");
+                failedAttempts.put(
+                    Long.parseLong(idAndAttempts[0]), Integer.parseInt(idAndAttempts[1]));
+              }
+            });
+    return failedAttempts;
+  }
+
+  void saveFailedAttempts(boolean deleteSource, Map<Long, Integer> failedAttempts) {
+    structuredBlobStorage.put(
+        IMAGE_MIGRATION,
+        getFailedAttemptsName(deleteSource),
+        failedAttempts.entrySet().stream()
+            .map(entry -> entry.getKey() + ":" + entry.getValue())
+            .collect(Collectors.joining(",")),
+        Retention.PERMANENT);
+  }
+
+  String getFailedAttemptsName(boolean deleteSource) {
+    return deleteSource ? DELETE_SOURCE_FAILED_ATTEMPTS_NAME : FAILED_ATTEMPTS_NAME;
+  }
+
+  String getCheckpointName(boolean deleteSource) {
+    return deleteSource ? DELETE_SOURCE_CHECKPOINT_NAME : CHECKPOINT_NAME;
+  }
+
+  AtomicLong getCheckpointGauge(boolean deleteSource) {
+    return deleteSource ? deleteSourceCheckpointGauge : checkpointGauge;
+  }
+
+  void countImage(String outcome) {
+    meterRegistry.counter(METRIC_IMAGES, "outcome", outcome).increment();
+  }
+
+  record ImageResult(boolean uploaded, boolean deleted, boolean failed) {}
+
   public record Result(int scanned, int uploaded, int deleted, int failed) {}
 }
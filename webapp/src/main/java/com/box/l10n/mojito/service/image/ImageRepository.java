@@ -6,6 +6,7 @@ import java.util.Optional;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 
@@ -18,5 +19,14 @@ public interface ImageRepository
 
   Optional<Image> findByName(@Param("name") String name);
 
+  @Query(
+      """
+      select new com.box.l10n.mojito.service.image.ImageMetadata(
+        i.name, i.contentSha256, i.contentType, i.contentLength, i.lastModifiedDate)
+      from Image i
+      where i.name = :name and i.contentSha256 is not null
+      """)
+  Optional<ImageMetadata> findMetadataByName(@Param("name") String name);
+
   List<Image> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
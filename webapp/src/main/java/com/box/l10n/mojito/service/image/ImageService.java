@@ -1,6 +1,8 @@
 package com.box.l10n.mojito.service.image;
 
 import com.box.l10n.mojito.entity.Image;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Optional;
 
 public interface ImageService {
@@ -8,4 +10,20 @@ public interface ImageService {
   Optional<Image> getImage(String name);
 
   void uploadImage(String name, byte[] content);
+
+  /**
+   * Gets the metadata of an image. Implementations should avoid reading the content when the
+   * metadata was stored at upload.
+   */
+  default Optional<ImageMetadata> getImageMetadata(String name) {
+    return getImage(name).map(ImageMetadata::fromImage);
+  }
+
+  /**
+   * Opens a stream on the content of an image, the caller is responsible for closing it.
+   * Implementations should stream from the backing store instead of buffering the content.
+   */
+  default Optional<InputStream> getImageInputStream(String name) {
+    return getImage(name).map(image -> new ByteArrayInputStream(image.getContent()));
+  }
 }
@@ -0,0 +1,187 @@
+package com.box.l10n.mojito.service.image;
+
+import static com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage.Prefix.IMAGE_THUMBNAIL;
+
+import com.box.l10n.mojito.service.blobstorage.Retention;
+import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import com.box.l10n.mojito.util.ImageBytes;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves size-bounded thumbnails of images, to avoid sending full-size screenshots to UIs that only
+ * show previews.
+ *
+ * <p>Thumbnails are keyed by the content hash of the image and the bounded size, and cached in the
+ * {@link StructuredBlobStorage.Prefix#IMAGE_THUMBNAIL} prefix, so a new version of an image gets
+ * new thumbnails and identical images share them. Images are only downscaled: an image that already
+ * fits in the size is cached as is. Images that can't be decoded (e.g. PDF or SVG) have no
+ * thumbnail and the original should be served instead.
+ */
+@Component
+public class ImageThumbnailService {
+
+  static Logger logger = LoggerFactory.getLogger(ImageThumbnailService.class);
+
+  /** Sizes in pixels of the longest side, a requested size is rounded up to one of them */
+  static final List<Integer> SIZES = List.of(128, 256, 512, 1024);
+
+  static final Set<String> DECODABLE_CONTENT_TYPES =
+      Set.of("image/png", "image/jpeg", "image/gif", "image/bmp");
+
+  /** Larger images are not decoded to bound the memory used to create a thumbnail */
+  static final long MAX_CONTENT_LENGTH = 32 * 1024 * 1024;
+
+  public record Thumbnail(byte[] content, String contentType, int size) {}
+
+  StructuredBlobStorage structuredBlobStorage;
+
+  ImageService imageService;
+
+  public ImageThumbnailService(
+      StructuredBlobStorage structuredBlobStorage, ImageService imageService) {
+    this.structuredBlobStorage = structuredBlobStorage;
+    this.imageService = imageService;
+  }
+
+  /**
+   * Gets the thumbnail of an image, creating and caching it if needed.
+   *
+   * @param size requested size of the longest side, bounded to one of {@link #SIZES}
+   * @return the thumbnail, or empty if the image can't be decoded and the original should be served
+   */
+  public Optional<Thumbnail> getThumbnail(ImageMetadata imageMetadata, int size) {
+    Optional<Integer> thumbnailSize = getThumbnailSize(imageMetadata, size);
+    if (thumbnailSize.isEmpty()) {
+      return Optional.empty();
+    }
+
+    int boundedSize = thumbnailSize.get();
+    String thumbnailName = imageMetadata.contentSha256() + "/" + boundedSize;
+
+    Optional<byte[]> content =
+        structuredBlobStorage
+            .getBytes(IMAGE_THUMBNAIL, thumbnailName)
+            .or(
+                () ->
+                    createThumbnail(imageMetadata, boundedSize)
+                        .map(
+                            bytes -> {
+                              structuredBlobStorage.putBytes(
+                                  IMAGE_THUMBNAIL, thumbnailName, bytes, Retention.PERMANENT);
+                              return bytes;
+                            }));
+
+    return content.map(
+        bytes ->
+            new Thumbnail(
+                bytes,
+                ImageBytes.detectImageContentType(bytes).orElse(imageMetadata.contentType()),
+                boundedSize));
+  }
+
+  /**
+   * Gets the size of the thumbnail that {@link #getThumbnail} would serve, without reading or
+   * creating it, e.g. to compute an ETag before checking a conditional request.
+   *
+   * @return the bounded size, or empty if the image can't be decoded
+   */
+  public Optional<Integer> getThumbnailSize(ImageMetadata imageMetadata, int size) {
+    if (!DECODABLE_CONTENT_TYPES.contains(imageMetadata.contentType())
+        || imageMetadata.contentLength() > MAX_CONTENT_LENGTH) {
+      return Optional.empty();
+    }
+    return Optional.of(getBoundedSize(size));
+  }
+
+  static int getBoundedSize(int size) {
+    return SIZES.stream().filter(s -> s >= size).findFirst().orElse(SIZES.getLast());
+  }
+
+  Optional<byte[]> createThumbnail(ImageMetadata imageMetadata, int size) {
+    logger.debug("Create thumbnail of size {} for image: {}", size, imageMetadata.name());
+
+    Optional<InputStream> inputStream = imageService.getImageInputStream(imageMetadata.name());
+    if (inputStream.isEmpty()) {
+      return Optional.empty();
+    }
+
+    try (InputStream is = inputStream.get()) {
+      return Optional.ofNullable(downscale(is.readAllBytes(), size));
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Can't create thumbnail for image: {}", imageMetadata.name(), e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Downscales an image so that its longest side is at most the given size, as PNG.
+   *
+   * <p>Large images are subsampled while decoding so that the full-size image is never held in
+   * memory.
+   *
+   * @return the downscaled image, the content itself if it already fits, or {@code null} if it
+   *     can't be decoded
+   */
+  static byte[] downscale(byte[] content, int size) throws IOException {
+    try (ImageInputStream imageInputStream =
+        ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+      Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
+      if (!imageReaders.hasNext()) {
+        return null;
+      }
+
+      ImageReader imageReader = imageReaders.next();
+      try {
+        imageReader.setInput(imageInputStream, true, true);
+        int longestSide = Math.max(imageReader.getWidth(0), imageReader.getHeight(0));
+        if (longestSide <= size) {
+          return content;
+        }
+
+        ImageReadParam imageReadParam = imageReader.getDefaultReadParam();
+        int subsampling = Math.max(1, longestSide / (size * 2));
+        imageReadParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        BufferedImage source = imageReader.read(0, imageReadParam);
+
+        double scale = (double) size / Math.max(source.getWidth(), source.getHeight());
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+          graphics.setRenderingHint(
+              RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+          graphics.setRenderingHint(
+              RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+          graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+          graphics.dispose();
+        }
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, "png", byteArrayOutputStream);
+        return byteArrayOutputStream.toByteArray();
+      } finally {
+        imageReader.dispose();
+      }
+    }
+  }
+}
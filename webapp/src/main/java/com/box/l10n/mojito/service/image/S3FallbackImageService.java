@@ -3,6 +3,8 @@ package com.box.l10n.mojito.service.image;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.box.l10n.mojito.entity.Image;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Optional;
 import org.slf4j.Logger;
 
@@ -38,24 +40,36 @@ public class S3FallbackImageService implements ImageService {
   @Override
   public Optional<Image> getImage(String name) {
     logger.debug("Attempt image retrieval from S3 with name: {}", name);
-    Image image =
-        s3ImageService
-            .getImage(name)
-            .orElseGet(
-                () ->
-                    databaseImageService
-                        .getImage(name)
-                        .map(
-                            img -> {
-                              logger.debug(
-                                  "Found image {} in database, triggering async upload to S3",
-                                  img.getName());
-                              s3UploadImageAsyncTask.uploadImageToS3(
-                                  img.getName(), img.getContent());
-                              return img;
-                            })
-                        .orElse(null));
-    return Optional.ofNullable(image);
+    return s3ImageService.getImage(name).or(() -> getImageFromDatabase(name));
+  }
+
+  @Override
+  public Optional<ImageMetadata> getImageMetadata(String name) {
+    return s3ImageService
+        .getImageMetadata(name)
+        .or(() -> databaseImageService.getImageMetadata(name));
+  }
+
+  @Override
+  public Optional<InputStream> getImageInputStream(String name) {
+    return s3ImageService
+        .getImageInputStream(name)
+        .or(
+            () ->
+                getImageFromDatabase(name)
+                    .map(image -> new ByteArrayInputStream(image.getContent())));
+  }
+
+  Optional<Image> getImageFromDatabase(String name) {
+    return databaseImageService
+        .getImage(name)
+        .map(
+            img -> {
+              logger.debug(
+                  "Found image {} in database, triggering async upload to S3", img.getName());
+              s3UploadImageAsyncTask.uploadImageToS3(img.getName(), img.getContent());
+              return img;
+            });
   }
 
   @Override
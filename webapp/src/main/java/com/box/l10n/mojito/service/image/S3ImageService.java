@@ -4,6 +4,7 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 import com.box.l10n.mojito.entity.Image;
 import com.box.l10n.mojito.service.blobstorage.s3.S3BlobStorage;
+import java.io.InputStream;
 import java.util.Optional;
 import org.slf4j.Logger;
 
@@ -13,6 +14,9 @@ import org.slf4j.Logger;
  * <p>Configured {@link S3BlobStorage} and {@link com.amazonaws.services.s3.AmazonS3} client
  * instances are required to upload and retrieve images from S3.
  *
+ * <p>Image metadata and streaming are handled like for any other {@link
+ * com.box.l10n.mojito.service.blobstorage.BlobStorage}, see {@link BlobStorageImageService}.
+ *
  * @author maallen
  */
 public class S3ImageService implements ImageService {
@@ -24,9 +28,12 @@ public class S3ImageService implements ImageService {
 
   String s3PathPrefix;
 
+  BlobStorageImageService blobStorageImageService;
+
   public S3ImageService(S3BlobStorage s3BlobStorage, String s3PathPrefix) {
     this.s3BlobStorage = s3BlobStorage;
     this.s3PathPrefix = s3PathPrefix;
+    this.blobStorageImageService = new BlobStorageImageService(s3BlobStorage, s3PathPrefix);
   }
 
   public Optional<Image> getImage(String name) {
@@ -45,7 +52,17 @@ public class S3ImageService implements ImageService {
 
   public void uploadImage(String name, byte[] content) {
     logger.debug("Upload image to S3 with name: {}", name);
-    s3BlobStorage.put(getS3Path(name), content);
+    blobStorageImageService.uploadImage(name, content);
+  }
+
+  @Override
+  public Optional<ImageMetadata> getImageMetadata(String name) {
+    return blobStorageImageService.getImageMetadata(name);
+  }
+
+  @Override
+  public Optional<InputStream> getImageInputStream(String name) {
+    return blobStorageImageService.getImageInputStream(name);
   }
 
   private String getS3Path(String name) {
@@ -1,5 +1,6 @@
 package com.box.l10n.mojito.service.machinetranslation;
 
+import com.box.l10n.mojito.service.cache.SerializationPairType;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -25,6 +26,20 @@ public class MTServiceCacheConfiguration {
     @DurationUnit(ChronoUnit.SECONDS)
     private Duration ttl = Duration.ZERO;
 
+    /**
+     * Serialization of the values. Changing it makes existing entries unreadable, they are evicted
+     * if evictEntryOnDeserializationFailure is enabled.
+     */
+    private SerializationPairType valueSerialization = SerializationPairType.JAVA;
+
+    /** Queue puts in memory and write them in batches instead of on the request path */
+    private boolean writeBehindEnabled = false;
+
+    @DurationUnit(ChronoUnit.MILLIS)
+    private Duration writeBehindFlushInterval = Duration.ofSeconds(1);
+
+    private int writeBehindBatchSize = 500;
+
     public boolean isEnabled() {
       return enabled;
     }
@@ -48,6 +63,38 @@ public class MTServiceCacheConfiguration {
     public void setEvictEntryOnDeserializationFailure(boolean evictEntryOnDeserializationFailure) {
       this.evictEntryOnDeserializationFailure = evictEntryOnDeserializationFailure;
     }
+
+    public SerializationPairType getValueSerialization() {
+      return valueSerialization;
+    }
+
+    public void setValueSerialization(SerializationPairType valueSerialization) {
+      this.valueSerialization = valueSerialization;
+    }
+
+    public boolean isWriteBehindEnabled() {
+      return writeBehindEnabled;
+    }
+
+    public void setWriteBehindEnabled(boolean writeBehindEnabled) {
+      this.writeBehindEnabled = writeBehindEnabled;
+    }
+
+    public Duration getWriteBehindFlushInterval() {
+      return writeBehindFlushInterval;
+    }
+
+    public void setWriteBehindFlushInterval(Duration writeBehindFlushInterval) {
+      this.writeBehindFlushInterval = writeBehindFlushInterval;
+    }
+
+    public int getWriteBehindBatchSize() {
+      return writeBehindBatchSize;
+    }
+
+    public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+      this.writeBehindBatchSize = writeBehindBatchSize;
+    }
   }
 
   public static class InMemory {
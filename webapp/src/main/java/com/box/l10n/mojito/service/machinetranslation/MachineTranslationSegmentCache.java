@@ -0,0 +1,247 @@
+package com.box.l10n.mojito.service.machinetranslation;
+
+import static com.box.l10n.mojito.CacheType.Names.MACHINE_TRANSLATION_SEGMENT;
+
+import com.box.l10n.mojito.service.cache.TieredCache;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches machine translations per segment, ie. per (source text, source locale, target locale,
+ * engine, custom model, functional protection) instead of per request.
+ *
+ * <p>A batch is decomposed into cached hits and a smaller set of misses that are sent to the {@link
+ * MachineTranslationEngine}. Misses are grouped by the set of target locales they are missing so
+ * that the engine is still called with batches. Results are reassembled in the order of the
+ * requested source texts and target locales.
+ */
+@Component
+public class MachineTranslationSegmentCache {
+
+  static Logger logger = LoggerFactory.getLogger(MachineTranslationSegmentCache.class);
+
+  static final String METRIC_LOOKUPS = "MachineTranslationSegmentCache.lookups";
+  static final String METRIC_ENGINE_CHARACTERS = "MachineTranslationSegmentCache.engineCharacters";
+
+  final Cache cache;
+
+  final MeterRegistry meterRegistry;
+
+  public MachineTranslationSegmentCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+    this.cache = cacheManager.getCache(MACHINE_TRANSLATION_SEGMENT);
+    this.meterRegistry = meterRegistry;
+    Preconditions.checkNotNull(
+        this.cache, "Cache must be configured: " + MACHINE_TRANSLATION_SEGMENT);
+  }
+
+  /**
+   * Gets the translations for the text sources and target locales, only calling the engine for the
+   * segments that are not in the cache.
+   *
+   * @return the translations by source text, with translations in the order of targetBcp47Tags
+   */
+  public ImmutableMap<String, ImmutableList<TranslationDTO>> getTranslationsBySourceText(
+      MachineTranslationEngine machineTranslationEngine,
+      List<String> textSources,
+      String sourceBcp47Tag,
+      List<String> targetBcp47Tags,
+      TextType sourceTextType,
+      String customModel,
+      boolean isFunctionalProtectionEnabled) {
+
+    List<String> distinctTextSources = textSources.stream().distinct().toList();
+    List<String> distinctTargetBcp47Tags = targetBcp47Tags.stream().distinct().toList();
+
+    List<SegmentKey> segmentKeys = new ArrayList<>();
+    for (String textSource : distinctTextSources) {
+      for (String targetBcp47Tag : distinctTargetBcp47Tags) {
+        segmentKeys.add(
+            new SegmentKey(
+                textSource,
+                sourceBcp47Tag,
+                targetBcp47Tag,
+                machineTranslationEngine.getSource(),
+                sourceTextType,
+                customModel,
+                isFunctionalProtectionEnabled));
+      }
+    }
+
+    Map<SegmentKey, TranslationDTO> translationsBySegmentKey = getAllFromCache(segmentKeys);
+    Map<String, List<String>> missingTargetBcp47TagsByTextSource = new LinkedHashMap<>();
+
+    long hits = 0;
+    long misses = 0;
+    long savedCharacters = 0;
+
+    for (SegmentKey segmentKey : segmentKeys) {
+      if (translationsBySegmentKey.containsKey(segmentKey)) {
+        hits++;
+        savedCharacters += segmentKey.sourceText().length();
+      } else {
+        missingTargetBcp47TagsByTextSource
+            .computeIfAbsent(segmentKey.sourceText(), k -> new ArrayList<>())
+            .add(segmentKey.targetBcp47Tag());
+        misses++;
+      }
+    }
+
+    Map<List<String>, List<String>> missingTextSourcesByTargetBcp47Tags = new LinkedHashMap<>();
+    missingTargetBcp47TagsByTextSource.forEach(
+        (textSource, missingTargetBcp47Tags) ->
+            missingTextSourcesByTargetBcp47Tags
+                .computeIfAbsent(missingTargetBcp47Tags, k -> new ArrayList<>())
+                .add(textSource));
+
+    long engineCharacters = 0;
+
+    for (Map.Entry<List<String>, List<String>> missingEntry :
+        missingTextSourcesByTargetBcp47Tags.entrySet()) {
+      List<String> missingTargetBcp47Tags = missingEntry.getKey();
+      List<String> missingTextSources = missingEntry.getValue();
+
+      logger.debug(
+          "Machine translate {} text sources for {} target locales (cache misses)",
+          missingTextSources.size(),
+          missingTargetBcp47Tags.size());
+
+      ImmutableMap<String, ImmutableList<TranslationDTO>> engineTranslationsBySourceText =
+          machineTranslationEngine.getTranslationsBySourceText(
+              missingTextSources,
+              sourceBcp47Tag,
+              missingTargetBcp47Tags,
+              sourceTextType,
+              customModel,
+              isFunctionalProtectionEnabled);
+
+      for (String missingTextSource : missingTextSources) {
+        engineCharacters += (long) missingTextSource.length() * missingTargetBcp47Tags.size();
+
+        ImmutableList<TranslationDTO> engineTranslations =
+            engineTranslationsBySourceText.get(missingTextSource);
+
+        if (engineTranslations == null) {
+          continue;
+        }
+
+        for (TranslationDTO engineTranslation : engineTranslations) {
+          SegmentKey segmentKey =
+              new SegmentKey(
+                  missingTextSource,
+                  sourceBcp47Tag,
+                  engineTranslation.getBcp47Tag(),
+                  machineTranslationEngine.getSource(),
+                  sourceTextType,
+                  customModel,
+                  isFunctionalProtectionEnabled);
+
+          translationsBySegmentKey.put(segmentKey, engineTranslation);
+
+          if (engineTranslation.getTranslationSource() != TranslationSource.UNTRANSLATED) {
+            cache.put(segmentKey, engineTranslation);
+          }
+        }
+      }
+    }
+
+    recordMetrics(
+        machineTranslationEngine.getSource(), hits, misses, savedCharacters, engineCharacters);
+
+    ImmutableMap.Builder<String, ImmutableList<TranslationDTO>> builder = ImmutableMap.builder();
+
+    for (String textSource : distinctTextSources) {
+      ImmutableList<TranslationDTO> translations =
+          distinctTargetBcp47Tags.stream()
+              .map(
+                  targetBcp47Tag ->
+                      translationsBySegmentKey.get(
+                          new SegmentKey(
+                              textSource,
+                              sourceBcp47Tag,
+                              targetBcp47Tag,
+                              machineTranslationEngine.getSource(),
+                              sourceTextType,
+                              customModel,
+                              isFunctionalProtectionEnabled)))
+              .filter(translation -> translation != null)
+              .collect(ImmutableList.toImmutableList());
+
+      if (!translations.isEmpty()) {
+        builder.put(textSource, translations);
+      }
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Gets the cached translations with a batch lookup when the cache supports it (see {@link
+   * TieredCache#getAll(java.util.Collection)}), else with one lookup per key.
+   */
+  Map<SegmentKey, TranslationDTO> getAllFromCache(List<SegmentKey> segmentKeys) {
+    Map<SegmentKey, TranslationDTO> translationsBySegmentKey = new HashMap<>();
+
+    if (cache instanceof TieredCache tieredCache) {
+      tieredCache
+          .getAll(segmentKeys)
+          .forEach(
+              (key, value) ->
+                  translationsBySegmentKey.put((SegmentKey) key, (TranslationDTO) value));
+    } else {
+      for (SegmentKey segmentKey : segmentKeys) {
+        TranslationDTO cachedTranslation = cache.get(segmentKey, TranslationDTO.class);
+        if (cachedTranslation != null) {
+          translationsBySegmentKey.put(segmentKey, cachedTranslation);
+        }
+      }
+    }
+
+    return translationsBySegmentKey;
+  }
+
+  void recordMetrics(
+      TranslationSource translationSource,
+      long hits,
+      long misses,
+      long savedCharacters,
+      long engineCharacters) {
+    String engine = translationSource.name();
+    meterRegistry
+        .counter(METRIC_LOOKUPS, Tags.of("engine", engine, "result", "hit"))
+        .increment(hits);
+    meterRegistry
+        .counter(METRIC_LOOKUPS, Tags.of("engine", engine, "result", "miss"))
+        .increment(misses);
+    meterRegistry
+        .counter(METRIC_ENGINE_CHARACTERS, Tags.of("engine", engine, "result", "saved"))
+        .increment(savedCharacters);
+    meterRegistry
+        .counter(METRIC_ENGINE_CHARACTERS, Tags.of("engine", engine, "result", "sent"))
+        .increment(engineCharacters);
+  }
+
+  /** Identifies a single cached machine translation. */
+  record SegmentKey(
+      String sourceText,
+      String sourceBcp47Tag,
+      String targetBcp47Tag,
+      TranslationSource engine,
+      TextType sourceTextType,
+      String customModel,
+      boolean isFunctionalProtectionEnabled)
+      implements Serializable {}
+}
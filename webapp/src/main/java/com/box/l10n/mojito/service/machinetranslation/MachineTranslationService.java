@@ -1,7 +1,5 @@
 package com.box.l10n.mojito.service.machinetranslation;
 
-import static com.box.l10n.mojito.CacheType.Names.MACHINE_TRANSLATION;
-
 import com.box.l10n.mojito.entity.TMTextUnit;
 import com.box.l10n.mojito.service.leveraging.LeveragerByContentAndRepository;
 import com.box.l10n.mojito.service.tm.search.TextUnitDTO;
@@ -19,7 +17,6 @@ import java.util.stream.Collectors;
 import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 /**
@@ -37,14 +34,22 @@ public class MachineTranslationService {
 
   final TranslationMerger translationMerger;
 
+  final MachineTranslationSegmentCache machineTranslationSegmentCache;
+
   public MachineTranslationService(
-      MachineTranslationEngine machineTranslationEngine, TranslationMerger translationMerger) {
+      MachineTranslationEngine machineTranslationEngine,
+      TranslationMerger translationMerger,
+      MachineTranslationSegmentCache machineTranslationSegmentCache) {
     this.machineTranslationEngine = machineTranslationEngine;
     this.translationMerger = translationMerger;
+    this.machineTranslationSegmentCache = machineTranslationSegmentCache;
   }
 
+  /**
+   * Not cached as a whole: engine translations are cached per segment by {@link
+   * MachineTranslationSegmentCache}, which also reports the hit ratio and characters saved.
+   */
   @Timed("MachineTranslationService.getTranslations")
-  @Cacheable(MACHINE_TRANSLATION)
   public TranslationsResponseDTO getTranslations(
       List<String> textSources,
       String sourceBcp47Tag,
@@ -119,9 +124,12 @@ public class MachineTranslationService {
         .get(0);
   }
 
-  @SuppressWarnings("SpringCacheableComponentsInspection")
+  /**
+   * Machine translates the text sources. Translations are cached per segment by {@link
+   * MachineTranslationSegmentCache} so that only the segments missing from the cache are sent to
+   * the engine.
+   */
   @Timed("MachineTranslationService.getMachineTranslatedResponse")
-  @Cacheable(MACHINE_TRANSLATION)
   ImmutableMap<String, ImmutableList<TranslationDTO>> getMachineTranslationBySourceText(
       String sourceBcp47Tag,
       List<String> targetBcp47Tags,
@@ -141,7 +149,8 @@ public class MachineTranslationService {
       result = ImmutableMap.of();
     } else {
       result =
-          machineTranslationEngine.getTranslationsBySourceText(
+          machineTranslationSegmentCache.getTranslationsBySourceText(
+              machineTranslationEngine,
               textSources,
               sourceBcp47Tag,
               targetBcp47Tags,
@@ -161,9 +170,7 @@ public class MachineTranslationService {
    * Leverages translations by source text from Mojito. Note: it relies on the localeTag on being an
    * exact match.
    */
-  @SuppressWarnings("SpringCacheableComponentsInspection")
   @Timed("MachineTranslationService.getLeveragedTranslationResponse")
-  @Cacheable(MACHINE_TRANSLATION)
   ImmutableMap<String, ImmutableList<TranslationDTO>> getLeveragedTranslationsBySourceText(
       List<String> textSources,
       List<String> targetBcp47Tags,
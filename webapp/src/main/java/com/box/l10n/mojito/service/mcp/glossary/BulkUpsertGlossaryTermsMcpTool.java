@@ -251,11 +251,14 @@ public class BulkUpsertGlossaryTermsMcpTool
     }
 
     List<GlossaryTermService.TermView> upsertedTerms =
-        new ArrayList<>(validatedInput.terms().size());
-    for (TermInput term : validatedInput.terms()) {
-      upsertedTerms.add(
-          glossaryTermService.upsertTerm(glossary.id(), term.tmTextUnitId(), toCommand(term)));
-    }
+        glossaryTermService.bulkUpsertTerms(
+            glossary.id(),
+            validatedInput.terms().stream()
+                .map(
+                    term ->
+                        new GlossaryTermService.BulkTermUpsert(
+                            term.tmTextUnitId(), toCommand(term)))
+                .toList());
     return new BulkUpsertResult(
         new GlossaryRef(glossary.id(), glossary.name()),
         false,
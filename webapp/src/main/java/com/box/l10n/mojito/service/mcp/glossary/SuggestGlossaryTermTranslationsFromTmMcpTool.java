@@ -6,15 +6,13 @@ import com.box.l10n.mojito.service.glossary.GlossaryTermService;
 import com.box.l10n.mojito.service.mcp.McpToolDescriptor;
 import com.box.l10n.mojito.service.mcp.McpToolParameter;
 import com.box.l10n.mojito.service.mcp.TypedMcpToolHandler;
-import com.box.l10n.mojito.service.tm.search.SearchType;
-import com.box.l10n.mojito.service.tm.search.TextUnitDTO;
+import com.box.l10n.mojito.service.tm.search.StatusFilter;
 import com.box.l10n.mojito.service.tm.search.TextUnitSearcher;
 import com.box.l10n.mojito.service.tm.search.TextUnitSearcherParameters;
-import com.box.l10n.mojito.service.tm.search.TextUnitTextSearch;
-import com.box.l10n.mojito.service.tm.search.TextUnitTextSearchField;
-import com.box.l10n.mojito.service.tm.search.TextUnitTextSearchPredicate;
-import java.util.ArrayList;
+import com.box.l10n.mojito.service.tm.search.TextUnitTargetCount;
+import com.google.common.collect.Lists;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -22,6 +20,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
@@ -34,6 +33,7 @@ public class SuggestGlossaryTermTranslationsFromTmMcpTool
   private static final int DEFAULT_MATCH_LIMIT = 100;
   private static final int MAX_MATCH_LIMIT = 500;
   private static final int MAX_SAMPLE_TEXT_UNIT_IDS = 5;
+  private static final int SOURCE_BATCH_SIZE = 250;
 
   private static final McpToolDescriptor DESCRIPTOR =
       new McpToolDescriptor(
@@ -78,7 +78,7 @@ public class SuggestGlossaryTermTranslationsFromTmMcpTool
                   Integer.class),
               new McpToolParameter(
                   "matchLimit",
-                  "Max product text-unit matches per term and locale. Defaults to 100, max 500.",
+                  "Max target suggestions per term and locale. Defaults to 100, max 500.",
                   false,
                   Integer.class)));
 
@@ -145,12 +145,19 @@ public class SuggestGlossaryTermTranslationsFromTmMcpTool
             validatedInput.tmTextUnitIds(),
             validatedInput.sources());
 
+    Map<String, Map<String, Map<String, MutableTargetSuggestion>>> targetsBySourceAndLocale =
+        countTargets(terms, validatedInput.localeTags(), repositoryNames);
+
     List<TermSuggestion> termSuggestions =
         terms.stream()
             .map(
                 term ->
                     toTermSuggestion(
-                        term, validatedInput.localeTags(), repositoryNames, matchLimit))
+                        term,
+                        validatedInput.localeTags(),
+                        targetsBySourceAndLocale.getOrDefault(
+                            normalizeOptional(term.source()), Map.of()),
+                        matchLimit))
             .filter(
                 term -> term.locales().stream().anyMatch(locale -> !locale.suggestions().isEmpty()))
             .toList();
@@ -215,42 +222,67 @@ public class SuggestGlossaryTermTranslationsFromTmMcpTool
         .toList();
   }
 
+  /**
+   * Counts the targets of the exact source matches of all the terms, for all locales and
+   * repositories, in one grouped query per batch of sources instead of one search per term and
+   * locale.
+   *
+   * @return target suggestions by target, by locale tag, by trimmed source
+   */
+  private Map<String, Map<String, Map<String, MutableTargetSuggestion>>> countTargets(
+      List<GlossaryTermService.TermView> terms,
+      List<String> localeTags,
+      List<String> repositoryNames) {
+    List<String> sources =
+        terms.stream()
+            .map(term -> normalizeOptional(term.source()))
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+
+    Map<String, Map<String, Map<String, MutableTargetSuggestion>>> targetsBySourceAndLocale =
+        new HashMap<>();
+    for (List<String> sourceBatch : Lists.partition(sources, SOURCE_BATCH_SIZE)) {
+      TextUnitSearcherParameters parameters = new TextUnitSearcherParameters();
+      parameters.setRepositoryNames(repositoryNames);
+      parameters.setLocaleTags(localeTags);
+      parameters.setPluralFormsFiltered(false);
+      parameters.setStatusFilter(StatusFilter.TRANSLATED);
+
+      for (TextUnitTargetCount targetCount :
+          textUnitSearcher.countTargetsBySources(parameters, sourceBatch)) {
+        String target = normalizeOptional(targetCount.target());
+        if (target == null) {
+          continue;
+        }
+        targetsBySourceAndLocale
+            .computeIfAbsent(targetCount.source(), k -> new HashMap<>())
+            .computeIfAbsent(targetCount.localeTag(), k -> new LinkedHashMap<>())
+            .computeIfAbsent(target, MutableTargetSuggestion::new)
+            .add(targetCount);
+      }
+    }
+    return targetsBySourceAndLocale;
+  }
+
   private TermSuggestion toTermSuggestion(
       GlossaryTermService.TermView term,
       List<String> localeTags,
-      List<String> repositoryNames,
+      Map<String, Map<String, MutableTargetSuggestion>> targetsByLocale,
       int matchLimit) {
     List<LocaleSuggestion> locales =
         localeTags.stream()
             .map(
                 localeTag ->
-                    toLocaleSuggestion(term.source(), localeTag, repositoryNames, matchLimit))
+                    toLocaleSuggestion(
+                        localeTag, targetsByLocale.getOrDefault(localeTag, Map.of()), matchLimit))
             .toList();
     return new TermSuggestion(
         term.tmTextUnitId(), term.termKey(), term.source(), term.doNotTranslate(), locales);
   }
 
   private LocaleSuggestion toLocaleSuggestion(
-      String source, String localeTag, List<String> repositoryNames, int matchLimit) {
-    if (source == null || source.isBlank()) {
-      return new LocaleSuggestion(localeTag, List.of());
-    }
-    TextUnitSearcherParameters parameters = new TextUnitSearcherParameters();
-    parameters.setRepositoryNames(repositoryNames);
-    parameters.setLocaleTags(List.of(localeTag));
-    parameters.setPluralFormsFiltered(false);
-    parameters.setLimit(matchLimit);
-    parameters.setTextSearch(sourceTextSearch(source));
-
-    Map<String, MutableTargetSuggestion> suggestionsByTarget = new LinkedHashMap<>();
-    for (TextUnitDTO match : textUnitSearcher.search(parameters)) {
-      String target = normalizeOptional(match.getTarget());
-      if (target == null) {
-        continue;
-      }
-      suggestionsByTarget.computeIfAbsent(target, MutableTargetSuggestion::new).add(match);
-    }
-
+      String localeTag, Map<String, MutableTargetSuggestion> suggestionsByTarget, int matchLimit) {
     List<TargetSuggestion> suggestions =
         suggestionsByTarget.values().stream()
             .map(MutableTargetSuggestion::toSuggestion)
@@ -258,20 +290,11 @@ public class SuggestGlossaryTermTranslationsFromTmMcpTool
                 Comparator.comparingInt(TargetSuggestion::occurrenceCount)
                     .reversed()
                     .thenComparing(TargetSuggestion::target, String.CASE_INSENSITIVE_ORDER))
+            .limit(matchLimit)
             .toList();
     return new LocaleSuggestion(localeTag, suggestions);
   }
 
-  private TextUnitTextSearch sourceTextSearch(String source) {
-    TextUnitTextSearchPredicate predicate = new TextUnitTextSearchPredicate();
-    predicate.setField(TextUnitTextSearchField.SOURCE);
-    predicate.setSearchType(SearchType.EXACT);
-    predicate.setValue(source.trim());
-    TextUnitTextSearch textSearch = new TextUnitTextSearch();
-    textSearch.setPredicates(List.of(predicate));
-    return textSearch;
-  }
-
   private int normalizeLimit(Integer limit, int defaultLimit, int maxLimit) {
     int normalized = limit == null ? defaultLimit : limit;
     if (normalized < 1 || normalized > maxLimit) {
@@ -323,20 +346,22 @@ public class SuggestGlossaryTermTranslationsFromTmMcpTool
     private final String target;
     private int occurrenceCount;
     private final Set<String> statuses = new LinkedHashSet<>();
-    private final List<Long> sampleTmTextUnitIds = new ArrayList<>();
+    private final Set<Long> sampleTmTextUnitIds = new TreeSet<>();
 
     private MutableTargetSuggestion(String target) {
       this.target = target;
     }
 
-    private void add(TextUnitDTO match) {
-      occurrenceCount++;
-      if (match.getStatus() != null) {
-        statuses.add(match.getStatus().name());
+    private void add(TextUnitTargetCount targetCount) {
+      occurrenceCount += (int) targetCount.count();
+      if (targetCount.status() != null) {
+        statuses.add(targetCount.status().name());
       }
-      if (match.getTmTextUnitId() != null
-          && sampleTmTextUnitIds.size() < MAX_SAMPLE_TEXT_UNIT_IDS) {
-        sampleTmTextUnitIds.add(match.getTmTextUnitId());
+      for (Long tmTextUnitId :
+          List.of(targetCount.minTmTextUnitId(), targetCount.maxTmTextUnitId())) {
+        if (sampleTmTextUnitIds.size() < MAX_SAMPLE_TEXT_UNIT_IDS) {
+          sampleTmTextUnitIds.add(tmTextUnitId);
+        }
       }
     }
 
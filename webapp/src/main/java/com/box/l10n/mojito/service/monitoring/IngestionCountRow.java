@@ -0,0 +1,20 @@
+package com.box.l10n.mojito.service.monitoring;
+
+import java.time.LocalDate;
+
+/**
+ * Ingestion counts summed over a day, a month or a year, optionally per repository.
+ *
+ * @param periodStart the day, or the first day of the month or of the year
+ */
+public record IngestionCountRow(
+    LocalDate periodStart,
+    Long repositoryId,
+    String repositoryName,
+    Long stringCount,
+    Long wordCount) {
+
+  public IngestionCountRow(LocalDate periodStart, Long stringCount, Long wordCount) {
+    this(periodStart, null, null, stringCount, wordCount);
+  }
+}
@@ -1,6 +1,7 @@
 package com.box.l10n.mojito.service.monitoring;
 
 import com.box.l10n.mojito.entity.monitoring.MonitoringTextUnitIngestionDaily;
+import java.time.LocalDate;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,15 +12,43 @@ import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 public interface MonitoringTextUnitIngestionDailyRepository
     extends JpaRepository<MonitoringTextUnitIngestionDaily, Long> {
 
-  @Query(
-      "select row from MonitoringTextUnitIngestionDaily row"
-          + " order by row.dayUtc asc, row.repository.id asc")
-  List<MonitoringTextUnitIngestionDaily> findAllOrdered();
-
   @Query(
       "select row from MonitoringTextUnitIngestionDaily row"
           + " where row.repository.id = :repositoryId"
           + " order by row.dayUtc asc, row.repository.id asc")
   List<MonitoringTextUnitIngestionDaily> findAllByRepositoryIdOrdered(
       @Param("repositoryId") Long repositoryId);
+
+  @Query(
+      """
+      select new com.box.l10n.mojito.service.monitoring.IngestionCountRow(
+        row.dayUtc,
+        sum(row.stringCount),
+        sum(row.wordCount)
+      )
+      from MonitoringTextUnitIngestionDaily row
+      where row.dayUtc >= :fromDay and row.dayUtc <= :toDay
+      group by row.dayUtc
+      order by row.dayUtc asc
+      """)
+  List<IngestionCountRow> sumByDay(
+      @Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+  @Query(
+      """
+      select new com.box.l10n.mojito.service.monitoring.IngestionCountRow(
+        row.dayUtc,
+        r.id,
+        r.name,
+        sum(row.stringCount),
+        sum(row.wordCount)
+      )
+      from MonitoringTextUnitIngestionDaily row
+      join row.repository r
+      where row.dayUtc >= :fromDay and row.dayUtc <= :toDay
+      group by row.dayUtc, r.id, r.name
+      order by row.dayUtc asc, r.id asc
+      """)
+  List<IngestionCountRow> sumByDayAndRepository(
+      @Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
 }
@@ -0,0 +1,58 @@
+package com.box.l10n.mojito.service.monitoring;
+
+import com.box.l10n.mojito.entity.monitoring.MonitoringTextUnitIngestionRollup;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+@RepositoryRestResource(exported = false)
+public interface MonitoringTextUnitIngestionRollupRepository
+    extends JpaRepository<MonitoringTextUnitIngestionRollup, Long> {
+
+  List<MonitoringTextUnitIngestionRollup> findByPeriodTypeAndPeriodStartBetween(
+      String periodType, LocalDate fromPeriodStart, LocalDate toPeriodStart);
+
+  @Query(
+      """
+      select new com.box.l10n.mojito.service.monitoring.IngestionCountRow(
+        rollup.periodStart,
+        sum(rollup.stringCount),
+        sum(rollup.wordCount)
+      )
+      from MonitoringTextUnitIngestionRollup rollup
+      where rollup.periodType = :periodType
+        and rollup.periodStart >= :fromPeriodStart
+        and rollup.periodStart <= :toPeriodStart
+      group by rollup.periodStart
+      order by rollup.periodStart asc
+      """)
+  List<IngestionCountRow> sumByPeriod(
+      @Param("periodType") String periodType,
+      @Param("fromPeriodStart") LocalDate fromPeriodStart,
+      @Param("toPeriodStart") LocalDate toPeriodStart);
+
+  @Query(
+      """
+      select new com.box.l10n.mojito.service.monitoring.IngestionCountRow(
+        rollup.periodStart,
+        r.id,
+        r.name,
+        sum(rollup.stringCount),
+        sum(rollup.wordCount)
+      )
+      from MonitoringTextUnitIngestionRollup rollup
+      join rollup.repository r
+      where rollup.periodType = :periodType
+        and rollup.periodStart >= :fromPeriodStart
+        and rollup.periodStart <= :toPeriodStart
+      group by rollup.periodStart, r.id, r.name
+      order by rollup.periodStart asc, r.id asc
+      """)
+  List<IngestionCountRow> sumByPeriodAndRepository(
+      @Param("periodType") String periodType,
+      @Param("fromPeriodStart") LocalDate fromPeriodStart,
+      @Param("toPeriodStart") LocalDate toPeriodStart);
+}
@@ -2,6 +2,7 @@ package com.box.l10n.mojito.service.monitoring;
 
 import com.box.l10n.mojito.entity.Repository;
 import com.box.l10n.mojito.entity.monitoring.MonitoringTextUnitIngestionDaily;
+import com.box.l10n.mojito.entity.monitoring.MonitoringTextUnitIngestionRollup;
 import com.box.l10n.mojito.entity.monitoring.MonitoringTextUnitIngestionState;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -14,6 +15,8 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -27,19 +30,27 @@ public class TextUnitIngestionMonitoringService {
 
   static final int STATE_ROW_ID = 1;
 
+  /** Bounds used when the snapshot range is open, both are within the range of SQL dates. */
+  static final LocalDate MIN_DAY = LocalDate.of(1970, 1, 1);
+
+  static final LocalDate MAX_DAY = LocalDate.of(9999, 12, 31);
+
   private final JdbcTemplate jdbcTemplate;
   private final MonitoringTextUnitIngestionDailyRepository dailyRepository;
   private final MonitoringTextUnitIngestionStateRepository stateRepository;
+  private final MonitoringTextUnitIngestionRollupRepository rollupRepository;
 
   @PersistenceContext EntityManager entityManager;
 
   public TextUnitIngestionMonitoringService(
       JdbcTemplate jdbcTemplate,
       MonitoringTextUnitIngestionDailyRepository dailyRepository,
-      MonitoringTextUnitIngestionStateRepository stateRepository) {
+      MonitoringTextUnitIngestionStateRepository stateRepository,
+      MonitoringTextUnitIngestionRollupRepository rollupRepository) {
     this.jdbcTemplate = jdbcTemplate;
     this.dailyRepository = dailyRepository;
     this.stateRepository = stateRepository;
+    this.rollupRepository = rollupRepository;
   }
 
   @Transactional
@@ -63,6 +74,7 @@ public class TextUnitIngestionMonitoringService {
     LocalDate recomputeToDay = yesterdayUtc;
     List<SourceAggregateRow> sourceRows = querySourceAggregates(recomputeFromDay, recomputeToDay);
     int insertedRows = saveDailyRows(sourceRows, computedAt);
+    updateRollups(sourceRows, computedAt);
 
     updateState(stateEntity, recomputeToDay, computedAt);
 
@@ -78,46 +90,37 @@ public class TextUnitIngestionMonitoringService {
         computedAt);
   }
 
+  /**
+   * Day snapshots are summed from the daily rows. Month and year snapshots read the rollups for the
+   * periods fully inside the requested range and sum the daily rows only for the partial periods at
+   * its edges, so the cost depends on the range, not on how much history is stored.
+   */
   @Transactional(readOnly = true)
   public IngestionSnapshot getSnapshot(
       IngestionGroupBy groupBy, boolean groupByRepository, LocalDate fromDay, LocalDate toDay) {
     MonitoringTextUnitIngestionState currentState = getOrCreateState();
-    List<MonitoringTextUnitIngestionDaily> storedRows = dailyRepository.findAllOrdered();
 
     if (fromDay != null && toDay != null && fromDay.isAfter(toDay)) {
       throw new IllegalArgumentException(
           "Invalid date range. fromDay must be before or equal to toDay.");
     }
 
-    Map<IngestionSeriesKey, CountAccumulator> periodCounts = new LinkedHashMap<>();
-
-    for (MonitoringTextUnitIngestionDaily row : storedRows) {
-      LocalDate rowDay = row.getDayUtc();
-      if ((fromDay != null && rowDay.isBefore(fromDay))
-          || (toDay != null && rowDay.isAfter(toDay))) {
-        continue;
-      }
-
-      String period = toPeriod(rowDay, groupBy);
-      Long repositoryId = groupByRepository ? row.getRepository().getId() : null;
-      String repositoryName = groupByRepository ? row.getRepository().getName() : null;
-      IngestionSeriesKey key = new IngestionSeriesKey(period, repositoryId, repositoryName);
+    LocalDate from = fromDay != null ? fromDay : MIN_DAY;
+    LocalDate to = toDay != null ? toDay : MAX_DAY;
+    List<IngestionCountRow> countRows =
+        groupBy == IngestionGroupBy.DAY
+            ? sumDailyRows(groupByRepository, from, to)
+            : sumPeriodRows(groupBy, groupByRepository, from, to);
 
-      CountAccumulator accumulator =
-          periodCounts.computeIfAbsent(key, ignored -> new CountAccumulator());
-      accumulator.stringCount += row.getStringCount() != null ? row.getStringCount() : 0;
-      accumulator.wordCount += row.getWordCount() != null ? row.getWordCount() : 0;
-    }
-
-    List<IngestionPoint> points = new ArrayList<>(periodCounts.size());
-    for (Map.Entry<IngestionSeriesKey, CountAccumulator> entry : periodCounts.entrySet()) {
+    List<IngestionPoint> points = new ArrayList<>(countRows.size());
+    for (IngestionCountRow countRow : countRows) {
       points.add(
           new IngestionPoint(
-              entry.getKey().period,
-              entry.getKey().repositoryId,
-              entry.getKey().repositoryName,
-              entry.getValue().stringCount,
-              entry.getValue().wordCount));
+              toPeriod(countRow.periodStart(), groupBy),
+              countRow.repositoryId(),
+              countRow.repositoryName(),
+              countRow.stringCount() != null ? countRow.stringCount() : 0,
+              countRow.wordCount() != null ? countRow.wordCount() : 0));
     }
 
     return new IngestionSnapshot(
@@ -130,6 +133,81 @@ public class TextUnitIngestionMonitoringService {
         points);
   }
 
+  private List<IngestionCountRow> sumDailyRows(
+      boolean groupByRepository, LocalDate fromDay, LocalDate toDay) {
+    return groupByRepository
+        ? dailyRepository.sumByDayAndRepository(fromDay, toDay)
+        : dailyRepository.sumByDay(fromDay, toDay);
+  }
+
+  private List<IngestionCountRow> sumPeriodRows(
+      IngestionGroupBy groupBy, boolean groupByRepository, LocalDate fromDay, LocalDate toDay) {
+    LocalDate firstFullPeriodStart = toPeriodStart(fromDay, groupBy);
+    if (!firstFullPeriodStart.equals(fromDay)) {
+      firstFullPeriodStart = nextPeriodStart(firstFullPeriodStart, groupBy);
+    }
+    LocalDate afterLastFullPeriod = toPeriodStart(toDay.plusDays(1), groupBy);
+
+    if (!firstFullPeriodStart.isBefore(afterLastFullPeriod)) {
+      return foldIntoPeriods(sumDailyRows(groupByRepository, fromDay, toDay), groupBy);
+    }
+
+    List<IngestionCountRow> countRows = new ArrayList<>();
+    if (fromDay.isBefore(firstFullPeriodStart)) {
+      countRows.addAll(
+          foldIntoPeriods(
+              sumDailyRows(groupByRepository, fromDay, firstFullPeriodStart.minusDays(1)),
+              groupBy));
+    }
+    LocalDate lastFullPeriodStart = previousPeriodStart(afterLastFullPeriod, groupBy);
+    String periodType = toRollupPeriodType(groupBy);
+    countRows.addAll(
+        groupByRepository
+            ? rollupRepository.sumByPeriodAndRepository(
+                periodType, firstFullPeriodStart, lastFullPeriodStart)
+            : rollupRepository.sumByPeriod(periodType, firstFullPeriodStart, lastFullPeriodStart));
+    if (!afterLastFullPeriod.isAfter(toDay)) {
+      countRows.addAll(
+          foldIntoPeriods(sumDailyRows(groupByRepository, afterLastFullPeriod, toDay), groupBy));
+    }
+    return countRows;
+  }
+
+  /** Sums daily count rows, sorted by day then repository, into rows per period. */
+  private List<IngestionCountRow> foldIntoPeriods(
+      List<IngestionCountRow> dailyRows, IngestionGroupBy groupBy) {
+    Map<PeriodRepositoryKey, IngestionCountRow> rowsByKey = new LinkedHashMap<>();
+    for (IngestionCountRow dailyRow : dailyRows) {
+      LocalDate periodStart = toPeriodStart(dailyRow.periodStart(), groupBy);
+      rowsByKey.merge(
+          new PeriodRepositoryKey(periodStart, dailyRow.repositoryId()),
+          new IngestionCountRow(
+              periodStart,
+              dailyRow.repositoryId(),
+              dailyRow.repositoryName(),
+              dailyRow.stringCount(),
+              dailyRow.wordCount()),
+          (current, next) ->
+              new IngestionCountRow(
+                  periodStart,
+                  current.repositoryId(),
+                  current.repositoryName(),
+                  nullToZero(current.stringCount()) + nullToZero(next.stringCount()),
+                  nullToZero(current.wordCount()) + nullToZero(next.wordCount())));
+    }
+    return rowsByKey.values().stream()
+        .sorted(
+            Comparator.comparing(IngestionCountRow::periodStart)
+                .thenComparing(
+                    IngestionCountRow::repositoryId,
+                    Comparator.nullsFirst(Comparator.naturalOrder())))
+        .toList();
+  }
+
+  private long nullToZero(Long value) {
+    return value != null ? value : 0;
+  }
+
   private String toPeriod(LocalDate dayUtc, IngestionGroupBy groupBy) {
     return switch (groupBy) {
       case DAY -> dayUtc.toString();
@@ -138,6 +216,85 @@ public class TextUnitIngestionMonitoringService {
     };
   }
 
+  private LocalDate toPeriodStart(LocalDate dayUtc, IngestionGroupBy groupBy) {
+    return switch (groupBy) {
+      case DAY -> dayUtc;
+      case MONTH -> dayUtc.withDayOfMonth(1);
+      case YEAR -> dayUtc.withDayOfYear(1);
+    };
+  }
+
+  private LocalDate nextPeriodStart(LocalDate periodStart, IngestionGroupBy groupBy) {
+    return switch (groupBy) {
+      case DAY -> periodStart.plusDays(1);
+      case MONTH -> periodStart.plusMonths(1);
+      case YEAR -> periodStart.plusYears(1);
+    };
+  }
+
+  private LocalDate previousPeriodStart(LocalDate periodStart, IngestionGroupBy groupBy) {
+    return switch (groupBy) {
+      case DAY -> periodStart.minusDays(1);
+      case MONTH -> periodStart.minusMonths(1);
+      case YEAR -> periodStart.minusYears(1);
+    };
+  }
+
+  private String toRollupPeriodType(IngestionGroupBy groupBy) {
+    return switch (groupBy) {
+      case MONTH -> MonitoringTextUnitIngestionRollup.PERIOD_TYPE_MONTH;
+      case YEAR -> MonitoringTextUnitIngestionRollup.PERIOD_TYPE_YEAR;
+      case DAY -> throw new IllegalArgumentException("Day counts are not rolled up");
+    };
+  }
+
+  /**
+   * Adds the counts of newly computed days to the month and year rollups. Days are only computed
+   * once, so the rollups never need to be rebuilt from the daily rows.
+   */
+  private void updateRollups(List<SourceAggregateRow> sourceRows, Instant computedAt) {
+    if (sourceRows.isEmpty()) {
+      return;
+    }
+
+    ZonedDateTime computedAtUtc = ZonedDateTime.ofInstant(computedAt, ZoneOffset.UTC);
+    for (IngestionGroupBy groupBy : List.of(IngestionGroupBy.MONTH, IngestionGroupBy.YEAR)) {
+      String periodType = toRollupPeriodType(groupBy);
+      Map<PeriodRepositoryKey, MonitoringTextUnitIngestionRollup> rollupsByKey = new HashMap<>();
+      for (MonitoringTextUnitIngestionRollup rollup :
+          rollupRepository.findByPeriodTypeAndPeriodStartBetween(
+              periodType,
+              toPeriodStart(sourceRows.getFirst().dayUtc, groupBy),
+              toPeriodStart(sourceRows.getLast().dayUtc, groupBy))) {
+        rollupsByKey.put(
+            new PeriodRepositoryKey(rollup.getPeriodStart(), rollup.getRepository().getId()),
+            rollup);
+      }
+
+      for (SourceAggregateRow sourceRow : sourceRows) {
+        LocalDate periodStart = toPeriodStart(sourceRow.dayUtc, groupBy);
+        MonitoringTextUnitIngestionRollup rollup =
+            rollupsByKey.computeIfAbsent(
+                new PeriodRepositoryKey(periodStart, sourceRow.repositoryId),
+                key -> {
+                  MonitoringTextUnitIngestionRollup next = new MonitoringTextUnitIngestionRollup();
+                  next.setPeriodType(periodType);
+                  next.setPeriodStart(periodStart);
+                  next.setRepository(
+                      entityManager.getReference(Repository.class, sourceRow.repositoryId));
+                  next.setStringCount(0L);
+                  next.setWordCount(0L);
+                  return next;
+                });
+        rollup.setStringCount(rollup.getStringCount() + sourceRow.stringCount);
+        rollup.setWordCount(rollup.getWordCount() + sourceRow.wordCount);
+        rollup.setComputedAt(computedAtUtc);
+      }
+
+      rollupRepository.saveAll(rollupsByKey.values());
+    }
+  }
+
   private int saveDailyRows(List<SourceAggregateRow> sourceRows, Instant computedAt) {
     if (sourceRows.isEmpty()) {
       return 0;
@@ -234,43 +391,7 @@ public class TextUnitIngestionMonitoringService {
     }
   }
 
-  static class IngestionSeriesKey {
-    final String period;
-    final Long repositoryId;
-    final String repositoryName;
-
-    IngestionSeriesKey(String period, Long repositoryId, String repositoryName) {
-      this.period = period;
-      this.repositoryId = repositoryId;
-      this.repositoryName = repositoryName;
-    }
-
-    @Override
-    public boolean equals(Object object) {
-      if (this == object) {
-        return true;
-      }
-      if (!(object instanceof IngestionSeriesKey other)) {
-        return false;
-      }
-      return period.equals(other.period)
-          && (repositoryId == null
-              ? other.repositoryId == null
-              : repositoryId.equals(other.repositoryId));
-    }
-
-    @Override
-    public int hashCode() {
-      int result = period.hashCode();
-      result = 31 * result + (repositoryId != null ? repositoryId.hashCode() : 0);
-      return result;
-    }
-  }
-
-  static class CountAccumulator {
-    long stringCount;
-    long wordCount;
-  }
+  record PeriodRepositoryKey(LocalDate periodStart, Long repositoryId) {}
 
   public enum IngestionGroupBy {
     DAY,
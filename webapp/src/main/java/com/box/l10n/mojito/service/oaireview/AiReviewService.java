@@ -496,6 +496,9 @@ public class AiReviewService {
               return Mono.fromFuture(
                   openAIClientPool
                       .submit(
+                          OpenAIClientPool.SubmitOptions.forResponsesRequest(
+                              textUnitDTO.getRepositoryName() + "/" + textUnitDTO.getTargetLocale(),
+                              responsesRequest),
                           openAIClient ->
                               openAIClient.getResponses(
                                   responsesRequest,
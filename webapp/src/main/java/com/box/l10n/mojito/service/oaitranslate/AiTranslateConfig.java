@@ -39,13 +39,16 @@ public class AiTranslateConfig {
     }
     AiTranslateConfigurationProperties.PoolProperties poolProperties =
         aiTranslateConfigurationProperties.getPool();
-    return new OpenAIClientPool(
-        poolProperties.getMaxConnections(),
-        poolProperties.getMaxPendingAcquires(),
-        poolProperties.getAcquireTimeoutSeconds(),
-        aiTranslateConfigurationProperties.getOpenaiClientToken(),
-        "ai-translate",
-        meterRegistry);
+    return OpenAIClientPool.builder()
+        .numberOfClients(poolProperties.getMaxConnections())
+        .numberOfParallelRequestPerClient(poolProperties.getMaxPendingAcquires())
+        .sizeOfAsyncProcessors(poolProperties.getAcquireTimeoutSeconds())
+        .apiKey(aiTranslateConfigurationProperties.getOpenaiClientToken())
+        .poolName("ai-translate")
+        .meterRegistry(meterRegistry)
+        .requestsPerMinute(poolProperties.getRequestsPerMinute())
+        .tokensPerMinute(poolProperties.getTokensPerMinute())
+        .build();
   }
 
   @Bean
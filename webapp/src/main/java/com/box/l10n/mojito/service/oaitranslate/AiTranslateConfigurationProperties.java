@@ -2,6 +2,7 @@ package com.box.l10n.mojito.service.oaitranslate;
 
 import com.box.l10n.mojito.quartz.QuartzSchedulerManager;
 import com.box.l10n.mojito.service.blobstorage.Retention;
+import java.time.Duration;
 import java.util.Locale;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -18,6 +19,7 @@ public class AiTranslateConfigurationProperties {
   LineageProperties lineage = new LineageProperties();
   PricingProperties pricing = new PricingProperties();
   ResponsesProperties responses = new ResponsesProperties();
+  ResultCacheProperties resultCache = new ResultCacheProperties();
 
   public String getOpenaiClientToken() {
     return openaiClientToken;
@@ -91,10 +93,24 @@ public class AiTranslateConfigurationProperties {
     this.responses = responses;
   }
 
+  public ResultCacheProperties getResultCache() {
+    return resultCache;
+  }
+
+  public void setResultCache(ResultCacheProperties resultCache) {
+    this.resultCache = resultCache;
+  }
+
   public static class NoBatchProperties {
     TimeoutProperties timeout = new TimeoutProperties();
     Retention outputRetention = Retention.MIN_1_DAY;
 
+    /** Requests submitted but not yet imported, across locales */
+    int maxRequestsInFlight = 64;
+
+    /** Number of text units imported at once as responses complete */
+    int importBatchSize = 200;
+
     public TimeoutProperties getTimeout() {
       return timeout;
     }
@@ -111,6 +127,22 @@ public class AiTranslateConfigurationProperties {
       this.outputRetention = outputRetention;
     }
 
+    public int getMaxRequestsInFlight() {
+      return maxRequestsInFlight;
+    }
+
+    public void setMaxRequestsInFlight(int maxRequestsInFlight) {
+      this.maxRequestsInFlight = maxRequestsInFlight;
+    }
+
+    public int getImportBatchSize() {
+      return importBatchSize;
+    }
+
+    public void setImportBatchSize(int importBatchSize) {
+      this.importBatchSize = importBatchSize;
+    }
+
     public static class TimeoutProperties {
       int baseSeconds = 15;
       int perAdditionalTextUnitSeconds = 2;
@@ -238,6 +270,11 @@ public class AiTranslateConfigurationProperties {
     int maxPendingAcquires = 100;
     int acquireTimeoutSeconds = 1;
 
+    /** Initial limits per model until the API returns its rate limit headers, 0 for no limit */
+    long requestsPerMinute = 0;
+
+    long tokensPerMinute = 0;
+
     public int getMaxConnections() {
       return maxConnections;
     }
@@ -261,6 +298,22 @@ public class AiTranslateConfigurationProperties {
     public void setAcquireTimeoutSeconds(int acquireTimeoutSeconds) {
       this.acquireTimeoutSeconds = acquireTimeoutSeconds;
     }
+
+    public long getRequestsPerMinute() {
+      return requestsPerMinute;
+    }
+
+    public void setRequestsPerMinute(long requestsPerMinute) {
+      this.requestsPerMinute = requestsPerMinute;
+    }
+
+    public long getTokensPerMinute() {
+      return tokensPerMinute;
+    }
+
+    public void setTokensPerMinute(long tokensPerMinute) {
+      this.tokensPerMinute = tokensPerMinute;
+    }
   }
 
   public static class PricingProperties {
@@ -344,4 +397,62 @@ public class AiTranslateConfigurationProperties {
       this.maxBackoffSeconds = maxBackoffSeconds;
     }
   }
+
+  public static class ResultCacheProperties {
+    boolean enabled = false;
+
+    /** Entries older than this are ignored, the blob retention can also remove them earlier */
+    Duration ttl = Duration.ofDays(7);
+
+    Retention retention = Retention.MIN_1_DAY;
+
+    /** Bump to stop using all the existing entries, eg. when the prompts change in the code */
+    String version = "1";
+
+    /**
+     * Maximum number of entries read, or written, at the same time when looking up, or saving, the
+     * entries of a group of text units
+     */
+    int fetchConcurrency = 16;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl;
+    }
+
+    public Retention getRetention() {
+      return retention;
+    }
+
+    public void setRetention(Retention retention) {
+      this.retention = retention;
+    }
+
+    public String getVersion() {
+      return version;
+    }
+
+    public void setVersion(String version) {
+      this.version = version;
+    }
+
+    public int getFetchConcurrency() {
+      return fetchConcurrency;
+    }
+
+    public void setFetchConcurrency(int fetchConcurrency) {
+      this.fetchConcurrency = fetchConcurrency;
+    }
+  }
 }
@@ -0,0 +1,187 @@
+package com.box.l10n.mojito.service.oaitranslate;
+
+import static com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage.Prefix.AI_TRANSLATE_RESULT_CACHE;
+
+import com.box.l10n.mojito.json.ObjectMapper;
+import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import com.box.l10n.mojito.service.oaitranslate.AiTranslateType.CompletionMultiTextUnitInput.TextUnit;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Content-addressed cache of AI translations, shared by all repositories.
+ *
+ * <p>An entry is keyed by what the model sees for a text unit: the NFC normalized source, a hash of
+ * the source comment, the existing target, the glossary terms, the target locale, the model and its
+ * settings, and the full prompt including locale and source rule suffixes. Changing a glossary term
+ * or a prompt rule changes the key, so stale translations are not reused. Related strings are not
+ * part of the key, they are hints that vary by repository and would prevent any reuse.
+ *
+ * <p>Entries are only written for translations that were imported, and keep the token usage and
+ * latency share of the request that produced them to report what reusing them saved.
+ *
+ * <p>Only the no batch mode uses the cache. The batch mode neither reads nor fills it: its requests
+ * are built from the single text unit input with a different prompt, so the keys would not match,
+ * and its results are imported later by the batches import task.
+ */
+@Component
+public class AiTranslateResultCache {
+
+  static Logger logger = LoggerFactory.getLogger(AiTranslateResultCache.class);
+
+  /** Completion id reported for the text units translated from the cache */
+  static final String COMPLETION_ID = "result-cache";
+
+  public record Entry(
+      String target,
+      String targetComment,
+      long inputTokens,
+      long cachedInputTokens,
+      long outputTokens,
+      long reasoningTokens,
+      long latencyMillis,
+      Instant createdAt) {}
+
+  private final StructuredBlobStorage structuredBlobStorage;
+  private final AiTranslateConfigurationProperties aiTranslateConfigurationProperties;
+  private final ObjectMapper objectMapper;
+
+  public AiTranslateResultCache(
+      StructuredBlobStorage structuredBlobStorage,
+      AiTranslateConfigurationProperties aiTranslateConfigurationProperties,
+      @Qualifier("AiTranslate") ObjectMapper objectMapper) {
+    this.structuredBlobStorage = structuredBlobStorage;
+    this.aiTranslateConfigurationProperties = aiTranslateConfigurationProperties;
+    this.objectMapper = objectMapper;
+  }
+
+  public boolean isEnabled() {
+    return aiTranslateConfigurationProperties.getResultCache().isEnabled();
+  }
+
+  /**
+   * @param prompt the full instructions sent with the text unit, with all the suffixes
+   */
+  public String getKey(
+      String bcp47Tag,
+      String model,
+      String reasoningEffort,
+      String textVerbosity,
+      String prompt,
+      TextUnit textUnit) {
+    String fingerprint =
+        String.join(
+            "\n",
+            Objects.toString(reasoningEffort),
+            Objects.toString(textVerbosity),
+            DigestUtils.sha256Hex(Objects.toString(prompt)),
+            DigestUtils.sha256Hex(normalizeSource(textUnit.source())),
+            DigestUtils.md5Hex(Objects.toString(textUnit.sourceDescription())),
+            objectMapper.writeValueAsStringUnchecked(textUnit.existingTarget()),
+            objectMapper.writeValueAsStringUnchecked(textUnit.glossaryTerms()));
+
+    return "version/"
+        + aiTranslateConfigurationProperties.getResultCache().getVersion()
+        + "/locale/"
+        + bcp47Tag
+        + "/model/"
+        + model
+        + "/"
+        + DigestUtils.sha256Hex(fingerprint)
+        + ".json";
+  }
+
+  public Optional<Entry> get(String key) {
+    try {
+      return structuredBlobStorage
+          .getString(AI_TRANSLATE_RESULT_CACHE, key)
+          .map(
+              content -> {
+                try {
+                  return objectMapper.readValueUnchecked(content, Entry.class);
+                } catch (Exception e) {
+                  logger.warn("Can't read AI translation from cache, ignore entry: " + key, e);
+                  return null;
+                }
+              })
+          .filter(this::isFresh);
+    } catch (Exception e) {
+      logger.warn("Can't get AI translation from cache, translate instead: " + key, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Gets the entries of many keys with concurrent reads, see {@link #get(String)}.
+   *
+   * @return the fresh entries by key, keys without an entry are absent
+   */
+  public Map<String, Entry> getAll(Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return Map.of();
+    }
+    return Flux.fromIterable(new LinkedHashSet<>(keys))
+        .flatMap(
+            key ->
+                Mono.fromCallable(() -> get(key).map(entry -> Map.entry(key, entry)))
+                    .subscribeOn(Schedulers.boundedElastic()),
+            aiTranslateConfigurationProperties.getResultCache().getFetchConcurrency())
+        .filter(Optional::isPresent)
+        .map(Optional::get)
+        .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+        .block();
+  }
+
+  /**
+   * Puts many entries with concurrent writes, see {@link #put(String, Entry)}. Failures are logged
+   * and skipped.
+   *
+   * @return completes when all the entries were written, the writes start on subscription
+   */
+  public Mono<Void> putAll(Map<String, Entry> entries) {
+    return Flux.fromIterable(entries.entrySet())
+        .flatMap(
+            entry ->
+                Mono.fromRunnable(() -> put(entry.getKey(), entry.getValue()))
+                    .subscribeOn(Schedulers.boundedElastic()),
+            aiTranslateConfigurationProperties.getResultCache().getFetchConcurrency())
+        .then();
+  }
+
+  public void put(String key, Entry entry) {
+    try {
+      structuredBlobStorage.put(
+          AI_TRANSLATE_RESULT_CACHE,
+          key,
+          objectMapper.writeValueAsStringUnchecked(entry),
+          aiTranslateConfigurationProperties.getResultCache().getRetention());
+    } catch (Exception e) {
+      logger.warn("Can't put AI translation in cache: " + key, e);
+    }
+  }
+
+  boolean isFresh(Entry entry) {
+    return entry.createdAt() != null
+        && entry
+            .createdAt()
+            .plus(aiTranslateConfigurationProperties.getResultCache().getTtl())
+            .isAfter(Instant.now());
+  }
+
+  static String normalizeSource(String source) {
+    return source == null ? "" : Normalizer.normalize(source, Normalizer.Form.NFC);
+  }
+}
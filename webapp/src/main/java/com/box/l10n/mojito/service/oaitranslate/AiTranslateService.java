@@ -72,9 +72,9 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.http.HttpTimeoutException;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -107,9 +107,19 @@ public class AiTranslateService {
   private record ResponsesUsageTotals(
       long inputTokens, long cachedInputTokens, long outputTokens, long reasoningTokens) {
 
+    static final ResponsesUsageTotals ZERO = new ResponsesUsageTotals(0L, 0L, 0L, 0L);
+
     long totalTokens() {
       return inputTokens + outputTokens;
     }
+
+    ResponsesUsageTotals plus(ResponsesUsageTotals other) {
+      return new ResponsesUsageTotals(
+          inputTokens + other.inputTokens,
+          cachedInputTokens + other.cachedInputTokens,
+          outputTokens + other.outputTokens,
+          reasoningTokens + other.reasoningTokens);
+    }
   }
 
   public record AiTranslateRunTotals(
@@ -127,6 +137,7 @@ public class AiTranslateService {
   private final AiTranslateLocalePromptSuffixService aiTranslateLocalePromptSuffixService;
   private final AiTranslateSourcePromptRuleService aiTranslateSourcePromptRuleService;
   private final AiTranslateTextUnitAttemptService aiTranslateTextUnitAttemptService;
+  private final AiTranslateResultCache aiTranslateResultCache;
   private final MeterRegistry meterRegistry;
   private final AtomicInteger noBatchRequestsInFlight;
 
@@ -188,7 +199,8 @@ public class AiTranslateService {
       AiTranslateLegacyBatchService aiTranslateLegacyBatchService,
       AiTranslateLocalePromptSuffixService aiTranslateLocalePromptSuffixService,
       AiTranslateSourcePromptRuleService aiTranslateSourcePromptRuleService,
-      AiTranslateTextUnitAttemptService aiTranslateTextUnitAttemptService) {
+      AiTranslateTextUnitAttemptService aiTranslateTextUnitAttemptService,
+      AiTranslateResultCache aiTranslateResultCache) {
     this.textUnitSearcher = textUnitSearcher;
     this.repositoryRepository = repositoryRepository;
     this.repositoryService = repositoryService;
@@ -212,6 +224,7 @@ public class AiTranslateService {
     this.aiTranslateLocalePromptSuffixService = aiTranslateLocalePromptSuffixService;
     this.aiTranslateSourcePromptRuleService = aiTranslateSourcePromptRuleService;
     this.aiTranslateTextUnitAttemptService = aiTranslateTextUnitAttemptService;
+    this.aiTranslateResultCache = aiTranslateResultCache;
     this.noBatchRequestsInFlight =
         meterRegistry.gauge(
             metricName("requestsInFlight"), Tags.of("mode", MODE_NO_BATCH), new AtomicInteger());
@@ -288,8 +301,15 @@ public class AiTranslateService {
 
   record SourcePromptRuleBucket(List<Long> ruleIds, List<String> ruleNames, String promptSuffix) {}
 
+  /**
+   * @param resultCacheKey the key to look the text unit up in the result cache, null if the cache
+   *     is not used for the text unit
+   */
   record PreparedNoBatchTextUnit(
-      TextUnitDTOWithVariantComments textUnitDTOWithVariantComments, TextUnit textUnit) {}
+      TextUnitDTOWithVariantComments textUnitDTOWithVariantComments,
+      TextUnit textUnit,
+      SourcePromptRuleBucket sourcePromptRuleBucket,
+      String resultCacheKey) {}
 
   static Map<String, TextUnitsByScreenshot> groupTextUnitsByScreenshot(
       List<TextUnitDTOWithVariantComments> textUnitDTOWithVariantCommentsList) {
@@ -343,14 +363,63 @@ public class AiTranslateService {
     }
   }
 
-  record TextUnitsByScreenshotWithResponsesResponse(
-      ResponsesRequest responsesRequest,
+  record NoBatchRequest(
+      NoBatchLocaleRun localeRun,
       String lineageRequestGroupId,
-      TextUnitsByScreenshot textUnitsByScreenshot,
+      boolean hasScreenshot,
       List<TextUnitDTOWithVariantComments> requestedTextUnitDTOWithVariantCommentsList,
       int timeoutSeconds,
-      CompletableFuture<ResponsesResponse> responsesResponseCompletableFuture) {}
+      Stopwatch stopwatch) {}
+
+  record ResultCacheCandidate(String key, ResponsesUsageTotals usageShare, long latencyMillis) {}
+
+  /**
+   * State of a locale in a no batch run. Responses of the locale are imported as they complete, the
+   * locale is done once all its requests were submitted and handled.
+   */
+  static final class NoBatchLocaleRun {
+    final RepositoryLocale repositoryLocale;
+    final Tags localeTags;
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    final List<TextUnitDTOWithVariantCommentOrError> pendingImports = new ArrayList<>();
+    final List<ImportReport.ImportReportLine> importReportLines = new ArrayList<>();
+    final Set<Long> skippedTmTextUnitIds = new HashSet<>();
+    final Map<Long, String> resultCacheKeyByTmTextUnitId = new HashMap<>();
+    final Map<Long, ResultCacheCandidate> resultCacheCandidateByTmTextUnitId = new HashMap<>();
+    AiTranslateType aiTranslateType;
+    Status importStatus;
+    int attemptedTextUnitCount;
+    int groupedRequestCount;
+    int skippedTextUnitCount;
+    int pendingRequestCount;
+    boolean allRequestsSubmitted;
+    boolean failed;
+    long successfulTextUnitCount;
+    long failedTextUnitCount;
+    long importedTextUnitCount;
+    ResponsesUsageTotals responsesUsageTotals = ResponsesUsageTotals.ZERO;
+    int resultCacheHitCount;
+    ResponsesUsageTotals resultCacheSavedUsageTotals = ResponsesUsageTotals.ZERO;
+    long resultCacheSavedLatencyMillis;
+
+    NoBatchLocaleRun(RepositoryLocale repositoryLocale, Tags localeTags) {
+      this.repositoryLocale = repositoryLocale;
+      this.localeTags = localeTags;
+    }
+
+    String getBcp47Tag() {
+      return repositoryLocale.getLocale().getBcp47Tag();
+    }
+  }
 
+  /**
+   * Translates without the batch API.
+   *
+   * <p>Requests go through a {@link CompletionPipeline} that bounds the number of requests in
+   * flight. Responses are validated and imported in small batches as they complete, and the next
+   * locale starts being submitted while the previous one is still in flight, so neither the heap
+   * nor the time to first import grow with the size of a locale.
+   */
   public AiTranslateRunTotals aiTranslateNoBatch(
       AiTranslateInput aiTranslateInput, PollableTask currentTask) {
     Repository repository = getRepository(aiTranslateInput);
@@ -369,15 +438,19 @@ public class AiTranslateService {
         aiTranslateSourcePromptRuleService.getActiveRules();
 
     Stopwatch stopwatchForTotal = Stopwatch.createStarted();
-    long runInputTokens = 0L;
-    long runCachedInputTokens = 0L;
-    long runOutputTokens = 0L;
-    long runReasoningTokens = 0L;
+    String model = getModel(aiTranslateInput);
 
+    List<NoBatchLocaleRun> localeRuns = new ArrayList<>();
     List<String> reportFilenames = new ArrayList<>();
+    CompletionPipeline<NoBatchRequest, ResponsesResponse> completionPipeline =
+        new CompletionPipeline<>(
+            aiTranslateConfigurationProperties.getNoBatch().getMaxRequestsInFlight(),
+            completed ->
+                handleNoBatchResponse(
+                    completed, aiTranslateInput, currentTask, repository, model, reportFilenames));
+
     for (RepositoryLocale repositoryLocale : filteredRepositoryLocales) {
       String bcp47Tag = repositoryLocale.getLocale().getBcp47Tag();
-      String model = getModel(aiTranslateInput);
       Tags localeTags =
           metricTags(MODE_NO_BATCH, repository.getName(), model, bcp47Tag, HAS_SCREENSHOT_NA);
       logger.info(
@@ -386,7 +459,7 @@ public class AiTranslateService {
           bcp47Tag);
       incrementCounter(metricName("localeRuns"), localeTags.and("result", "started"));
 
-      Stopwatch stopwatchForLocale = Stopwatch.createStarted();
+      NoBatchLocaleRun localeRun = new NoBatchLocaleRun(repositoryLocale, localeTags);
       try {
         List<TextUnitDTOWithVariantComments> textUnitDTOWithVariantCommentsList =
             getTextUnitDTOS(
@@ -401,10 +474,12 @@ public class AiTranslateService {
           incrementCounter(metricName("localeRuns"), localeTags.and("result", "skipped"));
           meterRegistry
               .timer(metricName("localeDuration"), localeTags)
-              .record(stopwatchForLocale.elapsed());
+              .record(localeRun.stopwatch.elapsed());
           continue;
         }
 
+        localeRuns.add(localeRun);
+        localeRun.attemptedTextUnitCount = textUnitDTOWithVariantCommentsList.size();
         incrementCounter(
             metricName("textUnits"),
             localeTags.and("result", "attempted"),
@@ -432,20 +507,13 @@ public class AiTranslateService {
             AiTranslateType.fromString(aiTranslateInput.translateType());
         String localePromptSuffix =
             aiTranslateLocalePromptSuffixService.getLocalePromptSuffix(bcp47Tag);
-        Status importStatus = Status.valueOf(aiTranslateInput.importStatus());
-
-        int groupedRequestCount = 0;
-        int skippedTextUnitCount = 0;
-        Set<Long> skippedTmTextUnitIds = new HashSet<>();
-
-        List<TextUnitsByScreenshotWithResponsesResponse>
-            textUnitsByScreenshotWithResponsesResponseList = new ArrayList<>();
+        localeRun.aiTranslateType = aiTranslateType;
+        localeRun.importStatus = Status.valueOf(aiTranslateInput.importStatus());
 
         for (TextUnitsByScreenshot textUnitsByScreenshot :
             groupTextUnitsByScreenshot(textUnitDTOWithVariantCommentsList).values()) {
 
-          Map<SourcePromptRuleBucket, List<PreparedNoBatchTextUnit>> textUnitsByPromptRuleBucket =
-              new LinkedHashMap<>();
+          List<PreparedNoBatchTextUnit> preparedNoBatchTextUnits = new ArrayList<>();
 
           for (TextUnitDTOWithVariantComments textUnitDTOWithVariantComments :
               textUnitsByScreenshot.textUnitDTOWithVariantCommentsList()) {
@@ -459,8 +527,8 @@ public class AiTranslateService {
                     textUnitDTOWithVariantComments);
 
             if (glossaryTermsOrSkip.shouldSkip()) {
-              skippedTextUnitCount++;
-              skippedTmTextUnitIds.add(textUnitDTO.getTmTextUnitId());
+              localeRun.skippedTextUnitCount++;
+              localeRun.skippedTmTextUnitIds.add(textUnitDTO.getTmTextUnitId());
               continue;
             }
 
@@ -472,34 +540,84 @@ public class AiTranslateService {
                     matchedPromptSuffixes.ruleIds(),
                     matchedPromptSuffixes.ruleNames(),
                     matchedPromptSuffixes.promptSuffix());
+            TextUnit textUnit =
+                new TextUnit(
+                    textUnitDTO.getTmTextUnitId(),
+                    textUnitDTO.getSource(),
+                    textUnitDTO.getComment(),
+                    textUnitDTO.getTarget() == null
+                        ? null
+                        : new TextUnit.ExistingTarget(
+                            textUnitDTO.getTarget(),
+                            textUnitDTO.getTargetComment(),
+                            !textUnitDTO.isIncludedInLocalizedFile(),
+                            textUnitDTOWithVariantComments.tmTextUnitVariantComments().stream()
+                                .filter(
+                                    tmTextUnitVariantComment ->
+                                        TMTextUnitVariantComment.Severity.ERROR.equals(
+                                            tmTextUnitVariantComment.getSeverity()))
+                                .map(TMTextUnitVariantComment::getContent)
+                                .toList()),
+                    glossaryTermsOrSkip.terms().stream()
+                        .map(AiTranslateService::convertGlossaryTermForMulti)
+                        .toList(),
+                    relatedStringsProvider.getRelatedStrings(textUnitDTO));
+
+            String resultCacheKey = null;
+            if (aiTranslateResultCache.isEnabled()
+                && textUnitsByScreenshot.screenshotUUID() == null) {
+              resultCacheKey =
+                  aiTranslateResultCache.getKey(
+                      bcp47Tag,
+                      model,
+                      getReasoningEffort(aiTranslateInput),
+                      getTextVerbosity(aiTranslateInput),
+                      getPrompt(
+                          aiTranslateType.getPrompt(),
+                          AiTranslateLocalePromptSuffixService.combinePromptSuffixes(
+                              localePromptSuffix,
+                              matchedPromptSuffixes.promptSuffix(),
+                              aiTranslateInput.promptSuffix())),
+                      textUnit);
+            }
+
+            preparedNoBatchTextUnits.add(
+                new PreparedNoBatchTextUnit(
+                    textUnitDTOWithVariantComments,
+                    textUnit,
+                    sourcePromptRuleBucket,
+                    resultCacheKey));
+          }
+
+          // one bulk lookup for the group instead of a blob read per text unit
+          Map<String, AiTranslateResultCache.Entry> resultCacheEntries =
+              aiTranslateResultCache.getAll(
+                  preparedNoBatchTextUnits.stream()
+                      .map(PreparedNoBatchTextUnit::resultCacheKey)
+                      .filter(Objects::nonNull)
+                      .toList());
+
+          Map<SourcePromptRuleBucket, List<PreparedNoBatchTextUnit>> textUnitsByPromptRuleBucket =
+              new LinkedHashMap<>();
+
+          for (PreparedNoBatchTextUnit preparedNoBatchTextUnit : preparedNoBatchTextUnits) {
+            if (preparedNoBatchTextUnit.resultCacheKey() != null
+                && translateFromResultCache(
+                    localeRun,
+                    preparedNoBatchTextUnit.textUnitDTOWithVariantComments(),
+                    preparedNoBatchTextUnit.resultCacheKey(),
+                    resultCacheEntries.get(preparedNoBatchTextUnit.resultCacheKey()))) {
+              if (localeRun.pendingImports.size()
+                  >= aiTranslateConfigurationProperties.getNoBatch().getImportBatchSize()) {
+                importNoBatchPendingTextUnits(localeRun, aiTranslateInput, currentTask);
+              }
+              continue;
+            }
+
             textUnitsByPromptRuleBucket
-                .computeIfAbsent(sourcePromptRuleBucket, ignored -> new ArrayList<>())
-                .add(
-                    new PreparedNoBatchTextUnit(
-                        textUnitDTOWithVariantComments,
-                        new TextUnit(
-                            textUnitDTO.getTmTextUnitId(),
-                            textUnitDTO.getSource(),
-                            textUnitDTO.getComment(),
-                            textUnitDTO.getTarget() == null
-                                ? null
-                                : new TextUnit.ExistingTarget(
-                                    textUnitDTO.getTarget(),
-                                    textUnitDTO.getTargetComment(),
-                                    !textUnitDTO.isIncludedInLocalizedFile(),
-                                    textUnitDTOWithVariantComments
-                                        .tmTextUnitVariantComments()
-                                        .stream()
-                                        .filter(
-                                            tmTextUnitVariantComment ->
-                                                TMTextUnitVariantComment.Severity.ERROR.equals(
-                                                    tmTextUnitVariantComment.getSeverity()))
-                                        .map(TMTextUnitVariantComment::getContent)
-                                        .toList()),
-                            glossaryTermsOrSkip.terms().stream()
-                                .map(AiTranslateService::convertGlossaryTermForMulti)
-                                .toList(),
-                            relatedStringsProvider.getRelatedStrings(textUnitDTO))));
+                .computeIfAbsent(
+                    preparedNoBatchTextUnit.sourcePromptRuleBucket(), ignored -> new ArrayList<>())
+                .add(preparedNoBatchTextUnit);
           }
 
           for (Map.Entry<SourcePromptRuleBucket, List<PreparedNoBatchTextUnit>> bucketEntry :
@@ -592,348 +710,81 @@ public class AiTranslateService {
                 metricName("groupedRequestSourceChars"), requestTags, requestSourceCharCount);
             incrementCounter(metricName("groupedRequestTimeoutSeconds"), requestTags, timeout);
 
-            Stopwatch stopwatchForRequest = Stopwatch.createStarted();
-            noBatchRequestsInFlight.incrementAndGet();
-
-            CompletableFuture<ResponsesResponse> responsesResponseCompletableFuture =
-                openAIClientPool
-                    .submit(
-                        openAIClient ->
-                            openAIClient.getResponses(
-                                responsesRequest, Duration.ofSeconds(timeout)))
-                    .whenComplete(
-                        (response, throwable) -> {
-                          try {
-                            meterRegistry
-                                .timer(
-                                    metricName("requestDuration"),
-                                    requestTags.and("result", getRequestResultTag(throwable)))
-                                .record(stopwatchForRequest.elapsed());
-                            incrementProviderFailureCounter(requestTags, throwable);
-                          } finally {
-                            noBatchRequestsInFlight.decrementAndGet();
-                          }
-                        });
-
-            incrementCounter(metricName("groupedRequests"), requestTags);
-            groupedRequestCount++;
-
-            TextUnitsByScreenshotWithResponsesResponse textUnitsByScreenshotWithResponsesResponse =
-                new TextUnitsByScreenshotWithResponsesResponse(
-                    responsesRequest,
+            localeRun.pendingRequestCount++;
+            localeRun.groupedRequestCount++;
+            Stopwatch stopwatchForRequest = Stopwatch.createUnstarted();
+            completionPipeline.submit(
+                new NoBatchRequest(
+                    localeRun,
                     lineageRequestGroupId,
-                    textUnitsByScreenshot,
+                    hasScreenshot,
                     requestedTextUnitDTOWithVariantComments,
                     timeout,
-                    responsesResponseCompletableFuture);
-            textUnitsByScreenshotWithResponsesResponseList.add(
-                textUnitsByScreenshotWithResponsesResponse);
+                    stopwatchForRequest),
+                () -> {
+                  stopwatchForRequest.start();
+                  noBatchRequestsInFlight.incrementAndGet();
+                  return openAIClientPool
+                      .submit(
+                          OpenAIClientPool.SubmitOptions.forResponsesRequest(
+                              repository.getName() + "/" + bcp47Tag, responsesRequest),
+                          openAIClient ->
+                              openAIClient.getResponses(
+                                  responsesRequest, Duration.ofSeconds(timeout)))
+                      .whenComplete(
+                          (response, throwable) -> {
+                            try {
+                              stopwatchForRequest.stop();
+                              meterRegistry
+                                  .timer(
+                                      metricName("requestDuration"),
+                                      requestTags.and("result", getRequestResultTag(throwable)))
+                                  .record(stopwatchForRequest.elapsed());
+                              incrementProviderFailureCounter(requestTags, throwable);
+                            } finally {
+                              noBatchRequestsInFlight.decrementAndGet();
+                            }
+                          });
+                });
+
+            incrementCounter(metricName("groupedRequests"), requestTags);
           }
         }
 
-        List<TextUnitDTOWithVariantCommentOrError> textUnitDTOWithVariantCommentOrErrors =
-            textUnitsByScreenshotWithResponsesResponseList.stream()
-                .flatMap(
-                    textUnitsByScreenshotWithResponsesResponse -> {
-                      ResponsesResponse responsesResponse;
-                      String lineageRequestGroupId =
-                          textUnitsByScreenshotWithResponsesResponse.lineageRequestGroupId();
-                      Tags requestTags =
-                          metricTags(
-                              MODE_NO_BATCH,
-                              repository.getName(),
-                              model,
-                              bcp47Tag,
-                              Boolean.toString(
-                                  textUnitsByScreenshotWithResponsesResponse
-                                          .textUnitsByScreenshot()
-                                          .screenshotUUID()
-                                      != null));
-                      try {
-                        responsesResponse =
-                            textUnitsByScreenshotWithResponsesResponse
-                                .responsesResponseCompletableFuture()
-                                .join();
-                      } catch (Throwable t) {
-                        List<Long> failedTmTextUnitIds =
-                            textUnitsByScreenshotWithResponsesResponse
-                                .requestedTextUnitDTOWithVariantCommentsList()
-                                .stream()
-                                .map(TextUnitDTOWithVariantComments::textUnitDTO)
-                                .map(TextUnitDTO::getTmTextUnitId)
-                                .toList();
-                        String locale = repositoryLocale.getLocale().getBcp47Tag();
-                        int timeoutSeconds =
-                            textUnitsByScreenshotWithResponsesResponse.timeoutSeconds();
-
-                        String errorMessage =
-                            "Error when getting the responsesResponse: %s"
-                                .formatted(t.getMessage());
-                        if (isTimeoutException(t)) {
-                          incrementCounter(metricName("timeouts"), requestTags);
-                          logger.error(
-                              "AI translate request timed out, skipping tmTextUnits: {}, locale: {}, timeoutSeconds: {}",
-                              failedTmTextUnitIds,
-                              locale,
-                              timeoutSeconds,
-                              t);
-                        } else {
-                          Integer statusCode = getProviderStatusCode(t);
-                          incrementProviderFailureCounter(requestTags, t);
-                          logger.error(
-                              errorMessage
-                                  + ", skipping tmTextUnits: {}, locale: {}, timeoutSeconds: {}, statusCode: {}",
-                              failedTmTextUnitIds,
-                              locale,
-                              timeoutSeconds,
-                              statusCode,
-                              t);
-                        }
-
-                        markNoBatchLineageFailed(
-                            currentTask.getId(), lineageRequestGroupId, null, null, errorMessage);
-
-                        return textUnitsByScreenshotWithResponsesResponse
-                            .requestedTextUnitDTOWithVariantCommentsList()
-                            .stream()
-                            .map(
-                                textUnitDTOWithVariantComments ->
-                                    new TextUnitDTOWithVariantCommentOrError(
-                                        null,
-                                        new TextUnitDTOWithVariantComment(
-                                            textUnitDTOWithVariantComments.textUnitDTO(), null),
-                                        textUnitDTOWithVariantComments.textUnitDTO().getTarget(),
-                                        errorMessage,
-                                        lineageRequestGroupId));
-                      }
-
-                      String responsePayloadBlobName =
-                          putNoBatchResponseLineageBlob(
-                              currentTask.getId(), lineageRequestGroupId, responsesResponse);
-                      Object completionOutput;
-                      try {
-                        String completionOutputAsJson = responsesResponse.outputText();
-
-                        completionOutput =
-                            objectMapper.readValueUnchecked(
-                                completionOutputAsJson, aiTranslateType.getOutputJsonSchemaClass());
-                      } catch (Throwable t) {
-                        String errorMessage =
-                            "Error trying to parse the JSON completion output: %s"
-                                .formatted(t.getMessage());
-                        incrementCounter(metricName("parseFailures"), requestTags);
-                        logger.debug(errorMessage, t);
-
-                        markNoBatchLineageFailed(
-                            currentTask.getId(),
-                            lineageRequestGroupId,
-                            responsesResponse.id(),
-                            responsePayloadBlobName,
-                            errorMessage);
-
-                        return textUnitsByScreenshotWithResponsesResponse
-                            .requestedTextUnitDTOWithVariantCommentsList()
-                            .stream()
-                            .map(
-                                textUnitDTOWithVariantComments ->
-                                    new TextUnitDTOWithVariantCommentOrError(
-                                        responsesResponse.id(),
-                                        new TextUnitDTOWithVariantComment(
-                                            textUnitDTOWithVariantComments.textUnitDTO(), null),
-                                        textUnitDTOWithVariantComments.textUnitDTO().getTarget(),
-                                        errorMessage,
-                                        lineageRequestGroupId));
-                      }
-
-                      markNoBatchLineageResponded(
-                          currentTask.getId(),
-                          lineageRequestGroupId,
-                          responsesResponse.id(),
-                          responsePayloadBlobName);
-
-                      return textUnitsByScreenshotWithResponsesResponse
-                          .requestedTextUnitDTOWithVariantCommentsList()
-                          .stream()
-                          .map(
-                              textUnitDTOWithVariantComments ->
-                                  prepareForTextUnitDTOForImport(
-                                      responsesResponse.id(),
-                                      aiTranslateType,
-                                      importStatus,
-                                      textUnitDTOWithVariantComments.textUnitDTO(),
-                                      completionOutput,
-                                      lineageRequestGroupId));
-                    })
-                .toList();
-
-        Duration elapsed = stopwatchForLocale.elapsed();
-
-        final Map<Long, ImportResult> importResultByTmTextUnitId =
-            aiTranslateInput.dryRun()
-                ? new LinkedHashMap<>()
-                : textUnitBatchImporterService
-                    .importTextUnitsWithVariantComment(
-                        textUnitDTOWithVariantCommentOrErrors.stream()
-                            .filter(t -> t.error() == null)
-                            .filter(t -> t.textUnitDTOWithVariantComment() != null)
-                            .map(
-                                TextUnitDTOWithVariantCommentOrError::textUnitDTOWithVariantComment)
-                            .toList(),
-                        TextUnitBatchImporterService.IntegrityChecksType
-                            .KEEP_STATUS_IF_SAME_TARGET_AND_NOT_INCLUDED,
-                        ALWAYS_IMPORT)
-                    .stream()
-                    .collect(
-                        toMap(
-                            importResult ->
-                                importResult
-                                    .addTMTextUnitCurrentVariantResult()
-                                    .getTmTextUnitCurrentVariant()
-                                    .getTmTextUnitVariant()
-                                    .getTmTextUnit()
-                                    .getId(),
-                            Function.identity()));
-
-        markNoBatchLineageImported(
-            currentTask.getId(), importResultByTmTextUnitId, textUnitDTOWithVariantCommentOrErrors);
-
-        long successfulTextUnitCount =
-            textUnitDTOWithVariantCommentOrErrors.stream()
-                .filter(t -> t.textUnitDTOWithVariantComment() != null)
-                .filter(
-                    t ->
-                        !skippedTmTextUnitIds.contains(
-                            t.textUnitDTOWithVariantComment().textUnitDTO().getTmTextUnitId()))
-                .filter(t -> t.error() == null)
-                .count();
-        long failedTextUnitCount =
-            textUnitDTOWithVariantCommentOrErrors.stream()
-                .filter(t -> t.textUnitDTOWithVariantComment() != null)
-                .filter(
-                    t ->
-                        !skippedTmTextUnitIds.contains(
-                            t.textUnitDTOWithVariantComment().textUnitDTO().getTmTextUnitId()))
-                .filter(t -> t.error() != null)
-                .count();
-        long importedTextUnitCount = importResultByTmTextUnitId.size();
-        ResponsesUsageTotals responsesUsageTotals =
-            sumResponsesUsage(
-                textUnitsByScreenshotWithResponsesResponseList.stream()
-                    .map(
-                        TextUnitsByScreenshotWithResponsesResponse
-                            ::responsesResponseCompletableFuture)
-                    .toList());
-        runInputTokens += responsesUsageTotals.inputTokens();
-        runCachedInputTokens += responsesUsageTotals.cachedInputTokens();
-        runOutputTokens += responsesUsageTotals.outputTokens();
-        runReasoningTokens += responsesUsageTotals.reasoningTokens();
-
-        incrementCounter(
-            metricName("textUnits"), localeTags.and("result", "skipped"), skippedTextUnitCount);
-        incrementCounter(
-            metricName("textUnits"),
-            localeTags.and("result", "successful"),
-            successfulTextUnitCount);
-        incrementCounter(
-            metricName("textUnits"), localeTags.and("result", "failed"), failedTextUnitCount);
-        incrementCounter(
-            metricName("textUnits"), localeTags.and("result", "imported"), importedTextUnitCount);
-
-        logger.info(
-            "AI translate locale summary repository={}, locale={}, model={}, attemptedTextUnits={}, groupedRequests={}, successfulTextUnits={}, importedTextUnits={}, skippedTextUnits={}, failedTextUnits={}, inputTokens={}, cachedInputTokens={}, outputTokens={}, reasoningTokens={}, totalTokens={}, estimatedCostUsd={}, duration={}",
-            repository.getName(),
-            bcp47Tag,
-            model,
-            textUnitDTOWithVariantCommentsList.size(),
-            groupedRequestCount,
-            successfulTextUnitCount,
-            importedTextUnitCount,
-            skippedTextUnitCount,
-            failedTextUnitCount,
-            responsesUsageTotals.inputTokens(),
-            responsesUsageTotals.cachedInputTokens(),
-            responsesUsageTotals.outputTokens(),
-            responsesUsageTotals.reasoningTokens(),
-            responsesUsageTotals.totalTokens(),
-            formatEstimatedCostUsd(responsesUsageTotals),
-            elapsed);
-
-        List<ImportReport.ImportReportLine> importReportLines =
-            textUnitDTOWithVariantCommentOrErrors.stream()
-                .map(
-                    tu -> {
-                      TextUnitDTO textUnitDTO = tu.textUnitDTOWithVariantComment().textUnitDTO();
-                      ImportResult importResult =
-                          importResultByTmTextUnitId.get(textUnitDTO.getTmTextUnitId());
-
-                      boolean tmTextUnitCurrentVariantUpdated;
-                      if (aiTranslateInput.dryRun()) {
-                        tmTextUnitCurrentVariantUpdated =
-                            tu.oldTarget() == null
-                                ? textUnitDTO.getTarget() != null
-                                : !tu.oldTarget().equals(textUnitDTO.getTarget());
-                      } else {
-                        tmTextUnitCurrentVariantUpdated =
-                            importResult != null
-                                && importResult
-                                    .addTMTextUnitCurrentVariantResult()
-                                    .isTmTextUnitCurrentVariantUpdated();
-                      }
-
-                      return new ImportReport.ImportReportLine(
-                          tu.completionId(),
-                          tu.lineageRequestGroupId(),
-                          textUnitDTO.getTmTextUnitId(),
-                          repositoryLocale.getLocale().getBcp47Tag(),
-                          textUnitDTO.getSource(),
-                          tu.oldTarget(),
-                          textUnitDTO
-                              .getTmTextUnitVariantId(), // this should be the old target id, can be
-                          // used to distinguish
-                          textUnitDTO.getTarget(),
-                          importResult == null
-                              ? null
-                              : importResult
-                                  .addTMTextUnitCurrentVariantResult()
-                                  .getTmTextUnitCurrentVariant()
-                                  .getTmTextUnitVariant()
-                                  .getId(),
-                          tu.error(),
-                          tmTextUnitCurrentVariantUpdated,
-                          importResult == null
-                              ? null
-                              : importResult.tmTextUnitVariantComments().stream()
-                                  .map(
-                                      c ->
-                                          new ImportReport.ImportReportLine.VariantComment(
-                                              c.getSeverity().toString(),
-                                              c.getType().toString(),
-                                              c.getContent()))
-                                  .toList());
-                    })
-                .toList();
-
-        putReportContentLocale(currentTask, bcp47Tag, importReportLines, reportFilenames);
-        incrementCounter(metricName("localeRuns"), localeTags.and("result", "completed"));
-        meterRegistry.timer(metricName("localeDuration"), localeTags).record(elapsed);
+        localeRun.allRequestsSubmitted = true;
+        if (localeRun.pendingRequestCount == 0) {
+          completeNoBatchLocaleRun(
+              localeRun, aiTranslateInput, currentTask, repository, model, reportFilenames);
+        }
       } catch (RuntimeException e) {
-        incrementCounter(metricName("localeRuns"), localeTags.and("result", "failed"));
-        meterRegistry
-            .timer(metricName("localeDuration"), localeTags)
-            .record(stopwatchForLocale.elapsed());
+        failNoBatchLocaleRun(localeRun);
         throw e;
       }
     }
 
+    completionPipeline.awaitAll();
+
     putReportContent(currentTask, reportFilenames);
 
+    ResponsesUsageTotals runUsageTotals =
+        localeRuns.stream()
+            .map(localeRun -> localeRun.responsesUsageTotals)
+            .reduce(ResponsesUsageTotals.ZERO, ResponsesUsageTotals::plus);
+    ResponsesUsageTotals runResultCacheSavedUsageTotals =
+        localeRuns.stream()
+            .map(localeRun -> localeRun.resultCacheSavedUsageTotals)
+            .reduce(ResponsesUsageTotals.ZERO, ResponsesUsageTotals::plus);
     logger.info(
-        "Done with AI Translation (no batch) for repository: {}, total time: {}",
+        "Done with AI Translation (no batch) for repository: {}, total time: {}, resultCacheTextUnits: {}, resultCacheSavedTokens: {}, resultCacheSavedCostUsd: {}, resultCacheSavedLatency: {}",
         repository.getName(),
-        stopwatchForTotal);
-    ResponsesUsageTotals runUsageTotals =
-        new ResponsesUsageTotals(
-            runInputTokens, runCachedInputTokens, runOutputTokens, runReasoningTokens);
+        stopwatchForTotal,
+        localeRuns.stream().mapToInt(localeRun -> localeRun.resultCacheHitCount).sum(),
+        runResultCacheSavedUsageTotals.totalTokens(),
+        formatEstimatedCostUsd(runResultCacheSavedUsageTotals),
+        Duration.ofMillis(
+            localeRuns.stream()
+                .mapToLong(localeRun -> localeRun.resultCacheSavedLatencyMillis)
+                .sum()));
     return new AiTranslateRunTotals(
         runUsageTotals.inputTokens(),
         runUsageTotals.cachedInputTokens(),
@@ -942,6 +793,473 @@ public class AiTranslateService {
         estimateCostUsd(runUsageTotals));
   }
 
+  /**
+   * Called on the submitting thread for each completed request: validates the response, adds its
+   * text units to the locale pending imports and imports them once a batch is full.
+   */
+  void handleNoBatchResponse(
+      CompletionPipeline.Completed<NoBatchRequest, ResponsesResponse> completed,
+      AiTranslateInput aiTranslateInput,
+      PollableTask currentTask,
+      Repository repository,
+      String model,
+      List<String> reportFilenames) {
+    NoBatchRequest noBatchRequest = completed.request();
+    NoBatchLocaleRun localeRun = noBatchRequest.localeRun();
+    try {
+      localeRun.pendingImports.addAll(
+          getTextUnitDTOWithVariantCommentOrErrors(
+              noBatchRequest,
+              completed.result(),
+              completed.throwable(),
+              currentTask,
+              repository,
+              model));
+      if (completed.throwable() == null) {
+        ResponsesUsageTotals responsesUsage = getResponsesUsage(completed.result());
+        localeRun.responsesUsageTotals = localeRun.responsesUsageTotals.plus(responsesUsage);
+        addResultCacheCandidates(localeRun, noBatchRequest, responsesUsage);
+      }
+      localeRun.pendingRequestCount--;
+
+      if (localeRun.pendingImports.size()
+          >= aiTranslateConfigurationProperties.getNoBatch().getImportBatchSize()) {
+        importNoBatchPendingTextUnits(localeRun, aiTranslateInput, currentTask);
+      }
+
+      if (localeRun.allRequestsSubmitted && localeRun.pendingRequestCount == 0) {
+        completeNoBatchLocaleRun(
+            localeRun, aiTranslateInput, currentTask, repository, model, reportFilenames);
+      }
+    } catch (RuntimeException e) {
+      failNoBatchLocaleRun(localeRun);
+      throw e;
+    }
+  }
+
+  List<TextUnitDTOWithVariantCommentOrError> getTextUnitDTOWithVariantCommentOrErrors(
+      NoBatchRequest noBatchRequest,
+      ResponsesResponse responsesResponse,
+      Throwable throwable,
+      PollableTask currentTask,
+      Repository repository,
+      String model) {
+    NoBatchLocaleRun localeRun = noBatchRequest.localeRun();
+    String lineageRequestGroupId = noBatchRequest.lineageRequestGroupId();
+    Tags requestTags =
+        metricTags(
+            MODE_NO_BATCH,
+            repository.getName(),
+            model,
+            localeRun.getBcp47Tag(),
+            Boolean.toString(noBatchRequest.hasScreenshot()));
+
+    if (throwable != null) {
+      List<Long> failedTmTextUnitIds =
+          noBatchRequest.requestedTextUnitDTOWithVariantCommentsList().stream()
+              .map(TextUnitDTOWithVariantComments::textUnitDTO)
+              .map(TextUnitDTO::getTmTextUnitId)
+              .toList();
+      String locale = localeRun.getBcp47Tag();
+      int timeoutSeconds = noBatchRequest.timeoutSeconds();
+
+      String errorMessage =
+          "Error when getting the responsesResponse: %s".formatted(throwable.getMessage());
+      if (isTimeoutException(throwable)) {
+        incrementCounter(metricName("timeouts"), requestTags);
+        logger.error(
+            "AI translate request timed out, skipping tmTextUnits: {}, locale: {}, timeoutSeconds: {}",
+            failedTmTextUnitIds,
+            locale,
+            timeoutSeconds,
+            throwable);
+      } else {
+        Integer statusCode = getProviderStatusCode(throwable);
+        incrementProviderFailureCounter(requestTags, throwable);
+        logger.error(
+            errorMessage
+                + ", skipping tmTextUnits: {}, locale: {}, timeoutSeconds: {}, statusCode: {}",
+            failedTmTextUnitIds,
+            locale,
+            timeoutSeconds,
+            statusCode,
+            throwable);
+      }
+
+      markNoBatchLineageFailed(
+          currentTask.getId(), lineageRequestGroupId, null, null, errorMessage);
+
+      return noBatchRequest.requestedTextUnitDTOWithVariantCommentsList().stream()
+          .map(
+              textUnitDTOWithVariantComments ->
+                  new TextUnitDTOWithVariantCommentOrError(
+                      null,
+                      new TextUnitDTOWithVariantComment(
+                          textUnitDTOWithVariantComments.textUnitDTO(), null),
+                      textUnitDTOWithVariantComments.textUnitDTO().getTarget(),
+                      errorMessage,
+                      lineageRequestGroupId))
+          .toList();
+    }
+
+    String responsePayloadBlobName =
+        putNoBatchResponseLineageBlob(
+            currentTask.getId(), lineageRequestGroupId, responsesResponse);
+    Object completionOutput;
+    try {
+      String completionOutputAsJson = responsesResponse.outputText();
+
+      completionOutput =
+          objectMapper.readValueUnchecked(
+              completionOutputAsJson, localeRun.aiTranslateType.getOutputJsonSchemaClass());
+    } catch (Throwable t) {
+      String errorMessage =
+          "Error trying to parse the JSON completion output: %s".formatted(t.getMessage());
+      incrementCounter(metricName("parseFailures"), requestTags);
+      logger.debug(errorMessage, t);
+
+      markNoBatchLineageFailed(
+          currentTask.getId(),
+          lineageRequestGroupId,
+          responsesResponse.id(),
+          responsePayloadBlobName,
+          errorMessage);
+
+      return noBatchRequest.requestedTextUnitDTOWithVariantCommentsList().stream()
+          .map(
+              textUnitDTOWithVariantComments ->
+                  new TextUnitDTOWithVariantCommentOrError(
+                      responsesResponse.id(),
+                      new TextUnitDTOWithVariantComment(
+                          textUnitDTOWithVariantComments.textUnitDTO(), null),
+                      textUnitDTOWithVariantComments.textUnitDTO().getTarget(),
+                      errorMessage,
+                      lineageRequestGroupId))
+          .toList();
+    }
+
+    markNoBatchLineageResponded(
+        currentTask.getId(),
+        lineageRequestGroupId,
+        responsesResponse.id(),
+        responsePayloadBlobName);
+
+    return noBatchRequest.requestedTextUnitDTOWithVariantCommentsList().stream()
+        .map(
+            textUnitDTOWithVariantComments ->
+                prepareForTextUnitDTOForImport(
+                    responsesResponse.id(),
+                    localeRun.aiTranslateType,
+                    localeRun.importStatus,
+                    textUnitDTOWithVariantComments.textUnitDTO(),
+                    completionOutput,
+                    lineageRequestGroupId))
+        .toList();
+  }
+
+  void importNoBatchPendingTextUnits(
+      NoBatchLocaleRun localeRun, AiTranslateInput aiTranslateInput, PollableTask currentTask) {
+    List<TextUnitDTOWithVariantCommentOrError> textUnitDTOWithVariantCommentOrErrors =
+        List.copyOf(localeRun.pendingImports);
+    localeRun.pendingImports.clear();
+
+    final Map<Long, ImportResult> importResultByTmTextUnitId =
+        aiTranslateInput.dryRun()
+            ? new LinkedHashMap<>()
+            : textUnitBatchImporterService
+                .importTextUnitsWithVariantComment(
+                    textUnitDTOWithVariantCommentOrErrors.stream()
+                        .filter(t -> t.error() == null)
+                        .filter(t -> t.textUnitDTOWithVariantComment() != null)
+                        .map(TextUnitDTOWithVariantCommentOrError::textUnitDTOWithVariantComment)
+                        .toList(),
+                    TextUnitBatchImporterService.IntegrityChecksType
+                        .KEEP_STATUS_IF_SAME_TARGET_AND_NOT_INCLUDED,
+                    ALWAYS_IMPORT)
+                .stream()
+                .collect(
+                    toMap(
+                        importResult ->
+                            importResult
+                                .addTMTextUnitCurrentVariantResult()
+                                .getTmTextUnitCurrentVariant()
+                                .getTmTextUnitVariant()
+                                .getTmTextUnit()
+                                .getId(),
+                        Function.identity()));
+
+    markNoBatchLineageImported(
+        currentTask.getId(), importResultByTmTextUnitId, textUnitDTOWithVariantCommentOrErrors);
+    putImportedInResultCache(
+        localeRun, importResultByTmTextUnitId, textUnitDTOWithVariantCommentOrErrors);
+
+    localeRun.successfulTextUnitCount +=
+        textUnitDTOWithVariantCommentOrErrors.stream()
+            .filter(t -> t.textUnitDTOWithVariantComment() != null)
+            .filter(
+                t ->
+                    !localeRun.skippedTmTextUnitIds.contains(
+                        t.textUnitDTOWithVariantComment().textUnitDTO().getTmTextUnitId()))
+            .filter(t -> t.error() == null)
+            .count();
+    localeRun.failedTextUnitCount +=
+        textUnitDTOWithVariantCommentOrErrors.stream()
+            .filter(t -> t.textUnitDTOWithVariantComment() != null)
+            .filter(
+                t ->
+                    !localeRun.skippedTmTextUnitIds.contains(
+                        t.textUnitDTOWithVariantComment().textUnitDTO().getTmTextUnitId()))
+            .filter(t -> t.error() != null)
+            .count();
+    localeRun.importedTextUnitCount += importResultByTmTextUnitId.size();
+
+    textUnitDTOWithVariantCommentOrErrors.stream()
+        .map(
+            tu -> {
+              TextUnitDTO textUnitDTO = tu.textUnitDTOWithVariantComment().textUnitDTO();
+              ImportResult importResult =
+                  importResultByTmTextUnitId.get(textUnitDTO.getTmTextUnitId());
+
+              boolean tmTextUnitCurrentVariantUpdated;
+              if (aiTranslateInput.dryRun()) {
+                tmTextUnitCurrentVariantUpdated =
+                    tu.oldTarget() == null
+                        ? textUnitDTO.getTarget() != null
+                        : !tu.oldTarget().equals(textUnitDTO.getTarget());
+              } else {
+                tmTextUnitCurrentVariantUpdated =
+                    importResult != null
+                        && importResult
+                            .addTMTextUnitCurrentVariantResult()
+                            .isTmTextUnitCurrentVariantUpdated();
+              }
+
+              return new ImportReport.ImportReportLine(
+                  tu.completionId(),
+                  tu.lineageRequestGroupId(),
+                  textUnitDTO.getTmTextUnitId(),
+                  localeRun.getBcp47Tag(),
+                  textUnitDTO.getSource(),
+                  tu.oldTarget(),
+                  textUnitDTO.getTmTextUnitVariantId(), // this should be the old target id, can be
+                  // used to distinguish
+                  textUnitDTO.getTarget(),
+                  importResult == null
+                      ? null
+                      : importResult
+                          .addTMTextUnitCurrentVariantResult()
+                          .getTmTextUnitCurrentVariant()
+                          .getTmTextUnitVariant()
+                          .getId(),
+                  tu.error(),
+                  tmTextUnitCurrentVariantUpdated,
+                  importResult == null
+                      ? null
+                      : importResult.tmTextUnitVariantComments().stream()
+                          .map(
+                              c ->
+                                  new ImportReport.ImportReportLine.VariantComment(
+                                      c.getSeverity().toString(),
+                                      c.getType().toString(),
+                                      c.getContent()))
+                          .toList());
+            })
+        .forEach(localeRun.importReportLines::add);
+  }
+
+  void completeNoBatchLocaleRun(
+      NoBatchLocaleRun localeRun,
+      AiTranslateInput aiTranslateInput,
+      PollableTask currentTask,
+      Repository repository,
+      String model,
+      List<String> reportFilenames) {
+    importNoBatchPendingTextUnits(localeRun, aiTranslateInput, currentTask);
+
+    Duration elapsed = localeRun.stopwatch.elapsed();
+    Tags localeTags = localeRun.localeTags;
+    ResponsesUsageTotals responsesUsageTotals = localeRun.responsesUsageTotals;
+
+    incrementCounter(
+        metricName("textUnits"),
+        localeTags.and("result", "skipped"),
+        localeRun.skippedTextUnitCount);
+    incrementCounter(
+        metricName("textUnits"),
+        localeTags.and("result", "successful"),
+        localeRun.successfulTextUnitCount);
+    incrementCounter(
+        metricName("textUnits"), localeTags.and("result", "failed"), localeRun.failedTextUnitCount);
+    incrementCounter(
+        metricName("textUnits"),
+        localeTags.and("result", "imported"),
+        localeRun.importedTextUnitCount);
+
+    if (localeRun.resultCacheHitCount > 0) {
+      incrementCounter(
+          metricName("resultCacheSavedTokens"),
+          localeTags,
+          localeRun.resultCacheSavedUsageTotals.totalTokens());
+      meterRegistry
+          .timer(metricName("resultCacheSavedLatency"), localeTags)
+          .record(Duration.ofMillis(localeRun.resultCacheSavedLatencyMillis));
+    }
+
+    logger.info(
+        "AI translate locale summary repository={}, locale={}, model={}, attemptedTextUnits={}, groupedRequests={}, successfulTextUnits={}, importedTextUnits={}, skippedTextUnits={}, failedTextUnits={}, inputTokens={}, cachedInputTokens={}, outputTokens={}, reasoningTokens={}, totalTokens={}, estimatedCostUsd={}, resultCacheTextUnits={}, resultCacheSavedTokens={}, resultCacheSavedLatency={}, duration={}",
+        repository.getName(),
+        localeRun.getBcp47Tag(),
+        model,
+        localeRun.attemptedTextUnitCount,
+        localeRun.groupedRequestCount,
+        localeRun.successfulTextUnitCount,
+        localeRun.importedTextUnitCount,
+        localeRun.skippedTextUnitCount,
+        localeRun.failedTextUnitCount,
+        responsesUsageTotals.inputTokens(),
+        responsesUsageTotals.cachedInputTokens(),
+        responsesUsageTotals.outputTokens(),
+        responsesUsageTotals.reasoningTokens(),
+        responsesUsageTotals.totalTokens(),
+        formatEstimatedCostUsd(responsesUsageTotals),
+        localeRun.resultCacheHitCount,
+        localeRun.resultCacheSavedUsageTotals.totalTokens(),
+        Duration.ofMillis(localeRun.resultCacheSavedLatencyMillis),
+        elapsed);
+
+    putReportContentLocale(
+        currentTask, localeRun.getBcp47Tag(), localeRun.importReportLines, reportFilenames);
+    localeRun.importReportLines.clear();
+    incrementCounter(metricName("localeRuns"), localeTags.and("result", "completed"));
+    meterRegistry.timer(metricName("localeDuration"), localeTags).record(elapsed);
+  }
+
+  /**
+   * Translates the text unit with the result cache entry found for the key if any, else remembers
+   * the key to populate the cache once the text unit is translated and imported.
+   *
+   * @param resultCacheEntry the entry looked up for the key, null if the cache has none
+   * @return true if the text unit was translated from the cache
+   */
+  boolean translateFromResultCache(
+      NoBatchLocaleRun localeRun,
+      TextUnitDTOWithVariantComments textUnitDTOWithVariantComments,
+      String resultCacheKey,
+      AiTranslateResultCache.Entry resultCacheEntry) {
+    TextUnitDTO textUnitDTO = textUnitDTOWithVariantComments.textUnitDTO();
+    Optional<AiTranslateResultCache.Entry> entry = Optional.ofNullable(resultCacheEntry);
+    incrementCounter(
+        metricName("resultCache"),
+        localeRun.localeTags.and("result", entry.isPresent() ? "hit" : "miss"));
+
+    if (entry.isEmpty()) {
+      localeRun.resultCacheKeyByTmTextUnitId.put(textUnitDTO.getTmTextUnitId(), resultCacheKey);
+      return false;
+    }
+
+    localeRun.pendingImports.add(
+        prepareForTextUnitDTOForImport(
+            AiTranslateResultCache.COMPLETION_ID,
+            localeRun.importStatus,
+            textUnitDTO,
+            entry.get().target(),
+            entry.get().targetComment(),
+            null));
+    localeRun.resultCacheHitCount++;
+    localeRun.resultCacheSavedUsageTotals =
+        localeRun.resultCacheSavedUsageTotals.plus(
+            new ResponsesUsageTotals(
+                entry.get().inputTokens(),
+                entry.get().cachedInputTokens(),
+                entry.get().outputTokens(),
+                entry.get().reasoningTokens()));
+    localeRun.resultCacheSavedLatencyMillis += entry.get().latencyMillis();
+    return true;
+  }
+
+  /**
+   * Splits the usage and latency of a successful request evenly between its text units, which is
+   * what reusing one of them later saves.
+   */
+  void addResultCacheCandidates(
+      NoBatchLocaleRun localeRun, NoBatchRequest noBatchRequest, ResponsesUsageTotals usage) {
+    int textUnitCount = noBatchRequest.requestedTextUnitDTOWithVariantCommentsList().size();
+    ResponsesUsageTotals usageShare =
+        new ResponsesUsageTotals(
+            usage.inputTokens() / textUnitCount,
+            usage.cachedInputTokens() / textUnitCount,
+            usage.outputTokens() / textUnitCount,
+            usage.reasoningTokens() / textUnitCount);
+    long latencyMillisShare = noBatchRequest.stopwatch().elapsed().toMillis() / textUnitCount;
+
+    for (TextUnitDTOWithVariantComments textUnitDTOWithVariantComments :
+        noBatchRequest.requestedTextUnitDTOWithVariantCommentsList()) {
+      Long tmTextUnitId = textUnitDTOWithVariantComments.textUnitDTO().getTmTextUnitId();
+      String resultCacheKey = localeRun.resultCacheKeyByTmTextUnitId.remove(tmTextUnitId);
+      if (resultCacheKey != null) {
+        localeRun.resultCacheCandidateByTmTextUnitId.put(
+            tmTextUnitId, new ResultCacheCandidate(resultCacheKey, usageShare, latencyMillisShare));
+      }
+    }
+  }
+
+  /**
+   * Writes the imported translations in the result cache in the background, so that the locale run
+   * doesn't wait for the blob storage.
+   */
+  void putImportedInResultCache(
+      NoBatchLocaleRun localeRun,
+      Map<Long, ImportResult> importResultByTmTextUnitId,
+      List<TextUnitDTOWithVariantCommentOrError> textUnitDTOWithVariantCommentOrErrors) {
+    Map<String, AiTranslateResultCache.Entry> entries = new LinkedHashMap<>();
+    for (TextUnitDTOWithVariantCommentOrError textUnitDTOWithVariantCommentOrError :
+        textUnitDTOWithVariantCommentOrErrors) {
+      TextUnitDTOWithVariantComment textUnitDTOWithVariantComment =
+          textUnitDTOWithVariantCommentOrError.textUnitDTOWithVariantComment();
+      if (textUnitDTOWithVariantComment == null) {
+        continue;
+      }
+
+      TextUnitDTO textUnitDTO = textUnitDTOWithVariantComment.textUnitDTO();
+      ResultCacheCandidate resultCacheCandidate =
+          localeRun.resultCacheCandidateByTmTextUnitId.remove(textUnitDTO.getTmTextUnitId());
+      if (resultCacheCandidate == null
+          || textUnitDTOWithVariantCommentOrError.error() != null
+          || !importResultByTmTextUnitId.containsKey(textUnitDTO.getTmTextUnitId())) {
+        continue;
+      }
+
+      entries.put(
+          resultCacheCandidate.key(),
+          new AiTranslateResultCache.Entry(
+              textUnitDTO.getTarget(),
+              textUnitDTOWithVariantComment.tmTextUnitVariantComment() == null
+                  ? null
+                  : textUnitDTOWithVariantComment.tmTextUnitVariantComment().getContent(),
+              resultCacheCandidate.usageShare().inputTokens(),
+              resultCacheCandidate.usageShare().cachedInputTokens(),
+              resultCacheCandidate.usageShare().outputTokens(),
+              resultCacheCandidate.usageShare().reasoningTokens(),
+              resultCacheCandidate.latencyMillis(),
+              Instant.now()));
+    }
+
+    if (!entries.isEmpty()) {
+      aiTranslateResultCache.putAll(entries).subscribe();
+    }
+  }
+
+  void failNoBatchLocaleRun(NoBatchLocaleRun localeRun) {
+    if (localeRun.failed) {
+      return;
+    }
+    localeRun.failed = true;
+    incrementCounter(metricName("localeRuns"), localeRun.localeTags.and("result", "failed"));
+    meterRegistry
+        .timer(metricName("localeDuration"), localeRun.localeTags)
+        .record(localeRun.stopwatch.elapsed());
+  }
+
   void putReportContent(PollableTask currentTask, List<String> reportFilenames) {
     logger.debug("Put report content for id: {}", currentTask.getId());
     // DatabaseBlobStorage keeps report bytes in mblob; use external blob storage for longer
@@ -1425,9 +1743,27 @@ public class AiTranslateService {
           lineageRequestGroupId);
     }
 
+    return prepareForTextUnitDTOForImport(
+        completionId,
+        importStatus,
+        textUnitDTO,
+        targetWithMetadata.target(),
+        targetWithMetadata.targetComment(),
+        lineageRequestGroupId);
+  }
+
+  private static TextUnitDTOWithVariantCommentOrError prepareForTextUnitDTOForImport(
+      String completionId,
+      Status importStatus,
+      TextUnitDTO textUnitDTO,
+      String target,
+      String targetComment,
+      String lineageRequestGroupId) {
+
+    String oldTarget = textUnitDTO.getTarget();
+
     textUnitDTO.setStatus(importStatus);
-    String newTarget =
-        AiTranslateTargetAutoFix.fixTarget(textUnitDTO.getSource(), targetWithMetadata.target());
+    String newTarget = AiTranslateTargetAutoFix.fixTarget(textUnitDTO.getSource(), target);
     textUnitDTO.setTarget(newTarget);
     // Reset target comment if this translation has its own comment. Do not carry over the previous
     // comment.
@@ -1436,7 +1772,7 @@ public class AiTranslateService {
     TMTextUnitVariantComment tmTextUnitVariantComment = new TMTextUnitVariantComment();
     tmTextUnitVariantComment.setType(TMTextUnitVariantComment.Type.AI_TRANSLATE);
     tmTextUnitVariantComment.setSeverity(TMTextUnitVariantComment.Severity.INFO);
-    tmTextUnitVariantComment.setContent(targetWithMetadata.targetComment());
+    tmTextUnitVariantComment.setContent(targetComment);
 
     return new TextUnitDTOWithVariantCommentOrError(
         completionId,
@@ -1788,45 +2124,28 @@ public class AiTranslateService {
         : throwable;
   }
 
-  private ResponsesUsageTotals sumResponsesUsage(
-      List<CompletableFuture<ResponsesResponse>> responsesResponseCompletableFutures) {
-    long inputTokens = 0L;
+  private ResponsesUsageTotals getResponsesUsage(ResponsesResponse responsesResponse) {
+    if (responsesResponse == null || responsesResponse.usage() == null) {
+      return ResponsesUsageTotals.ZERO;
+    }
+
+    ResponsesResponse.Usage usage = responsesResponse.usage();
     long cachedInputTokens = 0L;
-    long outputTokens = 0L;
     long reasoningTokens = 0L;
 
-    for (CompletableFuture<ResponsesResponse> responsesResponseCompletableFuture :
-        responsesResponseCompletableFutures) {
-      if (!responsesResponseCompletableFuture.isDone()
-          || responsesResponseCompletableFuture.isCompletedExceptionally()) {
-        continue;
-      }
-
-      ResponsesResponse responsesResponse;
-      try {
-        responsesResponse = responsesResponseCompletableFuture.join();
-      } catch (Throwable ignored) {
-        continue;
-      }
-
-      if (responsesResponse == null || responsesResponse.usage() == null) {
-        continue;
-      }
-
-      ResponsesResponse.Usage usage = responsesResponse.usage();
-      inputTokens += nullToZero(usage.inputTokens());
-      outputTokens += nullToZero(usage.outputTokens());
-
-      if (usage.inputTokensDetails() != null) {
-        cachedInputTokens += nullToZero(usage.inputTokensDetails().cachedTokens());
-      }
+    if (usage.inputTokensDetails() != null) {
+      cachedInputTokens = nullToZero(usage.inputTokensDetails().cachedTokens());
+    }
 
-      if (usage.outputTokensDetails() != null) {
-        reasoningTokens += nullToZero(usage.outputTokensDetails().reasoningTokens());
-      }
+    if (usage.outputTokensDetails() != null) {
+      reasoningTokens = nullToZero(usage.outputTokensDetails().reasoningTokens());
     }
 
-    return new ResponsesUsageTotals(inputTokens, cachedInputTokens, outputTokens, reasoningTokens);
+    return new ResponsesUsageTotals(
+        nullToZero(usage.inputTokens()),
+        cachedInputTokens,
+        nullToZero(usage.outputTokens()),
+        reasoningTokens);
   }
 
   private long nullToZero(Integer value) {
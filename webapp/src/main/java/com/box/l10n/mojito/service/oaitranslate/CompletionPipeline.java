@@ -0,0 +1,87 @@
+package com.box.l10n.mojito.service.oaitranslate;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of asynchronous requests in flight and hands their results back to the
+ * submitting thread in completion order.
+ *
+ * <p>Futures only enqueue their outcome, the handler always runs on the thread calling {@link
+ * #submit}, {@link #handleCompleted} or {@link #awaitAll}. Handlers can then use the caller's
+ * transactions and state without synchronization. When the bound is reached, {@link #submit} blocks
+ * by handling completed requests until one slot is free, so results are processed while waiting
+ * instead of piling up.
+ *
+ * <p>Instances are not thread safe, they are meant to be used by a single submitting thread.
+ */
+class CompletionPipeline<R, T> {
+
+  record Completed<R, T>(R request, T result, Throwable throwable) {}
+
+  private final int maxInFlight;
+  private final Consumer<Completed<R, T>> handler;
+  private final BlockingQueue<Completed<R, T>> completedQueue = new LinkedBlockingQueue<>();
+  private int inFlight;
+
+  CompletionPipeline(int maxInFlight, Consumer<Completed<R, T>> handler) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("maxInFlight must be at least 1, got: " + maxInFlight);
+    }
+    this.maxInFlight = maxInFlight;
+    this.handler = handler;
+  }
+
+  /**
+   * Waits for a free slot, handling completed requests meanwhile, then submits the request and
+   * handles the ones that completed in the meantime.
+   */
+  void submit(R request, Supplier<CompletableFuture<T>> submitter) {
+    while (inFlight >= maxInFlight) {
+      handle(take());
+    }
+
+    CompletableFuture<T> future = submitter.get();
+    inFlight++;
+    future.whenComplete(
+        (result, throwable) -> completedQueue.add(new Completed<>(request, result, throwable)));
+
+    handleCompleted();
+  }
+
+  /** Handles the requests that are already completed, without waiting. */
+  void handleCompleted() {
+    Completed<R, T> completed;
+    while ((completed = completedQueue.poll()) != null) {
+      handle(completed);
+    }
+  }
+
+  /** Waits for and handles all the requests in flight. */
+  void awaitAll() {
+    while (inFlight > 0) {
+      handle(take());
+    }
+  }
+
+  int getInFlight() {
+    return inFlight;
+  }
+
+  private void handle(Completed<R, T> completed) {
+    inFlight--;
+    handler.accept(completed);
+  }
+
+  private Completed<R, T> take() {
+    try {
+      return completedQueue.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -95,6 +95,22 @@ public class PollableTaskBlobStorage {
     structuredBlobStorage.put(POLLABLE_TASK, outputName, outputJson, Retention.MIN_1_DAY);
   }
 
+  /**
+   * Saves the progress of a long running task so that it can be resumed by another task if it
+   * fails. The last checkpoint replaces the previous ones.
+   */
+  public void saveCheckpoint(Long pollableTaskId, Object checkpoint) {
+    String checkpointName = getCheckpointName(pollableTaskId);
+    String checkpointJson = objectMapper.writeValueAsStringUnchecked(checkpoint);
+    structuredBlobStorage.put(POLLABLE_TASK, checkpointName, checkpointJson, Retention.MIN_1_DAY);
+  }
+
+  public <T> Optional<T> findCheckpoint(Long pollableTaskId, Class<T> clazz) {
+    return structuredBlobStorage
+        .getString(POLLABLE_TASK, getCheckpointName(pollableTaskId))
+        .map(checkpointJson -> objectMapper.readValueUnchecked(checkpointJson, clazz));
+  }
+
   public <T> T getInput(Long pollableTaskId, Class<T> clazz) {
     String inputName = getInputName(pollableTaskId);
     String inputJson =
@@ -131,6 +147,10 @@ public class PollableTaskBlobStorage {
     return pollableTaskId + "/output";
   }
 
+  String getCheckpointName(long pollableTaskId) {
+    return pollableTaskId + "/checkpoint";
+  }
+
   public Optional<String> findInputJson(Long pollableTaskId) {
     String inputName = getInputName(pollableTaskId);
     return structuredBlobStorage.getString(POLLABLE_TASK, inputName);
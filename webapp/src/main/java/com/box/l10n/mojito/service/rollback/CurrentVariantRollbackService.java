@@ -6,7 +6,9 @@ import com.box.l10n.mojito.entity.TMTextUnitCurrentVariant;
 import com.box.l10n.mojito.entity.TMTextUnitCurrentVariant_;
 import com.box.l10n.mojito.entity.TMTextUnit_;
 import com.box.l10n.mojito.entity.TM_;
-import com.box.l10n.mojito.service.tm.TMTextUnitCurrentVariantRepository;
+import com.box.l10n.mojito.service.pollableTask.Pollable;
+import com.box.l10n.mojito.service.pollableTask.PollableFuture;
+import com.box.l10n.mojito.service.pollableTask.PollableFutureTaskResult;
 import com.google.common.base.Preconditions;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
@@ -19,8 +21,6 @@ import java.util.ArrayList;
 import java.util.List;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
-import org.hibernate.envers.query.AuditEntity;
-import org.hibernate.envers.query.AuditQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,7 +38,8 @@ public class CurrentVariantRollbackService {
 
   @Autowired EntityManager entityManager;
 
-  @Autowired TMTextUnitCurrentVariantRepository tmTextUnitCurrentVariantRepository;
+  /** Number of audit ids scanned by each insert statement */
+  static final int CHUNK_SIZE = 10000;
 
   /**
    * Rollbacks the current variants of the given TM to the state at the given date.
@@ -48,6 +49,7 @@ public class CurrentVariantRollbackService {
    * @param tmId ID of the TM the {@link TMTextUnitCurrentVariant}s to be rolled back should belong
    *     to
    */
+  @Transactional
   public void rollbackCurrentVariantsFromTMToDate(ZonedDateTime rollbackDateTime, Long tmId) {
     rollbackCurrentVariantsFromTMToDate(
         rollbackDateTime, tmId, new CurrentVariantRollbackParameters());
@@ -69,8 +71,22 @@ public class CurrentVariantRollbackService {
 
     Preconditions.checkNotNull(extraParameters, "Extra parameters should not be null");
 
+    Number revision = createRevision();
+    auditDeletedCurrentVariants(tmId, extraParameters, revision);
     deleteExistingCurrentVariants(tmId, extraParameters);
-    addCurrentVariantsAsOfRollbackDate(rollbackDateTime, tmId, extraParameters);
+    addCurrentVariantsAsOfRollbackDate(rollbackDateTime, tmId, extraParameters, revision);
+  }
+
+  /**
+   * Same as {@link #rollbackCurrentVariantsFromTMToDate(ZonedDateTime, Long,
+   * CurrentVariantRollbackParameters)} but runs in a pollable task, for large TMs.
+   */
+  @Transactional
+  @Pollable(async = true, message = "Rollback current variants")
+  public PollableFuture<Void> rollbackCurrentVariantsFromTMToDateAsync(
+      ZonedDateTime rollbackDateTime, Long tmId, CurrentVariantRollbackParameters extraParameters) {
+    rollbackCurrentVariantsFromTMToDate(rollbackDateTime, tmId, extraParameters);
+    return new PollableFutureTaskResult<>();
   }
 
   /**
@@ -138,87 +154,200 @@ public class CurrentVariantRollbackService {
   }
 
   /**
-   * Deletes the {@link com.box.l10n.mojito.entity.TMTextUnitCurrentVariant}s based on the given
-   * parameters. These variants will be recreated later in the same state as at the rollback date.
+   * Adds back the {@link TMTextUnitCurrentVariant}s as they were at the rollback date.
+   *
+   * <p>The current variants are copied from the audit table with set-based {@code INSERT ...
+   * SELECT} statements, chunked by audit id range, instead of loading the audited entities.
    *
    * @param rollbackDateTime Date at which the {@link TMTextUnitCurrentVariant}s will be rollbacked
    *     to
    * @param tmId ID of the TM the {@link TMTextUnitCurrentVariant}s to be rolled back should belong
    *     to
    * @param extraParameters Extra parameters to filter what to rollback
+   * @param revision the revision recording the rollback
    */
   protected void addCurrentVariantsAsOfRollbackDate(
-      ZonedDateTime rollbackDateTime, Long tmId, CurrentVariantRollbackParameters extraParameters) {
+      ZonedDateTime rollbackDateTime,
+      Long tmId,
+      CurrentVariantRollbackParameters extraParameters,
+      Number revision) {
 
     logger.debug("Adding back TMTextUnitCurrentVariants as of {}", rollbackDateTime);
 
-    AuditQuery auditQuery = buildInsertAuditQuery(rollbackDateTime, tmId, extraParameters);
-    List<TMTextUnitCurrentVariant> tmTextUnitCurrentVariantsToAdd =
-        (List<TMTextUnitCurrentVariant>) auditQuery.getResultList();
-    tmTextUnitCurrentVariantRepository.saveAll(
-        tmTextUnitCurrentVariantsToAdd.stream().map(this::copyAsNewCurrentVariant).toList());
+    AuditReader auditReader = AuditReaderFactory.get(entityManager);
+    Number revNumberAtDate =
+        auditReader.getRevisionNumberForDate(JSR310Migration.dateTimeToDate(rollbackDateTime));
+
+    Object[] auditIdRange =
+        (Object[])
+            entityManager
+                .createNativeQuery(
+                    """
+                    select min(a.id), max(a.id)
+                    from tm_text_unit_current_variant_aud a
+                    where a.tm_id = :tmId and a.rev <= :revNumberAtDate
+                    """)
+                .setParameter("tmId", tmId)
+                .setParameter("revNumberAtDate", revNumberAtDate)
+                .getSingleResult();
+
+    if (auditIdRange[0] != null) {
+      long minAuditId = ((Number) auditIdRange[0]).longValue();
+      long maxAuditId = ((Number) auditIdRange[1]).longValue();
+      ZonedDateTime now = ZonedDateTime.now();
+      int added = 0;
+
+      for (long fromId = minAuditId; fromId <= maxAuditId; fromId += CHUNK_SIZE) {
+        Query insertQuery =
+            entityManager
+                .createNativeQuery(
+                    """
+                    insert into tm_text_unit_current_variant
+                        (created_date, last_modified_date, created_by_user_id, tm_id, asset_id,
+                         tm_text_unit_id, tm_text_unit_variant_id, locale_id)
+                    select :now, :now, a.created_by_user_id, a.tm_id, a.asset_id,
+                        a.tm_text_unit_id, a.tm_text_unit_variant_id, a.locale_id
+                    from tm_text_unit_current_variant_aud a
+                    where a.tm_id = :tmId
+                      and a.id between :fromId and :toId
+                      and a.rev <= :revNumberAtDate
+                      and (a.revend > :revNumberAtDate or a.revend is null)
+                      and a.revtype <> 2
+                    """
+                        + getFilters("a", extraParameters))
+                .setParameter("now", now)
+                .setParameter("tmId", tmId)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", fromId + CHUNK_SIZE - 1)
+                .setParameter("revNumberAtDate", revNumberAtDate);
+        setFilterParameters(insertQuery, extraParameters);
+        added += insertQuery.executeUpdate();
+        logger.debug(
+            "Added back {} TMTextUnitCurrentVariants, up to audit id {}",
+            added,
+            fromId + CHUNK_SIZE - 1);
+      }
+    }
+
+    Query addAuditQuery =
+        entityManager.createNativeQuery(
+            """
+            insert into tm_text_unit_current_variant_aud
+                (id, rev, revtype, created_by_user_id, tm_id, asset_id, tm_text_unit_id,
+                 tm_text_unit_variant_id, locale_id)
+            select c.id, :revision, 0, c.created_by_user_id, c.tm_id, c.asset_id,
+                c.tm_text_unit_id, c.tm_text_unit_variant_id, c.locale_id
+            from tm_text_unit_current_variant c
+            where c.tm_id = :tmId
+            """
+                + getFilters("c", extraParameters));
+    addAuditQuery.setParameter("revision", revision).setParameter("tmId", tmId);
+    setFilterParameters(addAuditQuery, extraParameters);
+    addAuditQuery.executeUpdate();
   }
 
-  private TMTextUnitCurrentVariant copyAsNewCurrentVariant(
-      TMTextUnitCurrentVariant currentVariantAtRollbackDate) {
-    TMTextUnitCurrentVariant currentVariant = new TMTextUnitCurrentVariant();
-    currentVariant.setTm(currentVariantAtRollbackDate.getTm());
-    currentVariant.setAsset(currentVariantAtRollbackDate.getAsset());
-    currentVariant.setTmTextUnit(currentVariantAtRollbackDate.getTmTextUnit());
-    currentVariant.setTmTextUnitVariant(currentVariantAtRollbackDate.getTmTextUnitVariant());
-    currentVariant.setLocale(currentVariantAtRollbackDate.getLocale());
-    currentVariant.setCreatedByUser(currentVariantAtRollbackDate.getCreatedByUser());
-    currentVariant.setCreatedDate(currentVariantAtRollbackDate.getCreatedDate());
-    currentVariant.setLastModifiedDate(currentVariantAtRollbackDate.getLastModifiedDate());
-    return currentVariant;
+  /**
+   * Creates the Envers revision that records the rollback.
+   *
+   * <p>The rollback uses bulk statements that Envers doesn't see, so the audit rows are written by
+   * this service: the revision is created through Envers and the entity is registered as changed in
+   * it, as Envers would do.
+   *
+   * @return the revision number
+   */
+  protected Number createRevision() {
+    Object revisionEntity =
+        AuditReaderFactory.get(entityManager).getCurrentRevision(Object.class, true);
+    entityManager.flush();
+    Number revision =
+        (Number)
+            entityManager
+                .getEntityManagerFactory()
+                .getPersistenceUnitUtil()
+                .getIdentifier(revisionEntity);
+
+    entityManager
+        .createNativeQuery(
+            "insert into revchanges (rev, entityname) values (:revision, :entityName)")
+        .setParameter("revision", revision)
+        .setParameter("entityName", TMTextUnitCurrentVariant.class.getName())
+        .executeUpdate();
+
+    return revision;
   }
 
   /**
-   * Builds the query to insert new {@link com.box.l10n.mojito.entity.TMTextUnitCurrentVariant}s as
-   * they were at the rollback date.
+   * Records the deletion of the {@link TMTextUnitCurrentVariant}s that will be rolled back: closes
+   * their current audit rows and adds delete audit rows, as the {@code ValidityAuditStrategy}
+   * would.
    *
-   * @param rollbackDateTime Date at which the {@link TMTextUnitCurrentVariant}s will be rollbacked
-   *     to
    * @param tmId ID of the TM the {@link TMTextUnitCurrentVariant}s to be rolled back should belong
    *     to
    * @param extraParameters Extra parameters to filter what to rollback
-   * @return The insert audit query
+   * @param revision the revision recording the rollback
    */
-  protected AuditQuery buildInsertAuditQuery(
-      ZonedDateTime rollbackDateTime, Long tmId, CurrentVariantRollbackParameters extraParameters) {
+  protected void auditDeletedCurrentVariants(
+      Long tmId, CurrentVariantRollbackParameters extraParameters, Number revision) {
+
+    Query closeAuditQuery =
+        entityManager.createNativeQuery(
+            """
+            update tm_text_unit_current_variant_aud
+            set revend = :revision
+            where revend is null
+              and id in (
+                select c.id from tm_text_unit_current_variant c
+                where c.tm_id = :tmId
+            """
+                + getFilters("c", extraParameters)
+                + ")");
+    closeAuditQuery.setParameter("revision", revision).setParameter("tmId", tmId);
+    setFilterParameters(closeAuditQuery, extraParameters);
+    closeAuditQuery.executeUpdate();
+
+    Query deleteAuditQuery =
+        entityManager.createNativeQuery(
+            """
+            insert into tm_text_unit_current_variant_aud (id, rev, revtype)
+            select c.id, :revision, 2
+            from tm_text_unit_current_variant c
+            where c.tm_id = :tmId
+            """
+                + getFilters("c", extraParameters));
+    deleteAuditQuery.setParameter("revision", revision).setParameter("tmId", tmId);
+    setFilterParameters(deleteAuditQuery, extraParameters);
+    deleteAuditQuery.executeUpdate();
+  }
 
-    logger.trace("Building the insert tmTextUnitCurrentVariants audit query");
+  /**
+   * Gets the optional filters on locales and text units, as single {@code IN} clauses, to append to
+   * a native query on a current variant table.
+   */
+  String getFilters(String alias, CurrentVariantRollbackParameters extraParameters) {
+    StringBuilder filters = new StringBuilder();
 
-    AuditReader auditReader = AuditReaderFactory.get(entityManager);
-    Number revNumberAtDate =
-        auditReader.getRevisionNumberForDate(JSR310Migration.dateTimeToDate(rollbackDateTime));
+    if (hasIds(extraParameters.getLocaleIds())) {
+      filters.append(" and ").append(alias).append(".locale_id in (:localeIds)");
+    }
 
-    AuditQuery auditQuery =
-        auditReader
-            .createQuery()
-            .forEntitiesAtRevision(
-                TMTextUnitCurrentVariant.class,
-                TMTextUnitCurrentVariant.class.getName(),
-                revNumberAtDate,
-                true)
-            .add(AuditEntity.property("tm_id").eq(tmId));
+    if (hasIds(extraParameters.getTmTextUnitIds())) {
+      filters.append(" and ").append(alias).append(".tm_text_unit_id in (:tmTextUnitIds)");
+    }
 
-    List<Long> localeIdsToRollback = extraParameters.getLocaleIds();
-    if (localeIdsToRollback != null && !localeIdsToRollback.isEmpty()) {
-      // Using "in" does not work with relatedId() nor property() so using loop instead
-      for (Long localeIdToRollback : localeIdsToRollback) {
-        auditQuery.add(AuditEntity.relatedId("locale").eq(localeIdToRollback));
-      }
+    return filters.toString();
+  }
+
+  void setFilterParameters(Query query, CurrentVariantRollbackParameters extraParameters) {
+    if (hasIds(extraParameters.getLocaleIds())) {
+      query.setParameter("localeIds", extraParameters.getLocaleIds());
     }
 
-    List<Long> tmTextUnitIdsToRollback = extraParameters.getTmTextUnitIds();
-    if (tmTextUnitIdsToRollback != null && !tmTextUnitIdsToRollback.isEmpty()) {
-      // Using "in" does not work with relatedId() nor property() so using loop instead
-      for (Long tmTextUnitIdToRollback : tmTextUnitIdsToRollback) {
-        auditQuery.add(AuditEntity.relatedId("tmTextUnit").eq(tmTextUnitIdToRollback));
-      }
+    if (hasIds(extraParameters.getTmTextUnitIds())) {
+      query.setParameter("tmTextUnitIds", extraParameters.getTmTextUnitIds());
     }
+  }
 
-    return auditQuery;
+  boolean hasIds(List<Long> ids) {
+    return ids != null && !ids.isEmpty();
   }
 }
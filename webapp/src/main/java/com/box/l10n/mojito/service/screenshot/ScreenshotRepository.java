@@ -3,6 +3,8 @@ package com.box.l10n.mojito.service.screenshot;
 import com.box.l10n.mojito.entity.Locale;
 import com.box.l10n.mojito.entity.Screenshot;
 import com.box.l10n.mojito.entity.ScreenshotRun;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
@@ -17,5 +19,8 @@ public interface ScreenshotRepository
   Screenshot findByScreenshotRunAndNameAndLocale(
       ScreenshotRun screenshotRun, String name, Locale locale);
 
+  List<Screenshot> findByScreenshotRunAndNameIn(
+      ScreenshotRun screenshotRun, Collection<String> names);
+
   void deleteById(Long screenshotId);
 }
@@ -8,11 +8,17 @@ import com.box.l10n.mojito.service.tm.search.SearchType;
 import com.box.l10n.mojito.service.tm.search.TextUnitDTO;
 import com.box.l10n.mojito.service.tm.search.TextUnitSearcher;
 import com.box.l10n.mojito.service.tm.search.TextUnitSearcherParameters;
+import com.box.l10n.mojito.service.tm.search.TextUnitTextSearch;
+import com.box.l10n.mojito.service.tm.search.TextUnitTextSearchBooleanOperator;
+import com.box.l10n.mojito.service.tm.search.TextUnitTextSearchField;
+import com.box.l10n.mojito.service.tm.search.TextUnitTextSearchPredicate;
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.*;
 import java.util.*;
 import java.util.stream.Collectors;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +38,9 @@ public class ScreenshotService {
   /** logger */
   static Logger logger = LoggerFactory.getLogger(ScreenshotService.class);
 
+  /** Max number of values in a lookup (text units by id, rendered targets, screenshot names) */
+  static final int BATCH_SIZE = 500;
+
   @Autowired ScreenshotRunRepository screenshotRunRepository;
 
   @Autowired ScreenshotRepository screenshotRepository;
@@ -81,9 +90,7 @@ public class ScreenshotService {
     List<Screenshot> screenshotsToAdd = new ArrayList<>(screenshotRun.getScreenshots());
     sortScreenshotBySequence(screenshotsToAdd);
 
-    for (Screenshot screenshot : screenshotsToAdd) {
-      completeAndAddScreenshotToRun(screenshot, screenshotRun);
-    }
+    completeAndAddScreenshotsToRun(screenshotsToAdd, screenshotRun);
 
     if (setLastSuccessfulScreenshotRun) {
       logger.debug("Update the last successful screenshot import");
@@ -121,32 +128,102 @@ public class ScreenshotService {
     screenshotRunRepository.save(screenshotRun);
   }
 
-  void completeAndAddScreenshotToRun(Screenshot screenshot, ScreenshotRun screenshotRun) {
+  /**
+   * Completes the screenshot text units and upserts the screenshots in the run.
+   *
+   * <p>The text units and rendered targets of all the screenshots are resolved with a few set-based
+   * lookups. Screenshots that already exist in the run (same name and locale) are updated in place
+   * and their text units replaced, the others are inserted.
+   *
+   * @param screenshots screenshots to add, in insertion order. If multiple screenshots have the
+   *     same name and locale, the last one wins.
+   * @param screenshotRun
+   */
+  void completeAndAddScreenshotsToRun(List<Screenshot> screenshots, ScreenshotRun screenshotRun) {
+
+    Map<ScreenshotKey, Screenshot> screenshotsByKey = new LinkedHashMap<>();
+    for (Screenshot screenshot : screenshots) {
+      screenshot.setScreenshotRun(screenshotRun);
+      ScreenshotKey screenshotKey = ScreenshotKey.of(screenshot);
+      screenshotsByKey.remove(screenshotKey);
+      screenshotsByKey.put(screenshotKey, screenshot);
+    }
+
+    completeScreenshotTextUnits(screenshotsByKey.values(), screenshotRun);
+
+    Map<ScreenshotKey, Screenshot> existingScreenshotsByKey =
+        getExistingScreenshotsByKey(screenshotRun, screenshotsByKey.keySet());
 
-    screenshot.setScreenshotRun(screenshotRun);
+    if (!existingScreenshotsByKey.isEmpty()) {
+      logger.debug(
+          "Replace the text units of {} existing screenshots", existingScreenshotsByKey.size());
+      Lists.partition(
+              existingScreenshotsByKey.values().stream().map(Screenshot::getId).toList(),
+              BATCH_SIZE)
+          .forEach(screenshotTextUnitRepository::deleteByScreenshotIdIn);
+    }
 
-    for (ScreenshotTextUnit screenshotTextUnit : screenshot.getScreenshotTextUnits()) {
-      completeScreenshotTextUnit(screenshotTextUnit, screenshot);
+    List<Screenshot> screenshotsToInsert = new ArrayList<>();
+    List<ScreenshotTextUnit> screenshotTextUnitsOfExistingScreenshots = new ArrayList<>();
+
+    for (Map.Entry<ScreenshotKey, Screenshot> screenshotEntry : screenshotsByKey.entrySet()) {
+      Screenshot screenshot = screenshotEntry.getValue();
+      Screenshot existingScreenshot = existingScreenshotsByKey.get(screenshotEntry.getKey());
+
+      if (existingScreenshot == null) {
+        screenshotsToInsert.add(screenshot);
+      } else {
+        logger.debug(
+            "Screenshot exists for locale: {} and name: {}, update it",
+            screenshotEntry.getKey().localeId(),
+            screenshot.getName());
+        existingScreenshot.setSrc(screenshot.getSrc());
+        existingScreenshot.setStatus(screenshot.getStatus());
+        existingScreenshot.setSequence(screenshot.getSequence());
+        existingScreenshot.setComment(screenshot.getComment());
+        existingScreenshot.setBranch(screenshot.getBranch());
+
+        for (ScreenshotTextUnit screenshotTextUnit : screenshot.getScreenshotTextUnits()) {
+          screenshotTextUnit.setScreenshot(existingScreenshot);
+          screenshotTextUnitsOfExistingScreenshots.add(screenshotTextUnit);
+        }
+      }
     }
 
-    Screenshot existingScreenshot =
-        screenshotRepository.findByScreenshotRunAndNameAndLocale(
-            screenshotRun, screenshot.getName(), screenshot.getLocale());
+    logger.debug(
+        "Insert {} screenshots, update {}",
+        screenshotsToInsert.size(),
+        existingScreenshotsByKey.size());
+    screenshotRepository.saveAll(screenshotsToInsert);
+    screenshotTextUnitRepository.saveAll(screenshotTextUnitsOfExistingScreenshots);
+  }
 
-    if (existingScreenshot != null) {
-      logger.debug(
-          "Screenshot exists for locale: {} and name: {}, delete it ",
-          existingScreenshot.getLocale() == null
-              ? null
-              : existingScreenshot.getLocale().getBcp47Tag(),
-          existingScreenshot.getName());
-
-      screenshotRepository.delete(existingScreenshot);
-      screenshotRepository.flush();
+  Map<ScreenshotKey, Screenshot> getExistingScreenshotsByKey(
+      ScreenshotRun screenshotRun, Set<ScreenshotKey> screenshotKeys) {
+    Map<ScreenshotKey, Screenshot> existingScreenshotsByKey = new HashMap<>();
+
+    if (screenshotRun.getId() == null) {
+      return existingScreenshotsByKey;
     }
 
-    logger.debug("Create new screenshot");
-    screenshotRepository.save(screenshot);
+    List<String> names =
+        screenshotKeys.stream()
+            .map(ScreenshotKey::name)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+
+    for (List<String> namesBatch : Lists.partition(names, BATCH_SIZE)) {
+      for (Screenshot existingScreenshot :
+          screenshotRepository.findByScreenshotRunAndNameIn(screenshotRun, namesBatch)) {
+        ScreenshotKey screenshotKey = ScreenshotKey.of(existingScreenshot);
+        if (screenshotKeys.contains(screenshotKey)) {
+          existingScreenshotsByKey.put(screenshotKey, existingScreenshot);
+        }
+      }
+    }
+
+    return existingScreenshotsByKey;
   }
 
   /**
@@ -156,41 +233,157 @@ public class ScreenshotService {
    * <p>An improvement would be to get them during extraction for more consistency and actually show
    * the fully translated string.
    *
-   * @param screenshotTextUnit
-   * @param screenshot
+   * <p>Text units referenced by id are loaded in batches. Rendered targets are looked up per
+   * locale, in batches of exact target searches, and indexed by MD5 (like the variant content) to
+   * resolve each screenshot text unit without a query.
+   *
+   * @param screenshots
+   * @param screenshotRun
    */
-  void completeScreenshotTextUnit(ScreenshotTextUnit screenshotTextUnit, Screenshot screenshot) {
-    screenshotTextUnit.setScreenshot(screenshot);
+  void completeScreenshotTextUnits(
+      Collection<Screenshot> screenshots, ScreenshotRun screenshotRun) {
+
+    Set<Long> tmTextUnitIds = new HashSet<>();
+    Map<Long, Set<String>> renderedTargetsByLocaleId = new HashMap<>();
+
+    for (Screenshot screenshot : screenshots) {
+      for (ScreenshotTextUnit screenshotTextUnit : screenshot.getScreenshotTextUnits()) {
+        screenshotTextUnit.setScreenshot(screenshot);
+
+        if (screenshotTextUnit.getTmTextUnit() != null) {
+          tmTextUnitIds.add(screenshotTextUnit.getTmTextUnit().getId());
+        } else if (isRenderedTargetIndexed(screenshotRun, screenshot, screenshotTextUnit)) {
+          renderedTargetsByLocaleId
+              .computeIfAbsent(screenshot.getLocale().getId(), k -> new HashSet<>())
+              .add(NormalizationUtils.normalize(screenshotTextUnit.getRenderedTarget()));
+        }
+      }
+    }
 
-    if (screenshotTextUnit.getTmTextUnit() != null) {
+    Map<Long, TMTextUnit> tmTextUnitsById = getTmTextUnitsById(tmTextUnitIds);
+
+    Map<Long, Map<String, List<TextUnitDTO>>> textUnitsByTargetMd5ByLocaleId = new HashMap<>();
+    renderedTargetsByLocaleId.forEach(
+        (localeId, renderedTargets) ->
+            textUnitsByTargetMd5ByLocaleId.put(
+                localeId,
+                getTextUnitsByTargetMd5(
+                    screenshotRun.getRepository().getId(), localeId, renderedTargets)));
+
+    for (Screenshot screenshot : screenshots) {
+      for (ScreenshotTextUnit screenshotTextUnit : screenshot.getScreenshotTextUnits()) {
+        if (screenshotTextUnit.getTmTextUnit() != null) {
+          TMTextUnit tmTextUnit = tmTextUnitsById.get(screenshotTextUnit.getTmTextUnit().getId());
+          if (tmTextUnit != null) {
+            screenshotTextUnit.setName(tmTextUnit.getName());
+            screenshotTextUnit.setNumberOfMatch(1);
+            screenshotTextUnit.setSource(tmTextUnit.getContent());
+          }
+        } else if (screenshotRun.getRepository() != null && screenshot.getLocale() != null) {
+          List<TextUnitDTO> textUnitDTOs;
+
+          if (isRenderedTargetIndexed(screenshotRun, screenshot, screenshotTextUnit)) {
+            textUnitDTOs =
+                textUnitsByTargetMd5ByLocaleId
+                    .get(screenshot.getLocale().getId())
+                    .getOrDefault(
+                        DigestUtils.md5Hex(
+                            NormalizationUtils.normalize(screenshotTextUnit.getRenderedTarget())),
+                        Collections.emptyList());
+          } else {
+            textUnitDTOs =
+                getTextUnitsForScreenshotTextUnitRenderedTarget(
+                    screenshotRun.getRepository().getId(),
+                    screenshotTextUnit.getRenderedTarget(),
+                    screenshot.getLocale().getId());
+          }
 
-      TMTextUnit tmTextUnit =
-          tmTextUnitRepository.findById(screenshotTextUnit.getTmTextUnit().getId()).orElse(null);
-      if (tmTextUnit != null) {
-        screenshotTextUnit.setName(tmTextUnit.getName());
-        screenshotTextUnit.setNumberOfMatch(1);
-        screenshotTextUnit.setSource(tmTextUnit.getContent());
+          completeScreenshotTextUnitWithRenderedTargetMatches(screenshotTextUnit, textUnitDTOs);
+        }
       }
+    }
+  }
+
+  /**
+   * Rendered targets are looked up in the index unless missing: a search without target matches
+   * every text unit of the locale, it is kept as a single search.
+   */
+  boolean isRenderedTargetIndexed(
+      ScreenshotRun screenshotRun, Screenshot screenshot, ScreenshotTextUnit screenshotTextUnit) {
+    return screenshotRun.getRepository() != null
+        && screenshot.getLocale() != null
+        && screenshotTextUnit.getRenderedTarget() != null;
+  }
+
+  void completeScreenshotTextUnitWithRenderedTargetMatches(
+      ScreenshotTextUnit screenshotTextUnit, List<TextUnitDTO> textUnitDTOs) {
+    screenshotTextUnit.setNumberOfMatch(textUnitDTOs.size());
+
+    if (textUnitDTOs.size() == 1) {
+      // TODO only match if there is an embedded hidden id in the string?
+      logger.debug("Found unique match, link the screenshot textunit to the tm");
+      TextUnitDTO textUnitDTO = textUnitDTOs.get(0);
+      screenshotTextUnit.setName(textUnitDTO.getName());
+      screenshotTextUnit.setSource(textUnitDTO.getSource());
+      screenshotTextUnit.setTarget(textUnitDTO.getTarget());
+      // screenshotTextUnit.setTmTextUnit(textUnitForName.getTmTextUnitId());
+    }
+  }
 
-    } else if (screenshot.getScreenshotRun().getRepository() != null) {
-      List<TextUnitDTO> textUnitDTOs =
-          getTextUnitsForScreenshotTextUnitRenderedTarget(
-              screenshot.getScreenshotRun().getRepository().getId(),
-              screenshotTextUnit.getRenderedTarget(),
-              screenshot.getLocale().getId());
-
-      screenshotTextUnit.setNumberOfMatch(textUnitDTOs.size());
-
-      if (textUnitDTOs.size() == 1) {
-        // TODO only match if there is an embedded hidden id in the string?
-        logger.debug("Found unique match, link the screenshot textunit to the tm");
-        TextUnitDTO textUnitDTO = textUnitDTOs.get(0);
-        screenshotTextUnit.setName(textUnitDTO.getName());
-        screenshotTextUnit.setSource(textUnitDTO.getSource());
-        screenshotTextUnit.setTarget(textUnitDTO.getTarget());
-        // screenshotTextUnit.setTmTextUnit(textUnitForName.getTmTextUnitId());
+  Map<Long, TMTextUnit> getTmTextUnitsById(Set<Long> tmTextUnitIds) {
+    Map<Long, TMTextUnit> tmTextUnitsById = new HashMap<>();
+    for (List<Long> tmTextUnitIdsBatch :
+        Lists.partition(new ArrayList<>(tmTextUnitIds), BATCH_SIZE)) {
+      tmTextUnitRepository
+          .findAllById(tmTextUnitIdsBatch)
+          .forEach(tmTextUnit -> tmTextUnitsById.put(tmTextUnit.getId(), tmTextUnit));
+    }
+    return tmTextUnitsById;
+  }
+
+  /**
+   * Searches the text units of a locale whose target is one of the rendered targets.
+   *
+   * @param repositoryId
+   * @param localeId
+   * @param renderedTargets normalized rendered targets
+   * @return the text units indexed by the MD5 of their target
+   */
+  Map<String, List<TextUnitDTO>> getTextUnitsByTargetMd5(
+      Long repositoryId, Long localeId, Set<String> renderedTargets) {
+
+    Map<String, List<TextUnitDTO>> textUnitsByTargetMd5 = new HashMap<>();
+
+    for (List<String> renderedTargetsBatch :
+        Lists.partition(new ArrayList<>(renderedTargets), BATCH_SIZE)) {
+
+      TextUnitTextSearch textUnitTextSearch = new TextUnitTextSearch();
+      textUnitTextSearch.setOperator(TextUnitTextSearchBooleanOperator.OR);
+      textUnitTextSearch.setPredicates(
+          renderedTargetsBatch.stream()
+              .map(
+                  renderedTarget -> {
+                    TextUnitTextSearchPredicate predicate = new TextUnitTextSearchPredicate();
+                    predicate.setField(TextUnitTextSearchField.TARGET);
+                    predicate.setSearchType(SearchType.EXACT);
+                    predicate.setValue(renderedTarget);
+                    return predicate;
+                  })
+              .collect(Collectors.toList()));
+
+      TextUnitSearcherParameters textUnitSearcherParameters = new TextUnitSearcherParameters();
+      textUnitSearcherParameters.setRepositoryIds(repositoryId);
+      textUnitSearcherParameters.setLocaleId(localeId);
+      textUnitSearcherParameters.setTextSearch(textUnitTextSearch);
+
+      for (TextUnitDTO textUnitDTO : textUnitSearcher.search(textUnitSearcherParameters)) {
+        textUnitsByTargetMd5
+            .computeIfAbsent(DigestUtils.md5Hex(textUnitDTO.getTarget()), k -> new ArrayList<>())
+            .add(textUnitDTO);
       }
     }
+
+    return textUnitsByTargetMd5;
   }
 
   List<TextUnitDTO> getTextUnitsForScreenshotTextUnitRenderedTarget(
@@ -206,6 +399,15 @@ public class ScreenshotService {
     return textUnitDTOs;
   }
 
+  /** Identifies a screenshot in a run, see the unique index of {@link Screenshot} */
+  record ScreenshotKey(String name, Long localeId) {
+    static ScreenshotKey of(Screenshot screenshot) {
+      return new ScreenshotKey(
+          screenshot.getName(),
+          screenshot.getLocale() == null ? null : screenshot.getLocale().getId());
+    }
+  }
+
   /**
    * Searches for screenshot given different criteria.
    *
@@ -1,12 +1,16 @@
 package com.box.l10n.mojito.service.screenshot;
 
 import com.box.l10n.mojito.entity.ScreenshotTextUnit;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 
 /**
@@ -20,4 +24,12 @@ public interface ScreenshotTextUnitRepository
   List<ScreenshotTextUnit> findByTmTextUnitIdIn(Set<Long> tmTextUnitId);
 
   void deleteAllByScreenshot_Id(Long id);
+
+  @Modifying
+  @Query(
+      """
+      delete from ScreenshotTextUnit screenshotTextUnit
+      where screenshotTextUnit.screenshot.id in :screenshotIds
+      """)
+  int deleteByScreenshotIdIn(@Param("screenshotIds") Collection<Long> screenshotIds);
 }
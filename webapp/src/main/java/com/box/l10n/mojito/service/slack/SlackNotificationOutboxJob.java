@@ -0,0 +1,51 @@
+package com.box.l10n.mojito.service.slack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically delivers the Slack notifications of the outbox, see {@link
+ * SlackNotificationOutboxService}.
+ */
+@Component
+@ConditionalOnProperty(
+    value = "l10n.slack-notification-outbox.worker.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class SlackNotificationOutboxJob {
+
+  static Logger logger = LoggerFactory.getLogger(SlackNotificationOutboxJob.class);
+
+  SlackNotificationOutboxService slackNotificationOutboxService;
+
+  public SlackNotificationOutboxJob(SlackNotificationOutboxService slackNotificationOutboxService) {
+    this.slackNotificationOutboxService = slackNotificationOutboxService;
+  }
+
+  @Scheduled(fixedDelayString = "${l10n.slack-notification-outbox.worker.fixed-delay-millis:5000}")
+  public void deliverDueNotifications() {
+    try {
+      int sent = slackNotificationOutboxService.deliverDueNotifications();
+      if (sent > 0) {
+        logger.debug("Sent {} Slack notifications", sent);
+      }
+    } catch (Exception e) {
+      logger.warn("Can't deliver Slack notifications", e);
+    }
+  }
+
+  @Scheduled(
+      fixedDelayString =
+          "${l10n.slack-notification-outbox.worker.cleanup-fixed-delay-millis:3600000}")
+  public void deleteOldNotifications() {
+    try {
+      int deleted = slackNotificationOutboxService.deleteOldNotifications();
+      logger.debug("Deleted {} old Slack notifications", deleted);
+    } catch (Exception e) {
+      logger.warn("Can't delete old Slack notifications", e);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.box.l10n.mojito.service.slack;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param minIntervalPerChannel Slack allows about one message per second per channel
+ * @param dedupWindow identical messages enqueued within this window are delivered once
+ * @param maxMessageLength coalesced messages are split to stay below this length
+ */
+@ConfigurationProperties(prefix = "l10n.slack-notification-outbox")
+public record SlackNotificationOutboxProperties(
+    @DefaultValue("200") int batchSize,
+    @DefaultValue("PT1S") Duration minIntervalPerChannel,
+    @DefaultValue("PT2M") Duration lease,
+    @DefaultValue("PT30S") Duration initialBackoff,
+    @DefaultValue("PT1H") Duration maxBackoff,
+    @DefaultValue("PT30S") Duration defaultRetryAfter,
+    @DefaultValue("8") int maxAttempts,
+    @DefaultValue("3500") int maxMessageLength,
+    @DefaultValue("PT10M") Duration dedupWindow,
+    @DefaultValue("P30D") Duration retention) {}
@@ -0,0 +1,489 @@
+package com.box.l10n.mojito.service.slack;
+
+import static com.box.l10n.mojito.entity.SlackNotificationStatus.FAILED;
+import static com.box.l10n.mojito.entity.SlackNotificationStatus.PENDING;
+import static com.box.l10n.mojito.entity.SlackNotificationStatus.SENDING;
+import static com.box.l10n.mojito.entity.SlackNotificationStatus.SENT;
+
+import com.box.l10n.mojito.entity.SlackNotification;
+import com.box.l10n.mojito.entity.SlackNotificationStatus;
+import com.box.l10n.mojito.entity.review.ReviewProjectRequestSlackThread;
+import com.box.l10n.mojito.service.badtranslation.TranslationIncidentRepository;
+import com.box.l10n.mojito.service.review.ReviewProjectRequestRepository;
+import com.box.l10n.mojito.service.review.ReviewProjectRequestSlackThreadRepository;
+import com.box.l10n.mojito.slack.SlackClient;
+import com.box.l10n.mojito.slack.SlackClientException;
+import com.box.l10n.mojito.slack.SlackClientRateLimitedException;
+import com.box.l10n.mojito.slack.SlackClients;
+import com.box.l10n.mojito.slack.request.Message;
+import com.box.l10n.mojito.slack.response.ChatPostMessageResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transactional outbox for Slack messages.
+ *
+ * <p>Messages are written with {@link #enqueue(SlackNotificationMessage)} in the transaction of the
+ * change that triggers them, so that a slow or rate limited Slack API doesn't hold database
+ * transactions and request threads. They are delivered by {@link #deliverDueNotifications()}, run
+ * by {@link SlackNotificationOutboxJob}.
+ *
+ * <p>Due messages are coalesced per channel and thread into as few Slack messages as possible.
+ * Messages to a channel are spaced by {@link
+ * SlackNotificationOutboxProperties#minIntervalPerChannel()}, Slack's Retry-After is honored and
+ * failures are retried with exponential backoff. A message is delivered once per idempotency key:
+ * duplicates are marked as sent without being posted.
+ *
+ * <p>The Slack thread of a delivered message is saved on the review project request or translation
+ * incident it is for, so that later messages are posted in the same thread.
+ */
+@Service
+public class SlackNotificationOutboxService {
+
+  static Logger logger = LoggerFactory.getLogger(SlackNotificationOutboxService.class);
+
+  static final String METRIC_NOTIFICATIONS = "SlackNotificationOutboxService.notifications";
+
+  static final List<SlackNotificationStatus> CLAIMABLE_STATUSES = List.of(PENDING, SENDING);
+
+  static final String COALESCED_MESSAGE_SEPARATOR = "\n\n";
+
+  static final int MAX_ERROR_LENGTH = 1024;
+
+  /**
+   * @param threadTs thread to post in, if not set and a review project request is given, the
+   *     message goes in the thread of the request, which is created if needed
+   * @param translationIncidentId incident the Slack thread of the delivered message is saved on
+   */
+  public record SlackNotificationMessage(
+      String slackClientId,
+      String slackChannelId,
+      String threadTs,
+      Long reviewProjectRequestId,
+      Long translationIncidentId,
+      String text) {
+
+    public SlackNotificationMessage(
+        String slackClientId,
+        String slackChannelId,
+        String threadTs,
+        Long reviewProjectRequestId,
+        String text) {
+      this(slackClientId, slackChannelId, threadTs, reviewProjectRequestId, null, text);
+    }
+  }
+
+  /**
+   * Messages with the same key are coalesced. Root posts that start the thread of a review project
+   * request or translation incident are keyed by it, so that each gets its own thread.
+   */
+  record DeliveryKey(
+      String slackClientId,
+      String slackChannelId,
+      String threadTs,
+      Long rootReviewProjectRequestId,
+      Long rootTranslationIncidentId) {}
+
+  SlackNotificationRepository slackNotificationRepository;
+
+  ReviewProjectRequestSlackThreadRepository reviewProjectRequestSlackThreadRepository;
+
+  ReviewProjectRequestRepository reviewProjectRequestRepository;
+
+  TranslationIncidentRepository translationIncidentRepository;
+
+  SlackClients slackClients;
+
+  SlackNotificationOutboxProperties properties;
+
+  MeterRegistry meterRegistry;
+
+  /** Earliest date a message can be sent to a channel, keyed by Slack client and channel ids */
+  Map<String, ZonedDateTime> nextSendDateByChannel = new ConcurrentHashMap<>();
+
+  public SlackNotificationOutboxService(
+      SlackNotificationRepository slackNotificationRepository,
+      ReviewProjectRequestSlackThreadRepository reviewProjectRequestSlackThreadRepository,
+      ReviewProjectRequestRepository reviewProjectRequestRepository,
+      TranslationIncidentRepository translationIncidentRepository,
+      SlackClients slackClients,
+      SlackNotificationOutboxProperties properties,
+      MeterRegistry meterRegistry) {
+    this.slackNotificationRepository = slackNotificationRepository;
+    this.reviewProjectRequestSlackThreadRepository = reviewProjectRequestSlackThreadRepository;
+    this.reviewProjectRequestRepository = reviewProjectRequestRepository;
+    this.translationIncidentRepository = translationIncidentRepository;
+    this.slackClients = slackClients;
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Adds a message to the outbox, in the current transaction if any.
+   *
+   * @return {@code false} if an identical message was already enqueued in the same dedup window
+   */
+  @Transactional
+  public boolean enqueue(SlackNotificationMessage message) {
+    ZonedDateTime now = ZonedDateTime.now();
+    String idempotencyKey = getIdempotencyKey(message, now);
+
+    if (slackNotificationRepository.existsByIdempotencyKey(idempotencyKey)) {
+      logger.debug("Skip duplicate Slack notification for channel: {}", message.slackChannelId());
+      countNotifications("duplicate", 1);
+      return false;
+    }
+
+    SlackNotification slackNotification = new SlackNotification();
+    slackNotification.setSlackClientId(message.slackClientId().trim());
+    slackNotification.setSlackChannelId(message.slackChannelId().trim());
+    slackNotification.setThreadTs(trimToNull(message.threadTs()));
+    slackNotification.setReviewProjectRequestId(message.reviewProjectRequestId());
+    slackNotification.setTranslationIncidentId(message.translationIncidentId());
+    slackNotification.setText(message.text());
+    slackNotification.setIdempotencyKey(idempotencyKey);
+    slackNotification.setStatus(PENDING);
+    slackNotification.setNextAttemptDate(now);
+    slackNotificationRepository.save(slackNotification);
+    countNotifications("enqueued", 1);
+    return true;
+  }
+
+  String getIdempotencyKey(SlackNotificationMessage message, ZonedDateTime now) {
+    long dedupWindowMillis = Math.max(1, properties.dedupWindow().toMillis());
+    return DigestUtils.sha256Hex(
+        String.join(
+            "\n",
+            message.slackClientId().trim(),
+            message.slackChannelId().trim(),
+            Objects.toString(trimToNull(message.threadTs()), ""),
+            Objects.toString(message.reviewProjectRequestId(), ""),
+            Objects.toString(message.translationIncidentId(), ""),
+            message.text(),
+            Long.toString(now.toInstant().toEpochMilli() / dedupWindowMillis)));
+  }
+
+  /**
+   * Claims the due notifications and delivers them.
+   *
+   * @return the number of notifications sent
+   */
+  public int deliverDueNotifications() {
+    ZonedDateTime now = ZonedDateTime.now();
+    ZonedDateTime leaseUntil = now.plus(properties.lease());
+
+    List<SlackNotification> claimedNotifications =
+        slackNotificationRepository
+            .findByStatusInAndNextAttemptDateLessThanEqualOrderByIdAsc(
+                CLAIMABLE_STATUSES, now, PageRequest.of(0, properties.batchSize()))
+            .stream()
+            .filter(
+                slackNotification ->
+                    slackNotificationRepository.claim(
+                            slackNotification.getId(), SENDING, CLAIMABLE_STATUSES, now, leaseUntil)
+                        == 1)
+            .toList();
+
+    Map<Long, Optional<ReviewProjectRequestSlackThread>> requestThreads = new HashMap<>();
+    Map<DeliveryKey, List<SlackNotification>> notificationsByDeliveryKey = new LinkedHashMap<>();
+    for (SlackNotification slackNotification : claimedNotifications) {
+      notificationsByDeliveryKey
+          .computeIfAbsent(
+              getDeliveryKey(slackNotification, requestThreads), k -> new ArrayList<>())
+          .add(slackNotification);
+    }
+
+    int sent = 0;
+    for (Map.Entry<DeliveryKey, List<SlackNotification>> entry :
+        notificationsByDeliveryKey.entrySet()) {
+      sent += deliver(entry.getKey(), entry.getValue());
+    }
+    return sent;
+  }
+
+  /** Deletes the sent and failed notifications older than the retention. */
+  public int deleteOldNotifications() {
+    return slackNotificationRepository.deleteByStatusInAndLastModifiedDateBefore(
+        List.of(SENT, FAILED), ZonedDateTime.now().minus(properties.retention()));
+  }
+
+  DeliveryKey getDeliveryKey(
+      SlackNotification slackNotification,
+      Map<Long, Optional<ReviewProjectRequestSlackThread>> requestThreads) {
+    String slackClientId = slackNotification.getSlackClientId();
+    String slackChannelId = slackNotification.getSlackChannelId();
+
+    if (slackNotification.getThreadTs() != null) {
+      return new DeliveryKey(
+          slackClientId, slackChannelId, slackNotification.getThreadTs(), null, null);
+    }
+
+    if (slackNotification.getReviewProjectRequestId() == null) {
+      return new DeliveryKey(
+          slackClientId, slackChannelId, null, null, slackNotification.getTranslationIncidentId());
+    }
+
+    String requestThreadTs =
+        requestThreads
+            .computeIfAbsent(
+                slackNotification.getReviewProjectRequestId(),
+                reviewProjectRequestSlackThreadRepository::findByReviewProjectRequest_Id)
+            .filter(thread -> matchesSlackDestination(thread, slackClientId, slackChannelId))
+            .map(thread -> trimToNull(thread.getThreadTs()))
+            .orElse(null);
+
+    return requestThreadTs != null
+        ? new DeliveryKey(slackClientId, slackChannelId, requestThreadTs, null, null)
+        : new DeliveryKey(
+            slackClientId,
+            slackChannelId,
+            null,
+            slackNotification.getReviewProjectRequestId(),
+            null);
+  }
+
+  /**
+   * Delivers notifications with the same destination, coalesced in as few messages as possible.
+   *
+   * @return the number of notifications sent
+   */
+  int deliver(DeliveryKey deliveryKey, List<SlackNotification> slackNotifications) {
+    SlackClient slackClient = slackClients.getById(deliveryKey.slackClientId());
+    if (slackClient == null) {
+      slackNotifications.forEach(
+          slackNotification ->
+              markFailed(
+                  slackNotification, "Unknown Slack client: " + deliveryKey.slackClientId()));
+      return 0;
+    }
+
+    List<SlackNotification> notificationsToSend = new ArrayList<>();
+    Set<String> idempotencyKeys = new HashSet<>();
+    for (SlackNotification slackNotification : slackNotifications) {
+      if (!idempotencyKeys.add(slackNotification.getIdempotencyKey())
+          || slackNotificationRepository.existsByIdempotencyKeyAndStatus(
+              slackNotification.getIdempotencyKey(), SENT)) {
+        logger.debug("Slack notification {} is a duplicate, skip", slackNotification.getId());
+        markSent(slackNotification, null);
+        countNotifications("duplicate", 1);
+      } else {
+        notificationsToSend.add(slackNotification);
+      }
+    }
+
+    String channelKey = deliveryKey.slackClientId() + "/" + deliveryKey.slackChannelId();
+    String threadTs = deliveryKey.threadTs();
+    List<List<SlackNotification>> coalescedNotifications = coalesce(notificationsToSend);
+    int sent = 0;
+
+    for (int i = 0; i < coalescedNotifications.size(); i++) {
+      List<SlackNotification> coalesced = coalescedNotifications.get(i);
+      List<SlackNotification> remaining =
+          coalescedNotifications.subList(i, coalescedNotifications.size()).stream()
+              .flatMap(List::stream)
+              .toList();
+
+      ZonedDateTime now = ZonedDateTime.now();
+      ZonedDateTime nextSendDate = nextSendDateByChannel.get(channelKey);
+      if (nextSendDate != null && now.isBefore(nextSendDate)) {
+        reschedule(remaining, nextSendDate);
+        break;
+      }
+
+      Message message = new Message();
+      message.setChannel(deliveryKey.slackChannelId());
+      message.setText(
+          String.join(
+              COALESCED_MESSAGE_SEPARATOR,
+              coalesced.stream().map(SlackNotification::getText).toList()));
+      message.setThreadTs(threadTs);
+
+      try {
+        ChatPostMessageResponse response = slackClient.sendInstantMessage(message);
+        nextSendDateByChannel.put(channelKey, now.plus(properties.minIntervalPerChannel()));
+
+        String messageTs = response == null ? null : trimToNull(response.getTs());
+        String sentThreadTs = threadTs != null ? threadTs : messageTs;
+        if (threadTs == null
+            && deliveryKey.rootReviewProjectRequestId() != null
+            && messageTs != null) {
+          saveRequestSlackThread(
+              deliveryKey.rootReviewProjectRequestId(),
+              deliveryKey.slackClientId(),
+              deliveryKey.slackChannelId(),
+              messageTs);
+          threadTs = messageTs;
+        } else if (threadTs == null
+            && deliveryKey.rootTranslationIncidentId() != null
+            && messageTs != null) {
+          threadTs = messageTs;
+        }
+
+        for (SlackNotification slackNotification : coalesced) {
+          markSent(slackNotification, messageTs);
+          if (slackNotification.getTranslationIncidentId() != null && sentThreadTs != null) {
+            saveTranslationIncidentSlackThread(
+                slackNotification.getTranslationIncidentId(), sentThreadTs);
+          }
+        }
+        countNotifications("sent", coalesced.size());
+        sent += coalesced.size();
+      } catch (SlackClientRateLimitedException e) {
+        Duration retryAfter =
+            e.getRetryAfter() == null ? properties.defaultRetryAfter() : e.getRetryAfter();
+        logger.info("Slack rate limited channel {}, retry after {}", channelKey, retryAfter);
+        nextSendDateByChannel.put(channelKey, now.plus(retryAfter));
+        reschedule(remaining, now.plus(retryAfter));
+        countNotifications("rate_limited", remaining.size());
+        break;
+      } catch (SlackClientException | RuntimeException e) {
+        logger.warn("Failed to send Slack notifications to channel {}", channelKey, e);
+        retryLater(remaining, e.getMessage());
+        break;
+      }
+    }
+
+    return sent;
+  }
+
+  List<List<SlackNotification>> coalesce(List<SlackNotification> slackNotifications) {
+    List<List<SlackNotification>> coalescedNotifications = new ArrayList<>();
+    List<SlackNotification> coalesced = new ArrayList<>();
+    int length = 0;
+
+    for (SlackNotification slackNotification : slackNotifications) {
+      int textLength = slackNotification.getText().length();
+      if (!coalesced.isEmpty()) {
+        if (length + COALESCED_MESSAGE_SEPARATOR.length() + textLength
+            > properties.maxMessageLength()) {
+          coalescedNotifications.add(coalesced);
+          coalesced = new ArrayList<>();
+          length = 0;
+        } else {
+          length += COALESCED_MESSAGE_SEPARATOR.length();
+        }
+      }
+      coalesced.add(slackNotification);
+      length += textLength;
+    }
+
+    if (!coalesced.isEmpty()) {
+      coalescedNotifications.add(coalesced);
+    }
+    return coalescedNotifications;
+  }
+
+  void markSent(SlackNotification slackNotification, String messageTs) {
+    slackNotification.setStatus(SENT);
+    slackNotification.setMessageTs(messageTs);
+    slackNotification.setLastError(null);
+    slackNotificationRepository.save(slackNotification);
+  }
+
+  void markFailed(SlackNotification slackNotification, String error) {
+    logger.warn("Slack notification {} failed: {}", slackNotification.getId(), error);
+    slackNotification.setStatus(FAILED);
+    slackNotification.setLastError(abbreviate(error));
+    slackNotificationRepository.save(slackNotification);
+    countNotifications("failed", 1);
+  }
+
+  void reschedule(List<SlackNotification> slackNotifications, ZonedDateTime nextAttemptDate) {
+    for (SlackNotification slackNotification : slackNotifications) {
+      slackNotification.setStatus(PENDING);
+      slackNotification.setNextAttemptDate(nextAttemptDate);
+      slackNotificationRepository.save(slackNotification);
+    }
+  }
+
+  void retryLater(List<SlackNotification> slackNotifications, String error) {
+    ZonedDateTime now = ZonedDateTime.now();
+    for (SlackNotification slackNotification : slackNotifications) {
+      slackNotification.setAttempts(slackNotification.getAttempts() + 1);
+      if (slackNotification.getAttempts() >= properties.maxAttempts()) {
+        markFailed(slackNotification, error);
+      } else {
+        slackNotification.setStatus(PENDING);
+        slackNotification.setLastError(abbreviate(error));
+        slackNotification.setNextAttemptDate(now.plus(getBackoff(slackNotification.getAttempts())));
+        slackNotificationRepository.save(slackNotification);
+        countNotifications("retried", 1);
+      }
+    }
+  }
+
+  /** Exponential backoff after the given number of attempts, capped to the max backoff */
+  Duration getBackoff(int attempts) {
+    Duration backoff =
+        properties.initialBackoff().multipliedBy(1L << Math.min(Math.max(0, attempts - 1), 20));
+    return backoff.compareTo(properties.maxBackoff()) > 0 ? properties.maxBackoff() : backoff;
+  }
+
+  void saveRequestSlackThread(
+      Long reviewProjectRequestId, String slackClientId, String slackChannelId, String threadTs) {
+    try {
+      ReviewProjectRequestSlackThread thread =
+          reviewProjectRequestSlackThreadRepository
+              .findByReviewProjectRequest_Id(reviewProjectRequestId)
+              .orElseGet(ReviewProjectRequestSlackThread::new);
+      thread.setReviewProjectRequest(
+          reviewProjectRequestRepository.getReferenceById(reviewProjectRequestId));
+      thread.setSlackClientId(slackClientId);
+      thread.setSlackChannelId(slackChannelId);
+      thread.setThreadTs(threadTs);
+      reviewProjectRequestSlackThreadRepository.save(thread);
+    } catch (RuntimeException e) {
+      logger.warn(
+          "Can't save the Slack thread of review project request {}", reviewProjectRequestId, e);
+    }
+  }
+
+  void saveTranslationIncidentSlackThread(Long translationIncidentId, String threadTs) {
+    try {
+      translationIncidentRepository.updateSlackThreadTs(translationIncidentId, threadTs);
+    } catch (RuntimeException e) {
+      logger.warn(
+          "Can't save the Slack thread of translation incident {}", translationIncidentId, e);
+    }
+  }
+
+  boolean matchesSlackDestination(
+      ReviewProjectRequestSlackThread thread, String slackClientId, String slackChannelId) {
+    return thread.getSlackClientId() != null
+        && thread.getSlackChannelId() != null
+        && thread.getSlackClientId().trim().equals(slackClientId)
+        && thread.getSlackChannelId().trim().equals(slackChannelId);
+  }
+
+  void countNotifications(String outcome, int count) {
+    meterRegistry.counter(METRIC_NOTIFICATIONS, "outcome", outcome).increment(count);
+  }
+
+  static String abbreviate(String error) {
+    if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+      return error;
+    }
+    return error.substring(0, MAX_ERROR_LENGTH);
+  }
+
+  static String trimToNull(String value) {
+    return value == null || value.isBlank() ? null : value.trim();
+  }
+}
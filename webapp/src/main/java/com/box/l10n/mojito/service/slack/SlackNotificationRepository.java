@@ -0,0 +1,60 @@
+package com.box.l10n.mojito.service.slack;
+
+import com.box.l10n.mojito.entity.SlackNotification;
+import com.box.l10n.mojito.entity.SlackNotificationStatus;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+@RepositoryRestResource(exported = false)
+public interface SlackNotificationRepository extends JpaRepository<SlackNotification, Long> {
+
+  List<SlackNotification> findByStatusInAndNextAttemptDateLessThanEqualOrderByIdAsc(
+      Collection<SlackNotificationStatus> statuses, ZonedDateTime date, Pageable pageable);
+
+  boolean existsByIdempotencyKey(String idempotencyKey);
+
+  boolean existsByIdempotencyKeyAndStatus(String idempotencyKey, SlackNotificationStatus status);
+
+  /**
+   * Claims a due notification for delivery by moving it to {@link SlackNotificationStatus#SENDING}
+   * until the lease expires. Only one worker can claim a given notification.
+   *
+   * @return 1 if the notification was claimed, 0 otherwise
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true, flushAutomatically = true)
+  @Query(
+      """
+      update SlackNotification sn
+      set sn.status = :sending, sn.nextAttemptDate = :leaseUntil
+      where sn.id = :id
+        and sn.status in :claimableStatuses
+        and sn.nextAttemptDate <= :now
+      """)
+  int claim(
+      @Param("id") Long id,
+      @Param("sending") SlackNotificationStatus sending,
+      @Param("claimableStatuses") Collection<SlackNotificationStatus> claimableStatuses,
+      @Param("now") ZonedDateTime now,
+      @Param("leaseUntil") ZonedDateTime leaseUntil);
+
+  @Transactional
+  @Modifying(clearAutomatically = true, flushAutomatically = true)
+  @Query(
+      """
+      delete from SlackNotification sn
+      where sn.status in :statuses
+        and sn.lastModifiedDate < :before
+      """)
+  int deleteByStatusInAndLastModifiedDateBefore(
+      @Param("statuses") Collection<SlackNotificationStatus> statuses,
+      @Param("before") ZonedDateTime before);
+}
@@ -5,16 +5,12 @@ import com.box.l10n.mojito.entity.review.ReviewAutomation;
 import com.box.l10n.mojito.entity.review.ReviewProject;
 import com.box.l10n.mojito.entity.review.ReviewProjectAssignmentEventType;
 import com.box.l10n.mojito.entity.review.ReviewProjectRequest;
-import com.box.l10n.mojito.entity.review.ReviewProjectRequestSlackThread;
 import com.box.l10n.mojito.entity.review.ReviewProjectType;
 import com.box.l10n.mojito.entity.security.user.User;
 import com.box.l10n.mojito.service.review.ReviewAutomationCronSchedulerService;
-import com.box.l10n.mojito.service.review.ReviewProjectRequestSlackThreadRepository;
+import com.box.l10n.mojito.service.slack.SlackNotificationOutboxService;
 import com.box.l10n.mojito.slack.SlackClient;
-import com.box.l10n.mojito.slack.SlackClientException;
 import com.box.l10n.mojito.slack.SlackClients;
-import com.box.l10n.mojito.slack.request.Message;
-import com.box.l10n.mojito.slack.response.ChatPostMessageResponse;
 import com.box.l10n.mojito.utils.ServerConfig;
 import java.time.DateTimeException;
 import java.time.ZoneId;
@@ -45,14 +41,14 @@ public class TeamSlackNotificationService {
 
   private final TeamService teamService;
   private final SlackClients slackClients;
-  private final ReviewProjectRequestSlackThreadRepository reviewProjectRequestSlackThreadRepository;
+  private final SlackNotificationOutboxService slackNotificationOutboxService;
   private final ServerConfig serverConfig;
   private final ZoneId reviewProjectDueDateTimeZone;
 
   public TeamSlackNotificationService(
       TeamService teamService,
       SlackClients slackClients,
-      ReviewProjectRequestSlackThreadRepository reviewProjectRequestSlackThreadRepository,
+      SlackNotificationOutboxService slackNotificationOutboxService,
       ServerConfig serverConfig,
       @Value(
               "${l10n.review-project.notifications.due-date-timezone:"
@@ -61,7 +57,7 @@ public class TeamSlackNotificationService {
           String reviewProjectDueDateTimeZoneId) {
     this.teamService = teamService;
     this.slackClients = slackClients;
-    this.reviewProjectRequestSlackThreadRepository = reviewProjectRequestSlackThreadRepository;
+    this.slackNotificationOutboxService = slackNotificationOutboxService;
     this.serverConfig = serverConfig;
     this.reviewProjectDueDateTimeZone = toDueDateTimeZoneOrDefault(reviewProjectDueDateTimeZoneId);
   }
@@ -102,21 +98,12 @@ public class TeamSlackNotificationService {
       return;
     }
 
-    try {
-      sendSlackMessage(slackClient, settings, text, reviewProject.getReviewProjectRequest(), true);
-    } catch (SlackClientException ex) {
-      logger.warn(
-          "Failed to send review project assignment Slack notification for project {} team {}: {}",
-          reviewProject.getId(),
-          team.getId(),
-          ex.getMessage(),
-          ex);
-    }
+    enqueueSlackMessage(settings, text, reviewProject.getReviewProjectRequest());
   }
 
   public void sendReviewProjectCreateRequestNotification(
       ReviewProjectRequest reviewProjectRequest, List<ReviewProject> createdProjects) {
-    sendReviewProjectRequestSummaryNotification(reviewProjectRequest, createdProjects, "create");
+    sendReviewProjectRequestSummaryNotification(reviewProjectRequest, createdProjects);
   }
 
   public boolean sendReviewAutomationTriggerAlert(
@@ -154,33 +141,17 @@ public class TeamSlackNotificationService {
       return false;
     }
 
-    try {
-      Message message = new Message();
-      message.setChannel(settings.slackChannelId());
-      message.setText(text);
-      slackClient.sendInstantMessage(message);
-      return true;
-    } catch (SlackClientException ex) {
-      logger.warn(
-          "Failed to send review automation Slack alert for automation {} team {}: {}",
-          reviewAutomation.getId(),
-          team.getId(),
-          ex.getMessage(),
-          ex);
-      return false;
-    }
+    enqueueSlackMessage(settings, text, null);
+    return true;
   }
 
   public void sendReviewProjectRequestAssignmentNotification(
       ReviewProjectRequest reviewProjectRequest, List<ReviewProject> requestProjects) {
-    sendReviewProjectRequestSummaryNotification(
-        reviewProjectRequest, requestProjects, "assignment");
+    sendReviewProjectRequestSummaryNotification(reviewProjectRequest, requestProjects);
   }
 
   private void sendReviewProjectRequestSummaryNotification(
-      ReviewProjectRequest reviewProjectRequest,
-      List<ReviewProject> projectsInput,
-      String context) {
+      ReviewProjectRequest reviewProjectRequest, List<ReviewProject> projectsInput) {
     if (reviewProjectRequest == null || projectsInput == null || projectsInput.isEmpty()) {
       return;
     }
@@ -221,17 +192,7 @@ public class TeamSlackNotificationService {
       return;
     }
 
-    try {
-      sendSlackMessage(slackClient, settings, text, reviewProjectRequest, true);
-    } catch (SlackClientException ex) {
-      logger.warn(
-          "Failed to send review project {} Slack notification for request {} team {}: {}",
-          context,
-          reviewProjectRequest.getId(),
-          team.getId(),
-          ex.getMessage(),
-          ex);
-    }
+    enqueueSlackMessage(settings, text, reviewProjectRequest);
   }
 
   private Map<Long, TeamService.TeamSlackUserMappingEntry> getMappingsByUserId(Long teamId) {
@@ -713,66 +674,20 @@ public class TeamSlackNotificationService {
     return "<" + url + "|automation #" + automationId + ">";
   }
 
-  private void sendSlackMessage(
-      SlackClient slackClient,
+  /**
+   * Adds the message to the Slack outbox, in the current transaction. Messages about a review
+   * project request go in the Slack thread of the request.
+   */
+  private void enqueueSlackMessage(
       TeamService.TeamSlackSettings settings,
       String text,
-      ReviewProjectRequest reviewProjectRequest,
-      boolean preferExistingRequestThread)
-      throws SlackClientException {
-    Message message = new Message();
-    message.setChannel(settings.slackChannelId());
-    message.setText(text);
-
-    if (preferExistingRequestThread
-        && reviewProjectRequest != null
-        && reviewProjectRequest.getId() != null) {
-      reviewProjectRequestSlackThreadRepository
-          .findByReviewProjectRequest_Id(reviewProjectRequest.getId())
-          .filter(thread -> matchesSlackDestination(thread, settings))
-          .map(ReviewProjectRequestSlackThread::getThreadTs)
-          .filter(threadTs -> !isBlank(threadTs))
-          .ifPresent(message::setThreadTs);
-    }
-
-    ChatPostMessageResponse response = slackClient.sendInstantMessage(message);
-    if (isBlank(message.getThreadTs())) {
-      saveRequestSlackThread(
-          reviewProjectRequest, settings, response != null ? response.getTs() : null);
-    }
-  }
-
-  private boolean matchesSlackDestination(
-      ReviewProjectRequestSlackThread thread, TeamService.TeamSlackSettings settings) {
-    return thread != null
-        && settings != null
-        && !isBlank(thread.getSlackClientId())
-        && !isBlank(thread.getSlackChannelId())
-        && thread.getSlackClientId().trim().equals(settings.slackClientId().trim())
-        && thread.getSlackChannelId().trim().equals(settings.slackChannelId().trim());
-  }
-
-  private void saveRequestSlackThread(
-      ReviewProjectRequest reviewProjectRequest,
-      TeamService.TeamSlackSettings settings,
-      String threadTs) {
-    if (reviewProjectRequest == null
-        || reviewProjectRequest.getId() == null
-        || settings == null
-        || isBlank(settings.slackClientId())
-        || isBlank(settings.slackChannelId())
-        || isBlank(threadTs)) {
-      return;
-    }
-
-    ReviewProjectRequestSlackThread thread =
-        reviewProjectRequestSlackThreadRepository
-            .findByReviewProjectRequest_Id(reviewProjectRequest.getId())
-            .orElseGet(ReviewProjectRequestSlackThread::new);
-    thread.setReviewProjectRequest(reviewProjectRequest);
-    thread.setSlackClientId(settings.slackClientId().trim());
-    thread.setSlackChannelId(settings.slackChannelId().trim());
-    thread.setThreadTs(threadTs.trim());
-    reviewProjectRequestSlackThreadRepository.save(thread);
+      ReviewProjectRequest reviewProjectRequest) {
+    slackNotificationOutboxService.enqueue(
+        new SlackNotificationOutboxService.SlackNotificationMessage(
+            settings.slackClientId(),
+            settings.slackChannelId(),
+            null,
+            reviewProjectRequest != null ? reviewProjectRequest.getId() : null,
+            text));
   }
 }
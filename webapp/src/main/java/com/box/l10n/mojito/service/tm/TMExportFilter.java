@@ -3,7 +3,6 @@ package com.box.l10n.mojito.service.tm;
 import com.box.l10n.mojito.entity.Asset;
 import com.box.l10n.mojito.entity.Locale;
 import com.box.l10n.mojito.entity.TM;
-import com.box.l10n.mojito.entity.TranslationKit;
 import com.box.l10n.mojito.json.ObjectMapper;
 import com.box.l10n.mojito.okapi.ImportExportTextUnitUtils;
 import com.box.l10n.mojito.okapi.TextUnitUtils;
@@ -16,6 +15,7 @@ import com.box.l10n.mojito.service.tm.search.TextUnitDTO;
 import com.box.l10n.mojito.service.tm.search.TextUnitSearcher;
 import com.box.l10n.mojito.service.tm.search.TextUnitSearcherParameters;
 import com.box.l10n.mojito.service.translationkit.TranslationKitService;
+import com.google.common.collect.AbstractIterator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -41,6 +41,9 @@ import org.springframework.beans.factory.annotation.Configurable;
 /**
  * An {@link IFilter} to export all {@link TextUnit}s of a {@link TM}
  *
+ * <p>The text units are fetched page by page (ordered by text unit id) while events are consumed so
+ * that the memory used doesn't depend on the number of text units in the asset.
+ *
  * @author jaurambault
  */
 @Configurable
@@ -50,6 +53,8 @@ public class TMExportFilter implements IFilter {
 
   public static final String FILTER_NAME = "box_tmexport_filter";
 
+  static final int DEFAULT_PAGE_SIZE = 1000;
+
   private static final String DISPLAY_NAME = "TM Export Filter";
 
   @Autowired TranslationKitService translationKitService;
@@ -88,10 +93,18 @@ public class TMExportFilter implements IFilter {
 
   Locale locale;
 
+  /** Number of text units fetched from the TM at once */
+  int pageSize = DEFAULT_PAGE_SIZE;
+
   public TMExportFilter(Long tmId) {
     this.assetId = tmId;
   }
 
+  public TMExportFilter(Long tmId, int pageSize) {
+    this.assetId = tmId;
+    this.pageSize = pageSize;
+  }
+
   @Override
   public String getName() {
     return FILTER_NAME;
@@ -115,10 +128,7 @@ public class TMExportFilter implements IFilter {
     targetLocale = input.getTargetLocale();
     locale = localeService.findByBcp47Tag(targetLocale.toBCP47());
 
-    List<TextUnitDTO> textUnitDTOsForExport = getTextUnitDTOsForExport();
-    List<TextUnitDTOWithComments> textUnitDTOWithCommentsForExport =
-        tmTextUnitVariantCommentService.enrichTextUnitDTOsWithComments(textUnitDTOsForExport);
-    textUnitsIterator = textUnitDTOWithCommentsForExport.iterator();
+    textUnitsIterator = getPagedTextUnitDTOsWithCommentsIterator();
 
     StartDocument startDoc = new StartDocument("Export asset id: " + assetId);
 
@@ -252,19 +262,68 @@ public class TMExportFilter implements IFilter {
   }
 
   /**
-   * Gets the list of {@link TextUnitDTO}s to generate a {@link TranslationKit}
+   * Gets an iterator that fetches the {@link TextUnitDTO}s (enriched with their comments) one page
+   * at a time, when the previous page has been consumed.
+   *
+   * @return an iterator over all the text units to export
+   */
+  Iterator<TextUnitDTOWithComments> getPagedTextUnitDTOsWithCommentsIterator() {
+    return new AbstractIterator<>() {
+
+      Long lastTmTextUnitId = null;
+
+      boolean lastPage = false;
+
+      Iterator<TextUnitDTOWithComments> pageIterator =
+          List.<TextUnitDTOWithComments>of().iterator();
+
+      @Override
+      protected TextUnitDTOWithComments computeNext() {
+        while (!pageIterator.hasNext()) {
+          if (lastPage) {
+            return endOfData();
+          }
+
+          List<TextUnitDTO> page = getTextUnitDTOsForExport(lastTmTextUnitId, pageSize);
+          logger.debug(
+              "Fetched page of {} text units after text unit id: {}",
+              page.size(),
+              lastTmTextUnitId);
+
+          if (!page.isEmpty()) {
+            lastTmTextUnitId = page.getLast().getTmTextUnitId();
+          }
+          lastPage = page.size() < pageSize;
+          pageIterator =
+              tmTextUnitVariantCommentService.enrichTextUnitDTOsWithComments(page).iterator();
+        }
+
+        return pageIterator.next();
+      }
+    };
+  }
+
+  /**
+   * Gets a page of the {@link TextUnitDTO}s to export, ordered by text unit id. Pages start after
+   * the last text unit id of the previous page instead of at an offset, so that the database
+   * doesn't re-read the previous pages of large assets.
    *
-   * @return the list of {@link TextUnitDTO}s to generate a {@link TranslationKit}
+   * @param lastTmTextUnitId last text unit id of the previous page, {@code null} for the first page
+   * @param limit max number of text units in the page
+   * @return a page of {@link TextUnitDTO}s
    */
-  public List<TextUnitDTO> getTextUnitDTOsForExport() {
+  public List<TextUnitDTO> getTextUnitDTOsForExport(Long lastTmTextUnitId, int limit) {
 
-    logger.debug("Get TextUnitDTOs for export, locale: {}");
+    logger.debug("Get TextUnitDTOs for export, locale: {}", locale.getBcp47Tag());
     TextUnitSearcherParameters textUnitSearcherParameters = new TextUnitSearcherParameters();
 
     textUnitSearcherParameters.setAssetId(assetId);
     textUnitSearcherParameters.setRootLocaleExcluded(false);
     textUnitSearcherParameters.setLocaleId(locale.getId());
     textUnitSearcherParameters.setStatusFilter(StatusFilter.TRANSLATED);
+    textUnitSearcherParameters.setOrderByTextUnitID(true);
+    textUnitSearcherParameters.setTmTextUnitIdGreaterThan(lastTmTextUnitId);
+    textUnitSearcherParameters.setLimit(limit);
 
     return textUnitSearcher.search(textUnitSearcherParameters);
   }
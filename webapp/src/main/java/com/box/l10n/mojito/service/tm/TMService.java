@@ -84,6 +84,7 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityManager;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.util.ArrayDeque;
@@ -198,6 +199,10 @@ public class TMService {
   @Value("${l10n.converter.portable:false}")
   boolean portableConverter;
 
+  /** Number of text units read from the TM at once when exporting an asset as XLIFF */
+  @Value("${l10n.tmService.export.pageSize:" + TMExportFilter.DEFAULT_PAGE_SIZE + "}")
+  int exportPageSize = TMExportFilter.DEFAULT_PAGE_SIZE;
+
   /**
    * Adds a {@link TMTextUnit} in a {@link TM}.
    *
@@ -1044,12 +1049,35 @@ public class TMService {
   /**
    * Exports an {@link Asset} as XLIFF for a given locale.
    *
+   * <p>This buffers the whole XLIFF in memory, use {@link #exportAssetAsXLIFF(Long, String,
+   * OutputStream)} for large assets.
+   *
    * @param assetId {@link Asset#id} to be exported
    * @param bcp47Tag bcp47tag of the locale that needs to be exported
    * @return an XLIFF that contains {@link Asset}'s translation for that locale
    */
   @Transactional
   public String exportAssetAsXLIFF(Long assetId, String bcp47Tag) {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    exportAssetAsXLIFF(assetId, bcp47Tag, byteArrayOutputStream);
+
+    logger.trace("Get the output result from the stream");
+    return StreamUtil.getUTF8OutputStreamAsString(byteArrayOutputStream);
+  }
+
+  /**
+   * Exports an {@link Asset} as XLIFF for a given locale into an {@link OutputStream}.
+   *
+   * <p>The text units are read from the TM page by page (see {@link TMExportFilter}) and the XLIFF
+   * is written incrementally, so the memory used doesn't depend on the size of the TM. The output
+   * stream is closed at the end of the export.
+   *
+   * @param assetId {@link Asset#id} to be exported
+   * @param bcp47Tag bcp47tag of the locale that needs to be exported
+   * @param outputStream the stream the XLIFF is written to (UTF-8)
+   */
+  @Transactional(readOnly = true)
+  public void exportAssetAsXLIFF(Long assetId, String bcp47Tag, OutputStream outputStream) {
 
     logger.debug("Export data for asset id: {} and locale: {}", assetId, bcp47Tag);
 
@@ -1059,13 +1087,12 @@ public class TMService {
     logger.trace(
         "Prepare FilterEventsWriterStep to use an XLIFFWriter with outputstream (allows only one doc to be processed)");
     FilterEventsWriterStep filterEventsWriterStep = new FilterEventsWriterStep(xliffWriter);
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-    filterEventsWriterStep.setOutputStream(byteArrayOutputStream);
+    filterEventsWriterStep.setOutputStream(outputStream);
     filterEventsWriterStep.setOutputEncoding(StandardCharsets.UTF_8.toString());
 
     logger.trace("Prepare the Okapi pipeline");
     IPipelineDriver driver = new PipelineDriver();
-    driver.addStep(new RawDocumentToFilterEventsStep(new TMExportFilter(assetId)));
+    driver.addStep(new RawDocumentToFilterEventsStep(new TMExportFilter(assetId, exportPageSize)));
     driver.addStep(filterEventsWriterStep);
 
     logger.trace("Add single document with fake output URI to be processed with an outputStream");
@@ -1078,9 +1105,6 @@ public class TMService {
 
     logger.debug("Start processing batch");
     driver.processBatch();
-
-    logger.trace("Get the output result from the stream");
-    return StreamUtil.getUTF8OutputStreamAsString(byteArrayOutputStream);
   }
 
   /**
@@ -1890,24 +1914,25 @@ public class TMService {
    * @param assetId {@link Asset#id} to be exported
    * @param bcp47Tag bcp47tag of the locale that needs to be exported
    * @param currentTask
-   * @return {@link PollableFutureTaskResult} that contains an XLIFF as result
+   * @return {@link PollableFutureTaskResult} to track the export, the XLIFF is not duplicated as
+   *     task output, it is only persisted in the {@link TMXliff}
    */
   @Pollable(async = true, message = "Export asset as xliff")
-  public PollableFuture<String> exportAssetAsXLIFFAsync(
+  public PollableFuture<Void> exportAssetAsXLIFFAsync(
       Long tmXliffId, Long assetId, String bcp47Tag, @InjectCurrentTask PollableTask currentTask) {
 
-    PollableFutureTaskResult<String> pollableFutureTaskResult = new PollableFutureTaskResult<>();
+    PollableFutureTaskResult<Void> pollableFutureTaskResult = new PollableFutureTaskResult<>();
 
-    String xliff = exportAssetAsXLIFF(assetId, bcp47Tag);
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    exportAssetAsXLIFF(assetId, bcp47Tag, byteArrayOutputStream);
 
     TMXliff tmXliff = tmXliffRepository.findById(tmXliffId).orElse(null);
     tmXliff.setAsset(assetRepository.findById(assetId).orElse(null));
     tmXliff.setLocale(localeService.findByBcp47Tag(bcp47Tag));
-    tmXliff.setContent(xliff);
+    tmXliff.setContent(StreamUtil.getUTF8OutputStreamAsString(byteArrayOutputStream));
     tmXliff.setPollableTask(currentTask);
     tmXliffRepository.save(tmXliff);
 
-    pollableFutureTaskResult.setResult(xliff);
     return pollableFutureTaskResult;
   }
 
@@ -11,9 +11,11 @@ import com.box.l10n.mojito.entity.RepositoryLocale;
 import com.box.l10n.mojito.entity.TMTextUnit;
 import com.box.l10n.mojito.entity.TMTextUnitCurrentVariant;
 import com.box.l10n.mojito.entity.TMTextUnitVariant;
+import com.box.l10n.mojito.entity.TextSearchTrigram;
 import com.box.l10n.mojito.entity.glossary.Glossary;
 import com.box.l10n.mojito.entity.glossary.GlossaryTermMetadata;
 import com.box.l10n.mojito.service.NormalizationUtils;
+import com.box.l10n.mojito.service.tm.search.trigram.TextUnitTrigramIndexService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
@@ -26,8 +28,11 @@ import jakarta.persistence.criteria.Selection;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -87,8 +92,12 @@ public class TextUnitSearcher {
 
   private final EntityManager entityManager;
 
-  public TextUnitSearcher(EntityManager entityManager) {
+  private final TextUnitTrigramIndexService textUnitTrigramIndexService;
+
+  public TextUnitSearcher(
+      EntityManager entityManager, TextUnitTrigramIndexService textUnitTrigramIndexService) {
     this.entityManager = entityManager;
+    this.textUnitTrigramIndexService = textUnitTrigramIndexService;
   }
 
   @Retryable(backoff = @Backoff(delay = 500, multiplier = 2))
@@ -136,6 +145,67 @@ public class TextUnitSearcher {
         textUnitWordCount == null ? 0 : textUnitWordCount);
   }
 
+  /**
+   * Counts the targets of the text units whose source is exactly one of the given sources, grouped
+   * by source, locale, target and status.
+   *
+   * <p>Sources are matched on their MD5 like the exact source text search, but all of them in a
+   * single query. The parameters can't have a text search.
+   */
+  @Retryable(backoff = @Backoff(delay = 500, multiplier = 2))
+  @Transactional(readOnly = true)
+  public List<TextUnitTargetCount> countTargetsBySources(
+      TextUnitSearcherParameters searchParameters, Collection<String> sources) {
+    if (effectiveTextSearch(searchParameters) != null) {
+      throw new IllegalArgumentException("Text search is not supported when counting targets");
+    }
+
+    Map<String, String> sourcesByMd5 = new LinkedHashMap<>();
+    for (String source : sources) {
+      sourcesByMd5.putIfAbsent(DigestUtils.md5Hex(NormalizationUtils.normalize(source)), source);
+    }
+    if (sourcesByMd5.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    HibernateCriteriaBuilder cb = criteriaBuilder();
+    JpaCriteriaQuery<Tuple> query = cb.createTupleQuery();
+    SearchContext context = buildSearchContext(cb, query, searchParameters);
+
+    Predicate sourcePredicate = context.textUnit.get("contentMd5").in(sourcesByMd5.keySet());
+    query.where(
+        query.getRestriction() == null
+            ? sourcePredicate
+            : cb.and(query.getRestriction(), sourcePredicate));
+
+    Expression<String> sourceMd5 = context.textUnit.get("contentMd5");
+    Expression<String> localeTag = context.locale.get("bcp47Tag");
+    Expression<String> target = context.variant.get("content");
+    Expression<Object> status = context.variant.get("status");
+    query.multiselect(
+        sourceMd5.alias("sourceMd5"),
+        localeTag.alias(TARGET_LOCALE),
+        target.alias(TARGET),
+        status.alias(STATUS),
+        cb.count(context.textUnit.get("id")).alias(TEXT_UNIT_COUNT),
+        cb.min(context.textUnit.get("id")).alias("minTmTextUnitId"),
+        cb.max(context.textUnit.get("id")).alias("maxTmTextUnitId"));
+    query.groupBy(sourceMd5, localeTag, target, status);
+
+    return entityManager.createQuery(query).getResultList().stream()
+        .map(
+            tuple ->
+                new TextUnitTargetCount(
+                    sourcesByMd5.get(tuple.get("sourceMd5", String.class)),
+                    tuple.get(TARGET_LOCALE, String.class),
+                    tuple.get(TARGET, String.class),
+                    toStatus(tuple.get(STATUS)),
+                    tuple.get(TEXT_UNIT_COUNT, Long.class),
+                    tuple.get("minTmTextUnitId", Long.class),
+                    tuple.get("maxTmTextUnitId", Long.class)))
+        .toList();
+  }
+
   private HibernateCriteriaBuilder criteriaBuilder() {
     return entityManager.unwrap(Session.class).getCriteriaBuilder();
   }
@@ -339,6 +409,11 @@ public class TextUnitSearcher {
     if (searchParameters.getTmTextUnitIds() != null) {
       predicates.add(context.textUnit.get("id").in(searchParameters.getTmTextUnitIds()));
     }
+    if (searchParameters.getTmTextUnitIdGreaterThan() != null) {
+      predicates.add(
+          cb.greaterThan(
+              context.textUnit.get("id"), searchParameters.getTmTextUnitIdGreaterThan()));
+    }
     if (searchParameters.getTmId() != null) {
       predicates.add(cb.equal(context.textUnit.get("tm").get("id"), searchParameters.getTmId()));
     }
@@ -444,19 +519,37 @@ public class TextUnitSearcher {
 
     return switch (predicate.getField()) {
       case STRING_ID ->
-          searchTypePredicate(cb, context.textUnit.get("name"), null, searchType, value);
+          withTrigramPrefilter(
+              cb,
+              searchTypePredicate(cb, context.textUnit.get("name"), null, searchType, value),
+              context.textUnit.get("id"),
+              TextSearchTrigram.Field.NAME,
+              searchType,
+              value);
       case SOURCE ->
-          searchTypePredicate(
+          withTrigramPrefilter(
               cb,
-              context.textUnit.get("content"),
-              context.textUnit.get("contentMd5"),
+              searchTypePredicate(
+                  cb,
+                  context.textUnit.get("content"),
+                  context.textUnit.get("contentMd5"),
+                  searchType,
+                  value),
+              context.textUnit.get("id"),
+              TextSearchTrigram.Field.SOURCE,
               searchType,
               value);
       case TARGET ->
-          searchTypePredicate(
+          withTrigramPrefilter(
               cb,
-              context.variant.get("content"),
-              context.variant.get("contentMD5"),
+              searchTypePredicate(
+                  cb,
+                  context.variant.get("content"),
+                  context.variant.get("contentMD5"),
+                  searchType,
+                  value),
+              context.variant.get("id"),
+              TextSearchTrigram.Field.TARGET,
               searchType,
               value);
       case COMMENT ->
@@ -470,6 +563,31 @@ public class TextUnitSearcher {
     };
   }
 
+  /**
+   * Restricts a text search to the candidates of the trigram index, if it is selective. Entities
+   * that are not indexed yet are always kept, the text search predicate does the exact match.
+   */
+  private Predicate withTrigramPrefilter(
+      CriteriaBuilder cb,
+      Predicate textSearchPredicate,
+      Expression<Long> idColumn,
+      TextSearchTrigram.Field field,
+      SearchType searchType,
+      String value) {
+    return textUnitTrigramIndexService
+        .getCandidates(field, searchType, value)
+        .map(
+            candidates -> {
+              Predicate notIndexedYet = cb.greaterThan(idColumn, candidates.lastIndexedId());
+              Predicate candidatesPredicate =
+                  candidates.entityIds().isEmpty()
+                      ? notIndexedYet
+                      : cb.or(idColumn.in(candidates.entityIds()), notIndexedYet);
+              return cb.and(textSearchPredicate, candidatesPredicate);
+            })
+        .orElse(textSearchPredicate);
+  }
+
   private Predicate textUnitIdSearchPredicate(
       CriteriaBuilder cb, JpaExpression<Long> idColumn, SearchType searchType, String value) {
     SearchType effectiveSearchType = searchType == null ? SearchType.EXACT : searchType;
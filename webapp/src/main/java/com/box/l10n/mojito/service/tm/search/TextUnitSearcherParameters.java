@@ -25,6 +25,7 @@ public class TextUnitSearcherParameters {
   List<Long> repositoryIds;
   List<String> repositoryNames;
   List<Long> tmTextUnitIds;
+  Long tmTextUnitIdGreaterThan;
   List<String> localeTags;
   Long localeId;
   UsedFilter usedFilter;
@@ -326,6 +327,18 @@ public class TextUnitSearcherParameters {
     }
   }
 
+  public Long getTmTextUnitIdGreaterThan() {
+    return tmTextUnitIdGreaterThan;
+  }
+
+  /**
+   * Only returns text units with an id greater than the given one, to page through the text units
+   * ordered by id without an offset.
+   */
+  public void setTmTextUnitIdGreaterThan(Long tmTextUnitIdGreaterThan) {
+    this.tmTextUnitIdGreaterThan = tmTextUnitIdGreaterThan;
+  }
+
   public Long getTmTextUnitVariantId() {
     return tmTextUnitVariantId;
   }
@@ -0,0 +1,20 @@
+package com.box.l10n.mojito.service.tm.search;
+
+import com.box.l10n.mojito.entity.TMTextUnitVariant;
+
+/**
+ * Number of text units with a given source that are translated with a given target, see {@link
+ * TextUnitSearcher#countTargetsBySources}.
+ *
+ * @param source the source, as passed to the search
+ * @param minTmTextUnitId smallest id of the counted text units
+ * @param maxTmTextUnitId biggest id of the counted text units
+ */
+public record TextUnitTargetCount(
+    String source,
+    String localeTag,
+    String target,
+    TMTextUnitVariant.Status status,
+    long count,
+    Long minTmTextUnitId,
+    Long maxTmTextUnitId) {}
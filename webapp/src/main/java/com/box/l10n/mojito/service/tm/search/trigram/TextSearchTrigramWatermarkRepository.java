@@ -0,0 +1,21 @@
+package com.box.l10n.mojito.service.tm.search.trigram;
+
+import com.box.l10n.mojito.entity.TextSearchTrigram;
+import com.box.l10n.mojito.entity.TextSearchTrigramWatermark;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+@RepositoryRestResource(exported = false)
+public interface TextSearchTrigramWatermarkRepository
+    extends JpaRepository<TextSearchTrigramWatermark, Long> {
+
+  Optional<TextSearchTrigramWatermark> findByField(TextSearchTrigram.Field field);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select w from TextSearchTrigramWatermark w where w.field = ?1")
+  Optional<TextSearchTrigramWatermark> findForUpdateByField(TextSearchTrigram.Field field);
+}
@@ -0,0 +1,47 @@
+package com.box.l10n.mojito.service.tm.search.trigram;
+
+import com.box.l10n.mojito.entity.TextSearchTrigram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically adds the new text units and variants to the trigram index, up to the current max id
+ * of each field.
+ *
+ * <p>Ids of transactions that are not committed yet are recorded as gaps by {@link
+ * TextUnitTrigramIndexService#indexNextBatch(TextSearchTrigram.Field, long)} and indexed by a later
+ * run, so no lag is needed before indexing new ids.
+ */
+@Component
+@ConditionalOnProperty(value = "l10n.textUnitSearcher.trigramIndex.enabled", havingValue = "true")
+public class TextUnitTrigramIndexJob {
+
+  static Logger logger = LoggerFactory.getLogger(TextUnitTrigramIndexJob.class);
+
+  @Autowired TextUnitTrigramIndexService textUnitTrigramIndexService;
+
+  @Value("${l10n.textUnitSearcher.trigramIndex.maxBatchesPerRun:100}")
+  int maxBatchesPerRun = 100;
+
+  @Scheduled(fixedDelayString = "${l10n.textUnitSearcher.trigramIndex.fixedDelayMillis:60000}")
+  public void indexNewEntities() {
+    for (TextSearchTrigram.Field field : TextSearchTrigram.Field.values()) {
+      try {
+        long maxEntityId = textUnitTrigramIndexService.getMaxEntityId(field);
+
+        int batches = 0;
+        while (batches < maxBatchesPerRun
+            && textUnitTrigramIndexService.indexNextBatch(field, maxEntityId) > 0) {
+          batches++;
+        }
+      } catch (Exception e) {
+        logger.warn("Can't update the trigram index for field: " + field, e);
+      }
+    }
+  }
+}
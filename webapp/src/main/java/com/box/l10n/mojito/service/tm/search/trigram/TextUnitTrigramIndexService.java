@@ -0,0 +1,380 @@
+package com.box.l10n.mojito.service.tm.search.trigram;
+
+import com.box.l10n.mojito.entity.TextSearchTrigram;
+import com.box.l10n.mojito.entity.TextSearchTrigramWatermark;
+import com.box.l10n.mojito.service.tm.search.SearchType;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains and queries a trigram index on the source, name and target of the text units.
+ *
+ * <p>{@code CONTAINS}, {@code ILIKE} and {@code REGEX} searches can't use regular database indexes.
+ * This index gives the ids of the entities that contain all the trigrams a match requires, which is
+ * used by {@link com.box.l10n.mojito.service.tm.search.TextUnitSearcher} to restrict the rows the
+ * database has to check. The exact match is still verified in SQL.
+ *
+ * <p>Text units and variants are never modified once created, so the index is append only: entities
+ * are indexed in id order and a watermark per field records up to which id the index is complete.
+ * Entities created after the last indexing run are always kept as candidates.
+ *
+ * <p>Ids are allocated before transactions commit, so an entity can become visible after the
+ * watermark passed its id. The ids below the watermark without an entity are recorded as gaps,
+ * which are kept as candidates and indexed once the entity shows up. Gaps of rolled back
+ * transactions are never filled, they are removed after a retention much longer than any
+ * transaction.
+ */
+@Service
+public class TextUnitTrigramIndexService {
+
+  static Logger logger = LoggerFactory.getLogger(TextUnitTrigramIndexService.class);
+
+  static final String CANDIDATES_METRIC = "TextUnitTrigramIndexService.candidates";
+
+  @Autowired JdbcTemplate jdbcTemplate;
+
+  @Autowired TextSearchTrigramWatermarkRepository textSearchTrigramWatermarkRepository;
+
+  @Autowired MeterRegistry meterRegistry;
+
+  @Value("${l10n.textUnitSearcher.trigramIndex.enabled:false}")
+  boolean enabled;
+
+  /** Above this number of candidates, the prefilter is not selective enough and is not used */
+  @Value("${l10n.textUnitSearcher.trigramIndex.maxCandidates:5000}")
+  int maxCandidates = 5000;
+
+  /**
+   * Trigrams contained in more entities than this are too common to be worth intersecting, they are
+   * left out of the candidate query so that it never aggregates their full posting lists
+   */
+  @Value("${l10n.textUnitSearcher.trigramIndex.maxPostings:50000}")
+  int maxPostings = 50000;
+
+  /** Max number of trigrams looked up for a search value, long values are sampled */
+  @Value("${l10n.textUnitSearcher.trigramIndex.maxQueryTrigrams:16}")
+  int maxQueryTrigrams = 16;
+
+  @Value("${l10n.textUnitSearcher.trigramIndex.batchSize:5000}")
+  int batchSize = 5000;
+
+  /** Gaps still without an entity after this are from rolled back transactions */
+  @Value("${l10n.textUnitSearcher.trigramIndex.gapRetention:P7D}")
+  Duration gapRetention = Duration.ofDays(7);
+
+  /**
+   * Gets the candidates for a text search on a field.
+   *
+   * @return the candidates or empty if the search can't be prefiltered: index disabled or not built
+   *     yet, search type not supported, value without trigrams, only common trigrams or too many
+   *     candidates
+   */
+  public Optional<TrigramCandidates> getCandidates(
+      TextSearchTrigram.Field field, SearchType searchType, String value) {
+
+    if (!enabled || searchType == null || value == null) {
+      return Optional.empty();
+    }
+
+    List<Integer> trigramHashes = sample(getQueryTrigramHashes(searchType, value));
+    if (trigramHashes.isEmpty()) {
+      return Optional.empty();
+    }
+
+    long lastIndexedId = getLastIndexedId(field);
+    if (lastIndexedId == 0) {
+      return Optional.empty();
+    }
+
+    // leaving out trigrams still gives a superset of the matches, the search verifies the text
+    List<Integer> selectiveTrigramHashes =
+        trigramHashes.stream()
+            .filter(trigramHash -> !hasMorePostingsThan(field, trigramHash, maxPostings))
+            .toList();
+
+    if (selectiveTrigramHashes.isEmpty()) {
+      meterRegistry
+          .counter(CANDIDATES_METRIC, "field", field.name(), "result", "commonTrigrams")
+          .increment();
+      logger.debug("Only common trigrams for field: {}, don't prefilter", field);
+      return Optional.empty();
+    }
+
+    // gaps are read first: a gap filled concurrently then has its postings committed already
+    List<Long> entityIds = new ArrayList<>(getGapEntityIds(field, maxCandidates + 1));
+    if (entityIds.size() <= maxCandidates) {
+      entityIds.addAll(getEntityIdsWithAllTrigrams(field, selectiveTrigramHashes));
+    }
+
+    boolean selective = entityIds.size() <= maxCandidates;
+    meterRegistry
+        .counter(CANDIDATES_METRIC, "field", field.name(), "result", selective ? "used" : "tooMany")
+        .increment();
+
+    if (!selective) {
+      logger.debug("Too many candidates for field: {}, don't prefilter", field);
+      return Optional.empty();
+    }
+
+    return Optional.of(new TrigramCandidates(entityIds, lastIndexedId));
+  }
+
+  /**
+   * Checks if a trigram is contained in more than a number of entities, without counting all its
+   * postings.
+   */
+  boolean hasMorePostingsThan(TextSearchTrigram.Field field, int trigramHash, int limit) {
+    Long count =
+        jdbcTemplate.queryForObject(
+            "select count(*) from (select entity_id from text_search_trigram"
+                + " where field = ? and trigram_hash = ? limit "
+                + (limit + 1)
+                + ") postings",
+            Long.class,
+            field.name(),
+            trigramHash);
+    return count != null && count > limit;
+  }
+
+  /**
+   * Gets the ids of the entities that contain all the trigrams, up to one more than {@link
+   * #maxCandidates}.
+   */
+  List<Long> getEntityIdsWithAllTrigrams(
+      TextSearchTrigram.Field field, List<Integer> trigramHashes) {
+    String sql =
+        "select entity_id from text_search_trigram where field = ? and trigram_hash in ("
+            + String.join(",", Collections.nCopies(trigramHashes.size(), "?"))
+            + ") group by entity_id having count(*) = ? limit "
+            + (maxCandidates + 1);
+
+    List<Object> args = new ArrayList<>();
+    args.add(field.name());
+    args.addAll(trigramHashes);
+    args.add(trigramHashes.size());
+
+    return jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+  }
+
+  /** Gets the ids below the watermark that were not indexed yet, up to a limit. */
+  List<Long> getGapEntityIds(TextSearchTrigram.Field field, int limit) {
+    return jdbcTemplate.queryForList(
+        "select entity_id from text_search_trigram_gap where field = ? limit " + limit,
+        Long.class,
+        field.name());
+  }
+
+  Set<Integer> getQueryTrigramHashes(SearchType searchType, String value) {
+    return switch (searchType) {
+      case CONTAINS -> Trigrams.getTrigramHashesForContains(value);
+      case ILIKE -> Trigrams.getTrigramHashesForLike(value);
+      case REGEX -> Trigrams.getTrigramHashesForRegex(value);
+      case EXACT -> Set.of();
+    };
+  }
+
+  /** Keeps at most {@link #maxQueryTrigrams}, evenly spread over the value. */
+  List<Integer> sample(Set<Integer> trigramHashes) {
+    List<Integer> all = new ArrayList<>(trigramHashes);
+    if (all.size() <= maxQueryTrigrams) {
+      return all;
+    }
+
+    List<Integer> sampled = new ArrayList<>();
+    for (int i = 0; i < maxQueryTrigrams; i++) {
+      sampled.add(all.get((int) ((long) i * all.size() / maxQueryTrigrams)));
+    }
+    return sampled;
+  }
+
+  public long getLastIndexedId(TextSearchTrigram.Field field) {
+    return textSearchTrigramWatermarkRepository
+        .findByField(field)
+        .map(TextSearchTrigramWatermark::getLastIndexedId)
+        .orElse(0L);
+  }
+
+  /** Gets the current max id of the entities indexed for a field. */
+  public long getMaxEntityId(TextSearchTrigram.Field field) {
+    Long maxId =
+        jdbcTemplate.queryForObject("select max(id) from " + getTableName(field), Long.class);
+    return maxId == null ? 0 : maxId;
+  }
+
+  /**
+   * Indexes the next batch of entities of a field: the gaps whose entity is now visible, then the
+   * entities after the watermark and up to a max id. The ids passed without an entity are recorded
+   * as gaps. The watermark row is locked so that concurrent runs are serialized.
+   *
+   * @param field the field to index
+   * @param maxEntityId only entities with an id lower or equal are indexed
+   * @return the number of entities indexed
+   */
+  @Transactional
+  public int indexNextBatch(TextSearchTrigram.Field field, long maxEntityId) {
+    TextSearchTrigramWatermark watermark =
+        textSearchTrigramWatermarkRepository
+            .findForUpdateByField(field)
+            .orElseGet(() -> createWatermark(field));
+
+    int filledGaps = fillGaps(field);
+    deleteExpiredGaps(field, Instant.now().minus(gapRetention));
+
+    if (watermark.getLastIndexedId() >= maxEntityId) {
+      return filledGaps;
+    }
+
+    List<EntityText> entityTexts =
+        jdbcTemplate.query(
+            "select id, "
+                + getColumnName(field)
+                + " from "
+                + getTableName(field)
+                + " where id > ? and id <= ? order by id limit "
+                + batchSize,
+            (rs, rowNum) -> new EntityText(rs.getLong(1), rs.getString(2)),
+            watermark.getLastIndexedId(),
+            maxEntityId);
+
+    int postings = insertPostings(field, entityTexts);
+
+    long lastIndexedId = entityTexts.size() < batchSize ? maxEntityId : entityTexts.getLast().id();
+    List<Long> gapIds = getGapIds(watermark.getLastIndexedId(), lastIndexedId, entityTexts);
+
+    if (!gapIds.isEmpty()) {
+      jdbcTemplate.batchUpdate(
+          "insert into text_search_trigram_gap (field, entity_id, created_date) values (?, ?, ?)",
+          gapIds.stream()
+              .map(gapId -> new Object[] {field.name(), gapId, Timestamp.from(Instant.now())})
+              .toList());
+    }
+
+    logger.debug(
+        "Indexed {} entities ({} postings, {} gaps) for field: {}, watermark: {}",
+        entityTexts.size(),
+        postings,
+        gapIds.size(),
+        field,
+        lastIndexedId);
+
+    watermark.setLastIndexedId(lastIndexedId);
+    textSearchTrigramWatermarkRepository.save(watermark);
+
+    return filledGaps + entityTexts.size();
+  }
+
+  /**
+   * Indexes the entities of gaps that are now visible and removes the gaps.
+   *
+   * @return the number of entities indexed
+   */
+  int fillGaps(TextSearchTrigram.Field field) {
+    List<EntityText> entityTexts =
+        jdbcTemplate.query(
+            "select e.id, e."
+                + getColumnName(field)
+                + " from text_search_trigram_gap g join "
+                + getTableName(field)
+                + " e on e.id = g.entity_id where g.field = ? order by e.id limit "
+                + batchSize,
+            (rs, rowNum) -> new EntityText(rs.getLong(1), rs.getString(2)),
+            field.name());
+
+    if (entityTexts.isEmpty()) {
+      return 0;
+    }
+
+    insertPostings(field, entityTexts);
+    jdbcTemplate.batchUpdate(
+        "delete from text_search_trigram_gap where field = ? and entity_id = ?",
+        entityTexts.stream()
+            .map(entityText -> new Object[] {field.name(), entityText.id()})
+            .toList());
+
+    logger.debug("Indexed {} entities from gaps for field: {}", entityTexts.size(), field);
+    return entityTexts.size();
+  }
+
+  void deleteExpiredGaps(TextSearchTrigram.Field field, Instant createdBefore) {
+    int deleted =
+        jdbcTemplate.update(
+            "delete from text_search_trigram_gap where field = ? and created_date < ?",
+            field.name(),
+            Timestamp.from(createdBefore));
+    if (deleted > 0) {
+      logger.debug("Deleted {} expired gaps for field: {}", deleted, field);
+    }
+  }
+
+  /**
+   * @return the number of postings inserted
+   */
+  int insertPostings(TextSearchTrigram.Field field, List<EntityText> entityTexts) {
+    List<Object[]> postings = new ArrayList<>();
+    for (EntityText entityText : entityTexts) {
+      for (Integer trigramHash : Trigrams.getTrigramHashes(entityText.text())) {
+        postings.add(new Object[] {field.name(), trigramHash, entityText.id()});
+      }
+    }
+
+    if (!postings.isEmpty()) {
+      jdbcTemplate.batchUpdate(
+          "insert into text_search_trigram (field, trigram_hash, entity_id) values (?, ?, ?)",
+          postings);
+    }
+    return postings.size();
+  }
+
+  /** Gets the ids after the previous watermark and up to the new one that have no entity. */
+  List<Long> getGapIds(
+      long previousLastIndexedId, long lastIndexedId, List<EntityText> entityTexts) {
+    Set<Long> entityIds = new HashSet<>();
+    entityTexts.forEach(entityText -> entityIds.add(entityText.id()));
+
+    List<Long> gapIds = new ArrayList<>();
+    for (long id = previousLastIndexedId + 1; id <= lastIndexedId; id++) {
+      if (!entityIds.contains(id)) {
+        gapIds.add(id);
+      }
+    }
+    return gapIds;
+  }
+
+  TextSearchTrigramWatermark createWatermark(TextSearchTrigram.Field field) {
+    TextSearchTrigramWatermark watermark = new TextSearchTrigramWatermark();
+    watermark.setField(field);
+    watermark.setLastIndexedId(0);
+    return textSearchTrigramWatermarkRepository.saveAndFlush(watermark);
+  }
+
+  String getTableName(TextSearchTrigram.Field field) {
+    return switch (field) {
+      case SOURCE, NAME -> "tm_text_unit";
+      case TARGET -> "tm_text_unit_variant";
+    };
+  }
+
+  String getColumnName(TextSearchTrigram.Field field) {
+    return switch (field) {
+      case SOURCE, TARGET -> "content";
+      case NAME -> "name";
+    };
+  }
+
+  record EntityText(long id, String text) {}
+}
@@ -0,0 +1,15 @@
+package com.box.l10n.mojito.service.tm.search.trigram;
+
+import java.util.List;
+
+/**
+ * Candidates for a text search found with the trigram index.
+ *
+ * <p>A matching entity is either in {@link #entityIds()} or was not indexed yet, ie. its id is
+ * greater than {@link #lastIndexedId()} or it is a gap.
+ *
+ * @param entityIds ids of the indexed entities that contain all the trigrams of the search, and of
+ *     the gaps below {@link #lastIndexedId()} that are not indexed yet
+ * @param lastIndexedId all entities with an id lower or equal to this are indexed or are gaps
+ */
+public record TrigramCandidates(List<Long> entityIds, long lastIndexedId) {}
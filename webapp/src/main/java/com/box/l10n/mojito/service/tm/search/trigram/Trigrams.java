@@ -0,0 +1,232 @@
+package com.box.l10n.mojito.service.tm.search.trigram;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes the trigrams used by the text search index.
+ *
+ * <p>Text is folded code point by code point (lower case and diacritics removed) so that the index
+ * stays a superset of what case and accent insensitive collations match. Folding is context free:
+ * the trigrams of a substring are always a subset of the trigrams of the text.
+ *
+ * <p>Query trigrams are only extracted from the parts of a search value that must appear literally
+ * in a match. If no such part has 3 code points or more, there are no trigrams and the search can't
+ * be prefiltered.
+ */
+public class Trigrams {
+
+  static final int TRIGRAM_LENGTH = 3;
+
+  private Trigrams() {}
+
+  /**
+   * Gets the hashes of all the trigrams of a text, as stored in the index.
+   *
+   * @param text the text to index
+   * @return the distinct trigram hashes
+   */
+  public static Set<Integer> getTrigramHashes(String text) {
+    Set<Integer> trigramHashes = new LinkedHashSet<>();
+    if (text != null) {
+      addTrigramHashes(trigramHashes, text);
+    }
+    return trigramHashes;
+  }
+
+  /**
+   * Trigram hashes that a text must contain to match a "contains" search. The search is done with a
+   * LIKE where only {@code %} and {@code _} are escaped, so a {@code \} in the value still escapes
+   * the next character.
+   */
+  public static Set<Integer> getTrigramHashesForContains(String value) {
+    if (value == null) {
+      return new LinkedHashSet<>();
+    }
+    return getTrigramHashesForLike(value.replace("%", "\\%").replace("_", "\\_"));
+  }
+
+  /**
+   * Trigram hashes that a text must contain to match a LIKE pattern ({@code %} and {@code _}
+   * wildcards, {@code \} as escape character).
+   */
+  public static Set<Integer> getTrigramHashesForLike(String pattern) {
+    Set<Integer> trigramHashes = new LinkedHashSet<>();
+    if (pattern == null) {
+      return trigramHashes;
+    }
+
+    StringBuilder literal = new StringBuilder();
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c == '\\' && i + 1 < pattern.length()) {
+        literal.append(pattern.charAt(++i));
+      } else if (c == '%' || c == '_') {
+        addTrigramHashes(trigramHashes, literal.toString());
+        literal.setLength(0);
+      } else {
+        literal.append(c);
+      }
+    }
+    addTrigramHashes(trigramHashes, literal.toString());
+    return trigramHashes;
+  }
+
+  /**
+   * Trigram hashes that a text must contain to match a regular expression.
+   *
+   * <p>This is conservative: patterns with alternations give no trigrams, only literal runs outside
+   * groups and character classes are used and a literal followed by an optional quantifier is
+   * excluded from its run.
+   */
+  public static Set<Integer> getTrigramHashesForRegex(String regex) {
+    Set<Integer> trigramHashes = new LinkedHashSet<>();
+    if (regex == null || regex.indexOf('|') >= 0) {
+      return trigramHashes;
+    }
+
+    for (String literal : getRequiredRegexLiterals(regex)) {
+      addTrigramHashes(trigramHashes, literal);
+    }
+    return trigramHashes;
+  }
+
+  static List<String> getRequiredRegexLiterals(String regex) {
+    List<String> literals = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    int groupDepth = 0;
+    int characterClassDepth = 0;
+
+    for (int i = 0; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      Character literalChar = null;
+
+      if (c == '\\') {
+        if (i + 1 < regex.length()) {
+          char escaped = regex.charAt(++i);
+          if (Character.isLetterOrDigit(escaped)) {
+            i = skipEscapeArguments(regex, i);
+          } else {
+            literalChar = escaped;
+          }
+        }
+      } else if (c == '[') {
+        characterClassDepth++;
+        i = skipCharacterClassStart(regex, i);
+      } else if (characterClassDepth > 0) {
+        if (c == ']') {
+          characterClassDepth--;
+        }
+      } else if (c == '(') {
+        groupDepth++;
+      } else if (c == ')') {
+        groupDepth--;
+      } else if (c == '{') {
+        i = skipQuantifierBody(regex, i);
+      } else if (".^$]}*+?".indexOf(c) < 0) {
+        literalChar = c;
+      }
+
+      if (literalChar == null || characterClassDepth > 0 || groupDepth > 0) {
+        endLiteral(literals, literal);
+        continue;
+      }
+
+      char next = i + 1 < regex.length() ? regex.charAt(i + 1) : 0;
+      if (next == '?' || next == '*' || next == '{') {
+        endLiteral(literals, literal);
+      } else {
+        literal.append(literalChar);
+        if (next == '+') {
+          endLiteral(literals, literal);
+        }
+      }
+    }
+
+    endLiteral(literals, literal);
+    return literals;
+  }
+
+  /**
+   * Skips the arguments of an escape sequence like {@code \p{Latin}}, {@code \x41} or {@code \12}
+   * so that they are not mistaken for literals.
+   *
+   * @return the index of the last character of the escape sequence
+   */
+  static int skipEscapeArguments(String regex, int escapeLetterIndex) {
+    int i = escapeLetterIndex;
+    if (i + 1 < regex.length() && regex.charAt(i + 1) == '{') {
+      int closingBrace = regex.indexOf('}', i + 1);
+      return closingBrace < 0 ? regex.length() - 1 : closingBrace;
+    }
+    while (i + 1 < regex.length() && Character.isLetterOrDigit(regex.charAt(i + 1))) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Skips the body of a {@code {n}}, {@code {n,}} or {@code {n,m}} quantifier so that its bounds are
+   * not mistaken for literals.
+   *
+   * @return the index of the closing brace
+   */
+  static int skipQuantifierBody(String regex, int openingBraceIndex) {
+    int closingBrace = regex.indexOf('}', openingBraceIndex);
+    return closingBrace < 0 ? regex.length() - 1 : closingBrace;
+  }
+
+  /**
+   * Skips the negation and a leading {@code ]} of a character class, which are not special there.
+   *
+   * @return the index of the last character skipped
+   */
+  static int skipCharacterClassStart(String regex, int openingBracketIndex) {
+    int i = openingBracketIndex;
+    if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+      i++;
+    }
+    if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+      i++;
+    }
+    return i;
+  }
+
+  static void endLiteral(List<String> literals, StringBuilder literal) {
+    if (literal.length() > 0) {
+      literals.add(literal.toString());
+      literal.setLength(0);
+    }
+  }
+
+  static void addTrigramHashes(Set<Integer> trigramHashes, String text) {
+    int[] codePoints = fold(text).codePoints().toArray();
+    for (int i = 0; i + TRIGRAM_LENGTH <= codePoints.length; i++) {
+      trigramHashes.add(new String(codePoints, i, TRIGRAM_LENGTH).hashCode());
+    }
+  }
+
+  /**
+   * Folds a text code point by code point: lower case, canonical decomposition and removal of the
+   * combining marks.
+   */
+  static String fold(String text) {
+    StringBuilder folded = new StringBuilder(text.length());
+    text.codePoints()
+        .forEach(
+            codePoint -> {
+              String decomposed =
+                  Normalizer.normalize(
+                      new String(Character.toChars(Character.toLowerCase(codePoint))),
+                      Normalizer.Form.NFD);
+              decomposed
+                  .codePoints()
+                  .filter(c -> Character.getType(c) != Character.NON_SPACING_MARK)
+                  .forEach(folded::appendCodePoint);
+            });
+    return folded.toString();
+  }
+}
@@ -0,0 +1,16 @@
+create table text_search_trigram (
+    id bigint not null auto_increment,
+    field varchar(16) not null,
+    trigram_hash int not null,
+    entity_id bigint not null,
+    primary key (id),
+    constraint UK__TEXT_SEARCH_TRIGRAM__FIELD__HASH__ENTITY_ID unique (field, trigram_hash, entity_id)
+);
+
+create table text_search_trigram_watermark (
+    id bigint not null auto_increment,
+    field varchar(16) not null,
+    last_indexed_id bigint not null default 0,
+    primary key (id),
+    constraint UK__TEXT_SEARCH_TRIGRAM_WATERMARK__FIELD unique (field)
+);
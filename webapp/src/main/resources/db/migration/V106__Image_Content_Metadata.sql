@@ -0,0 +1,3 @@
+alter table image add column content_sha256 varchar(64);
+alter table image add column content_type varchar(255);
+alter table image add column content_length bigint;
@@ -0,0 +1,23 @@
+create table slack_notification (
+    id bigint(20) NOT NULL AUTO_INCREMENT,
+    created_date datetime DEFAULT NULL,
+    last_modified_date datetime DEFAULT NULL,
+    slack_client_id varchar(255) not null,
+    slack_channel_id varchar(64) not null,
+    thread_ts varchar(64) DEFAULT NULL,
+    review_project_request_id bigint(20) DEFAULT NULL,
+    text longtext not null,
+    idempotency_key varchar(64) not null,
+    status varchar(16) not null,
+    attempts int not null default 0,
+    next_attempt_date datetime not null,
+    last_error varchar(1024) DEFAULT NULL,
+    message_ts varchar(64) DEFAULT NULL,
+    primary key (id)
+);
+
+create index I__SLACK_NOTIFICATION__STATUS__NEXT_ATTEMPT_DATE
+    on slack_notification(status, next_attempt_date);
+
+create index I__SLACK_NOTIFICATION__IDEMPOTENCY_KEY
+    on slack_notification(idempotency_key);
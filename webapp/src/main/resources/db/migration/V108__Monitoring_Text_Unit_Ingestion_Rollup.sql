@@ -0,0 +1,33 @@
+CREATE TABLE monitoring_text_unit_ingestion_rollup (
+    id bigint(20) NOT NULL AUTO_INCREMENT,
+    created_date datetime DEFAULT NULL,
+    last_modified_date datetime DEFAULT NULL,
+    period_type varchar(16) NOT NULL,
+    period_start date NOT NULL,
+    repository_id bigint(20) NOT NULL,
+    string_count bigint(20) NOT NULL,
+    word_count bigint(20) NOT NULL,
+    computed_at datetime NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE monitoring_text_unit_ingestion_rollup
+    ADD CONSTRAINT UK__MTUIR__PERIOD_TYPE__PERIOD_START__REPOSITORY__ID UNIQUE (period_type, period_start, repository_id);
+ALTER TABLE monitoring_text_unit_ingestion_rollup
+    ADD CONSTRAINT FK__MTUIR__REPOSITORY__ID FOREIGN KEY (repository_id) REFERENCES repository (id);
+
+CREATE INDEX I__MTUIR__REPOSITORY__ID ON monitoring_text_unit_ingestion_rollup (repository_id);
+
+INSERT INTO monitoring_text_unit_ingestion_rollup
+    (created_date, last_modified_date, period_type, period_start, repository_id, string_count, word_count, computed_at)
+SELECT NOW(), NOW(), 'MONTH', DATE_SUB(day_utc, INTERVAL DAYOFMONTH(day_utc) - 1 DAY), repository_id,
+       SUM(string_count), SUM(word_count), MAX(computed_at)
+FROM monitoring_text_unit_ingestion_daily
+GROUP BY DATE_SUB(day_utc, INTERVAL DAYOFMONTH(day_utc) - 1 DAY), repository_id;
+
+INSERT INTO monitoring_text_unit_ingestion_rollup
+    (created_date, last_modified_date, period_type, period_start, repository_id, string_count, word_count, computed_at)
+SELECT NOW(), NOW(), 'YEAR', MAKEDATE(YEAR(day_utc), 1), repository_id,
+       SUM(string_count), SUM(word_count), MAX(computed_at)
+FROM monitoring_text_unit_ingestion_daily
+GROUP BY MAKEDATE(YEAR(day_utc), 1), repository_id;
@@ -0,0 +1 @@
+alter table slack_notification add column translation_incident_id bigint(20) DEFAULT NULL;
@@ -0,0 +1,8 @@
+create table text_search_trigram_gap (
+    id bigint not null auto_increment,
+    field varchar(16) not null,
+    entity_id bigint not null,
+    created_date datetime not null,
+    primary key (id),
+    constraint UK__TEXT_SEARCH_TRIGRAM_GAP__FIELD__ENTITY_ID unique (field, entity_id)
+);
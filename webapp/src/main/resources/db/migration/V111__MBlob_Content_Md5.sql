@@ -0,0 +1 @@
+alter table mblob add column content_md5 char(32) default null;
@@ -4,12 +4,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.Mockito.when;
 
-import com.box.l10n.mojito.json.ObjectMapper;
-import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
 import com.box.l10n.mojito.service.glossary.GlossaryImportExportService;
 import com.box.l10n.mojito.service.glossary.GlossaryManagementService;
 import com.box.l10n.mojito.service.glossary.GlossaryTermIndexCurationService;
 import com.box.l10n.mojito.service.glossary.GlossaryTermService;
+import com.box.l10n.mojito.service.hybrid.HybridQueryEngine;
 import com.box.l10n.mojito.service.oaitranslate.GlossaryService;
 import com.box.l10n.mojito.service.security.user.UserService;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -31,8 +30,7 @@ public class GlossaryWSTest {
   @Mock GlossaryTermService glossaryTermService;
   @Mock GlossaryTermIndexCurationService glossaryTermIndexCurationService;
   @Mock GlossaryService glossaryService;
-  @Mock StructuredBlobStorage structuredBlobStorage;
-  @Mock ObjectMapper objectMapper;
+  @Mock HybridQueryEngine hybridQueryEngine;
   @Mock TermIndexEntriesHybridProperties termIndexEntriesHybridProperties;
   @Mock AsyncTaskExecutor termIndexEntriesHybridExecutor;
   @Mock UserService userService;
@@ -50,8 +48,7 @@ public class GlossaryWSTest {
             glossaryTermService,
             glossaryTermIndexCurationService,
             glossaryService,
-            structuredBlobStorage,
-            objectMapper,
+            hybridQueryEngine,
             termIndexEntriesHybridProperties,
             termIndexEntriesHybridExecutor,
             userService,
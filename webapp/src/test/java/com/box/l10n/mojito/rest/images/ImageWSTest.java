@@ -1,9 +1,13 @@
 package com.box.l10n.mojito.rest.images;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import com.box.l10n.mojito.service.image.ImageMetadata;
+import java.util.Optional;
 import org.junit.Test;
-import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 /**
  * @author jeanaurambault
@@ -11,56 +15,50 @@ import org.springframework.http.MediaType;
 public class ImageWSTest {
 
   @Test
-  public void testGetMediaTypeFromImageNameNoExtension() {
-    String imageName = "noextension";
+  public void testGetFilenameAddsPdfExtension() {
     ImageWS instance = new ImageWS();
-    MediaType expResult = MediaType.APPLICATION_OCTET_STREAM;
-    MediaType result = instance.getMediaTypeFromImageName(imageName);
-    assertEquals(expResult, result);
+    assertEquals("document.pdf", instance.getFilename("dir/document", "application/pdf"));
+    assertEquals("document.pdf", instance.getFilename("dir/document.pdf", "application/pdf"));
+    assertEquals("image1.png", instance.getFilename("dir/image1.png", "image/png"));
   }
 
   @Test
-  public void testGetMediaTypeFromImageNamePng() {
-    String imageName = "image1.png";
+  public void testGetETag() {
     ImageWS instance = new ImageWS();
-    MediaType expResult = MediaType.IMAGE_PNG;
-    MediaType result = instance.getMediaTypeFromImageName(imageName);
-    assertEquals(expResult, result);
+    ImageMetadata imageMetadata = new ImageMetadata("image1.png", "sha", "image/png", 10, null);
+    assertEquals("\"sha\"", instance.getETag(imageMetadata, Optional.empty()));
+    assertEquals("\"sha-256\"", instance.getETag(imageMetadata, Optional.of(256)));
   }
 
   @Test
-  public void testGetMediaTypeFromImageNamePngUpper() {
-    String imageName = "image1.PNG";
+  public void testIsIfRangeNotMatching() {
     ImageWS instance = new ImageWS();
-    MediaType expResult = MediaType.IMAGE_PNG;
-    MediaType result = instance.getMediaTypeFromImageName(imageName);
-    assertEquals(expResult, result);
-  }
+    String eTag = "\"sha\"";
+    long lastModified = 1_700_000_000_000L;
 
-  @Test
-  public void testGetMediaTypeFromImageNameJpg() {
-    String imageName = "image1.jpg";
-    ImageWS instance = new ImageWS();
-    MediaType expResult = MediaType.IMAGE_JPEG;
-    MediaType result = instance.getMediaTypeFromImageName(imageName);
-    assertEquals(expResult, result);
-  }
+    MockHttpServletRequest noIfRange = new MockHttpServletRequest();
+    noIfRange.addHeader("Range", "bytes=0-10");
+    assertFalse(instance.isIfRangeNotMatching(noIfRange, eTag, lastModified));
 
-  @Test
-  public void testGetMediaTypeFromImageNameJpeg() {
-    String imageName = "image1.jpeg";
-    ImageWS instance = new ImageWS();
-    MediaType expResult = MediaType.IMAGE_JPEG;
-    MediaType result = instance.getMediaTypeFromImageName(imageName);
-    assertEquals(expResult, result);
+    MockHttpServletRequest noRange = new MockHttpServletRequest();
+    noRange.addHeader("If-Range", "\"other\"");
+    assertFalse(instance.isIfRangeNotMatching(noRange, eTag, lastModified));
+
+    assertFalse(instance.isIfRangeNotMatching(rangeRequest(eTag), eTag, lastModified));
+    assertTrue(instance.isIfRangeNotMatching(rangeRequest("\"other\""), eTag, lastModified));
+    assertTrue(instance.isIfRangeNotMatching(rangeRequest("W/\"sha\""), eTag, lastModified));
+    assertFalse(
+        instance.isIfRangeNotMatching(
+            rangeRequest("Tue, 14 Nov 2023 22:13:20 GMT"), eTag, lastModified));
+    assertTrue(
+        instance.isIfRangeNotMatching(
+            rangeRequest("Wed, 15 Nov 2023 22:13:20 GMT"), eTag, lastModified));
   }
 
-  @Test
-  public void testGetMediaTypeFromImageNameGif() {
-    String imageName = "image1.gif";
-    ImageWS instance = new ImageWS();
-    MediaType expResult = MediaType.IMAGE_GIF;
-    MediaType result = instance.getMediaTypeFromImageName(imageName);
-    assertEquals(expResult, result);
+  MockHttpServletRequest rangeRequest(String ifRange) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader("Range", "bytes=0-10");
+    request.addHeader("If-Range", ifRange);
+    return request;
   }
 }
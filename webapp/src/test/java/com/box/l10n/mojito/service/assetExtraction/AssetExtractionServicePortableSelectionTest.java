@@ -189,7 +189,8 @@ public class AssetExtractionServicePortableSelectionTest {
 
     AssetExtractionService assetExtractionService = new AssetExtractionService();
     assetExtractionService.portableConverter = true;
-    assetExtractionService.assetExtractor = assetExtractor;
+    assetExtractionService.assetExtractorTextUnitsCache = new AssetExtractorTextUnitsCache();
+    assetExtractionService.assetExtractorTextUnitsCache.assetExtractor = assetExtractor;
 
     assertEquals(
         List.of(),
@@ -204,7 +205,8 @@ public class AssetExtractionServicePortableSelectionTest {
     AssetExtractor assetExtractor = mock(AssetExtractor.class);
     AssetExtractionService assetExtractionService = new AssetExtractionService();
     assetExtractionService.portableConverter = true;
-    assetExtractionService.assetExtractor = assetExtractor;
+    assetExtractionService.assetExtractorTextUnitsCache = new AssetExtractorTextUnitsCache();
+    assetExtractionService.assetExtractorTextUnitsCache.assetExtractor = assetExtractor;
     assetExtractionService.objectMapper = new ObjectMapper();
 
     AssetExtractorTextUnit extracted = textUnit("Stored", "Already extracted", "Stored comment");
@@ -0,0 +1,125 @@
+package com.box.l10n.mojito.service.assetExtraction;
+
+import static com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage.Prefix.ASSET_EXTRACTION_CACHE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.box.l10n.mojito.json.ObjectMapper;
+import com.box.l10n.mojito.okapi.extractor.AssetExtractor;
+import com.box.l10n.mojito.okapi.extractor.AssetExtractorTextUnit;
+import com.box.l10n.mojito.service.blobstorage.Retention;
+import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AssetExtractorTextUnitsCacheTest {
+
+  AssetExtractorTextUnitsCache assetExtractorTextUnitsCache = new AssetExtractorTextUnitsCache();
+
+  AssetExtractor assetExtractor = mock(AssetExtractor.class);
+
+  StructuredBlobStorage structuredBlobStorage = mock(StructuredBlobStorage.class);
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  Map<String, byte[]> blobs = new HashMap<>();
+
+  @Before
+  public void setUp() throws Exception {
+    assetExtractorTextUnitsCache.assetExtractor = assetExtractor;
+    assetExtractorTextUnitsCache.structuredBlobStorage = structuredBlobStorage;
+    assetExtractorTextUnitsCache.meterRegistry = meterRegistry;
+    assetExtractorTextUnitsCache.objectMapper = ObjectMapper.withSmileEnabled();
+    assetExtractorTextUnitsCache.enabled = true;
+
+    when(assetExtractor.getFilterConfigId(any(), any())).thenReturn("okf_json");
+    when(structuredBlobStorage.getBytes(eq(ASSET_EXTRACTION_CACHE), anyString()))
+        .thenAnswer(invocation -> Optional.ofNullable(blobs.get(invocation.getArgument(1))));
+    doAnswer(invocation -> blobs.put(invocation.getArgument(1), invocation.getArgument(2)))
+        .when(structuredBlobStorage)
+        .putBytes(eq(ASSET_EXTRACTION_CACHE), anyString(), any(), eq(Retention.MIN_1_DAY));
+  }
+
+  @Test
+  public void testSameContentIsOnlyExtractedOnce() throws Exception {
+    AssetExtractorTextUnit textUnit = new AssetExtractorTextUnit();
+    textUnit.setName("name");
+    textUnit.setSource("source");
+    textUnit.setComments("comment");
+    textUnit.setUsages(Set.of("usage"));
+    when(assetExtractor.getAssetExtractorTextUnitsForAsset(any(), any(), any(), any()))
+        .thenReturn(List.of(textUnit));
+
+    assetExtractorTextUnitsCache.getAssetExtractorTextUnitsForAsset(
+        "branch1/en.json", "{}", null, List.of("option=1"));
+    List<AssetExtractorTextUnit> cached =
+        assetExtractorTextUnitsCache.getAssetExtractorTextUnitsForAsset(
+            "branch2/en.json", "{}", null, List.of("option=1"));
+
+    verify(assetExtractor, times(1)).getAssetExtractorTextUnitsForAsset(any(), any(), any(), any());
+    verify(assetExtractor)
+        .observePortableLocalizationShadow(
+            eq("branch2/en.json"), eq("{}"), isNull(), eq(List.of("option=1")), eq(cached));
+    assertEquals(1, cached.size());
+    assertEquals("name", cached.get(0).getName());
+    assertEquals("source", cached.get(0).getSource());
+    assertEquals("comment", cached.get(0).getComments());
+    assertEquals(Set.of("usage"), cached.get(0).getUsages());
+    assertEquals(
+        1.0,
+        meterRegistry
+            .counter(
+                AssetExtractorTextUnitsCache.CACHE_LOOKUP_METRIC,
+                "filterConfigId",
+                "okf_json",
+                "result",
+                "hit")
+            .count(),
+        0.0);
+  }
+
+  @Test
+  public void testNameDependsOnContentFilterOptionsAndVersion() {
+    String name = assetExtractorTextUnitsCache.getName("{}", "okf_json", List.of("option=1"));
+
+    assertNotEquals(
+        name, assetExtractorTextUnitsCache.getName("{ }", "okf_json", List.of("option=1")));
+    assertNotEquals(
+        name, assetExtractorTextUnitsCache.getName("{}", "okf_xml", List.of("option=1")));
+    assertNotEquals(
+        name, assetExtractorTextUnitsCache.getName("{}", "okf_json", List.of("option=2")));
+    assertNotEquals(name, assetExtractorTextUnitsCache.getName("{}", "okf_json", null));
+
+    assetExtractorTextUnitsCache.extractorVersion = "2";
+    assertNotEquals(
+        name, assetExtractorTextUnitsCache.getName("{}", "okf_json", List.of("option=1")));
+  }
+
+  @Test
+  public void testDisabledCacheDelegatesToExtractor() throws Exception {
+    assetExtractorTextUnitsCache.enabled = false;
+
+    assetExtractorTextUnitsCache.getAssetExtractorTextUnitsForAsset("en.json", "{}", null, null);
+    assetExtractorTextUnitsCache.getAssetExtractorTextUnitsForAsset("en.json", "{}", null, null);
+
+    verify(assetExtractor, times(2))
+        .getAssetExtractorTextUnitsForAsset("en.json", "{}", null, null);
+    verifyNoInteractions(structuredBlobStorage);
+  }
+}
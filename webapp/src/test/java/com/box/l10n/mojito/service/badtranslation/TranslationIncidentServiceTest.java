@@ -1,6 +1,7 @@
 package com.box.l10n.mojito.service.badtranslation;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -19,6 +20,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.web.server.ResponseStatusException;
 
 public class TranslationIncidentServiceTest {
 
@@ -159,7 +161,7 @@ public class TranslationIncidentServiceTest {
     incident.setSlackDraft("Please re-review this translation.");
     incident.setReviewProjectRequestId(301L);
     when(translationIncidentRepository.findById(93L)).thenReturn(Optional.of(incident));
-    when(badTranslationSlackService.sendMessage(any(), any()))
+    when(badTranslationSlackService.sendMessage(any(), any(), any()))
         .thenReturn(
             new BadTranslationSlackDispatch(
                 true,
@@ -177,6 +179,7 @@ public class TranslationIncidentServiceTest {
     verify(badTranslationSlackService)
         .sendMessage(
             any(BadTranslationSlackService.SlackContext.class),
+            Mockito.eq(93L),
             Mockito.eq("Please re-review this translation."));
     assertThat(detail.slackThreadTs()).isEqualTo("1744780000.1000");
     assertThat(detail.slackNote()).isEqualTo("Slack message posted to channel");
@@ -184,4 +187,55 @@ public class TranslationIncidentServiceTest {
     assertThat(incidentCaptor.getValue().getSlackNote())
         .isEqualTo("Slack message posted to channel");
   }
+
+  @Test
+  public void sendSlackDraftKeepsStoredThreadWhenQueuedForChannel() {
+    TranslationIncident incident = newSlackDraftIncident(94L);
+    incident.setSlackThreadTs("1744780000.1000");
+    when(translationIncidentRepository.findById(94L)).thenReturn(Optional.of(incident));
+    when(badTranslationSlackService.sendMessage(any(), any(), any()))
+        .thenReturn(
+            new BadTranslationSlackDispatch(
+                true, true, null, null, "Slack message queued for the channel"));
+
+    TranslationIncidentService.IncidentDetail detail =
+        translationIncidentService.sendSlackDraft(94L);
+
+    assertThat(detail.slackThreadTs()).isEqualTo("1744780000.1000");
+    assertThat(detail.slackNote()).isEqualTo("Slack message queued for the channel");
+  }
+
+  @Test
+  public void sendSlackDraftRejectsDuplicateMessage() {
+    TranslationIncident incident = newSlackDraftIncident(95L);
+    when(translationIncidentRepository.findById(95L)).thenReturn(Optional.of(incident));
+    when(badTranslationSlackService.sendMessage(any(), any(), any()))
+        .thenReturn(
+            new BadTranslationSlackDispatch(
+                true,
+                false,
+                null,
+                null,
+                "An identical Slack message was queued recently, it was not sent again"));
+
+    assertThatThrownBy(() -> translationIncidentService.sendSlackDraft(95L))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("An identical Slack message was queued recently");
+    assertThat(incident.getSlackNote())
+        .isEqualTo("An identical Slack message was queued recently, it was not sent again");
+  }
+
+  TranslationIncident newSlackDraftIncident(Long id) {
+    TranslationIncident incident = new TranslationIncident();
+    incident.setId(id);
+    incident.setStatus(TranslationIncidentStatus.OPEN);
+    incident.setResolution(TranslationIncidentResolution.READY_TO_REJECT);
+    incident.setSlackDestinationSource("TEAM_CHANNEL");
+    incident.setSlackClientId("ops");
+    incident.setSlackChannelId("C123");
+    incident.setSlackCanSend(true);
+    incident.setSlackDraft("Please re-review this translation.");
+    incident.setReviewProjectRequestId(301L);
+    return incident;
+  }
 }
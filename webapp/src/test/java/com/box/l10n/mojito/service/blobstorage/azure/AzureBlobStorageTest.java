@@ -4,7 +4,9 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,8 +16,13 @@ import com.azure.core.util.BinaryData;
 import com.azure.core.util.Context;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobDownloadContentResponse;
 import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRequestConditions;
 import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.DownloadRetryOptions;
 import com.azure.storage.blob.options.BlobParallelUploadOptions;
 import com.box.l10n.mojito.service.blobstorage.Retention;
 import io.micrometer.core.instrument.MockClock;
@@ -26,6 +33,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -221,6 +229,35 @@ public class AzureBlobStorageTest {
     verify(blobContainerClient).getBlobClient("prefix/name");
   }
 
+  @Test
+  public void testGetContentMd5SavesMissingMd5() {
+    byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+    BlobProperties blobProperties = mock(BlobProperties.class);
+    when(blobProperties.getETag()).thenReturn("etag-1");
+    when(blobProperties.getContentType()).thenReturn("image/png");
+    when(blobClient.getProperties()).thenReturn(blobProperties);
+    BlobDownloadContentResponse downloadResponse = mock(BlobDownloadContentResponse.class);
+    when(downloadResponse.getValue()).thenReturn(BinaryData.fromBytes(content));
+    when(blobClient.downloadContentWithResponse(
+            any(DownloadRetryOptions.class),
+            any(BlobRequestConditions.class),
+            isNull(),
+            eq(Context.NONE)))
+        .thenReturn(downloadResponse);
+
+    assertEquals(Optional.of(DigestUtils.md5Hex(content)), azureBlobStorage.getContentMd5("name"));
+
+    ArgumentCaptor<BlobHttpHeaders> headersCaptor = ArgumentCaptor.forClass(BlobHttpHeaders.class);
+    ArgumentCaptor<BlobRequestConditions> conditionsCaptor =
+        ArgumentCaptor.forClass(BlobRequestConditions.class);
+    verify(blobClient)
+        .setHttpHeadersWithResponse(
+            headersCaptor.capture(), conditionsCaptor.capture(), isNull(), eq(Context.NONE));
+    assertArrayEquals(DigestUtils.md5(content), headersCaptor.getValue().getContentMd5());
+    assertEquals("image/png", headersCaptor.getValue().getContentType());
+    assertEquals("etag-1", conditionsCaptor.getValue().getIfMatch());
+  }
+
   BlobStorageException blobNotFound() {
     BlobStorageException blobStorageException = mock(BlobStorageException.class);
     when(blobStorageException.getErrorCode()).thenReturn(BlobErrorCode.BLOB_NOT_FOUND);
@@ -14,6 +14,7 @@ import io.micrometer.core.instrument.MeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.util.UUID;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -115,6 +116,32 @@ public class DatabaseBlobStorageTest extends ServiceTestBase implements BlobStor
     assertThat(databaseBlobStorage.getStoredBlob("missing-" + UUID.randomUUID())).isEmpty();
   }
 
+  @Test
+  public void getContentMd5IsKeptWithTheBlob() {
+    String name = "md5-" + UUID.randomUUID();
+    byte[] content = "md5-content".getBytes(StandardCharsets.UTF_8);
+    databaseBlobStorage.put(name, content, Retention.PERMANENT);
+
+    assertThat(mBlobRepository.findByName(name).map(MBlob::getContentMd5))
+        .hasValue(DigestUtils.md5Hex(content));
+    assertThat(databaseBlobStorage.getContentMd5(name)).hasValue(DigestUtils.md5Hex(content));
+    assertThat(databaseBlobStorage.getContentMd5("missing-" + UUID.randomUUID())).isEmpty();
+  }
+
+  @Test
+  public void getContentMd5SavesMissingMd5() {
+    byte[] content = "legacy-content".getBytes(StandardCharsets.UTF_8);
+    MBlob legacy = new MBlob();
+    legacy.setName("legacy-" + UUID.randomUUID());
+    legacy.setContent(content);
+    legacy = mBlobRepository.save(legacy);
+
+    assertThat(databaseBlobStorage.getContentMd5(legacy.getName()))
+        .hasValue(DigestUtils.md5Hex(content));
+    assertThat(mBlobRepository.findContentMd5ById(legacy.getId()))
+        .isEqualTo(DigestUtils.md5Hex(content));
+  }
+
   @Test
   public void testCleanup() {
 
@@ -0,0 +1,108 @@
+package com.box.l10n.mojito.service.cache;
+
+import com.box.l10n.mojito.service.assetExtraction.ServiceTestBase;
+import com.box.l10n.mojito.service.machinetranslation.TranslationDTO;
+import com.box.l10n.mojito.service.machinetranslation.TranslationSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.junit.Assume;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the legacy per key lookups/synchronous puts with Java serialization against batch
+ * lookups, write-behind and Smile serialization.
+ *
+ * <p>The benchmark is opt-in: {@code -Dmojito.test.databaseCacheBenchmark=true}, the number of
+ * entries can be set with {@code -Dmojito.test.databaseCacheBenchmarkEntries}.
+ */
+public class DatabaseCacheBenchmarkTest extends ServiceTestBase {
+
+  static Logger logger = LoggerFactory.getLogger(DatabaseCacheBenchmarkTest.class);
+
+  @Test
+  public void databaseCacheBenchmarkLegacyAgainstBatchWriteBehindAndSmile() {
+    Assume.assumeTrue(
+        "Database cache benchmark is opt-in",
+        Boolean.getBoolean("mojito.test.databaseCacheBenchmark"));
+
+    int entryCount = Integer.getInteger("mojito.test.databaseCacheBenchmarkEntries", 2000);
+
+    List<String> keys = new ArrayList<>();
+    List<TranslationDTO> values = new ArrayList<>();
+    for (int i = 0; i < entryCount; i++) {
+      keys.add("benchmark-key-" + i);
+      TranslationDTO translationDTO = new TranslationDTO();
+      translationDTO.setText("benchmark translation " + i);
+      translationDTO.setBcp47Tag("fr-FR");
+      translationDTO.setTranslationSource(TranslationSource.NOOP);
+      values.add(translationDTO);
+    }
+
+    DatabaseCache legacyCache =
+        new DatabaseCache("databaseCacheBenchmarkLegacy", new DatabaseCacheConfiguration());
+    legacyCache.clear();
+
+    DatabaseCacheConfiguration optimizedConfiguration = new DatabaseCacheConfiguration();
+    optimizedConfiguration.setValueSerializationPair(new SmileSerializationPair());
+    optimizedConfiguration.setWriteBehindEnabled(true);
+    optimizedConfiguration.setWriteBehindFlushInterval(Duration.ofHours(1));
+    DatabaseCache optimizedCache =
+        new DatabaseCache("databaseCacheBenchmarkOptimized", optimizedConfiguration);
+    optimizedCache.clear();
+
+    long legacyPutNanos =
+        timeNanos(
+            () -> {
+              for (int i = 0; i < entryCount; i++) {
+                legacyCache.put(keys.get(i), values.get(i));
+              }
+            });
+
+    long optimizedPutNanos =
+        timeNanos(
+            () -> {
+              for (int i = 0; i < entryCount; i++) {
+                optimizedCache.put(keys.get(i), values.get(i));
+              }
+              optimizedCache.flushPendingWrites();
+            });
+
+    List<Object> legacyValues = new ArrayList<>();
+    long legacyLookupNanos =
+        timeNanos(
+            () -> {
+              for (String key : keys) {
+                legacyValues.add(legacyCache.lookup(key));
+              }
+            });
+
+    List<Map<Object, Object>> optimizedValues = new ArrayList<>();
+    long optimizedLookupNanos = timeNanos(() -> optimizedValues.add(optimizedCache.getAll(keys)));
+
+    Assertions.assertThat(legacyValues).hasSize(entryCount).doesNotContainNull();
+    Assertions.assertThat(optimizedValues.get(0)).hasSize(entryCount);
+
+    logger.info(
+        "Database cache benchmark, entries: {}, put legacy: {}ms, put write-behind+smile: {}ms,"
+            + " lookup legacy: {}ms, getAll+smile: {}ms",
+        entryCount,
+        legacyPutNanos / 1_000_000,
+        optimizedPutNanos / 1_000_000,
+        legacyLookupNanos / 1_000_000,
+        optimizedLookupNanos / 1_000_000);
+
+    legacyCache.clear();
+    optimizedCache.clear();
+  }
+
+  long timeNanos(Runnable runnable) {
+    long start = System.nanoTime();
+    runnable.run();
+    return System.nanoTime() - start;
+  }
+}
@@ -10,6 +10,7 @@ import java.io.Serializable;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.junit.Assume;
 import org.junit.Before;
@@ -167,6 +168,73 @@ public class DatabaseCacheTest extends ServiceTestBase {
     waitForCondition("wait for TTL expiry to take effect", () -> databaseCache.lookup(KEY) == null);
   }
 
+  @Transactional
+  @Test
+  public void testGetAllWorksCorrectly() {
+    TestKey testKey = new TestKey();
+    TestValue testValue = new TestValue();
+
+    databaseCache.put(KEY, VALUE);
+    databaseCache.put(KEY2, null);
+    databaseCache.put(testKey, testValue);
+
+    Map<Object, Object> values = databaseCache.getAll(List.of(KEY, KEY2, testKey, "missing"));
+
+    Assertions.assertEquals(2, values.size());
+    Assertions.assertEquals(VALUE, values.get(KEY));
+    Assertions.assertFalse(values.containsKey(KEY2));
+    Assertions.assertEquals(testValue, values.get(testKey));
+    Assertions.assertFalse(values.containsKey("missing"));
+  }
+
+  @Transactional
+  @Test
+  public void testWriteBehindWorksCorrectly() {
+    databaseCacheConfiguration.setWriteBehindEnabled(true);
+    databaseCacheConfiguration.setWriteBehindFlushInterval(Duration.ofHours(1));
+    DatabaseCache databaseCacheWithWriteBehind =
+        new DatabaseCache("databaseCacheWithWriteBehind", databaseCacheConfiguration);
+    databaseCacheWithWriteBehind.clear();
+
+    databaseCacheWithWriteBehind.put(KEY, VALUE);
+    databaseCacheWithWriteBehind.put(KEY, VALUE2);
+    databaseCacheWithWriteBehind.put(KEY2, VALUE);
+
+    // pending writes are visible before they are flushed
+    Assertions.assertEquals(VALUE2, databaseCacheWithWriteBehind.lookup(KEY));
+    Assertions.assertEquals(
+        Map.of(KEY, VALUE2, KEY2, VALUE), databaseCacheWithWriteBehind.getAll(List.of(KEY, KEY2)));
+
+    databaseCacheWithWriteBehind.flushPendingWrites();
+
+    DatabaseCache databaseCacheReader =
+        new DatabaseCache("databaseCacheWithWriteBehind", new DatabaseCacheConfiguration());
+    Assertions.assertEquals(VALUE2, databaseCacheReader.lookup(KEY));
+    Assertions.assertEquals(VALUE, databaseCacheReader.lookup(KEY2));
+
+    databaseCacheWithWriteBehind.put(KEY2, VALUE2);
+    databaseCacheWithWriteBehind.evict(KEY2);
+    databaseCacheWithWriteBehind.flushPendingWrites();
+    Assertions.assertNull(databaseCacheReader.lookup(KEY2));
+  }
+
+  @Transactional
+  @Test
+  public void testSmileSerializationWorksCorrectly() {
+    databaseCacheConfiguration.setValueSerializationPair(new SmileSerializationPair());
+    DatabaseCache databaseCacheWithSmile =
+        new DatabaseCache("databaseCacheWithSmile", databaseCacheConfiguration);
+
+    TestKey testKey = new TestKey();
+    TestValue testValue = new TestValue();
+
+    databaseCacheWithSmile.put(testKey, testValue);
+    databaseCacheWithSmile.put(KEY, null);
+
+    Assertions.assertEquals(testValue, databaseCacheWithSmile.lookup(testKey));
+    Assertions.assertNull(databaseCacheWithSmile.get(KEY).get());
+  }
+
   @Transactional
   private void putKeyValue(
       DatabaseCache databaseCacheWithAggressiveEviction, String key, String value) {
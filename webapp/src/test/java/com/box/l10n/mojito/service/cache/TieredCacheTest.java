@@ -1,5 +1,7 @@
 package com.box.l10n.mojito.service.cache;
 
+import java.util.List;
+import java.util.Map;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
@@ -121,4 +123,21 @@ public class TieredCacheTest {
     ConcurrentMapCache t2Cache = new ConcurrentMapCache("t2");
     new TieredCache(TEST_CACHE_NAME, null, t2Cache);
   }
+
+  @Test
+  public void getAllPopulatesTier1FromTier2() {
+    ConcurrentMapCache t1Cache = new ConcurrentMapCache("t1");
+    ConcurrentMapCache t2Cache = new ConcurrentMapCache("t2");
+
+    TieredCache tieredCache = new TieredCache(TEST_CACHE_NAME, t1Cache, t2Cache);
+
+    t1Cache.put(KEY, VALUE);
+    t2Cache.put(KEY2, VALUE2);
+
+    Map<Object, Object> values = tieredCache.getAll(List.of(KEY, KEY2, "missing"));
+
+    Assertions.assertEquals(Map.of(KEY, VALUE, KEY2, VALUE2), values);
+    Assertions.assertEquals(VALUE2, t1Cache.get(KEY2).get());
+    Assertions.assertNull(t1Cache.get("missing"));
+  }
 }
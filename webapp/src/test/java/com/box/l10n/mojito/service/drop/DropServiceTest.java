@@ -52,7 +52,9 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Rule;
@@ -150,6 +152,41 @@ public class DropServiceTest extends ServiceTestBase {
     forceCompleteDrop(drop.getId());
   }
 
+  @Test
+  public void exportTranslationKitsForAllLocalesInParallel() throws Exception {
+
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+
+    Repository repository = tmTestData.repository;
+
+    List<String> bcp47Tags = new ArrayList<>();
+    bcp47Tags.add("fr-FR");
+    bcp47Tags.add("ko-KR");
+    bcp47Tags.add("ja-JP");
+
+    ExportDropConfig exportDropConfig = new ExportDropConfig();
+    exportDropConfig.setRepositoryId(repository.getId());
+    exportDropConfig.setBcp47Tags(bcp47Tags);
+
+    PollableFuture<Drop> startExportProcess =
+        dropService.startDropExportProcess(exportDropConfig, PollableTask.INJECT_CURRENT_TASK);
+    pollableTaskService.waitForPollableTask(startExportProcess.getPollableTask().getId(), 600000L);
+
+    Drop drop = dropRepository.findById(startExportProcess.get().getId()).orElse(null);
+    assertNotNull(drop);
+    assertTrue(drop.getExportFailed() == null || !drop.getExportFailed());
+
+    Set<Long> expectedLocaleIds =
+        bcp47Tags.stream()
+            .map(bcp47Tag -> localeService.findByBcp47Tag(bcp47Tag).getId())
+            .collect(Collectors.toSet());
+    Set<Long> exportedLocaleIds =
+        translationKitRepository.findByDropId(drop.getId()).stream()
+            .map(translationKit -> translationKit.getLocale().getId())
+            .collect(Collectors.toSet());
+    assertEquals(expectedLocaleIds, exportedLocaleIds);
+  }
+
   @Transactional
   public void forceCompleteDrop(Long dropId) {
     Drop drop = dropRepository.findById(dropId).orElse(null);
@@ -132,4 +132,24 @@ public class GitBlameServiceTest extends ServiceTestBase {
         gitBlameService.getGitBlameWithUsagesByTmTextUnitId(gitBlameWithUsages).keySet();
     assertEquals(Sets.newHashSet(1L, 2L, 3L), gitBlameWithUsagesByTmTextUnitId);
   }
+
+  @Test
+  public void testHasSameBlameInformation() {
+    GitBlame gitBlame = new GitBlame();
+    gitBlame.setAuthorName("author-name");
+    gitBlame.setAuthorEmail("author-email");
+    gitBlame.setCommitName("commit-name");
+    gitBlame.setCommitTime("commit-time");
+
+    GitBlame other = new GitBlame();
+    other.setAuthorName("author-name");
+    other.setAuthorEmail("author-email");
+    other.setCommitName("commit-name");
+    other.setCommitTime("commit-time");
+    Assert.assertTrue(GitBlameService.hasSameBlameInformation(gitBlame, other));
+
+    other.setCommitName("other-commit-name");
+    Assert.assertFalse(GitBlameService.hasSameBlameInformation(gitBlame, other));
+    Assert.assertFalse(GitBlameService.hasSameBlameInformation(new GitBlame(), gitBlame));
+  }
 }
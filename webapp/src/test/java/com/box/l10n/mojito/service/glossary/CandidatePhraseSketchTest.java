@@ -0,0 +1,100 @@
+package com.box.l10n.mojito.service.glossary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.Test;
+
+public class CandidatePhraseSketchTest {
+
+  @Test
+  public void countsPhrasesWithinCapacity() {
+    CandidatePhraseSketch sketch = new CandidatePhraseSketch(10);
+    sketch.add("new chat", "New Chat", "repo1", "Start a New Chat");
+    sketch.add("new chat", "new chat", "repo2", "New Chat");
+    sketch.add("inbox", "Inbox", "repo1", "Open Inbox");
+
+    List<CandidatePhraseSketch.Entry> entries = sketch.getEntries();
+    assertThat(entries).hasSize(2);
+    assertThat(entries.get(0).term()).isEqualTo("New Chat");
+    assertThat(entries.get(0).count()).isEqualTo(2);
+    assertThat(entries.get(0).guaranteedCount()).isEqualTo(2);
+    assertThat(entries.get(0).repositories()).containsExactly("repo1", "repo2");
+    assertThat(entries.get(0).sampleSources()).containsExactly("Start a New Chat", "New Chat");
+  }
+
+  @Test
+  public void evictsLowestCountWhenFull() {
+    CandidatePhraseSketch sketch = new CandidatePhraseSketch(2);
+    sketch.add("a", "a", "repo", null);
+    sketch.add("a", "a", "repo", null);
+    sketch.add("b", "b", "repo", null);
+    sketch.add("c", "c", "repo", null);
+
+    List<CandidatePhraseSketch.Entry> entries = sketch.getEntries();
+    assertThat(entries)
+        .extracting(CandidatePhraseSketch.Entry::key)
+        .containsExactlyInAnyOrder("a", "c");
+    CandidatePhraseSketch.Entry c =
+        entries.stream().filter(entry -> entry.key().equals("c")).findFirst().orElseThrow();
+    assertThat(c.count()).isEqualTo(2);
+    assertThat(c.error()).isEqualTo(1);
+    assertThat(c.guaranteedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void keepsHeavyHittersOfLongStream() {
+    CandidatePhraseSketch sketch = new CandidatePhraseSketch(50);
+    for (int i = 0; i < 10_000; i++) {
+      sketch.add("frequent", "Frequent", "repo", null);
+      sketch.add("rare" + i, "Rare" + i, "repo", null);
+    }
+
+    assertThat(sketch.size()).isEqualTo(50);
+    CandidatePhraseSketch.Entry first = sketch.getEntries().get(0);
+    assertThat(first.key()).isEqualTo("frequent");
+    assertThat(first.guaranteedCount()).isGreaterThanOrEqualTo(10_000 - 20_000 / 50);
+  }
+
+  @Test
+  public void limitsSampleSources() {
+    CandidatePhraseSketch sketch = new CandidatePhraseSketch(10);
+    for (int i = 0; i < 5; i++) {
+      sketch.add("inbox", "Inbox", "repo", "Inbox " + i);
+    }
+    sketch.add("inbox", "Inbox", "repo", "Inbox 0");
+
+    assertThat(sketch.getEntries().get(0).sampleSources())
+        .hasSize(CandidatePhraseSketch.MAX_SAMPLE_SOURCES);
+  }
+
+  @Test
+  public void mergesRepositorySketches() {
+    CandidatePhraseSketch repo1 = new CandidatePhraseSketch(10);
+    repo1.add("inbox", "Inbox", "repo1", "Inbox");
+    repo1.add("inbox", "Inbox", "repo1", "Inbox");
+    CandidatePhraseSketch repo2 = new CandidatePhraseSketch(10);
+    repo2.add("inbox", "inbox", "repo2", "inbox");
+
+    CandidatePhraseSketch sketch = new CandidatePhraseSketch(10);
+    sketch.addAll(repo1);
+    sketch.addAll(repo2);
+
+    CandidatePhraseSketch.Entry entry = sketch.getEntries().get(0);
+    assertThat(entry.term()).isEqualTo("Inbox");
+    assertThat(entry.count()).isEqualTo(3);
+    assertThat(entry.repositories()).containsExactly("repo1", "repo2");
+  }
+
+  @Test
+  public void fromEntriesRestoresSketch() {
+    CandidatePhraseSketch sketch = new CandidatePhraseSketch(2);
+    sketch.add("a", "a", "repo", "a");
+    sketch.add("b", "b", "repo", "b");
+    sketch.add("c", "c", "repo", "c");
+
+    CandidatePhraseSketch restored = CandidatePhraseSketch.fromEntries(2, sketch.getEntries());
+
+    assertThat(restored.getEntries()).containsExactlyInAnyOrderElementsOf(sketch.getEntries());
+  }
+}
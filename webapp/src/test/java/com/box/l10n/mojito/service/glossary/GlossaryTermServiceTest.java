@@ -1,16 +1,21 @@
 package com.box.l10n.mojito.service.glossary;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import com.box.l10n.mojito.entity.Asset;
 import com.box.l10n.mojito.entity.Locale;
+import com.box.l10n.mojito.entity.PollableTask;
 import com.box.l10n.mojito.entity.Repository;
 import com.box.l10n.mojito.entity.TMTextUnit;
 import com.box.l10n.mojito.entity.glossary.Glossary;
@@ -18,7 +23,9 @@ import com.box.l10n.mojito.entity.glossary.GlossaryTermIndexLink;
 import com.box.l10n.mojito.entity.glossary.GlossaryTermMetadata;
 import com.box.l10n.mojito.entity.glossary.termindex.TermIndexCandidate;
 import com.box.l10n.mojito.entity.glossary.termindex.TermIndexExtractedTerm;
+import com.box.l10n.mojito.json.ObjectMapper;
 import com.box.l10n.mojito.service.asset.VirtualAssetService;
+import com.box.l10n.mojito.service.asset.VirtualAssetTextUnit;
 import com.box.l10n.mojito.service.asset.VirtualTextUnitBatchUpdaterService;
 import com.box.l10n.mojito.service.locale.LocaleService;
 import com.box.l10n.mojito.service.pollableTask.PollableTaskBlobStorage;
@@ -27,12 +34,18 @@ import com.box.l10n.mojito.service.tm.TMTextUnitRepository;
 import com.box.l10n.mojito.service.tm.importer.TextUnitBatchImporterService;
 import com.box.l10n.mojito.service.tm.search.TextUnitDTO;
 import com.box.l10n.mojito.service.tm.search.TextUnitSearcher;
+import com.box.l10n.mojito.service.tm.search.TextUnitSearcherParameters;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -240,6 +253,286 @@ public class GlossaryTermServiceTest {
         .containsExactly("Billing");
   }
 
+  @Test
+  public void bulkUpsertTermsAppliesSourcesAndTranslationsInSingleBatches() throws Exception {
+    Glossary glossary = glossary(1L, "en");
+    Asset asset = asset(2L, glossary.getBackingRepository());
+    TextUnitDTO newChat = sourceTextUnit(3L, "new_chat", "New chat");
+    TextUnitDTO archive = sourceTextUnit(4L, "archive", "Archive");
+    TMTextUnit newChatTmTextUnit = new TMTextUnit();
+    newChatTmTextUnit.setId(newChat.getTmTextUnitId());
+    TMTextUnit archiveTmTextUnit = new TMTextUnit();
+    archiveTmTextUnit.setId(archive.getTmTextUnitId());
+    AtomicLong nextId = new AtomicLong(100L);
+
+    when(userService.isCurrentUserAdminOrPm()).thenReturn(true);
+    when(glossaryRepository.findByIdWithBindings(glossary.getId()))
+        .thenReturn(Optional.of(glossary));
+    when(glossaryStorageService.ensureCanonicalAsset(glossary)).thenReturn(asset);
+    when(textUnitSearcher.search(any()))
+        .thenReturn(List.of(), List.of(newChat, archive), List.of());
+    when(tmTextUnitRepository.findAllById(any()))
+        .thenReturn(List.of(newChatTmTextUnit, archiveTmTextUnit));
+    when(glossaryTermMetadataRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              List<GlossaryTermMetadata> metadata = invocation.getArgument(0);
+              metadata.forEach(item -> item.setId(nextId.getAndIncrement()));
+              return metadata;
+            });
+    when(termIndexCandidateRepository.save(any(TermIndexCandidate.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    List<GlossaryTermService.TermView> views =
+        glossaryTermService.bulkUpsertTerms(
+            glossary.getId(),
+            List.of(
+                new GlossaryTermService.BulkTermUpsert(
+                    null, termUpsertCommand("new_chat", "New chat", "Nouvelle discussion")),
+                new GlossaryTermService.BulkTermUpsert(
+                    null, termUpsertCommand("archive", "Archive", "Archiver"))));
+
+    ArgumentCaptor<List<VirtualAssetTextUnit>> virtualAssetTextUnits =
+        ArgumentCaptor.forClass(List.class);
+    verify(virtualTextUnitBatchUpdaterService)
+        .updateTextUnits(eq(asset), virtualAssetTextUnits.capture(), eq(false));
+    assertThat(virtualAssetTextUnits.getValue())
+        .extracting(VirtualAssetTextUnit::getName)
+        .containsExactly("new_chat", "archive");
+    verify(glossaryStorageService).ensureLocale(glossary, "fr");
+    ArgumentCaptor<List<TextUnitBatchImporterService.TextUnitDTOWithVariantComment>> imports =
+        ArgumentCaptor.forClass(List.class);
+    verify(textUnitBatchImporterService)
+        .importTextUnitsWithVariantComment(
+            imports.capture(),
+            eq(
+                TextUnitBatchImporterService.IntegrityChecksType
+                    .ALWAYS_USE_INTEGRITY_CHECKER_STATUS),
+            eq(TextUnitBatchImporterService.ImportMode.ALWAYS_IMPORT));
+    assertThat(imports.getValue())
+        .extracting(item -> item.textUnitDTO().getName() + ":" + item.textUnitDTO().getTarget())
+        .containsExactly("new_chat:Nouvelle discussion", "archive:Archiver");
+    verify(glossaryTermEvidenceRepository).deleteByGlossaryTermMetadataIdIn(List.of(100L, 101L));
+    assertThat(views)
+        .extracting(GlossaryTermService.TermView::metadataId, GlossaryTermService.TermView::termKey)
+        .containsExactly(tuple(100L, "new_chat"), tuple(101L, "archive"));
+  }
+
+  @Test
+  public void bulkUpsertTermsRejectsDuplicateTermKeyWithTermIndex() {
+    Glossary glossary = glossary(1L, "en");
+    Asset asset = asset(2L, glossary.getBackingRepository());
+
+    when(userService.isCurrentUserAdminOrPm()).thenReturn(true);
+    when(glossaryRepository.findByIdWithBindings(glossary.getId()))
+        .thenReturn(Optional.of(glossary));
+    when(glossaryStorageService.ensureCanonicalAsset(glossary)).thenReturn(asset);
+
+    assertThatThrownBy(
+            () ->
+                glossaryTermService.bulkUpsertTerms(
+                    glossary.getId(),
+                    List.of(
+                        new GlossaryTermService.BulkTermUpsert(
+                            null, termUpsertCommand("new_chat", "New chat", null)),
+                        new GlossaryTermService.BulkTermUpsert(
+                            null, termUpsertCommand("new_chat", "New Chat", null)))))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("terms[1]: Glossary term key is used more than once: new_chat");
+    verifyNoInteractions(virtualTextUnitBatchUpdaterService, textUnitBatchImporterService);
+  }
+
+  @Test
+  public void resumeExtractCandidatesFromPageCheckpointMatchesUninterruptedRun() {
+    // the first 10 pages of repository "a" are checkpointed, fails on the 11th
+    assertResumedExtractionMatchesUninterruptedRun(20L, 10_000);
+  }
+
+  @Test
+  public void resumeExtractCandidatesFromRepositoryCheckpointMatchesUninterruptedRun() {
+    // repository "a" is checkpointed when completed, fails on the first page of repository "b"
+    assertResumedExtractionMatchesUninterruptedRun(21L, 0);
+  }
+
+  private void assertResumedExtractionMatchesUninterruptedRun(
+      Long failingRepositoryId, int failingOffset) {
+    Glossary glossary = glossary(1L, "en");
+    Map<Long, Integer> repositorySizes = Map.of(20L, 10_500, 21L, 1_200);
+    Map<String, String> taskBlobs = storeTaskBlobsInMemory();
+    AtomicReference<Integer> failOnOffset = new AtomicReference<>();
+
+    when(userService.isCurrentUserAdminOrPm()).thenReturn(true);
+    when(glossaryRepository.findByIdWithBindings(glossary.getId()))
+        .thenReturn(Optional.of(glossary));
+    when(glossaryStorageService.ensureCanonicalAsset(glossary))
+        .thenReturn(asset(2L, glossary.getBackingRepository()));
+    when(repositoryRepository.findByIdInAndDeletedFalseAndHiddenFalseOrderByNameAsc(
+            List.of(20L, 21L)))
+        .thenReturn(List.of(repository(20L, "a"), repository(21L, "b")));
+    when(textUnitSearcher.search(any()))
+        .thenAnswer(
+            invocation -> {
+              TextUnitSearcherParameters parameters = invocation.getArgument(0);
+              if (parameters.getAssetId() != null) {
+                return List.of();
+              }
+              assertThat(parameters.getOffset()).isNull();
+              Long repositoryId = parameters.getRepositoryIds().get(0);
+              int offset = repositoryPageOffset(repositoryId, parameters);
+              if (failOnOffset.get() != null
+                  && repositoryId.equals(failingRepositoryId)
+                  && offset == failOnOffset.get()) {
+                throw new IllegalStateException("Search failed");
+              }
+              return repositoryPage(
+                  repositoryId,
+                  offset,
+                  Math.min(parameters.getLimit(), repositorySizes.get(repositoryId) - offset));
+            });
+
+    GlossaryTermService.ExtractionCommand command =
+        new GlossaryTermService.ExtractionCommand(List.of(20L, 21L), 20, 2, null);
+
+    glossaryTermService.extractCandidatesAsync(glossary.getId(), command, pollableTask(100L));
+    String uninterruptedOutput = taskBlobs.get("100-output");
+
+    failOnOffset.set(failingOffset);
+    assertThatThrownBy(
+            () ->
+                glossaryTermService.extractCandidatesAsync(
+                    glossary.getId(), command, pollableTask(200L)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Search failed");
+    assertThat(taskBlobs).doesNotContainKey("200-output");
+    GlossaryTermService.ExtractionCheckpoint checkpoint =
+        new ObjectMapper()
+            .readValueUnchecked(
+                taskBlobs.get("200-checkpoint"), GlossaryTermService.ExtractionCheckpoint.class);
+    assertThat(checkpoint.scannedTextUnitCount())
+        .isEqualTo(failingRepositoryId.equals(20L) ? failingOffset : 10_500);
+
+    failOnOffset.set(null);
+    glossaryTermService.resumeExtractCandidatesAsync(glossary.getId(), 200L, pollableTask(300L));
+
+    GlossaryTermService.ExtractionView uninterrupted =
+        new ObjectMapper()
+            .readValueUnchecked(uninterruptedOutput, GlossaryTermService.ExtractionView.class);
+    GlossaryTermService.ExtractionView resumed =
+        new ObjectMapper()
+            .readValueUnchecked(
+                taskBlobs.get("300-output"), GlossaryTermService.ExtractionView.class);
+    assertThat(uninterrupted.candidates()).isNotEmpty();
+    assertThat(resumed.candidates()).isEqualTo(uninterrupted.candidates());
+  }
+
+  /** Input, checkpoint and output blobs of pollable tasks, serialized as the storage does. */
+  private Map<String, String> storeTaskBlobsInMemory() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    Map<String, String> taskBlobs = new HashMap<>();
+    lenient()
+        .doAnswer(
+            invocation ->
+                taskBlobs.put(
+                    invocation.getArgument(0) + "-input",
+                    objectMapper.writeValueAsStringUnchecked(invocation.getArgument(1))))
+        .when(pollableTaskBlobStorage)
+        .saveInput(anyLong(), any());
+    lenient()
+        .doAnswer(
+            invocation ->
+                taskBlobs.put(
+                    invocation.getArgument(0) + "-checkpoint",
+                    objectMapper.writeValueAsStringUnchecked(invocation.getArgument(1))))
+        .when(pollableTaskBlobStorage)
+        .saveCheckpoint(anyLong(), any());
+    lenient()
+        .doAnswer(
+            invocation ->
+                taskBlobs.put(
+                    invocation.getArgument(0) + "-output",
+                    objectMapper.writeValueAsStringUnchecked(invocation.getArgument(1))))
+        .when(pollableTaskBlobStorage)
+        .saveOutput(anyLong(), any());
+    lenient()
+        .when(pollableTaskBlobStorage.getInput(anyLong(), any()))
+        .thenAnswer(
+            invocation ->
+                objectMapper.readValueUnchecked(
+                    taskBlobs.get(invocation.getArgument(0) + "-input"),
+                    (Class<?>) invocation.getArgument(1)));
+    lenient()
+        .when(pollableTaskBlobStorage.findCheckpoint(anyLong(), any()))
+        .thenAnswer(
+            invocation ->
+                Optional.ofNullable(taskBlobs.get(invocation.getArgument(0) + "-checkpoint"))
+                    .map(
+                        json ->
+                            objectMapper.readValueUnchecked(
+                                json, (Class<?>) invocation.getArgument(1))));
+    return taskBlobs;
+  }
+
+  /** Offset of the page requested by text unit id, see {@link #repositoryPage} for the ids */
+  private int repositoryPageOffset(Long repositoryId, TextUnitSearcherParameters parameters) {
+    Long tmTextUnitIdGreaterThan = parameters.getTmTextUnitIdGreaterThan();
+    return tmTextUnitIdGreaterThan == null
+        ? 0
+        : (int) (tmTextUnitIdGreaterThan - repositoryId * 100_000 + 1);
+  }
+
+  private List<TextUnitDTO> repositoryPage(Long repositoryId, int offset, int size) {
+    List<String> sources =
+        List.of(
+            "Open the Team Workspace",
+            "Share with Smart Folders",
+            "Invite people to the Team Workspace",
+            repositoryId.equals(20L) ? "Upload to Photo Library" : "Manage the Billing Account",
+            "Turn on Smart Folders in Admin Console");
+    List<TextUnitDTO> page = new ArrayList<>();
+    for (int i = offset; i < offset + size; i++) {
+      page.add(
+          sourceTextUnit(
+              repositoryId * 100_000 + i, "text-unit-" + i, sources.get(i % sources.size())));
+    }
+    return page;
+  }
+
+  private Repository repository(Long id, String name) {
+    Repository repository = new Repository();
+    repository.setId(id);
+    repository.setName(name);
+    return repository;
+  }
+
+  private PollableTask pollableTask(Long id) {
+    PollableTask pollableTask = new PollableTask();
+    pollableTask.setId(id);
+    return pollableTask;
+  }
+
+  private GlossaryTermService.TermUpsertCommand termUpsertCommand(
+      String termKey, String source, String frenchTarget) {
+    return new GlossaryTermService.TermUpsertCommand(
+        termKey,
+        source,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        frenchTarget == null
+            ? null
+            : List.of(new GlossaryTermService.TranslationInput("fr", frenchTarget, null)),
+        null);
+  }
+
   private Glossary glossary(Long id, String sourceLocaleTag) {
     Locale sourceLocale = new Locale();
     sourceLocale.setBcp47Tag(sourceLocaleTag);
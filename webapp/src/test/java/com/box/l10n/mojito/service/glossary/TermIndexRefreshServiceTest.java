@@ -38,6 +38,7 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
@@ -82,7 +83,9 @@ public class TermIndexRefreshServiceTest {
             termIndexRefreshRunEntryRepository,
             transactionTemplate(),
             quartzPollableTaskScheduler,
-            new TermIndexJobObservability(meterRegistry));
+            new TermIndexJobObservability(meterRegistry),
+            new TaskExecutorAdapter(Runnable::run),
+            new TaskExecutorAdapter(Runnable::run));
 
     when(termIndexRefreshRunRepository.save(any(TermIndexRefreshRun.class)))
         .thenAnswer(
@@ -475,6 +478,49 @@ public class TermIndexRefreshServiceTest {
     assertThat(staleEntry.getRepositoryCount()).isZero();
   }
 
+  @Test
+  public void refreshLoadsNextBatchAfterLastTextUnitOfPreviousBatch() {
+    Repository repository = repository(5L, "product-web", "en");
+    TMTextUnit firstTextUnit = textUnit(100L, "Acme", repository);
+    TMTextUnit secondTextUnit = textUnit(101L, "Acme", repository);
+
+    when(repositoryRepository.findByIdInAndDeletedFalseAndHiddenFalseOrderByNameAsc(List.of(5L)))
+        .thenReturn(List.of(repository));
+    when(repositoryRepository.findById(5L)).thenReturn(Optional.of(repository));
+    when(tmTextUnitRepository.findUsedTextUnitsForTermIndexRefresh(
+            eq(5L), eq(null), eq(0L), any(Pageable.class)))
+        .thenReturn(List.of(firstTextUnit));
+    when(tmTextUnitRepository.findUsedTextUnitsForTermIndexRefresh(
+            eq(5L), eq(firstTextUnit.getCreatedDate()), eq(100L), any(Pageable.class)))
+        .thenReturn(List.of(secondTextUnit));
+    when(tmTextUnitRepository.findUsedTextUnitsForTermIndexRefresh(
+            eq(5L), eq(secondTextUnit.getCreatedDate()), eq(101L), any(Pageable.class)))
+        .thenReturn(List.of());
+    when(termIndexOccurrenceRepository.findDistinctTermIndexExtractedTermIdsByTmTextUnitIdIn(any()))
+        .thenReturn(List.of());
+    when(termIndexOccurrenceRepository.countByTermIndexExtractedTerm(
+            any(TermIndexExtractedTerm.class)))
+        .thenReturn(2L);
+    when(termIndexOccurrenceRepository.countDistinctRepositoriesByTermIndexExtractedTerm(
+            any(TermIndexExtractedTerm.class)))
+        .thenReturn(1L);
+
+    TermIndexRefreshService.RefreshResult result =
+        termIndexRefreshService.refresh(
+            new TermIndexRefreshService.RefreshCommand(List.of(5L), false, 1));
+
+    assertThat(result)
+        .isEqualTo(
+            new TermIndexRefreshService.RefreshResult(
+                7L, TermIndexRefreshRun.STATUS_SUCCEEDED, 1, 2, 1, 2));
+    assertThat(cursor.get().getLastProcessedTmTextUnitId()).isEqualTo(101L);
+    assertThat(refreshRun.get().getProcessedTextUnitCount()).isEqualTo(2L);
+    assertThat(refreshRun.get().getOccurrenceCount()).isEqualTo(2L);
+    TermIndexExtractedTerm entry = termIndexExtractedTerms.get(200L);
+    assertThat(entry.getOccurrenceCount()).isEqualTo(2L);
+    assertThat(entry.getRepositoryCount()).isEqualTo(1);
+  }
+
   @Test
   public void refreshFailsWhenRepositoryLeaseIsAlreadyHeld() {
     Repository repository = repository(5L, "product-web", "en");
@@ -0,0 +1,143 @@
+package com.box.l10n.mojito.service.glossary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.assertj.core.api.Assertions;
+import org.junit.Assume;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the n-gram lookups previously used to match the glossary dictionary during term index
+ * refresh (every token sequence up to the longest term is built and looked up in a map) with the
+ * {@link TokenAhoCorasick} automaton.
+ *
+ * <p>The benchmark is opt-in: {@code -Dmojito.test.tokenAhoCorasickBenchmark=true}, the number of
+ * terms and sources can be set with {@code -Dmojito.test.tokenAhoCorasickBenchmarkTerms} and {@code
+ * -Dmojito.test.tokenAhoCorasickBenchmarkSources}.
+ */
+public class TokenAhoCorasickBenchmarkTest {
+
+  static Logger logger = LoggerFactory.getLogger(TokenAhoCorasickBenchmarkTest.class);
+
+  static final Pattern TOKEN_PATTERN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+  static final int WARMUP_ITERATIONS = 3;
+
+  @Test
+  public void tokenAhoCorasickBenchmarkAgainstNgramLookups() {
+    Assume.assumeTrue(
+        "Token Aho-Corasick benchmark is opt-in",
+        Boolean.getBoolean("mojito.test.tokenAhoCorasickBenchmark"));
+
+    int termCount = Integer.getInteger("mojito.test.tokenAhoCorasickBenchmarkTerms", 5000);
+    int sourceCount = Integer.getInteger("mojito.test.tokenAhoCorasickBenchmarkSources", 20000);
+
+    Random random = new Random(42);
+    List<String> vocabulary = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      vocabulary.add("word" + i);
+    }
+
+    Map<String, String> termsByKey = new HashMap<>();
+    TokenAhoCorasick.Builder<String> builder = TokenAhoCorasick.builder();
+    int maxTokenCount = 0;
+    for (int i = 0; i < termCount; i++) {
+      int tokenCount = 1 + random.nextInt(4);
+      List<String> tokens = new ArrayList<>();
+      for (int j = 0; j < tokenCount; j++) {
+        tokens.add(vocabulary.get(random.nextInt(vocabulary.size())));
+      }
+      String key = String.join(" ", tokens);
+      termsByKey.putIfAbsent(key, key);
+      builder.add(tokens, key);
+      maxTokenCount = Math.max(maxTokenCount, tokenCount);
+    }
+    TokenAhoCorasick<String> automaton = builder.build();
+
+    List<String> sources = new ArrayList<>();
+    for (int i = 0; i < sourceCount; i++) {
+      StringBuilder source = new StringBuilder();
+      int tokenCount = 5 + random.nextInt(30);
+      for (int j = 0; j < tokenCount; j++) {
+        source.append(j == 0 ? "" : " ").append(vocabulary.get(random.nextInt(vocabulary.size())));
+      }
+      sources.add(source.toString());
+    }
+
+    int finalMaxTokenCount = maxTokenCount;
+    long ngramMatchCount = 0;
+    long automatonMatchCount = 0;
+    long ngramNanos = 0;
+    long automatonNanos = 0;
+    for (int iteration = 0; iteration <= WARMUP_ITERATIONS; iteration++) {
+      long start = System.nanoTime();
+      ngramMatchCount = 0;
+      for (String source : sources) {
+        ngramMatchCount += countNgramMatches(source, termsByKey, finalMaxTokenCount);
+      }
+      ngramNanos = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      automatonMatchCount = 0;
+      for (String source : sources) {
+        automatonMatchCount += countAutomatonMatches(source, automaton);
+      }
+      automatonNanos = System.nanoTime() - start;
+    }
+
+    Assertions.assertThat(automatonMatchCount).isEqualTo(ngramMatchCount);
+
+    logger.info(
+        "Token Aho-Corasick benchmark, terms: {}, sources: {}, matches: {}, n-gram lookups: {}ms,"
+            + " automaton: {}ms",
+        termCount,
+        sourceCount,
+        automatonMatchCount,
+        ngramNanos / 1_000_000,
+        automatonNanos / 1_000_000);
+  }
+
+  long countNgramMatches(String source, Map<String, String> termsByKey, int maxTokenCount) {
+    List<String> tokens = tokenize(source);
+    long matchCount = 0;
+    for (int startTokenIndex = 0; startTokenIndex < tokens.size(); startTokenIndex++) {
+      StringBuilder key = new StringBuilder();
+      int maxEndTokenIndex = Math.min(tokens.size(), startTokenIndex + maxTokenCount);
+      for (int endTokenIndex = startTokenIndex; endTokenIndex < maxEndTokenIndex; endTokenIndex++) {
+        if (endTokenIndex > startTokenIndex) {
+          key.append(' ');
+        }
+        key.append(tokens.get(endTokenIndex).toLowerCase(Locale.ROOT));
+        if (termsByKey.get(key.toString()) != null) {
+          matchCount++;
+        }
+      }
+    }
+    return matchCount;
+  }
+
+  long countAutomatonMatches(String source, TokenAhoCorasick<String> automaton) {
+    long[] matchCount = new long[1];
+    automaton.forEachMatch(
+        tokenize(source).stream().map(token -> token.toLowerCase(Locale.ROOT)).toList(),
+        (startTokenIndex, endTokenIndex, term) -> matchCount[0]++);
+    return matchCount[0];
+  }
+
+  List<String> tokenize(String source) {
+    List<String> tokens = new ArrayList<>();
+    Matcher matcher = TOKEN_PATTERN.matcher(source);
+    while (matcher.find()) {
+      tokens.add(matcher.group());
+    }
+    return tokens;
+  }
+}
@@ -0,0 +1,74 @@
+package com.box.l10n.mojito.service.glossary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class TokenAhoCorasickTest {
+
+  @Test
+  public void findsOverlappingAndNestedMatches() {
+    TokenAhoCorasick.Builder<String> builder = TokenAhoCorasick.builder();
+    builder.add(List.of("billing"), "billing");
+    builder.add(List.of("billing", "portal"), "billing portal");
+    builder.add(List.of("portal", "dashboard"), "portal dashboard");
+    builder.add(List.of("dashboard"), "dashboard");
+    TokenAhoCorasick<String> automaton = builder.build();
+
+    assertThat(findMatches(automaton, List.of("the", "billing", "portal", "dashboard")))
+        .containsExactly(
+            "1:2:billing", "1:3:billing portal", "2:4:portal dashboard", "3:4:dashboard");
+  }
+
+  @Test
+  public void followsFailureLinks() {
+    TokenAhoCorasick.Builder<String> builder = TokenAhoCorasick.builder();
+    builder.add(List.of("a", "b", "c", "d"), "abcd");
+    builder.add(List.of("b", "c"), "bc");
+    builder.add(List.of("c", "e"), "ce");
+    TokenAhoCorasick<String> automaton = builder.build();
+
+    assertThat(findMatches(automaton, List.of("a", "b", "c", "e")))
+        .containsExactly("1:3:bc", "2:4:ce");
+    assertThat(findMatches(automaton, List.of("a", "a", "b", "c", "d")))
+        .containsExactly("2:4:bc", "1:5:abcd");
+  }
+
+  @Test
+  public void unknownTokenResetsTheAutomaton() {
+    TokenAhoCorasick.Builder<String> builder = TokenAhoCorasick.builder();
+    builder.add(List.of("a", "b"), "ab");
+    TokenAhoCorasick<String> automaton = builder.build();
+
+    assertThat(findMatches(automaton, List.of("a", "x", "b"))).isEmpty();
+    assertThat(findMatches(automaton, List.of("a", "a", "b"))).containsExactly("1:3:ab");
+  }
+
+  @Test
+  public void firstValueIsKeptForDuplicateSequences() {
+    TokenAhoCorasick.Builder<String> builder = TokenAhoCorasick.builder();
+    assertThat(builder.add(List.of("a", "b"), "first")).isTrue();
+    assertThat(builder.add(List.of("a", "b"), "second")).isFalse();
+    assertThat(builder.add(List.of(), "empty")).isFalse();
+
+    assertThat(findMatches(builder.build(), List.of("a", "b"))).containsExactly("0:2:first");
+  }
+
+  @Test
+  public void emptyAutomaton() {
+    TokenAhoCorasick<String> automaton = TokenAhoCorasick.<String>builder().build();
+    assertThat(automaton.isEmpty()).isTrue();
+    assertThat(findMatches(automaton, List.of("a"))).isEmpty();
+  }
+
+  static List<String> findMatches(TokenAhoCorasick<String> automaton, List<String> tokens) {
+    List<String> matches = new ArrayList<>();
+    automaton.forEachMatch(
+        tokens,
+        (startTokenIndex, endTokenIndex, value) ->
+            matches.add(startTokenIndex + ":" + endTokenIndex + ":" + value));
+    return matches;
+  }
+}
@@ -0,0 +1,262 @@
+package com.box.l10n.mojito.service.hybrid;
+
+import static com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage.Prefix.TEXT_UNIT_WS_SEARCH_ASYNC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.box.l10n.mojito.json.ObjectMapper;
+import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import com.box.l10n.mojito.utils.BytesGZIP;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class HybridQueryEngineTest {
+
+  StructuredBlobStorage structuredBlobStorage = mock(StructuredBlobStorage.class);
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  HybridQueryEngine hybridQueryEngine;
+
+  Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+
+  AtomicInteger runCount = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    hybridQueryEngine =
+        new HybridQueryEngine(
+            structuredBlobStorage, ObjectMapper.withNoFailOnUnknownProperties(), meterRegistry);
+
+    when(structuredBlobStorage.getBytes(eq(TEXT_UNIT_WS_SEARCH_ASYNC), anyString()))
+        .thenAnswer(invocation -> Optional.ofNullable(blobs.get(invocation.getArgument(1))));
+    doAnswer(invocation -> blobs.put(invocation.getArgument(1), invocation.getArgument(2)))
+        .when(structuredBlobStorage)
+        .putBytes(eq(TEXT_UNIT_WS_SEARCH_ASYNC), anyString(), any(byte[].class), any());
+  }
+
+  @Test
+  public void returnsFastQueriesSynchronously() {
+    HybridQueryResult<List<String>> result =
+        hybridQueryEngine.execute(endpoint(Duration.ZERO, 10), "query", () -> run("a", "b"));
+
+    assertThat(result.isPending()).isFalse();
+    assertThat(result.results()).containsExactly("a", "b");
+    assertThat(blobs).isEmpty();
+  }
+
+  @Test
+  public void joinsIdenticalQueriesInFlightAndPersistsCompressedResult() throws Exception {
+    HybridQueryEndpoint<List<String>> endpoint = endpoint(Duration.ZERO, 10);
+    CountDownLatch release = new CountDownLatch(1);
+
+    HybridQueryResult<List<String>> first =
+        hybridQueryEngine.execute(endpoint, "query", () -> awaitAndRun(release, "a"));
+    HybridQueryResult<List<String>> second =
+        hybridQueryEngine.execute(endpoint, "query", () -> awaitAndRun(release, "b"));
+
+    assertThat(first.isPending()).isTrue();
+    assertThat(second.requestId()).isEqualTo(first.requestId());
+    assertThat(hybridQueryEngine.getResult(endpoint, first.requestId()).isPending()).isTrue();
+
+    release.countDown();
+    HybridQueryResult<List<String>> polled = waitForResult(endpoint, first.requestId());
+
+    assertThat(polled.results()).containsExactly("a");
+    assertThat(runCount.get()).isEqualTo(1);
+    assertThat(
+            new String(
+                BytesGZIP.decompress(blobs.get(first.requestId().toString())),
+                StandardCharsets.UTF_8))
+        .contains("\"results\":[\"a\"]");
+    assertThat(queryCount("joined")).isEqualTo(1.0);
+  }
+
+  @Test
+  public void reusesCachedResults() {
+    HybridQueryEndpoint<List<String>> endpoint = endpoint(Duration.ofMinutes(1), 10);
+
+    hybridQueryEngine.execute(endpoint, "query", () -> run("a"));
+    HybridQueryResult<List<String>> cached =
+        hybridQueryEngine.execute(endpoint, "query", () -> run("b"));
+
+    assertThat(cached.results()).containsExactly("a");
+    assertThat(runCount.get()).isEqualTo(1);
+    assertThat(queryCount("cache_hit")).isEqualTo(1.0);
+  }
+
+  @Test
+  public void rejectsQueriesOverBudget() {
+    HybridQueryEndpoint<List<String>> endpoint = endpoint(Duration.ZERO, 1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    hybridQueryEngine.execute(endpoint, "query", () -> awaitAndRun(release, "a"));
+
+    assertThatThrownBy(() -> hybridQueryEngine.execute(endpoint, "other", () -> run("b")))
+        .isInstanceOf(ResponseStatusException.class)
+        .satisfies(
+            e ->
+                assertThat(((ResponseStatusException) e).getStatusCode())
+                    .isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+    release.countDown();
+  }
+
+  @Test
+  public void persistsErrorsOfAsynchronousQueries() throws Exception {
+    HybridQueryEndpoint<List<String>> endpoint = endpoint(Duration.ZERO, 10);
+    CountDownLatch release = new CountDownLatch(1);
+
+    HybridQueryResult<List<String>> pending =
+        hybridQueryEngine.execute(
+            endpoint,
+            "query",
+            () -> {
+              release.await(5, TimeUnit.SECONDS);
+              throw new IllegalArgumentException("invalid query");
+            });
+    release.countDown();
+    HybridQueryResult<List<String>> polled = waitForResult(endpoint, pending.requestId());
+
+    assertThat(polled.isFailed()).isTrue();
+    assertThat(polled.error().type()).isEqualTo(IllegalArgumentException.class.getName());
+    assertThat(polled.error().message()).isEqualTo("invalid query");
+    assertThat(polled.error().expected()).isTrue();
+  }
+
+  @Test
+  public void callerTimingOutAfterQueryCompletedWithoutPersistenceWaitsForResult() {
+    HybridQueryEngine.InFlightQuery inFlightQuery = new HybridQueryEngine.InFlightQuery(null);
+
+    // the query completes quickly and decides not to persist, its future is not completed yet
+    assertThat(hybridQueryEngine.shouldPersist(endpoint(Duration.ofMinutes(1), 10), inFlightQuery))
+        .isFalse();
+    CompletableFuture.runAsync(
+        () -> inFlightQuery.future.complete(List.of("a")),
+        CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+    HybridQueryResult<List<String>> result =
+        hybridQueryEngine.await(endpoint(Duration.ZERO, 10), inFlightQuery);
+
+    assertThat(result.isPending()).isFalse();
+    assertThat(result.results()).containsExactly("a");
+    assertThat(blobs).isEmpty();
+  }
+
+  @Test
+  public void queryCompletingAfterCallerTimedOutIsPersisted() {
+    HybridQueryEndpoint<List<String>> endpoint = endpoint(Duration.ofMinutes(1), 10);
+    HybridQueryEngine.InFlightQuery inFlightQuery = new HybridQueryEngine.InFlightQuery(null);
+
+    HybridQueryResult<List<String>> pending =
+        hybridQueryEngine.await(endpoint(Duration.ZERO, 10), inFlightQuery);
+    hybridQueryEngine.run(
+        endpoint,
+        new HybridQueryEngine.EndpointState(endpoint),
+        "query",
+        inFlightQuery,
+        () -> run("a"));
+
+    assertThat(pending.isPending()).isTrue();
+    assertThat(hybridQueryEngine.getResult(endpoint, pending.requestId()).results())
+        .containsExactly("a");
+  }
+
+  @Test
+  public void readsUncompressedResults() {
+    UUID requestId = UUID.randomUUID();
+    blobs.put(
+        requestId.toString(),
+        "{\"results\":[\"a\"],\"pollingToken\":null,\"error\":null}"
+            .getBytes(StandardCharsets.UTF_8));
+
+    HybridQueryResult<List<String>> result =
+        hybridQueryEngine.getResult(endpoint(Duration.ZERO, 10), requestId);
+
+    assertThat(result.results()).containsExactly("a");
+  }
+
+  @Test
+  public void queryKeyIgnoresFieldOrderAndNulls() {
+    HybridQueryEndpoint<List<String>> endpoint = endpoint(Duration.ZERO, 10);
+    Map<String, Object> query = new LinkedHashMap<>();
+    query.put("b", List.of(1, 2));
+    query.put("a", "x");
+    Map<String, Object> reordered = new HashMap<>();
+    reordered.put("a", "x");
+    reordered.put("c", null);
+    reordered.put("b", List.of(1, 2));
+
+    assertThat(hybridQueryEngine.getQueryKey(endpoint, null, query))
+        .isEqualTo(hybridQueryEngine.getQueryKey(endpoint, null, reordered))
+        .isNotEqualTo(hybridQueryEngine.getQueryKey(endpoint, "1", query));
+    assertThat(hybridQueryEngine.getQueryKey(endpoint, null, Map.of("b", List.of(2, 1))))
+        .isNotEqualTo(hybridQueryEngine.getQueryKey(endpoint, null, query));
+  }
+
+  HybridQueryEndpoint<List<String>> endpoint(Duration resultCacheTtl, int maxInFlightQueries) {
+    return new HybridQueryEndpoint<>(
+        "test-" + resultCacheTtl + "-" + maxInFlightQueries,
+        TEXT_UNIT_WS_SEARCH_ASYNC,
+        new SimpleAsyncTaskExecutor(),
+        new TypeReference<>() {},
+        Duration.ofMillis(resultCacheTtl.isZero() ? 50 : 1000),
+        resultCacheTtl,
+        maxInFlightQueries,
+        false,
+        e -> e instanceof IllegalArgumentException);
+  }
+
+  List<String> run(String... results) {
+    runCount.incrementAndGet();
+    return List.of(results);
+  }
+
+  List<String> awaitAndRun(CountDownLatch release, String... results) throws Exception {
+    release.await(5, TimeUnit.SECONDS);
+    return run(results);
+  }
+
+  HybridQueryResult<List<String>> waitForResult(
+      HybridQueryEndpoint<List<String>> endpoint, UUID requestId) throws InterruptedException {
+    long deadlineMillis = System.currentTimeMillis() + 5000;
+    HybridQueryResult<List<String>> result = hybridQueryEngine.getResult(endpoint, requestId);
+    while (result.isPending() && System.currentTimeMillis() < deadlineMillis) {
+      Thread.sleep(10);
+      result = hybridQueryEngine.getResult(endpoint, requestId);
+    }
+    return result;
+  }
+
+  double queryCount(String outcome) {
+    return meterRegistry
+        .find(HybridQueryEngine.METRIC_QUERIES)
+        .tag("outcome", outcome)
+        .counters()
+        .stream()
+        .mapToDouble(counter -> counter.count())
+        .sum();
+  }
+}
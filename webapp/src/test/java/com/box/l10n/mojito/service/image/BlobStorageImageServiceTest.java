@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,8 +13,10 @@ import static org.mockito.Mockito.when;
 import com.box.l10n.mojito.entity.Image;
 import com.box.l10n.mojito.service.blobstorage.BlobStorage;
 import java.util.Optional;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -53,6 +57,70 @@ public class BlobStorageImageServiceTest {
     verify(blobStorage, times(1)).put("image/testImage", imageContent);
   }
 
+  @Test
+  public void testUploadImageStoresMetadata() {
+    byte[] pngContent = new byte[] {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0};
+    blobStorageImageService.uploadImage("noextension", pngContent);
+
+    ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+    verify(blobStorage, times(1)).put(eq("image-metadata/noextension"), json.capture());
+    when(blobStorage.getString("image-metadata/noextension"))
+        .thenReturn(Optional.of(json.getValue()));
+    when(blobStorage.getContentMd5("image/noextension"))
+        .thenReturn(Optional.of(DigestUtils.md5Hex(pngContent)));
+
+    ImageMetadata imageMetadata = blobStorageImageService.getImageMetadata("noextension").get();
+    assertEquals(DigestUtils.sha256Hex(pngContent), imageMetadata.contentSha256());
+    assertEquals("image/png", imageMetadata.contentType());
+    assertEquals(pngContent.length, imageMetadata.contentLength());
+    verify(blobStorage, never()).getBytes(anyString());
+  }
+
+  @Test
+  public void testGetImageMetadataIsBackfilled() {
+    when(blobStorage.getContentMd5("image/testImage.pdf"))
+        .thenReturn(Optional.of(DigestUtils.md5Hex(imageContent)));
+    when(blobStorage.getString("image-metadata/testImage.pdf")).thenReturn(Optional.empty());
+    when(blobStorage.getBytes("image/testImage.pdf")).thenReturn(Optional.of(imageContent));
+
+    ImageMetadata imageMetadata = blobStorageImageService.getImageMetadata("testImage.pdf").get();
+
+    assertEquals(DigestUtils.sha256Hex(imageContent), imageMetadata.contentSha256());
+    assertEquals("application/pdf", imageMetadata.contentType());
+    verify(blobStorage, times(1)).put(eq("image-metadata/testImage.pdf"), anyString());
+  }
+
+  @Test
+  public void testGetImageMetadataIsRebuiltWhenContentChanged() {
+    byte[] newContent = new byte[] {6, 7, 8};
+    blobStorageImageService.uploadImage("testImage", imageContent);
+
+    ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+    verify(blobStorage, times(1)).put(eq("image-metadata/testImage"), json.capture());
+    when(blobStorage.getString("image-metadata/testImage"))
+        .thenReturn(Optional.of(json.getValue()));
+    // the content was replaced without updating the metadata, eg. by a concurrent upload
+    when(blobStorage.getContentMd5("image/testImage"))
+        .thenReturn(Optional.of(DigestUtils.md5Hex(newContent)));
+    when(blobStorage.getBytes("image/testImage")).thenReturn(Optional.of(newContent));
+
+    ImageMetadata imageMetadata = blobStorageImageService.getImageMetadata("testImage").get();
+
+    assertEquals(DigestUtils.sha256Hex(newContent), imageMetadata.contentSha256());
+    assertEquals(newContent.length, imageMetadata.contentLength());
+    verify(blobStorage, times(2)).put(eq("image-metadata/testImage"), anyString());
+  }
+
+  @Test
+  public void testGetImageMetadataNotAvailableInBlobStorage() {
+    when(blobStorage.getContentMd5(anyString())).thenReturn(Optional.empty());
+    when(blobStorage.getString(anyString())).thenReturn(Optional.of("{}"));
+
+    assertFalse(blobStorageImageService.getImageMetadata("testImage").isPresent());
+    verify(blobStorage, never()).getBytes(anyString());
+    verify(blobStorage, never()).put(anyString(), anyString());
+  }
+
   @Test
   public void testImageExistsInBlobStorage() {
     when(blobStorage.exists("image/testImage")).thenReturn(true);
@@ -3,12 +3,15 @@ package com.box.l10n.mojito.service.image;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.box.l10n.mojito.entity.Image;
+import java.time.ZonedDateTime;
 import java.util.Optional;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -62,6 +65,32 @@ public class DatabaseImageServiceTest {
     Image imageCaptorValue = imageCaptor.getValue();
     assertEquals("otherImage", imageCaptorValue.getName());
     assertEquals(content, imageCaptorValue.getContent());
+    assertEquals(DigestUtils.sha256Hex(content), imageCaptorValue.getContentSha256());
+    assertEquals("application/octet-stream", imageCaptorValue.getContentType());
+    assertEquals(Long.valueOf(content.length), imageCaptorValue.getContentLength());
+  }
+
+  @Test
+  public void testGetImageMetadataFromDB() {
+    ImageMetadata imageMetadata =
+        new ImageMetadata("test", "sha", "image/png", 5, ZonedDateTime.now());
+    when(imageRepository.findMetadataByName("test")).thenReturn(Optional.of(imageMetadata));
+
+    assertEquals(Optional.of(imageMetadata), databaseImageService.getImageMetadata("test"));
+    verify(imageRepository, never()).findByName("test");
+  }
+
+  @Test
+  public void testGetImageMetadataIsBackfilledInDB() {
+    when(imageRepository.findMetadataByName("test")).thenReturn(Optional.empty());
+    when(imageRepository.save(image)).thenReturn(image);
+
+    ImageMetadata imageMetadata = databaseImageService.getImageMetadata("test").get();
+
+    assertEquals(DigestUtils.sha256Hex(imageBytes), imageMetadata.contentSha256());
+    assertEquals(imageBytes.length, imageMetadata.contentLength());
+    assertEquals(imageMetadata.contentSha256(), image.getContentSha256());
+    verify(imageRepository, times(1)).save(image);
   }
 
   @Test
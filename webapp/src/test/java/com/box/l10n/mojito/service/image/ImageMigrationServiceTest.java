@@ -1,9 +1,13 @@
 package com.box.l10n.mojito.service.image;
 
+import static com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage.Prefix.IMAGE_MIGRATION;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -13,10 +17,15 @@ import static org.mockito.Mockito.when;
 import com.box.l10n.mojito.entity.Image;
 import com.box.l10n.mojito.service.blobstorage.BlobStorage;
 import com.box.l10n.mojito.service.blobstorage.BlobStorageRouter;
+import com.box.l10n.mojito.service.blobstorage.Retention;
 import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
 import com.box.l10n.mojito.service.blobstorage.database.DatabaseBlobStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +35,8 @@ public class ImageMigrationServiceTest {
   private ImageRepository imageRepository;
   private BlobStorageImageService blobStorageImageService;
   private BlobStorageRouter blobStorageRouter;
+  private StructuredBlobStorage structuredBlobStorage;
+  private SimpleMeterRegistry meterRegistry;
   private ImageMigrationService imageMigrationService;
 
   @Before
@@ -35,8 +46,20 @@ public class ImageMigrationServiceTest {
     blobStorageRouter = mock(BlobStorageRouter.class);
     when(blobStorageRouter.getBlobStorage(StructuredBlobStorage.Prefix.IMAGE))
         .thenReturn(mock(BlobStorage.class));
-    imageMigrationService =
-        new ImageMigrationService(imageRepository, blobStorageImageService, blobStorageRouter);
+    structuredBlobStorage = mock(StructuredBlobStorage.class);
+    meterRegistry = new SimpleMeterRegistry();
+    imageMigrationService = newImageMigrationService();
+  }
+
+  private ImageMigrationService newImageMigrationService() {
+    return new ImageMigrationService(
+        imageRepository,
+        blobStorageImageService,
+        blobStorageRouter,
+        structuredBlobStorage,
+        meterRegistry,
+        4,
+        3);
   }
 
   @Test
@@ -55,7 +78,7 @@ public class ImageMigrationServiceTest {
   }
 
   @Test
-  public void skipsExistingImagesAndFindsLaterImages() {
+  public void skipsExistingImagesWithinTheScanBudget() {
     Image existing = image(1L, "existing.png", new byte[] {1});
     Image missing = image(2L, "missing.png", new byte[] {2});
     when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
@@ -66,22 +89,24 @@ public class ImageMigrationServiceTest {
 
     ImageMigrationService.Result result = imageMigrationService.migrateImages(1, false);
 
-    assertThat(result).isEqualTo(new ImageMigrationService.Result(2, 1, 0, 0));
+    assertThat(result).isEqualTo(new ImageMigrationService.Result(1, 0, 0, 0));
     verify(blobStorageImageService, never()).uploadImage(eq("existing.png"), any(byte[].class));
-    verify(blobStorageImageService).uploadImage("missing.png", missing.getContent());
+    verify(imageRepository, never()).findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class));
+    verify(structuredBlobStorage).put(IMAGE_MIGRATION, "last-image-id", "1", Retention.PERMANENT);
   }
 
   @Test
-  public void deletesSourceOnlyAfterVerifyingRemoteBytes() {
+  public void deletesSourceOnlyAfterVerifyingRemoteDigest() {
     Image image = image(1L, "verified.png", new byte[] {1, 2, 3});
     when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
         .thenReturn(List.of(image));
-    when(blobStorageImageService.getImage("verified.png")).thenReturn(Optional.of(image));
+    when(blobStorageImageService.getImageContentMd5("verified.png")).thenReturn(md5(image));
 
     ImageMigrationService.Result result = imageMigrationService.migrateImages(1, true);
 
     assertThat(result).isEqualTo(new ImageMigrationService.Result(1, 1, 1, 0));
     verify(blobStorageImageService).uploadImage("verified.png", image.getContent());
+    verify(blobStorageImageService, never()).getImage(any());
     verify(imageRepository).delete(image);
   }
 
@@ -91,8 +116,8 @@ public class ImageMigrationServiceTest {
     Image second = image(2L, "second.png", new byte[] {2});
     when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
         .thenReturn(List.of(first, second));
-    when(blobStorageImageService.getImage("first.png")).thenReturn(Optional.of(first));
-    when(blobStorageImageService.getImage("second.png")).thenReturn(Optional.of(second));
+    when(blobStorageImageService.getImageContentMd5("first.png")).thenReturn(md5(first));
+    when(blobStorageImageService.getImageContentMd5("second.png")).thenReturn(md5(second));
 
     ImageMigrationService.Result result = imageMigrationService.migrateImages(2, true);
 
@@ -106,7 +131,7 @@ public class ImageMigrationServiceTest {
     when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
         .thenReturn(List.of(image));
     when(blobStorageImageService.imageExists("existing.png")).thenReturn(true);
-    when(blobStorageImageService.getImage("existing.png")).thenReturn(Optional.of(image));
+    when(blobStorageImageService.getImageContentMd5("existing.png")).thenReturn(md5(image));
 
     ImageMigrationService.Result result = imageMigrationService.migrateImages(1, true);
 
@@ -123,7 +148,22 @@ public class ImageMigrationServiceTest {
         .thenReturn(List.of(source));
     when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class)))
         .thenReturn(List.of());
-    when(blobStorageImageService.getImage("mismatch.png")).thenReturn(Optional.of(remote));
+    when(blobStorageImageService.getImageContentMd5("mismatch.png")).thenReturn(md5(remote));
+
+    ImageMigrationService.Result result = imageMigrationService.migrateImages(25, true);
+
+    assertThat(result).isEqualTo(new ImageMigrationService.Result(1, 1, 0, 1));
+    verify(imageRepository, never()).delete(any(Image.class));
+  }
+
+  @Test
+  public void preservesSourceWhenRemoteImageIsMissing() {
+    Image image = image(1L, "missing.png", new byte[] {1, 2, 3});
+    when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+        .thenReturn(List.of(image));
+    when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class)))
+        .thenReturn(List.of());
+    when(blobStorageImageService.getImageContentMd5("missing.png")).thenReturn(Optional.empty());
 
     ImageMigrationService.Result result = imageMigrationService.migrateImages(25, true);
 
@@ -131,19 +171,121 @@ public class ImageMigrationServiceTest {
     verify(imageRepository, never()).delete(any(Image.class));
   }
 
+  @Test
+  public void resumesFromCheckpointAndStopsItAtFirstFailure() {
+    Image first = image(11L, "first.png", new byte[] {1});
+    Image failing = image(12L, "failing.png", new byte[] {2});
+    Image last = image(13L, "last.png", new byte[] {3});
+    when(structuredBlobStorage.getString(IMAGE_MIGRATION, "last-image-id"))
+        .thenReturn(Optional.of("10"));
+    when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+        .thenReturn(List.of(first, failing, last));
+    when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(13L), any(Pageable.class)))
+        .thenReturn(List.of());
+    doThrow(new IllegalStateException("unavailable"))
+        .when(blobStorageImageService)
+        .uploadImage("failing.png", failing.getContent());
+
+    ImageMigrationService.Result result = imageMigrationService.migrateImages(25, false);
+
+    assertThat(result).isEqualTo(new ImageMigrationService.Result(3, 2, 0, 1));
+    verify(imageRepository, never()).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class));
+    verify(structuredBlobStorage).put(IMAGE_MIGRATION, "last-image-id", "11", Retention.PERMANENT);
+    assertThat(meterRegistry.counter("ImageMigrationService.images", "outcome", "uploaded").count())
+        .isEqualTo(2.0);
+    assertThat(meterRegistry.counter("ImageMigrationService.images", "outcome", "failed").count())
+        .isEqualTo(1.0);
+    assertThat(
+            meterRegistry
+                .get("ImageMigrationService.checkpoint")
+                .tag("mode", "copy")
+                .gauge()
+                .value())
+        .isEqualTo(11.0);
+  }
+
+  @Test
+  public void movesCheckpointPastImageFailingMaxAttempts() {
+    Map<String, String> blobs = new HashMap<>();
+    when(structuredBlobStorage.getString(eq(IMAGE_MIGRATION), anyString()))
+        .thenAnswer(invocation -> Optional.ofNullable(blobs.get(invocation.getArgument(1))));
+    doAnswer(invocation -> blobs.put(invocation.getArgument(1), invocation.getArgument(2)))
+        .when(structuredBlobStorage)
+        .put(eq(IMAGE_MIGRATION), anyString(), anyString(), eq(Retention.PERMANENT));
+
+    Image failing = image(1L, "failing.png", new byte[] {1});
+    Image last = image(2L, "last.png", new byte[] {2});
+    when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+        .thenReturn(List.of(failing, last));
+    when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any(Pageable.class)))
+        .thenReturn(List.of());
+    when(blobStorageImageService.imageExists("last.png")).thenReturn(true);
+    doThrow(new IllegalStateException("corrupted"))
+        .when(blobStorageImageService)
+        .uploadImage("failing.png", failing.getContent());
+
+    imageMigrationService.migrateImages(25, false);
+    imageMigrationService.migrateImages(25, false);
+    assertThat(blobs)
+        .containsEntry("last-image-id", "0")
+        .containsEntry("failed-image-attempts", "1:2");
+
+    assertThat(imageMigrationService.migrateImages(25, false))
+        .isEqualTo(new ImageMigrationService.Result(2, 0, 0, 1));
+    assertThat(blobs)
+        .containsEntry("last-image-id", "2")
+        .containsEntry("failed-image-attempts", "1:3");
+    assertThat(meterRegistry.counter("ImageMigrationService.images", "outcome", "given_up").count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  public void deletesImagesCopiedByAPreviousRun() {
+    Map<String, String> checkpoints = new HashMap<>();
+    when(structuredBlobStorage.getString(eq(IMAGE_MIGRATION), anyString()))
+        .thenAnswer(invocation -> Optional.ofNullable(checkpoints.get(invocation.getArgument(1))));
+    doAnswer(invocation -> checkpoints.put(invocation.getArgument(1), invocation.getArgument(2)))
+        .when(structuredBlobStorage)
+        .put(eq(IMAGE_MIGRATION), anyString(), anyString(), eq(Retention.PERMANENT));
+
+    Image first = image(1L, "first.png", new byte[] {1});
+    Image second = image(2L, "second.png", new byte[] {2});
+    when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+        .thenReturn(List.of(first, second));
+    when(imageRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any(Pageable.class)))
+        .thenReturn(List.of());
+
+    assertThat(imageMigrationService.migrateImages(25, false))
+        .isEqualTo(new ImageMigrationService.Result(2, 2, 0, 0));
+    assertThat(checkpoints).containsEntry("last-image-id", "2");
+
+    when(blobStorageImageService.imageExists(anyString())).thenReturn(true);
+    when(blobStorageImageService.getImageContentMd5("first.png")).thenReturn(md5(first));
+    when(blobStorageImageService.getImageContentMd5("second.png")).thenReturn(md5(second));
+
+    assertThat(imageMigrationService.migrateImages(25, true))
+        .isEqualTo(new ImageMigrationService.Result(2, 0, 2, 0));
+    verify(imageRepository).delete(first);
+    verify(imageRepository).delete(second);
+    assertThat(checkpoints)
+        .containsEntry("last-image-id", "2")
+        .containsEntry("last-deleted-image-id", "2");
+  }
+
   @Test
   public void refusesDatabaseBackedImageMigration() {
     when(blobStorageRouter.getBlobStorage(StructuredBlobStorage.Prefix.IMAGE))
         .thenReturn(mock(DatabaseBlobStorage.class));
 
-    assertThatThrownBy(
-            () ->
-                new ImageMigrationService(
-                    imageRepository, blobStorageImageService, blobStorageRouter))
+    assertThatThrownBy(this::newImageMigrationService)
         .isInstanceOf(IllegalStateException.class)
         .hasMessageContaining("remote backend");
   }
 
+  private Optional<String> md5(Image image) {
+    return Optional.of(DigestUtils.md5Hex(image.getContent()));
+  }
+
   private Image image(Long id, String name, byte[] content) {
     Image image = new Image();
     image.setId(id);
@@ -0,0 +1,119 @@
+package com.box.l10n.mojito.service.image;
+
+import static com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage.Prefix.IMAGE_THUMBNAIL;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.box.l10n.mojito.service.blobstorage.Retention;
+import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+
+public class ImageThumbnailServiceTest {
+
+  StructuredBlobStorage structuredBlobStorage = mock(StructuredBlobStorage.class);
+
+  ImageService imageService = mock(ImageService.class);
+
+  ImageThumbnailService imageThumbnailService =
+      new ImageThumbnailService(structuredBlobStorage, imageService);
+
+  @Test
+  public void testGetBoundedSize() {
+    assertEquals(128, ImageThumbnailService.getBoundedSize(1));
+    assertEquals(256, ImageThumbnailService.getBoundedSize(129));
+    assertEquals(512, ImageThumbnailService.getBoundedSize(512));
+    assertEquals(1024, ImageThumbnailService.getBoundedSize(5000));
+  }
+
+  @Test
+  public void testCreateAndCacheThumbnail() throws IOException {
+    byte[] content = png(2000, 1000);
+    ImageMetadata imageMetadata = ImageMetadata.fromContent("large.png", content, null);
+    when(structuredBlobStorage.getBytes(eq(IMAGE_THUMBNAIL), anyString()))
+        .thenReturn(Optional.empty());
+    when(imageService.getImageInputStream("large.png"))
+        .thenReturn(Optional.of(new ByteArrayInputStream(content)));
+
+    ImageThumbnailService.Thumbnail thumbnail =
+        imageThumbnailService.getThumbnail(imageMetadata, 200).get();
+
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.content()));
+    assertEquals(256, image.getWidth());
+    assertEquals(128, image.getHeight());
+    assertEquals("image/png", thumbnail.contentType());
+    assertEquals(256, thumbnail.size());
+    verify(structuredBlobStorage)
+        .putBytes(
+            IMAGE_THUMBNAIL,
+            imageMetadata.contentSha256() + "/256",
+            thumbnail.content(),
+            Retention.PERMANENT);
+  }
+
+  @Test
+  public void testImageThatFitsIsNotUpscaled() throws IOException {
+    byte[] content = png(100, 50);
+    ImageMetadata imageMetadata = ImageMetadata.fromContent("small.png", content, null);
+    when(structuredBlobStorage.getBytes(eq(IMAGE_THUMBNAIL), anyString()))
+        .thenReturn(Optional.empty());
+    when(imageService.getImageInputStream("small.png"))
+        .thenReturn(Optional.of(new ByteArrayInputStream(content)));
+
+    assertArrayEquals(
+        content, imageThumbnailService.getThumbnail(imageMetadata, 128).get().content());
+  }
+
+  @Test
+  public void testCachedThumbnailDoesNotReadImage() throws IOException {
+    byte[] thumbnail = png(128, 64);
+    ImageMetadata imageMetadata =
+        new ImageMetadata("cached.jpg", "sha", "image/jpeg", 1000, ZonedDateTime.now());
+    when(structuredBlobStorage.getBytes(IMAGE_THUMBNAIL, "sha/128"))
+        .thenReturn(Optional.of(thumbnail));
+
+    assertArrayEquals(
+        thumbnail, imageThumbnailService.getThumbnail(imageMetadata, 100).get().content());
+    verify(imageService, never()).getImageInputStream(anyString());
+  }
+
+  @Test
+  public void testNoThumbnailForUndecodableImage() {
+    byte[] content = "%PDF-1.4".getBytes();
+    ImageMetadata pdfMetadata = ImageMetadata.fromContent("document", content, null);
+    ImageMetadata corruptedMetadata =
+        new ImageMetadata("corrupted.png", "sha", "image/png", 4, ZonedDateTime.now());
+    when(structuredBlobStorage.getBytes(eq(IMAGE_THUMBNAIL), anyString()))
+        .thenReturn(Optional.empty());
+    when(imageService.getImageInputStream("corrupted.png"))
+        .thenReturn(Optional.of(new ByteArrayInputStream(new byte[] {1, 2, 3, 4})));
+
+    assertEquals("application/pdf", pdfMetadata.contentType());
+    assertFalse(imageThumbnailService.getThumbnailSize(pdfMetadata, 128).isPresent());
+    assertEquals(Optional.of(128), imageThumbnailService.getThumbnailSize(corruptedMetadata, 100));
+    assertFalse(imageThumbnailService.getThumbnail(pdfMetadata, 128).isPresent());
+    assertFalse(imageThumbnailService.getThumbnail(corruptedMetadata, 128).isPresent());
+    verify(structuredBlobStorage, never()).putBytes(any(), anyString(), any(), any());
+  }
+
+  byte[] png(int width, int height) throws IOException {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    ImageIO.write(
+        new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", byteArrayOutputStream);
+    return byteArrayOutputStream.toByteArray();
+  }
+}
@@ -0,0 +1,133 @@
+package com.box.l10n.mojito.service.machinetranslation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.box.l10n.mojito.CacheType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class MachineTranslationSegmentCacheTest {
+
+  CountingEngine countingEngine = new CountingEngine();
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  MachineTranslationSegmentCache machineTranslationSegmentCache =
+      new MachineTranslationSegmentCache(
+          new ConcurrentMapCacheManager(CacheType.Names.MACHINE_TRANSLATION_SEGMENT),
+          meterRegistry);
+
+  @Test
+  void testPartialHitOnlySendsMissesToEngine() {
+    getTranslations(List.of("hello", "world"), List.of("fr", "de"));
+    assertEquals(List.of(List.of("hello", "world")), countingEngine.requestedTextSources);
+
+    ImmutableMap<String, ImmutableList<TranslationDTO>> translations =
+        getTranslations(List.of("world", "new", "hello"), List.of("fr", "de"));
+
+    assertEquals(2, countingEngine.requestedTextSources.size());
+    assertEquals(List.of("new"), countingEngine.requestedTextSources.get(1));
+    assertEquals(List.of("world", "new", "hello"), translations.keySet().asList());
+    assertEquals("world-fr", translations.get("world").get(0).getText());
+    assertEquals("new-de", translations.get("new").get(1).getText());
+    assertEquals("hello-fr", translations.get("hello").get(0).getText());
+
+    assertEquals(4.0, getCount(MachineTranslationSegmentCache.METRIC_LOOKUPS, "hit"));
+    assertEquals(6.0, getCount(MachineTranslationSegmentCache.METRIC_LOOKUPS, "miss"));
+    assertEquals(20.0, getCount(MachineTranslationSegmentCache.METRIC_ENGINE_CHARACTERS, "saved"));
+    assertEquals(26.0, getCount(MachineTranslationSegmentCache.METRIC_ENGINE_CHARACTERS, "sent"));
+  }
+
+  @Test
+  void testMissesAreGroupedByMissingTargetLocales() {
+    getTranslations(List.of("hello"), List.of("fr"));
+    getTranslations(List.of("hello", "world"), List.of("fr", "de"));
+
+    assertEquals(3, countingEngine.requestedTextSources.size());
+    assertEquals(List.of("hello"), countingEngine.requestedTextSources.get(1));
+    assertEquals(List.of("de"), countingEngine.requestedTargetBcp47Tags.get(1));
+    assertEquals(List.of("world"), countingEngine.requestedTextSources.get(2));
+    assertEquals(List.of("fr", "de"), countingEngine.requestedTargetBcp47Tags.get(2));
+  }
+
+  @Test
+  void testKeyIncludesFunctionalProtectionAndSourceLocale() {
+    getTranslations(List.of("hello"), List.of("fr"));
+
+    machineTranslationSegmentCache.getTranslationsBySourceText(
+        countingEngine, List.of("hello"), "en", List.of("fr"), TextType.HTML, "", false);
+    machineTranslationSegmentCache.getTranslationsBySourceText(
+        countingEngine, List.of("hello"), "en-GB", List.of("fr"), TextType.HTML, "", true);
+
+    assertEquals(3, countingEngine.requestedTextSources.size());
+  }
+
+  @Test
+  void testFullHitDoesNotCallEngine() {
+    getTranslations(List.of("hello", "world"), List.of("fr", "de"));
+    ImmutableMap<String, ImmutableList<TranslationDTO>> translations =
+        getTranslations(List.of("hello", "world"), List.of("de", "fr"));
+
+    assertEquals(1, countingEngine.requestedTextSources.size());
+    assertEquals("hello-de", translations.get("hello").get(0).getText());
+    assertEquals("hello-fr", translations.get("hello").get(1).getText());
+  }
+
+  ImmutableMap<String, ImmutableList<TranslationDTO>> getTranslations(
+      List<String> textSources, List<String> targetBcp47Tags) {
+    return machineTranslationSegmentCache.getTranslationsBySourceText(
+        countingEngine, textSources, "en", targetBcp47Tags, TextType.HTML, "", true);
+  }
+
+  double getCount(String metric, String result) {
+    return meterRegistry
+        .counter(metric, Tags.of("engine", TranslationSource.NOOP.name(), "result", result))
+        .count();
+  }
+
+  /** {@link NoOpEngine} that records the requests and translates to "{source}-{locale}" */
+  static class CountingEngine extends NoOpEngine {
+
+    List<List<String>> requestedTextSources = new ArrayList<>();
+
+    List<List<String>> requestedTargetBcp47Tags = new ArrayList<>();
+
+    @Override
+    public ImmutableMap<String, ImmutableList<TranslationDTO>> getTranslationsBySourceText(
+        List<String> textSources,
+        String sourceBcp47Tag,
+        List<String> targetBcp47Tags,
+        TextType sourceTextType,
+        String customModel,
+        boolean isFunctionalProtectionEnabled) {
+      requestedTextSources.add(List.copyOf(textSources));
+      requestedTargetBcp47Tags.add(List.copyOf(targetBcp47Tags));
+
+      ImmutableMap<String, ImmutableList<TranslationDTO>> translations =
+          super.getTranslationsBySourceText(
+              textSources,
+              sourceBcp47Tag,
+              targetBcp47Tags,
+              sourceTextType,
+              customModel,
+              isFunctionalProtectionEnabled);
+
+      translations
+          .values()
+          .forEach(
+              translationDTOs ->
+                  translationDTOs.forEach(
+                      translationDTO ->
+                          translationDTO.setText(
+                              translationDTO.getText() + "-" + translationDTO.getBcp47Tag())));
+
+      return translations;
+    }
+  }
+}
@@ -3,14 +3,17 @@ package com.box.l10n.mojito.service.machinetranslation;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.box.l10n.mojito.CacheType;
 import com.box.l10n.mojito.service.leveraging.LeveragerByContentAndRepository;
 import com.box.l10n.mojito.service.tm.search.TextUnitDTO;
 import com.google.common.collect.ImmutableList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 @RunWith(MockitoJUnitRunner.class)
 class MachineTranslationServiceTest {
@@ -23,7 +26,13 @@ class MachineTranslationServiceTest {
 
   MachineTranslationServiceTest() {
     machineTranslationService =
-        spy(new MachineTranslationService(machineTranslationEngine, new TranslationMerger()));
+        spy(
+            new MachineTranslationService(
+                machineTranslationEngine,
+                new TranslationMerger(),
+                new MachineTranslationSegmentCache(
+                    new ConcurrentMapCacheManager(CacheType.Names.MACHINE_TRANSLATION_SEGMENT),
+                    new SimpleMeterRegistry())));
 
     leveragerByContentAndRepositoryMock = mock(LeveragerByContentAndRepository.class);
     when(machineTranslationService.getLeveragerByContentAndRepository(null, null))
@@ -39,7 +39,7 @@ public class BulkUpsertGlossaryTermsMcpToolTest {
                     new BulkUpsertGlossaryTermsMcpTool.OperationPreview(
                         0, null, "actions", "Actions", "CANDIDATE", "AUTOMATED", 1, 1, 1)),
                 List.of()));
-    assertThat(glossaryTermService.upsertCallCount).isZero();
+    assertThat(glossaryTermService.bulkUpsertCallCount).isZero();
   }
 
   @Test
@@ -49,13 +49,16 @@ public class BulkUpsertGlossaryTermsMcpToolTest {
             new BulkUpsertGlossaryTermsMcpTool.Input(
                 4L, null, false, List.of(termInput(20L, "Actions"))));
 
-    assertThat(glossaryTermService.upsertCallCount).isEqualTo(1);
+    assertThat(glossaryTermService.bulkUpsertCallCount).isEqualTo(1);
     assertThat(glossaryTermService.lastGlossaryId).isEqualTo(4L);
-    assertThat(glossaryTermService.lastTmTextUnitId).isEqualTo(20L);
-    assertThat(glossaryTermService.lastCommand.source()).isEqualTo("Actions");
-    assertThat(glossaryTermService.lastCommand.translations())
+    assertThat(glossaryTermService.lastUpserts).hasSize(1);
+    GlossaryTermService.BulkTermUpsert upsert = glossaryTermService.lastUpserts.get(0);
+    assertThat(upsert.tmTextUnitId()).isEqualTo(20L);
+    assertThat(upsert.command().source()).isEqualTo("Actions");
+    assertThat(upsert.command().replaceTerm()).isTrue();
+    assertThat(upsert.command().translations())
         .containsExactly(new GlossaryTermService.TranslationInput("fr", "Actions", null));
-    assertThat(glossaryTermService.lastCommand.evidence())
+    assertThat(upsert.command().evidence())
         .containsExactly(
             new GlossaryTermService.EvidenceInput(
                 "STRING_USAGE", "Used in onboarding CTA", null, 281663L, null, null, null, null));
@@ -72,6 +75,23 @@ public class BulkUpsertGlossaryTermsMcpToolTest {
                 List.of(glossaryTermService.termView)));
   }
 
+  @Test
+  public void executeAppliesAllTermsInOneBulkUpsert() {
+    List<BulkUpsertGlossaryTermsMcpTool.TermInput> terms =
+        IntStream.range(0, 3).mapToObj(i -> termInput(null, "Action " + i)).toList();
+
+    BulkUpsertGlossaryTermsMcpTool.BulkUpsertResult result =
+        (BulkUpsertGlossaryTermsMcpTool.BulkUpsertResult)
+            tool.execute(new BulkUpsertGlossaryTermsMcpTool.Input(4L, null, false, terms));
+
+    assertThat(glossaryTermService.bulkUpsertCallCount).isEqualTo(1);
+    assertThat(glossaryTermService.lastUpserts)
+        .extracting(upsert -> upsert.command().source())
+        .containsExactly("Action 0", "Action 1", "Action 2");
+    assertThat(result.applied()).isTrue();
+    assertThat(result.terms()).hasSize(3);
+  }
+
   @Test
   public void executeAllowsLargeSingleRequest() {
     List<BulkUpsertGlossaryTermsMcpTool.TermInput> terms =
@@ -83,7 +103,7 @@ public class BulkUpsertGlossaryTermsMcpToolTest {
 
     assertThat(result.termCount()).isEqualTo(201);
     assertThat(result.operations()).hasSize(201);
-    assertThat(glossaryTermService.upsertCallCount).isZero();
+    assertThat(glossaryTermService.bulkUpsertCallCount).isZero();
   }
 
   @Test
@@ -137,10 +157,9 @@ public class BulkUpsertGlossaryTermsMcpToolTest {
   }
 
   private static final class FakeGlossaryTermService extends GlossaryTermService {
-    private int upsertCallCount;
+    private int bulkUpsertCallCount;
     private Long lastGlossaryId;
-    private Long lastTmTextUnitId;
-    private TermUpsertCommand lastCommand;
+    private List<BulkTermUpsert> lastUpserts;
     private final TermView termView =
         new TermView(
             10L,
@@ -172,12 +191,11 @@ public class BulkUpsertGlossaryTermsMcpToolTest {
     }
 
     @Override
-    public TermView upsertTerm(Long glossaryId, Long tmTextUnitId, TermUpsertCommand command) {
-      upsertCallCount++;
+    public List<TermView> bulkUpsertTerms(Long glossaryId, List<BulkTermUpsert> upserts) {
+      bulkUpsertCallCount++;
       lastGlossaryId = glossaryId;
-      lastTmTextUnitId = tmTextUnitId;
-      lastCommand = command;
-      return termView;
+      lastUpserts = upserts;
+      return upserts.stream().map(upsert -> termView).toList();
     }
   }
 
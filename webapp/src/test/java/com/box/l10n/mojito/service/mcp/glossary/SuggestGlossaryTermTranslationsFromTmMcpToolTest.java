@@ -6,9 +6,12 @@ import com.box.l10n.mojito.entity.TMTextUnitVariant;
 import com.box.l10n.mojito.json.ObjectMapper;
 import com.box.l10n.mojito.service.glossary.GlossaryManagementService;
 import com.box.l10n.mojito.service.glossary.GlossaryTermService;
-import com.box.l10n.mojito.service.tm.search.TextUnitDTO;
+import com.box.l10n.mojito.service.tm.search.StatusFilter;
 import com.box.l10n.mojito.service.tm.search.TextUnitSearcher;
 import com.box.l10n.mojito.service.tm.search.TextUnitSearcherParameters;
+import com.box.l10n.mojito.service.tm.search.TextUnitTargetCount;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.junit.Test;
 
@@ -36,14 +39,15 @@ public class SuggestGlossaryTermTranslationsFromTmMcpToolTest {
 
     assertThat(textUnitSearcher.lastRepositoryNames).containsExactly("chatgpt-web");
     assertThat(textUnitSearcher.lastLocaleTags).containsExactly("fr");
-    assertThat(textUnitSearcher.lastLimit).isEqualTo(100);
+    assertThat(textUnitSearcher.lastStatusFilter).isEqualTo(StatusFilter.TRANSLATED);
+    assertThat(textUnitSearcher.sourceBatches).containsExactly(List.of("Sora", "Codex"));
     assertThat(result)
         .isEqualTo(
             new SuggestGlossaryTermTranslationsFromTmMcpTool.SuggestTranslationsResult(
                 new SuggestGlossaryTermTranslationsFromTmMcpTool.GlossaryRef(6L, "ghanna"),
                 List.of("chatgpt-web"),
                 List.of("fr"),
-                1,
+                2,
                 List.of(
                     new SuggestGlossaryTermTranslationsFromTmMcpTool.TermSuggestion(
                         20L,
@@ -62,6 +66,69 @@ public class SuggestGlossaryTermTranslationsFromTmMcpToolTest {
                                         List.of(100L, 101L)))))))));
   }
 
+  @Test
+  public void executeCountsAllTermsAndLocalesInOneQuery() {
+    textUnitSearcher.targetCounts =
+        List.of(
+            targetCount("Sora", "fr", "Sora", TMTextUnitVariant.Status.APPROVED, 3, 100L, 120L),
+            targetCount("Sora", "ja", "ソラ", TMTextUnitVariant.Status.APPROVED, 1, 130L, 130L),
+            targetCount("Sora", "ja", "ソラ ", TMTextUnitVariant.Status.REVIEW_NEEDED, 2, 131L, 140L),
+            targetCount("Sora", "ja", "Sora", TMTextUnitVariant.Status.APPROVED, 1, 150L, 150L),
+            targetCount("Codex", "ja", " ", TMTextUnitVariant.Status.APPROVED, 4, 160L, 170L),
+            targetCount("Codex", "fr", "Codex", TMTextUnitVariant.Status.APPROVED, 5, 200L, 240L));
+
+    SuggestGlossaryTermTranslationsFromTmMcpTool.SuggestTranslationsResult result =
+        (SuggestGlossaryTermTranslationsFromTmMcpTool.SuggestTranslationsResult)
+            tool.execute(
+                new SuggestGlossaryTermTranslationsFromTmMcpTool.Input(
+                    6L,
+                    null,
+                    List.of("fr", "ja"),
+                    List.of("chatgpt-web"),
+                    List.of(),
+                    List.of(),
+                    null,
+                    1));
+
+    assertThat(textUnitSearcher.sourceBatches).hasSize(1);
+    assertThat(textUnitSearcher.lastLocaleTags).containsExactly("fr", "ja");
+    assertThat(result.terms())
+        .isEqualTo(
+            List.of(
+                new SuggestGlossaryTermTranslationsFromTmMcpTool.TermSuggestion(
+                    20L,
+                    "sora_478958c8",
+                    "Sora",
+                    true,
+                    List.of(
+                        new SuggestGlossaryTermTranslationsFromTmMcpTool.LocaleSuggestion(
+                            "fr",
+                            List.of(
+                                new SuggestGlossaryTermTranslationsFromTmMcpTool.TargetSuggestion(
+                                    "Sora", 3, List.of("APPROVED"), List.of(100L, 120L)))),
+                        new SuggestGlossaryTermTranslationsFromTmMcpTool.LocaleSuggestion(
+                            "ja",
+                            List.of(
+                                new SuggestGlossaryTermTranslationsFromTmMcpTool.TargetSuggestion(
+                                    "ソラ",
+                                    3,
+                                    List.of("APPROVED", "REVIEW_NEEDED"),
+                                    List.of(130L, 131L, 140L)))))),
+                new SuggestGlossaryTermTranslationsFromTmMcpTool.TermSuggestion(
+                    21L,
+                    "codex_4d1f2b1a",
+                    " Codex ",
+                    false,
+                    List.of(
+                        new SuggestGlossaryTermTranslationsFromTmMcpTool.LocaleSuggestion(
+                            "fr",
+                            List.of(
+                                new SuggestGlossaryTermTranslationsFromTmMcpTool.TargetSuggestion(
+                                    "Codex", 5, List.of("APPROVED"), List.of(200L, 240L)))),
+                        new SuggestGlossaryTermTranslationsFromTmMcpTool.LocaleSuggestion(
+                            "ja", List.of())))));
+  }
+
   private static final class FakeGlossaryManagementService extends GlossaryManagementService {
     private FakeGlossaryManagementService() {
       super(null, null, null, null, null, null, null);
@@ -106,8 +173,30 @@ public class SuggestGlossaryTermTranslationsFromTmMcpToolTest {
                   null,
                   null,
                   List.of(),
+                  List.of()),
+              new TermView(
+                  11L,
+                  null,
+                  null,
+                  21L,
+                  "codex_4d1f2b1a",
+                  " Codex ",
+                  "Named OpenAI product",
+                  "Named OpenAI product",
+                  "proper noun",
+                  "PRODUCT",
+                  "SOFT",
+                  "CANDIDATE",
+                  "AI_EXTRACTED",
+                  true,
+                  false,
+                  null,
+                  null,
+                  null,
+                  null,
+                  List.of(),
                   List.of())),
-          1,
+          2,
           List.of("fr"));
     }
   }
@@ -115,30 +204,39 @@ public class SuggestGlossaryTermTranslationsFromTmMcpToolTest {
   private static final class FakeTextUnitSearcher extends TextUnitSearcher {
     private List<String> lastRepositoryNames;
     private List<String> lastLocaleTags;
-    private Integer lastLimit;
+    private StatusFilter lastStatusFilter;
+    private final List<List<String>> sourceBatches = new ArrayList<>();
+    private List<TextUnitTargetCount> targetCounts =
+        List.of(
+            targetCount("Sora", "fr", "Sora", TMTextUnitVariant.Status.APPROVED, 1, 100L, 100L),
+            targetCount(
+                "Sora", "fr", "Sora", TMTextUnitVariant.Status.REVIEW_NEEDED, 1, 101L, 101L));
 
     private FakeTextUnitSearcher() {
-      super(null);
+      super(null, null);
     }
 
     @Override
-    public List<TextUnitDTO> search(TextUnitSearcherParameters searchParameters) {
+    public List<TextUnitTargetCount> countTargetsBySources(
+        TextUnitSearcherParameters searchParameters, Collection<String> sources) {
       lastRepositoryNames = searchParameters.getRepositoryNames();
       lastLocaleTags = searchParameters.getLocaleTags();
-      lastLimit = searchParameters.getLimit();
-      return List.of(
-          textUnit(100L, "Sora", TMTextUnitVariant.Status.APPROVED),
-          textUnit(101L, "Sora", TMTextUnitVariant.Status.REVIEW_NEEDED));
+      lastStatusFilter = searchParameters.getStatusFilter();
+      sourceBatches.add(List.copyOf(sources));
+      return targetCounts.stream().filter(count -> sources.contains(count.source())).toList();
     }
   }
 
-  private static TextUnitDTO textUnit(
-      Long tmTextUnitId, String target, TMTextUnitVariant.Status status) {
-    TextUnitDTO textUnitDTO = new TextUnitDTO();
-    textUnitDTO.setTmTextUnitId(tmTextUnitId);
-    textUnitDTO.setTarget(target);
-    textUnitDTO.setStatus(status);
-    return textUnitDTO;
+  private static TextUnitTargetCount targetCount(
+      String source,
+      String localeTag,
+      String target,
+      TMTextUnitVariant.Status status,
+      long count,
+      Long minTmTextUnitId,
+      Long maxTmTextUnitId) {
+    return new TextUnitTargetCount(
+        source, localeTag, target, status, count, minTmTextUnitId, maxTmTextUnitId);
   }
 
   private static GlossaryManagementService.GlossaryDetail glossaryDetail() {
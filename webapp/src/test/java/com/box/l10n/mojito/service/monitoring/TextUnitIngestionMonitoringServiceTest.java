@@ -0,0 +1,203 @@
+package com.box.l10n.mojito.service.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.box.l10n.mojito.entity.Repository;
+import com.box.l10n.mojito.entity.monitoring.MonitoringTextUnitIngestionRollup;
+import com.box.l10n.mojito.entity.monitoring.MonitoringTextUnitIngestionState;
+import com.box.l10n.mojito.service.monitoring.TextUnitIngestionMonitoringService.IngestionGroupBy;
+import com.box.l10n.mojito.service.monitoring.TextUnitIngestionMonitoringService.IngestionPoint;
+import com.box.l10n.mojito.service.monitoring.TextUnitIngestionMonitoringService.IngestionSnapshot;
+import com.box.l10n.mojito.service.monitoring.TextUnitIngestionMonitoringService.SourceAggregateRow;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+public class TextUnitIngestionMonitoringServiceTest {
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+  private final MonitoringTextUnitIngestionDailyRepository dailyRepository =
+      mock(MonitoringTextUnitIngestionDailyRepository.class);
+
+  private final MonitoringTextUnitIngestionStateRepository stateRepository =
+      mock(MonitoringTextUnitIngestionStateRepository.class);
+
+  private final MonitoringTextUnitIngestionRollupRepository rollupRepository =
+      mock(MonitoringTextUnitIngestionRollupRepository.class);
+
+  private final TextUnitIngestionMonitoringService service =
+      new TextUnitIngestionMonitoringService(
+          jdbcTemplate, dailyRepository, stateRepository, rollupRepository);
+
+  private final MonitoringTextUnitIngestionState state = new MonitoringTextUnitIngestionState();
+
+  @Before
+  public void setUp() {
+    state.setId(TextUnitIngestionMonitoringService.STATE_ROW_ID);
+    when(stateRepository.findById(TextUnitIngestionMonitoringService.STATE_ROW_ID))
+        .thenReturn(Optional.of(state));
+  }
+
+  @Test
+  public void getSnapshotByMonthReadsRollupsForFullMonthsAndDailyRowsForPartialMonths() {
+    when(dailyRepository.sumByDayAndRepository(
+            LocalDate.parse("2024-01-15"), LocalDate.parse("2024-01-31")))
+        .thenReturn(
+            List.of(
+                new IngestionCountRow(LocalDate.parse("2024-01-15"), 2L, "repo-b", 1L, 10L),
+                new IngestionCountRow(LocalDate.parse("2024-01-20"), 1L, "repo-a", 2L, 20L),
+                new IngestionCountRow(LocalDate.parse("2024-01-21"), 2L, "repo-b", 3L, 30L)));
+    when(rollupRepository.sumByPeriodAndRepository(
+            MonitoringTextUnitIngestionRollup.PERIOD_TYPE_MONTH,
+            LocalDate.parse("2024-02-01"),
+            LocalDate.parse("2024-03-01")))
+        .thenReturn(
+            List.of(
+                new IngestionCountRow(LocalDate.parse("2024-02-01"), 1L, "repo-a", 4L, 40L),
+                new IngestionCountRow(LocalDate.parse("2024-03-01"), 1L, "repo-a", 5L, 50L)));
+    when(dailyRepository.sumByDayAndRepository(
+            LocalDate.parse("2024-04-01"), LocalDate.parse("2024-04-10")))
+        .thenReturn(
+            List.of(new IngestionCountRow(LocalDate.parse("2024-04-02"), 1L, "repo-a", 6L, 60L)));
+
+    IngestionSnapshot snapshot =
+        service.getSnapshot(
+            IngestionGroupBy.MONTH,
+            true,
+            LocalDate.parse("2024-01-15"),
+            LocalDate.parse("2024-04-10"));
+
+    assertThat(snapshot.getRows())
+        .extracting(
+            IngestionPoint::getPeriod,
+            IngestionPoint::getRepositoryId,
+            IngestionPoint::getRepositoryName,
+            IngestionPoint::getStringCount,
+            IngestionPoint::getWordCount)
+        .containsExactly(
+            tuple("2024-01", 1L, "repo-a", 2L, 20L),
+            tuple("2024-01", 2L, "repo-b", 4L, 40L),
+            tuple("2024-02", 1L, "repo-a", 4L, 40L),
+            tuple("2024-03", 1L, "repo-a", 5L, 50L),
+            tuple("2024-04", 1L, "repo-a", 6L, 60L));
+  }
+
+  @Test
+  public void getSnapshotByYearWithoutRangeOnlyReadsRollups() {
+    when(rollupRepository.sumByPeriod(
+            MonitoringTextUnitIngestionRollup.PERIOD_TYPE_YEAR,
+            TextUnitIngestionMonitoringService.MIN_DAY,
+            LocalDate.parse("9999-01-01")))
+        .thenReturn(List.of(new IngestionCountRow(LocalDate.parse("2023-01-01"), 7L, 70L)));
+
+    IngestionSnapshot snapshot = service.getSnapshot(IngestionGroupBy.YEAR, false, null, null);
+
+    assertThat(snapshot.getRows())
+        .extracting(
+            IngestionPoint::getPeriod,
+            IngestionPoint::getRepositoryId,
+            IngestionPoint::getStringCount,
+            IngestionPoint::getWordCount)
+        .containsExactly(tuple("2023", null, 7L, 70L));
+    verifyNoInteractions(dailyRepository);
+  }
+
+  @Test
+  public void getSnapshotWithinSingleMonthOnlyReadsDailyRows() {
+    when(dailyRepository.sumByDay(LocalDate.parse("2024-05-03"), LocalDate.parse("2024-05-20")))
+        .thenReturn(
+            List.of(
+                new IngestionCountRow(LocalDate.parse("2024-05-03"), 1L, 10L),
+                new IngestionCountRow(LocalDate.parse("2024-05-19"), 2L, 20L)));
+
+    IngestionSnapshot snapshot =
+        service.getSnapshot(
+            IngestionGroupBy.MONTH,
+            false,
+            LocalDate.parse("2024-05-03"),
+            LocalDate.parse("2024-05-20"));
+
+    assertThat(snapshot.getRows())
+        .extracting(
+            IngestionPoint::getPeriod, IngestionPoint::getStringCount, IngestionPoint::getWordCount)
+        .containsExactly(tuple("2024-05", 3L, 30L));
+    verifyNoInteractions(rollupRepository);
+  }
+
+  @Test
+  public void recomputeMissingDaysAddsNewDaysToRollups() {
+    LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+    state.setLatestComputedDay(yesterday.minusDays(1));
+    Repository repository = new Repository();
+    repository.setId(1L);
+    EntityManager entityManager = mock(EntityManager.class);
+    when(entityManager.getReference(Repository.class, 1L)).thenReturn(repository);
+    service.entityManager = entityManager;
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any()))
+        .thenReturn(List.of(new SourceAggregateRow(yesterday, 1L, 3L, 30L)));
+    MonitoringTextUnitIngestionRollup monthRollup = new MonitoringTextUnitIngestionRollup();
+    monthRollup.setPeriodType(MonitoringTextUnitIngestionRollup.PERIOD_TYPE_MONTH);
+    monthRollup.setPeriodStart(yesterday.withDayOfMonth(1));
+    monthRollup.setRepository(repository);
+    monthRollup.setStringCount(10L);
+    monthRollup.setWordCount(100L);
+    when(rollupRepository.findByPeriodTypeAndPeriodStartBetween(
+            MonitoringTextUnitIngestionRollup.PERIOD_TYPE_MONTH,
+            yesterday.withDayOfMonth(1),
+            yesterday.withDayOfMonth(1)))
+        .thenReturn(List.of(monthRollup));
+
+    service.recomputeMissingDays();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Collection<MonitoringTextUnitIngestionRollup>> savedRollups =
+        ArgumentCaptor.forClass(Collection.class);
+    verify(rollupRepository)
+        .findByPeriodTypeAndPeriodStartBetween(
+            eq(MonitoringTextUnitIngestionRollup.PERIOD_TYPE_YEAR), any(), any());
+    verify(rollupRepository)
+        .findByPeriodTypeAndPeriodStartBetween(
+            eq(MonitoringTextUnitIngestionRollup.PERIOD_TYPE_MONTH), any(), any());
+    verify(rollupRepository, times(2)).saveAll(savedRollups.capture());
+    verifyNoMoreInteractions(rollupRepository);
+    List<MonitoringTextUnitIngestionRollup> rollups = new ArrayList<>();
+    savedRollups.getAllValues().forEach(rollups::addAll);
+    assertThat(rollups)
+        .extracting(
+            MonitoringTextUnitIngestionRollup::getPeriodType,
+            MonitoringTextUnitIngestionRollup::getPeriodStart,
+            MonitoringTextUnitIngestionRollup::getStringCount,
+            MonitoringTextUnitIngestionRollup::getWordCount)
+        .containsExactly(
+            tuple(
+                MonitoringTextUnitIngestionRollup.PERIOD_TYPE_MONTH,
+                yesterday.withDayOfMonth(1),
+                13L,
+                130L),
+            tuple(
+                MonitoringTextUnitIngestionRollup.PERIOD_TYPE_YEAR,
+                yesterday.withDayOfYear(1),
+                3L,
+                30L));
+  }
+}
@@ -0,0 +1,175 @@
+package com.box.l10n.mojito.service.oaitranslate;
+
+import static com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage.Prefix.AI_TRANSLATE_RESULT_CACHE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.box.l10n.mojito.json.ObjectMapper;
+import com.box.l10n.mojito.service.blobstorage.StructuredBlobStorage;
+import com.box.l10n.mojito.service.oaitranslate.AiTranslateType.CompletionMultiTextUnitInput.TextUnit;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AiTranslateResultCacheTest {
+
+  StructuredBlobStorage structuredBlobStorage = mock(StructuredBlobStorage.class);
+
+  AiTranslateConfigurationProperties aiTranslateConfigurationProperties =
+      new AiTranslateConfigurationProperties();
+
+  AiTranslateResultCache aiTranslateResultCache;
+
+  Map<String, String> blobs = new ConcurrentHashMap<>();
+
+  @Before
+  public void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    objectMapper.registerModule(new JavaTimeModule());
+    aiTranslateResultCache =
+        new AiTranslateResultCache(
+            structuredBlobStorage, aiTranslateConfigurationProperties, objectMapper);
+
+    when(structuredBlobStorage.getString(eq(AI_TRANSLATE_RESULT_CACHE), anyString()))
+        .thenAnswer(invocation -> Optional.ofNullable(blobs.get(invocation.getArgument(1))));
+    doAnswer(invocation -> blobs.put(invocation.getArgument(1), invocation.getArgument(2)))
+        .when(structuredBlobStorage)
+        .put(eq(AI_TRANSLATE_RESULT_CACHE), anyString(), anyString(), any());
+  }
+
+  @Test
+  public void testKeyIgnoresIdAndRelatedStrings() {
+    String key = getKey("prompt", textUnit(1L, "Save", List.of()));
+    String otherRepositoryKey =
+        getKey(
+            "prompt",
+            new TextUnit(
+                2L,
+                "Save",
+                "button label",
+                null,
+                List.of(),
+                List.of(new AiTranslateRelatedStringsProvider.RelatedString("Cancel", null))));
+
+    assertEquals(key, otherRepositoryKey);
+    assertTrue(key.startsWith("version/1/locale/fr-FR/model/gpt-test/"));
+  }
+
+  @Test
+  public void testKeyChangesWithPromptAndGlossary() {
+    String key = getKey("prompt", textUnit(1L, "Save", List.of()));
+
+    assertNotEquals(key, getKey("prompt with a new rule suffix", textUnit(1L, "Save", List.of())));
+    assertNotEquals(
+        key,
+        getKey(
+            "prompt",
+            textUnit(
+                1L,
+                "Save",
+                List.of(new TextUnit.GlossaryTerm("Save", null, "Enregistrer", null)))));
+    assertNotEquals(key, getKey("prompt", textUnit(1L, "Save ", List.of())));
+  }
+
+  @Test
+  public void testKeyNormalizesSource() {
+    assertEquals(
+        getKey("prompt", textUnit(1L, "Caf\u00e9", List.of())),
+        getKey("prompt", textUnit(1L, "Cafe\u0301", List.of())));
+  }
+
+  @Test
+  public void testPutAndGet() {
+    String key = getKey("prompt", textUnit(1L, "Save", List.of()));
+    AiTranslateResultCache.Entry entry = entry(Instant.now());
+
+    aiTranslateResultCache.put(key, entry);
+
+    assertEquals(Optional.of(entry), aiTranslateResultCache.get(key));
+  }
+
+  @Test
+  public void testExpiredEntryIsIgnored() {
+    aiTranslateConfigurationProperties.getResultCache().setTtl(Duration.ofDays(1));
+    String key = getKey("prompt", textUnit(1L, "Save", List.of()));
+
+    aiTranslateResultCache.put(key, entry(Instant.now().minus(Duration.ofDays(2))));
+
+    assertEquals(Optional.empty(), aiTranslateResultCache.get(key));
+  }
+
+  @Test
+  public void testGetAllReturnsFreshEntriesByKey() {
+    aiTranslateConfigurationProperties.getResultCache().setTtl(Duration.ofDays(1));
+    String freshKey = getKey("prompt", textUnit(1L, "Save", List.of()));
+    String expiredKey = getKey("prompt", textUnit(2L, "Cancel", List.of()));
+    String missingKey = getKey("prompt", textUnit(3L, "Delete", List.of()));
+    AiTranslateResultCache.Entry fresh = entry(Instant.now());
+
+    aiTranslateResultCache.put(freshKey, fresh);
+    aiTranslateResultCache.put(expiredKey, entry(Instant.now().minus(Duration.ofDays(2))));
+
+    assertEquals(
+        Map.of(freshKey, fresh),
+        aiTranslateResultCache.getAll(List.of(freshKey, expiredKey, missingKey, freshKey)));
+    assertEquals(Map.of(), aiTranslateResultCache.getAll(List.of()));
+  }
+
+  @Test
+  public void testPutAllWritesEntriesAndSkipsFailures() {
+    aiTranslateConfigurationProperties.getResultCache().setTtl(Duration.ofDays(1));
+    String saveKey = getKey("prompt", textUnit(1L, "Save", List.of()));
+    String cancelKey = getKey("prompt", textUnit(2L, "Cancel", List.of()));
+    String failingKey = getKey("prompt", textUnit(3L, "Delete", List.of()));
+    AiTranslateResultCache.Entry save = entry(Instant.now());
+    AiTranslateResultCache.Entry cancel = entry(Instant.now());
+    doThrow(new RuntimeException("unavailable"))
+        .when(structuredBlobStorage)
+        .put(eq(AI_TRANSLATE_RESULT_CACHE), eq(failingKey), anyString(), any());
+
+    aiTranslateResultCache
+        .putAll(Map.of(saveKey, save, cancelKey, cancel, failingKey, entry(Instant.now())))
+        .block();
+
+    assertEquals(
+        Map.of(saveKey, save, cancelKey, cancel),
+        aiTranslateResultCache.getAll(List.of(saveKey, cancelKey, failingKey)));
+  }
+
+  @Test
+  public void testStorageErrorsAreMisses() {
+    doThrow(new RuntimeException("unavailable"))
+        .when(structuredBlobStorage)
+        .getString(eq(AI_TRANSLATE_RESULT_CACHE), anyString());
+
+    assertEquals(Optional.empty(), aiTranslateResultCache.get("key"));
+    assertEquals(Map.of(), aiTranslateResultCache.getAll(List.of("key")));
+  }
+
+  String getKey(String prompt, TextUnit textUnit) {
+    return aiTranslateResultCache.getKey("fr-FR", "gpt-test", "low", "low", prompt, textUnit);
+  }
+
+  TextUnit textUnit(Long tmTextUnitId, String source, List<TextUnit.GlossaryTerm> glossaryTerms) {
+    return new TextUnit(tmTextUnitId, source, "button label", null, glossaryTerms, List.of());
+  }
+
+  AiTranslateResultCache.Entry entry(Instant createdAt) {
+    return new AiTranslateResultCache.Entry(
+        "Enregistrer", "comment", 100, 20, 10, 5, 250, createdAt);
+  }
+}
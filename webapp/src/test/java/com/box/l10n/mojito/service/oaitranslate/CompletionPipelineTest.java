@@ -0,0 +1,103 @@
+package com.box.l10n.mojito.service.oaitranslate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+
+public class CompletionPipelineTest {
+
+  @Test
+  public void handlesResultsInCompletionOrder() {
+    List<String> handled = new ArrayList<>();
+    CompletionPipeline<String, String> completionPipeline =
+        new CompletionPipeline<>(10, completed -> handled.add(completed.result()));
+
+    CompletableFuture<String> first = new CompletableFuture<>();
+    CompletableFuture<String> second = new CompletableFuture<>();
+    completionPipeline.submit("first", () -> first);
+    completionPipeline.submit("second", () -> second);
+    assertThat(completionPipeline.getInFlight()).isEqualTo(2);
+
+    second.complete("second-result");
+    first.complete("first-result");
+    completionPipeline.awaitAll();
+
+    assertThat(handled).containsExactly("second-result", "first-result");
+    assertThat(completionPipeline.getInFlight()).isZero();
+  }
+
+  @Test
+  public void handlesCompletedRequestsOnSubmit() {
+    List<String> handled = new ArrayList<>();
+    CompletionPipeline<String, String> completionPipeline =
+        new CompletionPipeline<>(10, completed -> handled.add(completed.request()));
+
+    completionPipeline.submit("a", () -> CompletableFuture.completedFuture("a"));
+    assertThat(handled).containsExactly("a");
+
+    CompletableFuture<String> pending = new CompletableFuture<>();
+    completionPipeline.submit("b", () -> pending);
+    assertThat(handled).containsExactly("a");
+    assertThat(completionPipeline.getInFlight()).isEqualTo(1);
+  }
+
+  @Test
+  public void blocksOnSubmitWhenFullUntilARequestIsHandled() throws Exception {
+    List<String> handled = new ArrayList<>();
+    CompletionPipeline<String, String> completionPipeline =
+        new CompletionPipeline<>(2, completed -> handled.add(completed.request()));
+
+    CompletableFuture<String> first = new CompletableFuture<>();
+    CompletableFuture<String> second = new CompletableFuture<>();
+    completionPipeline.submit("first", () -> first);
+    completionPipeline.submit("second", () -> second);
+
+    Thread completer =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(50);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              second.complete("second");
+            });
+    completer.start();
+
+    List<Integer> inFlightWhenSubmitted = new ArrayList<>();
+    completionPipeline.submit(
+        "third",
+        () -> {
+          inFlightWhenSubmitted.add(completionPipeline.getInFlight());
+          return new CompletableFuture<>();
+        });
+    completer.join();
+
+    assertThat(handled).containsExactly("second");
+    assertThat(inFlightWhenSubmitted).containsExactly(1);
+    assertThat(completionPipeline.getInFlight()).isEqualTo(2);
+  }
+
+  @Test
+  public void passesFailures() {
+    List<Throwable> failures = new ArrayList<>();
+    CompletionPipeline<String, String> completionPipeline =
+        new CompletionPipeline<>(1, completed -> failures.add(completed.throwable()));
+
+    completionPipeline.submit(
+        "a", () -> CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+    assertThat(failures).hasSize(1);
+    assertThat(failures.get(0)).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+  }
+
+  @Test
+  public void rejectsInvalidBound() {
+    assertThatThrownBy(() -> new CompletionPipeline<String, String>(0, completed -> {}))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
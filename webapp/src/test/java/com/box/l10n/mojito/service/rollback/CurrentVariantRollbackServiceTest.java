@@ -435,6 +435,42 @@ public class CurrentVariantRollbackServiceTest extends ServiceTestBase {
         tmTextUnit2Id);
   }
 
+  @Test
+  public void testRollbackToDateAfterPreviousRollback() throws Exception {
+    TMTextUnit tmTextUnit =
+        tmService.addTMTextUnit(
+            tm.getId(), asset.getId(), "hello_world", "Hello World!", "Comments about hello world");
+    Long tmTextUnitId = tmTextUnit.getId();
+    tmService.addCurrentTMTextUnitVariant(tmTextUnitId, frLocaleId, "Bonjour le monde!");
+
+    ZonedDateTime dateTimeBeforeFirstChange = JSR310Migration.newDateTimeEmptyCtor();
+    Thread.sleep(10);
+    tmService.addCurrentTMTextUnitVariant(tmTextUnitId, frLocaleId, "Bonjour le monde! 2");
+
+    currentVariantRollbackService.rollbackCurrentVariantsFromTMToDate(
+        dateTimeBeforeFirstChange, tm.getId());
+    assertVariantContentForCurrentVariantEquals("Bonjour le monde!", frLocaleId, tmTextUnitId);
+
+    Thread.sleep(10);
+    ZonedDateTime dateTimeAfterRollback = JSR310Migration.newDateTimeEmptyCtor();
+    Thread.sleep(10);
+    tmService.addCurrentTMTextUnitVariant(tmTextUnitId, frLocaleId, "Bonjour le monde! 3");
+    assertVariantContentForCurrentVariantEquals("Bonjour le monde! 3", frLocaleId, tmTextUnitId);
+
+    CurrentVariantRollbackParameters rollbackParameters = new CurrentVariantRollbackParameters();
+    rollbackParameters.setLocaleIds(Arrays.asList(frLocaleId, jaLocaleId));
+    currentVariantRollbackService
+        .rollbackCurrentVariantsFromTMToDateAsync(
+            dateTimeAfterRollback, tm.getId(), rollbackParameters)
+        .get();
+
+    assertVariantContentForCurrentVariantEquals(
+        "After rollback, the current variant should be the one restored by the first rollback",
+        "Bonjour le monde!",
+        frLocaleId,
+        tmTextUnitId);
+  }
+
   /**
    * Asserts whether English is the only variant present for the given {@link
    * com.box.l10n.mojito.entity.TMTextUnit#id}
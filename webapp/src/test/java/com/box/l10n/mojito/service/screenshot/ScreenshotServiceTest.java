@@ -209,6 +209,69 @@ public class ScreenshotServiceTest extends ServiceTestBase {
     Assert.assertNotNull(arrayList.get(2).getId());
   }
 
+  @Test
+  public void testAddToScreenshotRunResolvesRenderedTargetsAndUpdatesExistingScreenshots() {
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+
+    ScreenshotRun screenshotRun = new ScreenshotRun();
+    screenshotRun.setName(UUID.randomUUID().toString());
+    screenshotRun.setRepository(tmTestData.repository);
+    screenshotRun
+        .getScreenshots()
+        .add(screenshotWithRenderedTargets("src1", "Content3 fr-FR", "unknown"));
+    screenshotService.createOrAddToScreenshotRun(screenshotRun, true);
+
+    Screenshot created = searchScreenshotsOfLastSuccessfulRun(tmTestData.repository).get(0);
+    Map<String, ScreenshotTextUnit> byRenderedTarget = new HashMap<>();
+    created
+        .getScreenshotTextUnits()
+        .forEach(stu -> byRenderedTarget.put(stu.getRenderedTarget(), stu));
+    assertEquals(Integer.valueOf(1), byRenderedTarget.get("Content3 fr-FR").getNumberOfMatch());
+    assertEquals("TEST3", byRenderedTarget.get("Content3 fr-FR").getName());
+    assertEquals("Content3", byRenderedTarget.get("Content3 fr-FR").getSource());
+    assertEquals(Integer.valueOf(0), byRenderedTarget.get("unknown").getNumberOfMatch());
+
+    ScreenshotRun forUpdate = new ScreenshotRun();
+    forUpdate.setName(screenshotRun.getName());
+    forUpdate.setRepository(tmTestData.repository);
+    forUpdate.getScreenshots().add(screenshotWithRenderedTargets("src2", "Content3 fr-FR"));
+    screenshotService.createOrAddToScreenshotRun(forUpdate, true);
+
+    List<Screenshot> updated = searchScreenshotsOfLastSuccessfulRun(tmTestData.repository);
+    assertEquals(1, updated.size());
+    assertEquals(created.getId(), updated.get(0).getId());
+    assertEquals("src2", updated.get(0).getSrc());
+    assertEquals(1, updated.get(0).getScreenshotTextUnits().size());
+  }
+
+  Screenshot screenshotWithRenderedTargets(String src, String... renderedTargets) {
+    Screenshot screenshot = new Screenshot();
+    screenshot.setName("screen");
+    screenshot.setSrc(src);
+    screenshot.setLocale(localeService.findByBcp47Tag("fr-FR"));
+    for (String renderedTarget : renderedTargets) {
+      ScreenshotTextUnit screenshotTextUnit = new ScreenshotTextUnit();
+      screenshotTextUnit.setRenderedTarget(renderedTarget);
+      screenshot.getScreenshotTextUnits().add(screenshotTextUnit);
+    }
+    return screenshot;
+  }
+
+  List<Screenshot> searchScreenshotsOfLastSuccessfulRun(Repository repository) {
+    return screenshotService.searchScreenshots(
+        Arrays.asList(repository.getId()),
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        ScreenshotRunType.LAST_SUCCESSFUL_RUN,
+        0,
+        10);
+  }
+
   @Test
   public void testSortScreenshotBySequence() {
     List<Screenshot> screenshots = new ArrayList<>();
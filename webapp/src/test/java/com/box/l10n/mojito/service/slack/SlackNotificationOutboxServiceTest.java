@@ -0,0 +1,389 @@
+package com.box.l10n.mojito.service.slack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.box.l10n.mojito.entity.SlackNotification;
+import com.box.l10n.mojito.entity.SlackNotificationStatus;
+import com.box.l10n.mojito.entity.review.ReviewProjectRequest;
+import com.box.l10n.mojito.entity.review.ReviewProjectRequestSlackThread;
+import com.box.l10n.mojito.service.badtranslation.TranslationIncidentRepository;
+import com.box.l10n.mojito.service.review.ReviewProjectRequestRepository;
+import com.box.l10n.mojito.service.review.ReviewProjectRequestSlackThreadRepository;
+import com.box.l10n.mojito.service.slack.SlackNotificationOutboxService.SlackNotificationMessage;
+import com.box.l10n.mojito.slack.SlackClient;
+import com.box.l10n.mojito.slack.SlackClientException;
+import com.box.l10n.mojito.slack.SlackClientRateLimitedException;
+import com.box.l10n.mojito.slack.SlackClients;
+import com.box.l10n.mojito.slack.request.Message;
+import com.box.l10n.mojito.slack.response.ChatPostMessageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class SlackNotificationOutboxServiceTest {
+
+  SlackNotificationRepository slackNotificationRepository = mock(SlackNotificationRepository.class);
+
+  ReviewProjectRequestSlackThreadRepository reviewProjectRequestSlackThreadRepository =
+      mock(ReviewProjectRequestSlackThreadRepository.class);
+
+  ReviewProjectRequestRepository reviewProjectRequestRepository =
+      mock(ReviewProjectRequestRepository.class);
+
+  TranslationIncidentRepository translationIncidentRepository =
+      mock(TranslationIncidentRepository.class);
+
+  SlackClients slackClients = mock(SlackClients.class);
+
+  SlackClient slackClient = mock(SlackClient.class);
+
+  SlackNotificationOutboxService slackNotificationOutboxService;
+
+  long nextId = 1;
+
+  @Before
+  public void before() {
+    slackNotificationOutboxService = newService(3500);
+    when(slackClients.getById("client-1")).thenReturn(slackClient);
+    when(slackNotificationRepository.claim(anyLong(), any(), anyCollection(), any(), any()))
+        .thenReturn(1);
+    when(slackNotificationRepository.save(any(SlackNotification.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    when(reviewProjectRequestSlackThreadRepository.findByReviewProjectRequest_Id(anyLong()))
+        .thenReturn(Optional.empty());
+  }
+
+  SlackNotificationOutboxService newService(int maxMessageLength) {
+    return new SlackNotificationOutboxService(
+        slackNotificationRepository,
+        reviewProjectRequestSlackThreadRepository,
+        reviewProjectRequestRepository,
+        translationIncidentRepository,
+        slackClients,
+        new SlackNotificationOutboxProperties(
+            200,
+            Duration.ofSeconds(1),
+            Duration.ofMinutes(2),
+            Duration.ofSeconds(30),
+            Duration.ofHours(1),
+            Duration.ofSeconds(30),
+            8,
+            maxMessageLength,
+            Duration.ofMinutes(10),
+            Duration.ofDays(30)),
+        new SimpleMeterRegistry());
+  }
+
+  @Test
+  public void enqueueSavesPendingNotification() {
+    assertThat(
+            slackNotificationOutboxService.enqueue(
+                new SlackNotificationMessage(" client-1 ", "channel-1", " ", 44L, "Hello")))
+        .isTrue();
+
+    ArgumentCaptor<SlackNotification> captor = ArgumentCaptor.forClass(SlackNotification.class);
+    verify(slackNotificationRepository).save(captor.capture());
+    assertThat(captor.getValue().getSlackClientId()).isEqualTo("client-1");
+    assertThat(captor.getValue().getThreadTs()).isNull();
+    assertThat(captor.getValue().getReviewProjectRequestId()).isEqualTo(44L);
+    assertThat(captor.getValue().getTranslationIncidentId()).isNull();
+    assertThat(captor.getValue().getStatus()).isEqualTo(SlackNotificationStatus.PENDING);
+    assertThat(captor.getValue().getIdempotencyKey()).hasSize(64);
+  }
+
+  @Test
+  public void enqueueSkipsDuplicate() {
+    when(slackNotificationRepository.existsByIdempotencyKey(anyString())).thenReturn(true);
+
+    assertThat(
+            slackNotificationOutboxService.enqueue(
+                new SlackNotificationMessage("client-1", "channel-1", null, null, "Hello")))
+        .isFalse();
+    verify(slackNotificationRepository, never()).save(any(SlackNotification.class));
+  }
+
+  @Test
+  public void idempotencyKeyDependsOnContentAndDedupWindow() {
+    ZonedDateTime now = ZonedDateTime.parse("2026-01-01T10:01:00Z");
+    SlackNotificationMessage message =
+        new SlackNotificationMessage("client-1", "channel-1", null, 44L, "Hello");
+
+    String key = slackNotificationOutboxService.getIdempotencyKey(message, now);
+    assertThat(slackNotificationOutboxService.getIdempotencyKey(message, now.plusMinutes(1)))
+        .isEqualTo(key);
+    assertThat(slackNotificationOutboxService.getIdempotencyKey(message, now.plusMinutes(10)))
+        .isNotEqualTo(key);
+    assertThat(
+            slackNotificationOutboxService.getIdempotencyKey(
+                new SlackNotificationMessage("client-1", "channel-1", null, 44L, "Hello 2"), now))
+        .isNotEqualTo(key);
+  }
+
+  @Test
+  public void deliverCoalescesNotificationsPerChannel() throws SlackClientException {
+    SlackNotification first = notification("channel-1", null, null, "First");
+    SlackNotification second = notification("channel-1", null, null, "Second");
+    SlackNotification other = notification("channel-2", null, null, "Other");
+    dueNotifications(first, second, other);
+    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.001"));
+
+    assertThat(slackNotificationOutboxService.deliverDueNotifications()).isEqualTo(3);
+
+    List<Message> messages = sentMessages(2);
+    assertThat(messages.get(0).getChannel()).isEqualTo("channel-1");
+    assertThat(messages.get(0).getText()).isEqualTo("First\n\nSecond");
+    assertThat(messages.get(1).getChannel()).isEqualTo("channel-2");
+    assertThat(messages.get(1).getText()).isEqualTo("Other");
+    assertThat(List.of(first, second, other))
+        .allSatisfy(
+            n -> {
+              assertThat(n.getStatus()).isEqualTo(SlackNotificationStatus.SENT);
+              assertThat(n.getMessageTs()).isEqualTo("171.001");
+            });
+  }
+
+  @Test
+  public void deliverRepliesInExistingRequestThread() throws SlackClientException {
+    SlackNotification slackNotification = notification("channel-1", null, 45L, "Reassigned");
+    dueNotifications(slackNotification);
+    when(reviewProjectRequestSlackThreadRepository.findByReviewProjectRequest_Id(45L))
+        .thenReturn(Optional.of(requestThread(45L, "channel-1", "171.002")));
+    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.003"));
+
+    slackNotificationOutboxService.deliverDueNotifications();
+
+    assertThat(sentMessages(1).get(0).getThreadTs()).isEqualTo("171.002");
+    verify(reviewProjectRequestSlackThreadRepository, never())
+        .save(any(ReviewProjectRequestSlackThread.class));
+  }
+
+  @Test
+  public void deliverCreatesRequestThreadWhenDestinationChanges() throws SlackClientException {
+    SlackNotification first = notification("channel-2", null, 46L, "Created");
+    SlackNotification second = notification("channel-2", null, 46L, "Assigned");
+    dueNotifications(first, second);
+    ReviewProjectRequestSlackThread requestThread = requestThread(46L, "old-channel", "171.004");
+    when(reviewProjectRequestSlackThreadRepository.findByReviewProjectRequest_Id(46L))
+        .thenReturn(Optional.of(requestThread));
+    when(reviewProjectRequestRepository.getReferenceById(46L))
+        .thenReturn(requestThread.getReviewProjectRequest());
+    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.005"));
+
+    slackNotificationOutboxService.deliverDueNotifications();
+
+    Message message = sentMessages(1).get(0);
+    assertThat(message.getThreadTs()).isNull();
+    assertThat(message.getText()).isEqualTo("Created\n\nAssigned");
+    verify(reviewProjectRequestSlackThreadRepository).save(requestThread);
+    assertThat(requestThread.getSlackChannelId()).isEqualTo("channel-2");
+    assertThat(requestThread.getThreadTs()).isEqualTo("171.005");
+  }
+
+  @Test
+  public void deliverSavesTranslationIncidentThread() throws SlackClientException {
+    SlackNotification rootPost = notification("channel-1", null, null, "Incident");
+    rootPost.setTranslationIncidentId(93L);
+    SlackNotification reply = notification("channel-2", "171.006", null, "Incident update");
+    reply.setTranslationIncidentId(94L);
+    dueNotifications(rootPost, reply);
+    when(slackClient.sendInstantMessage(any(Message.class)))
+        .thenReturn(chatResponse("171.007"), chatResponse("171.008"));
+
+    slackNotificationOutboxService.deliverDueNotifications();
+
+    verify(translationIncidentRepository).updateSlackThreadTs(93L, "171.007");
+    verify(translationIncidentRepository).updateSlackThreadTs(94L, "171.006");
+  }
+
+  @Test
+  public void deliverDoesNotCoalesceRootPostsOfTranslationIncidents() throws SlackClientException {
+    SlackNotification first = notification("channel-1", null, null, "Incident 1");
+    first.setTranslationIncidentId(95L);
+    SlackNotification second = notification("channel-1", null, null, "Incident 2");
+    second.setTranslationIncidentId(96L);
+    dueNotifications(first, second);
+    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.009"));
+
+    assertThat(slackNotificationOutboxService.deliverDueNotifications()).isEqualTo(1);
+
+    Message message = sentMessages(1).get(0);
+    assertThat(message.getText()).isEqualTo("Incident 1");
+    assertThat(message.getThreadTs()).isNull();
+    verify(translationIncidentRepository).updateSlackThreadTs(95L, "171.009");
+    verify(translationIncidentRepository, never()).updateSlackThreadTs(eq(96L), any());
+    assertThat(first.getStatus()).isEqualTo(SlackNotificationStatus.SENT);
+    assertThat(second.getStatus()).isEqualTo(SlackNotificationStatus.PENDING);
+    assertThat(second.getMessageTs()).isNull();
+  }
+
+  @Test
+  public void deliverSplitsLongCoalescedMessagesAndWaitsBetweenMessagesOfChannel()
+      throws SlackClientException {
+    slackNotificationOutboxService = newService(10);
+    SlackNotification first = notification("channel-1", null, 47L, "123456");
+    SlackNotification second = notification("channel-1", null, 47L, "789012");
+    dueNotifications(first, second);
+    when(reviewProjectRequestRepository.getReferenceById(47L))
+        .thenReturn(new ReviewProjectRequest());
+    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.006"));
+
+    assertThat(slackNotificationOutboxService.deliverDueNotifications()).isEqualTo(1);
+
+    assertThat(sentMessages(1).get(0).getText()).isEqualTo("123456");
+    assertThat(first.getStatus()).isEqualTo(SlackNotificationStatus.SENT);
+    assertThat(second.getStatus()).isEqualTo(SlackNotificationStatus.PENDING);
+    assertThat(second.getAttempts()).isZero();
+    assertThat(second.getNextAttemptDate()).isAfter(ZonedDateTime.now());
+  }
+
+  @Test
+  public void rateLimitedNotificationsAreRescheduledAfterRetryAfter() throws SlackClientException {
+    SlackNotification slackNotification = notification("channel-1", null, null, "Hello");
+    dueNotifications(slackNotification);
+    when(slackClient.sendInstantMessage(any(Message.class)))
+        .thenThrow(new SlackClientRateLimitedException("rate limited", Duration.ofSeconds(60)));
+
+    slackNotificationOutboxService.deliverDueNotifications();
+
+    assertThat(slackNotification.getStatus()).isEqualTo(SlackNotificationStatus.PENDING);
+    assertThat(slackNotification.getAttempts()).isZero();
+    assertThat(slackNotification.getNextAttemptDate()).isAfter(ZonedDateTime.now().plusSeconds(50));
+
+    SlackNotification next = notification("channel-1", null, null, "Next");
+    dueNotifications(next);
+    slackNotificationOutboxService.deliverDueNotifications();
+    verify(slackClient, times(1)).sendInstantMessage(any(Message.class));
+    assertThat(next.getStatus()).isEqualTo(SlackNotificationStatus.PENDING);
+  }
+
+  @Test
+  public void failedNotificationsAreRetriedWithBackoffUntilMaxAttempts()
+      throws SlackClientException {
+    SlackNotification retried = notification("channel-1", null, null, "Retried");
+    SlackNotification failed = notification("channel-2", null, null, "Failed");
+    failed.setAttempts(7);
+    dueNotifications(retried, failed);
+    when(slackClient.sendInstantMessage(any(Message.class)))
+        .thenThrow(new SlackClientException("Cannot post message in chat: internal_error"));
+
+    slackNotificationOutboxService.deliverDueNotifications();
+
+    assertThat(retried.getStatus()).isEqualTo(SlackNotificationStatus.PENDING);
+    assertThat(retried.getAttempts()).isEqualTo(1);
+    assertThat(retried.getLastError()).contains("internal_error");
+    assertThat(retried.getNextAttemptDate()).isAfter(ZonedDateTime.now().plusSeconds(20));
+    assertThat(failed.getStatus()).isEqualTo(SlackNotificationStatus.FAILED);
+    assertThat(failed.getAttempts()).isEqualTo(8);
+  }
+
+  @Test
+  public void unknownSlackClientFailsNotification() {
+    SlackNotification slackNotification = notification("channel-1", null, null, "Hello");
+    slackNotification.setSlackClientId("unknown");
+    dueNotifications(slackNotification);
+
+    slackNotificationOutboxService.deliverDueNotifications();
+
+    assertThat(slackNotification.getStatus()).isEqualTo(SlackNotificationStatus.FAILED);
+    assertThat(slackNotification.getLastError()).isEqualTo("Unknown Slack client: unknown");
+  }
+
+  @Test
+  public void duplicatesAreNotPosted() throws SlackClientException {
+    SlackNotification alreadySent = notification("channel-1", null, null, "Sent");
+    SlackNotification first = notification("channel-1", null, null, "Hello");
+    SlackNotification duplicate = notification("channel-1", null, null, "Hello");
+    duplicate.setIdempotencyKey(first.getIdempotencyKey());
+    dueNotifications(alreadySent, first, duplicate);
+    when(slackNotificationRepository.existsByIdempotencyKeyAndStatus(
+            alreadySent.getIdempotencyKey(), SlackNotificationStatus.SENT))
+        .thenReturn(true);
+    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.007"));
+
+    slackNotificationOutboxService.deliverDueNotifications();
+
+    assertThat(sentMessages(1).get(0).getText()).isEqualTo("Hello");
+    assertThat(List.of(alreadySent, first, duplicate))
+        .allSatisfy(n -> assertThat(n.getStatus()).isEqualTo(SlackNotificationStatus.SENT));
+  }
+
+  @Test
+  public void notClaimedNotificationsAreNotDelivered() throws SlackClientException {
+    SlackNotification slackNotification = notification("channel-1", null, null, "Hello");
+    dueNotifications(slackNotification);
+    when(slackNotificationRepository.claim(anyLong(), any(), anyCollection(), any(), any()))
+        .thenReturn(0);
+
+    assertThat(slackNotificationOutboxService.deliverDueNotifications()).isZero();
+    verify(slackClient, never()).sendInstantMessage(any(Message.class));
+  }
+
+  @Test
+  public void backoffIsExponentialAndCapped() {
+    assertThat(slackNotificationOutboxService.getBackoff(1)).isEqualTo(Duration.ofSeconds(30));
+    assertThat(slackNotificationOutboxService.getBackoff(3)).isEqualTo(Duration.ofMinutes(2));
+    assertThat(slackNotificationOutboxService.getBackoff(20)).isEqualTo(Duration.ofHours(1));
+  }
+
+  void dueNotifications(SlackNotification... slackNotifications) {
+    when(slackNotificationRepository.findByStatusInAndNextAttemptDateLessThanEqualOrderByIdAsc(
+            anyCollection(), any(), any()))
+        .thenReturn(Arrays.asList(slackNotifications));
+  }
+
+  List<Message> sentMessages(int count) throws SlackClientException {
+    ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+    verify(slackClient, times(count)).sendInstantMessage(captor.capture());
+    return captor.getAllValues();
+  }
+
+  SlackNotification notification(
+      String slackChannelId, String threadTs, Long reviewProjectRequestId, String text) {
+    SlackNotification slackNotification = new SlackNotification();
+    slackNotification.setId(nextId++);
+    slackNotification.setSlackClientId("client-1");
+    slackNotification.setSlackChannelId(slackChannelId);
+    slackNotification.setThreadTs(threadTs);
+    slackNotification.setReviewProjectRequestId(reviewProjectRequestId);
+    slackNotification.setText(text);
+    slackNotification.setIdempotencyKey("key-" + slackNotification.getId());
+    slackNotification.setStatus(SlackNotificationStatus.SENDING);
+    slackNotification.setNextAttemptDate(ZonedDateTime.now());
+    return slackNotification;
+  }
+
+  ReviewProjectRequestSlackThread requestThread(
+      Long reviewProjectRequestId, String slackChannelId, String threadTs) {
+    ReviewProjectRequest reviewProjectRequest = new ReviewProjectRequest();
+    reviewProjectRequest.setId(reviewProjectRequestId);
+    ReviewProjectRequestSlackThread thread = new ReviewProjectRequestSlackThread();
+    thread.setReviewProjectRequest(reviewProjectRequest);
+    thread.setSlackClientId("client-1");
+    thread.setSlackChannelId(slackChannelId);
+    thread.setThreadTs(threadTs);
+    return thread;
+  }
+
+  ChatPostMessageResponse chatResponse(String ts) {
+    ChatPostMessageResponse response = new ChatPostMessageResponse();
+    response.setOk(true);
+    response.setTs(ts);
+    return response;
+  }
+}
@@ -11,16 +11,13 @@ import com.box.l10n.mojito.entity.Team;
 import com.box.l10n.mojito.entity.review.ReviewProject;
 import com.box.l10n.mojito.entity.review.ReviewProjectAssignmentEventType;
 import com.box.l10n.mojito.entity.review.ReviewProjectRequest;
-import com.box.l10n.mojito.entity.review.ReviewProjectRequestSlackThread;
 import com.box.l10n.mojito.entity.security.user.User;
-import com.box.l10n.mojito.service.review.ReviewProjectRequestSlackThreadRepository;
+import com.box.l10n.mojito.service.slack.SlackNotificationOutboxService;
+import com.box.l10n.mojito.service.slack.SlackNotificationOutboxService.SlackNotificationMessage;
 import com.box.l10n.mojito.slack.SlackClient;
 import com.box.l10n.mojito.slack.SlackClients;
-import com.box.l10n.mojito.slack.request.Message;
-import com.box.l10n.mojito.slack.response.ChatPostMessageResponse;
 import com.box.l10n.mojito.utils.ServerConfig;
 import java.util.List;
-import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -30,8 +27,8 @@ public class TeamSlackNotificationServiceTest {
 
   private final TeamService teamService = Mockito.mock(TeamService.class);
   private final SlackClients slackClients = Mockito.mock(SlackClients.class);
-  private final ReviewProjectRequestSlackThreadRepository requestSlackThreadRepository =
-      Mockito.mock(ReviewProjectRequestSlackThreadRepository.class);
+  private final SlackNotificationOutboxService slackNotificationOutboxService =
+      Mockito.mock(SlackNotificationOutboxService.class);
   private final SlackClient slackClient = Mockito.mock(SlackClient.class);
   private final ServerConfig serverConfig = new ServerConfig();
 
@@ -44,13 +41,13 @@ public class TeamSlackNotificationServiceTest {
         new TeamSlackNotificationService(
             teamService,
             slackClients,
-            requestSlackThreadRepository,
+            slackNotificationOutboxService,
             serverConfig,
             "America/Los_Angeles");
   }
 
   @Test
-  public void createRequestNotificationStoresRootThread() throws Exception {
+  public void createRequestNotificationIsEnqueuedForRequestThread() {
     ReviewProjectRequest request = reviewProjectRequest(44L, "Payments launch");
     ReviewProject project = reviewProject(91L, request, team(7L), "fr-FR");
 
@@ -58,29 +55,20 @@ public class TeamSlackNotificationServiceTest {
         .thenReturn(new TeamService.TeamSlackSettings(true, "client-1", "channel-1"));
     when(teamService.getTeamSlackUserMappings(7L)).thenReturn(List.of());
     when(slackClients.getById("client-1")).thenReturn(slackClient);
-    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.001"));
-    when(requestSlackThreadRepository.findByReviewProjectRequest_Id(44L))
-        .thenReturn(Optional.empty());
 
     teamSlackNotificationService.sendReviewProjectCreateRequestNotification(
         request, List.of(project));
 
-    ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
-    verify(slackClient).sendInstantMessage(messageCaptor.capture());
-    assertThat(messageCaptor.getValue().getThreadTs()).isNull();
-
-    ArgumentCaptor<ReviewProjectRequestSlackThread> threadCaptor =
-        ArgumentCaptor.forClass(ReviewProjectRequestSlackThread.class);
-    verify(requestSlackThreadRepository).save(threadCaptor.capture());
-    assertThat(threadCaptor.getValue().getReviewProjectRequest()).isSameAs(request);
-    assertThat(threadCaptor.getValue().getSlackClientId()).isEqualTo("client-1");
-    assertThat(threadCaptor.getValue().getSlackChannelId()).isEqualTo("channel-1");
-    assertThat(threadCaptor.getValue().getThreadTs()).isEqualTo("171.001");
+    SlackNotificationMessage message = enqueuedMessage();
+    assertThat(message.slackClientId()).isEqualTo("client-1");
+    assertThat(message.slackChannelId()).isEqualTo("channel-1");
+    assertThat(message.threadTs()).isNull();
+    assertThat(message.reviewProjectRequestId()).isEqualTo(44L);
+    assertThat(message.text()).contains("Payments launch");
   }
 
   @Test
-  public void createRequestNotificationSummarizesDescriptionLocalesAndTranslators()
-      throws Exception {
+  public void createRequestNotificationSummarizesDescriptionLocalesAndTranslators() {
     ReviewProjectRequest request =
         reviewProjectRequest(
             49L,
@@ -97,23 +85,18 @@ public class TeamSlackNotificationServiceTest {
         .thenReturn(new TeamService.TeamSlackSettings(true, "client-1", "channel-1"));
     when(teamService.getTeamSlackUserMappings(7L)).thenReturn(List.of());
     when(slackClients.getById("client-1")).thenReturn(slackClient);
-    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.010"));
-    when(requestSlackThreadRepository.findByReviewProjectRequest_Id(49L))
-        .thenReturn(Optional.empty());
 
     teamSlackNotificationService.sendReviewProjectCreateRequestNotification(
         request, List.of(projectA, projectB, projectC));
 
-    ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
-    verify(slackClient).sendInstantMessage(messageCaptor.capture());
-    assertThat(messageCaptor.getValue().getText())
+    assertThat(enqueuedMessage().text())
         .contains("Description: Check wording in the checkout flow.")
         .contains("Locales (2): ca, fr-FR")
         .contains("Assigned Translators: translator_fr1 (fr-FR), translator_es2 (ca)");
   }
 
   @Test
-  public void createRequestNotificationShowsAutomationSourceAndTruncatedLocales() throws Exception {
+  public void createRequestNotificationShowsAutomationSourceAndTruncatedLocales() {
     ReviewProjectRequest request =
         reviewProjectRequest(
             50L, "Nightly web review", "Created by review automation Web nightly sweep (cron)");
@@ -132,120 +115,70 @@ public class TeamSlackNotificationServiceTest {
         .thenReturn(new TeamService.TeamSlackSettings(true, "client-1", "channel-1"));
     when(teamService.getTeamSlackUserMappings(7L)).thenReturn(List.of());
     when(slackClients.getById("client-1")).thenReturn(slackClient);
-    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.011"));
-    when(requestSlackThreadRepository.findByReviewProjectRequest_Id(50L))
-        .thenReturn(Optional.empty());
 
     teamSlackNotificationService.sendReviewProjectCreateRequestNotification(request, projects);
 
-    ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
-    verify(slackClient).sendInstantMessage(messageCaptor.capture());
-    assertThat(messageCaptor.getValue().getText())
+    assertThat(enqueuedMessage().text())
         .contains("Source: Automation — Web nightly sweep (cron)")
         .contains("Locales (7): am, bn, bs, ca, cs, da, +1 more")
         .doesNotContain("Description:");
   }
 
   @Test
-  public void assignmentNotificationRepliesInExistingRequestThread() throws Exception {
+  public void assignmentNotificationIsEnqueuedForRequestThread() {
     ReviewProjectRequest request = reviewProjectRequest(45L, "Catalog refresh");
     ReviewProject project = reviewProject(92L, request, team(7L), "ja-JP");
-    ReviewProjectRequestSlackThread requestThread =
-        requestThread(request, "client-1", "channel-1", "171.002");
 
     when(teamService.getTeamSlackSettings(7L))
         .thenReturn(new TeamService.TeamSlackSettings(true, "client-1", "channel-1"));
     when(teamService.getTeamSlackUserMappings(7L)).thenReturn(List.of());
     when(slackClients.getById("client-1")).thenReturn(slackClient);
-    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.003"));
-    when(requestSlackThreadRepository.findByReviewProjectRequest_Id(45L))
-        .thenReturn(Optional.of(requestThread));
 
     teamSlackNotificationService.sendReviewProjectAssignmentNotification(
         project, ReviewProjectAssignmentEventType.REASSIGNED, "Shift to APAC");
 
-    ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
-    verify(slackClient).sendInstantMessage(messageCaptor.capture());
-    assertThat(messageCaptor.getValue().getThreadTs()).isEqualTo("171.002");
-    verify(requestSlackThreadRepository, never()).save(any(ReviewProjectRequestSlackThread.class));
+    SlackNotificationMessage message = enqueuedMessage();
+    assertThat(message.slackChannelId()).isEqualTo("channel-1");
+    assertThat(message.reviewProjectRequestId()).isEqualTo(45L);
+    assertThat(message.text()).contains("Shift to APAC");
   }
 
   @Test
-  public void assignmentNotificationFallsBackToNewRootWhenDestinationChanges() throws Exception {
-    ReviewProjectRequest request = reviewProjectRequest(46L, "Mobile QA");
-    ReviewProject project = reviewProject(93L, request, team(7L), "de-DE");
-    ReviewProjectRequestSlackThread requestThread =
-        requestThread(request, "client-1", "old-channel", "171.004");
-
-    when(teamService.getTeamSlackSettings(7L))
-        .thenReturn(new TeamService.TeamSlackSettings(true, "client-1", "channel-2"));
-    when(teamService.getTeamSlackUserMappings(7L)).thenReturn(List.of());
-    when(slackClients.getById("client-1")).thenReturn(slackClient);
-    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.005"));
-    when(requestSlackThreadRepository.findByReviewProjectRequest_Id(46L))
-        .thenReturn(Optional.of(requestThread), Optional.of(requestThread));
-
-    teamSlackNotificationService.sendReviewProjectAssignmentNotification(
-        project, ReviewProjectAssignmentEventType.REASSIGNED, null);
-
-    ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
-    verify(slackClient).sendInstantMessage(messageCaptor.capture());
-    assertThat(messageCaptor.getValue().getThreadTs()).isNull();
-
-    ArgumentCaptor<ReviewProjectRequestSlackThread> threadCaptor =
-        ArgumentCaptor.forClass(ReviewProjectRequestSlackThread.class);
-    verify(requestSlackThreadRepository).save(threadCaptor.capture());
-    assertThat(threadCaptor.getValue().getSlackChannelId()).isEqualTo("channel-2");
-    assertThat(threadCaptor.getValue().getThreadTs()).isEqualTo("171.005");
-  }
-
-  @Test
-  public void requestAssignmentNotificationRepliesInExistingRequestThread() throws Exception {
+  public void requestAssignmentNotificationIsEnqueuedForRequestThread() {
     ReviewProjectRequest request = reviewProjectRequest(47L, "Web refresh");
     ReviewProject projectA = reviewProject(94L, request, team(7L), "fr-FR");
     ReviewProject projectB = reviewProject(95L, request, team(7L), "fr-FR");
-    ReviewProjectRequestSlackThread requestThread =
-        requestThread(request, "client-1", "channel-1", "171.006");
 
     when(teamService.getTeamSlackSettings(7L))
         .thenReturn(new TeamService.TeamSlackSettings(true, "client-1", "channel-1"));
     when(teamService.getTeamSlackUserMappings(7L)).thenReturn(List.of());
     when(slackClients.getById("client-1")).thenReturn(slackClient);
-    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.007"));
-    when(requestSlackThreadRepository.findByReviewProjectRequest_Id(47L))
-        .thenReturn(Optional.of(requestThread));
 
     teamSlackNotificationService.sendReviewProjectRequestAssignmentNotification(
         request, List.of(projectA, projectB));
 
-    ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
-    verify(slackClient).sendInstantMessage(messageCaptor.capture());
-    assertThat(messageCaptor.getValue().getThreadTs()).isEqualTo("171.006");
-    verify(requestSlackThreadRepository, never()).save(any(ReviewProjectRequestSlackThread.class));
+    assertThat(enqueuedMessage().reviewProjectRequestId()).isEqualTo(47L);
   }
 
   @Test
-  public void createRequestNotificationRepliesInExistingRequestThread() throws Exception {
+  public void notificationIsNotEnqueuedForUnknownSlackClient() {
     ReviewProjectRequest request = reviewProjectRequest(48L, "Catalog refresh");
     ReviewProject project = reviewProject(96L, request, team(7L), "ja-JP");
-    ReviewProjectRequestSlackThread requestThread =
-        requestThread(request, "client-1", "channel-1", "171.008");
 
     when(teamService.getTeamSlackSettings(7L))
-        .thenReturn(new TeamService.TeamSlackSettings(true, "client-1", "channel-1"));
-    when(teamService.getTeamSlackUserMappings(7L)).thenReturn(List.of());
-    when(slackClients.getById("client-1")).thenReturn(slackClient);
-    when(slackClient.sendInstantMessage(any(Message.class))).thenReturn(chatResponse("171.009"));
-    when(requestSlackThreadRepository.findByReviewProjectRequest_Id(48L))
-        .thenReturn(Optional.of(requestThread));
+        .thenReturn(new TeamService.TeamSlackSettings(true, "unknown-client", "channel-1"));
 
     teamSlackNotificationService.sendReviewProjectCreateRequestNotification(
         request, List.of(project));
 
-    ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
-    verify(slackClient).sendInstantMessage(messageCaptor.capture());
-    assertThat(messageCaptor.getValue().getThreadTs()).isEqualTo("171.008");
-    verify(requestSlackThreadRepository, never()).save(any(ReviewProjectRequestSlackThread.class));
+    verify(slackNotificationOutboxService, never()).enqueue(any(SlackNotificationMessage.class));
+  }
+
+  private SlackNotificationMessage enqueuedMessage() {
+    ArgumentCaptor<SlackNotificationMessage> messageCaptor =
+        ArgumentCaptor.forClass(SlackNotificationMessage.class);
+    verify(slackNotificationOutboxService).enqueue(messageCaptor.capture());
+    return messageCaptor.getValue();
   }
 
   private ReviewProjectRequest reviewProjectRequest(Long id, String name) {
@@ -285,21 +218,4 @@ public class TeamSlackNotificationServiceTest {
     user.setUsername(username);
     return user;
   }
-
-  private ReviewProjectRequestSlackThread requestThread(
-      ReviewProjectRequest request, String clientId, String channelId, String threadTs) {
-    ReviewProjectRequestSlackThread thread = new ReviewProjectRequestSlackThread();
-    thread.setReviewProjectRequest(request);
-    thread.setSlackClientId(clientId);
-    thread.setSlackChannelId(channelId);
-    thread.setThreadTs(threadTs);
-    return thread;
-  }
-
-  private ChatPostMessageResponse chatResponse(String ts) {
-    ChatPostMessageResponse response = new ChatPostMessageResponse();
-    response.setOk(true);
-    response.setTs(ts);
-    return response;
-  }
 }
@@ -51,7 +51,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Function;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Lists;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -4858,6 +4860,37 @@ public class TMServiceTest extends ServiceTestBase {
     assertFalse(iterator.hasNext());
   }
 
+  @Test
+  public void testExportAssetAsXLIFFToStreamWithPaging() throws Exception {
+    createTestData();
+
+    String targetLocaleBcp47Tag = "fr-FR";
+    Locale targetLocale = localeService.findByBcp47Tag(targetLocaleBcp47Tag);
+
+    for (int i = 0; i < 5; i++) {
+      TMTextUnit tmTextUnit =
+          tmService.addTMTextUnit(tmId, assetId, "paged_" + i, "Paged " + i, "comment");
+      tmService.addCurrentTMTextUnitVariant(tmTextUnit.getId(), targetLocale.getId(), "Pagé " + i);
+    }
+
+    String expected = tmService.exportAssetAsXLIFF(assetId, targetLocaleBcp47Tag);
+
+    int exportPageSize = tmService.exportPageSize;
+    try {
+      tmService.exportPageSize = 2;
+      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      tmService.exportAssetAsXLIFF(assetId, targetLocaleBcp47Tag, byteArrayOutputStream);
+
+      String actual = byteArrayOutputStream.toString(StandardCharsets.UTF_8);
+      assertEquals(expected, actual);
+      for (int i = 0; i < 5; i++) {
+        assertTrue(actual.contains("resname=\"paged_" + i + "\""));
+      }
+    } finally {
+      tmService.exportPageSize = exportPageSize;
+    }
+  }
+
   @Test
   public void testExportAssetAsXLIFFAsync() throws Exception {
     createTestData();
@@ -4873,7 +4906,7 @@ public class TMServiceTest extends ServiceTestBase {
             + "</xliff>\n";
 
     TMXliff tmXliff = tmService.createTMXliff(assetId, "en", null, null);
-    PollableFuture<String> exportResult =
+    PollableFuture<Void> exportResult =
         tmService.exportAssetAsXLIFFAsync(
             tmXliff.getId(), assetId, "en", PollableTask.INJECT_CURRENT_TASK);
 
@@ -4883,9 +4916,6 @@ public class TMServiceTest extends ServiceTestBase {
       throw new RuntimeException(e);
     }
 
-    String exportAssetAsXLIFF = exportResult.get();
-    assertEquals(expected, exportAssetAsXLIFF);
-
     PollableTask pollableTask =
         pollableTaskService.getPollableTask(exportResult.getPollableTask().getId());
     tmXliff = tmXliffRepository.findByPollableTask(pollableTask);
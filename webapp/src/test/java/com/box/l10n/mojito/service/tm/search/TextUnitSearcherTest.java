@@ -407,6 +407,26 @@ public class TextUnitSearcherTest extends ServiceTestBase {
     assertFalse(iterator.hasNext());
   }
 
+  @Transactional
+  @Test
+  public void testTmTextUnitIdGreaterThan() {
+
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+
+    TextUnitSearcherParameters textUnitSearcherParameters = new TextUnitSearcherParameters();
+    textUnitSearcherParameters.setRepositoryIds(tmTestData.repository.getId());
+    textUnitSearcherParameters.setForRootLocale(true);
+    textUnitSearcherParameters.setRootLocaleExcluded(false);
+    textUnitSearcherParameters.setOrderByTextUnitID(true);
+    textUnitSearcherParameters.setTmTextUnitIdGreaterThan(tmTestData.addTMTextUnit1.getId());
+    textUnitSearcherParameters.setLimit(1);
+
+    List<TextUnitDTO> textUnitDTOs = textUnitSearcher.search(textUnitSearcherParameters);
+
+    assertEquals(1, textUnitDTOs.size());
+    assertEquals(tmTestData.addTMTextUnit2.getId(), textUnitDTOs.get(0).getTmTextUnitId());
+  }
+
   @Transactional(noRollbackFor = {Throwable.class})
   @Test
   public void testUntranslatedOrTranslationNeeded() {
@@ -686,6 +706,33 @@ public class TextUnitSearcherTest extends ServiceTestBase {
     assertEquals(numberOfWords, textUnitAndWordCount.getTextUnitWordCount());
   }
 
+  @Transactional
+  @Test
+  public void testCountTargetsBySources() {
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+
+    TextUnitSearcherParameters textUnitSearcherParameters = new TextUnitSearcherParameters();
+    textUnitSearcherParameters.setRepositoryIds(tmTestData.repository.getId());
+    textUnitSearcherParameters.setLocaleTags(Arrays.asList("fr-FR", "fr-CA", "ko-KR"));
+    textUnitSearcherParameters.setStatusFilter(StatusFilter.TRANSLATED);
+
+    List<TextUnitTargetCount> targetCounts =
+        textUnitSearcher.countTargetsBySources(
+            textUnitSearcherParameters, Arrays.asList("Content2", "Content3", "No match"));
+
+    assertThat(targetCounts)
+        .extracting(
+            TextUnitTargetCount::source,
+            TextUnitTargetCount::localeTag,
+            TextUnitTargetCount::target,
+            TextUnitTargetCount::count,
+            TextUnitTargetCount::minTmTextUnitId)
+        .containsExactlyInAnyOrder(
+            tuple("Content2", "fr-CA", "Content2 fr-CA", 1L, tmTestData.addTMTextUnit2.getId()),
+            tuple("Content3", "fr-FR", "Content3 fr-FR", 1L, tmTestData.addTMTextUnit3.getId()),
+            tuple("Content3", "fr-CA", "Content3 fr-CA", 1L, tmTestData.addTMTextUnit3.getId()));
+  }
+
   @Test
   public void testCreatedDate() throws Exception {
 
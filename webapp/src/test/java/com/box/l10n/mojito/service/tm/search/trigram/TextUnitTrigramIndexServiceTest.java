@@ -0,0 +1,267 @@
+package com.box.l10n.mojito.service.tm.search.trigram;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.box.l10n.mojito.entity.TMTextUnit;
+import com.box.l10n.mojito.entity.TextSearchTrigram;
+import com.box.l10n.mojito.entity.TextSearchTrigramWatermark;
+import com.box.l10n.mojito.service.assetExtraction.ServiceTestBase;
+import com.box.l10n.mojito.service.tm.TMService;
+import com.box.l10n.mojito.service.tm.TMTestData;
+import com.box.l10n.mojito.service.tm.search.SearchType;
+import com.box.l10n.mojito.service.tm.search.TextUnitDTO;
+import com.box.l10n.mojito.service.tm.search.TextUnitSearcher;
+import com.box.l10n.mojito.service.tm.search.TextUnitSearcherParameters;
+import com.box.l10n.mojito.service.tm.search.TextUnitSearcherParametersForTesting;
+import com.box.l10n.mojito.test.TestIdWatcher;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+public class TextUnitTrigramIndexServiceTest extends ServiceTestBase {
+
+  @Autowired TextUnitTrigramIndexService textUnitTrigramIndexService;
+
+  @Autowired TextUnitSearcher textUnitSearcher;
+
+  @Autowired TMService tmService;
+
+  @Autowired JdbcTemplate jdbcTemplate;
+
+  @Autowired TextSearchTrigramWatermarkRepository textSearchTrigramWatermarkRepository;
+
+  @Rule public TestIdWatcher testIdWatcher = new TestIdWatcher();
+
+  TextUnitTrigramIndexService target;
+
+  @Before
+  public void before() {
+    target = AopTestUtils.getUltimateTargetObject(textUnitTrigramIndexService);
+    target.enabled = true;
+  }
+
+  @After
+  public void after() {
+    target.enabled = false;
+    target.batchSize = 5000;
+    target.maxPostings = 50000;
+  }
+
+  @Transactional
+  @Test
+  public void testIndexNextBatchMovesWatermarkUpToMaxEntityId() {
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+    indexAll(TextSearchTrigram.Field.SOURCE);
+    long maxEntityId = textUnitTrigramIndexService.getMaxEntityId(TextSearchTrigram.Field.SOURCE);
+
+    assertThat(textUnitTrigramIndexService.getLastIndexedId(TextSearchTrigram.Field.SOURCE))
+        .isEqualTo(maxEntityId);
+    assertThat(countPostings(TextSearchTrigram.Field.SOURCE, tmTestData.addTMTextUnit1.getId()))
+        .isEqualTo(Trigrams.getTrigramHashes(tmTestData.addTMTextUnit1.getContent()).size());
+    assertThat(
+            textUnitTrigramIndexService.indexNextBatch(TextSearchTrigram.Field.SOURCE, maxEntityId))
+        .isZero();
+  }
+
+  @Transactional
+  @Test
+  public void testIndexNextBatchIndexesInBatchesAfterWatermark() {
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+    indexAll(TextSearchTrigram.Field.SOURCE);
+    TMTextUnit first = addTextUnit(tmTestData, "first", "First batch content");
+    TMTextUnit second = addTextUnit(tmTestData, "second", "Second batch content");
+    TMTextUnit third = addTextUnit(tmTestData, "third", "Third batch content");
+    target.batchSize = 2;
+
+    assertThat(
+            textUnitTrigramIndexService.indexNextBatch(
+                TextSearchTrigram.Field.SOURCE, third.getId()))
+        .isEqualTo(2);
+    assertThat(textUnitTrigramIndexService.getLastIndexedId(TextSearchTrigram.Field.SOURCE))
+        .isEqualTo(second.getId());
+    assertThat(countPostings(TextSearchTrigram.Field.SOURCE, first.getId())).isPositive();
+    assertThat(countPostings(TextSearchTrigram.Field.SOURCE, third.getId())).isZero();
+
+    assertThat(
+            textUnitTrigramIndexService.indexNextBatch(
+                TextSearchTrigram.Field.SOURCE, third.getId()))
+        .isEqualTo(1);
+    assertThat(textUnitTrigramIndexService.getLastIndexedId(TextSearchTrigram.Field.SOURCE))
+        .isEqualTo(third.getId());
+    assertThat(countPostings(TextSearchTrigram.Field.SOURCE, third.getId())).isPositive();
+  }
+
+  @Transactional
+  @Test
+  public void testIndexNextBatchDoesNotGoPastMaxEntityId() {
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+    indexAll(TextSearchTrigram.Field.SOURCE);
+    TMTextUnit committed = addTextUnit(tmTestData, "committed", "Committed content");
+    TMTextUnit pending = addTextUnit(tmTestData, "pending", "Pending content");
+
+    textUnitTrigramIndexService.indexNextBatch(TextSearchTrigram.Field.SOURCE, committed.getId());
+
+    assertThat(textUnitTrigramIndexService.getLastIndexedId(TextSearchTrigram.Field.SOURCE))
+        .isEqualTo(committed.getId());
+    assertThat(countPostings(TextSearchTrigram.Field.SOURCE, pending.getId())).isZero();
+  }
+
+  @Transactional
+  @Test
+  public void testIndexNextBatchFillsGapsOnceEntitiesAreVisible() {
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+    indexAll(TextSearchTrigram.Field.SOURCE);
+    TMTextUnit committedLate = addTextUnit(tmTestData, "committedLate", "Late trigramneedle");
+
+    // as if the watermark passed the id before the transaction that created it was committed
+    TextSearchTrigramWatermark watermark =
+        textSearchTrigramWatermarkRepository.findByField(TextSearchTrigram.Field.SOURCE).get();
+    watermark.setLastIndexedId(committedLate.getId());
+    textSearchTrigramWatermarkRepository.save(watermark);
+    jdbcTemplate.update(
+        "insert into text_search_trigram_gap (field, entity_id, created_date) values (?, ?, ?)",
+        TextSearchTrigram.Field.SOURCE.name(),
+        committedLate.getId(),
+        Timestamp.from(Instant.now()));
+
+    assertThat(
+            textUnitTrigramIndexService
+                .getCandidates(TextSearchTrigram.Field.SOURCE, SearchType.CONTAINS, "trigramneedle")
+                .map(TrigramCandidates::entityIds)
+                .orElseThrow())
+        .contains(committedLate.getId());
+
+    assertThat(
+            textUnitTrigramIndexService.indexNextBatch(
+                TextSearchTrigram.Field.SOURCE, committedLate.getId()))
+        .isEqualTo(1);
+    assertThat(countPostings(TextSearchTrigram.Field.SOURCE, committedLate.getId())).isPositive();
+    assertThat(countGaps(TextSearchTrigram.Field.SOURCE)).isZero();
+  }
+
+  @Test
+  public void testGetGapIdsReturnsIdsWithoutEntity() {
+    assertThat(
+            textUnitTrigramIndexService.getGapIds(
+                10,
+                15,
+                List.of(
+                    new TextUnitTrigramIndexService.EntityText(11, "a"),
+                    new TextUnitTrigramIndexService.EntityText(13, "b"))))
+        .containsExactly(12L, 14L, 15L);
+  }
+
+  @Transactional
+  @Test
+  public void testGetCandidatesReturnsIndexedMatches() {
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+    TMTextUnit match = addTextUnit(tmTestData, "match", "A trigramneedle in the source");
+    addTextUnit(tmTestData, "other", "Something unrelated");
+    indexAll(TextSearchTrigram.Field.SOURCE);
+
+    Optional<TrigramCandidates> candidates =
+        textUnitTrigramIndexService.getCandidates(
+            TextSearchTrigram.Field.SOURCE, SearchType.CONTAINS, "trigramneedle");
+
+    assertThat(candidates).isPresent();
+    assertThat(candidates.get().entityIds()).containsExactly(match.getId());
+    assertThat(candidates.get().lastIndexedId())
+        .isEqualTo(textUnitTrigramIndexService.getLastIndexedId(TextSearchTrigram.Field.SOURCE));
+  }
+
+  @Transactional
+  @Test
+  public void testGetCandidatesSkipsCommonTrigrams() {
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+    addTextUnit(tmTestData, "common1", "A trigramneedle in the source");
+    addTextUnit(tmTestData, "common2", "Another trigramneedle in the source");
+    indexAll(TextSearchTrigram.Field.SOURCE);
+    target.maxPostings = 1;
+
+    assertThat(
+            textUnitTrigramIndexService.getCandidates(
+                TextSearchTrigram.Field.SOURCE, SearchType.CONTAINS, "trigramneedle"))
+        .isEmpty();
+  }
+
+  @Transactional
+  @Test
+  public void testSearchWithPrefilterKeepsEntitiesNotIndexedYet() {
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+    TMTextUnit indexed = addTextUnit(tmTestData, "indexed", "Indexed trigramneedle source");
+    TMTextUnit notMatching = addTextUnit(tmTestData, "notMatching", "Indexed other source");
+    indexAll(TextSearchTrigram.Field.SOURCE);
+    TMTextUnit notIndexedYet =
+        addTextUnit(tmTestData, "notIndexedYet", "Not indexed yet trigramneedle source");
+
+    List<Long> tmTextUnitIds =
+        searchSource(tmTestData, "trigramneedle").stream()
+            .map(TextUnitDTO::getTmTextUnitId)
+            .distinct()
+            .toList();
+
+    assertThat(tmTextUnitIds)
+        .containsExactlyInAnyOrder(indexed.getId(), notIndexedYet.getId())
+        .doesNotContain(notMatching.getId());
+  }
+
+  @Transactional
+  @Test
+  public void testGetCandidatesFoldsCaseAndAccents() {
+    TMTestData tmTestData = new TMTestData(testIdWatcher);
+    TMTextUnit accented = addTextUnit(tmTestData, "accented", "Un trigrammé spécial");
+    indexAll(TextSearchTrigram.Field.SOURCE);
+
+    assertThat(
+            textUnitTrigramIndexService
+                .getCandidates(TextSearchTrigram.Field.SOURCE, SearchType.CONTAINS, "TRIGRAMME")
+                .map(TrigramCandidates::entityIds)
+                .orElseThrow())
+        .contains(accented.getId());
+  }
+
+  TMTextUnit addTextUnit(TMTestData tmTestData, String name, String content) {
+    return tmService.addTMTextUnit(
+        tmTestData.tm.getId(),
+        tmTestData.asset.getId(),
+        testIdWatcher.getEntityName(name),
+        content,
+        "Comment");
+  }
+
+  void indexAll(TextSearchTrigram.Field field) {
+    long maxEntityId = textUnitTrigramIndexService.getMaxEntityId(field);
+    while (textUnitTrigramIndexService.indexNextBatch(field, maxEntityId) > 0) {}
+  }
+
+  long countPostings(TextSearchTrigram.Field field, Long entityId) {
+    return jdbcTemplate.queryForObject(
+        "select count(*) from text_search_trigram where field = ? and entity_id = ?",
+        Long.class,
+        field.name(),
+        entityId);
+  }
+
+  long countGaps(TextSearchTrigram.Field field) {
+    return jdbcTemplate.queryForObject(
+        "select count(*) from text_search_trigram_gap where field = ?", Long.class, field.name());
+  }
+
+  List<TextUnitDTO> searchSource(TMTestData tmTestData, String value) {
+    TextUnitSearcherParameters textUnitSearcherParameters =
+        new TextUnitSearcherParametersForTesting();
+    textUnitSearcherParameters.setRepositoryIds(tmTestData.repository.getId());
+    textUnitSearcherParameters.setSource(value);
+    textUnitSearcherParameters.setSearchType(SearchType.CONTAINS);
+    return textUnitSearcher.search(textUnitSearcherParameters);
+  }
+}
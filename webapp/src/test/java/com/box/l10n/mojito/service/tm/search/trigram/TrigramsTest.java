@@ -0,0 +1,91 @@
+package com.box.l10n.mojito.service.tm.search.trigram;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class TrigramsTest {
+
+  @Test
+  public void getTrigramHashesFoldsCaseAndAccents() {
+    assertThat(Trigrams.getTrigramHashes("Héllo")).isEqualTo(Trigrams.getTrigramHashes("hello"));
+    assertThat(Trigrams.getTrigramHashes("hello")).hasSize(3);
+  }
+
+  @Test
+  public void getTrigramHashesTooShort() {
+    assertThat(Trigrams.getTrigramHashes("ab")).isEmpty();
+    assertThat(Trigrams.getTrigramHashes(null)).isEmpty();
+  }
+
+  @Test
+  public void getTrigramHashesForContainsIsSubsetOfText() {
+    Set<Integer> text = Trigrams.getTrigramHashes("The quick brown fox");
+    assertThat(text).containsAll(Trigrams.getTrigramHashesForContains("QUICK bro"));
+  }
+
+  @Test
+  public void getTrigramHashesForContainsEscape() {
+    // "\b" is an escaped "b" in the LIKE pattern, so "a\bc" matches "abc"
+    assertThat(Trigrams.getTrigramHashesForContains("a\\bc"))
+        .isEqualTo(Trigrams.getTrigramHashes("abc"));
+    assertThat(Trigrams.getTrigramHashesForContains("50%_off"))
+        .isEqualTo(Trigrams.getTrigramHashes("50%_off"));
+  }
+
+  @Test
+  public void getTrigramHashesForLike() {
+    Set<Integer> expected = Trigrams.getTrigramHashes("abc");
+    expected.addAll(Trigrams.getTrigramHashes("defg"));
+    assertThat(Trigrams.getTrigramHashesForLike("%abc_defg%xy")).isEqualTo(expected);
+  }
+
+  @Test
+  public void getRequiredRegexLiterals() {
+    assertThat(Trigrams.getRequiredRegexLiterals("^hello.*world$"))
+        .isEqualTo(List.of("hello", "world"));
+    assertThat(Trigrams.getRequiredRegexLiterals("colou?r")).isEqualTo(List.of("colo", "r"));
+    assertThat(Trigrams.getRequiredRegexLiterals("ab+cd")).isEqualTo(List.of("ab", "cd"));
+    assertThat(Trigrams.getRequiredRegexLiterals("abc(def)ghi")).isEqualTo(List.of("abc", "ghi"));
+    assertThat(Trigrams.getRequiredRegexLiterals("a\\.b\\s+cd")).isEqualTo(List.of("a.b", "cd"));
+  }
+
+  @Test
+  public void getRequiredRegexLiteralsCharacterClasses() {
+    assertThat(Trigrams.getRequiredRegexLiterals("abc[)]def")).isEqualTo(List.of("abc", "def"));
+    assertThat(Trigrams.getRequiredRegexLiterals("abc[]xyz]def")).isEqualTo(List.of("abc", "def"));
+    assertThat(Trigrams.getRequiredRegexLiterals("abc[^a-z[0-9]]def"))
+        .isEqualTo(List.of("abc", "def"));
+  }
+
+  @Test
+  public void getRequiredRegexLiteralsEscapeArguments() {
+    assertThat(Trigrams.getRequiredRegexLiterals("abc\\x41 def")).isEqualTo(List.of("abc", " def"));
+    assertThat(Trigrams.getRequiredRegexLiterals("abc\\p{Latin}def"))
+        .isEqualTo(List.of("abc", "def"));
+  }
+
+  @Test
+  public void getRequiredRegexLiteralsQuantifiers() {
+    assertThat(Trigrams.getRequiredRegexLiterals("x{1000}")).isEmpty();
+    assertThat(Trigrams.getRequiredRegexLiterals("hello{2,}")).isEqualTo(List.of("hell"));
+    assertThat(Trigrams.getRequiredRegexLiterals("hello{2,300}")).isEqualTo(List.of("hell"));
+    assertThat(Trigrams.getRequiredRegexLiterals("abc{2,3}?def")).isEqualTo(List.of("ab", "def"));
+    assertThat(Trigrams.getRequiredRegexLiterals("(ab){123}cde")).isEqualTo(List.of("cde"));
+  }
+
+  @Test
+  public void getTrigramHashesForRegexWithQuantifierMatchesRepeatedText() {
+    assertThat(Trigrams.getTrigramHashes("x".repeat(1000)))
+        .containsAll(Trigrams.getTrigramHashesForRegex("x{1000}"));
+    assertThat(Trigrams.getTrigramHashes("hellooo"))
+        .containsAll(Trigrams.getTrigramHashesForRegex("hello{2,300}"));
+  }
+
+  @Test
+  public void getTrigramHashesForRegexWithAlternation() {
+    assertThat(Trigrams.getTrigramHashesForRegex("hello|world")).isEmpty();
+  }
+}